@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+-- For app2app authentication run the following queries against the openbank_openbankingdb
+-- Expiry time of the device verification token is stored in unix time (milliseconds).
+
+CREATE TABLE OB_APP2APP_JTI (
+  JTI           VARCHAR(255) NOT NULL,
+  EXPIRY_TIME   NUMBER NOT NULL,
+  PRIMARY KEY (JTI)
+);
+
+CREATE INDEX IDX_OB_APP2APP_JTI_EXPIRY ON OB_APP2APP_JTI (EXPIRY_TIME);
@@ -34,6 +34,8 @@ CREATE TABLE IF NOT EXISTS OB_CONSENT (
   PRIMARY KEY (CONSENT_ID)
 );
 
+CREATE INDEX IF NOT EXISTS IDX_OB_CONSENT_UPDATED_TIME ON OB_CONSENT (UPDATED_TIME, CONSENT_ID);
+
 CREATE TABLE IF NOT EXISTS OB_CONSENT_AUTH_RESOURCE (
   AUTH_ID           VARCHAR(255) NOT NULL,
   CONSENT_ID        VARCHAR(255) NOT NULL,
@@ -82,6 +84,16 @@ CREATE TABLE IF NOT EXISTS OB_CONSENT_ATTRIBUTE (
   CONSTRAINT FK_OB_CONSENT_ATTRIBUTE FOREIGN KEY (CONSENT_ID) REFERENCES OB_CONSENT (CONSENT_ID)
 );
 
+CREATE TABLE IF NOT EXISTS OB_CONSENT_IDEMPOTENCY_KEY (
+  CLIENT_ID         VARCHAR(255) NOT NULL,
+  IDEMPOTENCY_KEY   VARCHAR(255) NOT NULL,
+  REQUEST_PATH      VARCHAR(255) NOT NULL,
+  CONSENT_ID        VARCHAR(255) NOT NULL,
+  CREATED_TIME      BIGINT NOT NULL,
+  PRIMARY KEY(CLIENT_ID, IDEMPOTENCY_KEY, REQUEST_PATH),
+  CONSTRAINT FK_OB_CONSENT_IDEMPOTENCY_KEY FOREIGN KEY (CONSENT_ID) REFERENCES OB_CONSENT (CONSENT_ID)
+);
+
 CREATE TABLE IF NOT EXISTS OB_THROTTLE_DATA (
   THROTTLE_GROUP VARCHAR(100) NOT NULL,
   THROTTLE_PARAM VARCHAR(100) NOT NULL,
@@ -35,6 +35,8 @@ CREATE TABLE OB_CONSENT (
   PRIMARY KEY (CONSENT_ID)
 );
 
+CREATE INDEX IDX_OB_CONSENT_UPDATED_TIME ON OB_CONSENT (UPDATED_TIME, CONSENT_ID);
+
 CREATE TABLE OB_CONSENT_AUTH_RESOURCE (
   AUTH_ID           VARCHAR(255) NOT NULL,
   CONSENT_ID        VARCHAR(255) NOT NULL,
@@ -46,6 +48,8 @@ CREATE TABLE OB_CONSENT_AUTH_RESOURCE (
   CONSTRAINT FK_ID_OB_CONSENT_AUTH_RESOURCE FOREIGN KEY (CONSENT_ID) REFERENCES OB_CONSENT (CONSENT_ID)
 );
 
+CREATE INDEX IDX_OB_CONSENT_AUTH_CONSENT_ID ON OB_CONSENT_AUTH_RESOURCE (CONSENT_ID);
+
 CREATE TABLE OB_CONSENT_MAPPING (
   MAPPING_ID        VARCHAR(255) NOT NULL,
   AUTH_ID           VARCHAR(255) NOT NULL,
@@ -56,6 +60,8 @@ CREATE TABLE OB_CONSENT_MAPPING (
   CONSTRAINT FK_OB_CONSENT_MAPPING FOREIGN KEY (AUTH_ID) REFERENCES OB_CONSENT_AUTH_RESOURCE (AUTH_ID)
 );
 
+CREATE INDEX IDX_OB_CONSENT_MAPPING_AUTH_ID ON OB_CONSENT_MAPPING (AUTH_ID);
+
 CREATE TABLE OB_CONSENT_STATUS_AUDIT (
   STATUS_AUDIT_ID   VARCHAR(255) NOT NULL,
   CONSENT_ID        VARCHAR(255) NOT NULL,
@@ -83,6 +89,16 @@ CREATE TABLE OB_CONSENT_ATTRIBUTE (
   CONSTRAINT FK_OB_CONSENT_ATTRIBUTE FOREIGN KEY (CONSENT_ID) REFERENCES OB_CONSENT (CONSENT_ID) ON DELETE CASCADE
 );
 
+CREATE TABLE OB_CONSENT_IDEMPOTENCY_KEY (
+  CLIENT_ID         VARCHAR(255) NOT NULL,
+  IDEMPOTENCY_KEY   VARCHAR(255) NOT NULL,
+  REQUEST_PATH      VARCHAR(255) NOT NULL,
+  CONSENT_ID        VARCHAR(255) NOT NULL,
+  CREATED_TIME      BIGINT NOT NULL,
+  PRIMARY KEY(CLIENT_ID, IDEMPOTENCY_KEY, REQUEST_PATH),
+  CONSTRAINT FK_OB_CONSENT_IDEMPOTENCY_KEY FOREIGN KEY (CONSENT_ID) REFERENCES OB_CONSENT (CONSENT_ID) ON DELETE CASCADE
+);
+
 CREATE TABLE OB_THROTTLE_DATA (
   THROTTLE_GROUP VARCHAR(100) NOT NULL,
   THROTTLE_PARAM VARCHAR(100) NOT NULL,
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.account.metadata.service.cache;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache of the account metadata of account-id and user-id combinations.
+ *
+ * Entries are invalidated when the metadata of the account is stored or removed through the account metadata
+ * service of this node, and expire after the configured time so that changes made through other nodes are
+ * picked up. A load which overlaps with an invalidation is not cached, since it may have read the metadata
+ * before the change was committed.
+ */
+public class AccountMetadataCache {
+
+    private static final Log log = LogFactory.getLog(AccountMetadataCache.class);
+    private static volatile AccountMetadataCache instance;
+
+    private final boolean enabled;
+    private final long expiryMillis;
+    private final int maxEntries;
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Generated(message = "Excluding from code coverage since it reads the open banking configurations")
+    private AccountMetadataCache() {
+
+        this(OpenBankingConfigParser.getInstance().isAccountMetadataCacheEnabled(),
+                TimeUnit.SECONDS.toMillis(OpenBankingConfigParser.getInstance().getAccountMetadataCacheExpiry()),
+                OpenBankingConfigParser.getInstance().getAccountMetadataCacheMaxEntries());
+    }
+
+    /**
+     * Initialize the account metadata cache.
+     *
+     * @param enabled      whether the account metadata is cached
+     * @param expiryMillis time an entry is kept in the cache
+     * @param maxEntries   maximum number of entries in the cache
+     */
+    protected AccountMetadataCache(boolean enabled, long expiryMillis, int maxEntries) {
+
+        this.enabled = enabled;
+        this.expiryMillis = expiryMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the account metadata cache instance.
+     *
+     * @return account metadata cache
+     */
+    public static AccountMetadataCache getInstance() {
+
+        if (instance == null) {
+            synchronized (AccountMetadataCache.class) {
+                if (instance == null) {
+                    instance = new AccountMetadataCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the cached account metadata of an account-id and user-id combination.
+     *
+     * @param accountId account ID
+     * @param userId    user ID
+     * @return unmodifiable account metadata map, or null if the metadata is not cached
+     */
+    public Map<String, String> get(String accountId, String userId) {
+
+        if (!enabled) {
+            return null;
+        }
+        CacheKey cacheKey = new CacheKey(accountId, userId);
+        CacheEntry entry = entries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (currentTimeMillis() - entry.loadedTime >= expiryMillis) {
+            entries.remove(cacheKey, entry);
+            return null;
+        }
+        return entry.metadata;
+    }
+
+    /**
+     * Get the version of the cache, to be read before the account metadata is loaded from the database.
+     *
+     * @return cache version
+     */
+    public long getVersion() {
+
+        return version.get();
+    }
+
+    /**
+     * Cache the account metadata loaded from the database. The metadata is not cached if an entry was
+     * invalidated after the given version was read.
+     *
+     * @param accountId account ID
+     * @param userId    user ID
+     * @param metadata  account metadata map
+     * @param version   cache version read before the metadata was loaded
+     */
+    public void put(String accountId, String userId, Map<String, String> metadata, long version) {
+
+        if (!enabled || !hasCapacity()) {
+            return;
+        }
+        CacheKey cacheKey = new CacheKey(accountId, userId);
+        entries.put(cacheKey, new CacheEntry(Collections.unmodifiableMap(new HashMap<>(metadata)),
+                currentTimeMillis()));
+        // Checked after the entry is added, since an invalidation removes the entry after changing the version
+        if (this.version.get() != version) {
+            entries.remove(cacheKey);
+        }
+    }
+
+    /**
+     * Invalidate the cached account metadata of an account-id and user-id combination.
+     *
+     * @param accountId account ID
+     * @param userId    user ID
+     */
+    public void invalidate(String accountId, String userId) {
+
+        version.incrementAndGet();
+        entries.remove(new CacheKey(accountId, userId));
+    }
+
+    /**
+     * Invalidate the cached account metadata of an account-id for all users.
+     *
+     * @param accountId account ID
+     */
+    public void invalidate(String accountId) {
+
+        version.incrementAndGet();
+        entries.keySet().removeIf(cacheKey -> cacheKey.accountId.equals(accountId));
+    }
+
+    /**
+     * Get the number of cached entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+
+        return entries.size();
+    }
+
+    protected long currentTimeMillis() {
+
+        return System.currentTimeMillis();
+    }
+
+    private boolean hasCapacity() {
+
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        long now = currentTimeMillis();
+        entries.values().removeIf(entry -> now - entry.loadedTime >= expiryMillis);
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Account metadata cache is full with " + entries.size() + " entries. Loaded account " +
+                    "metadata is not cached");
+        }
+        return false;
+    }
+
+    private static class CacheKey {
+
+        private final String accountId;
+        private final String userId;
+
+        CacheKey(String accountId, String userId) {
+
+            this.accountId = accountId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return accountId.equals(cacheKey.accountId) && userId.equals(cacheKey.userId);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(accountId, userId);
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final Map<String, String> metadata;
+        private final long loadedTime;
+
+        CacheEntry(Map<String, String> metadata, long loadedTime) {
+
+            this.metadata = metadata;
+            this.loadedTime = loadedTime;
+        }
+    }
+}
@@ -21,6 +21,7 @@ package com.wso2.openbanking.accelerator.account.metadata.service.dao;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -58,6 +59,19 @@ public interface AccountMetadataDAO {
     int updateAccountMetadata(Connection dbConnection, String accountId, String userId, String metadataKey,
                               String metadataValue) throws OpenBankingException;
 
+    /**
+     * Store or update several account metadata entries of a user-id and account-id combination in a single
+     * batch. If a key already exists, its value is updated.
+     *
+     * @param accountId          - Account ID
+     * @param userId             - User ID
+     * @param accountMetadataMap - Map of metadata keys and values
+     * @return number of metadata entries stored or updated
+     * @throws OpenBankingException - OpenBankingException
+     */
+    int upsertAccountMetadata(Connection dbConnection, String accountId, String userId,
+                              Map<String, String> accountMetadataMap) throws OpenBankingException;
+
     /**
      * Retrieve account metadata for a given user-id and account-id combination.
      *
@@ -69,6 +83,17 @@ public interface AccountMetadataDAO {
     Map<String, String> getAccountMetadataMap(Connection dbConnection, String accountId, String userId)
             throws OpenBankingException;
 
+    /**
+     * Retrieve account metadata of several accounts of a user.
+     *
+     * @param accountIds - Account IDs
+     * @param userId     - User ID
+     * @return Map of account-id and the account metadata map. Accounts without metadata are not included
+     * @throws OpenBankingException - OpenBankingException
+     */
+    Map<String, Map<String, String>> getAccountMetadataMaps(Connection dbConnection, Collection<String> accountIds,
+                                                            String userId) throws OpenBankingException;
+
     /**
      * Retrieve account metadata for a given account-id and key combination.
      *
@@ -30,9 +30,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Savepoint;
+import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -44,6 +49,9 @@ public class AccountMetadataDAOImpl implements AccountMetadataDAO {
     private static final String KEY = "METADATA_KEY";
     private static final String VALUE = "METADATA_VALUE";
     private static final String USER_ID = "USER_ID";
+    private static final String ACCOUNT_ID = "ACCOUNT_ID";
+    // Keeps the IN clause of the bulk retrieval within the expression list limit of Oracle
+    private static final int MAX_ACCOUNTS_PER_QUERY = 1000;
 
     //Error messages
     private static final String DB_CONNECTION_NULL_ERROR = "Database connection is null.";
@@ -190,6 +198,77 @@ public class AccountMetadataDAOImpl implements AccountMetadataDAO {
         return noOfRows;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int upsertAccountMetadata(Connection dbConnection, String accountId, String userId,
+                                     Map<String, String> accountMetadataMap) throws OpenBankingException {
+
+        if (StringUtils.isBlank(accountId) || StringUtils.isBlank(userId)) {
+            log.error(ACCOUNT_ID_USER_ID_MISSING_ERROR);
+            throw new OpenBankingException(ACCOUNT_ID_USER_ID_MISSING_ERROR);
+        }
+        if (accountMetadataMap == null || accountMetadataMap.isEmpty()) {
+            log.error(ACCOUNT_METADATA_MISSING_ERROR);
+            throw new OpenBankingException(ACCOUNT_METADATA_MISSING_ERROR);
+        }
+        for (Map.Entry<String, String> accountMetadata : accountMetadataMap.entrySet()) {
+            if (StringUtils.isBlank(accountMetadata.getKey()) || StringUtils.isBlank(accountMetadata.getValue())) {
+                log.error(ACCOUNT_METADATA_MISSING_ERROR);
+                throw new OpenBankingException(ACCOUNT_METADATA_MISSING_ERROR);
+            }
+        }
+        if (dbConnection == null) {
+            log.error(DB_CONNECTION_NULL_ERROR);
+            throw new OpenBankingException(DB_CONNECTION_NULL_ERROR);
+        }
+
+        try {
+            String upsertAttributeSqlStatement = sqlStatements.getUpsertAccountMetadataPreparedStatement();
+            dbConnection.setAutoCommit(false);
+            Savepoint savepoint = dbConnection.setSavepoint();
+            if (log.isDebugEnabled()) {
+                log.debug("Storing " + accountMetadataMap.size() + " account metadata entries in the database " +
+                        "for account-id " + accountId + " and user-id " + userId);
+            }
+            try (PreparedStatement prepStmt = dbConnection.prepareStatement(upsertAttributeSqlStatement)) {
+                Timestamp lastUpdatedTimestamp = new Timestamp(new Date().getTime());
+                for (Map.Entry<String, String> accountMetadata : accountMetadataMap.entrySet()) {
+                    prepStmt.setString(1, accountId);
+                    prepStmt.setString(2, userId);
+                    prepStmt.setString(3, accountMetadata.getKey());
+                    prepStmt.setString(4, accountMetadata.getValue());
+                    prepStmt.setTimestamp(5, lastUpdatedTimestamp);
+                    prepStmt.addBatch();
+                }
+                for (int result : prepStmt.executeBatch()) {
+                    if (result == Statement.EXECUTE_FAILED) {
+                        dbConnection.rollback(savepoint);
+                        log.error("Error occurred while storing account metadata. Any changes occurred " +
+                                "during the failed transaction are rolled back.");
+                        throw new OpenBankingException("Error occurred while storing account metadata.");
+                    }
+                }
+                dbConnection.commit();
+                if (log.isDebugEnabled()) {
+                    log.debug("Stored attributes for account-id " + accountId + " and user-id " + userId +
+                            " in the database.");
+                }
+            } catch (SQLException e) {
+                dbConnection.rollback(savepoint);
+                log.error("Error occurred while storing account metadata.", e);
+                throw new OpenBankingException("Error occurred while storing account metadata.", e);
+            }
+        } catch (SQLException e) {
+            log.error("Error occurred while interacting with the database connection.", e);
+            throw new OpenBankingException("Error occurred while interacting with the database connection", e);
+        } finally {
+            DatabaseUtil.closeConnection(dbConnection);
+        }
+        return accountMetadataMap.size();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -240,6 +319,63 @@ public class AccountMetadataDAOImpl implements AccountMetadataDAO {
         return attributesMap;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Map<String, String>> getAccountMetadataMaps(Connection dbConnection,
+                                                                   Collection<String> accountIds, String userId)
+            throws OpenBankingException {
+
+        if (accountIds == null || accountIds.isEmpty() || StringUtils.isBlank(userId)) {
+            log.error(ACCOUNT_ID_USER_ID_MISSING_ERROR);
+            throw new OpenBankingException(ACCOUNT_ID_USER_ID_MISSING_ERROR);
+        }
+        for (String accountId : accountIds) {
+            if (StringUtils.isBlank(accountId)) {
+                log.error(ACCOUNT_ID_USER_ID_MISSING_ERROR);
+                throw new OpenBankingException(ACCOUNT_ID_USER_ID_MISSING_ERROR);
+            }
+        }
+        if (dbConnection == null) {
+            log.error(DB_CONNECTION_NULL_ERROR);
+            throw new OpenBankingException(DB_CONNECTION_NULL_ERROR);
+        }
+        Map<String, Map<String, String>> accountMetadataMaps = new HashMap<>();
+        List<String> accountIdList = new ArrayList<>(new LinkedHashSet<>(accountIds));
+
+        if (log.isDebugEnabled()) {
+            log.debug("Retrieving account metadata for " + accountIdList.size() + " accounts of user-id " + userId);
+        }
+        try {
+            for (int fromIndex = 0; fromIndex < accountIdList.size(); fromIndex += MAX_ACCOUNTS_PER_QUERY) {
+                List<String> accountIdChunk = accountIdList.subList(fromIndex,
+                        Math.min(fromIndex + MAX_ACCOUNTS_PER_QUERY, accountIdList.size()));
+                final String retrieveAttributeSqlStatement = sqlStatements
+                        .getRetrieveAccountMetadataForAccountsPreparedStatement(accountIdChunk.size());
+                try (PreparedStatement prepStmt = dbConnection.prepareStatement(retrieveAttributeSqlStatement)) {
+                    prepStmt.setString(1, userId);
+                    for (int index = 0; index < accountIdChunk.size(); index++) {
+                        prepStmt.setString(index + 2, accountIdChunk.get(index));
+                    }
+                    try (ResultSet rs = prepStmt.executeQuery()) {
+                        while (rs.next()) {
+                            accountMetadataMaps.computeIfAbsent(rs.getString(ACCOUNT_ID), id -> new HashMap<>())
+                                    .put(rs.getString(KEY), rs.getString(VALUE));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error occurred while retrieving account metadata from database for user-id " + userId, e);
+            throw new OpenBankingException("Error occurred while retrieving account metadata from database for " +
+                    "user-id " + userId, e);
+        } finally {
+            DatabaseUtil.closeConnection(dbConnection);
+        }
+        return accountMetadataMaps;
+    }
+
     @Override
     public Map<String, String> getMetadataForAccountIdAndKey(Connection dbConnection, String accountId, String key)
             throws OpenBankingException {
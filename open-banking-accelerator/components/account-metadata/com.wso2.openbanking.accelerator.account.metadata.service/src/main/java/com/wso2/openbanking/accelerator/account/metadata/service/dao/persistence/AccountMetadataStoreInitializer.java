@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.account.metadata.service.dao.persistence;
+
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.AccountMetadataDAO;
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.AccountMetadataDAOImpl;
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesH2Impl;
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesMSSQLImpl;
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesMySQLImpl;
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesOracleImpl;
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesPostgreSQLImpl;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * This class handles account metadata DAO layer initiation with the relevant SQL statements per database type.
+ */
+public class AccountMetadataStoreInitializer {
+
+    private static final String MYSQL = "MySQL";
+    private static final String H2 = "H2";
+    private static final String MICROSOFT = "Microsoft";
+    private static final String MS_SQL = "MSSQL";
+    private static final String POSTGRE = "PostgreSQL";
+    private static final String ORACLE = "Oracle";
+
+    /**
+     * Return the DAO implementation initialized for the database type of the given connection.
+     * The connection is not closed.
+     *
+     * @param dbConnection connection to the account metadata database
+     * @return the dao implementation
+     * @throws OpenBankingException thrown if the database type cannot be identified or is not supported
+     */
+    public static AccountMetadataDAO getInitializedAccountMetadataDAOImpl(Connection dbConnection)
+            throws OpenBankingException {
+
+        if (dbConnection == null) {
+            throw new OpenBankingException("Database connection is null.");
+        }
+        try {
+            String driverName = dbConnection.getMetaData().getDriverName();
+
+            if (driverName.contains(MYSQL)) {
+                return new AccountMetadataDAOImpl(new AccountMetadataDBQueriesMySQLImpl());
+            } else if (driverName.contains(H2)) {
+                return new AccountMetadataDAOImpl(new AccountMetadataDBQueriesH2Impl());
+            } else if (driverName.contains(MS_SQL) || driverName.contains(MICROSOFT)) {
+                return new AccountMetadataDAOImpl(new AccountMetadataDBQueriesMSSQLImpl());
+            } else if (driverName.contains(POSTGRE)) {
+                return new AccountMetadataDAOImpl(new AccountMetadataDBQueriesPostgreSQLImpl());
+            } else if (driverName.contains(ORACLE)) {
+                return new AccountMetadataDAOImpl(new AccountMetadataDBQueriesOracleImpl());
+            }
+            throw new OpenBankingException("Unhandled DB driver: " + driverName + " detected");
+        } catch (SQLException e) {
+            throw new OpenBankingException("Error while reading the database connection metadata", e);
+        }
+    }
+}
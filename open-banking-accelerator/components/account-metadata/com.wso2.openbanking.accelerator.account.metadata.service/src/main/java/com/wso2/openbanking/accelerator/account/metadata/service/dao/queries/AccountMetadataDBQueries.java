@@ -38,6 +38,15 @@ public interface AccountMetadataDBQueries {
      */
     String getUpdateAccountMetadataPreparedStatement();
 
+    /**
+     * Returns the query to store account metadata, updating the value if the key already exists.
+     * The query takes the account-id, user-id, metadata key, metadata value and last updated timestamp
+     * in that order, so that it can be executed as a batch.
+     *
+     * @return String
+     */
+    String getUpsertAccountMetadataPreparedStatement();
+
     /**
      * Returns the query to retrieve account metadata.
      *
@@ -45,6 +54,15 @@ public interface AccountMetadataDBQueries {
      */
     String getRetrieveAccountMetadataPreparedStatement();
 
+    /**
+     * Returns the query to retrieve account metadata of several accounts of a user.
+     * The query takes the user-id followed by the given number of account-ids.
+     *
+     * @param noOfAccounts number of account-ids in the query
+     * @return String
+     */
+    String getRetrieveAccountMetadataForAccountsPreparedStatement(int noOfAccounts);
+
     /**
      * Returns the query to retrieve user-ids and metadata values when
      * account-id and metadata-key is given.
@@ -18,6 +18,8 @@
 
 package com.wso2.openbanking.accelerator.account.metadata.service.dao.queries;
 
+import java.util.Collections;
+
 /**
  * AccountMetadataDBQueriesMySQLImpl
  * Contains the MySQL queries used by the AccountMetadataDAOImpl.
@@ -42,6 +44,16 @@ public class AccountMetadataDBQueriesMySQLImpl implements AccountMetadataDBQueri
                 "AND USER_ID = ? AND METADATA_KEY = ?";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public String getUpsertAccountMetadataPreparedStatement() {
+
+        return "INSERT INTO OB_ACCOUNT_METADATA (ACCOUNT_ID, USER_ID, METADATA_KEY, METADATA_VALUE, " +
+                "LAST_UPDATED_TIMESTAMP) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE METADATA_VALUE = " +
+                "VALUES(METADATA_VALUE), LAST_UPDATED_TIMESTAMP = VALUES(LAST_UPDATED_TIMESTAMP)";
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -51,6 +63,15 @@ public class AccountMetadataDBQueriesMySQLImpl implements AccountMetadataDBQueri
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public String getRetrieveAccountMetadataForAccountsPreparedStatement(int noOfAccounts) {
+
+        return "SELECT ACCOUNT_ID, METADATA_KEY, METADATA_VALUE FROM OB_ACCOUNT_METADATA WHERE USER_ID = ? AND " +
+                "ACCOUNT_ID IN (" + String.join(", ", Collections.nCopies(noOfAccounts, "?")) + ")";
+    }
+
     /**
      * {@inheritDoc}
      */
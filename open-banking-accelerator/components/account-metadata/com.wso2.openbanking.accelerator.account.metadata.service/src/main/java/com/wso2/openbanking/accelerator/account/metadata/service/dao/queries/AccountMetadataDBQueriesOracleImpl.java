@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.account.metadata.service.dao.queries;
+
+/**
+ * AccountMetadataDBQueriesOracleImpl
+ * Contains the Oracle queries used by the AccountMetadataDAOImpl.
+ */
+public class AccountMetadataDBQueriesOracleImpl extends AccountMetadataDBQueriesPostgreSQLImpl {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getUpsertAccountMetadataPreparedStatement() {
+
+        return "MERGE INTO OB_ACCOUNT_METADATA TARGET USING (SELECT ? AS ACCOUNT_ID, ? AS USER_ID, " +
+                "? AS METADATA_KEY, ? AS METADATA_VALUE, ? AS LAST_UPDATE_TIMESTAMP FROM DUAL) SOURCE ON " +
+                "(TARGET.ACCOUNT_ID = SOURCE.ACCOUNT_ID AND TARGET.USER_ID = SOURCE.USER_ID AND " +
+                "TARGET.METADATA_KEY = SOURCE.METADATA_KEY) WHEN MATCHED THEN UPDATE SET " +
+                "TARGET.METADATA_VALUE = SOURCE.METADATA_VALUE, " +
+                "TARGET.LAST_UPDATE_TIMESTAMP = SOURCE.LAST_UPDATE_TIMESTAMP WHEN NOT MATCHED THEN INSERT " +
+                "(ACCOUNT_ID, USER_ID, METADATA_KEY, METADATA_VALUE, LAST_UPDATE_TIMESTAMP) VALUES " +
+                "(SOURCE.ACCOUNT_ID, SOURCE.USER_ID, SOURCE.METADATA_KEY, SOURCE.METADATA_VALUE, " +
+                "SOURCE.LAST_UPDATE_TIMESTAMP)";
+    }
+}
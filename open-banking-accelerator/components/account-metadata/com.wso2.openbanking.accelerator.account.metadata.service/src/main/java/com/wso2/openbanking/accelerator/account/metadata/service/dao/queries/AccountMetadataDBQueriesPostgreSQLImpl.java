@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.account.metadata.service.dao.queries;
+
+/**
+ * AccountMetadataDBQueriesPostgreSQLImpl
+ * Contains the PostgreSQL queries used by the AccountMetadataDAOImpl.
+ */
+public class AccountMetadataDBQueriesPostgreSQLImpl extends AccountMetadataDBQueriesMySQLImpl {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getStoreAccountMetadataPreparedStatement() {
+
+        return "INSERT INTO OB_ACCOUNT_METADATA (ACCOUNT_ID, USER_ID, METADATA_KEY, METADATA_VALUE, " +
+                "LAST_UPDATE_TIMESTAMP) VALUES (?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getUpdateAccountMetadataPreparedStatement() {
+
+        return "UPDATE OB_ACCOUNT_METADATA SET METADATA_VALUE = ?, LAST_UPDATE_TIMESTAMP = ? WHERE ACCOUNT_ID = ? " +
+                "AND USER_ID = ? AND METADATA_KEY = ?";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getUpsertAccountMetadataPreparedStatement() {
+
+        return "INSERT INTO OB_ACCOUNT_METADATA (ACCOUNT_ID, USER_ID, METADATA_KEY, METADATA_VALUE, " +
+                "LAST_UPDATE_TIMESTAMP) VALUES (?, ?, ?, ?, ?) ON CONFLICT (USER_ID, ACCOUNT_ID, METADATA_KEY) " +
+                "DO UPDATE SET METADATA_VALUE = EXCLUDED.METADATA_VALUE, " +
+                "LAST_UPDATE_TIMESTAMP = EXCLUDED.LAST_UPDATE_TIMESTAMP";
+    }
+}
@@ -20,6 +20,7 @@ package com.wso2.openbanking.accelerator.account.metadata.service.service;
 
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -102,6 +103,27 @@ public interface AccountMetadataService {
      */
     Map<String, String> getAccountMetadataMap(String accountId) throws OpenBankingException;
 
+    /**
+     * Get all metadata of several accounts of a user-id with a single lookup.
+     *
+     * @param accountIds - Account IDs
+     * @param userId     - User ID
+     * @return Map of account-id and the account metadata map of each given account
+     * @throws OpenBankingException - OpenBankingException
+     */
+    Map<String, Map<String, String>> getAccountMetadataMaps(Collection<String> accountIds, String userId) throws
+            OpenBankingException;
+
+    /**
+     * Get all metadata affecting several account-ids regardless of the user-id with a single lookup.
+     *
+     * @param accountIds - Account IDs
+     * @return Map of account-id and the account metadata map of each given account
+     * @throws OpenBankingException - OpenBankingException
+     */
+    Map<String, Map<String, String>> getAccountMetadataMaps(Collection<String> accountIds) throws
+            OpenBankingException;
+
     /**
      * Get users and metadata values for an account-id and key combination.
      *
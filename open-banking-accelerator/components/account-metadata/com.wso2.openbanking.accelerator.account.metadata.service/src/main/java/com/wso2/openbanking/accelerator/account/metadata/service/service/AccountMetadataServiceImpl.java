@@ -18,9 +18,9 @@
 
 package com.wso2.openbanking.accelerator.account.metadata.service.service;
 
+import com.wso2.openbanking.accelerator.account.metadata.service.cache.AccountMetadataCache;
 import com.wso2.openbanking.accelerator.account.metadata.service.dao.AccountMetadataDAO;
-import com.wso2.openbanking.accelerator.account.metadata.service.dao.AccountMetadataDAOImpl;
-import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesMySQLImpl;
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.persistence.AccountMetadataStoreInitializer;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
 import org.apache.commons.lang3.StringUtils;
@@ -28,7 +28,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.sql.Connection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of AccountMetadataService.
@@ -38,8 +43,7 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
     private static final Log log = LogFactory.getLog(AccountMetadataServiceImpl.class);
     private static final String NOT_APPLICABLE = "N/A";
     private static AccountMetadataServiceImpl instance = null;
-    AccountMetadataDAO accountMetadataDAO = new AccountMetadataDAOImpl(
-            new AccountMetadataDBQueriesMySQLImpl());
+    volatile AccountMetadataDAO accountMetadataDAO;
 
     // private constructor
     private AccountMetadataServiceImpl() {
@@ -71,13 +75,14 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             log.error("Account metadata is not present.");
             throw new OpenBankingException("Account metadata is not present");
         }
-        int noOfRecords = 0;
-        // Add all entries in the accountMetadataMap to the database
-        for (Map.Entry<String, String> accountMetadata : accountMetadataMap.entrySet()) {
-            addOrUpdateAccountMetadata(accountId, userId, accountMetadata.getKey(), accountMetadata.getValue());
-            noOfRecords++;
+        // Add or update all entries in the accountMetadataMap with a single batch
+        Connection dbConnection = DatabaseUtil.getDBConnection();
+        try {
+            return getAccountMetadataDAO(dbConnection).upsertAccountMetadata(dbConnection, accountId, userId,
+                    accountMetadataMap);
+        } finally {
+            AccountMetadataCache.getInstance().invalidate(accountId, userId);
         }
-        return noOfRecords;
     }
 
     @Override
@@ -101,16 +106,7 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             log.error("Account metadata is not present.");
             throw new OpenBankingException("Account metadata is not present");
         }
-        Connection dbConnection = DatabaseUtil.getDBConnection();
-        // Check if the record is already present in the database.
-        if (getAccountMetadataByKey(accountId, userId, metadataKey) == null) {
-            // Add the record
-            return accountMetadataDAO.storeAccountMetadata(dbConnection, accountId, userId, metadataKey, metadataValue);
-        } else {
-            // Update the record
-            return accountMetadataDAO.updateAccountMetadata(dbConnection, accountId, userId, metadataKey,
-                    metadataValue);
-        }
+        return addOrUpdateAccountMetadata(accountId, userId, Collections.singletonMap(metadataKey, metadataValue));
     }
 
     /**
@@ -132,8 +128,17 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             log.error("Account Id or User Id is not provided.");
             throw new OpenBankingException("Account Id or User Id is not provided.");
         }
+        AccountMetadataCache accountMetadataCache = AccountMetadataCache.getInstance();
+        Map<String, String> cachedAccountMetadata = accountMetadataCache.get(accountId, userId);
+        if (cachedAccountMetadata != null) {
+            return new HashMap<>(cachedAccountMetadata);
+        }
+        long cacheVersion = accountMetadataCache.getVersion();
         Connection dbConnection = DatabaseUtil.getDBConnection();
-        return accountMetadataDAO.getAccountMetadataMap(dbConnection, accountId, userId);
+        Map<String, String> accountMetadataMap = getAccountMetadataDAO(dbConnection)
+                .getAccountMetadataMap(dbConnection, accountId, userId);
+        accountMetadataCache.put(accountId, userId, accountMetadataMap, cacheVersion);
+        return accountMetadataMap;
     }
 
     /**
@@ -144,6 +149,54 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
         return getAccountMetadataMap(accountId, NOT_APPLICABLE);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Map<String, String>> getAccountMetadataMaps(Collection<String> accountIds, String userId)
+            throws OpenBankingException {
+        if (accountIds == null || accountIds.isEmpty() || StringUtils.isBlank(userId) ||
+                accountIds.stream().anyMatch(StringUtils::isBlank)) {
+            log.error("Account Ids or User Id is not provided.");
+            throw new OpenBankingException("Account Ids or User Id is not provided.");
+        }
+        AccountMetadataCache accountMetadataCache = AccountMetadataCache.getInstance();
+        Map<String, Map<String, String>> accountMetadataMaps = new HashMap<>();
+        Set<String> uncachedAccountIds = new LinkedHashSet<>();
+        for (String accountId : accountIds) {
+            Map<String, String> cachedAccountMetadata = accountMetadataCache.get(accountId, userId);
+            if (cachedAccountMetadata != null) {
+                accountMetadataMaps.put(accountId, new HashMap<>(cachedAccountMetadata));
+            } else {
+                uncachedAccountIds.add(accountId);
+            }
+        }
+        if (uncachedAccountIds.isEmpty()) {
+            return accountMetadataMaps;
+        }
+        // Retrieve the metadata of all the accounts which are not cached with a single lookup
+        long cacheVersion = accountMetadataCache.getVersion();
+        Connection dbConnection = DatabaseUtil.getDBConnection();
+        Map<String, Map<String, String>> retrievedAccountMetadataMaps = getAccountMetadataDAO(dbConnection)
+                .getAccountMetadataMaps(dbConnection, uncachedAccountIds, userId);
+        for (String accountId : uncachedAccountIds) {
+            Map<String, String> accountMetadataMap = retrievedAccountMetadataMaps.containsKey(accountId) ?
+                    retrievedAccountMetadataMaps.get(accountId) : new HashMap<>();
+            accountMetadataCache.put(accountId, userId, accountMetadataMap, cacheVersion);
+            accountMetadataMaps.put(accountId, accountMetadataMap);
+        }
+        return accountMetadataMaps;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Map<String, String>> getAccountMetadataMaps(Collection<String> accountIds)
+            throws OpenBankingException {
+        return getAccountMetadataMaps(accountIds, NOT_APPLICABLE);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -155,7 +208,7 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             throw new OpenBankingException("Account Id or Key is not provided.");
         }
         Connection dbConnection = DatabaseUtil.getDBConnection();
-        return accountMetadataDAO.getMetadataForAccountIdAndKey(dbConnection, accountId, key);
+        return getAccountMetadataDAO(dbConnection).getMetadataForAccountIdAndKey(dbConnection, accountId, key);
     }
 
     /**
@@ -168,8 +221,12 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             log.error("Account Id, User Id or Key is not provided.");
             throw new OpenBankingException("Account Id, User Id or Key is not provided.");
         }
+        Map<String, String> cachedAccountMetadata = AccountMetadataCache.getInstance().get(accountId, userId);
+        if (cachedAccountMetadata != null) {
+            return cachedAccountMetadata.get(key);
+        }
         Connection dbConnection = DatabaseUtil.getDBConnection();
-        return accountMetadataDAO.getAccountMetadataByKey(dbConnection, accountId, userId, key);
+        return getAccountMetadataDAO(dbConnection).getAccountMetadataByKey(dbConnection, accountId, userId, key);
     }
 
     /**
@@ -190,7 +247,11 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             throw new OpenBankingException("Account Id or User Id is not provided.");
         }
         Connection dbConnection = DatabaseUtil.getDBConnection();
-        return accountMetadataDAO.deleteAccountMetadata(dbConnection, accountId, userId);
+        try {
+            return getAccountMetadataDAO(dbConnection).deleteAccountMetadata(dbConnection, accountId, userId);
+        } finally {
+            AccountMetadataCache.getInstance().invalidate(accountId, userId);
+        }
     }
 
     /**
@@ -212,7 +273,12 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             throw new OpenBankingException("Account Id, User Id or Key is not provided.");
         }
         Connection dbConnection = DatabaseUtil.getDBConnection();
-        return accountMetadataDAO.deleteAccountMetadataByKey(dbConnection, accountId, userId, key);
+        try {
+            return getAccountMetadataDAO(dbConnection).deleteAccountMetadataByKey(dbConnection, accountId, userId,
+                    key);
+        } finally {
+            AccountMetadataCache.getInstance().invalidate(accountId, userId);
+        }
     }
 
     /**
@@ -226,7 +292,12 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
             throw new OpenBankingException("Account Id or Key is not provided.");
         }
         Connection dbConnection = DatabaseUtil.getDBConnection();
-        return accountMetadataDAO.deleteAccountMetadataByKeyForAllUsers(dbConnection, accountId, key);
+        try {
+            return getAccountMetadataDAO(dbConnection).deleteAccountMetadataByKeyForAllUsers(dbConnection,
+                    accountId, key);
+        } finally {
+            AccountMetadataCache.getInstance().invalidate(accountId);
+        }
     }
 
     /**
@@ -237,4 +308,26 @@ public class AccountMetadataServiceImpl implements AccountMetadataService {
         return removeAccountMetadataByKey(accountId, NOT_APPLICABLE, key);
     }
 
+    /**
+     * Get the account metadata DAO for the database type of the given connection. The DAO is initialized on
+     * first use, and the connection is closed if it cannot be initialized.
+     *
+     * @param dbConnection connection to the account metadata database
+     * @return account metadata DAO
+     * @throws OpenBankingException if the database type is not supported
+     */
+    private AccountMetadataDAO getAccountMetadataDAO(Connection dbConnection) throws OpenBankingException {
+
+        AccountMetadataDAO dao = accountMetadataDAO;
+        if (dao == null) {
+            try {
+                dao = AccountMetadataStoreInitializer.getInitializedAccountMetadataDAOImpl(dbConnection);
+            } catch (OpenBankingException e) {
+                DatabaseUtil.closeConnection(dbConnection);
+                throw e;
+            }
+            accountMetadataDAO = dao;
+        }
+        return dao;
+    }
 }
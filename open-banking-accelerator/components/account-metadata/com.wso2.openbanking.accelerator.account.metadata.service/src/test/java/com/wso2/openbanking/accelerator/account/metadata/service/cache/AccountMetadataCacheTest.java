@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.account.metadata.service.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the account metadata cache.
+ */
+public class AccountMetadataCacheTest {
+
+    private static final long EXPIRY = TimeUnit.MINUTES.toMillis(1);
+    private static final Map<String, String> METADATA = Collections.singletonMap("bnr-permission", "active");
+
+    @Test
+    public void testCachedMetadataExpires() {
+
+        TestAccountMetadataCache cache = new TestAccountMetadataCache(true, 10);
+        cache.put("account-1", "user-1", METADATA, cache.getVersion());
+        Assert.assertEquals(cache.get("account-1", "user-1"), METADATA);
+        Assert.assertNull(cache.get("account-1", "user-2"));
+
+        cache.time.addAndGet(EXPIRY);
+        Assert.assertNull(cache.get("account-1", "user-1"));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testLoadOverlappingInvalidationNotCached() {
+
+        TestAccountMetadataCache cache = new TestAccountMetadataCache(true, 10);
+        long version = cache.getVersion();
+        cache.invalidate("account-1", "user-1");
+        cache.put("account-1", "user-1", METADATA, version);
+
+        Assert.assertNull(cache.get("account-1", "user-1"));
+    }
+
+    @Test
+    public void testInvalidateAccountForAllUsers() {
+
+        TestAccountMetadataCache cache = new TestAccountMetadataCache(true, 10);
+        cache.put("account-1", "user-1", METADATA, cache.getVersion());
+        cache.put("account-1", "user-2", METADATA, cache.getVersion());
+        cache.put("account-2", "user-1", METADATA, cache.getVersion());
+
+        cache.invalidate("account-1");
+        Assert.assertNull(cache.get("account-1", "user-1"));
+        Assert.assertNull(cache.get("account-1", "user-2"));
+        Assert.assertNotNull(cache.get("account-2", "user-1"));
+    }
+
+    @Test
+    public void testMetadataNotCachedWhenFull() {
+
+        TestAccountMetadataCache cache = new TestAccountMetadataCache(true, 1);
+        cache.put("account-1", "user-1", METADATA, cache.getVersion());
+        cache.put("account-2", "user-1", METADATA, cache.getVersion());
+        Assert.assertNull(cache.get("account-2", "user-1"));
+
+        // Expired entries are removed to make room
+        cache.time.addAndGet(EXPIRY);
+        cache.put("account-2", "user-1", METADATA, cache.getVersion());
+        Assert.assertNotNull(cache.get("account-2", "user-1"));
+        Assert.assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testDisabledCache() {
+
+        TestAccountMetadataCache cache = new TestAccountMetadataCache(false, 10);
+        cache.put("account-1", "user-1", METADATA, cache.getVersion());
+
+        Assert.assertNull(cache.get("account-1", "user-1"));
+    }
+
+    /**
+     * Account metadata cache with a controllable clock.
+     */
+    private static class TestAccountMetadataCache extends AccountMetadataCache {
+
+        private final AtomicLong time = new AtomicLong(1000000L);
+
+        TestAccountMetadataCache(boolean enabled, int maxEntries) {
+
+            super(enabled, EXPIRY, maxEntries);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+
+            return time.get();
+        }
+    }
+}
@@ -18,6 +18,7 @@
 
 package com.wso2.openbanking.accelerator.account.metadata.service.dao;
 
+import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesH2Impl;
 import com.wso2.openbanking.accelerator.account.metadata.service.dao.queries.AccountMetadataDBQueriesMySQLImpl;
 import com.wso2.openbanking.accelerator.account.metadata.service.util.AccountMetadataDAOTestData;
 import com.wso2.openbanking.accelerator.account.metadata.service.util.DAOUtils;
@@ -28,6 +29,9 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -37,12 +41,14 @@ public class AccountMetadataDAOTests {
 
     private static final String DB_NAME = "OPENBANKING_DB";
     private AccountMetadataDAO accountMetadataDAO;
+    private AccountMetadataDAO h2AccountMetadataDAO;
 
     @BeforeClass
     public void initTest() throws Exception {
 
         DAOUtils.initializeDataSource(DB_NAME, DAOUtils.getFilePath("dbScripts/h2.sql"));
         accountMetadataDAO = new AccountMetadataDAOImpl(new AccountMetadataDBQueriesMySQLImpl());
+        h2AccountMetadataDAO = new AccountMetadataDAOImpl(new AccountMetadataDBQueriesH2Impl());
     }
 
     @DataProvider(name = "accountMetadataDataProvider")
@@ -160,6 +166,72 @@ public class AccountMetadataDAOTests {
         accountMetadataDAO.updateAccountMetadata(null, accountId, userId, key, value);
     }
 
+    @Test
+    public void testUpsertAccountMetadata() throws Exception {
+
+        String accountId = AccountMetadataDAOTestData.SAMPLE_BULK_ACCOUNT_ID;
+        String userId = AccountMetadataDAOTestData.SAMPLE_USER_ID;
+        int affectedEntries = h2AccountMetadataDAO.upsertAccountMetadata(DAOUtils.getConnection(DB_NAME), accountId,
+                userId, AccountMetadataDAOTestData.SAMPLE_ACCOUNT_ATTRIBUTES_MAP);
+        Assert.assertEquals(affectedEntries, 4);
+
+        Map<String, String> updatedMetadataMap = new HashMap<>();
+        updatedMetadataMap.put("secondary-account-privilege", "active");
+        updatedMetadataMap.put(AccountMetadataDAOTestData.SAMPLE_KEY, AccountMetadataDAOTestData.SAMPLE_VALUE);
+        affectedEntries = h2AccountMetadataDAO.upsertAccountMetadata(DAOUtils.getConnection(DB_NAME), accountId,
+                userId, updatedMetadataMap);
+        Assert.assertEquals(affectedEntries, 2);
+
+        Map<String, String> metadataMap = h2AccountMetadataDAO.getAccountMetadataMap(DAOUtils.getConnection(DB_NAME),
+                accountId, userId);
+        Assert.assertEquals(metadataMap.size(), 5);
+        Assert.assertEquals(metadataMap.get("secondary-account-privilege"), "active");
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testUpsertAccountMetadataEmptyMetadataError() throws Exception {
+
+        String accountId = AccountMetadataDAOTestData.SAMPLE_BULK_ACCOUNT_ID;
+        String userId = AccountMetadataDAOTestData.SAMPLE_USER_ID;
+
+        try (Connection dbConnection = DAOUtils.getConnection(DB_NAME)) {
+            h2AccountMetadataDAO.upsertAccountMetadata(dbConnection, accountId, userId,
+                    Collections.singletonMap(AccountMetadataDAOTestData.SAMPLE_KEY, ""));
+        }
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testUpsertAccountMetadataNullDBConnectionError() throws Exception {
+
+        String accountId = AccountMetadataDAOTestData.SAMPLE_BULK_ACCOUNT_ID;
+        String userId = AccountMetadataDAOTestData.SAMPLE_USER_ID;
+        h2AccountMetadataDAO.upsertAccountMetadata(null, accountId, userId,
+                AccountMetadataDAOTestData.SAMPLE_ACCOUNT_ATTRIBUTES_MAP);
+    }
+
+    @Test(dependsOnMethods = {"testUpsertAccountMetadata"})
+    public void testGetAccountMetadataMaps() throws Exception {
+
+        Map<String, Map<String, String>> metadataMaps;
+        try (Connection dbConnection = DAOUtils.getConnection(DB_NAME)) {
+            metadataMaps = accountMetadataDAO.getAccountMetadataMaps(dbConnection, Arrays.asList(
+                    AccountMetadataDAOTestData.SAMPLE_BULK_ACCOUNT_ID,
+                    AccountMetadataDAOTestData.SAMPLE_ACCOUNT_ID_WITHOUT_METADATA),
+                    AccountMetadataDAOTestData.SAMPLE_USER_ID);
+        }
+        Assert.assertEquals(metadataMaps.size(), 1);
+        Assert.assertEquals(metadataMaps.get(AccountMetadataDAOTestData.SAMPLE_BULK_ACCOUNT_ID).size(), 5);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testGetAccountMetadataMapsNullUserIdError() throws Exception {
+
+        try (Connection dbConnection = DAOUtils.getConnection(DB_NAME)) {
+            accountMetadataDAO.getAccountMetadataMaps(dbConnection, Arrays.asList(
+                    AccountMetadataDAOTestData.SAMPLE_BULK_ACCOUNT_ID), null);
+        }
+    }
+
     @Test(dataProvider = "getAccountMetadataDataProvider", dependsOnMethods = {"testStoreAccountMetadata"},
             priority = 1)
     public void testGetAccountMetadata(String accountId, String userId) throws Exception {
@@ -18,6 +18,7 @@
 
 package com.wso2.openbanking.accelerator.account.metadata.service.service;
 
+import com.wso2.openbanking.accelerator.account.metadata.service.cache.AccountMetadataCache;
 import com.wso2.openbanking.accelerator.account.metadata.service.util.AccountMetadataDAOTestData;
 import com.wso2.openbanking.accelerator.account.metadata.service.util.DAOUtils;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
@@ -26,15 +27,18 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.testng.PowerMockTestCase;
+import org.powermock.reflect.internal.WhiteboxImpl;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.sql.Connection;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of AccountMetadataServiceTests class.
@@ -44,11 +48,15 @@ import java.util.Map;
 public class AccountMetadataServiceTests extends PowerMockTestCase {
 
     private static final String DB_NAME = "OPENBANKING_DB";
+    private static final String CACHED_ACCOUNT_ID = "account-4";
     private AccountMetadataService accountMetadataService;
+    private AccountMetadataCache accountMetadataCache;
 
     @BeforeClass
     public void initTest() throws Exception {
         DAOUtils.initializeDataSource(DB_NAME, DAOUtils.getFilePath("dbScripts/h2.sql"));
+        accountMetadataCache = new AccountMetadataCache(true, TimeUnit.MINUTES.toMillis(1), 100) { };
+        WhiteboxImpl.setInternalState(AccountMetadataCache.class, "instance", accountMetadataCache);
         accountMetadataService = AccountMetadataServiceImpl.getInstance();
     }
 
@@ -252,6 +260,55 @@ public class AccountMetadataServiceTests extends PowerMockTestCase {
         Assert.assertEquals(metadataMap.size(), 4);
     }
 
+    @Test(dependsOnMethods = {"testAddOrUpdateAccountMetadata"}, priority = 1)
+    public void testGetAccountMetadataMaps() throws Exception {
+
+        String accountId = AccountMetadataDAOTestData.SAMPLE_ACCOUNT_ID;
+        String accountIdWithoutMetadata = AccountMetadataDAOTestData.SAMPLE_ACCOUNT_ID_WITHOUT_METADATA;
+        Map<String, Map<String, String>> metadataMaps;
+        try (Connection dbConnection = DAOUtils.getConnection(DB_NAME)) {
+            PowerMockito.mockStatic(DatabaseUtil.class);
+            PowerMockito.when(DatabaseUtil.getDBConnection())
+                    .thenReturn(dbConnection);
+            metadataMaps = accountMetadataService.getAccountMetadataMaps(Arrays.asList(accountId,
+                    accountIdWithoutMetadata), AccountMetadataDAOTestData.SAMPLE_USER_ID);
+        }
+        Assert.assertEquals(metadataMaps.size(), 2);
+        Assert.assertEquals(metadataMaps.get(accountId).size(), 4);
+        Assert.assertTrue(metadataMaps.get(accountIdWithoutMetadata).isEmpty());
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testGetAccountMetadataMapsNullUserIdError() throws Exception {
+
+        accountMetadataService.getAccountMetadataMaps(Collections.singletonList(
+                AccountMetadataDAOTestData.SAMPLE_ACCOUNT_ID), null);
+    }
+
+    @Test
+    public void testAccountMetadataCacheInvalidatedOnUpdate() throws Exception {
+
+        String userId = AccountMetadataDAOTestData.SAMPLE_USER_ID;
+        String key = AccountMetadataDAOTestData.SAMPLE_KEY;
+        try (Connection dbConnection = DAOUtils.getConnection(DB_NAME)) {
+            PowerMockito.mockStatic(DatabaseUtil.class);
+            PowerMockito.when(DatabaseUtil.getDBConnection())
+                    .thenReturn(dbConnection);
+            accountMetadataService.addOrUpdateAccountMetadata(CACHED_ACCOUNT_ID, userId, key, "inactive");
+            Assert.assertEquals(accountMetadataService.getAccountMetadataMap(CACHED_ACCOUNT_ID, userId).get(key),
+                    "inactive");
+            Assert.assertNotNull(accountMetadataCache.get(CACHED_ACCOUNT_ID, userId));
+
+            accountMetadataService.addOrUpdateAccountMetadata(CACHED_ACCOUNT_ID, userId, key, "active");
+            Assert.assertNull(accountMetadataCache.get(CACHED_ACCOUNT_ID, userId));
+            Assert.assertEquals(accountMetadataService.getAccountMetadataMap(CACHED_ACCOUNT_ID, userId).get(key),
+                    "active");
+
+            accountMetadataService.removeAccountMetadata(CACHED_ACCOUNT_ID, userId);
+            Assert.assertTrue(accountMetadataService.getAccountMetadataMap(CACHED_ACCOUNT_ID, userId).isEmpty());
+        }
+    }
+
     @Test(expectedExceptions = OpenBankingException.class, dataProvider = "getAccountMetadataDataProvider")
     public void testGetAccountMetadataMapNullAccountIdError(String accountId, String userId) throws Exception {
 
@@ -27,6 +27,8 @@ import java.util.Map;
 public class AccountMetadataDAOTestData {
 
     public static final String SAMPLE_ACCOUNT_ID = "account-1";
+    public static final String SAMPLE_BULK_ACCOUNT_ID = "account-2";
+    public static final String SAMPLE_ACCOUNT_ID_WITHOUT_METADATA = "account-3";
     public static final String SAMPLE_USER_ID = "ann@gold.com";
     public static final String SAMPLE_KEY = "bnr-permission";
     public static final String SAMPLE_VALUE = "active";
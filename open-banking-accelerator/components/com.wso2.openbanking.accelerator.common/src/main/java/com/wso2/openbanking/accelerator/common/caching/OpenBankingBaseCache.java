@@ -22,6 +22,10 @@ import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.cache.Cache;
@@ -29,6 +33,7 @@ import javax.cache.CacheBuilder;
 import javax.cache.CacheConfiguration;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
+import javax.cache.Status;
 
 /**
  * Abstract cache manager for Open Banking.
@@ -43,6 +48,17 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
 
     private static final Log log = LogFactory.getLog(OpenBankingBaseCache.class);
 
+    // Shared by all the instances of a cache since subclasses are instantiated in several places with the same name.
+    // Loads are keyed by the cache manager as well, since each tenant resolves the cache from its own cache manager.
+    private static final ConcurrentMap<String, ConcurrentMap<InFlightLoadKey, CompletableFuture<Object>>>
+            inFlightLoadsMap = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, OpenBankingCacheStatistics> cacheStatisticsMap =
+            new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<InFlightLoadKey, CompletableFuture<Object>> inFlightLoads;
+    private final OpenBankingCacheStatistics cacheStatistics;
+    private volatile CacheHandle<K, V> cacheHandle;
+
     /**
      * On Demand Retriever for caching.
      */
@@ -59,6 +75,8 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
     public OpenBankingBaseCache(String cacheName) {
 
         this.cacheName = cacheName;
+        this.inFlightLoads = inFlightLoadsMap.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+        this.cacheStatistics = cacheStatisticsMap.computeIfAbsent(cacheName, OpenBankingCacheStatistics::new);
 
         if (log.isDebugEnabled()) {
             log.debug(String.format("Base Cache initialized for %s", cacheName.replaceAll("[\r\n]", "")));
@@ -67,6 +85,7 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
 
     /**
      * Get from cache or invoke ondemand retriever and store.
+     * Concurrent misses for the same key wait for a single invocation of the on demand retriever.
      *
      * @param key                  cache key.
      * @param onDemandRetriever    on demand retriever.
@@ -75,34 +94,63 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
      */
     public V getFromCacheOrRetrieve(K key, OnDemandRetriever onDemandRetriever) throws OpenBankingException {
 
-        Cache<K, V> cache = getBaseCache();
+        CacheHandle<K, V> handle = getCacheHandle();
+        Cache<K, V> cache = handle.cache;
 
-        if (cache.containsKey(key)) {
+        V value = cache.get(key);
+        if (value != null) {
 
+            cacheStatistics.recordHit();
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Found cache entry `%s` in cache %s",
                         key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
-            return cache.get(key);
-        } else {
-
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Cache Entry `%s` not available in cache %s",
-                        key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
-            }
+            return value;
+        }
 
-            V value = (V) onDemandRetriever.get();
+        cacheStatistics.recordMiss();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Cache Entry `%s` not available in cache %s",
+                    key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+        }
 
+        InFlightLoadKey loadKey = new InFlightLoadKey(handle.cacheManager, key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightLoad = inFlightLoads.putIfAbsent(loadKey, load);
+        if (inFlightLoad != null) {
             if (log.isDebugEnabled()) {
-                log.debug(String.format("On demand retrieved `%s` for %s",
+                log.debug(String.format("Waiting for the on demand retrieval of `%s` for %s",
                         key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
+            return (V) awaitLoad(inFlightLoad);
+        }
 
-            removeFromCache(key);
-            addToCache(key, value);
+        long loadStartTime = System.nanoTime();
+        try {
+            // Another load could have completed between the cache lookup and registering this load
+            value = cache.get(key);
+            if (value == null) {
+                value = (V) onDemandRetriever.get();
+                cacheStatistics.recordLoadSuccess(System.nanoTime() - loadStartTime);
+
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("On demand retrieved `%s` for %s",
+                            key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
+                }
+
+                if (value != null) {
+                    addToCache(key, value);
+                }
+            }
+            load.complete(value);
             return value;
+        } catch (OpenBankingException | RuntimeException e) {
+            cacheStatistics.recordLoadFailure(System.nanoTime() - loadStartTime);
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(loadKey, load);
         }
-
     }
 
     /**
@@ -113,20 +161,19 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
      */
     public V getFromCache(K key) {
 
-        Cache<K, V> cache = getBaseCache();
+        V value = getBaseCache().get(key);
 
-        if (cache.containsKey(key)) {
+        if (value != null) {
 
+            cacheStatistics.recordHit();
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Found cache entry `%s` in cache %s",
                         key.toString().replaceAll("[\r\n]", ""), cacheName.replaceAll("[\r\n]", "")));
             }
-            return cache.get(key);
         } else {
-
-            return null;
+            cacheStatistics.recordMiss();
         }
-
+        return value;
     }
 
     /**
@@ -146,6 +193,31 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
         cache.put(key, value);
     }
 
+    /**
+     * Add Object to cache only if no object is cached against the key.
+     *
+     * @param key    cache key.
+     * @param value  cache value.
+     * @return true if the object was added.
+     */
+    public boolean addToCacheIfAbsent(K key, V value) {
+
+        return getBaseCache().putIfAbsent(key, value);
+    }
+
+    /**
+     * Replace the cached object only if it is equal to the expected object.
+     *
+     * @param key       cache key.
+     * @param oldValue  expected cached value.
+     * @param newValue  new cache value.
+     * @return true if the object was replaced.
+     */
+    public boolean replaceInCache(K key, V oldValue, V newValue) {
+
+        return getBaseCache().replace(key, oldValue, newValue);
+    }
+
     /**
      * Remove Object from Cache.
      *
@@ -162,15 +234,55 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
         cache.remove(key);
     }
 
+    /**
+     * Get the hit, miss and load time counters of this cache.
+     *
+     * @return cache statistics.
+     */
+    public OpenBankingCacheStatistics getCacheStatistics() {
+
+        return cacheStatistics;
+    }
+
+    /**
+     * Get the hit, miss and load time counters of a cache by name.
+     *
+     * @param cacheName unique cache name.
+     * @return cache statistics or null if no cache is initialized with the given name.
+     */
+    public static OpenBankingCacheStatistics getCacheStatistics(String cacheName) {
+
+        return cacheStatisticsMap.get(cacheName);
+    }
+
     /**
      * Get Cache for instance.
+     * The cache is resolved from the cache manager only when the cache manager of the current context differs from
+     * the one it was resolved from or when the resolved cache is no longer started.
      *
      * @return
      */
     private Cache<K, V> getBaseCache() {
 
+        return getCacheHandle().cache;
+    }
+
+    private CacheHandle<K, V> getCacheHandle() {
+
         CacheManager cacheManager = Caching.getCacheManager(BASE_CACHE_KEY);
 
+        CacheHandle<K, V> handle = cacheHandle;
+        if (handle != null && handle.cacheManager == cacheManager && handle.cache.getStatus() == Status.STARTED) {
+            return handle;
+        }
+
+        handle = new CacheHandle<>(cacheManager, resolveBaseCache(cacheManager));
+        cacheHandle = handle;
+        return handle;
+    }
+
+    private Cache<K, V> resolveBaseCache(CacheManager cacheManager) {
+
         Iterable<Cache<?, ?>> availableCaches = cacheManager.getCaches();
         for (Cache cache : availableCaches) {
             if (cache.getName().equalsIgnoreCase(
@@ -194,6 +306,25 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
 
     }
 
+    private Object awaitLoad(CompletableFuture<Object> inFlightLoad) throws OpenBankingException {
+
+        try {
+            return inFlightLoad.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenBankingException("Interrupted while waiting for the cache entry of " + cacheName, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OpenBankingException) {
+                throw (OpenBankingException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new OpenBankingException("Error while retrieving the cache entry of " + cacheName, cause);
+        }
+    }
+
 
     /**
      * Get Cache expiry time upon access in minutes.
@@ -209,4 +340,53 @@ public abstract class OpenBankingBaseCache<K extends OpenBankingBaseCacheKey, V>
      */
     public abstract int getCacheModifiedExpiryMinutes();
 
+    /**
+     * Cache resolved from a cache manager.
+     */
+    private static class CacheHandle<K, V> {
+
+        private final CacheManager cacheManager;
+        private final Cache<K, V> cache;
+
+        CacheHandle(CacheManager cacheManager, Cache<K, V> cache) {
+
+            this.cacheManager = cacheManager;
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * Key of an in flight load, comparing the cache manager by identity and the cache key by value.
+     */
+    private static class InFlightLoadKey {
+
+        private final CacheManager cacheManager;
+        private final Object key;
+
+        InFlightLoadKey(CacheManager cacheManager, Object key) {
+
+            this.cacheManager = cacheManager;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InFlightLoadKey)) {
+                return false;
+            }
+            InFlightLoadKey that = (InFlightLoadKey) o;
+            return cacheManager == that.cacheManager && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return 31 * System.identityHashCode(cacheManager) + key.hashCode();
+        }
+    }
+
 }
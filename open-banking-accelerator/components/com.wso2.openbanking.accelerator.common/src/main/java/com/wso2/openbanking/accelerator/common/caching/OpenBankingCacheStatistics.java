@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.caching;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and load time counters of an Open Banking cache.
+ */
+public class OpenBankingCacheStatistics {
+
+    private final String cacheName;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+
+    public OpenBankingCacheStatistics(String cacheName) {
+
+        this.cacheName = cacheName;
+    }
+
+    void recordHit() {
+
+        hitCount.increment();
+    }
+
+    void recordMiss() {
+
+        missCount.increment();
+    }
+
+    void recordLoadSuccess(long loadTimeNanos) {
+
+        loadSuccessCount.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    void recordLoadFailure(long loadTimeNanos) {
+
+        loadFailureCount.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    public String getCacheName() {
+
+        return cacheName;
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public long getLoadSuccessCount() {
+
+        return loadSuccessCount.sum();
+    }
+
+    public long getLoadFailureCount() {
+
+        return loadFailureCount.sum();
+    }
+
+    public long getTotalLoadTimeMillis() {
+
+        return TimeUnit.NANOSECONDS.toMillis(totalLoadTimeNanos.sum());
+    }
+
+    /**
+     * Get the average time taken by the on demand retriever.
+     *
+     * @return average load time in milliseconds, 0 if nothing was loaded
+     */
+    public double getAverageLoadTimeMillis() {
+
+        long loadCount = getLoadSuccessCount() + getLoadFailureCount();
+        return loadCount == 0 ? 0 : (double) totalLoadTimeNanos.sum() / loadCount / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format("%s [hits=%d, misses=%d, loads=%d, loadFailures=%d, averageLoadTimeMillis=%.2f]",
+                cacheName, getHitCount(), getMissCount(), getLoadSuccessCount(), getLoadFailureCount(),
+                getAverageLoadTimeMillis());
+    }
+}
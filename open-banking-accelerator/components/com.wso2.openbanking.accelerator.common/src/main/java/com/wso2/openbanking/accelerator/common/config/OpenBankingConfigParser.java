@@ -182,6 +182,7 @@ public class OpenBankingConfigParser {
             buildKeyManagerProperties();
             buildOBEventExecutors();
             buildWorkers();
+            validateConsentValidationCache();
         } catch (IOException | XMLStreamException | OMException e) {
             throw new OpenBankingRuntimeException("Error occurred while building configuration from open-banking.xml",
                     e);
@@ -196,6 +197,22 @@ public class OpenBankingConfigParser {
         }
     }
 
+    private void validateConsentValidationCache() {
+
+        if (isConfigEnabled(OpenBankingConstants.CONSENT_VALIDATION_CACHE_ENABLED) &&
+                !isConfigEnabled(OpenBankingConstants.CONSENT_VALIDATION_CACHE_SHARED)) {
+            log.warn("Consent validation cache is enabled but is not declared as a cluster cache shared with the " +
+                    "consent management nodes. Hence, the cache is not used since revoked or expired consents " +
+                    "would be served from the cache of the gateway");
+        }
+    }
+
+    private boolean isConfigEnabled(String key) {
+
+        Object value = getConfigElementFromKey(key);
+        return value != null && Boolean.parseBoolean(((String) value).trim());
+    }
+
     private void buildOBExecutors() {
 
         OMElement gatewayElement = rootElement.getFirstChildWithName(
@@ -890,12 +907,28 @@ public class OpenBankingConfigParser {
                 ((String) getConfigElementFromKey(OpenBankingConstants.CIBA_SERVLET_EXTENSION)).trim();
     }
 
+    /**
+     * Method to get the DCR JWKS connection timeout.
+     *
+     * @return DCR JWKS connection timeout
+     * @deprecated DCR signature validation uses the JWK sets shared through the JWKS manager, hence the timeout is
+     * applied through {@link #getJwksRetrieverConnectionTimeout()} when the JWKS retriever timeout is not configured.
+     */
+    @Deprecated
     public String getJWKSConnectionTimeOut() {
 
         return getConfigElementFromKey(OpenBankingConstants.DCR_JWKS_CONNECTION_TIMEOUT) == null ? "3000" :
                 ((String) getConfigElementFromKey(OpenBankingConstants.DCR_JWKS_CONNECTION_TIMEOUT)).trim();
     }
 
+    /**
+     * Method to get the DCR JWKS read timeout.
+     *
+     * @return DCR JWKS read timeout
+     * @deprecated DCR signature validation uses the JWK sets shared through the JWKS manager, hence the timeout is
+     * applied through {@link #getJwksRetrieverReadTimeout()} when the JWKS retriever timeout is not configured.
+     */
+    @Deprecated
     public String getJWKSReadTimeOut() {
 
         return getConfigElementFromKey(OpenBankingConstants.DCR_JWKS_READ_TIMEOUT) == null ? "3000" :
@@ -1155,25 +1188,85 @@ public class OpenBankingConfigParser {
     }
 
     /**
-     * JWKS Retriever Connection Timeout for JWS Signature Handling.
+     * JWKS Retriever Connection Timeout for JWS Signature Handling and DCR signature validation.
+     * Falls back to the DCR JWKS connection timeout when it is not configured.
      *
      * @return  JWKS Retriever Connection Timeout
      */
     public String getJwksRetrieverConnectionTimeout() {
 
-        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_CONN_TIMEOUT) == null ? "2000" :
-                ((String) getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_CONN_TIMEOUT)).trim();
+        return getJwksRetrieverTimeout(OpenBankingConstants.JWKS_RETRIEVER_CONN_TIMEOUT,
+                OpenBankingConstants.DCR_JWKS_CONNECTION_TIMEOUT);
     }
 
     /**
-     * JWKS Retriever Read Timeout for JWS Signature Handling.
+     * JWKS Retriever Read Timeout for JWS Signature Handling and DCR signature validation.
+     * Falls back to the DCR JWKS read timeout when it is not configured.
      *
      * @return  JWKS Retriever Read Timeout
      */
     public String getJwksRetrieverReadTimeout() {
 
-        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_READ_TIMEOUT) == null ? "2000" :
-                ((String) getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_READ_TIMEOUT)).trim();
+        return getJwksRetrieverTimeout(OpenBankingConstants.JWKS_RETRIEVER_READ_TIMEOUT,
+                OpenBankingConstants.DCR_JWKS_READ_TIMEOUT);
+    }
+
+    private String getJwksRetrieverTimeout(String timeoutKey, String dcrTimeoutKey) {
+
+        Object timeout = getConfigElementFromKey(timeoutKey);
+        if (timeout == null) {
+            timeout = getConfigElementFromKey(dcrTimeoutKey);
+            // A DCR timeout of 0 stands for the default timeout
+            if (timeout != null && "0".equals(((String) timeout).trim())) {
+                timeout = null;
+            }
+        }
+        return timeout == null ? "2000" : ((String) timeout).trim();
+    }
+
+    /**
+     * Time in seconds a retrieved JWKS is kept before it is retrieved again.
+     *
+     * @return  JWKS cache expiry time in seconds
+     */
+    public String getJwksRetrieverCacheExpiry() {
+
+        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_CACHE_EXPIRY) == null ? "3600" :
+                ((String) getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_CACHE_EXPIRY)).trim();
+    }
+
+    /**
+     * Time in seconds before the JWKS cache expiry at which the JWKS is refreshed in the background.
+     *
+     * @return  JWKS refresh ahead time in seconds
+     */
+    public String getJwksRetrieverRefreshAheadTime() {
+
+        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_REFRESH_AHEAD_TIME) == null ? "300" :
+                ((String) getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_REFRESH_AHEAD_TIME)).trim();
+    }
+
+    /**
+     * Minimum time in seconds between two JWKS refreshes triggered by an unknown kid.
+     *
+     * @return  JWKS kid miss refresh interval in seconds
+     */
+    public String getJwksRetrieverKidMissRefreshInterval() {
+
+        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_KID_MISS_REFRESH_INTERVAL) == null ?
+                "60" : ((String) getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_KID_MISS_REFRESH_INTERVAL))
+                .trim();
+    }
+
+    /**
+     * Time in seconds an unreachable JWKS endpoint is not called again.
+     *
+     * @return  JWKS failure cache time in seconds
+     */
+    public String getJwksRetrieverFailureCacheTime() {
+
+        return getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_FAILURE_CACHE_TIME) == null ? "30" :
+                ((String) getConfigElementFromKey(OpenBankingConstants.JWKS_RETRIEVER_FAILURE_CACHE_TIME)).trim();
     }
 
     /**
@@ -1480,4 +1573,278 @@ public class OpenBankingConfigParser {
                 (String) getConfigElementFromKey(OpenBankingConstants.IDEMPOTENCY_ALLOWED_TIME);
     }
 
+    /**
+     * Method to check whether idempotency keys not found in the idempotency key store can be looked up from the
+     * consent attributes. Enabled by default, so that requests retried with idempotency keys of consents created
+     * before the store was introduced are still served. Can be disabled once the allowed time duration has passed
+     * after migrating.
+     *
+     * @return  Whether the consent attribute fallback is enabled or not
+     */
+    public boolean isIdempotencyConsentAttributeFallbackEnabled() {
+        Object fallbackEnabled = getConfigElementFromKey(OpenBankingConstants.IDEMPOTENCY_CONSENT_ATTRIBUTE_FALLBACK);
+        return fallbackEnabled == null || Boolean.parseBoolean(((String) fallbackEnabled).trim());
+    }
+
+    /**
+     * Method to check whether the gateway consent validation result cache is enabled.
+     * The cache is used only if it is also declared as a cluster cache shared by the gateway and the consent
+     * management nodes, since consent state changes are invalidated in the cache from the consent management nodes.
+     *
+     * @return true if consent validation results can be served from the cache
+     */
+    public boolean isConsentValidationCacheEnabled() {
+
+        return isConfigEnabled(OpenBankingConstants.CONSENT_VALIDATION_CACHE_ENABLED) &&
+                isConfigEnabled(OpenBankingConstants.CONSENT_VALIDATION_CACHE_SHARED);
+    }
+
+    /**
+     * Method to get the time (in seconds) a consent validation result is kept in the cache.
+     *
+     * @return consent validation cache expiry time in seconds
+     */
+    public int getConsentValidationCacheExpiry() {
+
+        return getConfigElementFromKey(OpenBankingConstants.CONSENT_VALIDATION_CACHE_EXPIRY) == null ? 60 :
+                Integer.parseInt(((String) getConfigElementFromKey(
+                        OpenBankingConstants.CONSENT_VALIDATION_CACHE_EXPIRY)).trim());
+    }
+
+    /**
+     * Maximum connection count of a named HTTP connection pool.
+     *
+     * @param clientName  name of the HTTP client
+     * @return maximum connections count, defaults to the common HTTPConnectionPool value
+     */
+    public int getConnectionPoolMaxConnections(String clientName) {
+
+        return getConnectionPoolConfig(clientName, OpenBankingConstants.CONNECTION_POOL_MAX_CONNECTIONS_TAG,
+                getConnectionPoolMaxConnections());
+    }
+
+    /**
+     * Maximum connection per route count of a named HTTP connection pool.
+     *
+     * @param clientName  name of the HTTP client
+     * @return maximum connections per route count, defaults to the common HTTPConnectionPool value
+     */
+    public int getConnectionPoolMaxConnectionsPerRoute(String clientName) {
+
+        return getConnectionPoolConfig(clientName, OpenBankingConstants.CONNECTION_POOL_MAX_CONNECTIONS_PER_ROUTE_TAG,
+                getConnectionPoolMaxConnectionsPerRoute());
+    }
+
+    /**
+     * Connect timeout (in milliseconds) of a named HTTP connection pool.
+     *
+     * @param clientName  name of the HTTP client
+     * @return connect timeout, default value is 10000
+     */
+    public int getConnectionPoolConnectTimeout(String clientName) {
+
+        return getConnectionPoolConfig(clientName, OpenBankingConstants.CONNECTION_POOL_CONNECT_TIMEOUT_TAG, 10000);
+    }
+
+    /**
+     * Time (in milliseconds) to wait for a connection from a named HTTP connection pool.
+     *
+     * @param clientName  name of the HTTP client
+     * @return connection request timeout, default value is 10000
+     */
+    public int getConnectionPoolConnectionRequestTimeout(String clientName) {
+
+        return getConnectionPoolConfig(clientName,
+                OpenBankingConstants.CONNECTION_POOL_CONNECTION_REQUEST_TIMEOUT_TAG, 10000);
+    }
+
+    /**
+     * Socket timeout (in milliseconds) of a named HTTP connection pool.
+     *
+     * @param clientName  name of the HTTP client
+     * @return socket timeout, default value is 60000
+     */
+    public int getConnectionPoolSocketTimeout(String clientName) {
+
+        return getConnectionPoolConfig(clientName, OpenBankingConstants.CONNECTION_POOL_SOCKET_TIMEOUT_TAG, 60000);
+    }
+
+    /**
+     * Time (in seconds) an idle connection is kept in a named HTTP connection pool.
+     *
+     * @param clientName  name of the HTTP client
+     * @return idle connection timeout, default value is 30
+     */
+    public int getConnectionPoolIdleConnectionTimeout(String clientName) {
+
+        return getConnectionPoolConfig(clientName,
+                OpenBankingConstants.CONNECTION_POOL_IDLE_CONNECTION_TIMEOUT_TAG, 30);
+    }
+
+    /**
+     * Read an HTTP connection pool property. The value configured under the client name takes precedence over the
+     * value configured directly under HTTPConnectionPool.
+     *
+     * @param clientName    name of the HTTP client
+     * @param property      property name
+     * @param defaultValue  value to use when the property is not configured
+     * @return property value
+     */
+    private int getConnectionPoolConfig(String clientName, String property, int defaultValue) {
+
+        String poolKey = OpenBankingConstants.CONNECTION_POOL_CONFIG_TAG + OpenBankingConstants.DOT_SEPARATOR;
+        Object value = getConfigElementFromKey(poolKey + clientName + OpenBankingConstants.DOT_SEPARATOR + property);
+        if (value == null) {
+            value = getConfigElementFromKey(poolKey + property);
+        }
+        try {
+            return value == null ? defaultValue : Integer.parseInt(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the " + clientName + " " + property +
+                    " value in open-banking.xml. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method to get the throttler backend used by the OB throttle service.
+     *
+     * @return throttler backend, default value is Database
+     */
+    public String getThrottlerBackend() {
+
+        return getConfigElementFromKey(OpenBankingConstants.THROTTLER_BACKEND) == null ?
+                OpenBankingConstants.THROTTLER_BACKEND_DATABASE :
+                ((String) getConfigElementFromKey(OpenBankingConstants.THROTTLER_BACKEND)).trim();
+    }
+
+    /**
+     * Method to check whether long polling is enabled for event polling requests.
+     *
+     * @return true if event polling requests with returnImmediately set to false are held until new events arrive
+     */
+    public boolean isEventPollingLongPollingEnabled() {
+
+        return getConfigElementFromKey(OpenBankingConstants.EVENT_POLLING_LONG_POLLING_ENABLED) != null &&
+                Boolean.parseBoolean(((String) getConfigElementFromKey(
+                        OpenBankingConstants.EVENT_POLLING_LONG_POLLING_ENABLED)).trim());
+    }
+
+    /**
+     * Method to get the maximum time (in seconds) a long polling request is held.
+     *
+     * @return long polling timeout in seconds, default value is 30
+     */
+    public int getEventPollingLongPollingTimeout() {
+
+        return getConfigElementFromKey(OpenBankingConstants.EVENT_POLLING_LONG_POLLING_TIMEOUT) == null ? 30 :
+                Integer.parseInt(((String) getConfigElementFromKey(
+                        OpenBankingConstants.EVENT_POLLING_LONG_POLLING_TIMEOUT)).trim());
+    }
+
+    /**
+     * Method to get the maximum number of long polling requests held at a time.
+     *
+     * @return maximum waiting requests, default value is 1000
+     */
+    public int getEventPollingLongPollingMaxWaitingRequests() {
+
+        return getConfigElementFromKey(OpenBankingConstants.EVENT_POLLING_LONG_POLLING_MAX_WAITING_REQUESTS) == null ?
+                1000 : Integer.parseInt(((String) getConfigElementFromKey(
+                        OpenBankingConstants.EVENT_POLLING_LONG_POLLING_MAX_WAITING_REQUESTS)).trim());
+    }
+
+    /**
+     * Method to get the maximum number of concurrent realtime event notification requests sent to a callback host.
+     *
+     * @return maximum concurrent requests per callback host, default value is 5
+     */
+    public int getRealtimeEventNotificationMaxConcurrentRequestsPerHost() {
+
+        return getConfigElementFromKey(
+                OpenBankingConstants.REALTIME_EVENT_NOTIFICATION_MAX_CONCURRENT_REQUESTS_PER_HOST) == null ? 5 :
+                Integer.parseInt(((String) getConfigElementFromKey(
+                        OpenBankingConstants.REALTIME_EVENT_NOTIFICATION_MAX_CONCURRENT_REQUESTS_PER_HOST)).trim());
+    }
+
+    /**
+     * Method to get the number of consecutive failed requests which opens the circuit breaker of a callback host.
+     *
+     * @return consecutive failure threshold, default value is 5
+     */
+    public int getRealtimeEventNotificationHostCircuitBreakerFailureThreshold() {
+
+        Object failureThreshold = getConfigElementFromKey(
+                OpenBankingConstants.REALTIME_EVENT_NOTIFICATION_HOST_CIRCUIT_BREAKER_FAILURE_THRESHOLD);
+        return failureThreshold == null ? 5 : Integer.parseInt(((String) failureThreshold).trim());
+    }
+
+    /**
+     * Method to get the time a callback host circuit breaker stays open before a trial request is sent.
+     *
+     * @return open duration in seconds, default value is 60
+     */
+    public int getRealtimeEventNotificationHostCircuitBreakerOpenDurationInSeconds() {
+
+        Object openDuration = getConfigElementFromKey(
+                OpenBankingConstants.REALTIME_EVENT_NOTIFICATION_HOST_CIRCUIT_BREAKER_OPEN_DURATION);
+        return openDuration == null ? 60 : Integer.parseInt(((String) openDuration).trim());
+    }
+
+    /**
+     * Method to get the maximum number of notifications held for resending while a callback host circuit breaker
+     * is open. Notifications beyond this limit are left in OPEN state in the database.
+     *
+     * @return maximum short-circuited notifications per host, default value is 1000
+     */
+    public int getRealtimeEventNotificationHostCircuitBreakerMaxShortCircuited() {
+
+        Object maxShortCircuited = getConfigElementFromKey(
+                OpenBankingConstants.REALTIME_EVENT_NOTIFICATION_HOST_CIRCUIT_BREAKER_MAX_SHORT_CIRCUITED);
+        return maxShortCircuited == null ? 1000 : Integer.parseInt(((String) maxShortCircuited).trim());
+    }
+
+    /**
+     * Method to check whether the account metadata is cached by the account metadata service.
+     *
+     * @return true if the account metadata cache is enabled, default value is true
+     */
+    public boolean isAccountMetadataCacheEnabled() {
+
+        Object cacheEnabled = getConfigElementFromKey(OpenBankingConstants.ACCOUNT_METADATA_CACHE_ENABLED);
+        return cacheEnabled == null || Boolean.parseBoolean(((String) cacheEnabled).trim());
+    }
+
+    /**
+     * Method to get the time account metadata is kept in the account metadata cache.
+     *
+     * @return account metadata cache expiry in seconds, default value is 60
+     */
+    public int getAccountMetadataCacheExpiry() {
+
+        Object cacheExpiry = getConfigElementFromKey(OpenBankingConstants.ACCOUNT_METADATA_CACHE_EXPIRY);
+        return cacheExpiry == null ? 60 : Integer.parseInt(((String) cacheExpiry).trim());
+    }
+
+    /**
+     * Method to get the maximum number of account-id and user-id combinations in the account metadata cache.
+     *
+     * @return maximum account metadata cache entries, default value is 10000
+     */
+    public int getAccountMetadataCacheMaxEntries() {
+
+        Object maxEntries = getConfigElementFromKey(OpenBankingConstants.ACCOUNT_METADATA_CACHE_MAX_ENTRIES);
+        return maxEntries == null ? 10000 : Integer.parseInt(((String) maxEntries).trim());
+    }
+
+    /**
+     * Method to get the number of consents expired in one transaction by the periodical consent expiration job.
+     *
+     * @return consent expiration chunk size, default value is 500
+     */
+    public int getConsentExpirationChunkSize() {
+
+        Object chunkSize = getConfigElementFromKey(OpenBankingConstants.CONSENT_PERIODICAL_EXPIRATION_CHUNK_SIZE);
+        return chunkSize == null ? 500 : Integer.parseInt(((String) chunkSize).trim());
+    }
+
 }
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.consent.cache;
+
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCache;
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache definition to store consent validation results.
+ * Results are grouped per consent ID so that all cached decisions of a consent can be dropped with a single
+ * invalidation when the consent state changes.
+ * Consent state changes made in the consent management nodes are invalidated in their own cache. Hence, the cache is
+ * only used when it is declared as a cluster cache shared with the gateway nodes, see
+ * {@link OpenBankingConfigParser#isConsentValidationCacheEnabled()}.
+ */
+public class ConsentValidationCache extends OpenBankingBaseCache<ConsentValidationCacheKey,
+        ConsentValidationCacheEntry> {
+
+    private static final Log log = LogFactory.getLog(ConsentValidationCache.class);
+    private static final String CACHE_NAME = "OB_CONSENT_VALIDATION_CACHE";
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    private static volatile ConsentValidationCache instance;
+    private final long expiryMillis;
+    private final int expiryMinutes;
+
+    /**
+     * Initialize with unique cache name.
+     */
+    private ConsentValidationCache() {
+
+        super(CACHE_NAME);
+        int expirySeconds = OpenBankingConfigParser.getInstance().getConsentValidationCacheExpiry();
+        this.expiryMillis = TimeUnit.SECONDS.toMillis(expirySeconds);
+        // Underlying cache expiry is only used to reclaim memory, entry freshness is checked against expiryMillis.
+        this.expiryMinutes = (int) Math.max(1, TimeUnit.SECONDS.toMinutes(expirySeconds + 59L));
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return ConsentValidationCache object
+     */
+    public static ConsentValidationCache getInstance() {
+
+        if (instance == null) {
+            synchronized (ConsentValidationCache.class) {
+                if (instance == null) {
+                    instance = new ConsentValidationCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get a cached validation result.
+     *
+     * @param consentId   consent ID
+     * @param requestKey  key identifying the validated request within the consent
+     * @return cached validation result or null if there is no valid cached result
+     */
+    public String getValidationResult(String consentId, String requestKey) {
+
+        ConsentValidationCacheEntry entry = getFromCache(ConsentValidationCacheKey.of(consentId));
+        if (entry == null || entry.isInvalidated() || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return entry.getValidationResult(requestKey);
+    }
+
+    /**
+     * Add a validation result to the cache.
+     * The result is discarded if the consent was invalidated after the validation was requested.
+     *
+     * @param consentId         consent ID
+     * @param requestKey        key identifying the validated request within the consent
+     * @param validationResult  validation result
+     * @param requestedTime     time (in milliseconds) the validation was requested
+     */
+    public void addValidationResult(String consentId, String requestKey, String validationResult,
+                                    long requestedTime) {
+
+        ConsentValidationCacheKey key = ConsentValidationCacheKey.of(consentId);
+        // Entries are never modified in place. Each update replaces the entry it was derived from, so that an
+        // invalidation written in between makes the update fail and the result is checked against the marker.
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            ConsentValidationCacheEntry entry = getFromCache(key);
+            long currentTime = System.currentTimeMillis();
+
+            if (entry != null && !entry.isExpired(currentTime) && entry.isInvalidated()
+                    && entry.getCreatedTime() >= requestedTime) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Skip caching validation result since consent %s was invalidated",
+                            consentId.replaceAll("[\r\n]", "")));
+                }
+                return;
+            }
+            ConsentValidationCacheEntry baseEntry = entry == null || entry.isExpired(currentTime)
+                    || entry.isInvalidated() ? ConsentValidationCacheEntry.active(currentTime,
+                    requestedTime + expiryMillis) : entry;
+            ConsentValidationCacheEntry updatedEntry = baseEntry.withValidationResult(requestKey, validationResult);
+            if (entry == null ? addToCacheIfAbsent(key, updatedEntry) : replaceInCache(key, entry, updatedEntry)) {
+                return;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Skip caching validation result of consent %s due to concurrent updates",
+                    consentId.replaceAll("[\r\n]", "")));
+        }
+    }
+
+    /**
+     * Invalidate all cached validation results of a consent.
+     *
+     * @param consentId  consent ID
+     */
+    public void invalidate(String consentId) {
+
+        long currentTime = System.currentTimeMillis();
+        addToCache(ConsentValidationCacheKey.of(consentId),
+                ConsentValidationCacheEntry.invalidated(currentTime, currentTime + expiryMillis));
+    }
+
+    @Override
+    public int getCacheAccessExpiryMinutes() {
+
+        return expiryMinutes;
+    }
+
+    @Override
+    public int getCacheModifiedExpiryMinutes() {
+
+        return expiryMinutes;
+    }
+}
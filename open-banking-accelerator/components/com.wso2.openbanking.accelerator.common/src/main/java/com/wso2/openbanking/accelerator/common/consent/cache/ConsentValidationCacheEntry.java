@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.consent.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable consent validation results cached against a single consent.
+ * An invalidated entry is kept as a marker until it expires, so that validation responses obtained before the
+ * invalidation are not written back to the cache.
+ */
+public class ConsentValidationCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 6028716930355813429L;
+    private final Map<String, String> validationResults;
+    private final long createdTime;
+    private final long expiryTime;
+    private final boolean invalidated;
+
+    private ConsentValidationCacheEntry(long createdTime, long expiryTime, boolean invalidated,
+                                        Map<String, String> validationResults) {
+
+        this.createdTime = createdTime;
+        this.expiryTime = expiryTime;
+        this.invalidated = invalidated;
+        this.validationResults = validationResults;
+    }
+
+    /**
+     * Create an entry which can hold validation results.
+     *
+     * @param createdTime  creation time in milliseconds
+     * @param expiryTime   expiry time in milliseconds
+     * @return cache entry
+     */
+    public static ConsentValidationCacheEntry active(long createdTime, long expiryTime) {
+
+        return new ConsentValidationCacheEntry(createdTime, expiryTime, false, Collections.emptyMap());
+    }
+
+    /**
+     * Create an entry marking the consent as invalidated.
+     *
+     * @param invalidatedTime  invalidation time in milliseconds
+     * @param expiryTime       expiry time in milliseconds
+     * @return cache entry
+     */
+    public static ConsentValidationCacheEntry invalidated(long invalidatedTime, long expiryTime) {
+
+        return new ConsentValidationCacheEntry(invalidatedTime, expiryTime, true, Collections.emptyMap());
+    }
+
+    public String getValidationResult(String requestKey) {
+
+        return validationResults.get(requestKey);
+    }
+
+    /**
+     * Create a copy of this entry with the given validation result added.
+     *
+     * @param requestKey        key identifying the validated request within the consent
+     * @param validationResult  validation result
+     * @return new cache entry
+     */
+    public ConsentValidationCacheEntry withValidationResult(String requestKey, String validationResult) {
+
+        Map<String, String> results = new HashMap<>(validationResults);
+        results.put(requestKey, validationResult);
+        return new ConsentValidationCacheEntry(createdTime, expiryTime, invalidated,
+                Collections.unmodifiableMap(results));
+    }
+
+    public long getCreatedTime() {
+
+        return createdTime;
+    }
+
+    public boolean isInvalidated() {
+
+        return invalidated;
+    }
+
+    public boolean isExpired(long currentTime) {
+
+        return currentTime >= expiryTime;
+    }
+
+    // Compared by value, since a clustered cache compares the deserialized copy on conditional replacement
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConsentValidationCacheEntry that = (ConsentValidationCacheEntry) o;
+        return createdTime == that.createdTime && expiryTime == that.expiryTime && invalidated == that.invalidated
+                && validationResults.equals(that.validationResults);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(createdTime, expiryTime, invalidated, validationResults);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.consent.cache;
+
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCacheKey;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Cache Key for consent validation cache.
+ */
+public class ConsentValidationCacheKey extends OpenBankingBaseCacheKey implements Serializable {
+
+    private static final long serialVersionUID = -2749381266531205176L;
+    private final String consentId;
+
+    public ConsentValidationCacheKey(String consentId) {
+
+        this.consentId = consentId;
+    }
+
+    public static ConsentValidationCacheKey of(String consentId) {
+
+        return new ConsentValidationCacheKey(consentId);
+    }
+
+    public String getConsentId() {
+
+        return consentId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConsentValidationCacheKey that = (ConsentValidationCacheKey) o;
+        return Objects.equals(consentId, that.consentId);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(consentId);
+    }
+
+    @Override
+    public String toString() {
+
+        return consentId;
+    }
+}
@@ -190,6 +190,13 @@ public class OpenBankingConstants {
     public static final String JWKS_RETRIEVER_SIZE_LIMIT = "OBIdentityRetriever.JWKSRetriever.SizeLimit";
     public static final String JWKS_RETRIEVER_CONN_TIMEOUT = "OBIdentityRetriever.JWKSRetriever.ConnectionTimeout";
     public static final String JWKS_RETRIEVER_READ_TIMEOUT = "OBIdentityRetriever.JWKSRetriever.ReadTimeout";
+    public static final String JWKS_RETRIEVER_CACHE_EXPIRY = "OBIdentityRetriever.JWKSRetriever.CacheExpiry";
+    public static final String JWKS_RETRIEVER_REFRESH_AHEAD_TIME =
+            "OBIdentityRetriever.JWKSRetriever.RefreshAheadTime";
+    public static final String JWKS_RETRIEVER_KID_MISS_REFRESH_INTERVAL =
+            "OBIdentityRetriever.JWKSRetriever.KidMissRefreshInterval";
+    public static final String JWKS_RETRIEVER_FAILURE_CACHE_TIME =
+            "OBIdentityRetriever.JWKSRetriever.FailureCacheTime";
 
     // Key Manager Additional Property Configs
     public static final String KEY_MANAGER_CONFIG_TAG = "KeyManager";
@@ -263,6 +270,54 @@ public class OpenBankingConstants {
     public static final String PSU_FEDERATED_IDP_NAME = "PSUFederatedAuthentication.IDPName";
     public static final String IDEMPOTENCY_IS_ENABLED = "Consent.Idempotency.Enabled";
     public static final String IDEMPOTENCY_ALLOWED_TIME = "Consent.Idempotency.AllowedTimeDuration";
+    public static final String IDEMPOTENCY_CONSENT_ATTRIBUTE_FALLBACK =
+            "Consent.Idempotency.ConsentAttributeFallbackEnabled";
     public static final String DOT_SEPARATOR = ".";
+    public static final String CONSENT_VALIDATION_CACHE_ENABLED = "Gateway.Cache.ConsentValidationCache.Enabled";
+    public static final String CONSENT_VALIDATION_CACHE_EXPIRY = "Gateway.Cache.ConsentValidationCache.CacheExpiry";
+    public static final String CONSENT_VALIDATION_CACHE_SHARED =
+            "Gateway.Cache.ConsentValidationCache.SharedClusterCache";
+    public static final String CONNECTION_POOL_CONFIG_TAG = "HTTPConnectionPool";
+    public static final String CONNECTION_POOL_MAX_CONNECTIONS_TAG = "MaxConnections";
+    public static final String CONNECTION_POOL_MAX_CONNECTIONS_PER_ROUTE_TAG = "MaxConnectionsPerRoute";
+    public static final String CONNECTION_POOL_CONNECT_TIMEOUT_TAG = "ConnectTimeout";
+    public static final String CONNECTION_POOL_CONNECTION_REQUEST_TIMEOUT_TAG = "ConnectionRequestTimeout";
+    public static final String CONNECTION_POOL_SOCKET_TIMEOUT_TAG = "SocketTimeout";
+    public static final String CONNECTION_POOL_IDLE_CONNECTION_TIMEOUT_TAG = "IdleConnectionTimeout";
+    public static final String CRL_STORE_ENABLED = "Gateway.CertificateManagement.CRLStore.Enabled";
+    public static final String CRL_STORE_REFRESH_BEFORE_EXPIRY = "Gateway" +
+            ".CertificateManagement.CRLStore.RefreshBeforeExpiry";
+    public static final String CRL_STORE_PERSISTENCE_DIRECTORY = "Gateway" +
+            ".CertificateManagement.CRLStore.PersistenceDirectory";
+    public static final String OCSP_RESPONSE_STORE_ENABLED = "Gateway" +
+            ".CertificateManagement.OCSPResponseStore.Enabled";
+    public static final String OCSP_RESPONSE_STORE_REFRESH_BEFORE_EXPIRY = "Gateway" +
+            ".CertificateManagement.OCSPResponseStore.RefreshBeforeExpiry";
+    public static final String OCSP_RESPONSE_STORE_MAX_STORE_TIME = "Gateway" +
+            ".CertificateManagement.OCSPResponseStore.MaxStoreTime";
+    public static final String REVOKED_CERTIFICATE_CACHE_EXPIRY = "Gateway" +
+            ".CertificateManagement.RevokedCertificateCacheExpiry";
+    public static final String UNKNOWN_CERTIFICATE_CACHE_EXPIRY = "Gateway" +
+            ".CertificateManagement.UnknownCertificateCacheExpiry";
+    public static final String TPP_ROLE_DENIED_CACHE_EXPIRY = "Gateway" +
+            ".TPPManagement.TPPRoleDeniedCacheExpiry";
+    public static final String THROTTLER_BACKEND = "Throttler.Backend";
+    public static final String THROTTLER_BACKEND_DATABASE = "Database";
+    public static final String THROTTLER_BACKEND_IN_MEMORY = "InMemory";
+    public static final String EVENT_POLLING_LONG_POLLING_ENABLED = "OBEventNotifications.LongPolling.Enabled";
+    public static final String EVENT_POLLING_LONG_POLLING_TIMEOUT = "OBEventNotifications.LongPolling.Timeout";
+    public static final String EVENT_POLLING_LONG_POLLING_MAX_WAITING_REQUESTS = "OBEventNotifications" +
+            ".LongPolling.MaxWaitingRequests";
+    public static final String REALTIME_EVENT_NOTIFICATION_MAX_CONCURRENT_REQUESTS_PER_HOST =
+            "RealtimeEventNotification.MaxConcurrentRequestsPerHost";
+    public static final String REALTIME_EVENT_NOTIFICATION_HOST_CIRCUIT_BREAKER_FAILURE_THRESHOLD =
+            "RealtimeEventNotification.HostCircuitBreaker.FailureThreshold";
+    public static final String REALTIME_EVENT_NOTIFICATION_HOST_CIRCUIT_BREAKER_OPEN_DURATION =
+            "RealtimeEventNotification.HostCircuitBreaker.OpenDurationInSeconds";
+    public static final String REALTIME_EVENT_NOTIFICATION_HOST_CIRCUIT_BREAKER_MAX_SHORT_CIRCUITED =
+            "RealtimeEventNotification.HostCircuitBreaker.MaxShortCircuitedNotifications";
+    public static final String ACCOUNT_METADATA_CACHE_ENABLED = "AccountMetadata.Cache.Enabled";
+    public static final String ACCOUNT_METADATA_CACHE_EXPIRY = "AccountMetadata.Cache.CacheExpiry";
+    public static final String ACCOUNT_METADATA_CACHE_MAX_ENTRIES = "AccountMetadata.Cache.MaxEntries";
+    public static final String CONSENT_PERIODICAL_EXPIRATION_CHUNK_SIZE = "Consent.PeriodicalExpiration.ChunkSize";
 }
-
@@ -24,9 +24,6 @@ import com.nimbusds.jose.util.Resource;
 import com.nimbusds.jose.util.ResourceRetriever;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
-import com.wso2.openbanking.accelerator.common.identity.ApplicationIdentityService;
-import com.wso2.openbanking.accelerator.common.identity.cache.JWKSetCache;
-import com.wso2.openbanking.accelerator.common.identity.cache.JWKSetCacheKey;
 
 import java.io.IOException;
 import java.net.URL;
@@ -54,7 +51,7 @@ public class JWKRetriever {
         jwksConnectionTimeout = Integer.parseInt(OpenBankingConfigParser.getInstance()
                 .getJwksRetrieverConnectionTimeout());
         jwksReadTimeout = Integer.parseInt(OpenBankingConfigParser.getInstance().getJwksRetrieverReadTimeout());
-        resourceRetriever = new DefaultResourceRetriever(jwksReadTimeout, jwksConnectionTimeout, jwksSizeLimit);
+        resourceRetriever = new DefaultResourceRetriever(jwksConnectionTimeout, jwksReadTimeout, jwksSizeLimit);
     }
 
     /**
@@ -100,7 +97,8 @@ public class JWKRetriever {
     }
 
     /**
-     * Get JWK Set from cache or retrieve from onDemand retriever.
+     * Get JWK Set from the JWKS manager, which retrieves it from the remote resource when it is not available.
+     * The JWK set is shared by all the applications using the same JWKS URL.
      *
      * @param jwksURL jwksURL in URL format
      * @param applicationName application name as a string
@@ -110,16 +108,7 @@ public class JWKRetriever {
     public JWKSet getJWKSet(URL jwksURL , String applicationName) throws OpenBankingException {
 
         try {
-            JWKSetCache jwkSetCache = new JWKSetCache();
-            ApplicationIdentityService applicationIdentityService = new ApplicationIdentityService();
-            JWKSet jwkSet = jwkSetCache.getFromCacheOrRetrieve(JWKSetCacheKey.of(applicationName), ()
-                    ->applicationIdentityService.getPublicJWKSet(
-                    applicationName, jwksURL, true));
-
-            if (jwkSet == null) {
-                jwkSet = updateJWKSetFromURL(jwksURL);
-            }
-            return  jwkSet;
+            return JWKSManager.getInstance().getJWKSet(jwksURL);
         } catch (OpenBankingException e) {
             throw new OpenBankingException("Couldn't get remote JWK set: " + e.getMessage(), e);
         }
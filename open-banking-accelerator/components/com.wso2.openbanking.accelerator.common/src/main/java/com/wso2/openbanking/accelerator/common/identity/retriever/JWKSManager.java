@@ -0,0 +1,464 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.identity.retriever;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyOperation;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.net.URL;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Manages the JWK sets of the JWKS endpoints used to verify signatures.
+ *
+ * A JWK set is retrieved once per JWKS URL and shared by all the signature validations. Concurrent retrievals of the
+ * same URL are coalesced, an unknown kid triggers a rate limited refresh so that rotated keys are picked up, entries
+ * close to expiry are refreshed in the background and unreachable endpoints are not called again for a short time.
+ * Verifiers are built once per kid and reused until the JWK set is refreshed.
+ */
+public class JWKSManager {
+
+    private static final Log log = LogFactory.getLog(JWKSManager.class);
+
+    private static volatile JWKSManager instance;
+
+    private final ConcurrentMap<String, JWKSEntry> jwksEntries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<JWKSEntry>> inFlightRetrievals = new ConcurrentHashMap<>();
+    private final JWKSetRetriever jwkSetRetriever;
+    private final Executor refreshExecutor;
+    private final long cacheExpiryMillis;
+    private final long refreshAheadMillis;
+    private final long kidMissRefreshIntervalMillis;
+    private final long failureCacheMillis;
+
+    /**
+     * Retrieves a JWK set from a JWKS URL.
+     */
+    public interface JWKSetRetriever {
+
+        JWKSet retrieve(URL jwksURL) throws OpenBankingException;
+    }
+
+    @Generated(message = "Excluding from code coverage since it requires the open banking configuration")
+    private JWKSManager() {
+
+        this(jwksURL -> new JWKRetriever().updateJWKSetFromURL(jwksURL),
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "OB-JWKS-Refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(OpenBankingConfigParser.getInstance()
+                        .getJwksRetrieverCacheExpiry())),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(OpenBankingConfigParser.getInstance()
+                        .getJwksRetrieverRefreshAheadTime())),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(OpenBankingConfigParser.getInstance()
+                        .getJwksRetrieverKidMissRefreshInterval())),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(OpenBankingConfigParser.getInstance()
+                        .getJwksRetrieverFailureCacheTime())));
+    }
+
+    /**
+     * Initialize the JWKS manager.
+     *
+     * @param jwkSetRetriever              retriever used to retrieve the JWK sets
+     * @param refreshExecutor              executor used to refresh the JWK sets in the background
+     * @param cacheExpiryMillis            time a JWK set is kept before it is retrieved again
+     * @param refreshAheadMillis           time before the expiry at which a JWK set is refreshed in the background
+     * @param kidMissRefreshIntervalMillis minimum time between two refreshes triggered by an unknown kid
+     * @param failureCacheMillis           time an unreachable JWKS endpoint is not called again
+     */
+    protected JWKSManager(JWKSetRetriever jwkSetRetriever, Executor refreshExecutor, long cacheExpiryMillis,
+                          long refreshAheadMillis, long kidMissRefreshIntervalMillis, long failureCacheMillis) {
+
+        this.jwkSetRetriever = jwkSetRetriever;
+        this.refreshExecutor = refreshExecutor;
+        this.cacheExpiryMillis = cacheExpiryMillis;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.kidMissRefreshIntervalMillis = kidMissRefreshIntervalMillis;
+        this.failureCacheMillis = failureCacheMillis;
+    }
+
+    public static JWKSManager getInstance() {
+
+        if (instance == null) {
+            synchronized (JWKSManager.class) {
+                if (instance == null) {
+                    instance = new JWKSManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the JWK set of a JWKS URL.
+     *
+     * @param jwksURL JWKS URL
+     * @return JWK set
+     * @throws OpenBankingException if the JWK set cannot be retrieved
+     */
+    public JWKSet getJWKSet(URL jwksURL) throws OpenBankingException {
+
+        return getEntry(jwksURL).jwkSet;
+    }
+
+    /**
+     * Get the signing key of the given kid from the JWK set of a JWKS URL.
+     * Keys with use "sig" and operation "verify" are preferred over keys with use "sig" and keys without them. The
+     * JWK set is refreshed once when the kid is not found, unless it was retrieved within the kid miss refresh
+     * interval.
+     *
+     * @param jwksURL JWKS URL
+     * @param kid     key ID
+     * @return signing key or null if no key matches the kid
+     * @throws OpenBankingException if the JWK set cannot be retrieved
+     */
+    public JWK getSigningKey(URL jwksURL, String kid) throws OpenBankingException {
+
+        return resolveSigningKey(jwksURL, kid).jwk;
+    }
+
+    /**
+     * Get a verifier for the signing key of the given kid from the JWK set of a JWKS URL.
+     * If the key contains a certificate chain, the public key of the first certificate is used.
+     *
+     * @param jwksURL                JWKS URL
+     * @param kid                    key ID
+     * @param algorithm              signing algorithm
+     * @param deferredCriticalParams critical header parameters which are validated by the caller
+     * @return verifier
+     * @throws OpenBankingException if the JWK set cannot be retrieved or no matching key is found
+     */
+    public JWSVerifier getVerifier(URL jwksURL, String kid, JWSAlgorithm algorithm,
+                                   Set<String> deferredCriticalParams) throws OpenBankingException {
+
+        SigningKey signingKey = resolveSigningKey(jwksURL, kid);
+        if (signingKey.jwk == null) {
+            throw new OpenBankingException("Public key of the signing certificate not found in JWK set");
+        }
+
+        String verifierKey = signingKey.jwk.getKeyID() + ":" + algorithm.getName() + ":" +
+                new TreeSet<>(deferredCriticalParams);
+        JWSVerifier verifier = signingKey.entry.verifiers.get(verifierKey);
+        if (verifier == null) {
+            verifier = createVerifier(signingKey.jwk, algorithm, deferredCriticalParams);
+            signingKey.entry.verifiers.putIfAbsent(verifierKey, verifier);
+        }
+        return verifier;
+    }
+
+    /**
+     * Get a JWK source for the JWKS URL which can be used with the nimbus JWT processors.
+     * The JWK set is refreshed once when no key matches the selector.
+     *
+     * @param jwksURL JWKS URL
+     * @return JWK source
+     */
+    public JWKSource<SecurityContext> getJWKSource(URL jwksURL) {
+
+        return (jwkSelector, context) -> {
+            try {
+                List<JWK> jwks = jwkSelector.select(getJWKSet(jwksURL));
+                if (jwks.isEmpty() && refreshOnKidMiss(jwksURL)) {
+                    jwks = jwkSelector.select(getJWKSet(jwksURL));
+                }
+                return jwks;
+            } catch (OpenBankingException e) {
+                throw new KeySourceException("Couldn't retrieve remote JWK set: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * Remove the JWK set of a JWKS URL so that it is retrieved again on the next use.
+     *
+     * @param jwksURL JWKS URL
+     */
+    public void invalidate(URL jwksURL) {
+
+        jwksEntries.remove(jwksURL.toString());
+    }
+
+    protected long currentTimeMillis() {
+
+        return System.currentTimeMillis();
+    }
+
+    private JWKSEntry getEntry(URL jwksURL) throws OpenBankingException {
+
+        JWKSEntry entry = jwksEntries.get(jwksURL.toString());
+        long now = currentTimeMillis();
+
+        if (entry != null) {
+            if (entry.isFailure()) {
+                if (now - entry.retrievedTime < failureCacheMillis) {
+                    throw new OpenBankingException(String.format("JWKS endpoint %s is unreachable: %s",
+                            jwksURL, entry.failureMessage));
+                }
+            } else if (now - entry.retrievedTime < cacheExpiryMillis) {
+                if (now - entry.retrievedTime >= cacheExpiryMillis - refreshAheadMillis) {
+                    scheduleRefresh(jwksURL, entry);
+                }
+                return entry;
+            }
+        }
+        return retrieve(jwksURL);
+    }
+
+    private SigningKey resolveSigningKey(URL jwksURL, String kid) throws OpenBankingException {
+
+        JWKSEntry entry = getEntry(jwksURL);
+        JWK jwk = selectSigningKey(entry.jwkSet, kid);
+        if (jwk == null && refreshOnKidMiss(jwksURL)) {
+            entry = getEntry(jwksURL);
+            jwk = selectSigningKey(entry.jwkSet, kid);
+        }
+        if (jwk == null && log.isDebugEnabled()) {
+            log.debug(String.format("No matching key found for kid %s in JWK set of %s",
+                    String.valueOf(kid).replaceAll("[\r\n]", ""), jwksURL));
+        }
+        return new SigningKey(entry, jwk);
+    }
+
+    /**
+     * Refresh the JWK set when a key is not found, unless the JWK set was retrieved or a refresh was attempted
+     * within the kid miss refresh interval.
+     *
+     * @return true if the JWK set was refreshed
+     */
+    private boolean refreshOnKidMiss(URL jwksURL) {
+
+        JWKSEntry entry = jwksEntries.get(jwksURL.toString());
+        long now = currentTimeMillis();
+        if (entry != null) {
+            synchronized (entry) {
+                if (now - Math.max(entry.retrievedTime, entry.lastRefreshAttemptTime) < kidMissRefreshIntervalMillis) {
+                    return false;
+                }
+                entry.lastRefreshAttemptTime = now;
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Refreshing JWK set of %s since the kid is not found", jwksURL));
+        }
+        try {
+            retrieve(jwksURL);
+            return true;
+        } catch (OpenBankingException e) {
+            log.error(String.format("Unable to refresh JWK set of %s", jwksURL), e);
+            return false;
+        }
+    }
+
+    private void scheduleRefresh(URL jwksURL, JWKSEntry entry) {
+
+        if (!entry.refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Scheduling background refresh of JWK set of %s", jwksURL));
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    retrieve(jwksURL);
+                } catch (OpenBankingException e) {
+                    log.error(String.format("Background refresh of JWK set of %s failed", jwksURL), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshScheduled.set(false);
+            log.error("Unable to schedule the background refresh of JWK set", e);
+        }
+    }
+
+    /**
+     * Retrieve the JWK set of the URL. Concurrent retrievals of the same URL wait for a single retrieval.
+     */
+    private JWKSEntry retrieve(URL jwksURL) throws OpenBankingException {
+
+        String key = jwksURL.toString();
+        CompletableFuture<JWKSEntry> retrieval = new CompletableFuture<>();
+        CompletableFuture<JWKSEntry> inFlightRetrieval = inFlightRetrievals.putIfAbsent(key, retrieval);
+        if (inFlightRetrieval != null) {
+            return awaitRetrieval(inFlightRetrieval);
+        }
+
+        try {
+            JWKSEntry entry = new JWKSEntry(jwkSetRetriever.retrieve(jwksURL), currentTimeMillis());
+            jwksEntries.put(key, entry);
+            retrieval.complete(entry);
+            return entry;
+        } catch (OpenBankingException | RuntimeException e) {
+            long now = currentTimeMillis();
+            // A usable JWK set is kept when a refresh fails, otherwise the failure is cached
+            jwksEntries.compute(key, (url, existing) -> existing != null && !existing.isFailure()
+                    && now - existing.retrievedTime < cacheExpiryMillis ? existing :
+                    JWKSEntry.failure(e.getMessage(), now));
+            retrieval.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRetrievals.remove(key, retrieval);
+        }
+    }
+
+    private JWKSEntry awaitRetrieval(CompletableFuture<JWKSEntry> inFlightRetrieval) throws OpenBankingException {
+
+        try {
+            return inFlightRetrieval.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenBankingException("Interrupted while waiting for the JWK set", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OpenBankingException) {
+                throw (OpenBankingException) e.getCause();
+            }
+            throw new OpenBankingException("Couldn't retrieve remote JWK set: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    private static JWK selectSigningKey(JWKSet jwkSet, String kid) {
+
+        // First get the key with given kid, use as sig and operation as verify from the list.
+        List<JWK> jwkList = new JWKSelector(new JWKMatcher.Builder().keyID(kid).keyUse(KeyUse.SIGNATURE)
+                .keyOperation(KeyOperation.VERIFY).build()).select(jwkSet);
+
+        if (jwkList.isEmpty()) {
+            // If empty, then get the key with given kid and use as sig from the list.
+            jwkList = new JWKSelector(new JWKMatcher.Builder().keyID(kid).keyUse(KeyUse.SIGNATURE).build())
+                    .select(jwkSet);
+        }
+        if (jwkList.isEmpty()) {
+            // fail over defaults to ->, then get the key with given kid.
+            jwkList = new JWKSelector(new JWKMatcher.Builder().keyID(kid).build()).select(jwkSet);
+        }
+        return jwkList.isEmpty() ? null : jwkList.get(0);
+    }
+
+    private static JWSVerifier createVerifier(JWK jwk, JWSAlgorithm algorithm, Set<String> deferredCriticalParams)
+            throws OpenBankingException {
+
+        try {
+            JWK publicKey = jwk;
+            List<X509Certificate> certificateChain = jwk.getParsedX509CertChain();
+            if (certificateChain != null && !certificateChain.isEmpty()) {
+                if (KeyType.RSA.equals(jwk.getKeyType())) {
+                    publicKey = RSAKey.parse(certificateChain.get(0));
+                } else if (KeyType.EC.equals(jwk.getKeyType())) {
+                    publicKey = ECKey.parse(certificateChain.get(0));
+                }
+            }
+
+            if (JWSAlgorithm.Family.RSA.contains(algorithm) && publicKey instanceof RSAKey) {
+                return new RSASSAVerifier(((RSAKey) publicKey).toRSAPublicKey(), deferredCriticalParams);
+            } else if (JWSAlgorithm.Family.EC.contains(algorithm) && publicKey instanceof ECKey) {
+                return new ECDSAVerifier(((ECKey) publicKey).toECPublicKey(), deferredCriticalParams);
+            }
+        } catch (JOSEException e) {
+            throw new OpenBankingException("Certificate not valid", e);
+        }
+        throw new OpenBankingException(String.format("The kty %s of the Key is not supported for the %s algorithm",
+                jwk.getKeyType().getValue(), algorithm.getName()));
+    }
+
+    /**
+     * JWK set of a JWKS URL with the verifiers built from it, or a failed retrieval.
+     */
+    private static class JWKSEntry {
+
+        private final JWKSet jwkSet;
+        private final String failureMessage;
+        private final long retrievedTime;
+        private final ConcurrentMap<String, JWSVerifier> verifiers = new ConcurrentHashMap<>();
+        private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+        private long lastRefreshAttemptTime;
+
+        JWKSEntry(JWKSet jwkSet, long retrievedTime) {
+
+            this(jwkSet, null, retrievedTime);
+        }
+
+        private JWKSEntry(JWKSet jwkSet, String failureMessage, long retrievedTime) {
+
+            this.jwkSet = jwkSet;
+            this.failureMessage = failureMessage;
+            this.retrievedTime = retrievedTime;
+        }
+
+        static JWKSEntry failure(String failureMessage, long failedTime) {
+
+            return new JWKSEntry(null, failureMessage, failedTime);
+        }
+
+        boolean isFailure() {
+
+            return jwkSet == null;
+        }
+    }
+
+    /**
+     * Signing key selected from a JWK set entry.
+     */
+    private static class SigningKey {
+
+        private final JWKSEntry entry;
+        private final JWK jwk;
+
+        SigningKey(JWKSEntry entry, JWK jwk) {
+
+            this.entry = entry;
+            this.jwk = jwk;
+        }
+    }
+}
@@ -21,10 +21,12 @@ package com.wso2.openbanking.accelerator.common.identity.retriever;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.identity.IdentityConstants;
 import com.wso2.openbanking.accelerator.common.util.HTTPClientUtils;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.base.ServerConfiguration;
 
+import java.io.File;
 import java.security.Key;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -38,20 +40,23 @@ import java.util.Optional;
  */
 public class ServerIdentityRetriever {
 
-    private static KeyStore keyStore = null;
+    private static volatile KeyStore keyStore = null;
     // Internal KeyStore Password.
     private static char[] keyStorePassword;
+    private static String keyStoreLocation;
+    private static long keyStoreLastModified;
 
     private static final Log log = LogFactory.getLog(ServerIdentityRetriever.class);
 
     static {
         // Static Initialize Internal Keystore.
-        String keyStoreLocation = ServerConfiguration.getInstance()
+        keyStoreLocation = ServerConfiguration.getInstance()
                 .getFirstProperty(IdentityConstants.KEYSTORE_LOCATION_CONF_KEY);
         String keyStorePassword = ServerConfiguration.getInstance()
                 .getFirstProperty(IdentityConstants.KEYSTORE_PASS_CONF_KEY);
 
         try {
+            keyStoreLastModified = getKeyStoreLastModified();
             ServerIdentityRetriever.keyStore = HTTPClientUtils.loadKeyStore(keyStoreLocation, keyStorePassword);
             ServerIdentityRetriever.keyStorePassword = keyStorePassword.toCharArray();
         } catch (OpenBankingException e) {
@@ -59,6 +64,35 @@ public class ServerIdentityRetriever {
         }
     }
 
+    /**
+     * Returns the last modified time of the internal keystore file.
+     * @return last modified time or 0 if the keystore file is not available
+     */
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    // Suppressed content - new File(keyStoreLocation)
+    // Suppression reason - False Positive : Keystore location is obtained from carbon.xml. So it can be marked
+    //                      as a trusted filepath
+    // Suppressed warning count - 1
+    public static long getKeyStoreLastModified() {
+
+        return keyStoreLocation == null ? 0 : new File(keyStoreLocation).lastModified();
+    }
+
+    /**
+     * Loads the internal keystore again if the keystore file is modified after it was loaded.
+     * @throws OpenBankingException when the keystore cannot be loaded
+     */
+    public static synchronized void reloadKeyStoreIfModified() throws OpenBankingException {
+
+        long lastModified = getKeyStoreLastModified();
+        if (keyStorePassword == null || lastModified == keyStoreLastModified) {
+            return;
+        }
+        keyStore = HTTPClientUtils.loadKeyStore(keyStoreLocation, String.valueOf(keyStorePassword));
+        keyStoreLastModified = lastModified;
+        log.debug("Reloaded the internal keystore since the keystore file is modified");
+    }
+
     /**
      * Returns the signing key using the signing Certificate.
      * @param certificateType Signing certificate
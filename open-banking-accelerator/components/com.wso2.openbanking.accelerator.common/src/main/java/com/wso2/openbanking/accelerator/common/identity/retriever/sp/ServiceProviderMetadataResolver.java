@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.identity.retriever.sp;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.internal.OpenBankingCommonDataHolder;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.common.util.ServiceProviderUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the service provider properties of OAuth applications.
+ *
+ * The whole property map of an application is loaded once per client ID and kept in a local concurrent map, so
+ * cache hits do not take any lock. Concurrent misses for the same client ID wait on a single load instead of each
+ * calling the application management service. Entries expire after the common identity cache modified expiry and
+ * are invalidated by the application management listener when an application is updated or deleted.
+ */
+public class ServiceProviderMetadataResolver {
+
+    private static final Log log = LogFactory.getLog(ServiceProviderMetadataResolver.class);
+    private static final String CLIENT_ID_ERROR = "Client id not found";
+
+    private static volatile ServiceProviderMetadataResolver instance;
+
+    private final ConcurrentMap<String, CompletableFuture<SPMetadataEntry>> spMetadataCache =
+            new ConcurrentHashMap<>();
+    private final long expiryMillis;
+
+    @Generated(message = "Excluding from code coverage since it requires the common data holder")
+    private ServiceProviderMetadataResolver() {
+
+        this(TimeUnit.MINUTES.toMillis(OpenBankingCommonDataHolder.getInstance().getCommonCacheModifiedExpiry()));
+    }
+
+    /**
+     * Initialize with the time an entry is kept before it is loaded again.
+     *
+     * @param expiryMillis entry expiry time in milliseconds
+     */
+    protected ServiceProviderMetadataResolver(long expiryMillis) {
+
+        this.expiryMillis = expiryMillis;
+    }
+
+    public static ServiceProviderMetadataResolver getInstance() {
+
+        if (instance == null) {
+            synchronized (ServiceProviderMetadataResolver.class) {
+                if (instance == null) {
+                    instance = new ServiceProviderMetadataResolver();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get a property of the application from the SP metadata.
+     *
+     * @param clientId ClientId of the application
+     * @param property Property of the application
+     * @return the property value or null if the property is not available
+     * @throws OpenBankingException if an error occurs while retrieving the SP metadata
+     */
+    public String getServiceProviderProperty(String clientId, String property) throws OpenBankingException {
+
+        return getServiceProviderProperties(clientId).get(property);
+    }
+
+    /**
+     * Get all the properties of the application from the SP metadata.
+     *
+     * @param clientId ClientId of the application
+     * @return unmodifiable map of the SP properties, empty if the application is not found
+     * @throws OpenBankingException if an error occurs while retrieving the SP metadata
+     */
+    public Map<String, String> getServiceProviderProperties(String clientId) throws OpenBankingException {
+
+        if (StringUtils.isEmpty(clientId)) {
+            log.error(CLIENT_ID_ERROR);
+            throw new OpenBankingException(CLIENT_ID_ERROR);
+        }
+
+        while (true) {
+            CompletableFuture<SPMetadataEntry> entryFuture = spMetadataCache.get(clientId);
+            if (entryFuture == null) {
+                CompletableFuture<SPMetadataEntry> newEntryFuture = new CompletableFuture<>();
+                entryFuture = spMetadataCache.putIfAbsent(clientId, newEntryFuture);
+                if (entryFuture == null) {
+                    return loadEntry(clientId, newEntryFuture).getProperties();
+                }
+            }
+
+            SPMetadataEntry entry = awaitEntry(clientId, entryFuture);
+            if (!entry.isExpired()) {
+                return entry.getProperties();
+            }
+            // Only the thread which removes the expired entry triggers the reload in the next iteration
+            spMetadataCache.remove(clientId, entryFuture);
+        }
+    }
+
+    /**
+     * Remove the SP metadata of the given client ID so that it is loaded again on the next lookup.
+     *
+     * @param clientId ClientId of the application
+     */
+    public void invalidate(String clientId) {
+
+        if (StringUtils.isNotEmpty(clientId)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Invalidating SP metadata of client %s",
+                        clientId.replaceAll("[\r\n]", "")));
+            }
+            spMetadataCache.remove(clientId);
+        }
+    }
+
+    /**
+     * Remove the SP metadata of all the applications.
+     */
+    public void invalidateAll() {
+
+        log.debug("Invalidating SP metadata of all applications");
+        spMetadataCache.clear();
+    }
+
+    /**
+     * Retrieve the SP properties of the application from the application management service.
+     *
+     * @param clientId ClientId of the application
+     * @return map of the SP properties or null if the application is not found
+     * @throws OpenBankingException if an error occurs while retrieving the application
+     */
+    @Generated(message = "Excluding from code coverage since it requires a service call")
+    protected Map<String, String> retrieveServiceProviderProperties(String clientId) throws OpenBankingException {
+
+        try {
+            ServiceProvider serviceProvider = OpenBankingCommonDataHolder.getInstance()
+                    .getApplicationManagementService().getServiceProviderByClientId(clientId,
+                            IdentityApplicationConstants.OAuth2.NAME,
+                            ServiceProviderUtils.getSpTenantDomain(clientId));
+            if (serviceProvider == null) {
+                return null;
+            }
+            Map<String, String> spProperties = new HashMap<>();
+            if (serviceProvider.getSpProperties() != null) {
+                for (ServiceProviderProperty spProperty : serviceProvider.getSpProperties()) {
+                    spProperties.put(spProperty.getName(), spProperty.getValue());
+                }
+            }
+            return spProperties;
+        } catch (IdentityApplicationManagementException e) {
+            log.error(String.format("Error occurred while retrieving OAuth2 application data for clientId %s",
+                    clientId.replaceAll("[\r\n]", "")), e);
+            throw new OpenBankingException("Error occurred while retrieving OAuth2 application data for clientId"
+                    , e);
+        }
+    }
+
+    private SPMetadataEntry loadEntry(String clientId, CompletableFuture<SPMetadataEntry> entryFuture)
+            throws OpenBankingException {
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Loading SP metadata of client %s", clientId.replaceAll("[\r\n]", "")));
+        }
+        try {
+            Map<String, String> spProperties = retrieveServiceProviderProperties(clientId);
+            SPMetadataEntry entry = new SPMetadataEntry(spProperties == null ?
+                    Collections.emptyMap() : Collections.unmodifiableMap(spProperties));
+            entryFuture.complete(entry);
+            if (spProperties == null) {
+                // Applications which are not found are not cached since they could be created later
+                spMetadataCache.remove(clientId, entryFuture);
+            }
+            return entry;
+        } catch (OpenBankingException | RuntimeException e) {
+            entryFuture.completeExceptionally(e);
+            spMetadataCache.remove(clientId, entryFuture);
+            throw e;
+        }
+    }
+
+    private SPMetadataEntry awaitEntry(String clientId, CompletableFuture<SPMetadataEntry> entryFuture)
+            throws OpenBankingException {
+
+        try {
+            return entryFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenBankingException("Interrupted while waiting for the SP metadata of the client", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OpenBankingException) {
+                throw (OpenBankingException) e.getCause();
+            }
+            log.error(String.format("Error occurred while loading SP metadata for clientId %s",
+                    clientId.replaceAll("[\r\n]", "")), e.getCause());
+            throw new OpenBankingException("Error occurred while retrieving OAuth2 application data for clientId",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * SP properties of an application with the time they were loaded.
+     */
+    private class SPMetadataEntry {
+
+        private final Map<String, String> properties;
+        private final long loadedTime;
+
+        SPMetadataEntry(Map<String, String> properties) {
+
+            this.properties = properties;
+            this.loadedTime = System.currentTimeMillis();
+        }
+
+        Map<String, String> getProperties() {
+
+            return properties;
+        }
+
+        boolean isExpired() {
+
+            return System.currentTimeMillis() - loadedTime > expiryMillis;
+        }
+    }
+}
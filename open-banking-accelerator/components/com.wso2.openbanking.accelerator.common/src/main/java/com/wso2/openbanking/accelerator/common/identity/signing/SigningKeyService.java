@@ -0,0 +1,433 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.identity.signing;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.impl.ECDSA;
+import com.nimbusds.jose.crypto.impl.RSASSA;
+import com.nimbusds.jose.util.Base64URL;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signs payloads with a signing key loaded from a key store.
+ *
+ * The signing key, the nimbus signer and initialized JCA signatures are kept until the key source changes, and the
+ * base64url encoded JWS headers are kept per algorithm, kid and critical parameters. The payload is streamed into
+ * the signature so that large payloads are not copied into intermediate signing input strings.
+ */
+public class SigningKeyService {
+
+    private static final Log log = LogFactory.getLog(SigningKeyService.class);
+    private static final long KEY_SOURCE_CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final int MAX_CACHED_HEADERS = 128;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final String B64_CLAIM_KEY = "b64";
+    private static final byte[] DOT = {'.'};
+
+    private final SigningKeyLoader signingKeyLoader;
+    private final ConcurrentMap<List<Object>, EncodedHeader> encodedHeaders = new ConcurrentHashMap<>();
+    private volatile SigningKeyState signingKeyState;
+    private volatile long nextKeySourceCheckTime;
+
+    /**
+     * Loads the signing key from its source.
+     */
+    public interface SigningKeyLoader {
+
+        /**
+         * Load the signing key.
+         *
+         * @return signing key
+         * @throws OpenBankingException if the key cannot be loaded
+         */
+        Key loadSigningKey() throws OpenBankingException;
+
+        /**
+         * Version of the key source, such as the last modified time of the key store file. The signing key is
+         * loaded again when the version changes.
+         *
+         * @return key source version
+         */
+        default long getKeySourceVersion() {
+
+            return 0;
+        }
+    }
+
+    /**
+     * Writes a payload to the signature.
+     */
+    private interface PayloadWriter {
+
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Builds a JWS header.
+     */
+    private interface HeaderBuilder {
+
+        JWSHeader build();
+    }
+
+    public SigningKeyService(SigningKeyLoader signingKeyLoader) {
+
+        this.signingKeyLoader = signingKeyLoader;
+    }
+
+    /**
+     * Get the signing key.
+     *
+     * @return signing key
+     * @throws OpenBankingException if the signing key cannot be loaded
+     */
+    public Key getSigningKey() throws OpenBankingException {
+
+        return getSigningKeyState().signingKey;
+    }
+
+    /**
+     * Get the nimbus signer of the signing key. The signer is thread safe and reused until the key changes.
+     *
+     * @return signer
+     * @throws OpenBankingException if the signing key cannot be loaded or is not an RSA or EC key
+     */
+    public JWSSigner getSigner() throws OpenBankingException {
+
+        SigningKeyState state = getSigningKeyState();
+        if (state.signer == null) {
+            throw new OpenBankingException(unsupportedKeyMessage(state.signingKey));
+        }
+        return state.signer;
+    }
+
+    /**
+     * Sign the payload as a compact JWS with a header containing only the algorithm.
+     *
+     * @param algorithm signing algorithm
+     * @param payload   payload
+     * @return compact serialized JWS
+     * @throws OpenBankingException if the payload cannot be signed
+     */
+    public String sign(JWSAlgorithm algorithm, String payload) throws OpenBankingException {
+
+        EncodedHeader encodedHeader = getEncodedHeader(Arrays.asList(algorithm),
+                () -> new JWSHeader.Builder(algorithm).build());
+        String encodedPayload = Base64URL.encode(payload.getBytes(StandardCharsets.UTF_8)).toString();
+        Base64URL signature = computeSignature(algorithm, encodedHeader,
+                outputStream -> outputStream.write(encodedPayload.getBytes(StandardCharsets.US_ASCII)));
+        return encodedHeader.value + "." + encodedPayload + "." + signature;
+    }
+
+    /**
+     * Sign the payload as a detached JWS with a JOSE typed header containing the kid and the critical parameters.
+     * The payload is signed un-encoded when the critical parameters set b64 to false.
+     *
+     * @param algorithm          signing algorithm
+     * @param kid                key ID of the signing certificate
+     * @param criticalParameters critical header parameters
+     * @param payload            payload
+     * @return detached JWS, which is the encoded header + ".." + the encoded signature
+     * @throws OpenBankingException if the payload cannot be signed
+     */
+    public String signDetached(JWSAlgorithm algorithm, String kid, Map<String, Object> criticalParameters,
+                               String payload) throws OpenBankingException {
+
+        return signDetachedPayload(algorithm, kid, criticalParameters, outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            writer.write(payload);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Sign the payload read from the stream as a detached JWS with a JOSE typed header containing the kid and the
+     * critical parameters. The payload is signed un-encoded when the critical parameters set b64 to false.
+     *
+     * @param algorithm          signing algorithm
+     * @param kid                key ID of the signing certificate
+     * @param criticalParameters critical header parameters
+     * @param payload            payload stream, which is not closed
+     * @return detached JWS, which is the encoded header + ".." + the encoded signature
+     * @throws OpenBankingException if the payload cannot be read or signed
+     */
+    public String signDetached(JWSAlgorithm algorithm, String kid, Map<String, Object> criticalParameters,
+                               InputStream payload) throws OpenBankingException {
+
+        return signDetachedPayload(algorithm, kid, criticalParameters, outputStream -> {
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int read;
+            while ((read = payload.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        });
+    }
+
+    private String signDetachedPayload(JWSAlgorithm algorithm, String kid, Map<String, Object> criticalParameters,
+                                       PayloadWriter payloadWriter) throws OpenBankingException {
+
+        if (StringUtils.isBlank(kid)) {
+            throw new OpenBankingException("The kid is not present to sign.");
+        }
+        Map<String, Object> parameters = criticalParameters == null ? Collections.emptyMap() : criticalParameters;
+        EncodedHeader encodedHeader = getEncodedHeader(Arrays.asList(algorithm, kid, new HashMap<>(parameters)),
+                () -> new JWSHeader.Builder(algorithm)
+                        .keyID(kid)
+                        .type(JOSEObjectType.JOSE)
+                        .criticalParams(parameters.keySet())
+                        .customParams(parameters)
+                        .build());
+
+        Object b64Value = parameters.get(B64_CLAIM_KEY);
+        boolean encodePayload = b64Value == null || (Boolean) b64Value;
+        Base64URL signature = computeSignature(algorithm, encodedHeader, encodePayload ? outputStream -> {
+            // b64=true, the signing input contains the base64url encoded payload
+            OutputStream encoder = Base64.getUrlEncoder().withoutPadding().wrap(outputStream);
+            payloadWriter.writeTo(encoder);
+            encoder.close();
+        } : payloadWriter);
+        return encodedHeader.value + ".." + signature;
+    }
+
+    private Base64URL computeSignature(JWSAlgorithm algorithm, EncodedHeader encodedHeader,
+                                       PayloadWriter payloadWriter) throws OpenBankingException {
+
+        SigningKeyState state = getSigningKeyState();
+        Signature signature = state.borrowSignature(algorithm);
+        try {
+            signature.update(encodedHeader.bytes);
+            signature.update(DOT);
+            payloadWriter.writeTo(new SignatureOutputStream(signature));
+            byte[] signatureBytes = signature.sign();
+            state.returnSignature(algorithm, signature);
+
+            if (JWSAlgorithm.Family.EC.contains(algorithm)) {
+                // JCA produces DER encoded EC signatures while JWS uses the concatenated R and S values
+                signatureBytes = ECDSA.transcodeSignatureToConcat(signatureBytes,
+                        ECDSA.getSignatureByteArrayLength(algorithm));
+            }
+            return Base64URL.encode(signatureBytes);
+        } catch (SignatureException | JOSEException e) {
+            throw new OpenBankingException("Unable to compute JWS signature", e);
+        } catch (IOException e) {
+            throw new OpenBankingException("Unable to read the payload to sign", e);
+        }
+    }
+
+    private EncodedHeader getEncodedHeader(List<Object> headerKey, HeaderBuilder headerBuilder) {
+
+        EncodedHeader encodedHeader = encodedHeaders.get(headerKey);
+        if (encodedHeader == null) {
+            encodedHeader = new EncodedHeader(headerBuilder.build());
+            if (encodedHeaders.size() >= MAX_CACHED_HEADERS) {
+                // Headers with per request critical parameter values are not worth keeping
+                encodedHeaders.clear();
+            }
+            encodedHeaders.putIfAbsent(headerKey, encodedHeader);
+        }
+        return encodedHeader;
+    }
+
+    /**
+     * Get the signing key state, loading the key again when the key source has changed. The key source is checked
+     * at most once in the key source check interval.
+     */
+    private SigningKeyState getSigningKeyState() throws OpenBankingException {
+
+        SigningKeyState state = signingKeyState;
+        if (state != null && System.currentTimeMillis() < nextKeySourceCheckTime) {
+            return state;
+        }
+
+        synchronized (this) {
+            state = signingKeyState;
+            long now = System.currentTimeMillis();
+            if (state != null && now < nextKeySourceCheckTime) {
+                return state;
+            }
+            nextKeySourceCheckTime = now + KEY_SOURCE_CHECK_INTERVAL_MILLIS;
+
+            long keySourceVersion = signingKeyLoader.getKeySourceVersion();
+            if (state != null && state.keySourceVersion == keySourceVersion) {
+                return state;
+            }
+            try {
+                Key signingKey = signingKeyLoader.loadSigningKey();
+                if (signingKey == null) {
+                    throw new OpenBankingException("Signing key is not present");
+                }
+                signingKeyState = new SigningKeyState(signingKey, keySourceVersion);
+                log.debug("Loaded the signing key");
+            } catch (OpenBankingException e) {
+                if (state == null) {
+                    throw e;
+                }
+                log.error("Unable to reload the signing key, the previous signing key is used", e);
+            }
+            return signingKeyState;
+        }
+    }
+
+    private static String unsupportedKeyMessage(Key signingKey) {
+
+        return "The \"" + signingKey.getAlgorithm() + "\" algorithm is not supported by the Solution";
+    }
+
+    /**
+     * Base64url encoded JWS header.
+     */
+    private static class EncodedHeader {
+
+        private final String value;
+        private final byte[] bytes;
+
+        EncodedHeader(JWSHeader header) {
+
+            this.value = header.toBase64URL().toString();
+            this.bytes = value.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Signing key with the signer and the initialized JCA signatures created from it.
+     */
+    private static class SigningKeyState {
+
+        private final Key signingKey;
+        private final long keySourceVersion;
+        private final JWSSigner signer;
+        private final ConcurrentMap<JWSAlgorithm, Queue<Signature>> signatures = new ConcurrentHashMap<>();
+
+        SigningKeyState(Key signingKey, long keySourceVersion) {
+
+            this.signingKey = signingKey;
+            this.keySourceVersion = keySourceVersion;
+            if ("RSA".equals(signingKey.getAlgorithm())) {
+                this.signer = new RSASSASigner((PrivateKey) signingKey);
+            } else if ("EC".equals(signingKey.getAlgorithm()) && signingKey instanceof ECPrivateKey) {
+                this.signer = new ECDSASigner((ECPrivateKey) signingKey);
+            } else {
+                this.signer = null;
+            }
+        }
+
+        Signature borrowSignature(JWSAlgorithm algorithm) throws OpenBankingException {
+
+            Signature signature = signatures.computeIfAbsent(algorithm, alg -> new ConcurrentLinkedQueue<>()).poll();
+            return signature != null ? signature : createSignature(algorithm);
+        }
+
+        void returnSignature(JWSAlgorithm algorithm, Signature signature) {
+
+            // After signing, the signature is reset to the state it was in after initSign
+            signatures.get(algorithm).offer(signature);
+        }
+
+        private Signature createSignature(JWSAlgorithm algorithm) throws OpenBankingException {
+
+            try {
+                Signature signature;
+                if ("RSA".equals(signingKey.getAlgorithm()) && JWSAlgorithm.Family.RSA.contains(algorithm)) {
+                    signature = RSASSA.getSignerAndVerifier(algorithm, null);
+                } else if ("EC".equals(signingKey.getAlgorithm()) && JWSAlgorithm.Family.EC.contains(algorithm)) {
+                    signature = ECDSA.getSignerAndVerifier(algorithm, null);
+                } else {
+                    throw new OpenBankingException(String.format("The %s signing algorithm is not supported " +
+                            "for the %s signing key", algorithm.getName(), signingKey.getAlgorithm()));
+                }
+                signature.initSign((PrivateKey) signingKey);
+                return signature;
+            } catch (JOSEException | InvalidKeyException e) {
+                throw new OpenBankingException("Unable to initialize the signature", e);
+            }
+        }
+    }
+
+    /**
+     * Output stream which updates a signature with the written bytes.
+     */
+    private static class SignatureOutputStream extends OutputStream {
+
+        private final Signature signature;
+
+        SignatureOutputStream(Signature signature) {
+
+            this.signature = signature;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            try {
+                signature.update((byte) b);
+            } catch (SignatureException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+
+            try {
+                signature.update(b, off, len);
+            } catch (SignatureException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+
+            // The signature is completed by the signing key service
+        }
+    }
+}
@@ -21,6 +21,7 @@ package com.wso2.openbanking.accelerator.common.internal;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationServiceImpl;
 import com.wso2.openbanking.accelerator.common.event.executor.OBEventQueue;
+import com.wso2.openbanking.accelerator.common.util.HTTPClientRegistry;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
@@ -79,6 +80,7 @@ public class OpenBankingCommonServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        HTTPClientRegistry.getInstance().shutdown();
         log.debug("Open banking common component is deactivated");
     }
 }
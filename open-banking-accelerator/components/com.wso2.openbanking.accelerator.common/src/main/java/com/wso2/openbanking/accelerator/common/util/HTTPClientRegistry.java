@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.util;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of long-lived pooled HTTP clients.
+ * A client is created once per name and shared by all callers of that name, so that connections (and TLS sessions)
+ * are reused across outbound calls. Pool sizes, timeouts and idle connection eviction are configured per name under
+ * the HTTPConnectionPool configuration.
+ * Clients obtained from the registry must not be closed by the callers. Responses must be closed instead, to release
+ * the connection back to the pool. Cookie management is disabled, so no state is carried across requests.
+ */
+public class HTTPClientRegistry {
+
+    private static final Log log = LogFactory.getLog(HTTPClientRegistry.class);
+    private static volatile HTTPClientRegistry instance;
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+    private HTTPClientRegistry() {
+
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return HTTPClientRegistry object
+     */
+    public static HTTPClientRegistry getInstance() {
+
+        if (instance == null) {
+            synchronized (HTTPClientRegistry.class) {
+                if (instance == null) {
+                    instance = new HTTPClientRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the shared client registered against the given name. The client is created on first use.
+     *
+     * @param clientName  name of the HTTP client
+     * @return shared https client
+     * @throws OpenBankingException when the client cannot be created
+     */
+    public CloseableHttpClient getClient(String clientName) throws OpenBankingException {
+
+        PooledClient pooledClient = clients.get(clientName);
+        if (pooledClient == null) {
+            synchronized (clients) {
+                pooledClient = clients.get(clientName);
+                if (pooledClient == null) {
+                    pooledClient = createClient(clientName);
+                    clients.put(clientName, pooledClient);
+                }
+            }
+        }
+        return pooledClient.client;
+    }
+
+    /**
+     * Get the connection pool statistics of the given client.
+     *
+     * @param clientName  name of the HTTP client
+     * @return pool statistics (leased, available, pending and max connections) or null if the client is not created
+     */
+    public PoolStats getPoolStats(String clientName) {
+
+        PooledClient pooledClient = clients.get(clientName);
+        return pooledClient == null ? null : pooledClient.connectionManager.getTotalStats();
+    }
+
+    /**
+     * Get the connection pool statistics of all created clients.
+     *
+     * @return map of client name to pool statistics
+     */
+    public Map<String, PoolStats> getPoolStats() {
+
+        Map<String, PoolStats> poolStats = new HashMap<>();
+        for (Map.Entry<String, PooledClient> entry : clients.entrySet()) {
+            poolStats.put(entry.getKey(), entry.getValue().connectionManager.getTotalStats());
+        }
+        return Collections.unmodifiableMap(poolStats);
+    }
+
+    /**
+     * Close all clients and release their connections.
+     */
+    public void shutdown() {
+
+        synchronized (clients) {
+            for (Map.Entry<String, PooledClient> entry : clients.entrySet()) {
+                try {
+                    entry.getValue().client.close();
+                } catch (IOException e) {
+                    log.error("Error while closing the HTTP client " + entry.getKey(), e);
+                }
+            }
+            clients.clear();
+        }
+    }
+
+    private PooledClient createClient(String clientName) throws OpenBankingException {
+
+        OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = HTTPClientUtils.getSocketFactoryRegistry();
+
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(configParser.getConnectionPoolMaxConnections(clientName));
+        connectionManager.setDefaultMaxPerRoute(configParser.getConnectionPoolMaxConnectionsPerRoute(clientName));
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(configParser.getConnectionPoolConnectTimeout(clientName))
+                .setConnectionRequestTimeout(configParser.getConnectionPoolConnectionRequestTimeout(clientName))
+                .setSocketTimeout(configParser.getConnectionPoolSocketTimeout(clientName))
+                .build();
+        int idleConnectionTimeout = configParser.getConnectionPoolIdleConnectionTimeout(clientName);
+
+        // Cookies are not managed since the client is shared by requests made on behalf of different parties
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .disableCookieManagement()
+                .evictExpiredConnections()
+                .evictIdleConnections(idleConnectionTimeout, TimeUnit.SECONDS)
+                .build();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Created HTTP client %s with max connections: %s, max connections per " +
+                            "route: %s, idle connection timeout: %s seconds", clientName.replaceAll("[\r\n]", ""),
+                    connectionManager.getMaxTotal(), connectionManager.getDefaultMaxPerRoute(),
+                    idleConnectionTimeout));
+        }
+        return new PooledClient(client, connectionManager);
+    }
+
+    /**
+     * Holder of a shared client and its connection manager.
+     */
+    private static class PooledClient {
+
+        private final CloseableHttpClient client;
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        PooledClient(CloseableHttpClient client, PoolingHttpClientConnectionManager connectionManager) {
+
+            this.client = client;
+            this.connectionManager = connectionManager;
+        }
+    }
+}
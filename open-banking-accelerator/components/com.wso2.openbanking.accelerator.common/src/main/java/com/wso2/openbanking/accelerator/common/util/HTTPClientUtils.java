@@ -34,6 +34,7 @@ import org.apache.http.conn.ssl.X509HostnameVerifier;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.ssl.SSLContexts;
 import org.wso2.carbon.base.ServerConfiguration;
 
@@ -44,6 +45,7 @@ import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.util.Map;
 
 import javax.net.ssl.SSLContext;
 
@@ -57,11 +59,19 @@ public class HTTPClientUtils {
     public static final String HOST_NAME_VERIFIER = "httpclient.hostnameVerifier";
     public static final String HTTP_PROTOCOL = "http";
     public static final String HTTPS_PROTOCOL = "https";
+    public static final String DEFAULT_CLIENT = "Default";
+    public static final String REVOCATION_CLIENT = "Revocation";
+    public static final String DCR_CLIENT = "DCR";
+    public static final String CONSENT_CLIENT = "Consent";
+    public static final String NOTIFICATION_CLIENT = "Notification";
     private static final String[] SUPPORTED_HTTP_PROTOCOLS = {"TLSv1.2"};
-    private static final Log log = LogFactory.getLog(DatabaseUtil.class);
+    private static final Log log = LogFactory.getLog(HTTPClientUtils.class);
+    private static volatile Registry<ConnectionSocketFactory> socketFactoryRegistry;
 
     /**
      * Get closeable https client.
+     * A new connection pool is created on every call, hence the client must be closed by the caller. Prefer
+     * {@link #getHttpsClient(String)} for outbound calls which are made repeatedly.
      *
      * @return Closeable https client
      * @throws OpenBankingException OpenBankingException exception
@@ -69,16 +79,8 @@ public class HTTPClientUtils {
     @Generated(message = "Ignoring because ServerConfiguration cannot be mocked")
     public static CloseableHttpClient getHttpsClient() throws OpenBankingException {
 
-        SSLConnectionSocketFactory sslsf = createSSLConnectionSocketFactory();
-
-        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register(HTTP_PROTOCOL, new PlainConnectionSocketFactory())
-                .register(HTTPS_PROTOCOL, sslsf)
-                .build();
-
-        final PoolingHttpClientConnectionManager connectionManager = (socketFactoryRegistry != null) ?
-                new PoolingHttpClientConnectionManager(socketFactoryRegistry) :
-                new PoolingHttpClientConnectionManager();
+        final PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(getSocketFactoryRegistry());
 
         // configuring default maximum connections
         connectionManager.setMaxTotal(OpenBankingConfigParser.getInstance().getConnectionPoolMaxConnections());
@@ -89,32 +91,64 @@ public class HTTPClientUtils {
     }
 
     /**
-     * Get closeable https client to send realtime event notifications.
+     * Get the shared https client registered against the given name.
+     * The client is long-lived and must not be closed by the caller. Close the response instead to release the
+     * connection back to the pool.
      *
-     * @return Closeable https client
+     * @param clientName  name of the HTTP client, eg: {@link #REVOCATION_CLIENT}
+     * @return Shared https client
+     * @throws OpenBankingException OpenBankingException exception
+     */
+    @Generated(message = "Ignoring because ServerConfiguration cannot be mocked")
+    public static CloseableHttpClient getHttpsClient(String clientName) throws OpenBankingException {
+
+        return HTTPClientRegistry.getInstance().getClient(clientName);
+    }
+
+    /**
+     * Get the https client to send realtime event notifications.
+     * The client is shared and must not be closed by the caller.
+     *
+     * @return Shared https client
      * @throws OpenBankingException OpenBankingException exception
      */
     @Generated(message = "Ignoring since method contains no logics")
     public static CloseableHttpClient getRealtimeEventNotificationHttpsClient() throws OpenBankingException {
 
-        SSLConnectionSocketFactory sslsf = createSSLConnectionSocketFactory();
-
-        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register(HTTP_PROTOCOL, new PlainConnectionSocketFactory())
-                .register(HTTPS_PROTOCOL, sslsf)
-                .build();
+        return getHttpsClient(NOTIFICATION_CLIENT);
+    }
 
-        final PoolingHttpClientConnectionManager connectionManager = (socketFactoryRegistry != null) ?
-                new PoolingHttpClientConnectionManager(socketFactoryRegistry) :
-                new PoolingHttpClientConnectionManager();
+    /**
+     * Get the connection pool statistics (leased, available, pending and max connections) of the shared clients.
+     *
+     * @return map of client name to pool statistics
+     */
+    public static Map<String, PoolStats> getConnectionPoolStats() {
 
-        // configuring default maximum connections
-        connectionManager.setMaxTotal(OpenBankingConfigParser.getInstance()
-                .getRealtimeEventNotificationMaxRetries() + 1);
-        connectionManager.setDefaultMaxPerRoute(OpenBankingConfigParser.getInstance()
-                .getRealtimeEventNotificationMaxRetries() + 1);
+        return HTTPClientRegistry.getInstance().getPoolStats();
+    }
 
-        return HttpClients.custom().setConnectionManager(connectionManager).build();
+    /**
+     * Get the socket factory registry used by the https clients.
+     * The truststore is loaded and the SSL context is built only once.
+     *
+     * @return socket factory registry
+     * @throws OpenBankingException when the SSL context cannot be created
+     */
+    @Generated(message = "Ignoring because ServerConfiguration cannot be mocked")
+    static Registry<ConnectionSocketFactory> getSocketFactoryRegistry() throws OpenBankingException {
+
+        if (socketFactoryRegistry == null) {
+            synchronized (HTTPClientUtils.class) {
+                if (socketFactoryRegistry == null) {
+                    socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                            .register(HTTP_PROTOCOL, new PlainConnectionSocketFactory())
+                            .register(HTTPS_PROTOCOL, createSSLConnectionSocketFactory())
+                            .build();
+                }
+            }
+        }
+        return socketFactoryRegistry;
     }
 
     /**
@@ -19,6 +19,7 @@
 package com.wso2.openbanking.accelerator.common.test;
 
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
 import com.wso2.openbanking.accelerator.common.test.util.CommonTestUtil;
 import com.wso2.openbanking.accelerator.common.util.CarbonUtils;
@@ -467,4 +468,38 @@ public class OBConfigParserTests {
 
         Assert.assertEquals(className, "com.wso2.openbanking.accelerator.keymanager.OBKeyManagerImpl");
     }
+
+    @Test (priority = 36)
+    public void testGetNamedConnectionPoolConfigs() {
+
+        String dummyConfigFile = absolutePathForTestResources + "/open-banking.xml";
+        OpenBankingConfigParser openBankingConfigParser = OpenBankingConfigParser.getInstance(dummyConfigFile);
+
+        Assert.assertEquals(openBankingConfigParser.getConnectionPoolMaxConnections("Revocation"), 100);
+        Assert.assertEquals(openBankingConfigParser.getConnectionPoolMaxConnectionsPerRoute("Revocation"), 500);
+        Assert.assertEquals(openBankingConfigParser.getConnectionPoolConnectTimeout("Revocation"), 5000);
+        Assert.assertEquals(openBankingConfigParser.getConnectionPoolSocketTimeout("Revocation"), 30000);
+        Assert.assertEquals(openBankingConfigParser.getConnectionPoolMaxConnections("DCR"), 1000);
+        Assert.assertEquals(openBankingConfigParser.getConnectionPoolConnectTimeout("DCR"), 10000);
+        Assert.assertEquals(openBankingConfigParser.getConnectionPoolIdleConnectionTimeout("DCR"), 30);
+    }
+
+    @Test (priority = 37)
+    public void testGetThrottlerBackend() {
+
+        String dummyConfigFile = absolutePathForTestResources + "/open-banking.xml";
+        OpenBankingConfigParser openBankingConfigParser = OpenBankingConfigParser.getInstance(dummyConfigFile);
+
+        Assert.assertEquals(openBankingConfigParser.getThrottlerBackend(),
+                OpenBankingConstants.THROTTLER_BACKEND_DATABASE);
+    }
+
+    @Test (priority = 38)
+    public void testIdempotencyConsentAttributeFallbackEnabledByDefault() {
+
+        String dummyConfigFile = absolutePathForTestResources + "/open-banking.xml";
+        OpenBankingConfigParser openBankingConfigParser = OpenBankingConfigParser.getInstance(dummyConfigFile);
+
+        Assert.assertTrue(openBankingConfigParser.isIdempotencyConsentAttributeFallbackEnabled());
+    }
 }
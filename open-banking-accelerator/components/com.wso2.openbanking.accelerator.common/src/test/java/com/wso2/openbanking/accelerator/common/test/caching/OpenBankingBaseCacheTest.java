@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.caching;
+
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCache;
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCacheKey;
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingCacheStatistics;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.Status;
+
+/**
+ * Test for the on demand retrieval of the Open Banking base cache.
+ */
+@PrepareForTest({Caching.class})
+@PowerMockIgnore({"jdk.internal.reflect.*", "javax.management.*"})
+public class OpenBankingBaseCacheTest extends PowerMockTestCase {
+
+    private static final int CALLER_COUNT = 8;
+    private static final long WAIT_TIMEOUT_MILLIS = 10000;
+
+    private final ThreadLocal<CacheManager> tenantCacheManager = new ThreadLocal<>();
+    private CacheManager defaultCacheManager;
+    private String cacheName;
+
+    @BeforeMethod
+    public void before() {
+
+        cacheName = "TestCache-" + UUID.randomUUID();
+        defaultCacheManager = mockCacheManager();
+        PowerMockito.mockStatic(Caching.class);
+        PowerMockito.when(Caching.getCacheManager(Mockito.anyString())).thenAnswer(invocation ->
+                tenantCacheManager.get() != null ? tenantCacheManager.get() : defaultCacheManager);
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+
+        TestCache cache = new TestCache(cacheName);
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        List<CallerResult> results = startCallers(cache, () -> {
+            loadCount.incrementAndGet();
+            await(loadLatch);
+            return "value";
+        });
+
+        awaitCallersWaiting(results);
+        loadLatch.countDown();
+        awaitCallers(results);
+
+        Assert.assertEquals(loadCount.get(), 1);
+        for (CallerResult result : results) {
+            Assert.assertNull(result.error);
+            Assert.assertEquals(result.value, "value");
+        }
+        Assert.assertEquals(cache.getFromCache(TestCacheKey.of("key")), "value");
+    }
+
+    @Test
+    public void testNullLoadIsNotCached() throws OpenBankingException {
+
+        TestCache cache = new TestCache(cacheName);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        Assert.assertNull(cache.getFromCacheOrRetrieve(TestCacheKey.of("key"), () -> {
+            loadCount.incrementAndGet();
+            return null;
+        }));
+        Assert.assertNull(cache.getFromCacheOrRetrieve(TestCacheKey.of("key"), () -> {
+            loadCount.incrementAndGet();
+            return null;
+        }));
+
+        Assert.assertEquals(loadCount.get(), 2);
+        Assert.assertNull(cache.getFromCache(TestCacheKey.of("key")));
+    }
+
+    @Test
+    public void testLoadFailureReachesEveryCaller() throws Exception {
+
+        TestCache cache = new TestCache(cacheName);
+        OpenBankingException loadError = new OpenBankingException("Load failed");
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        List<CallerResult> results = startCallers(cache, () -> {
+            await(loadLatch);
+            throw loadError;
+        });
+
+        awaitCallersWaiting(results);
+        loadLatch.countDown();
+        awaitCallers(results);
+
+        for (CallerResult result : results) {
+            Assert.assertSame(result.error, loadError);
+        }
+        // The failed load is no longer in flight, hence the next caller loads again
+        Assert.assertEquals(cache.getFromCacheOrRetrieve(TestCacheKey.of("key"), () -> "value"), "value");
+    }
+
+    @Test
+    public void testLoadsAreNotSharedAcrossCacheManagers() throws Exception {
+
+        TestCache cache = new TestCache(cacheName);
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        List<CallerResult> results = startCallers(cache, () -> {
+            await(loadLatch);
+            return "default-tenant-value";
+        });
+        awaitCallersWaiting(results);
+
+        // A caller of another tenant does not wait for the load of the default tenant
+        tenantCacheManager.set(mockCacheManager());
+        try {
+            Assert.assertEquals(cache.getFromCacheOrRetrieve(TestCacheKey.of("key"), () -> "tenant-value"),
+                    "tenant-value");
+        } finally {
+            tenantCacheManager.remove();
+        }
+
+        loadLatch.countDown();
+        awaitCallers(results);
+        for (CallerResult result : results) {
+            Assert.assertEquals(result.value, "default-tenant-value");
+        }
+    }
+
+    @Test
+    public void testCacheStatistics() throws Exception {
+
+        TestCache cache = new TestCache(cacheName);
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        List<CallerResult> results = startCallers(cache, () -> {
+            await(loadLatch);
+            return "value";
+        });
+        awaitCallersWaiting(results);
+        loadLatch.countDown();
+        awaitCallers(results);
+
+        cache.getFromCacheOrRetrieve(TestCacheKey.of("key"), () -> "value");
+        try {
+            cache.getFromCacheOrRetrieve(TestCacheKey.of("other-key"), () -> {
+                throw new OpenBankingException("Load failed");
+            });
+            Assert.fail("Load failure is not reported to the caller");
+        } catch (OpenBankingException e) {
+            Assert.assertEquals(e.getMessage(), "Load failed");
+        }
+
+        OpenBankingCacheStatistics statistics = OpenBankingBaseCache.getCacheStatistics(cacheName);
+        Assert.assertSame(statistics, cache.getCacheStatistics());
+        Assert.assertEquals(statistics.getHitCount(), 1);
+        Assert.assertEquals(statistics.getMissCount(), CALLER_COUNT + 1);
+        Assert.assertEquals(statistics.getLoadSuccessCount(), 1);
+        Assert.assertEquals(statistics.getLoadFailureCount(), 1);
+    }
+
+    private List<CallerResult> startCallers(TestCache cache, OpenBankingBaseCache.OnDemandRetriever retriever) {
+
+        List<CallerResult> results = new ArrayList<>();
+        for (int i = 0; i < CALLER_COUNT; i++) {
+            CallerResult result = new CallerResult();
+            result.thread = new Thread(() -> {
+                try {
+                    result.value = cache.getFromCacheOrRetrieve(TestCacheKey.of("key"), retriever);
+                } catch (OpenBankingException | RuntimeException e) {
+                    result.error = e;
+                }
+            });
+            result.thread.start();
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Wait until every caller is either running the load or waiting for it.
+     */
+    private void awaitCallersWaiting(List<CallerResult> results) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        for (CallerResult result : results) {
+            while (result.thread.getState() != Thread.State.WAITING) {
+                Assert.assertTrue(System.currentTimeMillis() < deadline, "Callers did not wait for the load");
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private void awaitCallers(List<CallerResult> results) throws InterruptedException {
+
+        for (CallerResult result : results) {
+            result.thread.join(WAIT_TIMEOUT_MILLIS);
+            Assert.assertFalse(result.thread.isAlive(), "Caller did not complete");
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws OpenBankingException {
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenBankingException("Interrupted while loading", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheManager mockCacheManager() {
+
+        Map<Object, Object> entries = new ConcurrentHashMap<>();
+        Cache<Object, Object> cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.getName()).thenReturn(cacheName);
+        Mockito.when(cache.getStatus()).thenReturn(Status.STARTED);
+        Mockito.when(cache.get(Mockito.any())).thenAnswer(invocation -> entries.get(invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> entries.put(invocation.getArguments()[0], invocation.getArguments()[1]))
+                .when(cache).put(Mockito.any(), Mockito.any());
+
+        CacheManager cacheManager = Mockito.mock(CacheManager.class);
+        Mockito.doReturn(Collections.singletonList(cache)).when(cacheManager).getCaches();
+        Mockito.doReturn(cache).when(cacheManager).getCache(cacheName);
+        return cacheManager;
+    }
+
+    /**
+     * Result of a caller of the cache.
+     */
+    private static class CallerResult {
+
+        private Thread thread;
+        private volatile Object value;
+        private volatile Exception error;
+    }
+
+    /**
+     * Cache used for the tests.
+     */
+    private static class TestCache extends OpenBankingBaseCache<TestCacheKey, String> {
+
+        TestCache(String cacheName) {
+
+            super(cacheName);
+        }
+
+        @Override
+        public int getCacheAccessExpiryMinutes() {
+
+            return 5;
+        }
+
+        @Override
+        public int getCacheModifiedExpiryMinutes() {
+
+            return 5;
+        }
+    }
+
+    /**
+     * Cache key used for the tests.
+     */
+    private static class TestCacheKey extends OpenBankingBaseCacheKey {
+
+        private final String key;
+
+        private TestCacheKey(String key) {
+
+            this.key = key;
+        }
+
+        public static TestCacheKey of(String key) {
+
+            return new TestCacheKey(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            return o instanceof TestCacheKey && key.equals(((TestCacheKey) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return key.hashCode();
+        }
+
+        @Override
+        public String toString() {
+
+            return key;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.identity.retriever;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.JWKSManager;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test for the JWKS manager.
+ */
+public class JWKSManagerTest {
+
+    private static final long CACHE_EXPIRY = TimeUnit.HOURS.toMillis(1);
+    private static final long REFRESH_AHEAD = TimeUnit.MINUTES.toMillis(5);
+    private static final long KID_MISS_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final long FAILURE_CACHE = TimeUnit.SECONDS.toMillis(30);
+
+    private URL jwksURL;
+    private KeyPair keyPair;
+    private JWKSet initialJWKSet;
+    private JWKSet rotatedJWKSet;
+
+    @BeforeClass
+    public void init() throws Exception {
+
+        jwksURL = new URL("https://localhost:8243/jwks");
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        keyPair = keyPairGenerator.generateKeyPair();
+        JWK initialKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID("kid-1")
+                .keyUse(KeyUse.SIGNATURE).build();
+        JWK rotatedKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID("kid-2")
+                .keyUse(KeyUse.SIGNATURE).build();
+        initialJWKSet = new JWKSet(initialKey);
+        rotatedJWKSet = new JWKSet(rotatedKey);
+    }
+
+    @Test
+    public void testJWKSetRetrievedOnce() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet);
+
+        Assert.assertNotNull(manager.getJWKSet(jwksURL).getKeyByKeyId("kid-1"));
+        Assert.assertNotNull(manager.getSigningKey(jwksURL, "kid-1"));
+        Assert.assertEquals(manager.retrievalCount.get(), 1);
+    }
+
+    @Test
+    public void testConcurrentRetrievalsCoalesced() throws Exception {
+
+        CountDownLatch retrievalLatch = new CountDownLatch(1);
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet, retrievalLatch);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<JWKSet>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executorService.submit(() -> manager.getJWKSet(jwksURL)));
+            }
+            retrievalLatch.countDown();
+            for (Future<JWKSet> result : results) {
+                Assert.assertNotNull(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(manager.retrievalCount.get(), 1);
+    }
+
+    @Test
+    public void testKidMissRefreshesJWKSet() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet);
+        manager.getJWKSet(jwksURL);
+
+        manager.jwkSet.set(rotatedJWKSet);
+        manager.time.addAndGet(KID_MISS_INTERVAL);
+        Assert.assertNotNull(manager.getSigningKey(jwksURL, "kid-2"));
+        Assert.assertEquals(manager.retrievalCount.get(), 2);
+    }
+
+    @Test
+    public void testKidMissRefreshRateLimited() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet);
+        manager.getJWKSet(jwksURL);
+
+        // Retrieved within the kid miss interval, so an unknown kid does not refresh the JWK set
+        Assert.assertNull(manager.getSigningKey(jwksURL, "unknown"));
+        Assert.assertEquals(manager.retrievalCount.get(), 1);
+
+        manager.time.addAndGet(KID_MISS_INTERVAL);
+        Assert.assertNull(manager.getSigningKey(jwksURL, "unknown"));
+        Assert.assertNull(manager.getSigningKey(jwksURL, "unknown"));
+        Assert.assertEquals(manager.retrievalCount.get(), 2);
+    }
+
+    @Test
+    public void testUnreachableEndpointNegativelyCached() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(null);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                manager.getJWKSet(jwksURL);
+                Assert.fail("Expected the JWK set retrieval to fail");
+            } catch (OpenBankingException e) {
+                Assert.assertTrue(e.getMessage().contains("Couldn't retrieve remote JWK set"));
+            }
+        }
+        Assert.assertEquals(manager.retrievalCount.get(), 1);
+
+        manager.jwkSet.set(initialJWKSet);
+        manager.time.addAndGet(FAILURE_CACHE);
+        Assert.assertNotNull(manager.getJWKSet(jwksURL));
+        Assert.assertEquals(manager.retrievalCount.get(), 2);
+    }
+
+    @Test
+    public void testFailedRefreshKeepsJWKSet() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet);
+        manager.getJWKSet(jwksURL);
+
+        manager.jwkSet.set(null);
+        manager.time.addAndGet(KID_MISS_INTERVAL);
+        Assert.assertNull(manager.getSigningKey(jwksURL, "unknown"));
+        Assert.assertNotNull(manager.getSigningKey(jwksURL, "kid-1"));
+        Assert.assertEquals(manager.retrievalCount.get(), 2);
+    }
+
+    @Test
+    public void testJWKSetRefreshedBeforeExpiry() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet);
+        manager.getJWKSet(jwksURL);
+
+        manager.jwkSet.set(rotatedJWKSet);
+        manager.time.addAndGet(CACHE_EXPIRY - REFRESH_AHEAD);
+        // The current JWK set is served while it is refreshed in the background
+        Assert.assertNotNull(manager.getJWKSet(jwksURL).getKeyByKeyId("kid-1"));
+        Assert.assertNotNull(manager.getJWKSet(jwksURL).getKeyByKeyId("kid-2"));
+        Assert.assertEquals(manager.retrievalCount.get(), 2);
+    }
+
+    @Test
+    public void testExpiredJWKSetRetrievedAgain() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet);
+        manager.getJWKSet(jwksURL);
+
+        manager.time.addAndGet(CACHE_EXPIRY);
+        manager.getJWKSet(jwksURL);
+        Assert.assertEquals(manager.retrievalCount.get(), 2);
+    }
+
+    @Test
+    public void testVerifierReused() throws Exception {
+
+        TestJWKSManager manager = new TestJWKSManager(initialJWKSet);
+        JWSVerifier verifier = manager.getVerifier(jwksURL, "kid-1", JWSAlgorithm.RS256, Collections.emptySet());
+
+        JWSObject jwsObject = new JWSObject(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("kid-1").build(),
+                new Payload("{\"data\":\"value\"}"));
+        jwsObject.sign(new RSASSASigner(keyPair.getPrivate()));
+        Assert.assertTrue(jwsObject.verify(verifier));
+        Assert.assertSame(manager.getVerifier(jwksURL, "kid-1", JWSAlgorithm.RS256, Collections.emptySet()),
+                verifier);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testVerifierWithUnsupportedAlgorithm() throws Exception {
+
+        new TestJWKSManager(initialJWKSet).getVerifier(jwksURL, "kid-1", JWSAlgorithm.ES256,
+                Collections.emptySet());
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testVerifierWithUnknownKid() throws Exception {
+
+        new TestJWKSManager(initialJWKSet).getVerifier(jwksURL, "unknown", JWSAlgorithm.RS256,
+                Collections.emptySet());
+    }
+
+    /**
+     * JWKS manager which returns the given JWK set instead of calling the JWKS endpoint and refreshes in the
+     * calling thread.
+     */
+    private class TestJWKSManager extends JWKSManager {
+
+        private final AtomicInteger retrievalCount;
+        private final AtomicReference<JWKSet> jwkSet;
+        private final AtomicLong time = new AtomicLong(1000000L);
+
+        TestJWKSManager(JWKSet jwkSet) {
+
+            this(jwkSet, new CountDownLatch(0));
+        }
+
+        TestJWKSManager(JWKSet jwkSet, CountDownLatch retrievalLatch) {
+
+            this(new AtomicReference<>(jwkSet), new AtomicInteger(), retrievalLatch);
+        }
+
+        private TestJWKSManager(AtomicReference<JWKSet> jwkSet, AtomicInteger retrievalCount,
+                                CountDownLatch retrievalLatch) {
+
+            super(url -> {
+                retrievalCount.incrementAndGet();
+                try {
+                    retrievalLatch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (jwkSet.get() == null) {
+                    throw new OpenBankingException("Couldn't retrieve remote JWK set: Connection refused");
+                }
+                return jwkSet.get();
+            }, Runnable::run, CACHE_EXPIRY, REFRESH_AHEAD, KID_MISS_INTERVAL, FAILURE_CACHE);
+            this.jwkSet = jwkSet;
+            this.retrievalCount = retrievalCount;
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+
+            return time.get();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.identity.retriever;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.sp.ServiceProviderMetadataResolver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for the service provider metadata resolver.
+ */
+public class ServiceProviderMetadataResolverTest {
+
+    private static final String CLIENT_ID = "iYpRm64b2vmvmKDhdL6KZD9z6fca";
+
+    @Test
+    public void testPropertiesLoadedOnce() throws Exception {
+
+        TestResolver resolver = new TestResolver(TimeUnit.MINUTES.toMillis(5));
+
+        Assert.assertEquals(resolver.getServiceProviderProperty(CLIENT_ID, "regulatory"), "true");
+        Assert.assertEquals(resolver.getServiceProviderProperty(CLIENT_ID, "software_id"), "softwareId");
+        Assert.assertNull(resolver.getServiceProviderProperty(CLIENT_ID, "jwksURI"));
+        Assert.assertEquals(resolver.loadCount.get(), 1);
+    }
+
+    @Test
+    public void testConcurrentMissesLoadedOnce() throws Exception {
+
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        TestResolver resolver = new TestResolver(TimeUnit.MINUTES.toMillis(5), loadLatch);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executorService.submit(() ->
+                        resolver.getServiceProviderProperty(CLIENT_ID, "regulatory")));
+            }
+            loadLatch.countDown();
+            for (Future<String> result : results) {
+                Assert.assertEquals(result.get(10, TimeUnit.SECONDS), "true");
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(resolver.loadCount.get(), 1);
+    }
+
+    @Test
+    public void testInvalidateReloadsProperties() throws Exception {
+
+        TestResolver resolver = new TestResolver(TimeUnit.MINUTES.toMillis(5));
+
+        resolver.getServiceProviderProperties(CLIENT_ID);
+        resolver.invalidate(CLIENT_ID);
+        resolver.getServiceProviderProperties(CLIENT_ID);
+        resolver.invalidateAll();
+        resolver.getServiceProviderProperties(CLIENT_ID);
+        Assert.assertEquals(resolver.loadCount.get(), 3);
+    }
+
+    @Test
+    public void testExpiredPropertiesReloaded() throws Exception {
+
+        TestResolver resolver = new TestResolver(-1);
+
+        resolver.getServiceProviderProperties(CLIENT_ID);
+        resolver.getServiceProviderProperties(CLIENT_ID);
+        Assert.assertEquals(resolver.loadCount.get(), 2);
+    }
+
+    @Test
+    public void testUnknownApplicationNotCached() throws Exception {
+
+        TestResolver resolver = new TestResolver(TimeUnit.MINUTES.toMillis(5));
+
+        Assert.assertTrue(resolver.getServiceProviderProperties("unknown").isEmpty());
+        Assert.assertTrue(resolver.getServiceProviderProperties("unknown").isEmpty());
+        Assert.assertEquals(resolver.loadCount.get(), 2);
+    }
+
+    @Test
+    public void testLoadErrorNotCached() throws Exception {
+
+        TestResolver resolver = new TestResolver(TimeUnit.MINUTES.toMillis(5));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                resolver.getServiceProviderProperties("error");
+                Assert.fail("Expected the SP metadata retrieval to fail");
+            } catch (OpenBankingException e) {
+                Assert.assertEquals(e.getMessage(), "Error occurred while retrieving OAuth2 application data");
+            }
+        }
+        Assert.assertEquals(resolver.loadCount.get(), 2);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testEmptyClientId() throws Exception {
+
+        new TestResolver(TimeUnit.MINUTES.toMillis(5)).getServiceProviderProperties("");
+    }
+
+    /**
+     * Resolver which returns sample SP properties instead of calling the application management service.
+     */
+    private static class TestResolver extends ServiceProviderMetadataResolver {
+
+        private final AtomicInteger loadCount = new AtomicInteger();
+        private final CountDownLatch loadLatch;
+
+        TestResolver(long expiryMillis) {
+
+            this(expiryMillis, new CountDownLatch(0));
+        }
+
+        TestResolver(long expiryMillis, CountDownLatch loadLatch) {
+
+            super(expiryMillis);
+            this.loadLatch = loadLatch;
+        }
+
+        @Override
+        protected Map<String, String> retrieveServiceProviderProperties(String clientId)
+                throws OpenBankingException {
+
+            loadCount.incrementAndGet();
+            try {
+                loadLatch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if ("unknown".equals(clientId)) {
+                return null;
+            }
+            if ("error".equals(clientId)) {
+                throw new OpenBankingException("Error occurred while retrieving OAuth2 application data");
+            }
+            Map<String, String> spProperties = new HashMap<>();
+            spProperties.put("regulatory", "true");
+            spProperties.put("software_id", "softwareId");
+            return spProperties;
+        }
+    }
+}
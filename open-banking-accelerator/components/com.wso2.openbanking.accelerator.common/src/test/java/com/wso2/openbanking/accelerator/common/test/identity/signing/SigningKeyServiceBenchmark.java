@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.identity.signing;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the detached JWS response signing with 1 KB, 100 KB and 1 MB payloads.
+ *
+ * Compares building the header and the signer for each response, as the gateway did before the signing key
+ * service, with signing through the signing key service from a string and from a stream.
+ * Not part of the test suite. Run the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningKeyServiceBenchmark {
+
+    private static final String KID = "1234";
+
+    @Param({"1024", "102400", "1048576"})
+    private int payloadSize;
+
+    private PrivateKey privateKey;
+    private SigningKeyService signingKeyService;
+    private Map<String, Object> criticalParameters;
+    private String payload;
+    private byte[] payloadBytes;
+
+    @Setup
+    public void setup() throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        privateKey = keyPair.getPrivate();
+        signingKeyService = new SigningKeyService(() -> privateKey);
+
+        criticalParameters = new HashMap<>();
+        criticalParameters.put("http://openbanking.org.uk/iss", "ASPSP");
+        criticalParameters.put("http://openbanking.org.uk/tan", "openbanking.org.uk");
+
+        StringBuilder payloadBuilder = new StringBuilder("{\"Data\":[");
+        while (payloadBuilder.length() < payloadSize - 64) {
+            payloadBuilder.append("{\"AccountId\":\"30080012343456\",\"Currency\":\"GBP\"},");
+        }
+        payload = payloadBuilder.append("{}]}").toString();
+        payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String perCallSigner() throws Exception {
+
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.PS256)
+                .keyID(KID)
+                .type(JOSEObjectType.JOSE)
+                .criticalParams(criticalParameters.keySet())
+                .customParams(criticalParameters)
+                .build();
+        JWSObject jwsObject = new JWSObject(header, new Payload(payload));
+        jwsObject.sign(new RSASSASigner(privateKey));
+        String[] jwsParts = jwsObject.serialize().split("\\.");
+        return jwsParts[0] + ".." + jwsParts[2];
+    }
+
+    @Benchmark
+    public String signingKeyService() throws Exception {
+
+        return signingKeyService.signDetached(JWSAlgorithm.PS256, KID, criticalParameters, payload);
+    }
+
+    @Benchmark
+    public String signingKeyServiceStream() throws Exception {
+
+        return signingKeyService.signDetached(JWSAlgorithm.PS256, KID, criticalParameters,
+                new ByteArrayInputStream(payloadBytes));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(SigningKeyServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
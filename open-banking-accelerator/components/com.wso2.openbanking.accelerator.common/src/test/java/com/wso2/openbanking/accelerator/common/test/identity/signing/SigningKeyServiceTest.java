@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.common.test.identity.signing;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyService;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for the signing key service.
+ */
+public class SigningKeyServiceTest {
+
+    private static final String PAYLOAD = "{\"Data\":{\"ConsentId\":\"1234\",\"Status\":\"Authorised\"}}";
+    private static final String KID = "1234";
+
+    private KeyPair rsaKeyPair;
+    private KeyPair ecKeyPair;
+
+    @BeforeClass
+    public void init() throws Exception {
+
+        KeyPairGenerator rsaKeyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaKeyPairGenerator.initialize(2048);
+        rsaKeyPair = rsaKeyPairGenerator.generateKeyPair();
+
+        KeyPairGenerator ecKeyPairGenerator = KeyPairGenerator.getInstance("EC");
+        ecKeyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = ecKeyPairGenerator.generateKeyPair();
+    }
+
+    @Test
+    public void testSignCompact() throws Exception {
+
+        SigningKeyService signingKeyService = new SigningKeyService(rsaKeyPair::getPrivate);
+
+        JWSObject jwsObject = JWSObject.parse(signingKeyService.sign(JWSAlgorithm.RS256, PAYLOAD));
+        Assert.assertEquals(jwsObject.getHeader().getAlgorithm(), JWSAlgorithm.RS256);
+        Assert.assertEquals(jwsObject.getPayload().toString(), PAYLOAD);
+        Assert.assertTrue(jwsObject.verify(new RSASSAVerifier((RSAPublicKey) rsaKeyPair.getPublic())));
+    }
+
+    @Test
+    public void testSignDetached() throws Exception {
+
+        SigningKeyService signingKeyService = new SigningKeyService(rsaKeyPair::getPrivate);
+        Map<String, Object> criticalParameters = new HashMap<>();
+        criticalParameters.put("http://openbanking.org.uk/iat", 1234567890L);
+
+        String detachedJws = signingKeyService.signDetached(JWSAlgorithm.RS512, KID, criticalParameters, PAYLOAD);
+        String[] jwsParts = detachedJws.split("\\.\\.");
+        JWSObject jwsObject = new JWSObject(new Base64URL(jwsParts[0]),
+                Base64URL.encode(PAYLOAD.getBytes(StandardCharsets.UTF_8)), new Base64URL(jwsParts[1]));
+
+        Assert.assertEquals(jwsObject.getHeader().getKeyID(), KID);
+        Assert.assertEquals(jwsObject.getHeader().getCriticalParams(),
+                Collections.singleton("http://openbanking.org.uk/iat"));
+        Assert.assertTrue(jwsObject.verify(new RSASSAVerifier((RSAPublicKey) rsaKeyPair.getPublic(),
+                jwsObject.getHeader().getCriticalParams())));
+    }
+
+    @Test
+    public void testSignDetachedUnencodedPayload() throws Exception {
+
+        SigningKeyService signingKeyService = new SigningKeyService(rsaKeyPair::getPrivate);
+        Map<String, Object> criticalParameters = new HashMap<>();
+        criticalParameters.put("b64", false);
+
+        String[] jwsParts = signingKeyService.signDetached(JWSAlgorithm.RS256, KID, criticalParameters, PAYLOAD)
+                .split("\\.\\.");
+        JWSHeader header = JWSHeader.parse(new Base64URL(jwsParts[0]));
+        byte[] signingInput = (jwsParts[0] + "." + PAYLOAD).getBytes(StandardCharsets.UTF_8);
+
+        JWSVerifier verifier = new RSASSAVerifier((RSAPublicKey) rsaKeyPair.getPublic(),
+                new HashSet<>(Arrays.asList("b64")));
+        Assert.assertTrue(verifier.verify(header, signingInput, new Base64URL(jwsParts[1])));
+    }
+
+    @Test
+    public void testSignDetachedStream() throws Exception {
+
+        SigningKeyService signingKeyService = new SigningKeyService(ecKeyPair::getPrivate);
+        byte[] payload = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+
+        String[] jwsParts = signingKeyService.signDetached(JWSAlgorithm.ES256, KID, new HashMap<>(),
+                new ByteArrayInputStream(payload)).split("\\.\\.");
+        JWSObject jwsObject = new JWSObject(new Base64URL(jwsParts[0]), Base64URL.encode(payload),
+                new Base64URL(jwsParts[1]));
+
+        Assert.assertTrue(jwsObject.verify(new ECDSAVerifier((ECPublicKey) ecKeyPair.getPublic())));
+    }
+
+    @Test
+    public void testSignerReusedUntilKeySourceChanges() throws Exception {
+
+        AtomicInteger loadCount = new AtomicInteger();
+        SigningKeyService signingKeyService = new SigningKeyService(() -> {
+            loadCount.incrementAndGet();
+            return rsaKeyPair.getPrivate();
+        });
+
+        Assert.assertSame(signingKeyService.getSigner(), signingKeyService.getSigner());
+        signingKeyService.sign(JWSAlgorithm.RS256, PAYLOAD);
+        signingKeyService.signDetached(JWSAlgorithm.RS256, KID, new HashMap<>(), PAYLOAD);
+        Assert.assertEquals(loadCount.get(), 1);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testSignWithUnsupportedAlgorithm() throws Exception {
+
+        new SigningKeyService(rsaKeyPair::getPrivate).sign(JWSAlgorithm.ES256, PAYLOAD);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testSignWithoutKid() throws Exception {
+
+        new SigningKeyService(rsaKeyPair::getPrivate).signDetached(JWSAlgorithm.RS256, "", new HashMap<>(),
+                PAYLOAD);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testSignWithoutSigningKey() throws Exception {
+
+        new SigningKeyService(() -> null).sign(JWSAlgorithm.RS256, PAYLOAD);
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.accelerator.gateway.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.gateway.executor.model.APIDefinition;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the parsed swagger definitions of the APIs deployed in the gateway.
+ *
+ * Each API definition is loaded from the publisher once, even when several requests ask for it at the same time,
+ * and the resource descriptors of the API are compiled at load time. A definition older than the gateway cache
+ * modified expiry keeps being served while it is reloaded in the background, hence changes to the definition of a
+ * redeployed API are picked up within the expiry.
+ */
+public class APIDefinitionRegistry {
+
+    private static final Log log = LogFactory.getLog(APIDefinitionRegistry.class);
+    private static volatile APIDefinitionRegistry instance;
+
+    private final ConcurrentMap<String, CompletableFuture<APIDefinition>> apiDefinitions = new ConcurrentHashMap<>();
+    private final Set<String> refreshingAPIs = ConcurrentHashMap.newKeySet();
+    private final Function<String, String> swaggerRetriever;
+    private final Supplier<List<String>> apiIdRetriever;
+    private final Executor refreshExecutor;
+    private final long expiryMillis;
+
+    @Generated(message = "Excluding from code coverage since it requires a service call")
+    private APIDefinitionRegistry() {
+
+        this(GatewayUtils::getSwaggerDefinition, GatewayUtils::getPublishedAPIIds,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "OB-API-Definition-Refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                TimeUnit.MINUTES.toMillis(GatewayDataHolder.getInstance().getGatewayCacheModifiedExpiry()));
+    }
+
+    /**
+     * Initialize the API definition registry.
+     *
+     * @param swaggerRetriever retrieves the swagger definition of an API
+     * @param apiIdRetriever   retrieves the IDs of the published APIs
+     * @param refreshExecutor  executor used to load definitions in the background
+     * @param expiryMillis     time after which a definition is reloaded
+     */
+    protected APIDefinitionRegistry(Function<String, String> swaggerRetriever, Supplier<List<String>> apiIdRetriever,
+                                    Executor refreshExecutor, long expiryMillis) {
+
+        this.swaggerRetriever = swaggerRetriever;
+        this.apiIdRetriever = apiIdRetriever;
+        this.refreshExecutor = refreshExecutor;
+        this.expiryMillis = expiryMillis;
+    }
+
+    public static APIDefinitionRegistry getInstance() {
+
+        if (instance == null) {
+            synchronized (APIDefinitionRegistry.class) {
+                if (instance == null) {
+                    instance = new APIDefinitionRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the definition of the given API, loading it from the publisher if it is not available.
+     *
+     * @param apiId ID of the API
+     * @return API definition
+     * @throws OpenBankingRuntimeException if the swagger definition could not be retrieved or parsed
+     */
+    public APIDefinition getAPIDefinition(String apiId) {
+
+        CompletableFuture<APIDefinition> apiDefinitionFuture = apiDefinitions.get(apiId);
+        if (apiDefinitionFuture == null) {
+            CompletableFuture<APIDefinition> loadingFuture = new CompletableFuture<>();
+            apiDefinitionFuture = apiDefinitions.putIfAbsent(apiId, loadingFuture);
+            if (apiDefinitionFuture == null) {
+                apiDefinitionFuture = loadingFuture;
+                try {
+                    loadingFuture.complete(loadAPIDefinition(apiId));
+                } catch (RuntimeException e) {
+                    apiDefinitions.remove(apiId, loadingFuture);
+                    loadingFuture.completeExceptionally(e);
+                }
+            }
+        }
+
+        APIDefinition apiDefinition;
+        try {
+            apiDefinition = apiDefinitionFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new OpenBankingRuntimeException("Failed to load the definition of API " + apiId, e.getCause());
+        }
+
+        if (currentTimeMillis() - apiDefinition.getLoadedTime() >= expiryMillis) {
+            refresh(apiId);
+        }
+        return apiDefinition;
+    }
+
+    /**
+     * Reload the definition of the given API in the background. The current definition is served until the
+     * reload completes, and is kept if the reload fails.
+     *
+     * @param apiId ID of the API
+     */
+    public void refresh(String apiId) {
+
+        if (!refreshingAPIs.add(apiId)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            CompletableFuture<APIDefinition> currentFuture = apiDefinitions.get(apiId);
+            try {
+                CompletableFuture<APIDefinition> loadedFuture =
+                        CompletableFuture.completedFuture(loadAPIDefinition(apiId));
+                // The loaded definition is dropped if the API was loaded again while it was loading.
+                apiDefinitions.compute(apiId, (key, existingFuture) ->
+                        existingFuture == currentFuture ? loadedFuture : existingFuture);
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh the definition of API " + apiId, e);
+            } finally {
+                refreshingAPIs.remove(apiId);
+            }
+        });
+    }
+
+    /**
+     * Load the definitions of the given APIs in the background.
+     *
+     * @param apiIds IDs of the APIs
+     */
+    public void preload(Collection<String> apiIds) {
+
+        for (String apiId : apiIds) {
+            refresh(apiId);
+        }
+    }
+
+    /**
+     * Load the definitions of all the APIs available in the publisher in the background.
+     */
+    public void preloadPublishedAPIs() {
+
+        refreshExecutor.execute(() -> {
+            try {
+                preload(apiIdRetriever.get());
+            } catch (RuntimeException e) {
+                log.warn("Unable to preload API definitions. Definitions will be loaded on the first request. " +
+                        e.getMessage());
+                log.debug("Failed to preload API definitions", e);
+            }
+        });
+    }
+
+    protected long currentTimeMillis() {
+
+        return System.currentTimeMillis();
+    }
+
+    private APIDefinition loadAPIDefinition(String apiId) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Loading the definition of API " + apiId);
+        }
+        String swaggerDefinition = swaggerRetriever.apply(apiId);
+        OpenAPI openAPI = new OpenAPIParser().readContents(swaggerDefinition, null, null).getOpenAPI();
+        if (openAPI == null) {
+            throw new OpenBankingRuntimeException("Failed to parse the swagger definition of API " + apiId, null);
+        }
+        return new APIDefinition(apiId, openAPI, currentTimeMillis());
+    }
+}
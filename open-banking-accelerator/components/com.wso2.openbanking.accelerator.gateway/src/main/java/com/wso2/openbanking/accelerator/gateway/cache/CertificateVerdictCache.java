@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.cache;
+
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the verdicts of client certificate validations, keyed by the certificate thumbprint.
+ *
+ * Negative verdicts are cached as well as positive verdicts, so that a client with a revoked certificate or without
+ * the required roles does not trigger a check against the CA or the TPP directory on every request. Each verdict is
+ * kept for the expiry time configured for it, and a verdict with an expiry time of zero is not cached. Concurrent
+ * lookups of a certificate which is not in the cache share a single check.
+ */
+public class CertificateVerdictCache {
+
+    private static final Log log = LogFactory.getLog(CertificateVerdictCache.class);
+    private static final int MAX_ENTRIES = 10000;
+    private static volatile CertificateVerdictCache revocationInstance;
+    private static volatile CertificateVerdictCache tppValidationInstance;
+
+    private final String name;
+    private final Map<Verdict, Long> expiryMillis;
+    private final Map<String, CachedVerdict> verdicts = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Verdict>> inFlightChecks = new ConcurrentHashMap<>();
+    private final Map<Verdict, LongAdder> hitCounts = new EnumMap<>(Verdict.class);
+    private final Map<Verdict, LongAdder> missCounts = new EnumMap<>(Verdict.class);
+
+    /**
+     * Verdict of a client certificate validation.
+     */
+    public enum Verdict {
+        VALID, REVOKED, UNKNOWN, ROLE_DENIED
+    }
+
+    /**
+     * Validates a certificate when its verdict is not in the cache.
+     *
+     * @param <E> exception thrown by the validation
+     */
+    public interface VerdictCheck<E extends Exception> {
+
+        Verdict check() throws E;
+    }
+
+    /**
+     * Initialize the cache.
+     *
+     * @param name         name of the cache, used in logs
+     * @param expiryMillis time each verdict is kept in the cache. Verdicts without an expiry time are not cached
+     */
+    protected CertificateVerdictCache(String name, Map<Verdict, Long> expiryMillis) {
+
+        this.name = name;
+        this.expiryMillis = new EnumMap<>(Verdict.class);
+        this.expiryMillis.putAll(expiryMillis);
+        for (Verdict verdict : Verdict.values()) {
+            hitCounts.put(verdict, new LongAdder());
+            missCounts.put(verdict, new LongAdder());
+        }
+    }
+
+    /**
+     * Get the cache of certificate revocation verdicts.
+     *
+     * @return CertificateVerdictCache object
+     */
+    @Generated(message = "Excluding from code coverage since it reads the open banking configurations")
+    public static CertificateVerdictCache getRevocationInstance() {
+
+        if (revocationInstance == null) {
+            synchronized (CertificateVerdictCache.class) {
+                if (revocationInstance == null) {
+                    TPPCertValidatorDataHolder dataHolder = TPPCertValidatorDataHolder.getInstance();
+                    Map<Verdict, Long> expiryMillis = new EnumMap<>(Verdict.class);
+                    expiryMillis.put(Verdict.VALID,
+                            TimeUnit.SECONDS.toMillis(dataHolder.getTppCertRevocationCacheExpiry()));
+                    expiryMillis.put(Verdict.REVOKED,
+                            TimeUnit.SECONDS.toMillis(dataHolder.getRevokedCertificateCacheExpiry()));
+                    expiryMillis.put(Verdict.UNKNOWN,
+                            TimeUnit.SECONDS.toMillis(dataHolder.getUnknownCertificateCacheExpiry()));
+                    revocationInstance = new CertificateVerdictCache("certificate revocation", expiryMillis);
+                }
+            }
+        }
+        return revocationInstance;
+    }
+
+    /**
+     * Get the cache of TPP role validation verdicts.
+     *
+     * @return CertificateVerdictCache object
+     */
+    @Generated(message = "Excluding from code coverage since it reads the open banking configurations")
+    public static CertificateVerdictCache getTppValidationInstance() {
+
+        if (tppValidationInstance == null) {
+            synchronized (CertificateVerdictCache.class) {
+                if (tppValidationInstance == null) {
+                    TPPCertValidatorDataHolder dataHolder = TPPCertValidatorDataHolder.getInstance();
+                    Map<Verdict, Long> expiryMillis = new EnumMap<>(Verdict.class);
+                    expiryMillis.put(Verdict.VALID,
+                            TimeUnit.SECONDS.toMillis(dataHolder.getTppValidationCacheExpiry()));
+                    expiryMillis.put(Verdict.ROLE_DENIED,
+                            TimeUnit.SECONDS.toMillis(dataHolder.getTppRoleDeniedCacheExpiry()));
+                    tppValidationInstance = new CertificateVerdictCache("TPP validation", expiryMillis);
+                }
+            }
+        }
+        return tppValidationInstance;
+    }
+
+    /**
+     * Get the verdict of a certificate from the cache, or check the certificate if its verdict is not in the cache.
+     * When the certificate is already being checked by another thread, the verdict of that check is used. If that
+     * check fails, the certificate is checked again in the calling thread.
+     *
+     * @param key   cache key of the certificate
+     * @param check validation of the certificate
+     * @param <E>   exception thrown by the validation
+     * @return verdict of the certificate
+     * @throws E when the validation fails
+     */
+    public <E extends Exception> Verdict getVerdict(String key, VerdictCheck<E> check) throws E {
+
+        Verdict verdict = getCachedVerdict(key);
+        if (verdict != null) {
+            return verdict;
+        }
+
+        CompletableFuture<Verdict> pendingCheck = new CompletableFuture<>();
+        CompletableFuture<Verdict> inFlightCheck = inFlightChecks.putIfAbsent(key, pendingCheck);
+        if (inFlightCheck != null) {
+            verdict = inFlightCheck.join();
+            if (verdict != null) {
+                hitCounts.get(verdict).increment();
+                return verdict;
+            }
+            return checkAndCount(check);
+        }
+
+        try {
+            // The verdict may have been stored after the lookup above, by a check which has since completed.
+            verdict = getCachedVerdict(key);
+            if (verdict == null) {
+                verdict = checkAndCount(check);
+                store(key, verdict);
+            }
+            pendingCheck.complete(verdict);
+            return verdict;
+        } finally {
+            // Waiting lookups check the certificate themselves if this check failed.
+            pendingCheck.complete(null);
+            inFlightChecks.remove(key, pendingCheck);
+        }
+    }
+
+    /**
+     * Remove a certificate from the cache, so that it is checked again on the next lookup.
+     *
+     * @param key cache key of the certificate
+     */
+    public void invalidate(String key) {
+
+        verdicts.remove(key);
+    }
+
+    /**
+     * Remove all verdicts from the cache.
+     */
+    public void clear() {
+
+        verdicts.clear();
+    }
+
+    /**
+     * Get the number of lookups served with the given verdict without checking the certificate.
+     *
+     * @param verdict verdict
+     * @return number of cache hits
+     */
+    public long getHitCount(Verdict verdict) {
+
+        return hitCounts.get(verdict).sum();
+    }
+
+    /**
+     * Get the number of lookups which checked the certificate and resulted in the given verdict.
+     *
+     * @param verdict verdict
+     * @return number of cache misses
+     */
+    public long getMissCount(Verdict verdict) {
+
+        return missCounts.get(verdict).sum();
+    }
+
+    protected long currentTimeMillis() {
+
+        return System.currentTimeMillis();
+    }
+
+    private Verdict getCachedVerdict(String key) {
+
+        CachedVerdict cachedVerdict = verdicts.get(key);
+        if (cachedVerdict == null) {
+            return null;
+        }
+        if (currentTimeMillis() >= cachedVerdict.expiryTime) {
+            verdicts.remove(key, cachedVerdict);
+            return null;
+        }
+        hitCounts.get(cachedVerdict.verdict).increment();
+        return cachedVerdict.verdict;
+    }
+
+    private <E extends Exception> Verdict checkAndCount(VerdictCheck<E> check) throws E {
+
+        Verdict verdict = check.check();
+        missCounts.get(verdict).increment();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Checked certificate for %s with verdict %s. Cache hits: %s, misses: %s",
+                    name, verdict, hitCounts, missCounts));
+        }
+        return verdict;
+    }
+
+    private void store(String key, Verdict verdict) {
+
+        long expiry = expiryMillis.getOrDefault(verdict, 0L);
+        if (expiry <= 0) {
+            return;
+        }
+        long now = currentTimeMillis();
+        if (verdicts.size() >= MAX_ENTRIES) {
+            verdicts.values().removeIf(cachedVerdict -> now >= cachedVerdict.expiryTime);
+            if (verdicts.size() >= MAX_ENTRIES) {
+                log.debug("Certificate verdict cache for " + name + " is full. Verdict is not cached");
+                return;
+            }
+        }
+        verdicts.put(key, new CachedVerdict(verdict, now + expiry));
+    }
+
+    private static class CachedVerdict {
+
+        private final Verdict verdict;
+        private final long expiryTime;
+
+        CachedVerdict(Verdict verdict, long expiryTime) {
+
+            this.verdict = verdict;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.cache;
+
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node local store of the context properties and analytics data carried between the extension listener phases of
+ * a message.
+ *
+ * The context of a message is stored against the message ID and removed when the message completes or fails.
+ * Contexts of messages which never complete are reclaimed once they are older than the timeout, and counted as
+ * leaked. The store holds at most the configured number of messages, and contexts which do not fit are rejected.
+ * While the store is full, timed out contexts are reclaimed at most once a second, and contexts stored in between
+ * are rejected without scanning the store.
+ */
+public class MessageContextStore {
+
+    private static final Log log = LogFactory.getLog(MessageContextStore.class);
+    private static final long FULL_RECLAIM_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static volatile MessageContextStore instance;
+
+    private final ConcurrentMap<String, MessageContext> messageContexts = new ConcurrentHashMap<>();
+    private final AtomicBoolean reclaiming = new AtomicBoolean();
+    private final AtomicLong nextReclaimTime = new AtomicLong();
+    private final AtomicLong nextFullReclaimTime = new AtomicLong();
+    private final AtomicLong leakedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final int capacity;
+    private final long timeoutMillis;
+
+    @Generated(message = "Excluding from code coverage since it reads the gateway configurations")
+    private MessageContextStore() {
+
+        this(GatewayDataHolder.getInstance().getMessageContextStoreCapacity(),
+                TimeUnit.SECONDS.toMillis(GatewayDataHolder.getInstance().getMessageContextStoreTimeout()));
+    }
+
+    /**
+     * Initialize the message context store.
+     *
+     * @param capacity      maximum number of messages kept in the store
+     * @param timeoutMillis time after which the context of a message is reclaimed
+     */
+    protected MessageContextStore(int capacity, long timeoutMillis) {
+
+        this.capacity = capacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Get the message context store instance.
+     *
+     * @return message context store
+     */
+    public static MessageContextStore getInstance() {
+
+        if (instance == null) {
+            synchronized (MessageContextStore.class) {
+                if (instance == null) {
+                    instance = new MessageContextStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Store the context of a message until the next phase of the message.
+     *
+     * @param messageId     message ID
+     * @param contextProps  context properties of the message
+     * @param analyticsData analytics data of the message
+     */
+    public void store(String messageId, Map<String, String> contextProps, Map<String, Object> analyticsData) {
+
+        long now = currentTimeMillis();
+        if (now >= nextReclaimTime.get()) {
+            reclaimTimedOut(now);
+        }
+
+        MessageContext messageContext = new MessageContext(contextProps, analyticsData, now);
+        if (messageContexts.replace(messageId, messageContext) != null) {
+            return;
+        }
+        if (messageContexts.size() >= capacity) {
+            long nextFullReclaim = nextFullReclaimTime.get();
+            boolean reclaimAttempted = now >= nextFullReclaim &&
+                    nextFullReclaimTime.compareAndSet(nextFullReclaim, now + FULL_RECLAIM_INTERVAL_MILLIS);
+            if (reclaimAttempted) {
+                reclaimTimedOut(now);
+            }
+            if (messageContexts.size() >= capacity) {
+                long rejected = rejectedCount.incrementAndGet();
+                if (reclaimAttempted) {
+                    log.warn(String.format("Message context store is full with %s messages. Context of message %s " +
+                            "is not stored. %s message contexts rejected so far", capacity, messageId, rejected));
+                }
+                return;
+            }
+        }
+        messageContexts.put(messageId, messageContext);
+    }
+
+    /**
+     * Get the stored context of a message.
+     *
+     * @param messageId message ID
+     * @return stored context of the message, or null if the context is not stored
+     */
+    public MessageContext get(String messageId) {
+
+        return messageContexts.get(messageId);
+    }
+
+    /**
+     * Remove the stored context of a message.
+     *
+     * @param messageId message ID
+     * @return removed context of the message, or null if the context is not stored
+     */
+    public MessageContext remove(String messageId) {
+
+        return messageContexts.remove(messageId);
+    }
+
+    /**
+     * Get the number of messages in the store.
+     *
+     * @return number of stored messages
+     */
+    public int size() {
+
+        return messageContexts.size();
+    }
+
+    /**
+     * Get the number of message contexts reclaimed after the timeout since the store was created.
+     *
+     * @return number of leaked message contexts
+     */
+    public long getLeakedCount() {
+
+        return leakedCount.get();
+    }
+
+    /**
+     * Get the number of message contexts which were not stored since the store was full.
+     *
+     * @return number of rejected message contexts
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    protected long currentTimeMillis() {
+
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Remove the contexts older than the timeout. Runs in at most one thread at a time, and at most once in half
+     * the timeout unless the store is full, in which case it runs at most once a second.
+     *
+     * @param now current time
+     */
+    private void reclaimTimedOut(long now) {
+
+        if (!reclaiming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextReclaimTime.set(now + timeoutMillis / 2);
+            int reclaimed = 0;
+            Iterator<MessageContext> iterator = messageContexts.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().getStoredTime() >= timeoutMillis) {
+                    iterator.remove();
+                    reclaimed++;
+                }
+            }
+            if (reclaimed > 0) {
+                leakedCount.addAndGet(reclaimed);
+                log.warn(String.format("Reclaimed the context of %s messages which did not complete within %s ms",
+                        reclaimed, timeoutMillis));
+            }
+        } finally {
+            reclaiming.set(false);
+        }
+    }
+
+    /**
+     * Context properties and analytics data of a message.
+     */
+    public static class MessageContext {
+
+        private final Map<String, String> contextProps;
+        private final Map<String, Object> analyticsData;
+        private final long storedTime;
+
+        MessageContext(Map<String, String> contextProps, Map<String, Object> analyticsData, long storedTime) {
+
+            this.contextProps = contextProps;
+            this.analyticsData = analyticsData;
+            this.storedTime = storedTime;
+        }
+
+        public Map<String, String> getContextProps() {
+
+            return contextProps;
+        }
+
+        public Map<String, Object> getAnalyticsData() {
+
+            return analyticsData;
+        }
+
+        public long getStoredTime() {
+
+            return storedTime;
+        }
+    }
+}
@@ -18,6 +18,7 @@
 
 package com.wso2.openbanking.accelerator.gateway.executor.core;
 
+import com.wso2.openbanking.accelerator.gateway.executor.model.APIDefinition;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
@@ -33,13 +34,12 @@ public class DefaultRequestRouter extends AbstractRequestRouter {
     private static final List<OpenBankingGatewayExecutor> EMPTY_LIST = new ArrayList<>();
 
     public List<OpenBankingGatewayExecutor> getExecutorsForRequest(OBAPIRequestContext requestContext) {
-        if (GatewayConstants.API_TYPE_NON_REGULATORY
-                .equals(requestContext.getOpenAPI().getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP))) {
+        Object apiType = getApiType(requestContext);
+        if (GatewayConstants.API_TYPE_NON_REGULATORY.equals(apiType)) {
             requestContext.addContextProperty(GatewayConstants.API_TYPE_CUSTOM_PROP,
                     GatewayConstants.API_TYPE_NON_REGULATORY);
             return EMPTY_LIST;
-        } else if (GatewayConstants.API_TYPE_CONSENT
-                .equals(requestContext.getOpenAPI().getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP))) {
+        } else if (GatewayConstants.API_TYPE_CONSENT.equals(apiType)) {
             requestContext.addContextProperty(GatewayConstants.API_TYPE_CUSTOM_PROP,
                     GatewayConstants.API_TYPE_CONSENT);
             return this.getExecutorMap().get("Consent");
@@ -69,4 +69,12 @@ public class DefaultRequestRouter extends AbstractRequestRouter {
         }
     }
 
+    private static Object getApiType(OBAPIRequestContext requestContext) {
+
+        APIDefinition apiDefinition = requestContext.getAPIDefinition();
+        if (apiDefinition != null) {
+            return apiDefinition.getApiType();
+        }
+        return requestContext.getOpenAPI().getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP);
+    }
 }
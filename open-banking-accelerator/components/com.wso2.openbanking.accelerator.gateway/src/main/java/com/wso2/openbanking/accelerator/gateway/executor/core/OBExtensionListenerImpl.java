@@ -20,7 +20,8 @@ package com.wso2.openbanking.accelerator.gateway.executor.core;
 
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.data.publisher.common.util.OBDataPublisherUtil;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.cache.MessageContextStore;
+import com.wso2.openbanking.accelerator.gateway.cache.MessageContextStore.MessageContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
@@ -58,15 +59,8 @@ public class OBExtensionListenerImpl implements ExtensionListener {
             gatewayExecutor.preProcessRequest(obapiRequestContext);
         }
 
-        if (!obapiRequestContext.isError()) {
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.CONTEXT_PROP_CACHE_KEY, obapiRequestContext.getContextProps());
-
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.ANALYTICS_PROP_CACHE_KEY, obapiRequestContext.getAnalyticsData());
-        } else {
-            publishAnalyticsData(obapiRequestContext.getAnalyticsData());
-        }
+        storeMessageContext(requestContextDTO.getMsgInfo().getMessageId(), obapiRequestContext.isError(),
+                obapiRequestContext.getContextProps(), obapiRequestContext.getAnalyticsData());
         return getResponseDTOForRequest(obapiRequestContext);
     }
 
@@ -74,27 +68,19 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public ExtensionResponseDTO postProcessRequest(RequestContextDTO requestContextDTO) {
 
-        Map<String, String> contextProps = getPropertiesFromCache(requestContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        Map<String, Object> analyticsData = getPropertiesFromCache(requestContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
-
-        OBAPIRequestContext obapiRequestContext =
-                new OBAPIRequestContext(requestContextDTO, contextProps, analyticsData);
+        MessageContext messageContext =
+                MessageContextStore.getInstance().get(requestContextDTO.getMsgInfo().getMessageId());
+        OBAPIRequestContext obapiRequestContext = messageContext == null ?
+                new OBAPIRequestContext(requestContextDTO, new HashMap<>(), new HashMap<>()) :
+                new OBAPIRequestContext(requestContextDTO, messageContext.getContextProps(),
+                        messageContext.getAnalyticsData());
         for (OpenBankingGatewayExecutor gatewayExecutor :
                 GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForRequest(obapiRequestContext)) {
             gatewayExecutor.postProcessRequest(obapiRequestContext);
         }
 
-        if (!obapiRequestContext.isError()) {
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.CONTEXT_PROP_CACHE_KEY, obapiRequestContext.getContextProps());
-
-            setPropertiesToCache(requestContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.ANALYTICS_PROP_CACHE_KEY, obapiRequestContext.getAnalyticsData());
-        } else {
-            publishAnalyticsData(obapiRequestContext.getAnalyticsData());
-        }
+        storeMessageContext(requestContextDTO.getMsgInfo().getMessageId(), obapiRequestContext.isError(),
+                obapiRequestContext.getContextProps(), obapiRequestContext.getAnalyticsData());
         return getResponseDTOForRequest(obapiRequestContext);
     }
 
@@ -102,26 +88,16 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public ExtensionResponseDTO preProcessResponse(ResponseContextDTO responseContextDTO) {
 
-        Map<String, String> contextProps = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        Map<String, Object> analyticsData = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
-        OBAPIResponseContext obapiResponseContext =
-                new OBAPIResponseContext(responseContextDTO, contextProps, analyticsData);
+        MessageContext messageContext =
+                MessageContextStore.getInstance().get(responseContextDTO.getMsgInfo().getMessageId());
+        OBAPIResponseContext obapiResponseContext = getResponseContext(responseContextDTO, messageContext);
         for (OpenBankingGatewayExecutor gatewayExecutor :
                 GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForResponse(obapiResponseContext)) {
             gatewayExecutor.preProcessResponse(obapiResponseContext);
         }
 
-        if (!obapiResponseContext.isError()) {
-            setPropertiesToCache(responseContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.CONTEXT_PROP_CACHE_KEY, obapiResponseContext.getContextProps());
-
-            setPropertiesToCache(responseContextDTO.getMsgInfo().getMessageId() +
-                    GatewayConstants.ANALYTICS_PROP_CACHE_KEY, obapiResponseContext.getAnalyticsData());
-        } else {
-            publishAnalyticsData(obapiResponseContext.getAnalyticsData());
-        }
+        storeMessageContext(responseContextDTO.getMsgInfo().getMessageId(), obapiResponseContext.isError(),
+                obapiResponseContext.getContextProps(), obapiResponseContext.getAnalyticsData());
         return getResponseDTOForResponse(obapiResponseContext);
     }
 
@@ -129,23 +105,16 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public ExtensionResponseDTO postProcessResponse(ResponseContextDTO responseContextDTO) {
 
-        Map<String, String> contextProps = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        Map<String, Object> analyticsData = getPropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
-        OBAPIResponseContext obapiResponseContext =
-                new OBAPIResponseContext(responseContextDTO, contextProps, analyticsData);
+        // The response is the last phase of the message, hence the context is not needed after this phase
+        MessageContext messageContext =
+                MessageContextStore.getInstance().remove(responseContextDTO.getMsgInfo().getMessageId());
+        OBAPIResponseContext obapiResponseContext = getResponseContext(responseContextDTO, messageContext);
         for (OpenBankingGatewayExecutor gatewayExecutor :
                 GatewayDataHolder.getInstance().getRequestRouter().getExecutorsForResponse(obapiResponseContext)) {
             gatewayExecutor.postProcessResponse(obapiResponseContext);
         }
         publishAnalyticsData(obapiResponseContext.getAnalyticsData());
-        ExtensionResponseDTO responseDTOForResponse = getResponseDTOForResponse(obapiResponseContext);
-        removePropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.CONTEXT_PROP_CACHE_KEY);
-        removePropertiesFromCache(responseContextDTO.getMsgInfo().getMessageId() +
-                GatewayConstants.ANALYTICS_PROP_CACHE_KEY);
-        return responseDTOForResponse;
+        return getResponseDTOForResponse(obapiResponseContext);
     }
 
     protected ExtensionResponseDTO getResponseDTOForRequest(OBAPIRequestContext obapiRequestContext) {
@@ -173,9 +142,9 @@ public class OBExtensionListenerImpl implements ExtensionListener {
             extensionResponseDTO.setResponseStatus(ExtensionResponseStatus.CONTINUE.toString());
         }
 
-        String modifiedPayload = obapiRequestContext.getModifiedPayload();
+        byte[] modifiedPayload = obapiRequestContext.getModifiedPayloadBytes();
         if (modifiedPayload != null) {
-            extensionResponseDTO.setPayload(new ByteArrayInputStream(modifiedPayload.getBytes(StandardCharsets.UTF_8)));
+            extensionResponseDTO.setPayload(new ByteArrayInputStream(modifiedPayload));
         }
         Map<String, String> addedHeaders = obapiRequestContext.getAddedHeaders();
         if (addedHeaders.size() != 0) {
@@ -236,37 +205,32 @@ public class OBExtensionListenerImpl implements ExtensionListener {
     }
 
     /**
-     * Method to store properties to cache.
+     * Method to keep the context of a message for the next phase. The context of a failed message is removed since
+     * the remaining phases of the message are not executed.
      *
-     * @param key          unique cache key
-     * @param contextProps properties to store
+     * @param messageId     message ID
+     * @param isError       whether the message failed in this phase
+     * @param contextProps  context properties of the message
+     * @param analyticsData analytics data of the message
      */
-    private void setPropertiesToCache(String key, Map contextProps) {
+    private void storeMessageContext(String messageId, boolean isError, Map<String, String> contextProps,
+                                     Map<String, Object> analyticsData) {
 
-        GatewayDataHolder.getGatewayCache().addToCache(GatewayCacheKey.of(key), contextProps);
+        if (!isError) {
+            MessageContextStore.getInstance().store(messageId, contextProps, analyticsData);
+        } else {
+            MessageContextStore.getInstance().remove(messageId);
+            publishAnalyticsData(analyticsData);
+        }
     }
 
-    /**
-     * Method to retrieve context properties from cache.
-     *
-     * @param key unique cache key
-     * @return context properties
-     */
-    private Map getPropertiesFromCache(String key) {
-        //Need to implement after adding base cache implementation to the common module.
-        Object cachedObject = GatewayDataHolder.getGatewayCache().getFromCache(GatewayCacheKey.of(key));
-        return cachedObject == null ? new HashMap<>() : (Map) cachedObject;
-    }
+    private OBAPIResponseContext getResponseContext(ResponseContextDTO responseContextDTO,
+                                                    MessageContext messageContext) {
 
-    /**
-     * Method to remove context properties from cache.
-     *
-     * @param key unique cache key
-     * @return context properties
-     */
-    private void removePropertiesFromCache(String key) {
-        //Need to implement after adding base cache implementation to the common module.
-        GatewayDataHolder.getGatewayCache().removeFromCache(GatewayCacheKey.of(key));
+        return messageContext == null ?
+                new OBAPIResponseContext(responseContextDTO, new HashMap<>(), new HashMap<>()) :
+                new OBAPIResponseContext(responseContextDTO, messageContext.getContextProps(),
+                        messageContext.getAnalyticsData());
     }
 
     private void publishAnalyticsData(Map<String, Object> analyticsData) {
@@ -78,6 +78,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.ws.rs.HttpMethod;
 
@@ -94,6 +97,11 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     private static String userName = "userName";
     private static String obDCREndpoint = "api/openbanking/dynamic-client-registration/register";
     private static Map<String, Object> urlMap = GatewayDataHolder.getInstance().getUrlMap();
+    private static final ExecutorService onboardingExecutor = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "OB-DCR-Onboarding");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public static void setUrlMap(Map<String, Object> conf) {
 
@@ -262,174 +270,83 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     private void postProcessResponseForRegister(OBAPIResponseContext obapiResponseContext, String basicAuthHeader,
                                             String fullBackEndURL, Map<String, List<String>> regulatoryAPIs) {
 
+        JsonParser jsonParser = new JsonParser();
+        JsonObject createdDCRAppDetails = ((JsonObject) jsonParser
+                .parse(obapiResponseContext.getResponsePayload()));
+        String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
+        DCROnboardingJournal journal = new DCROnboardingJournal(clientId);
+        journal.recordCreated("service provider", clientId,
+                () -> callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader));
+        DevPortalCredentialManager credentialManager = DevPortalCredentialManager.getInstance();
+        DevPortalCredentialManager.DevPortalClient devPortalClient = new DCRDevPortalClient(basicAuthHeader);
         try {
-            JsonParser jsonParser = new JsonParser();
-            JsonObject createdDCRAppDetails = ((JsonObject) jsonParser
-                    .parse(obapiResponseContext.getResponsePayload()));
             //get software statement from dcr app details
             String softwareStatement = createdDCRAppDetails.has(OpenBankingConstants.SOFTWARE_STATEMENT) ?
                     createdDCRAppDetails.get(OpenBankingConstants.SOFTWARE_STATEMENT).toString() : null;
 
-            //call IS DCR endpoint to create application for obtaining a token to invoke devportal REST APIs
-            JsonElement registrationResponse = createServiceProvider(basicAuthHeader,
-                    createdDCRAppDetails.get("software_id").getAsString());
-            if (registrationResponse == null) {
-                log.error("Error while creating AM app for invoking APIM rest apis");
-                String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
-                //delete service provider
-                callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader);
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                return;
-            }
-            //call token endpoint to retrieve a token for invoking the devportal REST apis
-            String amRestAPIInvokeClientId = registrationResponse.getAsJsonObject()
-                    .get(clientIdParam).getAsString();
-
-            String authHeaderForTokenRequest = GatewayUtils
-                    .getBasicAuthHeader(registrationResponse.getAsJsonObject().get(clientIdParam).getAsString(),
-                            registrationResponse.getAsJsonObject().get(clientSecret).getAsString());
-
-            JsonElement tokenResponse = getToken(authHeaderForTokenRequest,
-                    urlMap.get(GatewayConstants.TOKEN_URL).toString(), amRestAPIInvokeClientId);
-
-            if (tokenResponse == null || tokenResponse.getAsJsonObject().get("access_token") == null) {
-                log.error("Error while creating tokens");
-                String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
-                //delete service provider
-                callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader);
-                //delete SP created for calling dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(amRestAPIInvokeClientId), basicAuthHeader);
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                return;
-            }
-            String token = tokenResponse.getAsJsonObject().get("access_token").getAsString();
-            String getSPDetails = urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                    .concat(createdDCRAppDetails.get(clientIdParam).getAsString());
+            //get a token for invoking the devportal REST apis
+            String token = journal.execute("devportal token", () -> credentialManager.getAccessToken(devPortalClient));
+            String bearerAuthHeader = GatewayConstants.BEARER_TAG.concat(token);
+
+            //get list of published APIs while the AM application is created
+            CompletableFuture<JsonArray> publishedAPIs = journal.executeAsync("published APIs",
+                    () -> credentialManager.getPublishedAPIs(devPortalClient, token), onboardingExecutor);
+
             //call IS dcr api to get client secret and client name
-            JsonElement createdSpDetails = callGet(getSPDetails, basicAuthHeader, "", "");
-            if (createdSpDetails == null) {
-                log.error("Error while retrieving client id and secret");
-                String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
-                //delete service provider
-                callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader);
-                //delete SP created for calling dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(amRestAPIInvokeClientId), basicAuthHeader);
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                return;
-            }
+            JsonElement createdSpDetails = journal.execute("service provider details",
+                    () -> callGet(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/").concat(clientId),
+                            basicAuthHeader, "", ""));
 
             //create am application
             JsonObject amAppCreatePayload = getAppCreatePayload(createdSpDetails.getAsJsonObject()
                     .get("client_name").getAsString());
-            JsonElement amApplicationCreateResponse =
-                    callPost(urlMap.get(GatewayConstants.APP_CREATE_URL).toString(),
-                            amAppCreatePayload.toString(), GatewayConstants.BEARER_TAG.concat(token));
-
-            if (amApplicationCreateResponse == null) {
-                log.error("Error while creating AM app");
-                String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
-                //delete service provider
-                callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader);
-                //delete SP created for calling dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(amRestAPIInvokeClientId), basicAuthHeader);
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                return;
-            }
-            String keyMapURL = urlMap.get(GatewayConstants.KEY_MAP_URL).toString()
-                    .replace("application-id", amApplicationCreateResponse.getAsJsonObject()
-                            .get(applicationIdParam).getAsString());
-            String keyManagerName = GatewayDataHolder.getInstance().getOpenBankingConfigurationService()
-                    .getConfigurations().get(OpenBankingConstants.OB_KM_NAME).toString();
-
-            //map keys to am application
-            JsonObject keyMapPayload = getKeyMapPayload(createdDCRAppDetails.get(clientIdParam).getAsString(),
-                    createdSpDetails.getAsJsonObject().get(clientSecret).getAsString(),
-                    OpenBankingUtils.getSoftwareEnvironmentFromSSA(softwareStatement), keyManagerName);
-
-            JsonElement amKeyMapResponse = callPost(keyMapURL, keyMapPayload.toString(),
-                    GatewayConstants.BEARER_TAG.concat(token));
-            if (amKeyMapResponse == null) {
-                log.error("Error while mapping keys to AM app");
-                String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
-                //delete service provider
-                callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader);
-                //delete SP created for calling dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(amRestAPIInvokeClientId), basicAuthHeader);
-                //delete AM application
-                callDelete(urlMap.get(GatewayConstants.APP_CREATE_URL).toString()
-                        .concat("/").concat(amApplicationCreateResponse.getAsJsonObject()
-                                .get(applicationIdParam).getAsString()), GatewayConstants.BEARER_TAG.concat(token));
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                return;
-            }
-            //get list of published APIs
-            JsonElement publishedAPIsResponse = callGet(urlMap.get(GatewayConstants.API_RETRIEVE_URL).toString(),
-                    GatewayConstants.BEARER_TAG.concat(token), "", "");
-            if (publishedAPIsResponse == null) {
-                log.error("Error while retrieving published APIs");
-                String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
-                //delete service provider
-                callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader);
-                //delete SP created for calling dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(amRestAPIInvokeClientId), basicAuthHeader);
-                //delete AM application
-                callDelete(urlMap.get(GatewayConstants.APP_CREATE_URL).toString()
-                        .concat("/").concat(amApplicationCreateResponse.getAsJsonObject()
-                                .get(applicationIdParam).getAsString()), GatewayConstants.BEARER_TAG.concat(token));
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                return;
-            }
+            JsonElement amApplicationCreateResponse = journal.execute("application creation",
+                    () -> callPost(urlMap.get(GatewayConstants.APP_CREATE_URL).toString(),
+                            amAppCreatePayload.toString(), bearerAuthHeader));
+            String applicationId = amApplicationCreateResponse.getAsJsonObject().get(applicationIdParam)
+                    .getAsString();
+            journal.recordCreated("AM application", applicationId,
+                    () -> callDelete(urlMap.get(GatewayConstants.APP_CREATE_URL).toString().concat("/")
+                            .concat(applicationId), bearerAuthHeader));
 
             List<String> apiIDList = new ArrayList<>();
+            DCROnboardingJournal.await(publishedAPIs);
+            JsonArray publishedAPIList = publishedAPIs.join();
             if (regulatoryAPIs != null) {
                 if (StringUtils.isEmpty(softwareStatement)) {
-                    apiIDList = filterRegulatoryAPIs(regulatoryAPIs, publishedAPIsResponse.getAsJsonObject()
-                            .get(OpenBankingConstants.API_LIST).getAsJsonArray(), Collections.emptyList());
+                    apiIDList = filterRegulatoryAPIs(regulatoryAPIs, publishedAPIList, Collections.emptyList());
                 } else {
-                    apiIDList = filterRegulatoryAPIs(regulatoryAPIs, publishedAPIsResponse.getAsJsonObject()
-                            .get(OpenBankingConstants.API_LIST).getAsJsonArray(), getRolesFromSSA(softwareStatement));
+                    apiIDList = filterRegulatoryAPIs(regulatoryAPIs, publishedAPIList,
+                            getRolesFromSSA(softwareStatement));
                 }
             } else {
                 log.warn("No regulatory APIs configured. Application will be subscribed to all published APIs");
                 //subscribe to all APIs if there are no configured regulatory APIs
-                for (JsonElement apiInfo : publishedAPIsResponse.getAsJsonObject().get("list").getAsJsonArray()) {
+                for (JsonElement apiInfo : publishedAPIList) {
                     apiIDList.add(apiInfo.getAsJsonObject().get("id").getAsString());
                 }
             }
-            //subscribe to apis
-            JsonArray subscribeAPIsPayload = getAPISubscriptionPayload(amApplicationCreateResponse
-                    .getAsJsonObject().get(applicationIdParam).getAsString(), apiIDList);
-            JsonElement subscribeAPIsResponse = callPost(urlMap.get(GatewayConstants.API_SUBSCRIBE_URL).toString(),
-                    subscribeAPIsPayload.toString(), "Bearer ".concat(token));
-            if (subscribeAPIsResponse == null) {
-                log.error("Error while subscribing to APIs");
-                String clientId = createdDCRAppDetails.get(clientIdParam).getAsString();
-                //delete service provider
-                callDelete(fullBackEndURL.concat("/").concat(clientId), basicAuthHeader);
-                //delete SP created for calling dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(amRestAPIInvokeClientId), basicAuthHeader);
-                //delete AM application
-                callDelete(urlMap.get(GatewayConstants.APP_CREATE_URL).toString()
-                        .concat("/").concat(amApplicationCreateResponse.getAsJsonObject()
-                                .get(applicationIdParam).getAsString()), GatewayConstants.BEARER_TAG.concat(token));
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                return;
-            }
-
-            //delete IAM application used to invoke am rest endpoints
-            if (!callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                    .concat(amRestAPIInvokeClientId), basicAuthHeader)) {
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTATION_DELETE_ERROR);
-            }
 
+            //map keys to am application and subscribe to apis at the same time
+            String keyMapURL = urlMap.get(GatewayConstants.KEY_MAP_URL).toString()
+                    .replace("application-id", applicationId);
+            String keyManagerName = GatewayDataHolder.getInstance().getOpenBankingConfigurationService()
+                    .getConfigurations().get(OpenBankingConstants.OB_KM_NAME).toString();
+            JsonObject keyMapPayload = getKeyMapPayload(clientId,
+                    createdSpDetails.getAsJsonObject().get(clientSecret).getAsString(),
+                    OpenBankingUtils.getSoftwareEnvironmentFromSSA(softwareStatement), keyManagerName);
+            CompletableFuture<JsonElement> keyMapping = journal.executeAsync("key mapping",
+                    () -> callPost(keyMapURL, keyMapPayload.toString(), bearerAuthHeader), onboardingExecutor);
+            JsonArray subscribeAPIsPayload = getAPISubscriptionPayload(applicationId, apiIDList);
+            CompletableFuture<JsonElement> subscription = journal.executeAsync("API subscription",
+                    () -> callPost(urlMap.get(GatewayConstants.API_SUBSCRIBE_URL).toString(),
+                            subscribeAPIsPayload.toString(), bearerAuthHeader), onboardingExecutor);
+            DCROnboardingJournal.await(keyMapping, subscription);
+            journal.complete();
         } catch (IOException | OpenBankingException | URISyntaxException | ParseException e) {
             log.error("Error occurred while creating application", e);
+            credentialManager.invalidateAccessToken();
+            journal.compensate();
             handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
         }
     }
@@ -447,38 +364,16 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
         JsonParser jsonParser = new JsonParser();
         JsonObject createdDCRAppDetails = ((JsonObject) jsonParser.parse(obapiResponseContext
                 .getResponsePayload()));
+        DevPortalCredentialManager credentialManager = DevPortalCredentialManager.getInstance();
+        DevPortalCredentialManager.DevPortalClient devPortalClient = new DCRDevPortalClient(basicAuthHeader);
         try {
-            JsonObject dcrPayload = getIAMDCRPayload(createdDCRAppDetails.get("software_id").getAsString());
-            JsonElement registrationResponse = callPost(urlMap.get(GatewayConstants.IAM_DCR_URL).toString(),
-                    dcrPayload.toString(), basicAuthHeader);
-            if (registrationResponse == null) {
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
-                return;
-            }
-            //call token endpoint to retrieve a token for invoking the devportal REST apis
-            String clientId = registrationResponse.getAsJsonObject().get(clientIdParam).getAsString();
-            String authHeaderForTokenRequest = GatewayUtils.getBasicAuthHeader(clientId,
-                    registrationResponse.getAsJsonObject().get(clientSecret).getAsString());
-
-            JsonElement tokenResponse = getToken(authHeaderForTokenRequest,
-                    urlMap.get(GatewayConstants.TOKEN_URL).toString(), clientId);
-            if (tokenResponse == null || tokenResponse.getAsJsonObject().get("access_token") == null) {
-                log.error("Error while creating tokens");
-                //delete SP created to call dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(clientId), basicAuthHeader);
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
-                return;
-            }
-            String token = tokenResponse.getAsJsonObject().get("access_token").getAsString();
+            //get a token for invoking the devportal REST apis
+            String token = credentialManager.getAccessToken(devPortalClient);
 
             String applicationName = getApplicationName(obapiResponseContext.getResponsePayload(),
                     GatewayDataHolder.getInstance().getOpenBankingConfigurationService().getConfigurations());
             if (StringUtils.isEmpty(applicationName)) {
                 log.error("Error while retrieving application name during update");
-                //delete SP created to call dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(clientId), basicAuthHeader);
                 handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
                 return;
             }
@@ -488,9 +383,7 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
                             GatewayConstants.BEARER_TAG.concat(token), "query", applicationName);
             if (applicationSearchResponse == null) {
                 log.error("Error while searching for created application during update");
-                //delete SP created to call dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(clientId), basicAuthHeader);
+                credentialManager.invalidateAccessToken();
                 handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
                 return;
             }
@@ -502,9 +395,7 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
                     GatewayConstants.BEARER_TAG.concat(token), "applicationId", applicationId);
             if (subscribedAPIsResponse == null) {
                 log.error("Error while retrieving subscribed APIs");
-                //delete SP created to call dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(clientId), basicAuthHeader);
+                credentialManager.invalidateAccessToken();
                 handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
                 return;
             }
@@ -530,37 +421,24 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
                                 .filter(endpoint -> isSubscriptionDeletionFailed(endpoint, GatewayConstants.BEARER_TAG
                                         .concat(token)))
                                 .findAny())
-                        .ifPresent(endpoint -> {
-                            log.error("Error while unsubscribing from API: " + endpoint);
-                            //delete SP created to call dev portal REST APIs
-                            try {
-                                callDelete(String.format("%s/%s", urlMap.get(GatewayConstants.IAM_DCR_URL).toString(),
-                                        clientId), basicAuthHeader);
-                            } catch (OpenBankingException | IOException e) {
-                                handleInternalServerError(obapiResponseContext,
-                                        OpenBankingErrorCodes.REGISTRATION_INTERNAL_ERROR);
-                            }
-                        });
+                        .ifPresent(endpoint -> log.error("Error while unsubscribing from API: " + endpoint));
             }
             //subscribe to new APIs if new roles were added to the SSA
             //get list of published APIs
-            JsonElement publishedAPIsResponse = callGet(urlMap.get(GatewayConstants.API_RETRIEVE_URL).toString(),
-                    GatewayConstants.BEARER_TAG.concat(token), "", "");
-            if (publishedAPIsResponse == null) {
-                log.error("Error while retrieving published APIs");
-                //delete SP created to call dev portal REST APIs
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                        .concat(clientId), basicAuthHeader);
+            JsonArray publishedAPIs;
+            try {
+                publishedAPIs = credentialManager.getPublishedAPIs(devPortalClient, token);
+            } catch (OpenBankingException e) {
+                log.error("Error while retrieving published APIs", e);
+                credentialManager.invalidateAccessToken();
                 handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
                 return;
             }
             List<String> apiIDList = new ArrayList<>();
             if (StringUtils.isEmpty(softwareStatement)) {
-                filterRegulatoryAPIs(regulatoryAPIs, publishedAPIsResponse.getAsJsonObject()
-                        .get(OpenBankingConstants.API_LIST).getAsJsonArray(), Collections.emptyList());
+                filterRegulatoryAPIs(regulatoryAPIs, publishedAPIs, Collections.emptyList());
             } else {
-                filterRegulatoryAPIs(regulatoryAPIs, publishedAPIsResponse.getAsJsonObject()
-                        .get(OpenBankingConstants.API_LIST).getAsJsonArray(), getRolesFromSSA(softwareStatement));
+                filterRegulatoryAPIs(regulatoryAPIs, publishedAPIs, getRolesFromSSA(softwareStatement));
             }
 
             List<String> newApisListToSubscribe = getNewAPIsToSubscribe(apiIDList, subscribedAPIIdList);
@@ -570,19 +448,11 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
                         .toString(), subscribeAPIsPayload.toString(), "Bearer ".concat(token));
                 if (subscribeAPIsResponse == null) {
                     log.error("Error while subscribing to APIs");
-                    //delete SP created to call dev portal REST APIs
-                    callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                            .concat(clientId), basicAuthHeader);
+                    credentialManager.invalidateAccessToken();
                     handleInternalServerError(obapiResponseContext,
                             OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
-                    return;
                 }
             }
-            //delete IAM application used to invoke am rest endpoints
-            if (!callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/")
-                    .concat(clientId), basicAuthHeader)) {
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
-            }
         } catch (ParseException | IOException | URISyntaxException | OpenBankingException e) {
             log.error("Error occurred while creating application", e);
             handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTRATION_UPDATE_ERROR);
@@ -598,31 +468,10 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
      */
     private void postProcessResponseForDelete(OBAPIResponseContext obapiResponseContext, String basicAuthHeader) {
 
+        DevPortalCredentialManager credentialManager = DevPortalCredentialManager.getInstance();
         try {
-            JsonObject dcrPayload = getIAMDCRPayload(obapiResponseContext.getApiRequestInfo().getConsumerKey());
-            JsonElement registrationResponse = callPost(urlMap.get(GatewayConstants.IAM_DCR_URL).toString(),
-                    dcrPayload.toString(), basicAuthHeader);
-            if (registrationResponse == null) {
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTATION_DELETE_ERROR);
-                return;
-            }
-
-            //call token endpoint to retrieve a token for invoking the devportal REST apis
-            String clientId = registrationResponse.getAsJsonObject().get(clientIdParam).getAsString();
-            String authHeaderForTokenRequest = GatewayUtils.getBasicAuthHeader(clientId,
-                    registrationResponse.getAsJsonObject().get(clientSecret).getAsString());
-
-            JsonElement tokenResponse = getToken(authHeaderForTokenRequest,
-                    urlMap.get(GatewayConstants.TOKEN_URL).toString(), clientId);
-            if (tokenResponse == null || tokenResponse.getAsJsonObject().get("access_token") == null) {
-                log.error("Error while creating tokens during delete");
-                //delete IAM application used to invoke am rest endpoints
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/").concat(clientId),
-                        basicAuthHeader);
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTATION_DELETE_ERROR);
-                return;
-            }
-            String token = tokenResponse.getAsJsonObject().get("access_token").getAsString();
+            //get a token for invoking the devportal REST apis
+            String token = credentialManager.getAccessToken(new DCRDevPortalClient(basicAuthHeader));
 
             //get application id of the sent request
             String cacheKey = obapiResponseContext.getApiRequestInfo().getConsumerKey()
@@ -641,9 +490,7 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
                             GatewayConstants.BEARER_TAG.concat(token), "query", applicationName);
             if (applicationSearchResponse == null) {
                 log.error("Error while searching application during delete");
-                //delete IAM application used to invoke am rest endpoints
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/").concat(clientId),
-                        basicAuthHeader);
+                credentialManager.invalidateAccessToken();
                 handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTATION_DELETE_ERROR);
                 return;
             }
@@ -654,16 +501,7 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
             if (!callDelete(urlMap.get(GatewayConstants.APP_CREATE_URL).toString()
                     .concat("/").concat(applicationId), GatewayConstants.BEARER_TAG.concat(token))) {
                 log.error("Error while deleting AM application");
-                //delete IAM application used to invoke am rest endpoints
-                callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/").concat(clientId),
-                        basicAuthHeader);
-                handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTATION_DELETE_ERROR);
-                return;
-            }
-
-            //delete IAM application used to invoke am rest endpoints
-            if (!callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/").concat(clientId),
-                    basicAuthHeader)) {
+                credentialManager.invalidateAccessToken();
                 handleInternalServerError(obapiResponseContext, OpenBankingErrorCodes.REGISTATION_DELETE_ERROR);
             }
         } catch (IOException | OpenBankingException | URISyntaxException e) {
@@ -743,14 +581,14 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     protected JsonElement callPost(String endpoint, String payload, String authenticationHeader)
             throws IOException, OpenBankingException {
 
-        try (CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient()) {
-            HttpPost httpPost = new HttpPost(endpoint);
-            StringEntity entity = new StringEntity(payload);
-            httpPost.setEntity(entity);
-            httpPost.setHeader(GatewayConstants.ACCEPT, GatewayConstants.JSON_CONTENT_TYPE);
-            httpPost.setHeader(GatewayConstants.CONTENT_TYPE_TAG, GatewayConstants.JSON_CONTENT_TYPE);
-            httpPost.setHeader(HttpHeaders.AUTHORIZATION, authenticationHeader);
-            CloseableHttpResponse httpResponse = httpClient.execute(httpPost);
+        CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpPost httpPost = new HttpPost(endpoint);
+        StringEntity entity = new StringEntity(payload);
+        httpPost.setEntity(entity);
+        httpPost.setHeader(GatewayConstants.ACCEPT, GatewayConstants.JSON_CONTENT_TYPE);
+        httpPost.setHeader(GatewayConstants.CONTENT_TYPE_TAG, GatewayConstants.JSON_CONTENT_TYPE);
+        httpPost.setHeader(HttpHeaders.AUTHORIZATION, authenticationHeader);
+        try (CloseableHttpResponse httpResponse = httpClient.execute(httpPost)) {
             return getResponse(httpResponse);
         }
     }
@@ -759,16 +597,16 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     protected JsonElement getToken(String authHeader, String url, String clientId) throws IOException, JSONException,
             OpenBankingException {
 
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
-            HttpPost request = new HttpPost(url);
-            List<NameValuePair> params = new ArrayList<>();
-            params.add(new BasicNameValuePair("grant_type", "client_credentials"));
-            params.add(new BasicNameValuePair("scope", "apim:subscribe apim:api_key apim:app_manage " +
-                    "apim:sub_manage openid"));
-            //params.add(new BasicNameValuePair("client_id", clientId));
-            request.setEntity(new UrlEncodedFormEntity(params));
-            request.addHeader(HTTPConstants.HEADER_AUTHORIZATION, authHeader);
-            HttpResponse response = client.execute(request);
+        CloseableHttpClient client = HTTPClientUtils.getHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpPost request = new HttpPost(url);
+        List<NameValuePair> params = new ArrayList<>();
+        params.add(new BasicNameValuePair("grant_type", "client_credentials"));
+        params.add(new BasicNameValuePair("scope", "apim:subscribe apim:api_key apim:app_manage " +
+                "apim:sub_manage openid"));
+        //params.add(new BasicNameValuePair("client_id", clientId));
+        request.setEntity(new UrlEncodedFormEntity(params));
+        request.addHeader(HTTPConstants.HEADER_AUTHORIZATION, authHeader);
+        try (CloseableHttpResponse response = client.execute(request)) {
             if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_OK) {
                 log.error("Obtaining access token  failed with status code: " +
                         response.getStatusLine().getStatusCode());
@@ -809,17 +647,17 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     protected JsonElement callGet(String endpoint, String authHeader, String queryParamKey, String paramValue)
             throws IOException, OpenBankingException, URISyntaxException {
 
-        try (CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient()) {
-            HttpGet httpGet = new HttpGet(endpoint);
-            List nameValuePairs = new ArrayList();
-            if (StringUtils.isNotEmpty(queryParamKey)) {
-                nameValuePairs.add(new BasicNameValuePair(queryParamKey, paramValue));
-                URI uri = new URIBuilder(httpGet.getURI()).addParameters(nameValuePairs).build();
-                ((HttpRequestBase) httpGet).setURI(uri);
-            }
-            httpGet.setHeader("Accept", "application/json");
-            httpGet.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
-            CloseableHttpResponse restAPIResponse = httpClient.execute(httpGet);
+        CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpGet httpGet = new HttpGet(endpoint);
+        List nameValuePairs = new ArrayList();
+        if (StringUtils.isNotEmpty(queryParamKey)) {
+            nameValuePairs.add(new BasicNameValuePair(queryParamKey, paramValue));
+            URI uri = new URIBuilder(httpGet.getURI()).addParameters(nameValuePairs).build();
+            ((HttpRequestBase) httpGet).setURI(uri);
+        }
+        httpGet.setHeader("Accept", "application/json");
+        httpGet.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
+        try (CloseableHttpResponse restAPIResponse = httpClient.execute(httpGet)) {
             return getResponse(restAPIResponse);
         }
     }
@@ -851,10 +689,10 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
     @Generated(message = "Excluding from test coverage since it is an HTTP call")
     protected boolean callDelete(String endpoint, String authHeader) throws OpenBankingException, IOException {
 
-        try (CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient()) {
-            HttpDelete httpDelete = new HttpDelete(endpoint);
-            httpDelete.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
-            CloseableHttpResponse appDeletedResponse = httpClient.execute(httpDelete);
+        CloseableHttpClient httpClient = HTTPClientUtils.getHttpsClient(HTTPClientUtils.DCR_CLIENT);
+        HttpDelete httpDelete = new HttpDelete(endpoint);
+        httpDelete.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
+        try (CloseableHttpResponse appDeletedResponse = httpClient.execute(httpDelete)) {
             int status = appDeletedResponse.getStatusLine().getStatusCode();
             return (status == 204 || status == 200);
         }
@@ -1026,4 +864,60 @@ public class DCRExecutor implements OpenBankingGatewayExecutor {
         return callPost(urlMap.get(GatewayConstants.IAM_DCR_URL).toString(),
                 dcrPayload.toString(), basicAuthHeader);
     }
+
+    /**
+     * Delete the service provider registered to invoke the devportal REST APIs.
+     */
+    @Generated(message = "Excluding from test coverage since it is an HTTP call")
+    public void releaseDevPortalCredentials() {
+
+        if (urlMap == null) {
+            return;
+        }
+        String basicAuthHeader = GatewayUtils.getBasicAuthHeader(urlMap.get(userName).toString(),
+                String.valueOf((char[]) urlMap.get(GatewayConstants.PASSWORD)));
+        DevPortalCredentialManager.getInstance().release(new DCRDevPortalClient(basicAuthHeader));
+    }
+
+    /**
+     * Invokes the key manager and devportal endpoints for the devportal credential manager.
+     */
+    private class DCRDevPortalClient implements DevPortalCredentialManager.DevPortalClient {
+
+        private final String basicAuthHeader;
+
+        DCRDevPortalClient(String basicAuthHeader) {
+
+            this.basicAuthHeader = basicAuthHeader;
+        }
+
+        @Override
+        public JsonElement registerInvoker(String invokerId) throws IOException, OpenBankingException {
+
+            return createServiceProvider(basicAuthHeader, invokerId);
+        }
+
+        @Override
+        public JsonElement requestToken(String clientId, String clientSecret)
+                throws IOException, OpenBankingException {
+
+            return getToken(GatewayUtils.getBasicAuthHeader(clientId, clientSecret),
+                    urlMap.get(GatewayConstants.TOKEN_URL).toString(), clientId);
+        }
+
+        @Override
+        public JsonElement retrievePublishedAPIs(String accessToken)
+                throws IOException, OpenBankingException, URISyntaxException {
+
+            return callGet(urlMap.get(GatewayConstants.API_RETRIEVE_URL).toString(),
+                    GatewayConstants.BEARER_TAG.concat(accessToken), "", "");
+        }
+
+        @Override
+        public boolean deleteInvoker(String clientId) throws IOException, OpenBankingException {
+
+            return callDelete(urlMap.get(GatewayConstants.IAM_DCR_URL).toString().concat("/").concat(clientId),
+                    basicAuthHeader);
+        }
+    }
 }
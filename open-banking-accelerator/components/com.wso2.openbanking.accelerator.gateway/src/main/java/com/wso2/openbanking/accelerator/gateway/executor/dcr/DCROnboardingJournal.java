@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.dcr;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal of the onboarding steps of a DCR registration.
+ *
+ * Records the latency of each step and the resources created by the registration. Each created resource is
+ * written to the log as soon as it is created, so that the resources left behind by an interrupted registration
+ * can be found and removed before the registration is retried. When a step fails, the created resources are
+ * deleted in the reverse order of creation and the resources which could not be deleted are logged as errors.
+ */
+public class DCROnboardingJournal {
+
+    private static final Log log = LogFactory.getLog(DCROnboardingJournal.class);
+
+    private final String registrationId;
+    private final long startTime = System.nanoTime();
+    private final Map<String, Long> stepLatencies = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Deque<CreatedResource> createdResources = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Onboarding step which calls a remote endpoint.
+     *
+     * @param <T> step result
+     */
+    public interface Step<T> {
+
+        T execute() throws IOException, OpenBankingException, URISyntaxException;
+    }
+
+    /**
+     * Deletes a resource created by an onboarding step.
+     */
+    public interface Compensation {
+
+        boolean execute() throws IOException, OpenBankingException;
+    }
+
+    /**
+     * Initialize the journal of a registration.
+     *
+     * @param registrationId client ID of the registration
+     */
+    public DCROnboardingJournal(String registrationId) {
+
+        this.registrationId = registrationId;
+    }
+
+    /**
+     * Execute a step in the calling thread. A step without a response is treated as failed.
+     *
+     * @param stepName name of the step
+     * @param step     step to execute
+     * @param <T>      step result
+     * @return result of the step
+     * @throws OpenBankingException if the step fails
+     * @throws IOException          if the endpoint of the step cannot be reached
+     * @throws URISyntaxException   if the endpoint URL of the step is invalid
+     */
+    public <T> T execute(String stepName, Step<T> step) throws IOException, OpenBankingException,
+            URISyntaxException {
+
+        long stepStartTime = System.nanoTime();
+        try {
+            T result = step.execute();
+            if (result == null) {
+                throw new OpenBankingException(String.format("DCR onboarding step %s failed for %s", stepName,
+                        registrationId));
+            }
+            return result;
+        } finally {
+            stepLatencies.put(stepName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stepStartTime));
+        }
+    }
+
+    /**
+     * Execute a step in the given executor.
+     *
+     * @param stepName name of the step
+     * @param step     step to execute
+     * @param executor executor to execute the step
+     * @param <T>      step result
+     * @return future result of the step
+     */
+    public <T> CompletableFuture<T> executeAsync(String stepName, Step<T> step, Executor executor) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(stepName, step);
+            } catch (IOException | OpenBankingException | URISyntaxException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Wait for steps executed in another thread. Waits for all the steps even when one of them fails, so that no
+     * step is running when the created resources are deleted.
+     *
+     * @param steps future results of the steps
+     * @throws OpenBankingException if a step fails
+     * @throws IOException          if the endpoint of a step cannot be reached
+     * @throws URISyntaxException   if the endpoint URL of a step is invalid
+     */
+    public static void await(CompletableFuture<?>... steps) throws IOException, OpenBankingException,
+            URISyntaxException {
+
+        try {
+            CompletableFuture.allOf(steps).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof OpenBankingException) {
+                throw (OpenBankingException) cause;
+            } else if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            throw new OpenBankingException("DCR onboarding step failed", cause);
+        }
+    }
+
+    /**
+     * Record a resource created by the registration.
+     *
+     * @param resourceType type of the resource
+     * @param resourceId   ID of the resource
+     * @param compensation deletes the resource if the registration fails
+     */
+    public void recordCreated(String resourceType, String resourceId, Compensation compensation) {
+
+        createdResources.push(new CreatedResource(resourceType, resourceId, compensation));
+        log.info(String.format("DCR onboarding of %s created %s %s", registrationId, resourceType, resourceId));
+    }
+
+    /**
+     * Delete the resources created by the registration, in the reverse order of creation.
+     *
+     * @return true if all the created resources were deleted
+     */
+    public boolean compensate() {
+
+        boolean compensated = true;
+        CreatedResource resource;
+        while ((resource = createdResources.poll()) != null) {
+            boolean deleted;
+            try {
+                deleted = resource.compensation.execute();
+            } catch (IOException | OpenBankingException e) {
+                log.debug(String.format("Error while deleting %s %s", resource.resourceType, resource.resourceId), e);
+                deleted = false;
+            }
+            if (deleted) {
+                log.info(String.format("DCR onboarding of %s deleted %s %s", registrationId, resource.resourceType,
+                        resource.resourceId));
+            } else {
+                compensated = false;
+                log.error(String.format("DCR onboarding of %s failed to delete %s %s. Delete it before retrying " +
+                        "the registration", registrationId, resource.resourceType, resource.resourceId));
+            }
+        }
+        log.info(String.format("DCR onboarding of %s failed after %d ms. Step latencies (ms): %s", registrationId,
+                getElapsedMillis(), getStepLatencies()));
+        return compensated;
+    }
+
+    /**
+     * Mark the registration as completed.
+     */
+    public void complete() {
+
+        createdResources.clear();
+        log.info(String.format("DCR onboarding of %s completed in %d ms. Step latencies (ms): %s", registrationId,
+                getElapsedMillis(), getStepLatencies()));
+    }
+
+    /**
+     * Get the latency of the executed steps in the order of completion.
+     *
+     * @return step latencies in milliseconds
+     */
+    public Map<String, Long> getStepLatencies() {
+
+        synchronized (stepLatencies) {
+            return new LinkedHashMap<>(stepLatencies);
+        }
+    }
+
+    private long getElapsedMillis() {
+
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    private static class CreatedResource {
+
+        private final String resourceType;
+        private final String resourceId;
+        private final Compensation compensation;
+
+        CreatedResource(String resourceType, String resourceId, Compensation compensation) {
+
+            this.resourceType = resourceType;
+            this.resourceId = resourceId;
+            this.compensation = compensation;
+        }
+    }
+}
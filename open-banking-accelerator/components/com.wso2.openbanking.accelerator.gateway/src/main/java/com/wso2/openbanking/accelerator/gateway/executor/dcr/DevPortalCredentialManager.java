@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.dcr;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
+import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages the credentials used by the DCR executor to invoke the devportal REST APIs.
+ *
+ * A single service provider is registered in the key manager to obtain devportal access tokens, and its access
+ * token is reused by all the registrations until it expires. The list of published APIs is cached for a short time
+ * so that consecutive registrations do not retrieve it again.
+ */
+public class DevPortalCredentialManager {
+
+    private static final Log log = LogFactory.getLog(DevPortalCredentialManager.class);
+    private static final long DEFAULT_TOKEN_VALIDITY_SECONDS = 3600;
+    private static final long DEFAULT_PUBLISHED_API_CACHE_EXPIRY_SECONDS = 60;
+    private static final long TOKEN_EXPIRY_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static volatile DevPortalCredentialManager instance;
+
+    private final String invokerId = UUID.randomUUID().toString();
+    private final long publishedAPICacheExpiryMillis;
+    private final Object tokenLock = new Object();
+    private final Object publishedAPILock = new Object();
+    private volatile ClientCredentials invokerCredentials;
+    private volatile AccessToken accessToken;
+    private volatile PublishedAPIs publishedAPIs;
+
+    /**
+     * Invokes the key manager and devportal endpoints on behalf of the credential manager.
+     */
+    public interface DevPortalClient {
+
+        JsonElement registerInvoker(String invokerId) throws IOException, OpenBankingException;
+
+        JsonElement requestToken(String clientId, String clientSecret) throws IOException, OpenBankingException;
+
+        JsonElement retrievePublishedAPIs(String accessToken)
+                throws IOException, OpenBankingException, URISyntaxException;
+
+        boolean deleteInvoker(String clientId) throws IOException, OpenBankingException;
+    }
+
+    @Generated(message = "Excluding from code coverage since it reads the open banking configurations")
+    private DevPortalCredentialManager() {
+
+        this(TimeUnit.SECONDS.toMillis(getPublishedAPICacheExpiry()));
+    }
+
+    /**
+     * Initialize the devportal credential manager.
+     *
+     * @param publishedAPICacheExpiryMillis time the list of published APIs is kept before it is retrieved again
+     */
+    protected DevPortalCredentialManager(long publishedAPICacheExpiryMillis) {
+
+        this.publishedAPICacheExpiryMillis = publishedAPICacheExpiryMillis;
+    }
+
+    /**
+     * Get the devportal credential manager instance.
+     *
+     * @return devportal credential manager
+     */
+    public static DevPortalCredentialManager getInstance() {
+
+        if (instance == null) {
+            synchronized (DevPortalCredentialManager.class) {
+                if (instance == null) {
+                    instance = new DevPortalCredentialManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get an access token to invoke the devportal REST APIs. The service provider used to obtain the token is
+     * registered on first use, and registered again if a token can no longer be obtained with its credentials.
+     *
+     * @param devPortalClient client used to invoke the key manager
+     * @return devportal access token
+     * @throws OpenBankingException if an access token cannot be obtained
+     * @throws IOException          if the key manager cannot be reached
+     */
+    public String getAccessToken(DevPortalClient devPortalClient) throws OpenBankingException, IOException {
+
+        AccessToken token = accessToken;
+        if (token != null && currentTimeMillis() < token.expiryTime) {
+            return token.value;
+        }
+        synchronized (tokenLock) {
+            token = accessToken;
+            if (token != null && currentTimeMillis() < token.expiryTime) {
+                return token.value;
+            }
+            token = null;
+            ClientCredentials credentials = invokerCredentials;
+            if (credentials != null) {
+                token = requestAccessToken(devPortalClient, credentials);
+                if (token == null) {
+                    log.debug("Unable to obtain a devportal access token with the registered service provider. " +
+                            "Registering the service provider again");
+                    invokerCredentials = null;
+                    devPortalClient.deleteInvoker(credentials.clientId);
+                }
+            }
+            if (token == null) {
+                credentials = registerInvoker(devPortalClient);
+                token = requestAccessToken(devPortalClient, credentials);
+                if (token == null) {
+                    throw new OpenBankingException("Error while obtaining an access token to invoke the devportal " +
+                            "REST APIs");
+                }
+            }
+            accessToken = token;
+            return token.value;
+        }
+    }
+
+    /**
+     * Discard the cached access token, so that the next registration obtains a new token.
+     */
+    public void invalidateAccessToken() {
+
+        accessToken = null;
+    }
+
+    /**
+     * Get the published APIs from the devportal. The returned list is shared and must not be modified.
+     *
+     * @param devPortalClient client used to invoke the devportal
+     * @param token           devportal access token
+     * @return list of published APIs
+     * @throws OpenBankingException if the published APIs cannot be retrieved
+     * @throws IOException          if the devportal cannot be reached
+     * @throws URISyntaxException   if the devportal URL is invalid
+     */
+    public JsonArray getPublishedAPIs(DevPortalClient devPortalClient, String token)
+            throws OpenBankingException, IOException, URISyntaxException {
+
+        PublishedAPIs apis = publishedAPIs;
+        if (apis != null && currentTimeMillis() - apis.retrievedTime < publishedAPICacheExpiryMillis) {
+            return apis.apiList;
+        }
+        synchronized (publishedAPILock) {
+            apis = publishedAPIs;
+            if (apis != null && currentTimeMillis() - apis.retrievedTime < publishedAPICacheExpiryMillis) {
+                return apis.apiList;
+            }
+            JsonElement response = devPortalClient.retrievePublishedAPIs(token);
+            if (response == null || !response.isJsonObject() ||
+                    !response.getAsJsonObject().has(OpenBankingConstants.API_LIST)) {
+                throw new OpenBankingException("Error while retrieving published APIs");
+            }
+            apis = new PublishedAPIs(response.getAsJsonObject().get(OpenBankingConstants.API_LIST).getAsJsonArray(),
+                    currentTimeMillis());
+            publishedAPIs = apis;
+            return apis.apiList;
+        }
+    }
+
+    /**
+     * Delete the service provider registered to obtain devportal access tokens.
+     *
+     * @param devPortalClient client used to invoke the key manager
+     */
+    public void release(DevPortalClient devPortalClient) {
+
+        synchronized (tokenLock) {
+            ClientCredentials credentials = invokerCredentials;
+            invokerCredentials = null;
+            accessToken = null;
+            if (credentials == null) {
+                return;
+            }
+            try {
+                if (!devPortalClient.deleteInvoker(credentials.clientId)) {
+                    log.warn("Unable to delete the service provider used to invoke the devportal REST APIs");
+                }
+            } catch (IOException | OpenBankingException e) {
+                log.warn("Error while deleting the service provider used to invoke the devportal REST APIs", e);
+            }
+        }
+    }
+
+    protected long currentTimeMillis() {
+
+        return System.currentTimeMillis();
+    }
+
+    private ClientCredentials registerInvoker(DevPortalClient devPortalClient)
+            throws OpenBankingException, IOException {
+
+        JsonElement registrationResponse = devPortalClient.registerInvoker(invokerId);
+        if (registrationResponse == null) {
+            throw new OpenBankingException("Error while creating AM app for invoking APIM rest apis");
+        }
+        JsonObject registration = registrationResponse.getAsJsonObject();
+        ClientCredentials credentials = new ClientCredentials(registration.get("client_id").getAsString(),
+                registration.get("client_secret").getAsString());
+        invokerCredentials = credentials;
+        return credentials;
+    }
+
+    private AccessToken requestAccessToken(DevPortalClient devPortalClient, ClientCredentials credentials)
+            throws OpenBankingException, IOException {
+
+        JsonElement tokenResponse = devPortalClient.requestToken(credentials.clientId, credentials.clientSecret);
+        if (tokenResponse == null || !tokenResponse.isJsonObject() ||
+                tokenResponse.getAsJsonObject().get("access_token") == null) {
+            return null;
+        }
+        JsonObject token = tokenResponse.getAsJsonObject();
+        long validitySeconds = token.has("expires_in") ? token.get("expires_in").getAsLong() :
+                DEFAULT_TOKEN_VALIDITY_SECONDS;
+        return new AccessToken(token.get("access_token").getAsString(),
+                currentTimeMillis() + TimeUnit.SECONDS.toMillis(validitySeconds) - TOKEN_EXPIRY_SKEW_MILLIS);
+    }
+
+    @Generated(message = "Excluding from code coverage since it reads the open banking configurations")
+    private static long getPublishedAPICacheExpiry() {
+
+        OpenBankingConfigurationService configurationService =
+                GatewayDataHolder.getInstance().getOpenBankingConfigurationService();
+        Object cacheExpiry = configurationService == null ? null : configurationService.getConfigurations()
+                .get(GatewayConstants.DCR_PUBLISHED_API_CACHE_EXPIRY);
+        return cacheExpiry == null ? DEFAULT_PUBLISHED_API_CACHE_EXPIRY_SECONDS :
+                Long.parseLong(cacheExpiry.toString());
+    }
+
+    private static class ClientCredentials {
+
+        private final String clientId;
+        private final String clientSecret;
+
+        ClientCredentials(String clientId, String clientSecret) {
+
+            this.clientId = clientId;
+            this.clientSecret = clientSecret;
+        }
+    }
+
+    private static class AccessToken {
+
+        private final String value;
+        private final long expiryTime;
+
+        AccessToken(String value, long expiryTime) {
+
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    private static class PublishedAPIs {
+
+        private final JsonArray apiList;
+        private final long retrievedTime;
+
+        PublishedAPIs(JsonArray apiList, long retrievedTime) {
+
+            this.apiList = apiList;
+            this.retrievedTime = retrievedTime;
+        }
+    }
+}
@@ -18,8 +18,13 @@
 
 package com.wso2.openbanking.accelerator.gateway.executor.impl.consent;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.consent.cache.ConsentValidationCache;
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyService;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
@@ -29,8 +34,6 @@ import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -40,6 +43,7 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.json.JSONObject;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -51,8 +55,11 @@ import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Consent Enforcement executor.
@@ -79,8 +86,26 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
     private static final String HTTP_CODE = "httpCode";
     private static final String MODIFIED_PAYLOAD = "modifiedPayload";
     private static final String CONSENT_INFO = "consentInformation";
+    private static final String CACHE_KEY_SEPARATOR = ":";
+    private static final List<String> CONSENT_STATE_CHANGING_METHODS = Arrays.asList("DELETE", "PUT", "PATCH");
+    private static final Pattern CONSENT_ID_PATH_PARAM = Pattern.compile("\\{[^}]*consent[^}]*}",
+            Pattern.CASE_INSENSITIVE);
     private static volatile String consentValidationEndpoint;
-    private static volatile Key key;
+    private static final SigningKeyService jwtSigningKeyService = new SigningKeyService(
+            new SigningKeyService.SigningKeyLoader() {
+
+                @Override
+                public Key loadSigningKey() throws OpenBankingException {
+
+                    return loadJWTSigningKey();
+                }
+
+                @Override
+                public long getKeySourceVersion() {
+
+                    return getKeyStoreLastModified();
+                }
+            });
 
     private static String getValidationEndpoint() {
 
@@ -102,28 +127,53 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
      *
      * @return Key as an Object.
      */
+    protected static Key getJWTSigningKey() {
+
+        try {
+            return jwtSigningKeyService.getSigningKey();
+        } catch (OpenBankingException e) {
+            log.error("Error occurred while retrieving private key from keystore ", e);
+            return null;
+        }
+    }
+
+    /**
+     * Method to load the signing key from the keystore.
+     *
+     * @return Key as an Object.
+     * @throws OpenBankingException when the key cannot be loaded from the keystore
+     */
     @SuppressFBWarnings("PATH_TRAVERSAL_IN")
     // Suppressed content - dataHolder.getKeyStoreLocation()
     // Suppression reason - False Positive : Keystore location is obtained from deployment.toml. So it can be marked
     //                      as a trusted filepath
     // Suppressed warning count - 1
-    protected static Key getJWTSigningKey() {
+    private static Key loadJWTSigningKey() throws OpenBankingException {
 
-        if (key == null) {
-            synchronized (ConsentEnforcementExecutor.class) {
-                if (key == null) {
-                    try (FileInputStream is = new FileInputStream(dataHolder.getKeyStoreLocation())) {
-                        KeyStore keystore = KeyStore.getInstance(KeyStore.getDefaultType());
-                        keystore.load(is, dataHolder.getKeyStorePassword());
-                        key = keystore.getKey(dataHolder.getKeyAlias(), dataHolder.getKeyPassword().toCharArray());
-                    } catch (IOException | CertificateException | KeyStoreException | NoSuchAlgorithmException
-                            | UnrecoverableKeyException e) {
-                        log.error("Error occurred while retrieving private key from keystore ", e);
-                    }
-                }
-            }
+        try (FileInputStream is = new FileInputStream(dataHolder.getKeyStoreLocation())) {
+            KeyStore keystore = KeyStore.getInstance(KeyStore.getDefaultType());
+            keystore.load(is, dataHolder.getKeyStorePassword());
+            return keystore.getKey(dataHolder.getKeyAlias(), dataHolder.getKeyPassword().toCharArray());
+        } catch (IOException | CertificateException | KeyStoreException | NoSuchAlgorithmException
+                | UnrecoverableKeyException e) {
+            throw new OpenBankingException("Error occurred while retrieving private key from keystore", e);
         }
-        return key;
+    }
+
+    /**
+     * Method to get the last modified time of the keystore, so that the signing key is loaded again when the
+     * keystore is modified.
+     *
+     * @return last modified time of the keystore file
+     */
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    // Suppressed content - dataHolder.getKeyStoreLocation()
+    // Suppression reason - False Positive : Keystore location is obtained from deployment.toml. So it can be marked
+    //                      as a trusted filepath
+    // Suppressed warning count - 1
+    private static long getKeyStoreLastModified() {
+
+        return dataHolder.getKeyStoreLocation() == null ? 0 : new File(dataHolder.getKeyStoreLocation()).lastModified();
     }
 
     /**
@@ -149,10 +199,11 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
 
     protected String generateJWT(String payload) {
 
-        return Jwts.builder()
-                .setPayload(payload)
-                .signWith(SignatureAlgorithm.RS512, getJWTSigningKey())
-                .compact();
+        try {
+            return jwtSigningKeyService.sign(JWSAlgorithm.RS512, payload);
+        } catch (OpenBankingException e) {
+            throw new OpenBankingRuntimeException("Error occurred while signing the consent validation JWT", e);
+        }
     }
 
     /**
@@ -203,19 +254,40 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
      * @param requestHeaders Request headers of original request
      * @param requestPayload Request payload of original request
      * @return JSON Object with added attributes.
+     * @deprecated The request payload is no longer passed as a string, since the payload tree parsed by the request
+     * context is shared. Override {@link #createValidationRequestPayload(Map, JSONObject, Map)} instead, which is the
+     * method called to create the validation payload.
      */
+    @Deprecated
     protected JSONObject createValidationRequestPayload(Map<String, String> requestHeaders, String requestPayload,
                                                         Map<String, Object> additionalParams) {
 
-        JSONObject validationRequest = new JSONObject();
-        JSONObject headers = new JSONObject();
-        requestHeaders.forEach(headers::put);
-        validationRequest.put(HEADERS_TAG, headers);
         /*requestContextDTO.getMsgInfo().getPayloadHandler().consumeAsString() method sets the request payload as a
         null string, hence adding string null check to the validation*/
+        JSONObject requestBody = null;
         if (requestPayload != null && !requestPayload.isEmpty() && !requestPayload.equals("null")) {
             //This assumes all input payloads are in Content-Type : Application/JSON
-            validationRequest.put(BODY_TAG, new JSONObject(requestPayload));
+            requestBody = new JSONObject(requestPayload);
+        }
+        return createValidationRequestPayload(requestHeaders, requestBody, additionalParams);
+    }
+
+    /**
+     * Method to create validation payload from an already parsed request body.
+     *
+     * @param requestHeaders Request headers of original request
+     * @param requestBody    Parsed request payload of original request, or null if there is no payload
+     * @return JSON Object with added attributes.
+     */
+    protected JSONObject createValidationRequestPayload(Map<String, String> requestHeaders, JSONObject requestBody,
+                                                        Map<String, Object> additionalParams) {
+
+        JSONObject validationRequest = new JSONObject();
+        JSONObject headers = new JSONObject();
+        requestHeaders.forEach(headers::put);
+        validationRequest.put(HEADERS_TAG, headers);
+        if (requestBody != null) {
+            validationRequest.put(BODY_TAG, requestBody);
         }
         additionalParams.forEach(validationRequest::put);
         return validationRequest;
@@ -229,6 +301,45 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
     @Override
     public void postProcessResponse(OBAPIResponseContext obapiResponseContext) {
 
+        // Consent amendments and revocations routed through the gateway invalidate the cached validation results
+        // of the consent. The consent ID is the path parameter of the elected resource which names the consent.
+        if (!isConsentValidationCacheEnabled() || obapiResponseContext.isError()
+                || obapiResponseContext.getStatusCode() < 200 || obapiResponseContext.getStatusCode() >= 300
+                || !CONSENT_STATE_CHANGING_METHODS.contains(obapiResponseContext.getMsgInfo().getHttpMethod())) {
+            return;
+        }
+        String consentId = getConsentIdFromPath(obapiResponseContext.getMsgInfo().getElectedResource(),
+                obapiResponseContext.getMsgInfo().getResource());
+        if (consentId != null) {
+            ConsentValidationCache.getInstance().invalidate(consentId);
+        }
+    }
+
+    /**
+     * Method to extract the consent ID from the resource path using the path template of the elected resource.
+     * The template and the path are aligned from their last segment, since the path may carry the API context.
+     *
+     * @param electedResource path template of the elected resource, e.g. /account-access-consents/{ConsentId}
+     * @param resource        requested resource path
+     * @return consent ID or null if the elected resource has no consent ID path parameter
+     */
+    private static String getConsentIdFromPath(String electedResource, String resource) {
+
+        if (StringUtils.isBlank(electedResource) || StringUtils.isBlank(resource)) {
+            return null;
+        }
+        String[] templateSegments = StringUtils.split(electedResource, '/');
+        String[] pathSegments = StringUtils.split(StringUtils.substringBefore(resource, "?"), '/');
+        int offset = pathSegments.length - templateSegments.length;
+        if (offset < 0) {
+            return null;
+        }
+        for (int i = 0; i < templateSegments.length; i++) {
+            if (CONSENT_ID_PATH_PARAM.matcher(templateSegments[i]).matches()) {
+                return pathSegments[offset + i];
+            }
+        }
+        return null;
     }
 
     /**
@@ -245,6 +356,21 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
         }
 
         Map<String, String> requestHeaders = obapiRequestContext.getMsgInfo().getHeaders();
+
+        String validationCacheKey = null;
+        if (isValidationResultCacheable(obapiRequestContext)) {
+            validationCacheKey = getValidationCacheKey(obapiRequestContext);
+            String cachedResponse = ConsentValidationCache.getInstance()
+                    .getValidationResult(obapiRequestContext.getConsentId(), validationCacheKey);
+            if (cachedResponse != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Consent validation result retrieved from cache");
+                }
+                handleValidationResponse(obapiRequestContext, requestHeaders, new JSONObject(cachedResponse));
+                return;
+            }
+        }
+
         Map<String, Object> additionalParams = new HashMap<>();
         additionalParams.put(ELECTED_RESOURCE_TAG, obapiRequestContext.getMsgInfo().getElectedResource());
         additionalParams.put(CONSENT_ID_TAG, obapiRequestContext.getConsentId());
@@ -252,24 +378,36 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
         additionalParams.put(CLIENT_ID_TAG, obapiRequestContext.getApiRequestInfo().getConsumerKey());
         additionalParams.put(RESOURCE_PARAMS, getResourceParamMap(obapiRequestContext));
 
-        JSONObject validationRequest;
-        if (StringUtils.isNotBlank(obapiRequestContext.getModifiedPayload())) {
-            validationRequest = createValidationRequestPayload(requestHeaders,
-                    obapiRequestContext.getModifiedPayload(), additionalParams);
-        } else {
-            validationRequest = createValidationRequestPayload(requestHeaders,
-                    obapiRequestContext.getRequestPayload(), additionalParams);
-        }
+        // The payload tree parsed by the request context is shared, hence not parsed again for the validation
+        JSONObject validationRequest = createValidationRequestPayload(requestHeaders,
+                obapiRequestContext.getPayloadJSON(), additionalParams);
         String enforcementJWTPayload = generateJWT(validationRequest.toString());
+        long requestedTime = System.currentTimeMillis();
         JSONObject jsonResponse;
         try {
             String response = invokeConsentValidationService(enforcementJWTPayload);
             jsonResponse = new JSONObject(response);
+            if (validationCacheKey != null && jsonResponse.optBoolean(IS_VALID)) {
+                ConsentValidationCache.getInstance().addValidationResult(obapiRequestContext.getConsentId(),
+                        validationCacheKey, response, requestedTime);
+            }
         } catch (IOException | OpenBankingException e) {
             handleError(obapiRequestContext, OpenBankingErrorCodes.CONSENT_VALIDATION_REQUEST_FAILURE, e.getMessage(),
                     OpenBankingErrorCodes.SERVER_ERROR_CODE);
             return;
         }
+        handleValidationResponse(obapiRequestContext, requestHeaders, jsonResponse);
+    }
+
+    /**
+     * Method to apply the consent validation response to the request.
+     *
+     * @param obapiRequestContext OB request context object
+     * @param requestHeaders      Request headers of original request
+     * @param jsonResponse        Consent validation response
+     */
+    private void handleValidationResponse(OBAPIRequestContext obapiRequestContext,
+                                          Map<String, String> requestHeaders, JSONObject jsonResponse) {
 
         boolean isValid = (boolean) jsonResponse.get(IS_VALID);
         if (!isValid) {
@@ -293,6 +431,42 @@ public class ConsentEnforcementExecutor implements OpenBankingGatewayExecutor {
         }
     }
 
+    /**
+     * Method to check whether the consent validation result of the request can be served from the cache.
+     * Only read requests without a payload are cached since their validation result depends solely on the consent,
+     * the client, the user and the requested resource.
+     *
+     * @param obapiRequestContext OB request context object
+     * @return true if the validation result can be cached
+     */
+    private boolean isValidationResultCacheable(OBAPIRequestContext obapiRequestContext) {
+
+        return isConsentValidationCacheEnabled()
+                && "GET".equals(obapiRequestContext.getMsgInfo().getHttpMethod())
+                && StringUtils.isBlank(obapiRequestContext.getModifiedPayload());
+    }
+
+    private boolean isConsentValidationCacheEnabled() {
+
+        return OpenBankingConfigParser.getInstance().isConsentValidationCacheEnabled();
+    }
+
+    /**
+     * Method to construct the key identifying a validation result within the cached results of a consent.
+     *
+     * @param obapiRequestContext OB request context object
+     * @return validation cache key
+     */
+    private String getValidationCacheKey(OBAPIRequestContext obapiRequestContext) {
+
+        return String.join(CACHE_KEY_SEPARATOR,
+                obapiRequestContext.getApiRequestInfo().getConsumerKey(),
+                obapiRequestContext.getApiRequestInfo().getUsername(),
+                obapiRequestContext.getMsgInfo().getHttpMethod(),
+                obapiRequestContext.getMsgInfo().getElectedResource(),
+                obapiRequestContext.getMsgInfo().getResource());
+    }
+
     /**
      * Method to construct resource parameter map to invoke the validation service.
      *
@@ -22,12 +22,13 @@ import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
 import com.wso2.openbanking.accelerator.common.util.CertificateUtils;
 import com.wso2.openbanking.accelerator.common.util.Generated;
-import com.wso2.openbanking.accelerator.gateway.cache.CertificateRevocationCache;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache.Verdict;
 import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OpenBankingExecutorError;
+import com.wso2.openbanking.accelerator.gateway.executor.model.RevocationStatus;
 import com.wso2.openbanking.accelerator.gateway.executor.service.CertValidationService;
 import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
 import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
@@ -108,11 +109,6 @@ public class CertRevocationValidationExecutor implements OpenBankingGatewayExecu
                     }
                 }
             }
-        } catch (CertificateValidationException e) {
-            LOG.error("Unable to validate the client certificate, caused by ", e);
-
-            //catch errors and set to context
-            CertificateValidationUtils.handleExecutorErrors(e, obapiRequestContext);
         } catch (CertificateEncodingException e) {
             LOG.error("Unable to generate the client certificate thumbprint, caused by ", e);
             OpenBankingExecutorError error = new OpenBankingExecutorError(
@@ -139,39 +135,24 @@ public class CertRevocationValidationExecutor implements OpenBankingGatewayExecu
 
     /**
      * Checks the certificate validity of a given certificate. For this validation, the immediate issuer
-     * of the peer certificate must be present in the trust store.
-     * JSONObject jsonObject;
+     * of the peer certificate must be present in the trust store. The verdict is cached against the certificate
+     * thumbprint, including revoked and unknown verdicts, so that a revoked certificate does not trigger a
+     * revocation check on every request.
      *
      * @param peerCertificate peer certificate
-     * @return validity of the certificate
-     * @throws CertificateValidationException when an error occurs while validating the certificate
+     * @return true if the certificate is revoked or its revocation status could not be determined
+     * @throws CertificateEncodingException when the certificate thumbprint cannot be generated
      */
-    private boolean isCertRevoked(X509Certificate peerCertificate)
-            throws CertificateValidationException, CertificateEncodingException {
+    private boolean isCertRevoked(X509Certificate peerCertificate) throws CertificateEncodingException {
 
-        // Initializing certificate cache and cache key
-        CertificateRevocationCache certificateRevocationCache = CertificateRevocationCache.getInstance();
         // Generating the certificate thumbprint to use as cache key
-        String certificateValidationCacheKeyStr = DigestUtils.sha256Hex(peerCertificate.getEncoded());
-        GatewayCacheKey certificateValidationCacheKey =
-                GatewayCacheKey.of(certificateValidationCacheKeyStr);
-
-        // Executing certificate revocation process or retrieve last status from cache
-        if (certificateRevocationCache.getFromCache(certificateValidationCacheKey) != null) {
-            // previous result is present in cache, return result
-            return !certificateRevocationCache.getFromCache(certificateValidationCacheKey);
-        } else {
-            final boolean result = isCertRevocationSuccess(peerCertificate);
-            if (result) {
-                // Adding result to cache
-                certificateRevocationCache.addToCache(certificateValidationCacheKey, true);
-                return false;
-            }
-        }
-        return true;
+        String certificateValidationCacheKey = DigestUtils.sha256Hex(peerCertificate.getEncoded());
+        Verdict verdict = CertificateVerdictCache.getRevocationInstance()
+                .getVerdict(certificateValidationCacheKey, () -> getRevocationVerdict(peerCertificate));
+        return Verdict.VALID != verdict;
     }
 
-    private boolean isCertRevocationSuccess(X509Certificate peerCertificate) {
+    private Verdict getRevocationVerdict(X509Certificate peerCertificate) {
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = TPPCertValidatorDataHolder.getInstance();
 
@@ -182,7 +163,7 @@ public class CertRevocationValidationExecutor implements OpenBankingGatewayExecu
         int connectionRequestTimeout = tppCertValidatorDataHolder.getConnectionRequestTimeout();
         int socketTimeout = tppCertValidatorDataHolder.getSocketTimeout();
 
-        boolean isValid;
+        Verdict verdict;
         // Check certificate revocation status.
         if (tppCertValidatorDataHolder.isCertificateRevocationValidationEnabled()) {
             LOG.debug("Client certificate revocation validation is enabled");
@@ -193,7 +174,7 @@ public class CertRevocationValidationExecutor implements OpenBankingGatewayExecu
                     LOG.debug("Client certificate is self signed. Hence, excluding the certificate revocation" +
                             " validation");
                 }
-                return true;
+                return Verdict.VALID;
             }
 
             /*
@@ -212,7 +193,7 @@ public class CertRevocationValidationExecutor implements OpenBankingGatewayExecu
                             "certificate revocation validation. Hence, excluding the certificate " +
                             "revocation validation");
                 }
-                return true;
+                return Verdict.VALID;
             }
 
             // Get issuer certificate from the truststore to continue with the certificate validation.
@@ -224,18 +205,24 @@ public class CertRevocationValidationExecutor implements OpenBankingGatewayExecu
                 LOG.error("Issuer certificate retrieving failed for client certificate with" +
                         " serial number " + peerCertificate.getSerialNumber() + " issued by the CA " +
                         peerCertificate.getIssuerDN().toString(), e);
-                return false;
+                return Verdict.UNKNOWN;
             }
 
-            isValid = CertValidationService.getInstance().verify(peerCertificate, issuerCertificate,
-                    certificateRevocationValidationRetryCount, connectTimeout, connectionRequestTimeout, socketTimeout);
+            RevocationStatus revocationStatus = CertValidationService.getInstance().getRevocationStatus(
+                    peerCertificate, issuerCertificate, certificateRevocationValidationRetryCount, connectTimeout,
+                    connectionRequestTimeout, socketTimeout);
+            if (RevocationStatus.GOOD == revocationStatus) {
+                verdict = Verdict.VALID;
+            } else if (RevocationStatus.REVOKED == revocationStatus) {
+                verdict = Verdict.REVOKED;
+            } else {
+                verdict = Verdict.UNKNOWN;
+            }
         } else {
-            isValid = true;
+            verdict = Verdict.VALID;
         }
 
-        LOG.debug("Stored certificate validation status in cache");
-
-        return isValid;
+        return verdict;
     }
 
     /**
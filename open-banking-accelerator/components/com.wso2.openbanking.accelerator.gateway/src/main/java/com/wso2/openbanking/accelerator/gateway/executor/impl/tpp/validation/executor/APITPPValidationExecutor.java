@@ -24,11 +24,13 @@ import com.wso2.openbanking.accelerator.common.exception.TPPValidationException;
 import com.wso2.openbanking.accelerator.common.model.PSD2RoleEnum;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
+import com.wso2.openbanking.accelerator.gateway.executor.model.APIResourceDescriptor;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OpenBankingExecutorError;
 import com.wso2.openbanking.accelerator.gateway.executor.service.CertValidationService;
 import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import com.wso2.openbanking.accelerator.gateway.executor.util.ScopeRoleTable;
 import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
@@ -100,18 +102,24 @@ public class APITPPValidationExecutor implements OpenBankingGatewayExecutor {
                 // Only Do Validation if Mutual TLS is used.
                 if (transportCert.isPresent()) {
 
-                    // extracting scopes from api swagger
-                    final PathItem electedPath = obapiRequestContext.getOpenAPI().getPaths()
-                            .get(obapiRequestContext.getMsgInfo().getElectedResource());
-                    final String httpMethod = obapiRequestContext.getMsgInfo().getHttpMethod();
-
-                    final Set<String> scopes = extractScopesFromSwaggerAPI(electedPath, httpMethod);
-
                     // retrieving allowed scopes from open-banking.xml
                     final Map<String, List<String>> allowedScopes = GatewayDataHolder.getInstance()
                             .getOpenBankingConfigurationService().getAllowedScopes();
-
-                    List<PSD2RoleEnum> requiredPSD2Roles = getRolesFromScopes(allowedScopes, scopes);
+                    final ScopeRoleTable scopeRoleTable = ScopeRoleTable.of(allowedScopes);
+
+                    // required roles resolved once per resource compiled from api swagger, falling back to
+                    // reading the swagger
+                    final APIResourceDescriptor resourceDescriptor = obapiRequestContext.getResourceDescriptor();
+                    final List<PSD2RoleEnum> requiredPSD2Roles;
+                    if (resourceDescriptor != null) {
+                        requiredPSD2Roles = resourceDescriptor.getRequiredPSD2Roles(scopeRoleTable);
+                    } else {
+                        final PathItem electedPath = obapiRequestContext.getOpenAPI().getPaths()
+                                .get(obapiRequestContext.getMsgInfo().getElectedResource());
+                        final String httpMethod = obapiRequestContext.getMsgInfo().getHttpMethod();
+                        requiredPSD2Roles = new ArrayList<>(scopeRoleTable.getRoles(
+                                extractScopesFromSwaggerAPI(electedPath, httpMethod)));
+                    }
 
                     if (requiredPSD2Roles.isEmpty()) {
                         throw new TPPValidationException("No roles found associated with the request. Hence, cannot " +
@@ -145,27 +153,6 @@ public class APITPPValidationExecutor implements OpenBankingGatewayExecutor {
         }
     }
 
-    private List<PSD2RoleEnum> getRolesFromScopes(Map<String, List<String>> allowedScopes, Set<String> scopes) {
-        List<PSD2RoleEnum> requiredPSD2Roles = new ArrayList<>();
-
-        Set<String> distinctRoles = new HashSet<>();
-
-        for (String scope : scopes) {
-            for (Map.Entry<String, List<String>> allowedScopeEntry : allowedScopes.entrySet()) {
-                if (scope.equalsIgnoreCase(allowedScopeEntry.getKey())) {
-                    distinctRoles.addAll(allowedScopeEntry.getValue());
-                }
-            }
-
-        }
-
-        for (String distinctRole : distinctRoles) {
-            requiredPSD2Roles.add(PSD2RoleEnum.fromValue(distinctRole));
-        }
-
-        return requiredPSD2Roles;
-    }
-
     private Set<String> extractScopesFromSwaggerAPI(PathItem electedPath, String httpMethod) {
 
         List<SecurityRequirement> securityRequirements = null;
@@ -42,9 +42,11 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * TPP validation handler used to validate the TPP status using external validation services
@@ -162,7 +164,8 @@ public class DCRTPPValidationExecutor implements OpenBankingGatewayExecutor {
      */
     public List<PSD2RoleEnum> getRolesFromSSA(String softwareStatement) throws TPPValidationException {
 
-        List<PSD2RoleEnum> requiredPSD2Roles = new ArrayList<>();
+        // Roles are collected into an enum set to drop duplicate roles in the SSA
+        Set<PSD2RoleEnum> requiredPSD2Roles = EnumSet.noneOf(PSD2RoleEnum.class);
         try {
             // decode software statement and get payload
             JSONObject softwareStatementBody = JWTUtils.decodeRequestJWT(softwareStatement, BODY);
@@ -186,6 +189,6 @@ public class DCRTPPValidationExecutor implements OpenBankingGatewayExecutor {
 
         }
 
-        return requiredPSD2Roles;
+        return new ArrayList<>(requiredPSD2Roles);
     }
 }
@@ -23,21 +23,13 @@ import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSObject;
 import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.ECDSAVerifier;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKMatcher;
-import com.nimbusds.jose.jwk.JWKSelector;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.KeyOperation;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.KeyType;
 import com.nimbusds.jose.util.Base64URL;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
-import com.wso2.openbanking.accelerator.common.identity.retriever.JWKRetriever;
+import com.wso2.openbanking.accelerator.common.identity.retriever.JWKSManager;
 import com.wso2.openbanking.accelerator.common.identity.retriever.sp.CommonServiceProviderRetriever;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.gateway.executor.core.OpenBankingGatewayExecutor;
@@ -54,7 +46,6 @@ import org.apache.commons.logging.LogFactory;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.security.cert.X509Certificate;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -131,8 +122,8 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
                     || requestHeaders.get(GatewayConstants.CONTENT_TYPE_TAG).contains(
                     GatewayConstants.APPLICATION_XML_CONTENT_TYPE)) {
                 try {
-                    payload = Optional.of(GatewayUtils.getXMLPayloadToSign(obapiRequestContext.getMsgInfo()
-                            .getPayloadHandler().consumeAsString()));
+                    payload = Optional.of(GatewayUtils.getXMLPayloadToSign(obapiRequestContext
+                            .getRawRequestPayload()));
                 } catch (Exception e) {
                     GatewayUtils.handleRequestInternalServerError(obapiRequestContext,
                             "Internal Server Error, Unable to process Payload",
@@ -291,10 +282,8 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
             throw new OpenBankingExecutorException("Malformed JWS Signature", e);
         }
 
-        JWSVerifier verifier = null;
+        JWSVerifier verifier;
         JWSObject jwsObject;
-        RSAKey rsaKey = null;
-        ECKey ecKey = null;
 
         // Parse JWSObject to retrieve headers.
         try {
@@ -306,6 +295,7 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
 
         // Retrieve JWK set
         String jwksURI;
+        URL jwksURL;
         String appName = null;
         try {
             appName = (new CommonServiceProviderRetriever()).getAppPropertyFromSPMetaData(clientID, "software_id");
@@ -316,39 +306,22 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
 
         try {
             jwksURI = getJwksUrl(clientID);
-
-            // Get JWKSet from cache or retrieve from onDemand retriever
-            JWKSet jwkSet = getJwkSet(jwksURI, appName);
-
-            // Get public key from JWK used for signing.
-            try {
-                JWK key = retrievePublicKey(jwkSet, jwsObject);
-                // Public key of the Signing certificate is retrieved - Available 1 key with use:"Sig"
-                if (key != null) {
-                    X509Certificate x509Certificate = key.getParsedX509CertChain().get(0);
-                    // kty: "RSA"
-                    if (key.getKeyType().getValue().equals("RSA")) {
-                        rsaKey = RSAKey.parse(x509Certificate);
-                        //kty: "EC"
-                    } else if (key.getKeyType().getValue().equals("EC")) {
-                        ecKey = ECKey.parse(x509Certificate);
-                        //log error if the kty is not supported for the allowed signing alg.
-                    } else {
-                        String errorMessage = String.format("The kty %s of the Key is not supported",
-                                key.getKeyType().getValue());
-                        log.error(errorMessage);
-                        throw new OpenBankingExecutorException(errorMessage);
-                    }
-                } else {
-                    log.error("Public key of the signing certificate not found in JWK set");
-                    throw new OpenBankingExecutorException("Public key of the signing certificate not found in JWK " +
-                            "set");
-                }
-            } catch (JOSEException e) {
-                log.error("Certificate not valid", e);
-                throw new OpenBankingExecutorException("Certificate not valid", e);
+            jwksURL = getJwksURL(jwksURI);
+
+            // Get public key from the JWK set shared by the JWKS manager, which refreshes it on an unknown kid.
+            JWK key = JWKSManager.getInstance().getSigningKey(jwksURL, jwsObject.getHeader().getKeyID());
+            // Public key of the Signing certificate is retrieved - Available 1 key with use:"Sig"
+            if (key == null) {
+                log.error("Public key of the signing certificate not found in JWK set");
+                throw new OpenBankingExecutorException("Public key of the signing certificate not found in JWK " +
+                        "set");
+            } else if (!KeyType.RSA.equals(key.getKeyType()) && !KeyType.EC.equals(key.getKeyType())) {
+                //log error if the kty is not supported for the allowed signing alg.
+                String errorMessage = String.format("The kty %s of the Key is not supported",
+                        key.getKeyType().getValue());
+                log.error(errorMessage);
+                throw new OpenBankingExecutorException(errorMessage);
             }
-
         } catch (OpenBankingException e) {
             log.error("Unable to validate JWS Signature retrieving public key", e);
             throw new OpenBankingExecutorException("Unable to validate JWS Signature retrieving public key", e);
@@ -357,30 +330,20 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
         // Validating "iss" , "tan", "alg", "kid"
         boolean areClaimsValid = validateClaims(obapiRequestContext, jwsObject.getHeader(), appName, jwksURI);
 
-        try {
-
-
-            JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(jwsObject.getHeader().getAlgorithm().getName());
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(jwsObject.getHeader().getAlgorithm().getName());
+        if (!JWSAlgorithm.Family.RSA.contains(jwsAlgorithm) && !JWSAlgorithm.Family.EC.contains(jwsAlgorithm)) {
+            String errorMessage = "The " + jwsObject.getHeader().getAlgorithm().getName() + " algorithm is not " +
+                    "supported by the Solution";
+            log.error(errorMessage);
+            throw new OpenBankingExecutorException(errorMessage);
+        }
 
+        try {
+            // RSA or EC verifier built from the signing certificate, reused until the JWK set is refreshed.
             Set<String> criticalParameters  = new HashSet<>(Arrays.asList(differedCriticalClaims()));
-
-            if (JWSAlgorithm.Family.RSA.contains(jwsAlgorithm)) {
-                // Define JWSVerifier for JWS signed with RSA Signing alg.
-                verifier = new RSASSAVerifier(
-                        rsaKey != null ? rsaKey.toRSAPublicKey() : null, criticalParameters);
-            } else if (JWSAlgorithm.Family.EC.contains(jwsAlgorithm)) {
-                // Define JWSVerifier for JWS signed with EC Signing alg.
-                verifier = new ECDSAVerifier(
-                        ecKey != null ? ecKey.toECPublicKey() : null, criticalParameters);
-            } else {
-                String errorMessage = "The " + jwsObject.getHeader().getAlgorithm().getName() + " algorithm is not " +
-                        "supported by the Solution";
-                log.error(errorMessage);
-                throw new OpenBankingExecutorException(errorMessage);
-
-            }
-
-        }  catch (JOSEException e) {
+            verifier = JWKSManager.getInstance().getVerifier(jwksURL, jwsObject.getHeader().getKeyID(),
+                    jwsAlgorithm, criticalParameters);
+        }  catch (OpenBankingException e) {
             log.error("Invalid Signing Algorithm" , e);
             throw new OpenBankingExecutorException("Invalid JWS Signature,signed with invalid " +
                     "algorithm", e);
@@ -524,66 +487,20 @@ public class JwsRequestSignatureHandlingExecutor implements OpenBankingGatewayEx
     }
 
     /**
-     * Method to retrieve the JWKSet from JWKS URI.
+     * Method to create the URL of the JWKS URI.
      *
      * @param jwksURI
-     * @param appName
      * @return
      * @throws OpenBankingException
      */
-    @Generated(message = "Excluded from code coverage since method includes accessing jwks_uri")
-    private JWKSet getJwkSet(String jwksURI, String appName) throws OpenBankingException {
-        JWKSet jwkSet;
+    private URL getJwksURL(String jwksURI) throws OpenBankingException {
+
         try {
-            jwkSet = new JWKRetriever().getJWKSet(new URL(jwksURI), appName);
+            return new URL(jwksURI);
         } catch (MalformedURLException e) {
             log.error("Provided JWKS URL is malformed", e);
             throw new OpenBankingException("The provided JWKS_URI is malformed", e);
         }
-
-        return jwkSet;
-    }
-
-    /**
-     * Method to retrieve the public key from JWKSet.
-     *
-     * @param jwkSet
-     * @param jwsObject
-     * @return
-     */
-    @Generated(message = "Excluded from code coverage since method includes accessing JWKSet")
-    private JWK retrievePublicKey(JWKSet jwkSet, JWSObject jwsObject) {
-
-        JWK key = null;
-        // First get the key with given kid, use as sig and operation as verify from the list.
-        JWKMatcher keyMatcherWithKidUseAndOperation =
-                new JWKMatcher.Builder().keyID(jwsObject.getHeader().getKeyID())
-                        .keyUse(KeyUse.SIGNATURE)
-                        .keyOperation(KeyOperation.VERIFY)
-                        .build();
-        List<JWK> jwkList = new JWKSelector(keyMatcherWithKidUseAndOperation).select(jwkSet);
-
-        if (jwkList.isEmpty()) {
-            // If empty, then get the key with given kid and use as sig from the list.
-            JWKMatcher keyMatcherWithKidAndUse = new JWKMatcher.Builder()
-                    .keyID(jwsObject.getHeader().getKeyID())
-                    .keyUse(KeyUse.SIGNATURE).build();
-            jwkList = new JWKSelector(keyMatcherWithKidAndUse).select(jwkSet);
-
-            if (jwkList.isEmpty()) {
-                // fail over defaults to ->, then get the key with given kid.
-                JWKMatcher keyMatcherWithKid = new JWKMatcher.Builder().keyID(jwsObject.getHeader().getKeyID()).build();
-                jwkList = new JWKSelector(keyMatcherWithKid).select(jwkSet);
-            }
-        }
-
-        if (jwkList.isEmpty()) {
-            log.error("No matching KID found to retrieve public key in JWK set");
-        } else {
-            key = jwkList.get(0);
-        }
-
-        return key;
     }
 
     /**
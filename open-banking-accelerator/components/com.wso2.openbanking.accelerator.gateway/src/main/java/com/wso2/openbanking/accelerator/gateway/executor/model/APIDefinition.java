@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.accelerator.gateway.executor.model;
+
+import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed swagger definition of an API together with the resource descriptors compiled from it.
+ */
+public class APIDefinition {
+
+    private final String apiId;
+    private final OpenAPI openAPI;
+    private final String apiType;
+    private final long loadedTime;
+    private final Map<String, APIResourceDescriptor> resourceDescriptors;
+
+    public APIDefinition(String apiId, OpenAPI openAPI, long loadedTime) {
+
+        this.apiId = apiId;
+        this.openAPI = openAPI;
+        this.loadedTime = loadedTime;
+        Object apiTypeExtension = openAPI.getExtensions() == null ? null :
+                openAPI.getExtensions().get(GatewayConstants.API_TYPE_CUSTOM_PROP);
+        this.apiType = apiTypeExtension == null ? null : apiTypeExtension.toString();
+        this.resourceDescriptors = compileResourceDescriptors();
+    }
+
+    public String getApiId() {
+
+        return apiId;
+    }
+
+    public OpenAPI getOpenAPI() {
+
+        return openAPI;
+    }
+
+    public String getApiType() {
+
+        return apiType;
+    }
+
+    public long getLoadedTime() {
+
+        return loadedTime;
+    }
+
+    /**
+     * Get the descriptor of the given resource and verb.
+     *
+     * @param electedResource elected resource
+     * @param httpMethod      http method
+     * @return resource descriptor or null if the resource is not defined in the swagger
+     */
+    public APIResourceDescriptor getResourceDescriptor(String electedResource, String httpMethod) {
+
+        if (electedResource == null || httpMethod == null) {
+            return null;
+        }
+        return resourceDescriptors.get(getResourceKey(electedResource, httpMethod));
+    }
+
+    private Map<String, APIResourceDescriptor> compileResourceDescriptors() {
+
+        if (openAPI.getPaths() == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, List<String>> oAuthFlows = openAPI.getComponents() == null ||
+                openAPI.getComponents().getSecuritySchemes() == null ? Collections.emptyMap() :
+                GatewayUtils.getOAuthFlowsPerScheme(openAPI);
+
+        Map<String, APIResourceDescriptor> descriptors = new HashMap<>();
+        for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+            for (Map.Entry<PathItem.HttpMethod, Operation> operation :
+                    path.getValue().readOperationsMap().entrySet()) {
+                List<SecurityRequirement> security = operation.getValue().getSecurity();
+                descriptors.put(getResourceKey(path.getKey(), operation.getKey().name()),
+                        new APIResourceDescriptor(GatewayUtils.getAllowedOAuthFlowsForSecurity(oAuthFlows, security),
+                                getScopes(security), apiType));
+            }
+        }
+        return descriptors;
+    }
+
+    private static Set<String> getScopes(List<SecurityRequirement> securityRequirements) {
+
+        Set<String> scopes = new HashSet<>();
+        if (securityRequirements != null) {
+            for (SecurityRequirement securityRequirement : securityRequirements) {
+                for (List<String> requirementScopes : securityRequirement.values()) {
+                    scopes.addAll(requirementScopes);
+                }
+            }
+        }
+        return scopes;
+    }
+
+    private static String getResourceKey(String resource, String httpMethod) {
+
+        return resource + ":" + httpMethod.toUpperCase(Locale.ENGLISH);
+    }
+}
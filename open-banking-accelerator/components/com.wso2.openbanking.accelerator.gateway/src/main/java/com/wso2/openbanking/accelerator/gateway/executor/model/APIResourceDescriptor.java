@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.accelerator.gateway.executor.model;
+
+import com.wso2.openbanking.accelerator.common.model.PSD2RoleEnum;
+import com.wso2.openbanking.accelerator.gateway.executor.util.ScopeRoleTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Security details of an API resource and verb, compiled once from the swagger definition.
+ */
+public class APIResourceDescriptor {
+
+    private final List<String> allowedOAuthFlows;
+    private final Set<String> scopes;
+    private final String apiType;
+    private volatile RequiredRoles requiredRoles;
+
+    public APIResourceDescriptor(List<String> allowedOAuthFlows, Set<String> scopes, String apiType) {
+
+        this.allowedOAuthFlows = Collections.unmodifiableList(allowedOAuthFlows);
+        this.scopes = Collections.unmodifiableSet(scopes);
+        this.apiType = apiType;
+    }
+
+    public List<String> getAllowedOAuthFlows() {
+
+        return allowedOAuthFlows;
+    }
+
+    public Set<String> getScopes() {
+
+        return scopes;
+    }
+
+    public String getApiType() {
+
+        return apiType;
+    }
+
+    /**
+     * Get the PSD2 roles required to access the resource, i.e. the roles allowed for its scopes.
+     * The roles are resolved once per scope role table and reused until the allowed scopes configuration changes.
+     *
+     * @param scopeRoleTable scope role table of the allowed scopes configuration
+     * @return required roles, in the declaration order of the roles
+     */
+    public List<PSD2RoleEnum> getRequiredPSD2Roles(ScopeRoleTable scopeRoleTable) {
+
+        RequiredRoles roles = requiredRoles;
+        if (roles == null || roles.scopeRoleTable != scopeRoleTable) {
+            roles = new RequiredRoles(scopeRoleTable, scopeRoleTable.getRoles(scopes));
+            requiredRoles = roles;
+        }
+        return roles.roles;
+    }
+
+    /**
+     * Required roles of the resource along with the table they were resolved from.
+     */
+    private static class RequiredRoles {
+
+        private final ScopeRoleTable scopeRoleTable;
+        private final List<PSD2RoleEnum> roles;
+
+        RequiredRoles(ScopeRoleTable scopeRoleTable, Set<PSD2RoleEnum> roles) {
+
+            this.scopeRoleTable = scopeRoleTable;
+            this.roles = Collections.unmodifiableList(new ArrayList<>(roles));
+        }
+    }
+}
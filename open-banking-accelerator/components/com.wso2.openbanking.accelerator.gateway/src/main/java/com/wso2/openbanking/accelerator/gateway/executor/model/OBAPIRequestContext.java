@@ -19,12 +19,12 @@
 package com.wso2.openbanking.accelerator.gateway.executor.model;
 
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.cache.APIDefinitionRegistry;
 import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
 import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
-import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.JSONException;
@@ -34,6 +34,7 @@ import org.wso2.carbon.apimgt.common.gateway.dto.MsgInfoDTO;
 import org.wso2.carbon.apimgt.common.gateway.dto.RequestContextDTO;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -51,12 +52,21 @@ public class OBAPIRequestContext extends RequestContextDTO {
     private Map<String, String> contextProps;
     private String modifiedPayload;
     private String requestPayload;
+    private boolean requestPayloadResolved;
+    private String rawRequestPayload;
+    private byte[] requestPayloadBytes;
+    private byte[] modifiedPayloadBytes;
+    private JSONObject payloadJSON;
     private Map<String, String> addedHeaders;
     private boolean isError;
     private ArrayList<OpenBankingExecutorError> errors;
     private String consentId;
+    private boolean consentIdResolved;
+    private JSONObject tokenClaims;
+    private boolean tokenClaimsResolved;
     private Map<String, Object> analyticsData;
     private OpenAPI openAPI;
+    private APIDefinition apiDefinition;
 
     public OBAPIRequestContext(RequestContextDTO requestContextDTO,
                                Map<String, String> contextProps, Map<String, Object> analyticsData) {
@@ -67,48 +77,12 @@ public class OBAPIRequestContext extends RequestContextDTO {
         this.contextProps = contextProps;
         this.analyticsData = analyticsData;
 
-        Map<String, String> headers = requestContextDTO.getMsgInfo().getHeaders();
-        String authHeader = headers.get(GatewayConstants.AUTH_HEADER);
-        if (authHeader != null && !authHeader.isEmpty() &&
-                GatewayUtils.isValidJWTToken(authHeader.replace(GatewayConstants.BEARER_TAG, ""))) {
-            this.consentId = extractConsentID(authHeader);
-        }
-
         String apiId = requestContextDTO.getApiRequestInfo().getApiId();
-        Object cacheObject = GatewayDataHolder.getGatewayCache()
-                .getFromCache(GatewayCacheKey.of(apiId));
-        if (cacheObject == null) {
-            String swaggerDefinition = GatewayUtils.getSwaggerDefinition(apiId);
-            OpenAPIParser parser = new OpenAPIParser();
-            this.openAPI = parser.readContents(swaggerDefinition, null, null).getOpenAPI();
-            GatewayDataHolder.getGatewayCache().addToCache(GatewayCacheKey.of(apiId), this.openAPI);
-        } else {
-            this.openAPI = (OpenAPI) cacheObject;
-        }
-        if (requestContextDTO.getMsgInfo().getHeaders().get(GatewayConstants.CONTENT_TYPE_TAG) != null) {
-            String contentType = requestContextDTO.getMsgInfo().getHeaders().get(GatewayConstants.CONTENT_TYPE_TAG);
-            String httpMethod = requestContextDTO.getMsgInfo().getHttpMethod();
-            String errorMessage = "Request Content-Type header does not match any allowed types";
-            if (contentType.startsWith(GatewayConstants.JWT_CONTENT_TYPE) || contentType.startsWith(GatewayConstants
-                    .JOSE_CONTENT_TYPE)) {
-                try {
-                    this.requestPayload = GatewayUtils.getTextPayload(requestContextDTO.getMsgInfo().getPayloadHandler()
-                            .consumeAsString());
-                } catch (Exception e) {
-                    log.error(String.format("Failed to read the text payload from request. %s", e.getMessage()));
-                    handleContentTypeErrors(OpenBankingErrorCodes.INVALID_CONTENT_TYPE, errorMessage);
-                }
-            } else if (GatewayUtils.isEligibleRequest(contentType, httpMethod)) {
-                try {
-                    this.requestPayload = requestContextDTO.getMsgInfo().getPayloadHandler().consumeAsString();
-                } catch (Exception e) {
-                    log.error(String.format("Failed to read the payload from request. %s", e.getMessage()));
-                    handleContentTypeErrors(OpenBankingErrorCodes.INVALID_CONTENT_TYPE, errorMessage);
-                }
-            } else {
-                this.requestPayload = null;
-            }
-        }
+        this.apiDefinition = APIDefinitionRegistry.getInstance().getAPIDefinition(apiId);
+        this.openAPI = this.apiDefinition.getOpenAPI();
+
+        // Eligible payloads are read up front so that an unreadable payload is rejected before the executors run
+        getRequestPayload();
     }
 
     public String getModifiedPayload() {
@@ -119,6 +93,21 @@ public class OBAPIRequestContext extends RequestContextDTO {
     public void setModifiedPayload(String modifiedPayload) {
 
         this.modifiedPayload = modifiedPayload;
+        this.modifiedPayloadBytes = null;
+        this.payloadJSON = null;
+    }
+
+    /**
+     * Get the UTF-8 bytes of the modified payload. The bytes are encoded once and must not be modified.
+     *
+     * @return modified payload bytes or null if the payload is not modified
+     */
+    public byte[] getModifiedPayloadBytes() {
+
+        if (modifiedPayloadBytes == null && modifiedPayload != null) {
+            modifiedPayloadBytes = modifiedPayload.getBytes(StandardCharsets.UTF_8);
+        }
+        return modifiedPayloadBytes;
     }
 
     public Map<String, String> getAddedHeaders() {
@@ -164,12 +153,32 @@ public class OBAPIRequestContext extends RequestContextDTO {
 
     public String getConsentId() {
 
+        if (!consentIdResolved) {
+            consentIdResolved = true;
+            consentId = extractConsentID(getTokenClaims());
+        }
         return consentId;
     }
 
     public void setConsentId(String consentId) {
 
         this.consentId = consentId;
+        this.consentIdResolved = true;
+    }
+
+    /**
+     * Get the claims of the bearer token sent with the request. The token is decoded once and the claims must
+     * not be modified.
+     *
+     * @return token claims or null if the request does not carry a bearer JWT
+     */
+    public JSONObject getTokenClaims() {
+
+        if (!tokenClaimsResolved) {
+            tokenClaimsResolved = true;
+            tokenClaims = decodeTokenClaims();
+        }
+        return tokenClaims;
     }
 
     public OpenAPI getOpenAPI() {
@@ -180,6 +189,28 @@ public class OBAPIRequestContext extends RequestContextDTO {
     public void setOpenAPI(OpenAPI openAPI) {
 
         this.openAPI = openAPI;
+        if (this.apiDefinition != null && this.apiDefinition.getOpenAPI() != openAPI) {
+            // The compiled resource descriptors no longer describe the swagger in use
+            this.apiDefinition = null;
+        }
+    }
+
+    public APIDefinition getAPIDefinition() {
+
+        return apiDefinition;
+    }
+
+    /**
+     * Get the descriptor compiled for the elected resource and http method of the request.
+     *
+     * @return resource descriptor or null if not available
+     */
+    public APIResourceDescriptor getResourceDescriptor() {
+
+        if (apiDefinition == null) {
+            return null;
+        }
+        return apiDefinition.getResourceDescriptor(getMsgInfo().getElectedResource(), getMsgInfo().getHttpMethod());
     }
 
     public Map<String, Object> getAnalyticsData() {
@@ -215,27 +246,130 @@ public class OBAPIRequestContext extends RequestContextDTO {
         return requestContextDTO.getClientCertsLatest();
     }
 
+    /**
+     * Get the request payload. The payload is read from the payload handler when the context is created.
+     *
+     * @return request payload or null if the request does not carry an eligible payload
+     */
     public String getRequestPayload() {
 
+        if (!requestPayloadResolved) {
+            requestPayloadResolved = true;
+            requestPayload = readRequestPayload();
+        }
         return requestPayload;
     }
 
-    private String extractConsentID(String jwtToken) {
+    /**
+     * Get the UTF-8 bytes of the request payload. The bytes are encoded once and must not be modified.
+     *
+     * @return request payload bytes or null if the request does not carry an eligible payload
+     */
+    public byte[] getRequestPayloadBytes() {
+
+        if (requestPayloadBytes == null && getRequestPayload() != null) {
+            requestPayloadBytes = requestPayload.getBytes(StandardCharsets.UTF_8);
+        }
+        return requestPayloadBytes;
+    }
 
+    /**
+     * Get the raw request payload as received, without unwrapping text payloads. The payload is consumed from the
+     * payload handler once.
+     *
+     * @return raw request payload
+     * @throws Exception if the payload could not be read
+     */
+    public String getRawRequestPayload() throws Exception {
+
+        if (rawRequestPayload == null) {
+            rawRequestPayload = requestContextDTO.getMsgInfo().getPayloadHandler().consumeAsString();
+        }
+        return rawRequestPayload;
+    }
+
+    /**
+     * Get the JSON tree of the modified payload, or of the request payload if it is not modified. The payload is
+     * parsed once and the tree is shared by all executors, hence must not be modified.
+     *
+     * @return JSON payload or null if there is no payload
+     * @throws JSONException if the payload is not a JSON object
+     */
+    public JSONObject getPayloadJSON() {
+
+        if (payloadJSON == null) {
+            String payload = StringUtils.isNotBlank(modifiedPayload) ? modifiedPayload : getRequestPayload();
+            /* consumeAsString method of the payload handler sets the request payload as a null string, hence adding
+            string null check */
+            if (payload == null || payload.isEmpty() || "null".equals(payload)) {
+                return null;
+            }
+            payloadJSON = new JSONObject(payload);
+        }
+        return payloadJSON;
+    }
+
+    private String readRequestPayload() {
+
+        String contentType = requestContextDTO.getMsgInfo().getHeaders().get(GatewayConstants.CONTENT_TYPE_TAG);
+        if (contentType == null) {
+            return null;
+        }
+        String httpMethod = requestContextDTO.getMsgInfo().getHttpMethod();
+        String errorMessage = "Request Content-Type header does not match any allowed types";
+        if (contentType.startsWith(GatewayConstants.JWT_CONTENT_TYPE) || contentType.startsWith(GatewayConstants
+                .JOSE_CONTENT_TYPE)) {
+            try {
+                return GatewayUtils.getTextPayload(getRawRequestPayload());
+            } catch (Exception e) {
+                log.error(String.format("Failed to read the text payload from request. %s", e.getMessage()));
+                handleContentTypeErrors(OpenBankingErrorCodes.INVALID_CONTENT_TYPE, errorMessage);
+            }
+        } else if (GatewayUtils.isEligibleRequest(contentType, httpMethod)) {
+            try {
+                return getRawRequestPayload();
+            } catch (Exception e) {
+                log.error(String.format("Failed to read the payload from request. %s", e.getMessage()));
+                handleContentTypeErrors(OpenBankingErrorCodes.INVALID_CONTENT_TYPE, errorMessage);
+            }
+        }
+        return null;
+    }
+
+    private JSONObject decodeTokenClaims() {
+
+        String authHeader = requestContextDTO.getMsgInfo().getHeaders().get(GatewayConstants.AUTH_HEADER);
+        if (authHeader == null || authHeader.isEmpty() || authHeader.contains(GatewayConstants.BASIC_TAG)) {
+            return null;
+        }
+        String[] jwtParts = authHeader.replace(GatewayConstants.BEARER_TAG, "").split("\\.");
+        if (jwtParts.length != 3) {
+            return null;
+        }
+        try {
+            // The header is decoded only to check that the token is a JWT
+            GatewayUtils.decodeBase64(jwtParts[0]);
+            return GatewayUtils.decodeBase64(jwtParts[1]);
+        } catch (UnsupportedEncodingException | JSONException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String extractConsentID(JSONObject jwtClaims) {
+
+        if (jwtClaims == null) {
+            return null;
+        }
         String consentIdClaim = null;
         try {
-            if (!jwtToken.contains(GatewayConstants.BASIC_TAG)) {
-                jwtToken = jwtToken.replace(GatewayConstants.BEARER_TAG, "");
-                JSONObject jwtClaims = GatewayUtils.decodeBase64(GatewayUtils.getPayloadFromJWT(jwtToken));
-                String consentIdClaimName =
-                        GatewayDataHolder.getInstance().getOpenBankingConfigurationService().getConfigurations()
-                                .get(GatewayConstants.CONSENT_ID_CLAIM_NAME).toString();
-                if (!jwtClaims.isNull(consentIdClaimName) &&
-                        !jwtClaims.getString(consentIdClaimName).isEmpty()) {
-                    consentIdClaim = jwtClaims.getString(consentIdClaimName);
-                }
+            String consentIdClaimName =
+                    GatewayDataHolder.getInstance().getOpenBankingConfigurationService().getConfigurations()
+                            .get(GatewayConstants.CONSENT_ID_CLAIM_NAME).toString();
+            if (!jwtClaims.isNull(consentIdClaimName) &&
+                    !jwtClaims.getString(consentIdClaimName).isEmpty()) {
+                consentIdClaim = jwtClaims.getString(consentIdClaimName);
             }
-        } catch (UnsupportedEncodingException | JSONException | IllegalArgumentException e) {
+        } catch (JSONException e) {
             log.error(String.format("Failed to retrieve the consent ID from JWT claims. %s", e.getMessage()));
         }
         return consentIdClaim;
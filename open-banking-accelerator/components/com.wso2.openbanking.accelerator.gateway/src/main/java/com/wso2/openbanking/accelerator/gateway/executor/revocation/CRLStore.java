@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
+import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.x509.Extension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store of downloaded CRLs, kept per distribution point URL until the next update date of the CRL.
+ * Lookups are served from memory. Each CRL is refreshed in the background before its next update date, so that
+ * revocation checks do not wait on the CRL download. The CRL signature is verified once, when the CRL is loaded.
+ * Optionally, CRLs are persisted to a local directory so that they are not downloaded again after a restart.
+ */
+public class CRLStore {
+
+    private static final Log log = LogFactory.getLog(CRLStore.class);
+    private static final long MIN_REFRESH_RETRY_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String CRL_FILE_EXTENSION = ".crl";
+    private static volatile CRLStore instance;
+
+    private final Map<String, CRLEntry> crlEntries = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refreshExecutor;
+    private final long refreshBeforeExpiryMillis;
+    private final String persistenceDirectory;
+
+    CRLStore(int refreshBeforeExpirySeconds, String persistenceDirectory) {
+
+        this.refreshBeforeExpiryMillis = TimeUnit.SECONDS.toMillis(refreshBeforeExpirySeconds);
+        this.persistenceDirectory = persistenceDirectory;
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OB-CRL-Store-Refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return CRLStore object
+     */
+    public static CRLStore getInstance() {
+
+        if (instance == null) {
+            synchronized (CRLStore.class) {
+                if (instance == null) {
+                    TPPCertValidatorDataHolder dataHolder = TPPCertValidatorDataHolder.getInstance();
+                    instance = new CRLStore(dataHolder.getCRLStoreRefreshBeforeExpiry(),
+                            dataHolder.getCRLStorePersistenceDirectory());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the CRL of the given distribution point.
+     * The CRL is loaded (from the persisted file, or else using the loader) only if the store does not hold a CRL
+     * which is valid for the given issuer. Concurrent lookups of the same distribution point share a single load.
+     *
+     * @param crlUrl      CRL distribution point URL
+     * @param issuerCert  issuer certificate the CRL should be signed by
+     * @param loader      loader used to download the CRL
+     * @return CRL or null if the CRL cannot be loaded
+     * @throws CertificateValidationException when the loader fails
+     */
+    public X509CRL getCRL(String crlUrl, X509Certificate issuerCert, CRLLoader loader)
+            throws CertificateValidationException {
+
+        CRLEntry entry = crlEntries.get(crlUrl);
+        if (isUsable(entry, issuerCert)) {
+            return entry.crl;
+        }
+
+        synchronized (loadLocks.computeIfAbsent(crlUrl, url -> new Object())) {
+            entry = crlEntries.get(crlUrl);
+            if (isUsable(entry, issuerCert)) {
+                return entry.crl;
+            }
+
+            X509CRL crl = readFromFile(crlUrl, issuerCert);
+            if (crl == null) {
+                crl = loader.load(crlUrl);
+                if (crl != null) {
+                    writeToFile(crlUrl, crl);
+                }
+            }
+            if (crl != null && crl.getNextUpdate() != null) {
+                storeAndScheduleRefresh(crlUrl, new CRLEntry(crl, issuerCert.getPublicKey(), loader));
+            }
+            return crl;
+        }
+    }
+
+    /**
+     * Remove all CRLs held in memory.
+     */
+    public void clear() {
+
+        crlEntries.clear();
+    }
+
+    private boolean isUsable(CRLEntry entry, X509Certificate issuerCert) {
+
+        return entry != null && entry.issuerKey.equals(issuerCert.getPublicKey())
+                && !entry.isExpired(CertificateValidationUtils.getNewDate().getTime());
+    }
+
+    private void storeAndScheduleRefresh(String crlUrl, CRLEntry entry) {
+
+        crlEntries.put(crlUrl, entry);
+        long now = CertificateValidationUtils.getNewDate().getTime();
+        long delay = Math.max(0, entry.nextUpdate - refreshBeforeExpiryMillis - now);
+        scheduleRefresh(crlUrl, entry, delay);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("CRL of %s stored until %s", crlUrl.replaceAll("[\r\n]", ""),
+                    new Date(entry.nextUpdate)));
+        }
+    }
+
+    private void scheduleRefresh(String crlUrl, CRLEntry entry, long delayMillis) {
+
+        refreshExecutor.schedule(() -> refresh(crlUrl, entry), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh(String crlUrl, CRLEntry entry) {
+
+        // Skip if the entry has been replaced or removed since the refresh was scheduled.
+        if (crlEntries.get(crlUrl) != entry) {
+            return;
+        }
+        try {
+            X509CRL crl = entry.loader.load(crlUrl);
+            if (crl != null && crl.getNextUpdate() != null && isRefreshedCRL(entry.crl, crl)) {
+                writeToFile(crlUrl, crl);
+                storeAndScheduleRefresh(crlUrl, new CRLEntry(crl, entry.issuerKey, entry.loader));
+                return;
+            }
+        } catch (CertificateValidationException | RuntimeException e) {
+            log.warn("Unable to refresh the CRL of " + crlUrl.replaceAll("[\r\n]", "") + ". " + e.getMessage());
+        }
+
+        long now = CertificateValidationUtils.getNewDate().getTime();
+        if (entry.isExpired(now)) {
+            crlEntries.remove(crlUrl, entry);
+        } else {
+            scheduleRefresh(crlUrl, entry, getRefreshRetryDelay(entry.nextUpdate - now));
+        }
+    }
+
+    /**
+     * Get the time to wait before retrying a refresh which did not load a newer response. Half of the time remaining
+     * until the stored response expires is waited, so that the retries back off while the issuer has not published
+     * a newer one, and become more frequent as the expiry approaches.
+     *
+     * @param remainingMillis time remaining until the stored response expires
+     * @return delay in milliseconds, never later than the expiry
+     */
+    static long getRefreshRetryDelay(long remainingMillis) {
+
+        return Math.min(Math.max(MIN_REFRESH_RETRY_INTERVAL_MILLIS, remainingMillis / 2), remainingMillis);
+    }
+
+    /**
+     * Check whether a CRL loaded again should replace the stored CRL. The CRL numbers are compared when both CRLs have
+     * one, and the issue dates otherwise. The next update date is not compared, since an issuer may shorten the
+     * validity of its CRLs.
+     *
+     * @param storedCRL stored CRL
+     * @param loadedCRL CRL loaded again
+     * @return true if the loaded CRL is newer than the stored CRL
+     */
+    static boolean isRefreshedCRL(X509CRL storedCRL, X509CRL loadedCRL) {
+
+        BigInteger storedCRLNumber = getCRLNumber(storedCRL);
+        BigInteger loadedCRLNumber = getCRLNumber(loadedCRL);
+        if (storedCRLNumber != null && loadedCRLNumber != null) {
+            return loadedCRLNumber.compareTo(storedCRLNumber) > 0;
+        }
+        return loadedCRL.getThisUpdate() != null && (storedCRL.getThisUpdate() == null ||
+                loadedCRL.getThisUpdate().after(storedCRL.getThisUpdate()));
+    }
+
+    private static BigInteger getCRLNumber(X509CRL crl) {
+
+        byte[] extensionValue = crl.getExtensionValue(Extension.cRLNumber.getId());
+        if (extensionValue == null) {
+            return null;
+        }
+        try {
+            return ASN1Integer.getInstance(ASN1OctetString.getInstance(extensionValue).getOctets()).getValue();
+        } catch (IllegalArgumentException e) {
+            log.debug("Unable to read the CRL number of the CRL", e);
+            return null;
+        }
+    }
+
+    @SuppressFBWarnings("PATH_TRAVERSAL_IN")
+    // Suppressed content - Paths.get(persistenceDirectory, ...)
+    // Suppression reason - False Positive : The directory is obtained from open-banking.xml and the file name is a
+    //                      hash of the CRL URL
+    // Suppressed warning count - 1
+    private Path getFilePath(String crlUrl) {
+
+        return Paths.get(persistenceDirectory,
+                DigestUtils.sha256Hex(crlUrl.getBytes(StandardCharsets.UTF_8)) + CRL_FILE_EXTENSION);
+    }
+
+    private X509CRL readFromFile(String crlUrl, X509Certificate issuerCert) {
+
+        if (StringUtils.isBlank(persistenceDirectory)) {
+            return null;
+        }
+        Path filePath = getFilePath(crlUrl);
+        if (!Files.exists(filePath)) {
+            return null;
+        }
+        try {
+            CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+            X509CRL crl = (X509CRL) certificateFactory.generateCRL(
+                    new ByteArrayInputStream(Files.readAllBytes(filePath)));
+            if (crl.getNextUpdate() == null || !crl.getNextUpdate().after(CertificateValidationUtils.getNewDate())
+                    || !crl.getIssuerX500Principal().equals(issuerCert.getSubjectX500Principal())) {
+                return null;
+            }
+            crl.verify(issuerCert.getPublicKey());
+            if (log.isDebugEnabled()) {
+                log.debug("CRL of " + crlUrl.replaceAll("[\r\n]", "") + " loaded from " + filePath);
+            }
+            return crl;
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("Unable to read the persisted CRL of " + crlUrl.replaceAll("[\r\n]", "") + ". "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToFile(String crlUrl, X509CRL crl) {
+
+        if (StringUtils.isBlank(persistenceDirectory)) {
+            return;
+        }
+        Path filePath = getFilePath(crlUrl);
+        try {
+            Files.createDirectories(filePath.getParent());
+            Path tempFile = Files.createTempFile(filePath.getParent(), null, CRL_FILE_EXTENSION);
+            Files.write(tempFile, crl.getEncoded());
+            Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("Unable to persist the CRL of " + crlUrl.replaceAll("[\r\n]", "") + ". " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads a CRL from its distribution point.
+     * The loaded CRL should already be validated against the issuer.
+     */
+    public interface CRLLoader {
+
+        X509CRL load(String crlUrl) throws CertificateValidationException;
+    }
+
+    /**
+     * CRL held in the store along with the issuer key it was verified with.
+     */
+    private static class CRLEntry {
+
+        private final X509CRL crl;
+        private final PublicKey issuerKey;
+        private final CRLLoader loader;
+        private final long nextUpdate;
+
+        CRLEntry(X509CRL crl, PublicKey issuerKey, CRLLoader loader) {
+
+            this.crl = crl;
+            this.issuerKey = issuerKey;
+            this.loader = loader;
+            this.nextUpdate = crl.getNextUpdate().getTime();
+        }
+
+        boolean isExpired(long currentTime) {
+
+            return currentTime >= nextUpdate;
+        }
+    }
+}
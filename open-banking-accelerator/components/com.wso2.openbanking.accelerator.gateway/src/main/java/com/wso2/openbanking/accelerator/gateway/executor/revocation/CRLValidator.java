@@ -27,8 +27,8 @@ import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHol
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHost;
-import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.bouncycastle.asn1.ASN1InputStream;
@@ -136,8 +136,17 @@ public class CRLValidator implements RevocationValidator {
             if (log.isDebugEnabled()) {
                 log.debug("Trying to get CRL for URL: " + crlUrl);
             }
-            X509CRL x509CRL = downloadCRLFromWeb(crlUrl, retryCount, peerCert, issuerCert,
-                    certificateRevocationProxyEnabled, certificateRevocationProxyHost, certificateRevocationProxyPort);
+            X509CRL x509CRL;
+            if (TPPCertValidatorDataHolder.getInstance().isCRLStoreEnabled()) {
+                // The loader is kept by the store to refresh the CRL, hence it depends only on the URL and the issuer.
+                x509CRL = CRLStore.getInstance().getCRL(crlUrl, issuerCert, url -> downloadCRLFromWeb(url,
+                        retryCount, issuerCert, certificateRevocationProxyEnabled, certificateRevocationProxyHost,
+                        certificateRevocationProxyPort));
+            } else {
+                x509CRL = downloadCRLFromWeb(crlUrl, retryCount, issuerCert,
+                        certificateRevocationProxyEnabled, certificateRevocationProxyHost,
+                        certificateRevocationProxyPort);
+            }
             if (x509CRL != null) {
                 return getRevocationStatusFromCRL(x509CRL, peerCert);
             }
@@ -151,27 +160,26 @@ public class CRLValidator implements RevocationValidator {
      * ****************************************
      */
 
-    private static boolean isValidX509Crl(X509CRL x509CRL, X509Certificate peerCert, X509Certificate issuerCert)
+    private static boolean isValidX509Crl(X509CRL x509CRL, X509Certificate issuerCert)
             throws CertificateValidationException {
 
         Date currentDate = CertificateValidationUtils.getNewDate();
         Date nextUpdate = x509CRL.getNextUpdate();
         boolean isValid = false;
 
-        if (isValidX509CRLFromIssuer(x509CRL, peerCert, issuerCert)) {
+        if (isValidX509CRLFromIssuer(x509CRL, issuerCert)) {
             isValid = isValidX509CRLFromNextUpdate(x509CRL, currentDate, nextUpdate);
         }
         return isValid;
     }
 
-    private static boolean isValidX509CRLFromIssuer(X509CRL x509CRL, X509Certificate peerCert,
-                                                    X509Certificate issuerCert)
+    private static boolean isValidX509CRLFromIssuer(X509CRL x509CRL, X509Certificate issuerCert)
             throws CertificateValidationException {
 
-        if (!peerCert.getIssuerDN().equals(x509CRL.getIssuerDN())) {
-            throw new CertificateValidationException("X509 CRL is not valid. Issuer DN in the peer " +
-                    "certificate: " + peerCert.getIssuerDN() + " does not match with the Issuer DN in the X509 CRL: " +
-                    x509CRL.getIssuerDN());
+        if (!issuerCert.getSubjectDN().equals(x509CRL.getIssuerDN())) {
+            throw new CertificateValidationException("X509 CRL is not valid. Subject DN in the issuer " +
+                    "certificate: " + issuerCert.getSubjectDN() + " does not match with the Issuer DN in the X509 " +
+                    "CRL: " + x509CRL.getIssuerDN());
         }
 
         // Verify the signature of the CRL.
@@ -204,8 +212,8 @@ public class CRLValidator implements RevocationValidator {
         return false;
     }
 
-    private static X509CRL downloadCRLFromWeb(String crlURL, int retryCount, X509Certificate peerCert,
-                                              X509Certificate issuerCert, boolean certificateRevocationProxyEnabled,
+    private static X509CRL downloadCRLFromWeb(String crlURL, int retryCount, X509Certificate issuerCert,
+                                              boolean certificateRevocationProxyEnabled,
                                               String certificateRevocationProxyHost, int certificateRevocationProxyPort)
             throws CertificateValidationException {
 
@@ -213,7 +221,8 @@ public class CRLValidator implements RevocationValidator {
         if (log.isDebugEnabled()) {
             log.debug("Certificate revocation check proxy enabled: " + certificateRevocationProxyEnabled);
         }
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
+        try {
+            CloseableHttpClient client = HTTPClientUtils.getHttpsClient(HTTPClientUtils.REVOCATION_CLIENT);
 
             HttpGet httpGet = new HttpGet(crlURL);
             if (certificateRevocationProxyEnabled) {
@@ -252,22 +261,23 @@ public class CRLValidator implements RevocationValidator {
                         httpSocketTimeout);
             }
 
-            HttpResponse httpResponse = client.execute(httpGet);
-            //Check errors in response:
-            if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
-                throw new CertificateValidationException("Error getting crl response." +
-                        "Response code is " + httpResponse.getStatusLine().getStatusCode());
-            }
-            InputStream in = httpResponse.getEntity().getContent();
+            try (CloseableHttpResponse httpResponse = client.execute(httpGet)) {
+                //Check errors in response:
+                if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
+                    throw new CertificateValidationException("Error getting crl response." +
+                            "Response code is " + httpResponse.getStatusLine().getStatusCode());
+                }
+                InputStream in = httpResponse.getEntity().getContent();
 
-            CertificateFactory cf = CertificateFactory.getInstance("X.509");
-            X509CRL x509CRLDownloaded = (X509CRL) cf.generateCRL(in);
-            if (log.isDebugEnabled()) {
-                log.debug("CRL is downloaded from CRL Url: " + crlURL);
-            }
+                CertificateFactory cf = CertificateFactory.getInstance("X.509");
+                X509CRL x509CRLDownloaded = (X509CRL) cf.generateCRL(in);
+                if (log.isDebugEnabled()) {
+                    log.debug("CRL is downloaded from CRL Url: " + crlURL);
+                }
 
-            if (isValidX509Crl(x509CRLDownloaded, peerCert, issuerCert)) {
-                x509CRL = x509CRLDownloaded;
+                if (isValidX509Crl(x509CRLDownloaded, issuerCert)) {
+                    x509CRL = x509CRLDownloaded;
+                }
             }
         } catch (MalformedURLException e) {
             throw new CertificateValidationException("CRL Url is malformed", e);
@@ -278,7 +288,7 @@ public class CRLValidator implements RevocationValidator {
                 if (log.isDebugEnabled()) {
                     log.debug("Cant reach CRL Url: " + crlURL + ". Retrying to connect - attempt " + retryCount);
                 }
-                return downloadCRLFromWeb(crlURL, --retryCount, peerCert, issuerCert,
+                return downloadCRLFromWeb(crlURL, --retryCount, issuerCert,
                         certificateRevocationProxyEnabled, certificateRevocationProxyHost,
                         certificateRevocationProxyPort);
             }
@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
+import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.SingleResp;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store of OCSP responses, kept per certificate (issuer key hash and serial number) until the next update date given
+ * by the responder, or for at most the configured maximum store time. Lookups are served from memory. A response
+ * which has been used since it was stored is refreshed in the background before it expires, so that revocation checks
+ * do not wait on the responder. Responses which are not used are dropped once they expire. Responses without a next
+ * update date are not stored, since the responder has newer revocation information available at any time.
+ */
+public class OCSPResponseStore {
+
+    private static final Log log = LogFactory.getLog(OCSPResponseStore.class);
+    private static volatile OCSPResponseStore instance;
+
+    private final Map<String, OCSPResponseEntry> responseEntries = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refreshExecutor;
+    private final long refreshBeforeExpiryMillis;
+    private final long maxStoreTimeMillis;
+
+    OCSPResponseStore(int refreshBeforeExpirySeconds, int maxStoreTimeSeconds) {
+
+        this.refreshBeforeExpiryMillis = TimeUnit.SECONDS.toMillis(refreshBeforeExpirySeconds);
+        this.maxStoreTimeMillis = TimeUnit.SECONDS.toMillis(maxStoreTimeSeconds);
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OB-OCSP-Response-Store-Refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return OCSPResponseStore object
+     */
+    public static OCSPResponseStore getInstance() {
+
+        if (instance == null) {
+            synchronized (OCSPResponseStore.class) {
+                if (instance == null) {
+                    TPPCertValidatorDataHolder dataHolder = TPPCertValidatorDataHolder.getInstance();
+                    instance = new OCSPResponseStore(dataHolder.getOCSPResponseStoreRefreshBeforeExpiry(),
+                            dataHolder.getOCSPResponseStoreMaxStoreTime());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the OCSP response of the given certificate.
+     * The response is loaded only if the store does not hold a response which is within its validity window.
+     * Concurrent lookups of the same certificate share a single load.
+     *
+     * @param certificateID ID of the certificate
+     * @param loader        loader used to query the OCSP responders
+     * @return OCSP response of the certificate
+     * @throws CertificateValidationException when the loader fails
+     */
+    public SingleResp getResponse(CertificateID certificateID, OCSPResponseLoader loader)
+            throws CertificateValidationException {
+
+        String key = getKey(certificateID);
+        OCSPResponseEntry entry = responseEntries.get(key);
+        if (isUsable(entry)) {
+            entry.used = true;
+            return entry.response;
+        }
+
+        Object loadLock = loadLocks.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (loadLock) {
+                entry = responseEntries.get(key);
+                if (isUsable(entry)) {
+                    entry.used = true;
+                    return entry.response;
+                }
+
+                SingleResp response = loader.load();
+                if (response.getNextUpdate() != null) {
+                    storeAndScheduleRefresh(key, createEntry(response, loader));
+                }
+                return response;
+            }
+        } finally {
+            loadLocks.remove(key, loadLock);
+        }
+    }
+
+    /**
+     * Remove all OCSP responses held in memory.
+     */
+    public void clear() {
+
+        responseEntries.clear();
+    }
+
+    /**
+     * Get the number of OCSP responses held in memory.
+     *
+     * @return number of stored responses
+     */
+    public int size() {
+
+        return responseEntries.size();
+    }
+
+    private static String getKey(CertificateID certificateID) {
+
+        return Hex.encodeHexString(certificateID.getIssuerKeyHash()) + ":" + certificateID.getSerialNumber();
+    }
+
+    private boolean isUsable(OCSPResponseEntry entry) {
+
+        return entry != null && !entry.isExpired(CertificateValidationUtils.getNewDate().getTime());
+    }
+
+    private OCSPResponseEntry createEntry(SingleResp response, OCSPResponseLoader loader) {
+
+        long maxExpiryTime = CertificateValidationUtils.getNewDate().getTime() + maxStoreTimeMillis;
+        long nextUpdate = response.getNextUpdate().getTime();
+        return new OCSPResponseEntry(response, loader, Math.min(nextUpdate, maxExpiryTime),
+                maxExpiryTime < nextUpdate);
+    }
+
+    private void storeAndScheduleRefresh(String key, OCSPResponseEntry entry) {
+
+        responseEntries.put(key, entry);
+        long now = CertificateValidationUtils.getNewDate().getTime();
+        long delay = Math.max(0, entry.expiryTime - refreshBeforeExpiryMillis - now);
+        scheduleRefresh(key, entry, delay);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("OCSP response of certificate with serial num: %s stored until %s",
+                    entry.response.getCertID().getSerialNumber(), new Date(entry.expiryTime)));
+        }
+    }
+
+    private void scheduleRefresh(String key, OCSPResponseEntry entry, long delayMillis) {
+
+        refreshExecutor.schedule(() -> refresh(key, entry), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh(String key, OCSPResponseEntry entry) {
+
+        // Skip if the entry has been replaced or removed since the refresh was scheduled.
+        if (responseEntries.get(key) != entry) {
+            return;
+        }
+        long now = CertificateValidationUtils.getNewDate().getTime();
+        if (!entry.used) {
+            // Not used since it was stored, hence the response is dropped once it expires instead of refreshing it.
+            refreshExecutor.schedule(() -> responseEntries.remove(key, entry), Math.max(0, entry.expiryTime - now),
+                    TimeUnit.MILLISECONDS);
+            return;
+        }
+        try {
+            SingleResp response = entry.loader.load();
+            if (isStatusChanged(entry.response, response) && response.getNextUpdate() == null) {
+                // The changed status cannot be stored, hence it is loaded from the responder on the next lookup
+                responseEntries.remove(key, entry);
+                return;
+            }
+            // A response stored for the maximum store time is kept for another period if the responder still
+            // returns the same response, since it has been verified again.
+            if (response.getNextUpdate() != null && (isRefreshedResponse(entry.response, response) ||
+                    (entry.capped && isSameResponse(entry.response, response)))) {
+                storeAndScheduleRefresh(key, createEntry(response, entry.loader));
+                return;
+            }
+        } catch (CertificateValidationException | RuntimeException e) {
+            log.warn("Unable to refresh the OCSP response of certificate with serial num: " +
+                    entry.response.getCertID().getSerialNumber() + ". " + e.getMessage());
+        }
+
+        now = CertificateValidationUtils.getNewDate().getTime();
+        if (entry.isExpired(now)) {
+            responseEntries.remove(key, entry);
+        } else {
+            scheduleRefresh(key, entry, CRLStore.getRefreshRetryDelay(entry.expiryTime - now));
+        }
+    }
+
+    /**
+     * Check whether a response loaded again should replace the stored response. The response replaces the stored one
+     * if the certificate status has changed, or if it was produced after the stored one. The next update date is not
+     * compared, since a responder may shorten the validity of its responses.
+     *
+     * @param storedResponse stored response
+     * @param loadedResponse response loaded again
+     * @return true if the loaded response should be stored
+     */
+    static boolean isRefreshedResponse(SingleResp storedResponse, SingleResp loadedResponse) {
+
+        if (isStatusChanged(storedResponse, loadedResponse)) {
+            return true;
+        }
+        Date storedThisUpdate = storedResponse.getThisUpdate();
+        Date loadedThisUpdate = loadedResponse.getThisUpdate();
+        return storedThisUpdate == null || (loadedThisUpdate != null && loadedThisUpdate.after(storedThisUpdate));
+    }
+
+    private static boolean isSameResponse(SingleResp storedResponse, SingleResp loadedResponse) {
+
+        return !isStatusChanged(storedResponse, loadedResponse) &&
+                Objects.equals(storedResponse.getThisUpdate(), loadedResponse.getThisUpdate());
+    }
+
+    private static boolean isStatusChanged(SingleResp storedResponse, SingleResp loadedResponse) {
+
+        // The status is null for a good certificate, and a revoked or unknown status object otherwise
+        Object storedStatus = storedResponse.getCertStatus();
+        Object loadedStatus = loadedResponse.getCertStatus();
+        return storedStatus == null ? loadedStatus != null :
+                loadedStatus == null || storedStatus.getClass() != loadedStatus.getClass();
+    }
+
+    /**
+     * Loads the OCSP response of a certificate from its responders.
+     * The loaded response should already be verified against the issuer, the certificate ID and the current time.
+     */
+    public interface OCSPResponseLoader {
+
+        SingleResp load() throws CertificateValidationException;
+    }
+
+    /**
+     * OCSP response held in the store along with the loader used to refresh it.
+     * The entry expires at the next update date of the response, or earlier if capped by the maximum store time.
+     */
+    private static class OCSPResponseEntry {
+
+        private final SingleResp response;
+        private final OCSPResponseLoader loader;
+        private final long expiryTime;
+        private final boolean capped;
+        private volatile boolean used;
+
+        OCSPResponseEntry(SingleResp response, OCSPResponseLoader loader, long expiryTime, boolean capped) {
+
+            this.response = response;
+            this.loader = loader;
+            this.expiryTime = expiryTime;
+            this.capped = capped;
+        }
+
+        boolean isExpired(long currentTime) {
+
+            return currentTime >= expiryTime;
+        }
+    }
+}
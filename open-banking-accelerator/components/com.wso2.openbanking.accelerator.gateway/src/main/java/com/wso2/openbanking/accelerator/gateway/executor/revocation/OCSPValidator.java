@@ -27,8 +27,8 @@ import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHol
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHost;
-import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
@@ -40,10 +40,14 @@ import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
 import org.bouncycastle.asn1.ocsp.OCSPResponseStatus;
 import org.bouncycastle.asn1.x509.AccessDescription;
 import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.Extensions;
 import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.CertException;
 import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
 import org.bouncycastle.cert.ocsp.BasicOCSPResp;
 import org.bouncycastle.cert.ocsp.CertificateID;
 import org.bouncycastle.cert.ocsp.CertificateStatus;
@@ -53,19 +57,29 @@ import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
 import org.bouncycastle.cert.ocsp.OCSPResp;
 import org.bouncycastle.cert.ocsp.SingleResp;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.ContentVerifierProvider;
 import org.bouncycastle.operator.DigestCalculatorProvider;
 import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
 import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.security.SecureRandom;
 import java.security.Security;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This is used to verify a certificate is revoked or not by using the Online Certificate Status Protocol published
@@ -76,11 +90,29 @@ public class OCSPValidator implements RevocationValidator {
     private static final Log log = LogFactory.getLog(OCSPValidator.class);
 
     private static final String BC = "BC";
+    private static final long MAX_CLOCK_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_RESPONDER_THREADS = 16;
+    private static final int NONCE_LENGTH = 16;
+    private static final SecureRandom secureRandom = new SecureRandom();
+    // Responders are queried in the calling thread when all the responder threads are busy
+    private static final ExecutorService responderExecutor = new ThreadPoolExecutor(0, MAX_RESPONDER_THREADS,
+            60L, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "OB-OCSP-Responder");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
     private final int retryCount;
     private static int httpConnectTimeout;
     private static int httpConnectionRequestTimeout;
     private static int httpSocketTimeout;
 
+    static {
+        // Add provider BC
+        if (Security.getProvider(BC) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
     public OCSPValidator(int retryCount) {
 
         this.retryCount = retryCount;
@@ -133,19 +165,37 @@ public class OCSPValidator implements RevocationValidator {
     private static OCSPReq generateOCSPRequest(X509Certificate issuerCert, BigInteger serialNumber)
             throws CertificateValidationException {
 
-        // Add provider BC
-        Security.addProvider(new BouncyCastleProvider());
-        try {
+        return generateOCSPRequest(generateCertificateID(issuerCert, serialNumber));
+    }
+
+    /**
+     * This method generates the ID which identifies a certificate in OCSP requests and responses.
+     *
+     * @param issuerCert   is the Certificate of the Issuer of the peer certificate we are interested in
+     * @param serialNumber of the peer certificate
+     * @return certificate ID
+     * @throws CertificateValidationException certificateRevocationValidationException
+     */
+    private static CertificateID generateCertificateID(X509Certificate issuerCert, BigInteger serialNumber)
+            throws CertificateValidationException {
 
+        try {
             byte[] issuerCertEnc = issuerCert.getEncoded();
             X509CertificateHolder certificateHolder = new X509CertificateHolder(issuerCertEnc);
             DigestCalculatorProvider digCalcProv = new JcaDigestCalculatorProviderBuilder().setProvider(BC).build();
 
             // CertID structure is used to uniquely identify certificates that are the subject of
             // an OCSP request or response and has an ASN.1 definition. CertID structure is defined in RFC 2560
-            CertificateID id = new CertificateID(digCalcProv.get(CertificateID.HASH_SHA1), certificateHolder,
-                    serialNumber);
+            return new CertificateID(digCalcProv.get(CertificateID.HASH_SHA1), certificateHolder, serialNumber);
+        } catch (CertificateEncodingException | IOException | OCSPException | OperatorCreationException e) {
+            throw new CertificateValidationException("Cannot generate OSCP Request with the given certificate with " +
+                    "serial num: " + serialNumber, e);
+        }
+    }
+
+    private static OCSPReq generateOCSPRequest(CertificateID id) throws CertificateValidationException {
 
+        try {
             // basic request generation with nonce
             OCSPReqBuilder builder = new OCSPReqBuilder();
             builder.addRequest(id);
@@ -153,16 +203,17 @@ public class OCSPValidator implements RevocationValidator {
             // create details for nonce extension. The nonce extension is used to bind a request to a response to
             // prevent replay attacks. As the name implies, the nonce value is something that the client should only
             // use once within a reasonably small period.
-            BigInteger nonce = BigInteger.valueOf(System.currentTimeMillis());
+            byte[] nonce = new byte[NONCE_LENGTH];
+            secureRandom.nextBytes(nonce);
 
             // create the request Extension
             builder.setRequestExtensions(new Extensions(new Extension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce, false,
-                    new DEROctetString(nonce.toByteArray()))));
+                    new DEROctetString(nonce))));
 
             return builder.build();
-        } catch (CertificateEncodingException | IOException | OCSPException | OperatorCreationException e) {
+        } catch (OCSPException e) {
             throw new CertificateValidationException("Cannot generate OSCP Request with the given certificate with " +
-                    "serial num: " + serialNumber, e);
+                    "serial num: " + id.getSerialNumber(), e);
         }
     }
 
@@ -186,35 +237,190 @@ public class OCSPValidator implements RevocationValidator {
                                                            int certificateRevocationProxyPort)
             throws CertificateValidationException {
 
-        OCSPReq request = generateOCSPRequest(issuerCert, peerCert.getSerialNumber());
-        for (String serviceUrl : locations) {
-            SingleResp[] responses;
+        CertificateID certificateID = generateCertificateID(issuerCert, peerCert.getSerialNumber());
+        OCSPResponseStore.OCSPResponseLoader loader = () -> queryResponders(certificateID, issuerCert, retryCount,
+                locations, certificateRevocationProxyEnabled, certificateRevocationProxyHost,
+                certificateRevocationProxyPort);
+
+        SingleResp response;
+        if (TPPCertValidatorDataHolder.getInstance().isOCSPResponseStoreEnabled()) {
+            response = OCSPResponseStore.getInstance().getResponse(certificateID, loader);
+        } else {
+            response = loader.load();
+        }
+        return getRevocationStatusFromOCSP(response);
+    }
+
+    /**
+     * Query the OCSP responders of the certificate. When there are multiple responders, they are queried
+     * concurrently and the first valid response is returned, so that a slow responder does not delay the check.
+     *
+     * @return OCSP response of the certificate
+     * @throws CertificateValidationException if none of the responders returned a valid response
+     */
+    private static SingleResp queryResponders(CertificateID certificateID, X509Certificate issuerCert, int retryCount,
+                                              List<String> locations, boolean certificateRevocationProxyEnabled,
+                                              String certificateRevocationProxyHost,
+                                              int certificateRevocationProxyPort)
+            throws CertificateValidationException {
+
+        OCSPReq request = generateOCSPRequest(certificateID);
+        SingleResp response = null;
+        if (locations.size() == 1) {
+            response = queryResponder(locations.get(0), request, certificateID, issuerCert, retryCount,
+                    certificateRevocationProxyEnabled, certificateRevocationProxyHost, certificateRevocationProxyPort);
+        } else if (!locations.isEmpty()) {
+            CompletableFuture<SingleResp> firstResponse = new CompletableFuture<>();
+            AtomicInteger pendingResponders = new AtomicInteger(locations.size());
+            for (String serviceUrl : locations) {
+                responderExecutor.execute(() -> {
+                    try {
+                        SingleResp singleResp = queryResponder(serviceUrl, request, certificateID, issuerCert,
+                                retryCount, certificateRevocationProxyEnabled, certificateRevocationProxyHost,
+                                certificateRevocationProxyPort);
+                        if (singleResp != null) {
+                            firstResponse.complete(singleResp);
+                        }
+                    } finally {
+                        if (pendingResponders.decrementAndGet() == 0) {
+                            firstResponse.complete(null);
+                        }
+                    }
+                });
+            }
             try {
-                if (log.isDebugEnabled()) {
-                    log.debug("Trying to get OCSP Response from : " + serviceUrl);
-                }
-                OCSPResp ocspResponse = getOCSPResponse(serviceUrl, request, retryCount,
-                        certificateRevocationProxyEnabled, certificateRevocationProxyHost,
-                        certificateRevocationProxyPort);
-                if (OCSPResponseStatus.SUCCESSFUL != ocspResponse.getStatus()) {
-                    log.debug("OCSP Response is not successfully received.");
-                    continue;
-                }
+                response = firstResponse.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CertificateValidationException("Interrupted while waiting for the OCSP responders", e);
+            } catch (ExecutionException e) {
+                throw new CertificateValidationException("Error while querying the OCSP responders", e.getCause());
+            }
+        }
+        if (response == null) {
+            throw new CertificateValidationException("Cant get Revocation Status from OCSP using any of the OCSP " +
+                    "Urls for certificate with serial num:" + certificateID.getSerialNumber());
+        }
+        return response;
+    }
+
+    /**
+     * Query an OCSP responder.
+     *
+     * @return OCSP response of the certificate, or null if the responder did not return a valid response
+     */
+    private static SingleResp queryResponder(String serviceUrl, OCSPReq request, CertificateID certificateID,
+                                             X509Certificate issuerCert, int retryCount,
+                                             boolean certificateRevocationProxyEnabled,
+                                             String certificateRevocationProxyHost,
+                                             int certificateRevocationProxyPort) {
+
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Trying to get OCSP Response from : " + serviceUrl);
+            }
+            OCSPResp ocspResponse = getOCSPResponse(serviceUrl, request, retryCount,
+                    certificateRevocationProxyEnabled, certificateRevocationProxyHost,
+                    certificateRevocationProxyPort);
+            if (OCSPResponseStatus.SUCCESSFUL != ocspResponse.getStatus()) {
+                log.debug("OCSP Response is not successfully received.");
+                return null;
+            }
 
-                BasicOCSPResp basicResponse = (BasicOCSPResp) ocspResponse.getResponseObject();
-                responses = (basicResponse == null) ? null : basicResponse.getResponses();
-            } catch (OCSPException | CertificateValidationException e) {
-                // On any error, consider the other AIA locations as well.
-                log.debug("Certificate revocation check failed due to an exception", e);
-                continue;
+            BasicOCSPResp basicResponse = (BasicOCSPResp) ocspResponse.getResponseObject();
+            if (basicResponse == null || !isAuthenticResponse(basicResponse, issuerCert, request)) {
+                return null;
+            }
+            SingleResp[] responses = basicResponse.getResponses();
+            if (responses != null && responses.length == 1 && isValidResponse(responses[0], certificateID)) {
+                return responses[0];
             }
+        } catch (OCSPException | CertificateValidationException | RuntimeException e) {
+            // On any error, consider the other AIA locations as well.
+            log.debug("Certificate revocation check failed due to an exception", e);
+        }
+        return null;
+    }
 
-            if (responses != null && responses.length == 1) {
-                return getRevocationStatusFromOCSP(responses[0]);
+    /**
+     * Check whether the response is signed by the issuer of the certificate, or by a responder the issuer has
+     * delegated to sign OCSP responses, and whether it echoes the nonce of the request. A response without a nonce
+     * is accepted, since responders may serve pre-produced responses (RFC 6960, section 4.4.1).
+     *
+     * @param basicResponse OCSP response
+     * @param issuerCert    issuer certificate of the peer
+     * @param request       OCSP request sent to the responder
+     * @return true if the response can be trusted
+     */
+    static boolean isAuthenticResponse(BasicOCSPResp basicResponse, X509Certificate issuerCert, OCSPReq request) {
+
+        Extension responseNonce = basicResponse.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce);
+        Extension requestNonce = request.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce);
+        if (responseNonce != null && (requestNonce == null ||
+                !responseNonce.getExtnValue().equals(requestNonce.getExtnValue()))) {
+            log.debug("OCSP Response nonce does not match the request nonce.");
+            return false;
+        }
+
+        try {
+            if (basicResponse.isSignatureValid(new JcaContentVerifierProviderBuilder().setProvider(BC)
+                    .build(issuerCert.getPublicKey()))) {
+                return true;
             }
+            X509CertificateHolder issuerCertHolder = new JcaX509CertificateHolder(issuerCert);
+            ContentVerifierProvider issuerVerifier = new JcaContentVerifierProviderBuilder().setProvider(BC)
+                    .build(issuerCertHolder);
+            for (X509CertificateHolder responderCert : basicResponse.getCerts()) {
+                if (isDelegatedResponder(responderCert, issuerCertHolder, issuerVerifier) &&
+                        basicResponse.isSignatureValid(new JcaContentVerifierProviderBuilder().setProvider(BC)
+                                .build(responderCert))) {
+                    return true;
+                }
+            }
+        } catch (CertificateEncodingException | CertException | OCSPException | OperatorCreationException e) {
+            log.debug("Unable to verify the OCSP Response signature", e);
+            return false;
+        }
+        log.debug("OCSP Response is not signed by the issuer or a delegated OCSP responder.");
+        return false;
+    }
+
+    /**
+     * Check whether the certificate is issued by the issuer for signing OCSP responses, and is currently valid.
+     */
+    private static boolean isDelegatedResponder(X509CertificateHolder responderCert,
+                                                X509CertificateHolder issuerCert,
+                                                ContentVerifierProvider issuerVerifier) throws CertException {
+
+        if (!responderCert.getIssuer().equals(issuerCert.getSubject()) ||
+                !responderCert.isValidOn(CertificateValidationUtils.getNewDate())) {
+            return false;
+        }
+        ExtendedKeyUsage extendedKeyUsage = ExtendedKeyUsage.fromExtensions(responderCert.getExtensions());
+        return extendedKeyUsage != null && extendedKeyUsage.hasKeyPurposeId(KeyPurposeId.id_kp_OCSPSigning) &&
+                responderCert.isSignatureValid(issuerVerifier);
+    }
+
+    /**
+     * Check whether the response is for the requested certificate and the current time is within the validity
+     * window given by the responder, allowing for clock skew between the gateway and the responder.
+     */
+    private static boolean isValidResponse(SingleResp response, CertificateID certificateID) {
+
+        if (!certificateID.equals(response.getCertID())) {
+            log.debug("OCSP Response is not for the requested certificate.");
+            return false;
+        }
+        long now = CertificateValidationUtils.getNewDate().getTime();
+        if (response.getThisUpdate() != null && response.getThisUpdate().getTime() > now + MAX_CLOCK_SKEW_MILLIS) {
+            log.debug("OCSP Response this update date is in the future.");
+            return false;
+        }
+        if (response.getNextUpdate() != null && response.getNextUpdate().getTime() <= now) {
+            log.debug("OCSP Response next update date has passed.");
+            return false;
         }
-        throw new CertificateValidationException("Cant get Revocation Status from OCSP using any of the OCSP Urls " +
-                "for certificate with serial num:" + peerCert.getSerialNumber());
+        return true;
     }
 
     private static List<String> getOcspUrlsFromAuthorityInfoAccess(AuthorityInformationAccess
@@ -276,78 +482,81 @@ public class OCSPValidator implements RevocationValidator {
                                             int certificateRevocationProxyPort)
             throws CertificateValidationException {
 
-        OCSPResp ocspResp = null;
         if (log.isDebugEnabled()) {
             log.debug("Certificate revocation check proxy enabled: " + certificateRevocationProxyEnabled);
         }
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
-            HttpPost httpPost = new HttpPost(serviceUrl);
-
-            if (certificateRevocationProxyEnabled) {
-                log.debug("Setting certificate revocation proxy started.");
-                if (certificateRevocationProxyHost == null || certificateRevocationProxyHost.trim().isEmpty()) {
-                    String message = "Certificate revocation proxy server host is not configured. Please do set the " +
-                            "'CertificateManagement -> CertificateRevocationProxy -> ProxyHost' file";
-                    log.error(message);
-                    throw new CertificateValidationException(message);
-                }
-
-                if (log.isDebugEnabled()) {
-                    log.debug("Certificate revocation proxy: " + certificateRevocationProxyHost + ":" +
-                            certificateRevocationProxyPort);
-                }
-                HttpHost proxy = new HttpHost(certificateRevocationProxyHost, certificateRevocationProxyPort);
-                RequestConfig config = RequestConfig.custom().setProxy(proxy).build();
-                httpPost.setConfig(config);
-                log.debug("Setting certificate revocation proxy finished.");
+        CloseableHttpClient client;
+        try {
+            client = HTTPClientUtils.getHttpsClient(HTTPClientUtils.REVOCATION_CLIENT);
+        } catch (OpenBankingException e) {
+            throw new CertificateValidationException("Error when creating http client.", e);
+        }
+        HttpPost httpPost = new HttpPost(serviceUrl);
+
+        if (certificateRevocationProxyEnabled) {
+            log.debug("Setting certificate revocation proxy started.");
+            if (certificateRevocationProxyHost == null || certificateRevocationProxyHost.trim().isEmpty()) {
+                String message = "Certificate revocation proxy server host is not configured. Please do set the " +
+                        "'CertificateManagement -> CertificateRevocationProxy -> ProxyHost' file";
+                log.error(message);
+                throw new CertificateValidationException(message);
             }
 
-            // adding request timeout configurations
-            RequestConfig timeoutRequestConfig;
-            if (httpPost.getConfig() == null) {
-                httpPost.setConfig(RequestConfig.custom().build());
-            }
-            timeoutRequestConfig = RequestConfig.copy(httpPost.getConfig())
-                    .setConnectTimeout(httpConnectTimeout)
-                    .setConnectionRequestTimeout(httpConnectionRequestTimeout)
-                    .setSocketTimeout(httpSocketTimeout)
-                    .build();
-            httpPost.setConfig(timeoutRequestConfig);
-            // add debug logs
             if (log.isDebugEnabled()) {
-                log.debug("OCSP request timeout configurations: " + "httpConnectTimeout: " + httpConnectTimeout +
-                        ", httpConnectionRequestTimeout: " + httpConnectionRequestTimeout + ", httpSocketTimeout: " +
-                        httpSocketTimeout);
+                log.debug("Certificate revocation proxy: " + certificateRevocationProxyHost + ":" +
+                        certificateRevocationProxyPort);
             }
+            HttpHost proxy = new HttpHost(certificateRevocationProxyHost, certificateRevocationProxyPort);
+            RequestConfig config = RequestConfig.custom().setProxy(proxy).build();
+            httpPost.setConfig(config);
+            log.debug("Setting certificate revocation proxy finished.");
+        }
 
-            setRequestProperties(request.getEncoded(), httpPost);
-            HttpResponse httpResponse = client.execute(httpPost);
+        // adding request timeout configurations
+        RequestConfig timeoutRequestConfig;
+        if (httpPost.getConfig() == null) {
+            httpPost.setConfig(RequestConfig.custom().build());
+        }
+        timeoutRequestConfig = RequestConfig.copy(httpPost.getConfig())
+                .setConnectTimeout(httpConnectTimeout)
+                .setConnectionRequestTimeout(httpConnectionRequestTimeout)
+                .setSocketTimeout(httpSocketTimeout)
+                .build();
+        httpPost.setConfig(timeoutRequestConfig);
+        // add debug logs
+        if (log.isDebugEnabled()) {
+            log.debug("OCSP request timeout configurations: " + "httpConnectTimeout: " + httpConnectTimeout +
+                    ", httpConnectionRequestTimeout: " + httpConnectionRequestTimeout + ", httpSocketTimeout: " +
+                    httpSocketTimeout);
+        }
 
-            //Check errors in response, if response status code is not 200 (success) range, throws exception
-            // eg: if response code is 200 (success) or 201 (accepted) return true,
-            //     if response code is 404 (not found) or 500 throw exception
-            if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
-                throw new CertificateValidationException("Error getting ocsp response." +
-                        "Response code is " + httpResponse.getStatusLine().getStatusCode());
-            }
-            InputStream in = httpResponse.getEntity().getContent();
-            ocspResp = new OCSPResp(in);
-        } catch (IOException e) {
-            if (log.isDebugEnabled()) {
-                log.debug("Certificate revocation check failed due to an exception", e);
-            }
-            if (retryCount == 0) {
-                throw new CertificateValidationException("Cannot get ocspResponse from url: "
-                        + serviceUrl, e);
-            } else {
-                log.info("Cant reach URI: " + serviceUrl + ". Retrying to connect - attempt " + retryCount);
-                return getOCSPResponse(serviceUrl, request, --retryCount, certificateRevocationProxyEnabled,
-                        certificateRevocationProxyHost, certificateRevocationProxyPort);
+        int remainingRetries = retryCount;
+        while (true) {
+            try {
+                setRequestProperties(request.getEncoded(), httpPost);
+                try (CloseableHttpResponse httpResponse = client.execute(httpPost)) {
+                    //Check errors in response, if response status code is not 200 (success) range, throws exception
+                    // eg: if response code is 200 (success) or 201 (accepted) return true,
+                    //     if response code is 404 (not found) or 500 throw exception
+                    if (httpResponse.getStatusLine().getStatusCode() / 100 != 2) {
+                        throw new CertificateValidationException("Error getting ocsp response." +
+                                "Response code is " + httpResponse.getStatusLine().getStatusCode());
+                    }
+                    InputStream in = httpResponse.getEntity().getContent();
+                    return new OCSPResp(in);
+                }
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Certificate revocation check failed due to an exception", e);
+                }
+                if (remainingRetries == 0) {
+                    throw new CertificateValidationException("Cannot get ocspResponse from url: "
+                            + serviceUrl, e);
+                }
+                log.info("Cant reach URI: " + serviceUrl + ". Retrying to connect - attempt " + remainingRetries);
+                remainingRetries--;
             }
-        } catch (OpenBankingException e) {
-            throw new CertificateValidationException("Error when creating http client.", e);
         }
-        return ocspResp;
     }
 
     private static void setRequestProperties(byte[] message, HttpPost httpPost) {
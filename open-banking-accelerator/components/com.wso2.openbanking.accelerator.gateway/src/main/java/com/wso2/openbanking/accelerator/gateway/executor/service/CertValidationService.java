@@ -24,8 +24,8 @@ import com.wso2.openbanking.accelerator.common.exception.TPPValidationException;
 import com.wso2.openbanking.accelerator.common.model.PSD2RoleEnum;
 import com.wso2.openbanking.accelerator.common.util.eidas.certificate.extractor.CertificateContent;
 import com.wso2.openbanking.accelerator.common.util.eidas.certificate.extractor.CertificateContentExtractor;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
-import com.wso2.openbanking.accelerator.gateway.cache.TppValidationCache;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache.Verdict;
 import com.wso2.openbanking.accelerator.gateway.executor.model.RevocationStatus;
 import com.wso2.openbanking.accelerator.gateway.executor.revocation.RevocationValidator;
 import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
@@ -117,6 +117,26 @@ public class CertValidationService {
     public boolean verify(X509Certificate peerCertificate, X509Certificate issuerCertificate, int retryCount,
                           int connectTimeout, int connectionRequestTimeout, int socketTimeout) {
 
+        return RevocationStatus.GOOD == getRevocationStatus(peerCertificate, issuerCertificate, retryCount,
+                connectTimeout, connectionRequestTimeout, socketTimeout);
+    }
+
+    /**
+     * Get the certificate revocation status from the configured revocation validators. The validators are tried
+     * in the configured order until one of them determines whether the certificate is revoked.
+     *
+     * @param peerCertificate          X509Certificate
+     * @param issuerCertificate        X509Certificate
+     * @param retryCount               retry count
+     * @param connectTimeout           connect timeout
+     * @param connectionRequestTimeout connection request timeout
+     * @param socketTimeout            socket timeout
+     * @return GOOD or REVOKED, or UNKNOWN if none of the validators could determine the revocation status
+     */
+    public RevocationStatus getRevocationStatus(X509Certificate peerCertificate, X509Certificate issuerCertificate,
+                                                int retryCount, int connectTimeout, int connectionRequestTimeout,
+                                                int socketTimeout) {
+
         OpenBankingConfigParser openBankingConfigParser = OpenBankingConfigParser.getInstance();
         RevocationValidatorFactory revocationValidatorFactory = new RevocationValidatorFactory();
         Map<Integer, String> revocationValidators = openBankingConfigParser.getCertificateRevocationValidators();
@@ -135,14 +155,12 @@ public class CertValidationService {
 
         for (RevocationValidator validator : validators) {
             RevocationStatus revocationStatus = isRevoked(validator, peerCertificate, issuerCertificate);
-            if (RevocationStatus.GOOD == revocationStatus) {
-                return true;
-            } else if (RevocationStatus.REVOKED == revocationStatus) {
-                return false;
+            if (RevocationStatus.GOOD == revocationStatus || RevocationStatus.REVOKED == revocationStatus) {
+                return revocationStatus;
             }
         }
         log.error("Unable to verify certificate revocation information");
-        return false;
+        return RevocationStatus.UNKNOWN;
     }
 
     private RevocationStatus isRevoked(RevocationValidator validator, X509Certificate peerCertificate,
@@ -173,25 +191,14 @@ public class CertValidationService {
 
                 if (tppValidationService != null) {
 
-                    // Initializing certificate cache and cache key
-                    TppValidationCache tppValidationServiceCache = TppValidationCache.getInstance();
-                    String tppValidationCacheKeyStr = tppValidationService.getCacheKey(tppCertificate,
+                    // Role validation verdicts, including denials, are cached so that a TPP without the required
+                    // roles does not reach the TPP validation service on every request.
+                    String tppValidationCacheKey = tppValidationService.getCacheKey(tppCertificate,
                             requiredPSD2Roles, Collections.emptyMap());
-                    GatewayCacheKey tppValidationCacheKey = GatewayCacheKey.of(tppValidationCacheKeyStr);
-
-                    // Executing TPP role validation process or retrieve last status from cache
-                    if (tppValidationServiceCache.getFromCache(tppValidationCacheKey) != null) {
-                        // previous result is present in cache, return result
-                        return tppValidationServiceCache.getFromCache(tppValidationCacheKey);
-                    } else {
-                        final boolean result = tppValidationService
-                                .validate(tppCertificate, requiredPSD2Roles, Collections.emptyMap());
-                        if (result) {
-                            // Adding result to cache
-                            tppValidationServiceCache.addToCache(tppValidationCacheKey, true);
-                            return true;
-                        }
-                    }
+                    Verdict verdict = CertificateVerdictCache.getTppValidationInstance()
+                            .getVerdict(tppValidationCacheKey, () -> tppValidationService.validate(tppCertificate,
+                                    requiredPSD2Roles, Collections.emptyMap()) ? Verdict.VALID : Verdict.ROLE_DENIED);
+                    return Verdict.VALID == verdict;
                 } else {
                     throw new TPPValidationException(
                             "Unable to find the implementation class for TPP validation service");
@@ -205,7 +212,6 @@ public class CertValidationService {
         } else {
             throw new TPPValidationException("Both TPP validation and PSD2 role validation services are disabled");
         }
-        return false;
     }
 
     /**
@@ -65,7 +65,8 @@ public class CertificateValidationUtils {
     public static final String TRUSTSTORE_LOCATION_CONF_KEY = "Security.TrustStore.Location";
     public static final String TRUSTSTORE_PASS_CONF_KEY = "Security.TrustStore.Password";
     private static final Log LOG = LogFactory.getLog(CertificateValidationUtils.class);
-    private static KeyStore trustStore = null;
+    // Swapped as a whole when the truststore is reloaded, so that lookups do not need to lock
+    private static volatile IssuerCertificateIndex issuerCertificateIndex = null;
 
     private CertificateValidationUtils() {
         // Adding a private constructor to hide the implicit public one.
@@ -97,22 +98,25 @@ public class CertificateValidationUtils {
     public static X509Certificate getIssuerCertificateFromTruststore(X509Certificate peerCertificate)
             throws CertificateValidationException {
 
-        KeyStore loadedTrustStore = getTrustStore();
-        if (loadedTrustStore == null) {
+        IssuerCertificateIndex index = issuerCertificateIndex;
+        if (index == null) {
             throw new CertificateValidationException("Client truststore has not been initialized");
         }
 
-        return retrieveCertificateFromTruststore(peerCertificate, loadedTrustStore);
-
+        return index.getIssuerCertificate(peerCertificate).orElseThrow(() -> new CertificateValidationException(
+                "Unable to find the immediate issuer from the truststore of the certificate with the serial number " +
+                        peerCertificate.getSerialNumber() + " issued by the CA " +
+                        peerCertificate.getIssuerDN().toString()));
     }
 
     /**
-     * Get the truststore. This methods needs to be synchronized with the loadTrustStore() method
+     * Get the truststore.
      *
      * @return instance of the truststore
      */
-    public static synchronized KeyStore getTrustStore() {
-        return trustStore;
+    public static KeyStore getTrustStore() {
+        IssuerCertificateIndex index = issuerCertificateIndex;
+        return index == null ? null : index.getTrustStore();
     }
 
     /**
@@ -182,8 +186,9 @@ public class CertificateValidationUtils {
         String trustStorePath = ServerConfiguration.getInstance()
                 .getFirstProperty(CertificateValidationUtils.TRUSTSTORE_LOCATION_CONF_KEY);
         try (InputStream inputStream = Files.newInputStream(Paths.get(trustStorePath))) {
-            trustStore = KeyStore.getInstance(OpenBankingConstants.TRUSTSTORE_CONF_TYPE_DEFAULT);
+            KeyStore trustStore = KeyStore.getInstance(OpenBankingConstants.TRUSTSTORE_CONF_TYPE_DEFAULT);
             trustStore.load(inputStream, trustStorePassword);
+            issuerCertificateIndex = IssuerCertificateIndex.of(trustStore);
         }
     }
 
@@ -206,8 +211,9 @@ public class CertificateValidationUtils {
             throws KeyStoreException, IOException, CertificateException, NoSuchAlgorithmException {
 
         try (InputStream inputStream = Files.newInputStream(Paths.get(trustStorePath))) {
-            trustStore = KeyStore.getInstance(OpenBankingConstants.TRUSTSTORE_CONF_TYPE_DEFAULT);
+            KeyStore trustStore = KeyStore.getInstance(OpenBankingConstants.TRUSTSTORE_CONF_TYPE_DEFAULT);
             trustStore.load(inputStream, trustStorePassword);
+            issuerCertificateIndex = IssuerCertificateIndex.of(trustStore);
         }
     }
 
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.util;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bouncycastle.asn1.ASN1OctetString;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.SubjectKeyIdentifier;
+
+import java.security.InvalidKeyException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.SignatureException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * Immutable index of the certificates in the client truststore, used to find the issuer of a client certificate.
+ *
+ * Certificates are indexed by their Subject Key Identifier and subject. The issuer of a certificate is looked up by
+ * its Authority Key Identifier first and then by its issuer, and a candidate is returned only if it verifies the
+ * signature of the certificate. All the certificates are checked only if none of the candidates is the issuer.
+ */
+public class IssuerCertificateIndex {
+
+    private static final Log log = LogFactory.getLog(IssuerCertificateIndex.class);
+
+    private final KeyStore trustStore;
+    private final List<X509Certificate> certificates;
+    private final Map<String, List<X509Certificate>> certificatesByKeyIdentifier;
+    private final Map<X500Principal, List<X509Certificate>> certificatesBySubject;
+
+    private IssuerCertificateIndex(KeyStore trustStore, List<X509Certificate> certificates) {
+
+        Map<String, List<X509Certificate>> byKeyIdentifier = new HashMap<>();
+        Map<X500Principal, List<X509Certificate>> bySubject = new HashMap<>();
+        for (X509Certificate certificate : certificates) {
+            String keyIdentifier = getSubjectKeyIdentifier(certificate);
+            if (keyIdentifier != null) {
+                byKeyIdentifier.computeIfAbsent(keyIdentifier, key -> new ArrayList<>()).add(certificate);
+            }
+            bySubject.computeIfAbsent(certificate.getSubjectX500Principal(), key -> new ArrayList<>())
+                    .add(certificate);
+        }
+        this.trustStore = trustStore;
+        this.certificates = Collections.unmodifiableList(certificates);
+        this.certificatesByKeyIdentifier = Collections.unmodifiableMap(byKeyIdentifier);
+        this.certificatesBySubject = Collections.unmodifiableMap(bySubject);
+    }
+
+    /**
+     * Build the index of the certificates in the given truststore.
+     *
+     * @param trustStore loaded truststore
+     * @return index of the truststore certificates
+     * @throws KeyStoreException when the certificates cannot be read from the truststore
+     */
+    public static IssuerCertificateIndex of(KeyStore trustStore) throws KeyStoreException {
+
+        List<X509Certificate> certificates = new ArrayList<>();
+        Enumeration<String> aliases = trustStore.aliases();
+        while (aliases.hasMoreElements()) {
+            Certificate certificate = trustStore.getCertificate(aliases.nextElement());
+            if (certificate instanceof X509Certificate) {
+                certificates.add((X509Certificate) certificate);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Indexed " + certificates.size() + " certificates of the client truststore");
+        }
+        return new IssuerCertificateIndex(trustStore, certificates);
+    }
+
+    /**
+     * Get the truststore the index was built from.
+     *
+     * @return truststore
+     */
+    public KeyStore getTrustStore() {
+
+        return trustStore;
+    }
+
+    /**
+     * Get the number of indexed certificates.
+     *
+     * @return number of certificates
+     */
+    public int size() {
+
+        return certificates.size();
+    }
+
+    /**
+     * Find the issuer of the given certificate.
+     *
+     * @param peerCertificate peer certificate
+     * @return issuer certificate, or empty if the issuer is not in the truststore
+     */
+    public Optional<X509Certificate> getIssuerCertificate(X509Certificate peerCertificate) {
+
+        String authorityKeyIdentifier = getAuthorityKeyIdentifier(peerCertificate);
+        if (authorityKeyIdentifier != null) {
+            Optional<X509Certificate> issuer = findIssuer(peerCertificate,
+                    certificatesByKeyIdentifier.get(authorityKeyIdentifier));
+            if (issuer.isPresent()) {
+                return issuer;
+            }
+        }
+        Optional<X509Certificate> issuer = findIssuer(peerCertificate,
+                certificatesBySubject.get(peerCertificate.getIssuerX500Principal()));
+        if (issuer.isPresent()) {
+            return issuer;
+        }
+
+        // The issuer may be encoded differently in the truststore certificate. Fall back to checking the signature
+        // of the peer certificate against all the certificates in the truststore.
+        log.debug("Issuer certificate not found by the key identifier or the issuer. Checking all the certificates " +
+                "in the client truststore");
+        return findIssuer(peerCertificate, certificates);
+    }
+
+    private static Optional<X509Certificate> findIssuer(X509Certificate peerCertificate,
+                                                        List<X509Certificate> candidates) {
+
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        for (X509Certificate candidate : candidates) {
+            try {
+                peerCertificate.verify(candidate.getPublicKey());
+                log.debug("Valid issuer certificate found in the client truststore");
+                return Optional.of(candidate);
+            } catch (CertificateException | NoSuchAlgorithmException | InvalidKeyException |
+                     NoSuchProviderException | SignatureException e) {
+                // Unable to verify the signature. Check with the next certificate.
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String getSubjectKeyIdentifier(X509Certificate certificate) {
+
+        byte[] extensionValue = certificate.getExtensionValue(Extension.subjectKeyIdentifier.getId());
+        if (extensionValue == null) {
+            return null;
+        }
+        try {
+            return Hex.encodeHexString(SubjectKeyIdentifier.getInstance(
+                    ASN1OctetString.getInstance(extensionValue).getOctets()).getKeyIdentifier());
+        } catch (IllegalArgumentException e) {
+            log.debug("Unable to read the subject key identifier of the certificate with the serial number " +
+                    certificate.getSerialNumber(), e);
+            return null;
+        }
+    }
+
+    private static String getAuthorityKeyIdentifier(X509Certificate certificate) {
+
+        byte[] extensionValue = certificate.getExtensionValue(Extension.authorityKeyIdentifier.getId());
+        if (extensionValue == null) {
+            return null;
+        }
+        try {
+            byte[] keyIdentifier = AuthorityKeyIdentifier.getInstance(
+                    ASN1OctetString.getInstance(extensionValue).getOctets()).getKeyIdentifier();
+            return keyIdentifier == null ? null : Hex.encodeHexString(keyIdentifier);
+        } catch (IllegalArgumentException e) {
+            log.debug("Unable to read the authority key identifier of the certificate with the serial number " +
+                    certificate.getSerialNumber(), e);
+            return null;
+        }
+    }
+}
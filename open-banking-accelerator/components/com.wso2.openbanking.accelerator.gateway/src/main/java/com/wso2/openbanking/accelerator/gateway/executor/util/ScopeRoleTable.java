@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.util;
+
+import com.wso2.openbanking.accelerator.common.model.PSD2RoleEnum;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable lookup table of the PSD2 roles allowed for each scope, built from the allowed scopes configuration.
+ *
+ * Scopes are matched case-insensitively. The table of the current configuration is shared, and is rebuilt only
+ * when the allowed scopes configuration changes.
+ */
+public class ScopeRoleTable {
+
+    private static final Log log = LogFactory.getLog(ScopeRoleTable.class);
+    private static volatile ScopeRoleTable current;
+
+    private final Map<String, List<String>> allowedScopes;
+    private final int allowedScopesCount;
+    private final Map<String, Set<PSD2RoleEnum>> rolesByScope;
+
+    private ScopeRoleTable(Map<String, List<String>> allowedScopes) {
+
+        Map<String, Set<PSD2RoleEnum>> roles = new HashMap<>();
+        for (Map.Entry<String, List<String>> allowedScope : allowedScopes.entrySet()) {
+            Set<PSD2RoleEnum> scopeRoles = roles.computeIfAbsent(allowedScope.getKey().toLowerCase(Locale.ENGLISH),
+                    key -> EnumSet.noneOf(PSD2RoleEnum.class));
+            for (String role : allowedScope.getValue()) {
+                PSD2RoleEnum psd2Role = PSD2RoleEnum.fromValue(role);
+                if (psd2Role != null) {
+                    scopeRoles.add(psd2Role);
+                } else {
+                    log.warn("Ignoring the unknown PSD2 role " + role + " configured for the scope " +
+                            allowedScope.getKey());
+                }
+            }
+        }
+        this.allowedScopes = allowedScopes;
+        this.allowedScopesCount = allowedScopes.size();
+        this.rolesByScope = Collections.unmodifiableMap(roles);
+    }
+
+    /**
+     * Get the table of the given allowed scopes configuration, building it if the configuration has changed since
+     * the table was last built.
+     *
+     * @param allowedScopes allowed scopes configuration, mapping each scope to its roles
+     * @return scope role table
+     */
+    public static ScopeRoleTable of(Map<String, List<String>> allowedScopes) {
+
+        ScopeRoleTable table = current;
+        if (table == null || !table.isBuiltFrom(allowedScopes)) {
+            table = new ScopeRoleTable(allowedScopes);
+            current = table;
+            if (log.isDebugEnabled()) {
+                log.debug("Built the PSD2 role table of " + table.rolesByScope.size() + " allowed scopes");
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Get the PSD2 roles allowed for any of the given scopes.
+     *
+     * @param scopes scopes
+     * @return roles of the scopes
+     */
+    public Set<PSD2RoleEnum> getRoles(Collection<String> scopes) {
+
+        Set<PSD2RoleEnum> roles = EnumSet.noneOf(PSD2RoleEnum.class);
+        for (String scope : scopes) {
+            Set<PSD2RoleEnum> scopeRoles = rolesByScope.get(scope.toLowerCase(Locale.ENGLISH));
+            if (scopeRoles != null) {
+                roles.addAll(scopeRoles);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Check whether the table is built from the given allowed scopes configuration.
+     * The configuration is compared by identity and size so that the check does not depend on the number of scopes.
+     *
+     * @param allowedScopes allowed scopes configuration
+     * @return true if the table reflects the configuration
+     */
+    public boolean isBuiltFrom(Map<String, List<String>> allowedScopes) {
+
+        return this.allowedScopes == allowedScopes && allowedScopesCount == allowedScopes.size();
+    }
+}
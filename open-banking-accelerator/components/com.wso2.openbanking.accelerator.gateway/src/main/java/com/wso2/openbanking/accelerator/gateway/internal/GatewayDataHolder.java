@@ -55,6 +55,8 @@ public class GatewayDataHolder {
     private ThrottleDataPublisher throttleDataPublisher;
     private int gatewayCacheAccessExpiry;
     private int gatewayCacheModifiedExpiry;
+    private int messageContextStoreCapacity = 10000;
+    private int messageContextStoreTimeout = 300;
     private String keyStoreLocation;
     private char[] keyStorePassword;
     private String keyAlias;
@@ -124,6 +126,10 @@ public class GatewayDataHolder {
             setGatewayCacheAccessExpiry((String) configurations.get(GatewayConstants.GATEWAY_CACHE_EXPIRY));
             setGatewayCacheModifiedExpiry((String) configurations
                     .get(GatewayConstants.GATEWAY_CACHE_MODIFIEDEXPIRY));
+            setMessageContextStoreCapacity((String) configurations
+                    .get(GatewayConstants.MESSAGE_CONTEXT_STORE_CAPACITY));
+            setMessageContextStoreTimeout((String) configurations
+                    .get(GatewayConstants.MESSAGE_CONTEXT_STORE_TIMEOUT));
             this.urlMap = constructURLMap();
             configuredRequestRouter.build();
             this.setRequestRouter(configuredRequestRouter);
@@ -170,6 +176,26 @@ public class GatewayDataHolder {
         this.gatewayCacheModifiedExpiry = expTime == null ? 60 : Integer.parseInt(expTime);
     }
 
+    public int getMessageContextStoreCapacity() {
+
+        return messageContextStoreCapacity;
+    }
+
+    public void setMessageContextStoreCapacity(String capacity) {
+
+        this.messageContextStoreCapacity = capacity == null ? 10000 : Integer.parseInt(capacity);
+    }
+
+    public int getMessageContextStoreTimeout() {
+
+        return messageContextStoreTimeout;
+    }
+
+    public void setMessageContextStoreTimeout(String timeout) {
+
+        this.messageContextStoreTimeout = timeout == null ? 300 : Integer.parseInt(timeout);
+    }
+
     public String getKeyStoreLocation() {
 
         return keyStoreLocation == null ? ServerConfiguration.getInstance()
@@ -19,6 +19,8 @@
 package com.wso2.openbanking.accelerator.gateway.internal;
 
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
+import com.wso2.openbanking.accelerator.gateway.cache.APIDefinitionRegistry;
+import com.wso2.openbanking.accelerator.gateway.executor.dcr.DCRExecutor;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
@@ -45,12 +47,14 @@ public class GatewayServiceComponent {
     protected void activate(ComponentContext context) {
 
         log.debug("Open banking gateway component is activated ");
+        APIDefinitionRegistry.getInstance().preloadPublishedAPIs();
     }
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
         log.debug("Open banking gateway component is deactivated ");
+        new DCRExecutor().releaseDevPortalCredentials();
     }
 
     @Reference(
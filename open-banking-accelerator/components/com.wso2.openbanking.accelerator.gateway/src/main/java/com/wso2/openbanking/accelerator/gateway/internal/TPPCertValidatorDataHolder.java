@@ -45,14 +45,23 @@ public class TPPCertValidatorDataHolder {
     private int connectTimeout;
     private int connectionRequestTimeout;
     private int socketTimeout;
+    private int crlStoreRefreshBeforeExpiry;
+    private int ocspResponseStoreRefreshBeforeExpiry;
+    private int ocspResponseStoreMaxStoreTime;
+    private int revokedCertificateCacheExpiry;
+    private int unknownCertificateCacheExpiry;
+    private int tppRoleDeniedCacheExpiry;
 
     private boolean psd2RoleValidationEnabled;
     private boolean certificateRevocationProxyEnabled;
     private boolean transportCertIssuerValidationEnabled;
     private boolean certificateRevocationValidationEnabled;
+    private boolean crlStoreEnabled;
+    private boolean ocspResponseStoreEnabled;
 
     private String tppValidationServiceImpl;
     private String certificateRevocationProxyHost;
+    private String crlStorePersistenceDirectory;
 
     private List<String> revocationValidationExcludedIssuersList;
 
@@ -436,6 +445,183 @@ public class TPPCertValidatorDataHolder {
         }
     }
 
+    /**
+     * Check if downloaded CRLs are kept in the CRL store until their next update date.
+     *
+     * @return Default value has been set to false
+     */
+    public boolean isCRLStoreEnabled() {
+        return this.crlStoreEnabled;
+    }
+
+    public void setCRLStoreEnabled() {
+        Object crlStoreEnabledObj = this.openBankingConfigurationService.
+                getConfigurations().get(OpenBankingConstants.CRL_STORE_ENABLED);
+        if (crlStoreEnabledObj != null) {
+            this.crlStoreEnabled = Boolean.parseBoolean(((String) crlStoreEnabledObj).trim());
+        } else {
+            this.crlStoreEnabled = false;
+        }
+    }
+
+    /**
+     * Get the time (in seconds) before the next update date of a stored CRL to refresh it.
+     *
+     * @return Default value has been set to 300 seconds
+     */
+    public int getCRLStoreRefreshBeforeExpiry() {
+        return this.crlStoreRefreshBeforeExpiry;
+    }
+
+    public void setCRLStoreRefreshBeforeExpiry() {
+        try {
+            Object refreshBeforeExpiry = this.openBankingConfigurationService.
+                    getConfigurations().get(OpenBankingConstants.CRL_STORE_REFRESH_BEFORE_EXPIRY);
+            if (refreshBeforeExpiry != null) {
+                this.crlStoreRefreshBeforeExpiry = Integer.parseInt(((String) refreshBeforeExpiry).trim());
+            } else {
+                this.crlStoreRefreshBeforeExpiry = 300;
+            }
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the CRL store refresh before expiry " +
+                    "value in open-banking.xml. caused by, " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the directory to persist the stored CRLs.
+     *
+     * @return directory path or an empty string if the CRLs should not be persisted
+     */
+    public String getCRLStorePersistenceDirectory() {
+        return this.crlStorePersistenceDirectory;
+    }
+
+    public void setCRLStorePersistenceDirectory() {
+        Object persistenceDirectory = this.openBankingConfigurationService.
+                getConfigurations().get(OpenBankingConstants.CRL_STORE_PERSISTENCE_DIRECTORY);
+        this.crlStorePersistenceDirectory = persistenceDirectory != null ? ((String) persistenceDirectory).trim() : "";
+    }
+
+    /**
+     * Check if OCSP responses are kept in the OCSP response store until their next update date.
+     *
+     * @return Default value has been set to false
+     */
+    public boolean isOCSPResponseStoreEnabled() {
+        return this.ocspResponseStoreEnabled;
+    }
+
+    public void setOCSPResponseStoreEnabled() {
+        Object ocspResponseStoreEnabledObj = this.openBankingConfigurationService.
+                getConfigurations().get(OpenBankingConstants.OCSP_RESPONSE_STORE_ENABLED);
+        if (ocspResponseStoreEnabledObj != null) {
+            this.ocspResponseStoreEnabled = Boolean.parseBoolean(((String) ocspResponseStoreEnabledObj).trim());
+        } else {
+            this.ocspResponseStoreEnabled = false;
+        }
+    }
+
+    /**
+     * Get the time (in seconds) before the next update date of a stored OCSP response to refresh it.
+     *
+     * @return Default value has been set to 60 seconds
+     */
+    public int getOCSPResponseStoreRefreshBeforeExpiry() {
+        return this.ocspResponseStoreRefreshBeforeExpiry;
+    }
+
+    public void setOCSPResponseStoreRefreshBeforeExpiry() {
+        try {
+            Object refreshBeforeExpiry = this.openBankingConfigurationService.
+                    getConfigurations().get(OpenBankingConstants.OCSP_RESPONSE_STORE_REFRESH_BEFORE_EXPIRY);
+            if (refreshBeforeExpiry != null) {
+                this.ocspResponseStoreRefreshBeforeExpiry = Integer.parseInt(((String) refreshBeforeExpiry).trim());
+            } else {
+                this.ocspResponseStoreRefreshBeforeExpiry = 60;
+            }
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the OCSP response store refresh before " +
+                    "expiry value in open-banking.xml. caused by, " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the maximum time (in seconds) an OCSP response is stored, regardless of its next update date.
+     *
+     * @return Default value has been set to 3600 seconds
+     */
+    public int getOCSPResponseStoreMaxStoreTime() {
+        return this.ocspResponseStoreMaxStoreTime;
+    }
+
+    public void setOCSPResponseStoreMaxStoreTime() {
+        try {
+            Object maxStoreTime = this.openBankingConfigurationService.
+                    getConfigurations().get(OpenBankingConstants.OCSP_RESPONSE_STORE_MAX_STORE_TIME);
+            if (maxStoreTime != null) {
+                this.ocspResponseStoreMaxStoreTime = Integer.parseInt(((String) maxStoreTime).trim());
+            } else {
+                this.ocspResponseStoreMaxStoreTime = 3600;
+            }
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the OCSP response store max store time " +
+                    "value in open-banking.xml. caused by, " + e.getMessage());
+        }
+    }
+
+    /**
+     * Revoked certificate cache expiry time has been configured in the open-banking.xml.
+     * Default value is 3600 seconds.
+     */
+    public int getRevokedCertificateCacheExpiry() {
+        return this.revokedCertificateCacheExpiry;
+    }
+
+    public void setRevokedCertificateCacheExpiry() {
+        this.revokedCertificateCacheExpiry = getCacheExpiry(OpenBankingConstants.REVOKED_CERTIFICATE_CACHE_EXPIRY,
+                3600, "revoked certificate cache expiry");
+    }
+
+    /**
+     * Cache expiry time of certificates whose revocation status could not be determined has been configured in the
+     * open-banking.xml. Default value is 60 seconds.
+     */
+    public int getUnknownCertificateCacheExpiry() {
+        return this.unknownCertificateCacheExpiry;
+    }
+
+    public void setUnknownCertificateCacheExpiry() {
+        this.unknownCertificateCacheExpiry = getCacheExpiry(OpenBankingConstants.UNKNOWN_CERTIFICATE_CACHE_EXPIRY,
+                60, "unknown certificate cache expiry");
+    }
+
+    /**
+     * Cache expiry time of TPPs which failed the role validation has been configured in the open-banking.xml.
+     * Default value is 300 seconds.
+     */
+    public int getTppRoleDeniedCacheExpiry() {
+        return this.tppRoleDeniedCacheExpiry;
+    }
+
+    public void setTppRoleDeniedCacheExpiry() {
+        this.tppRoleDeniedCacheExpiry = getCacheExpiry(OpenBankingConstants.TPP_ROLE_DENIED_CACHE_EXPIRY,
+                300, "tpp role denied cache expiry");
+    }
+
+    private int getCacheExpiry(String configKey, int defaultExpiry, String configName) {
+        try {
+            Object cacheExpiry = this.openBankingConfigurationService.getConfigurations().get(configKey);
+            if (cacheExpiry != null) {
+                return Integer.parseInt(((String) cacheExpiry).trim());
+            }
+            return defaultExpiry;
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Error occurred while reading the " + configName + " value " +
+                    "in open-banking.xml. caused by, " + e.getMessage());
+        }
+    }
+
     public OpenBankingConfigurationService getOpenBankingConfigurationService() {
         return openBankingConfigurationService;
     }
@@ -471,6 +657,15 @@ public class TPPCertValidatorDataHolder {
         setConnectTimeout();
         setConnectionRequestTimeout();
         setSocketTimeout();
+        setCRLStoreEnabled();
+        setCRLStoreRefreshBeforeExpiry();
+        setCRLStorePersistenceDirectory();
+        setOCSPResponseStoreEnabled();
+        setOCSPResponseStoreRefreshBeforeExpiry();
+        setOCSPResponseStoreMaxStoreTime();
+        setRevokedCertificateCacheExpiry();
+        setUnknownCertificateCacheExpiry();
+        setTppRoleDeniedCacheExpiry();
 
     }
 }
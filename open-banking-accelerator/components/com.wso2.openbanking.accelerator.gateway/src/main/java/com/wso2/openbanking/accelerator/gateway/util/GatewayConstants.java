@@ -41,6 +41,7 @@ public class GatewayConstants {
     public static final String BEARER_TAG = "Bearer ";
     public static final String PUBLISHER_API_PATH = "api/am/publisher/apis/";
     public static final String SWAGGER_ENDPOINT = "/swagger";
+    public static final String PUBLISHER_API_LIST_PATH = "api/am/publisher/apis?limit=1000";
     public static final String REGULATORY_CUSTOM_PROP = "x-wso2-regulatory-api";
     public static final String API_TYPE_CUSTOM_PROP = "x-wso2-api-type";
     public static final String IS_RETURN_RESPONSE = "isReturnResponse";
@@ -81,6 +82,9 @@ public class GatewayConstants {
     public static final String REQUEST_ROUTER = "Gateway.RequestRouter";
     public static final String GATEWAY_CACHE_EXPIRY = "Gateway.Cache.GatewayCache.CacheAccessExpiry";
     public static final String GATEWAY_CACHE_MODIFIEDEXPIRY = "Gateway.Cache.GatewayCache.CacheModifiedExpiry";
+    public static final String MESSAGE_CONTEXT_STORE_CAPACITY = "Gateway.Cache.MessageContextStore.Capacity";
+    public static final String MESSAGE_CONTEXT_STORE_TIMEOUT = "Gateway.Cache.MessageContextStore.Timeout";
+    public static final String DCR_PUBLISHED_API_CACHE_EXPIRY = "DCR.PublishedAPICacheExpiry";
     public static final String GATEWAY_THROTTLE_DATAPUBLISHER = "Gateway.CustomThrottleDataPublisher";
 
     public static final String CUSTOMER_CARE_OFFICER_SCOPE = "consents:read_all";
@@ -28,6 +28,7 @@ import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.identity.IdentityConstants;
 import com.wso2.openbanking.accelerator.common.identity.retriever.ServerIdentityRetriever;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyService;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.gateway.executor.exception.OpenBankingExecutorException;
 import org.apache.commons.lang.StringUtils;
@@ -44,6 +45,23 @@ import java.util.Optional;
 public class GatewaySignatureHandlingUtils {
 
     private static final String B64_CLAIM_KEY = "b64";
+    private static final SigningKeyService signingKeyService = new SigningKeyService(
+            new SigningKeyService.SigningKeyLoader() {
+
+                @Override
+                public Key loadSigningKey() throws OpenBankingException {
+
+                    ServerIdentityRetriever.reloadKeyStoreIfModified();
+                    return ServerIdentityRetriever.getPrimaryCertificate(IdentityConstants.CertificateType.SIGNING)
+                            .orElse(null);
+                }
+
+                @Override
+                public long getKeySourceVersion() {
+
+                    return ServerIdentityRetriever.getKeyStoreLastModified();
+                }
+            });
 
     /**
      * Returns the JWS Header.
@@ -125,6 +143,17 @@ public class GatewaySignatureHandlingUtils {
         }
     }
 
+    /**
+     * Returns the signing key service which signs with the primary signing key of the internal keystore.
+     * The key is loaded again when the keystore file is modified.
+     *
+     * @return SigningKeyService signing key service
+     */
+    public static SigningKeyService getSigningKeyService() {
+
+        return signingKeyService;
+    }
+
     @Generated(message = "Excluding from unit tests since a signer is required to create a valid JWSObject")
     public static String createDetachedJws(String serializedJws) {
 
@@ -20,18 +20,12 @@ package com.wso2.openbanking.accelerator.gateway.util;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSObject;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.ECDSASigner;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.util.Base64URL;
 import com.wso2.openbanking.accelerator.common.error.OpenBankingErrorCodes;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
 import com.wso2.openbanking.accelerator.common.util.Generated;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
 import com.wso2.openbanking.accelerator.gateway.executor.exception.OpenBankingExecutorException;
+import com.wso2.openbanking.accelerator.gateway.executor.model.APIResourceDescriptor;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
 import com.wso2.openbanking.accelerator.gateway.executor.model.OpenBankingExecutorError;
@@ -50,6 +44,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.commons.json.JsonUtil;
@@ -58,6 +53,7 @@ import org.apache.synapse.core.axis2.Axis2Sender;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
 import org.apache.synapse.transport.passthru.PassThroughConstants;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.XML;
@@ -67,9 +63,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.security.PrivateKey;
-import java.security.interfaces.ECPrivateKey;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
@@ -217,6 +210,45 @@ public class GatewayUtils {
         }
     }
 
+    /**
+     * Method to obtain the IDs of the APIs available in the publisher.
+     *
+     * @return list of API IDs
+     */
+    @Generated(message = "Cannot test without running APIM. Integration test will be written for this")
+    public static List<String> getPublishedAPIIds() {
+
+        String publisherHostName =
+                GatewayDataHolder.getInstance().getOpenBankingConfigurationService()
+                        .getConfigurations()
+                        .get(GatewayConstants.PUBLISHER_HOSTNAME).toString();
+
+        String publisherAPIURL = (publisherHostName.endsWith("/") ? publisherHostName : publisherHostName + "/") +
+                GatewayConstants.PUBLISHER_API_LIST_PATH;
+
+        HttpGet httpGet = new HttpGet(publisherAPIURL);
+        String userName = getAPIMgtConfig(GatewayConstants.API_KEY_VALIDATOR_USERNAME);
+        String password = getAPIMgtConfig(GatewayConstants.API_KEY_VALIDATOR_PASSWORD);
+
+        httpGet.setHeader(GatewayConstants.AUTH_HEADER, GatewayUtils.getBasicAuthHeader(userName, password));
+        try (CloseableHttpResponse response = GatewayDataHolder.getHttpClient().execute(httpGet)) {
+            if (response.getStatusLine().getStatusCode() / 100 != 2) {
+                throw new OpenBankingRuntimeException("Failed to retrieve the API list from publisher. " +
+                        "Response code is " + response.getStatusLine().getStatusCode());
+            }
+            InputStream in = response.getEntity().getContent();
+            JSONArray apiList = new JSONObject(IOUtils.toString(in, String.valueOf(StandardCharsets.UTF_8)))
+                    .getJSONArray("list");
+            List<String> apiIds = new ArrayList<>();
+            for (int i = 0; i < apiList.length(); i++) {
+                apiIds.add(apiList.getJSONObject(i).getString("id"));
+            }
+            return apiIds;
+        } catch (IOException | OpenBankingException | JSONException e) {
+            throw new OpenBankingRuntimeException("Failed to retrieve the API list from publisher", e);
+        }
+    }
+
     /**
      * Method to read API mgt configs when key is given.
      *
@@ -298,7 +330,7 @@ public class GatewayUtils {
                     GatewayConstants.APPLICATION_XML_CONTENT_TYPE)) {
                 try {
                     payloadString = Optional.of(GatewayUtils.getXMLPayloadToSign(
-                            obapiRequestContext.getMsgInfo().getPayloadHandler().consumeAsString()));
+                            obapiRequestContext.getRawRequestPayload()));
                 } catch (Exception e) {
                     throw new OpenBankingException("Internal Server Error, Unable to process Payload");
                 }
@@ -358,65 +390,24 @@ public class GatewayUtils {
     public static String constructJWSSignature(String payloadString, HashMap<String, Object> criticalParameters)
             throws OpenBankingExecutorException, JOSEException {
 
-        String detachedJWS;
-
-        Optional<Key> signingKey;
-
         // Get from config parser
         JWSAlgorithm algorithm = GatewaySignatureHandlingUtils.getSigningAlgorithm();
 
-        // Get signing certificate of ASPSP from keystore
-        signingKey = GatewaySignatureHandlingUtils.getSigningKey();
-
-        if (signingKey.isPresent()) {
-            // Create a new JWSSigner
-            JWSSigner signer;
-            Key privateKey = signingKey.get();
+        // Retrieve kid or empty string for signingKeyId
+        String signingKeyId = GatewaySignatureHandlingUtils.getSigningKeyId();
 
-            // Retrieve kid or empty string for signingKeyId
-            String signingKeyId = GatewaySignatureHandlingUtils.getSigningKeyId();
-
-            if (StringUtils.isBlank(signingKeyId)) {
-                throw new OpenBankingExecutorException("The kid is not present to sign.");
-            }
-
-            JWSHeader jwsHeader = GatewaySignatureHandlingUtils.constructJWSHeader(signingKeyId,
-                    criticalParameters, algorithm);
-            JWSObject jwsObject = GatewaySignatureHandlingUtils.constructJWSObject(jwsHeader,
-                    payloadString);
-
-            if (privateKey.getAlgorithm().equals("RSA")) {
-                // If the signing key is an RSA Key
-                signer = new RSASSASigner((PrivateKey) privateKey);
-            } else if (privateKey.getAlgorithm().equals("EC")) {
-                // If the signing key is an EC Key
-                signer = new ECDSASigner((ECPrivateKey) privateKey);
-            } else {
-                throw new JOSEException("The \"" + privateKey.getAlgorithm() +
-                        "\" algorithm is not supported by the Solution");
-            }
+        if (StringUtils.isBlank(signingKeyId)) {
+            throw new OpenBankingExecutorException("The kid is not present to sign.");
+        }
 
-            try {
-                // Check if payload is b64 encoded or un-encoded
-                if (GatewaySignatureHandlingUtils.isB64HeaderVerifiable(jwsObject)) {
-                    // b64=true
-                    jwsObject.sign(signer);
-                    String serializedJws = jwsObject.serialize();
-                    detachedJWS = GatewaySignatureHandlingUtils.createDetachedJws(serializedJws);
-                } else {
-                    // b64=false
-                    // Produces the signature with un-encoded payload.
-                    // which is the encoded header + ".." + the encoded signature
-                    Base64URL signature = signer.sign(jwsHeader,
-                            GatewaySignatureHandlingUtils.getSigningInput(jwsHeader, payloadString));
-                    detachedJWS = GatewaySignatureHandlingUtils.createDetachedJws(jwsHeader, signature);
-                }
-            } catch (JOSEException | UnsupportedEncodingException e) {
-                throw new OpenBankingExecutorException("Unable to compute JWS signature", e);
-            }
-            return detachedJWS;
-        } else {
-            throw new OpenBankingExecutorException("Signing key is not present");
+        // Sign with the signer and the encoded header kept by the signing key service for the signing key of
+        // the ASPSP. Produces the encoded header + ".." + the encoded signature, with the b64 encoded or
+        // un-encoded payload as set in the critical parameters.
+        try {
+            return GatewaySignatureHandlingUtils.getSigningKeyService().signDetached(algorithm, signingKeyId,
+                    criticalParameters, payloadString);
+        } catch (OpenBankingException e) {
+            throw new OpenBankingExecutorException(e.getMessage(), e);
         }
     }
 
@@ -476,7 +467,8 @@ public class GatewayUtils {
 
     /**
      * Retrieve security definitions defined in the swagger.
-     * This method will return cached values if present, else will read swagger and cache the result.
+     * This method will return the flows precompiled for the elected resource when the API definition is
+     * available in the request context, else will read them from the swagger.
      *
      * @param obApiRequestContext ob api request context
      * @return list of allowed auth flows for the elected resource
@@ -484,23 +476,13 @@ public class GatewayUtils {
     @Generated(message = "Ignoring since the method has covered in other tests")
     public static List<String> getAllowedOAuthFlows(OBAPIRequestContext obApiRequestContext) {
 
-        List<String> oauthFlows = new ArrayList<>();
-        String httpMethod = obApiRequestContext.getMsgInfo().getHttpMethod();
-        String cacheKey = obApiRequestContext.getMsgInfo().getElectedResource() + ":" + httpMethod;
-        GatewayCacheKey apiSecurityCacheKey = GatewayCacheKey.of(cacheKey);
-
-        try {
-            oauthFlows =
-                    (List<String>) GatewayDataHolder.getGatewayCache().getFromCacheOrRetrieve(apiSecurityCacheKey,
-                            () -> {
-                                OpenAPI openAPI = obApiRequestContext.getOpenAPI();
-                                String electedResource = obApiRequestContext.getMsgInfo().getElectedResource();
-                                return getAllowedOAuthFlowsFromSwagger(openAPI, electedResource, httpMethod);
-                            });
-        } catch (OpenBankingException e) {
-            log.error("Unable to cache or retrieve from API Security Cache", e);
+        APIResourceDescriptor resourceDescriptor = obApiRequestContext.getResourceDescriptor();
+        if (resourceDescriptor != null) {
+            return resourceDescriptor.getAllowedOAuthFlows();
         }
-        return oauthFlows;
+        return getAllowedOAuthFlowsFromSwagger(obApiRequestContext.getOpenAPI(),
+                obApiRequestContext.getMsgInfo().getElectedResource(),
+                obApiRequestContext.getMsgInfo().getHttpMethod());
     }
 
     /**
@@ -514,11 +496,39 @@ public class GatewayUtils {
     public static List<String> getAllowedOAuthFlowsFromSwagger(OpenAPI openAPI, String electedResource,
                                                                String httpMethod) {
 
+        Map<String, List<String>> oAuthFlows = getOAuthFlowsPerScheme(openAPI);
+
+        // get security flows defined for the resource
+        PathItem electedPath = openAPI.getPaths().get(electedResource);
+        List<SecurityRequirement> resourceSecurity = null;
+        if (GatewayConstants.GET.equalsIgnoreCase(httpMethod)) {
+            resourceSecurity = electedPath.getGet().getSecurity();
+        } else if (GatewayConstants.POST.equalsIgnoreCase(httpMethod)) {
+            resourceSecurity = electedPath.getPost().getSecurity();
+        } else if (GatewayConstants.PUT.equalsIgnoreCase(httpMethod)) {
+            resourceSecurity = electedPath.getPut().getSecurity();
+        } else if (GatewayConstants.PATCH.equalsIgnoreCase(httpMethod)) {
+            resourceSecurity = electedPath.getPatch().getSecurity();
+        } else if (GatewayConstants.DELETE.equalsIgnoreCase(httpMethod)) {
+            resourceSecurity = electedPath.getDelete().getSecurity();
+        }
+
+        return getAllowedOAuthFlowsForSecurity(oAuthFlows, resourceSecurity);
+    }
+
+    /**
+     * Read the OAuth flows allowed by each security scheme defined in the swagger.
+     *
+     * @param openAPI open API object
+     * @return allowed OAuth flows against the security scheme name
+     */
+    public static Map<String, List<String>> getOAuthFlowsPerScheme(OpenAPI openAPI) {
+
         Map<String, SecurityScheme> securitySchemes = openAPI.getComponents().getSecuritySchemes();
-        HashMap<String, ArrayList<String>> oAuthFlows = new HashMap<>();
+        Map<String, List<String>> oAuthFlows = new HashMap<>();
 
-        for (Object scheme : securitySchemes.keySet()) {
-            OAuthFlows flows = securitySchemes.get(scheme.toString()).getFlows();
+        for (Map.Entry<String, SecurityScheme> scheme : securitySchemes.entrySet()) {
+            OAuthFlows flows = scheme.getValue().getFlows();
 
             if (flows != null) {
                 ArrayList<String> allowedFlowsPerScheme = new ArrayList<>();
@@ -535,31 +545,28 @@ public class GatewayUtils {
                 if (flows.getPassword() != null) {
                     allowedFlowsPerScheme.add(GatewayConstants.PASSWORD_GRANT);
                 }
-                oAuthFlows.put(scheme.toString(), allowedFlowsPerScheme);
+                oAuthFlows.put(scheme.getKey(), allowedFlowsPerScheme);
             }
         }
+        return oAuthFlows;
+    }
 
-        // get security flows defined for the resource
-        PathItem electedPath = openAPI.getPaths().get(electedResource);
-        List resourceSecurity = null;
-        if (GatewayConstants.GET.equalsIgnoreCase(httpMethod)) {
-            resourceSecurity = electedPath.getGet().getSecurity();
-        } else if (GatewayConstants.POST.equalsIgnoreCase(httpMethod)) {
-            resourceSecurity = electedPath.getPost().getSecurity();
-        } else if (GatewayConstants.PUT.equalsIgnoreCase(httpMethod)) {
-            resourceSecurity = electedPath.getPut().getSecurity();
-        } else if (GatewayConstants.PATCH.equalsIgnoreCase(httpMethod)) {
-            resourceSecurity = electedPath.getPatch().getSecurity();
-        } else if (GatewayConstants.DELETE.equalsIgnoreCase(httpMethod)) {
-            resourceSecurity = electedPath.getDelete().getSecurity();
-        }
+    /**
+     * Resolve the OAuth flows allowed by the security requirements of a resource.
+     *
+     * @param oAuthFlows       allowed OAuth flows against the security scheme name
+     * @param resourceSecurity security requirements of the resource
+     * @return allowed OAuth flows for the resource
+     */
+    public static List<String> getAllowedOAuthFlowsForSecurity(Map<String, List<String>> oAuthFlows,
+                                                               List<SecurityRequirement> resourceSecurity) {
 
         ArrayList<String> allowedFlows = new ArrayList<>();
         List<String> securityRequirementList = new ArrayList<>();
         if (resourceSecurity != null) {
-            for (Object security : resourceSecurity) {
+            for (SecurityRequirement security : resourceSecurity) {
                 // Adding the keys of each security requirement to a list
-                securityRequirementList.addAll(new ArrayList<>(((SecurityRequirement) security).keySet()));
+                securityRequirementList.addAll(security.keySet());
             }
         }
 
@@ -576,7 +583,6 @@ public class GatewayUtils {
         return allowedFlows;
     }
 
-
     /**
      * Get bearer token payload.
      *
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.accelerator.gateway.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import com.wso2.openbanking.accelerator.gateway.executor.model.APIDefinition;
+import com.wso2.openbanking.accelerator.gateway.executor.model.APIResourceDescriptor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test for the API definition registry.
+ */
+public class APIDefinitionRegistryTest {
+
+    private static final String API_ID = "7b8dc9a1-d4e0-4bc3-a1a6-1e4c2e1d9f11";
+    private static final long EXPIRY = TimeUnit.MINUTES.toMillis(60);
+
+    @Test
+    public void testResourceDescriptorsCompiled() {
+
+        APIDefinition apiDefinition = new TestAPIDefinitionRegistry(getSwagger("consent"))
+                .getAPIDefinition(API_ID);
+
+        Assert.assertEquals(apiDefinition.getApiType(), "consent");
+        Assert.assertEquals(apiDefinition.getOpenAPI().getInfo().getTitle(), "TestAPI");
+
+        APIResourceDescriptor getDescriptor = apiDefinition.getResourceDescriptor("/testResource", "GET");
+        Assert.assertEquals(getDescriptor.getAllowedOAuthFlows(), Collections.singletonList("authorization_code"));
+        Assert.assertEquals(getDescriptor.getScopes(), Collections.singleton("accounts"));
+        Assert.assertEquals(getDescriptor.getApiType(), "consent");
+
+        APIResourceDescriptor postDescriptor = apiDefinition.getResourceDescriptor("/testResource", "post");
+        Assert.assertEquals(postDescriptor.getAllowedOAuthFlows(), Collections.singletonList("client_credentials"));
+        Assert.assertEquals(postDescriptor.getScopes(), Collections.singleton("payments"));
+
+        Assert.assertNull(apiDefinition.getResourceDescriptor("/testResource", "DELETE"));
+        Assert.assertNull(apiDefinition.getResourceDescriptor("/unknown", "GET"));
+    }
+
+    @Test
+    public void testAPIDefinitionLoadedOnce() {
+
+        TestAPIDefinitionRegistry registry = new TestAPIDefinitionRegistry(getSwagger("consent"));
+
+        Assert.assertSame(registry.getAPIDefinition(API_ID), registry.getAPIDefinition(API_ID));
+        Assert.assertEquals(registry.loadCount.get(), 1);
+    }
+
+    @Test
+    public void testConcurrentLoadsCoalesced() throws Exception {
+
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        TestAPIDefinitionRegistry registry = new TestAPIDefinitionRegistry(getSwagger("consent"), loadLatch);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<APIDefinition>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executorService.submit(() -> registry.getAPIDefinition(API_ID)));
+            }
+            loadLatch.countDown();
+            for (Future<APIDefinition> result : results) {
+                Assert.assertNotNull(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(registry.loadCount.get(), 1);
+    }
+
+    @Test
+    public void testFailedLoadNotCached() {
+
+        TestAPIDefinitionRegistry registry = new TestAPIDefinitionRegistry(null);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                registry.getAPIDefinition(API_ID);
+                Assert.fail("Expected the API definition load to fail");
+            } catch (OpenBankingRuntimeException e) {
+                Assert.assertNotNull(e.getErrorCode());
+            }
+        }
+        Assert.assertEquals(registry.loadCount.get(), 2);
+
+        registry.swagger.set(getSwagger("consent"));
+        Assert.assertNotNull(registry.getAPIDefinition(API_ID));
+    }
+
+    @Test
+    public void testExpiredAPIDefinitionRefreshed() {
+
+        TestAPIDefinitionRegistry registry = new TestAPIDefinitionRegistry(getSwagger("consent"));
+        registry.getAPIDefinition(API_ID);
+
+        registry.swagger.set(getSwagger("non-regulatory"));
+        registry.time.addAndGet(EXPIRY);
+        // The expired definition is served while it is refreshed
+        Assert.assertEquals(registry.getAPIDefinition(API_ID).getApiType(), "consent");
+        Assert.assertEquals(registry.getAPIDefinition(API_ID).getApiType(), "non-regulatory");
+        Assert.assertEquals(registry.loadCount.get(), 2);
+    }
+
+    @Test
+    public void testFailedRefreshKeepsAPIDefinition() {
+
+        TestAPIDefinitionRegistry registry = new TestAPIDefinitionRegistry(getSwagger("consent"));
+        APIDefinition apiDefinition = registry.getAPIDefinition(API_ID);
+
+        registry.swagger.set(null);
+        registry.refresh(API_ID);
+        Assert.assertSame(registry.getAPIDefinition(API_ID), apiDefinition);
+        Assert.assertEquals(registry.loadCount.get(), 2);
+    }
+
+    @Test
+    public void testPublishedAPIsPreloaded() {
+
+        TestAPIDefinitionRegistry registry = new TestAPIDefinitionRegistry(getSwagger("consent"));
+
+        registry.preloadPublishedAPIs();
+        Assert.assertEquals(registry.loadCount.get(), 2);
+        registry.getAPIDefinition(API_ID);
+        registry.getAPIDefinition("second-api");
+        Assert.assertEquals(registry.loadCount.get(), 2);
+    }
+
+    private static String getSwagger(String apiType) {
+
+        return "openapi: 3.0.1\n" +
+                "info:\n" +
+                "  title: TestAPI\n" +
+                "  version: \"1.0.0\"\n" +
+                "paths:\n" +
+                "  /testResource:\n" +
+                "    get:\n" +
+                "      responses:\n" +
+                "        200:\n" +
+                "          description: Success\n" +
+                "      security:\n" +
+                "      - PSUOAuth2Security:\n" +
+                "        - accounts\n" +
+                "      - default:\n" +
+                "        - accounts\n" +
+                "    post:\n" +
+                "      responses:\n" +
+                "        201:\n" +
+                "          description: Created\n" +
+                "      security:\n" +
+                "      - TPPOAuth2Security:\n" +
+                "        - payments\n" +
+                "components:\n" +
+                "  securitySchemes:\n" +
+                "    TPPOAuth2Security:\n" +
+                "      type: oauth2\n" +
+                "      flows:\n" +
+                "        clientCredentials:\n" +
+                "          tokenUrl: https://authserver.example/token\n" +
+                "          scopes:\n" +
+                "            payments: Ability to initiate payments\n" +
+                "    PSUOAuth2Security:\n" +
+                "      type: oauth2\n" +
+                "      flows:\n" +
+                "        authorizationCode:\n" +
+                "          authorizationUrl: https://authserver.example/authorization\n" +
+                "          tokenUrl: https://authserver.example/token\n" +
+                "          scopes:\n" +
+                "            accounts: Ability to read Accounts information\n" +
+                "    default:\n" +
+                "      type: oauth2\n" +
+                "      flows:\n" +
+                "        implicit:\n" +
+                "          authorizationUrl: https://test.com\n" +
+                "          scopes:\n" +
+                "            accounts: Ability to read Accounts information\n" +
+                "x-wso2-api-type: " + apiType + "\n";
+    }
+
+    /**
+     * API definition registry which returns the given swagger instead of calling the publisher and loads in the
+     * calling thread.
+     */
+    private static class TestAPIDefinitionRegistry extends APIDefinitionRegistry {
+
+        private final AtomicInteger loadCount;
+        private final AtomicReference<String> swagger;
+        private final AtomicLong time = new AtomicLong(1000000L);
+
+        TestAPIDefinitionRegistry(String swagger) {
+
+            this(swagger, new CountDownLatch(0));
+        }
+
+        TestAPIDefinitionRegistry(String swagger, CountDownLatch loadLatch) {
+
+            this(new AtomicReference<>(swagger), new AtomicInteger(), loadLatch);
+        }
+
+        private TestAPIDefinitionRegistry(AtomicReference<String> swagger, AtomicInteger loadCount,
+                                          CountDownLatch loadLatch) {
+
+            super(apiId -> {
+                loadCount.incrementAndGet();
+                try {
+                    loadLatch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (swagger.get() == null) {
+                    throw new OpenBankingRuntimeException("Failed to retrieve swagger definition from API", null);
+                }
+                return swagger.get();
+            }, () -> Arrays.asList(API_ID, "second-api"), Runnable::run, EXPIRY);
+            this.swagger = swagger;
+            this.loadCount = loadCount;
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+
+            return time.get();
+        }
+    }
+}
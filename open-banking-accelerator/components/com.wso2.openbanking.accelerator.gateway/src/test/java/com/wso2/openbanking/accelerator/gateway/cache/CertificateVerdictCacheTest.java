@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache.Verdict;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the certificate verdict cache.
+ */
+public class CertificateVerdictCacheTest {
+
+    private static final String THUMBPRINT = "thumbprint";
+
+    @Test
+    public void testNegativeVerdictCached() throws Exception {
+
+        TestCertificateVerdictCache verdictCache = new TestCertificateVerdictCache();
+        AtomicInteger checkCount = new AtomicInteger();
+
+        Assert.assertEquals(verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.REVOKED)),
+                Verdict.REVOKED);
+        Assert.assertEquals(verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.VALID)),
+                Verdict.REVOKED);
+        Assert.assertEquals(checkCount.get(), 1);
+        Assert.assertEquals(verdictCache.getMissCount(Verdict.REVOKED), 1);
+        Assert.assertEquals(verdictCache.getHitCount(Verdict.REVOKED), 1);
+    }
+
+    @Test
+    public void testVerdictExpiresWithItsOwnExpiry() throws Exception {
+
+        TestCertificateVerdictCache verdictCache = new TestCertificateVerdictCache();
+        AtomicInteger checkCount = new AtomicInteger();
+        verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.UNKNOWN));
+        verdictCache.getVerdict("valid", () -> check(checkCount, Verdict.VALID));
+
+        verdictCache.time.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        Assert.assertEquals(verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.VALID)),
+                Verdict.VALID);
+        Assert.assertEquals(verdictCache.getVerdict("valid", () -> check(checkCount, Verdict.REVOKED)),
+                Verdict.VALID);
+        Assert.assertEquals(checkCount.get(), 3);
+    }
+
+    @Test
+    public void testVerdictWithoutExpiryNotCached() throws Exception {
+
+        TestCertificateVerdictCache verdictCache = new TestCertificateVerdictCache();
+        AtomicInteger checkCount = new AtomicInteger();
+        verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.ROLE_DENIED));
+        verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.ROLE_DENIED));
+
+        Assert.assertEquals(checkCount.get(), 2);
+        Assert.assertEquals(verdictCache.getMissCount(Verdict.ROLE_DENIED), 2);
+    }
+
+    @Test(expectedExceptions = CertificateValidationException.class)
+    public void testFailedCheckNotCached() throws Exception {
+
+        TestCertificateVerdictCache verdictCache = new TestCertificateVerdictCache();
+        try {
+            verdictCache.getVerdict(THUMBPRINT, () -> {
+                throw new CertificateValidationException("OCSP responder unavailable");
+            });
+        } finally {
+            Assert.assertEquals(verdictCache.getVerdict(THUMBPRINT, () -> Verdict.VALID), Verdict.VALID);
+        }
+    }
+
+    @Test
+    public void testConcurrentLookupsCoalesced() throws Exception {
+
+        TestCertificateVerdictCache verdictCache = new TestCertificateVerdictCache();
+        AtomicInteger checkCount = new AtomicInteger();
+        CountDownLatch checkStarted = new CountDownLatch(1);
+        CountDownLatch releaseCheck = new CountDownLatch(1);
+
+        CompletableFuture<Verdict> firstLookup = CompletableFuture.supplyAsync(() ->
+                verdictCache.getVerdict(THUMBPRINT, () -> {
+                    checkStarted.countDown();
+                    try {
+                        releaseCheck.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return check(checkCount, Verdict.REVOKED);
+                }));
+        checkStarted.await();
+        CompletableFuture<Verdict> secondLookup = CompletableFuture.supplyAsync(() ->
+                verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.VALID)));
+        releaseCheck.countDown();
+
+        Assert.assertEquals(firstLookup.get(10, TimeUnit.SECONDS), Verdict.REVOKED);
+        Assert.assertEquals(secondLookup.get(10, TimeUnit.SECONDS), Verdict.REVOKED);
+        Assert.assertEquals(checkCount.get(), 1);
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+
+        TestCertificateVerdictCache verdictCache = new TestCertificateVerdictCache();
+        AtomicInteger checkCount = new AtomicInteger();
+        verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.REVOKED));
+        verdictCache.invalidate(THUMBPRINT);
+
+        Assert.assertEquals(verdictCache.getVerdict(THUMBPRINT, () -> check(checkCount, Verdict.VALID)),
+                Verdict.VALID);
+        Assert.assertEquals(checkCount.get(), 2);
+    }
+
+    private static Verdict check(AtomicInteger checkCount, Verdict verdict) {
+
+        checkCount.incrementAndGet();
+        return verdict;
+    }
+
+    /**
+     * Verdict cache with a controllable clock.
+     */
+    private static class TestCertificateVerdictCache extends CertificateVerdictCache {
+
+        private final AtomicLong time = new AtomicLong(1000000L);
+
+        TestCertificateVerdictCache() {
+
+            super("test", getExpiryMillis());
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+
+            return time.get();
+        }
+
+        private static Map<Verdict, Long> getExpiryMillis() {
+
+            Map<Verdict, Long> expiryMillis = new EnumMap<>(Verdict.class);
+            expiryMillis.put(Verdict.VALID, TimeUnit.HOURS.toMillis(1));
+            expiryMillis.put(Verdict.REVOKED, TimeUnit.HOURS.toMillis(1));
+            expiryMillis.put(Verdict.UNKNOWN, TimeUnit.MINUTES.toMillis(1));
+            return expiryMillis;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the message context store.
+ */
+public class MessageContextStoreTest {
+
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    @Test
+    public void testStoreAndRemove() {
+
+        TestMessageContextStore store = new TestMessageContextStore(10);
+        Map<String, String> contextProps = new HashMap<>();
+        contextProps.put("consentId", "1234");
+        Map<String, Object> analyticsData = new HashMap<>();
+        store.store("message-1", contextProps, analyticsData);
+
+        MessageContextStore.MessageContext messageContext = store.get("message-1");
+        Assert.assertSame(messageContext.getContextProps(), contextProps);
+        Assert.assertSame(messageContext.getAnalyticsData(), analyticsData);
+        Assert.assertSame(store.remove("message-1"), messageContext);
+        Assert.assertNull(store.get("message-1"));
+        Assert.assertEquals(store.size(), 0);
+    }
+
+    @Test
+    public void testStoreReplacesMessageContext() {
+
+        TestMessageContextStore store = new TestMessageContextStore(1);
+        store.store("message-1", new HashMap<>(), new HashMap<>());
+        Map<String, String> contextProps = new HashMap<>();
+        store.store("message-1", contextProps, new HashMap<>());
+
+        Assert.assertSame(store.get("message-1").getContextProps(), contextProps);
+        Assert.assertEquals(store.getRejectedCount(), 0);
+    }
+
+    @Test
+    public void testTimedOutMessageContextReclaimed() {
+
+        TestMessageContextStore store = new TestMessageContextStore(10);
+        store.store("message-1", new HashMap<>(), new HashMap<>());
+        store.time.addAndGet(TIMEOUT / 2);
+        store.store("message-2", new HashMap<>(), new HashMap<>());
+
+        store.time.addAndGet(TIMEOUT / 2);
+        store.store("message-3", new HashMap<>(), new HashMap<>());
+        Assert.assertNull(store.get("message-1"));
+        Assert.assertNotNull(store.get("message-2"));
+        Assert.assertNotNull(store.get("message-3"));
+        Assert.assertEquals(store.getLeakedCount(), 1);
+    }
+
+    @Test
+    public void testMessageContextRejectedWhenFull() {
+
+        TestMessageContextStore store = new TestMessageContextStore(2);
+        store.store("message-1", new HashMap<>(), new HashMap<>());
+        store.store("message-2", new HashMap<>(), new HashMap<>());
+        store.store("message-3", new HashMap<>(), new HashMap<>());
+
+        Assert.assertNull(store.get("message-3"));
+        Assert.assertEquals(store.size(), 2);
+        Assert.assertEquals(store.getRejectedCount(), 1);
+    }
+
+    @Test
+    public void testTimedOutMessageContextReclaimedWhenFull() {
+
+        TestMessageContextStore store = new TestMessageContextStore(2);
+        store.store("message-1", new HashMap<>(), new HashMap<>());
+        store.time.addAndGet(TIMEOUT * 3 / 4);
+        store.store("message-2", new HashMap<>(), new HashMap<>());
+
+        // Within half the timeout from the last reclaim, hence the first message is reclaimed since the store is full
+        store.time.addAndGet(TIMEOUT / 4);
+        store.store("message-3", new HashMap<>(), new HashMap<>());
+        Assert.assertNull(store.get("message-1"));
+        Assert.assertNotNull(store.get("message-3"));
+        Assert.assertEquals(store.getLeakedCount(), 1);
+        Assert.assertEquals(store.getRejectedCount(), 0);
+    }
+
+    @Test
+    public void testReclaimRateLimitedWhenFull() {
+
+        TestMessageContextStore store = new TestMessageContextStore(2);
+        store.store("message-1", new HashMap<>(), new HashMap<>());
+        store.time.addAndGet(TIMEOUT * 3 / 4);
+        store.store("message-2", new HashMap<>(), new HashMap<>());
+
+        // Store is full and nothing has timed out, hence the message is rejected after reclaiming
+        store.time.addAndGet(TIMEOUT / 4 - 500);
+        store.store("message-3", new HashMap<>(), new HashMap<>());
+        Assert.assertEquals(store.getRejectedCount(), 1);
+
+        // First message has timed out, but the store is not reclaimed again within a second
+        store.time.addAndGet(600);
+        store.store("message-4", new HashMap<>(), new HashMap<>());
+        Assert.assertNotNull(store.get("message-1"));
+        Assert.assertNull(store.get("message-4"));
+        Assert.assertEquals(store.getRejectedCount(), 2);
+
+        store.time.addAndGet(400);
+        store.store("message-5", new HashMap<>(), new HashMap<>());
+        Assert.assertNull(store.get("message-1"));
+        Assert.assertNotNull(store.get("message-5"));
+        Assert.assertEquals(store.getLeakedCount(), 1);
+        Assert.assertEquals(store.getRejectedCount(), 2);
+    }
+
+    /**
+     * Message context store with a controllable clock.
+     */
+    private static class TestMessageContextStore extends MessageContextStore {
+
+        private final AtomicLong time = new AtomicLong(1000000L);
+
+        TestMessageContextStore(int capacity) {
+
+            super(capacity, TIMEOUT);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+
+            return time.get();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.accelerator.gateway.executor.core;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
+import com.wso2.openbanking.accelerator.gateway.cache.APIDefinitionRegistry;
+import com.wso2.openbanking.accelerator.gateway.cache.MessageContextStore;
+import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIRequestContext;
+import com.wso2.openbanking.accelerator.gateway.executor.model.OBAPIResponseContext;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayUtils;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.powermock.reflect.internal.WhiteboxImpl;
+import org.wso2.carbon.apimgt.common.gateway.dto.APIRequestInfoDTO;
+import org.wso2.carbon.apimgt.common.gateway.dto.MsgInfoDTO;
+import org.wso2.carbon.apimgt.common.gateway.dto.RequestContextDTO;
+import org.wso2.carbon.apimgt.common.gateway.extensionlistener.PayloadHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the request path of the open banking extension listener with 1 KB, 100 KB and 1 MB payloads.
+ *
+ * The request router returns executors which read the consent ID, the parsed payload and the payload bytes from
+ * the request context, as the consent enforcement, reporting and JWS executors do. The perExecutorParsing
+ * benchmark repeats the token decoding and payload parsing once per executor, as each executor did before the
+ * request context shared them. Run with the gc profiler (-prof gc) to compare allocation per operation.
+ * Not part of the test suite. Run the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OBExtensionListenerBenchmark {
+
+    private static final String API_ID = "7b8dc9a1-d4e0-4bc3-a1a6-1e4c2e1d9f11";
+    private static final String SWAGGER = "openapi: 3.0.1\n" +
+            "info:\n" +
+            "  title: TestAPI\n" +
+            "  version: \"1.0.0\"\n" +
+            "paths:\n" +
+            "  /domestic-payments:\n" +
+            "    post:\n" +
+            "      responses:\n" +
+            "        201:\n" +
+            "          description: Created\n";
+
+    @Param({"1024", "102400", "1048576"})
+    private int payloadSize;
+
+    private OBExtensionListenerImpl obExtensionListener;
+    private RequestContextDTO requestContextDTO;
+    private String authHeader;
+    private String payload;
+
+    @Setup
+    public void setup() throws Exception {
+
+        WhiteboxImpl.setInternalState(APIDefinitionRegistry.class, "instance",
+                new APIDefinitionRegistry(apiId -> SWAGGER, Collections::emptyList, Runnable::run, Long.MAX_VALUE) {
+                });
+        WhiteboxImpl.setInternalState(MessageContextStore.class, "instance",
+                new MessageContextStore(10000, TimeUnit.MINUTES.toMillis(5)) {
+                });
+
+        Map<String, Object> configurations = new HashMap<>();
+        configurations.put(GatewayConstants.CONSENT_ID_CLAIM_NAME, "consent_id");
+        OpenBankingConfigurationService configurationService = Mockito.mock(OpenBankingConfigurationService.class);
+        Mockito.when(configurationService.getConfigurations()).thenReturn(configurations);
+        WhiteboxImpl.setInternalState(GatewayDataHolder.getInstance(), "openBankingConfigurationService",
+                configurationService);
+        GatewayDataHolder.getInstance().setRequestRouter(new BenchmarkRequestRouter());
+        obExtensionListener = new OBExtensionListenerImpl();
+
+        StringBuilder payloadBuilder = new StringBuilder("{\"Data\":{\"Initiation\":[");
+        while (payloadBuilder.length() < payloadSize - 64) {
+            payloadBuilder.append("{\"InstructedAmount\":{\"Amount\":\"165.88\",\"Currency\":\"GBP\"}},");
+        }
+        payload = payloadBuilder.append("{}]}}").toString();
+        authHeader = GatewayConstants.BEARER_TAG + encode("{\"alg\":\"PS256\",\"kid\":\"1234\"}") + "." +
+                encode("{\"consent_id\":\"2a5b7c19-9d4e-4f5a-8b6c-1d2e3f4a5b6c\",\"aut\":\"APPLICATION_USER\"}") +
+                ".c2lnbmF0dXJl";
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(GatewayConstants.CONTENT_TYPE_TAG, GatewayConstants.JSON_CONTENT_TYPE);
+        headers.put(GatewayConstants.AUTH_HEADER, authHeader);
+        PayloadHandler payloadHandler = Mockito.mock(PayloadHandler.class);
+        Mockito.when(payloadHandler.consumeAsString()).thenReturn(payload);
+        MsgInfoDTO msgInfoDTO = new MsgInfoDTO();
+        msgInfoDTO.setHeaders(headers);
+        msgInfoDTO.setHttpMethod("POST");
+        msgInfoDTO.setElectedResource("/domestic-payments");
+        msgInfoDTO.setResource("/domestic-payments");
+        msgInfoDTO.setMessageId("urn:uuid:5d5d8f3e-7a9c-4b1e-9f7d-3c2b1a0e9d8c");
+        msgInfoDTO.setPayloadHandler(payloadHandler);
+        APIRequestInfoDTO apiRequestInfoDTO = new APIRequestInfoDTO();
+        apiRequestInfoDTO.setApiId(API_ID);
+        requestContextDTO = new RequestContextDTO();
+        requestContextDTO.setMsgInfo(msgInfoDTO);
+        requestContextDTO.setApiRequestInfo(apiRequestInfoDTO);
+    }
+
+    @Benchmark
+    public void extensionListener(Blackhole blackhole) {
+
+        blackhole.consume(obExtensionListener.preProcessRequest(requestContextDTO));
+        blackhole.consume(obExtensionListener.postProcessRequest(requestContextDTO));
+    }
+
+    @Benchmark
+    public void perExecutorParsing(Blackhole blackhole) throws Exception {
+
+        for (int i = 0; i < BenchmarkRequestRouter.EXECUTOR_COUNT; i++) {
+            String token = authHeader.replace(GatewayConstants.BEARER_TAG, "");
+            blackhole.consume(GatewayUtils.isValidJWTToken(token));
+            blackhole.consume(GatewayUtils.decodeBase64(GatewayUtils.getPayloadFromJWT(token)));
+            String requestPayload = requestContextDTO.getMsgInfo().getPayloadHandler().consumeAsString();
+            blackhole.consume(new JSONObject(requestPayload));
+            blackhole.consume(requestPayload.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(OBExtensionListenerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static String encode(String value) {
+
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Request router returning executors which read the request the way the accelerator executors do.
+     */
+    private static class BenchmarkRequestRouter extends AbstractRequestRouter {
+
+        private static final int EXECUTOR_COUNT = 3;
+        private static final List<OpenBankingGatewayExecutor> EXECUTORS =
+                Arrays.asList(new ConsentReadingExecutor(), new PayloadReadingExecutor(),
+                        new PayloadBytesReadingExecutor());
+
+        @Override
+        public List<OpenBankingGatewayExecutor> getExecutorsForRequest(OBAPIRequestContext requestContext) {
+
+            return EXECUTORS;
+        }
+
+        @Override
+        public List<OpenBankingGatewayExecutor> getExecutorsForResponse(OBAPIResponseContext requestContext) {
+
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Reads the consent ID, as the reporting executor does.
+     */
+    private static class ConsentReadingExecutor extends NoOpExecutor {
+
+        @Override
+        public void preProcessRequest(OBAPIRequestContext obapiRequestContext) {
+
+            obapiRequestContext.addContextProperty("consentId", obapiRequestContext.getConsentId());
+        }
+
+        @Override
+        public void postProcessRequest(OBAPIRequestContext obapiRequestContext) {
+
+            obapiRequestContext.addContextProperty("consentId", obapiRequestContext.getConsentId());
+        }
+    }
+
+    /**
+     * Reads the consent ID and the parsed payload, as the consent enforcement executor does.
+     */
+    private static class PayloadReadingExecutor extends NoOpExecutor {
+
+        @Override
+        public void postProcessRequest(OBAPIRequestContext obapiRequestContext) {
+
+            JSONObject validationRequest = new JSONObject();
+            validationRequest.put("consentId", obapiRequestContext.getConsentId());
+            validationRequest.put("body", obapiRequestContext.getPayloadJSON());
+            obapiRequestContext.addContextProperty("validationRequestLength",
+                    String.valueOf(validationRequest.length()));
+        }
+    }
+
+    /**
+     * Reads the payload bytes, as the JWS signature executors do.
+     */
+    private static class PayloadBytesReadingExecutor extends NoOpExecutor {
+
+        @Override
+        public void postProcessRequest(OBAPIRequestContext obapiRequestContext) {
+
+            obapiRequestContext.addContextProperty("payloadLength",
+                    String.valueOf(obapiRequestContext.getRequestPayloadBytes().length));
+        }
+    }
+
+    /**
+     * Executor which does nothing unless overridden.
+     */
+    private static class NoOpExecutor implements OpenBankingGatewayExecutor {
+
+        @Override
+        public void preProcessRequest(OBAPIRequestContext obapiRequestContext) {
+
+        }
+
+        @Override
+        public void postProcessRequest(OBAPIRequestContext obapiRequestContext) {
+
+        }
+
+        @Override
+        public void preProcessResponse(OBAPIResponseContext obapiResponseContext) {
+
+        }
+
+        @Override
+        public void postProcessResponse(OBAPIResponseContext obapiResponseContext) {
+
+        }
+    }
+}
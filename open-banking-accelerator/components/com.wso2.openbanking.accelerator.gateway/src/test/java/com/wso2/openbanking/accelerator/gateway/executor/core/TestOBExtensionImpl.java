@@ -32,6 +32,7 @@ import org.wso2.carbon.apimgt.common.gateway.dto.ExtensionResponseDTO;
 import org.wso2.carbon.apimgt.common.gateway.dto.ExtensionResponseStatus;
 import org.wso2.carbon.apimgt.common.gateway.dto.MsgInfoDTO;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -123,6 +124,8 @@ public class TestOBExtensionImpl {
         obapiResponseContext = Mockito.mock(OBAPIResponseContext.class);
         Mockito.when(obapiRequestContext.isError()).thenReturn(false);
         Mockito.when(obapiRequestContext.getModifiedPayload()).thenReturn(TestConstants.CUSTOM_PAYLOAD);
+        Mockito.when(obapiRequestContext.getModifiedPayloadBytes())
+                .thenReturn(TestConstants.CUSTOM_PAYLOAD.getBytes(StandardCharsets.UTF_8));
         Mockito.when(obapiRequestContext.getAddedHeaders()).thenReturn(new HashMap<>());
 
         ExtensionResponseDTO responseDTOForRequest = obExtensionListener.getResponseDTOForRequest(obapiRequestContext);
@@ -154,6 +157,8 @@ public class TestOBExtensionImpl {
         JSONObject errorJSON = new JSONObject();
         errorJSON.put("error", true);
         Mockito.when(obapiRequestContext.getModifiedPayload()).thenReturn(errorJSON.toString());
+        Mockito.when(obapiRequestContext.getModifiedPayloadBytes())
+                .thenReturn(errorJSON.toString().getBytes(StandardCharsets.UTF_8));
         Mockito.when(obapiRequestContext.getAddedHeaders()).thenReturn(new HashMap<>());
 
         obapiResponseContext = Mockito.mock(OBAPIResponseContext.class);
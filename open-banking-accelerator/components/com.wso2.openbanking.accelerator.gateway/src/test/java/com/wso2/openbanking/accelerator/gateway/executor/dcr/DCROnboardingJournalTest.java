@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.dcr;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test for the DCR onboarding journal.
+ */
+public class DCROnboardingJournalTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @AfterClass
+    public void tearDown() {
+
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testStepLatenciesRecorded() throws Exception {
+
+        DCROnboardingJournal journal = new DCROnboardingJournal("client_id");
+        Assert.assertEquals(journal.execute("devportal token", () -> "token"), "token");
+        CompletableFuture<String> keyMapping = journal.executeAsync("key mapping", () -> "mapped", executorService);
+        DCROnboardingJournal.await(keyMapping);
+
+        Assert.assertEquals(keyMapping.join(), "mapped");
+        Assert.assertTrue(journal.getStepLatencies().keySet().containsAll(Arrays.asList("devportal token",
+                "key mapping")));
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testStepWithoutResponseFails() throws Exception {
+
+        new DCROnboardingJournal("client_id").execute("application creation", () -> null);
+    }
+
+    @Test
+    public void testAsyncStepFailureRethrown() {
+
+        DCROnboardingJournal journal = new DCROnboardingJournal("client_id");
+        CompletableFuture<String> keyMapping = journal.executeAsync("key mapping", () -> {
+            throw new IOException("Connection refused");
+        }, executorService);
+        CompletableFuture<String> subscription = journal.executeAsync("API subscription", () -> "subscribed",
+                executorService);
+        try {
+            DCROnboardingJournal.await(keyMapping, subscription);
+            Assert.fail("Expected the key mapping to fail");
+        } catch (Exception e) {
+            Assert.assertTrue(e instanceof IOException);
+        }
+        Assert.assertTrue(subscription.isDone());
+    }
+
+    @Test
+    public void testCompensatedInReverseOrder() {
+
+        List<String> deletedResources = new ArrayList<>();
+        DCROnboardingJournal journal = new DCROnboardingJournal("client_id");
+        journal.recordCreated("service provider", "client_id", () -> deletedResources.add("client_id"));
+        journal.recordCreated("AM application", "application_id", () -> deletedResources.add("application_id"));
+
+        Assert.assertTrue(journal.compensate());
+        Assert.assertEquals(deletedResources, Arrays.asList("application_id", "client_id"));
+    }
+
+    @Test
+    public void testFailedCompensationReported() {
+
+        List<String> deletedResources = new ArrayList<>();
+        DCROnboardingJournal journal = new DCROnboardingJournal("client_id");
+        journal.recordCreated("service provider", "client_id", () -> deletedResources.add("client_id"));
+        journal.recordCreated("AM application", "application_id", () -> {
+            throw new IOException("Connection refused");
+        });
+
+        Assert.assertFalse(journal.compensate());
+        Assert.assertEquals(deletedResources, Arrays.asList("client_id"));
+    }
+
+    @Test
+    public void testCompletedRegistrationNotCompensated() {
+
+        List<String> deletedResources = new ArrayList<>();
+        DCROnboardingJournal journal = new DCROnboardingJournal("client_id");
+        journal.recordCreated("service provider", "client_id", () -> deletedResources.add("client_id"));
+        journal.complete();
+
+        Assert.assertTrue(journal.compensate());
+        Assert.assertTrue(deletedResources.isEmpty());
+    }
+}
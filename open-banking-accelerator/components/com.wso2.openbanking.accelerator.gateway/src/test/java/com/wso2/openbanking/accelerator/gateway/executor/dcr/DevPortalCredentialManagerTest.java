@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.dcr;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the devportal credential manager.
+ */
+public class DevPortalCredentialManagerTest {
+
+    private static final long PUBLISHED_API_CACHE_EXPIRY = TimeUnit.MINUTES.toMillis(1);
+    private static final String REGISTRATION_RESPONSE = "{\"client_id\":\"invoker_client_id\"," +
+            "\"client_secret\":\"invoker_client_secret\"}";
+    private static final String TOKEN_RESPONSE = "{\"access_token\":\"devportal_token\",\"expires_in\":3600}";
+    private static final String PUBLISHED_API_RESPONSE = "{\"count\":1,\"list\":[{\"id\":\"01234567-0123\"," +
+            "\"name\":\"AccountandTransactionAPI\"}]}";
+
+    @Test
+    public void testAccessTokenReused() throws Exception {
+
+        TestDevPortalClient devPortalClient = new TestDevPortalClient();
+        TestDevPortalCredentialManager credentialManager = new TestDevPortalCredentialManager();
+
+        Assert.assertEquals(credentialManager.getAccessToken(devPortalClient), "devportal_token");
+        Assert.assertEquals(credentialManager.getAccessToken(devPortalClient), "devportal_token");
+        Assert.assertEquals(devPortalClient.registrationCount.get(), 1);
+        Assert.assertEquals(devPortalClient.tokenRequestCount.get(), 1);
+    }
+
+    @Test
+    public void testExpiredAccessTokenRenewed() throws Exception {
+
+        TestDevPortalClient devPortalClient = new TestDevPortalClient();
+        TestDevPortalCredentialManager credentialManager = new TestDevPortalCredentialManager();
+        credentialManager.getAccessToken(devPortalClient);
+
+        credentialManager.time.addAndGet(TimeUnit.HOURS.toMillis(1));
+        credentialManager.getAccessToken(devPortalClient);
+        Assert.assertEquals(devPortalClient.registrationCount.get(), 1);
+        Assert.assertEquals(devPortalClient.tokenRequestCount.get(), 2);
+    }
+
+    @Test
+    public void testInvokerRegisteredAgainWhenTokenRequestFails() throws Exception {
+
+        TestDevPortalClient devPortalClient = new TestDevPortalClient();
+        TestDevPortalCredentialManager credentialManager = new TestDevPortalCredentialManager();
+        credentialManager.getAccessToken(devPortalClient);
+        credentialManager.invalidateAccessToken();
+
+        devPortalClient.tokenRequestFailures.set(1);
+        Assert.assertEquals(credentialManager.getAccessToken(devPortalClient), "devportal_token");
+        Assert.assertEquals(devPortalClient.registrationCount.get(), 2);
+        Assert.assertEquals(devPortalClient.deletedInvokers.size(), 1);
+    }
+
+    @Test(expectedExceptions = OpenBankingException.class)
+    public void testAccessTokenNotObtained() throws Exception {
+
+        TestDevPortalClient devPortalClient = new TestDevPortalClient();
+        devPortalClient.tokenRequestFailures.set(1);
+
+        new TestDevPortalCredentialManager().getAccessToken(devPortalClient);
+    }
+
+    @Test
+    public void testPublishedAPIsCached() throws Exception {
+
+        TestDevPortalClient devPortalClient = new TestDevPortalClient();
+        TestDevPortalCredentialManager credentialManager = new TestDevPortalCredentialManager();
+
+        Assert.assertEquals(credentialManager.getPublishedAPIs(devPortalClient, "devportal_token").size(), 1);
+        credentialManager.getPublishedAPIs(devPortalClient, "devportal_token");
+        Assert.assertEquals(devPortalClient.publishedAPIRequestCount.get(), 1);
+
+        credentialManager.time.addAndGet(PUBLISHED_API_CACHE_EXPIRY);
+        credentialManager.getPublishedAPIs(devPortalClient, "devportal_token");
+        Assert.assertEquals(devPortalClient.publishedAPIRequestCount.get(), 2);
+    }
+
+    @Test
+    public void testReleaseDeletesInvoker() throws Exception {
+
+        TestDevPortalClient devPortalClient = new TestDevPortalClient();
+        TestDevPortalCredentialManager credentialManager = new TestDevPortalCredentialManager();
+        credentialManager.getAccessToken(devPortalClient);
+
+        credentialManager.release(devPortalClient);
+        Assert.assertEquals(devPortalClient.deletedInvokers.get(0), "invoker_client_id");
+
+        credentialManager.getAccessToken(devPortalClient);
+        Assert.assertEquals(devPortalClient.registrationCount.get(), 2);
+    }
+
+    /**
+     * Devportal client which returns fixed responses and counts the invocations.
+     */
+    private static class TestDevPortalClient implements DevPortalCredentialManager.DevPortalClient {
+
+        private final AtomicInteger registrationCount = new AtomicInteger();
+        private final AtomicInteger tokenRequestCount = new AtomicInteger();
+        private final AtomicInteger tokenRequestFailures = new AtomicInteger();
+        private final AtomicInteger publishedAPIRequestCount = new AtomicInteger();
+        private final List<String> deletedInvokers = new ArrayList<>();
+
+        @Override
+        public JsonElement registerInvoker(String invokerId) {
+
+            registrationCount.incrementAndGet();
+            return new JsonParser().parse(REGISTRATION_RESPONSE);
+        }
+
+        @Override
+        public JsonElement requestToken(String clientId, String clientSecret) {
+
+            tokenRequestCount.incrementAndGet();
+            if (tokenRequestFailures.getAndUpdate(failures -> Math.max(failures - 1, 0)) > 0) {
+                return new JsonParser().parse("{}");
+            }
+            return new JsonParser().parse(TOKEN_RESPONSE);
+        }
+
+        @Override
+        public JsonElement retrievePublishedAPIs(String accessToken) {
+
+            publishedAPIRequestCount.incrementAndGet();
+            return new JsonParser().parse(PUBLISHED_API_RESPONSE);
+        }
+
+        @Override
+        public boolean deleteInvoker(String clientId) {
+
+            deletedInvokers.add(clientId);
+            return true;
+        }
+    }
+
+    /**
+     * Devportal credential manager with a controllable clock.
+     */
+    private static class TestDevPortalCredentialManager extends DevPortalCredentialManager {
+
+        private final AtomicLong time = new AtomicLong(1000000L);
+
+        TestDevPortalCredentialManager() {
+
+            super(PUBLISHED_API_CACHE_EXPIRY);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+
+            return time.get();
+        }
+    }
+}
@@ -21,12 +21,14 @@ package com.wso2.openbanking.accelerator.gateway.executor.impl.mtls.cert.validat
 import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.util.CertificateUtils;
-import com.wso2.openbanking.accelerator.gateway.cache.CertificateRevocationCache;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache.Verdict;
+import com.wso2.openbanking.accelerator.gateway.executor.model.RevocationStatus;
 import com.wso2.openbanking.accelerator.gateway.executor.service.CertValidationService;
 import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
 import com.wso2.openbanking.accelerator.gateway.executor.util.TestValidationUtil;
 import com.wso2.openbanking.accelerator.gateway.internal.TPPCertValidatorDataHolder;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -43,13 +45,16 @@ import org.testng.annotations.Test;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test cases for MTLSCertValidationExecutor class.
  */
 @PowerMockIgnore("jdk.internal.reflect.*")
 @PrepareForTest({CertificateValidationUtils.class, TPPCertValidatorDataHolder.class,
-        CertValidationService.class, CertificateRevocationCache.class})
+        CertValidationService.class, CertificateVerdictCache.class})
 public class CertRevocationValidationExecutorTest {
 
     CertRevocationValidationExecutor certRevocationValidationExecutor;
@@ -87,10 +92,9 @@ public class CertRevocationValidationExecutorTest {
 
     @Test(description = "When certificate validation success, then should return false")
     public void testIsCertRevokedWithNonCachedCert() throws Exception {
-        CertificateRevocationCache mock = Mockito.mock(CertificateRevocationCache.class);
-        PowerMockito.mockStatic(CertificateRevocationCache.class);
-        PowerMockito.when(CertificateRevocationCache.getInstance())
-                .thenReturn(mock);
+        PowerMockito.mockStatic(CertificateVerdictCache.class);
+        PowerMockito.when(CertificateVerdictCache.getRevocationInstance())
+                .thenReturn(getVerdictCache());
 
         boolean isCertRevoked = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
                 "isCertRevoked", testPeerCertificate);
@@ -99,17 +103,35 @@ public class CertRevocationValidationExecutorTest {
 
     @Test(description = "When cached certificate provided, then return false")
     public void testIsCertRevokedWithCachedCert() throws Exception {
-        CertificateRevocationCache mock = Mockito.mock(CertificateRevocationCache.class);
-        Mockito.doReturn(true).when(mock).getFromCache(Mockito.any(GatewayCacheKey.class));
+        CertificateVerdictCache verdictCache = getVerdictCache();
+        verdictCache.getVerdict(DigestUtils.sha256Hex(testPeerCertificate.getEncoded()), () -> Verdict.VALID);
 
-        PowerMockito.mockStatic(CertificateRevocationCache.class);
-        PowerMockito.when(CertificateRevocationCache.getInstance())
-                .thenReturn(mock);
+        PowerMockito.mockStatic(CertificateVerdictCache.class);
+        PowerMockito.when(CertificateVerdictCache.getRevocationInstance())
+                .thenReturn(verdictCache);
 
         boolean isCertRevoked = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
                 "isCertRevoked", testPeerCertificate);
 
         Assert.assertFalse(isCertRevoked);
+        Assert.assertEquals(verdictCache.getHitCount(Verdict.VALID), 1);
+    }
+
+    @Test(description = "When revoked certificate is cached, then return true without validating again")
+    public void testIsCertRevokedWithCachedRevokedCert() throws Exception {
+        CertificateVerdictCache verdictCache = getVerdictCache();
+        verdictCache.getVerdict(DigestUtils.sha256Hex(testPeerCertificate.getEncoded()), () -> Verdict.REVOKED);
+
+        PowerMockito.mockStatic(CertificateVerdictCache.class);
+        PowerMockito.when(CertificateVerdictCache.getRevocationInstance())
+                .thenReturn(verdictCache);
+
+        boolean isCertRevoked = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "isCertRevoked", testPeerCertificate);
+
+        Assert.assertTrue(isCertRevoked);
+        Assert.assertEquals(verdictCache.getHitCount(Verdict.REVOKED), 1);
+        Assert.assertEquals(verdictCache.getMissCount(Verdict.REVOKED), 1);
     }
 
     @Test(description = "When self signed certificate provided, then should return true")
@@ -120,10 +142,10 @@ public class CertRevocationValidationExecutorTest {
         PowerMockito.when(TPPCertValidatorDataHolder.getInstance())
                 .thenReturn(tppCertValidatorDataHolder);
 
-        boolean isCertRevocationSuccess = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
-                "isCertRevocationSuccess", expiredPeerCertificate);
+        Verdict verdict = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "getRevocationVerdict", expiredPeerCertificate);
 
-        Assert.assertTrue(isCertRevocationSuccess);
+        Assert.assertEquals(verdict, Verdict.VALID);
     }
 
     @Test(description = "When isCertificateRevocationValidationEnabled is false, then should return true")
@@ -134,10 +156,10 @@ public class CertRevocationValidationExecutorTest {
         PowerMockito.when(TPPCertValidatorDataHolder.getInstance())
                 .thenReturn(tppCertValidatorDataHolder);
 
-        boolean isCertRevocationSuccess = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
-                "isCertRevocationSuccess", expiredPeerCertificate);
+        Verdict verdict = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "getRevocationVerdict", expiredPeerCertificate);
 
-        Assert.assertTrue(isCertRevocationSuccess);
+        Assert.assertEquals(verdict, Verdict.VALID);
     }
 
     @Test(description = "When certificate issuer is in excluded list, then should return true")
@@ -150,10 +172,10 @@ public class CertRevocationValidationExecutorTest {
         PowerMockito.when(TPPCertValidatorDataHolder.getInstance())
                 .thenReturn(tppCertValidatorDataHolder);
 
-        boolean isCertRevocationSuccess = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
-                "isCertRevocationSuccess", eidasPeerCertificate);
+        Verdict verdict = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "getRevocationVerdict", eidasPeerCertificate);
 
-        Assert.assertTrue(isCertRevocationSuccess);
+        Assert.assertEquals(verdict, Verdict.VALID);
     }
 
     @Test(description = "When peer certificate is valid, then should return true")
@@ -171,23 +193,23 @@ public class CertRevocationValidationExecutorTest {
         PowerMockito.when(CertificateValidationUtils.getIssuerCertificateFromTruststore(
                 Mockito.any(X509Certificate.class))).thenReturn(testPeerCertificateIssuer);
 
-        Mockito.when(certValidationService.verify(Mockito.any(X509Certificate.class),
+        Mockito.when(certValidationService.getRevocationStatus(Mockito.any(X509Certificate.class),
                 Mockito.any(X509Certificate.class), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt(),
-                Mockito.anyInt())).thenReturn(true);
+                Mockito.anyInt())).thenReturn(RevocationStatus.GOOD);
 
         PowerMockito.mockStatic(CertValidationService.class);
         PowerMockito
                 .when(CertValidationService.getInstance())
                 .thenReturn(certValidationService);
 
-        boolean isCertRevocationSuccess = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
-                "isCertRevocationSuccess", testPeerCertificate);
+        Verdict verdict = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "getRevocationVerdict", testPeerCertificate);
 
-        Assert.assertTrue(isCertRevocationSuccess);
+        Assert.assertEquals(verdict, Verdict.VALID);
     }
 
-    @Test(description = "When peer certificate is invalid, then should throw CertificateValidationException")
-    public void testIsCertRevocationSuccessWithInValidCert() throws Exception {
+    @Test(description = "When peer certificate is revoked, then should return revoked verdict")
+    public void testIsCertRevocationSuccessWithRevokedCert() throws Exception {
         Mockito.when(tppCertValidatorDataHolder.getCertificateRevocationValidationExcludedIssuers())
                 .thenReturn(Collections.singletonList(""));
         Mockito.when(tppCertValidatorDataHolder.isCertificateRevocationValidationEnabled()).thenReturn(true);
@@ -197,18 +219,45 @@ public class CertRevocationValidationExecutorTest {
                 .when(TPPCertValidatorDataHolder.getInstance())
                 .thenReturn(tppCertValidatorDataHolder);
 
-        Mockito.when(certValidationService.verify(Mockito.any(X509Certificate.class),
-                Mockito.any(X509Certificate.class), Mockito.anyInt())).thenReturn(true);
+        PowerMockito.mockStatic(CertificateValidationUtils.class);
+        PowerMockito.when(CertificateValidationUtils.getIssuerCertificateFromTruststore(
+                Mockito.any(X509Certificate.class))).thenReturn(testPeerCertificateIssuer);
+
+        Mockito.when(certValidationService.getRevocationStatus(Mockito.any(X509Certificate.class),
+                Mockito.any(X509Certificate.class), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn(RevocationStatus.REVOKED);
 
         PowerMockito.mockStatic(CertValidationService.class);
         PowerMockito
                 .when(CertValidationService.getInstance())
                 .thenReturn(certValidationService);
 
-        boolean isCertRevocationSuccess = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
-                "isCertRevocationSuccess", testPeerCertificate);
+        Verdict verdict = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "getRevocationVerdict", testPeerCertificate);
+
+        Assert.assertEquals(verdict, Verdict.REVOKED);
+    }
+
+    @Test(description = "When issuer certificate cannot be retrieved, then should return unknown verdict")
+    public void testIsCertRevocationSuccessWithUnknownIssuer() throws Exception {
+        Mockito.when(tppCertValidatorDataHolder.getCertificateRevocationValidationExcludedIssuers())
+                .thenReturn(Collections.singletonList(""));
+        Mockito.when(tppCertValidatorDataHolder.isCertificateRevocationValidationEnabled()).thenReturn(true);
+
+        PowerMockito.mockStatic(TPPCertValidatorDataHolder.class);
+        PowerMockito
+                .when(TPPCertValidatorDataHolder.getInstance())
+                .thenReturn(tppCertValidatorDataHolder);
+
+        PowerMockito.mockStatic(CertificateValidationUtils.class);
+        PowerMockito.when(CertificateValidationUtils.getIssuerCertificateFromTruststore(
+                Mockito.any(X509Certificate.class)))
+                .thenThrow(new CertificateValidationException("Issuer certificate not found in truststore"));
+
+        Verdict verdict = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "getRevocationVerdict", testPeerCertificate);
 
-        Assert.assertFalse(isCertRevocationSuccess);
+        Assert.assertEquals(verdict, Verdict.UNKNOWN);
     }
 
     @Test(description = "When certificate revocation validation not configured, then should return true")
@@ -220,10 +269,16 @@ public class CertRevocationValidationExecutorTest {
                 .when(TPPCertValidatorDataHolder.getInstance())
                 .thenReturn(tppCertValidatorDataHolder);
 
-        boolean isCertRevocationSuccess = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
-                "isCertRevocationSuccess", testPeerCertificate);
+        Verdict verdict = WhiteboxImpl.invokeMethod(this.certRevocationValidationExecutor,
+                "getRevocationVerdict", testPeerCertificate);
 
-        Assert.assertTrue(isCertRevocationSuccess);
+        Assert.assertEquals(verdict, Verdict.VALID);
     }
 
+    private static CertificateVerdictCache getVerdictCache() {
+        Map<Verdict, Long> expiryMillis = new EnumMap<>(Verdict.class);
+        expiryMillis.put(Verdict.VALID, TimeUnit.HOURS.toMillis(1));
+        expiryMillis.put(Verdict.REVOKED, TimeUnit.HOURS.toMillis(1));
+        return new CertificateVerdictCache("test", expiryMillis) { };
+    }
 }
@@ -19,6 +19,8 @@
 package com.wso2.openbanking.accelerator.gateway.executor.impl.tpp.validation.executor;
 
 import com.wso2.openbanking.accelerator.common.model.PSD2RoleEnum;
+import com.wso2.openbanking.accelerator.gateway.executor.model.APIResourceDescriptor;
+import com.wso2.openbanking.accelerator.gateway.executor.util.ScopeRoleTable;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
@@ -29,6 +31,7 @@ import org.testng.annotations.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -58,27 +61,60 @@ public class APITPPValidationExecutorTest {
     }
 
     @Test(description = "when valid scopes provided, then requiredPSD2Roles list should contain roles")
-    public void testGetRolesFromScopesWithValidScopes() throws Exception {
+    public void testGetRolesFromScopesWithValidScopes() {
         Set<String> scopes = new HashSet<>();
         scopes.add("accounts");
         scopes.add("payments");
 
-        List<PSD2RoleEnum> roleList = WhiteboxImpl.invokeMethod(this.apitppValidationExecutor,
-                "getRolesFromScopes", allowedScopes, scopes);
+        Set<PSD2RoleEnum> roles = ScopeRoleTable.of(allowedScopes).getRoles(scopes);
 
-        Assert.assertTrue(roleList.size() != 0);
-        Assert.assertTrue(roleList.contains(PSD2RoleEnum.AISP));
+        Assert.assertEquals(roles, EnumSet.of(PSD2RoleEnum.AISP, PSD2RoleEnum.PISP));
     }
 
     @Test(description = "when invalid scopes provided, then requiredPSD2Roles list should be empty")
-    public void testGetRolesFromScopesWithInvalidScopes() throws Exception {
+    public void testGetRolesFromScopesWithInvalidScopes() {
         Set<String> scopes = new HashSet<>();
         scopes.add("default");
 
-        List<PSD2RoleEnum> roleList = WhiteboxImpl.invokeMethod(this.apitppValidationExecutor,
-                "getRolesFromScopes", allowedScopes, scopes);
+        Set<PSD2RoleEnum> roles = ScopeRoleTable.of(allowedScopes).getRoles(scopes);
 
-        Assert.assertEquals(roleList.size(), 0);
+        Assert.assertEquals(roles.size(), 0);
+    }
+
+    @Test(description = "when scopes differ in case from the configuration, then roles of the scopes should return")
+    public void testGetRolesFromScopesIgnoresCase() {
+
+        Set<PSD2RoleEnum> roles = ScopeRoleTable.of(allowedScopes).getRoles(Collections.singleton("PAYMENTS"));
+
+        Assert.assertEquals(roles, EnumSet.of(PSD2RoleEnum.PISP));
+    }
+
+    @Test(description = "when the resource descriptor is used, then required roles should be resolved once per table")
+    public void testRequiredRolesOfResourceDescriptor() {
+        APIResourceDescriptor descriptor = new APIResourceDescriptor(Collections.emptyList(),
+                new HashSet<>(Arrays.asList("payments", "accounts")), null);
+        ScopeRoleTable scopeRoleTable = ScopeRoleTable.of(allowedScopes);
+
+        List<PSD2RoleEnum> roles = descriptor.getRequiredPSD2Roles(scopeRoleTable);
+
+        Assert.assertEquals(roles, Arrays.asList(PSD2RoleEnum.AISP, PSD2RoleEnum.PISP));
+        Assert.assertSame(descriptor.getRequiredPSD2Roles(ScopeRoleTable.of(allowedScopes)), roles);
+    }
+
+    @Test(description = "when the allowed scopes configuration changes, then required roles should be rebuilt")
+    public void testRequiredRolesRebuiltOnConfigChange() {
+        APIResourceDescriptor descriptor = new APIResourceDescriptor(Collections.emptyList(),
+                Collections.singleton("payments"), null);
+        Assert.assertEquals(descriptor.getRequiredPSD2Roles(ScopeRoleTable.of(allowedScopes)),
+                Collections.singletonList(PSD2RoleEnum.PISP));
+
+        Map<String, List<String>> updatedScopes = new HashMap<>(allowedScopes);
+        updatedScopes.put("payments", Arrays.asList("PISP", "CBPII"));
+        ScopeRoleTable updatedTable = ScopeRoleTable.of(updatedScopes);
+
+        Assert.assertFalse(updatedTable.isBuiltFrom(allowedScopes));
+        Assert.assertEquals(descriptor.getRequiredPSD2Roles(updatedTable),
+                Arrays.asList(PSD2RoleEnum.PISP, PSD2RoleEnum.CBPII));
     }
 
     @Test(description = "when security requirement provided for GET API, then set of scopes should return")
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package com.wso2.openbanking.accelerator.gateway.executor.model;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigurationService;
+import com.wso2.openbanking.accelerator.gateway.cache.APIDefinitionRegistry;
+import com.wso2.openbanking.accelerator.gateway.internal.GatewayDataHolder;
+import com.wso2.openbanking.accelerator.gateway.util.GatewayConstants;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+import org.powermock.reflect.internal.WhiteboxImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.apimgt.common.gateway.dto.APIRequestInfoDTO;
+import org.wso2.carbon.apimgt.common.gateway.dto.MsgInfoDTO;
+import org.wso2.carbon.apimgt.common.gateway.dto.RequestContextDTO;
+import org.wso2.carbon.apimgt.common.gateway.extensionlistener.PayloadHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for the open banking executor request context.
+ */
+public class OBAPIRequestContextTest {
+
+    private static final String PAYLOAD = "{\"Data\":{\"Permissions\":[\"ReadAccountsBasic\"]}}";
+    private static final String SWAGGER = "openapi: 3.0.1\n" +
+            "info:\n" +
+            "  title: TestAPI\n" +
+            "  version: \"1.0.0\"\n" +
+            "paths:\n" +
+            "  /account-access-consents:\n" +
+            "    post:\n" +
+            "      responses:\n" +
+            "        201:\n" +
+            "          description: Created\n";
+
+    private OpenBankingConfigurationService initialConfigurationService;
+
+    @BeforeClass
+    public void init() {
+
+        WhiteboxImpl.setInternalState(APIDefinitionRegistry.class, "instance",
+                new APIDefinitionRegistry(apiId -> SWAGGER, Collections::emptyList, Runnable::run, Long.MAX_VALUE) {
+                });
+
+        Map<String, Object> configurations = new HashMap<>();
+        configurations.put(GatewayConstants.CONSENT_ID_CLAIM_NAME, "consent_id");
+        OpenBankingConfigurationService configurationService = Mockito.mock(OpenBankingConfigurationService.class);
+        Mockito.when(configurationService.getConfigurations()).thenReturn(configurations);
+        initialConfigurationService = GatewayDataHolder.getInstance().getOpenBankingConfigurationService();
+        WhiteboxImpl.setInternalState(GatewayDataHolder.getInstance(), "openBankingConfigurationService",
+                configurationService);
+    }
+
+    @AfterClass
+    public void cleanUp() {
+
+        WhiteboxImpl.setInternalState(APIDefinitionRegistry.class, "instance", (APIDefinitionRegistry) null);
+        WhiteboxImpl.setInternalState(GatewayDataHolder.getInstance(), "openBankingConfigurationService",
+                initialConfigurationService);
+    }
+
+    @Test
+    public void testPayloadReadOnce() throws Exception {
+
+        PayloadHandler payloadHandler = getPayloadHandler(PAYLOAD);
+        OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(
+                getRequestContext(GatewayConstants.JSON_CONTENT_TYPE, payloadHandler, null),
+                new HashMap<>(), new HashMap<>());
+
+        verify(payloadHandler, times(1)).consumeAsString();
+        Assert.assertEquals(obapiRequestContext.getRequestPayload(), PAYLOAD);
+        Assert.assertEquals(obapiRequestContext.getRequestPayloadBytes(), PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        Assert.assertSame(obapiRequestContext.getRequestPayloadBytes(), obapiRequestContext.getRequestPayloadBytes());
+        Assert.assertEquals(obapiRequestContext.getRawRequestPayload(), PAYLOAD);
+        verify(payloadHandler, times(1)).consumeAsString();
+    }
+
+    @Test
+    public void testPayloadParsedOnce() throws Exception {
+
+        OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(
+                getRequestContext(GatewayConstants.JSON_CONTENT_TYPE, getPayloadHandler(PAYLOAD), null),
+                new HashMap<>(), new HashMap<>());
+
+        JSONObject payloadJSON = obapiRequestContext.getPayloadJSON();
+        Assert.assertTrue(payloadJSON.has("Data"));
+        Assert.assertSame(obapiRequestContext.getPayloadJSON(), payloadJSON);
+
+        obapiRequestContext.setModifiedPayload("{\"modified\":true}");
+        Assert.assertTrue(obapiRequestContext.getPayloadJSON().getBoolean("modified"));
+        Assert.assertEquals(obapiRequestContext.getModifiedPayloadBytes(),
+                "{\"modified\":true}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNullPayload() throws Exception {
+
+        OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(
+                getRequestContext(GatewayConstants.JSON_CONTENT_TYPE, getPayloadHandler("null"), null),
+                new HashMap<>(), new HashMap<>());
+
+        Assert.assertNull(obapiRequestContext.getPayloadJSON());
+        Assert.assertNull(obapiRequestContext.getModifiedPayloadBytes());
+    }
+
+    @Test
+    public void testUnreadableJsonPayloadRejected() throws Exception {
+
+        PayloadHandler payloadHandler = Mockito.mock(PayloadHandler.class);
+        Mockito.when(payloadHandler.consumeAsString()).thenThrow(new RuntimeException("Stream closed"));
+        OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(
+                getRequestContext(GatewayConstants.JSON_CONTENT_TYPE, payloadHandler, null),
+                new HashMap<>(), new HashMap<>());
+
+        Assert.assertTrue(obapiRequestContext.isError());
+        Assert.assertNull(obapiRequestContext.getRequestPayload());
+    }
+
+    @Test
+    public void testUnreadableTextPayloadRejected() throws Exception {
+
+        PayloadHandler payloadHandler = Mockito.mock(PayloadHandler.class);
+        Mockito.when(payloadHandler.consumeAsString()).thenThrow(new RuntimeException("Stream closed"));
+        OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(
+                getRequestContext(GatewayConstants.JWT_CONTENT_TYPE, payloadHandler, null),
+                new HashMap<>(), new HashMap<>());
+
+        Assert.assertTrue(obapiRequestContext.isError());
+        Assert.assertNull(obapiRequestContext.getRequestPayload());
+    }
+
+    @Test
+    public void testConsentIdFromTokenClaims() throws Exception {
+
+        String token = encode("{\"alg\":\"RS256\"}") + "." +
+                encode("{\"consent_id\":\"1234\",\"aut\":\"APPLICATION_USER\"}") + ".signature";
+        OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(
+                getRequestContext(GatewayConstants.JSON_CONTENT_TYPE, getPayloadHandler(PAYLOAD),
+                        GatewayConstants.BEARER_TAG + token), new HashMap<>(), new HashMap<>());
+
+        Assert.assertEquals(obapiRequestContext.getConsentId(), "1234");
+        Assert.assertSame(obapiRequestContext.getTokenClaims(), obapiRequestContext.getTokenClaims());
+        Assert.assertEquals(obapiRequestContext.getTokenClaims().getString("aut"), "APPLICATION_USER");
+    }
+
+    @Test
+    public void testNoConsentIdForOpaqueToken() throws Exception {
+
+        OBAPIRequestContext obapiRequestContext = new OBAPIRequestContext(
+                getRequestContext(GatewayConstants.JSON_CONTENT_TYPE, getPayloadHandler(PAYLOAD),
+                        GatewayConstants.BEARER_TAG + "2YotnFZFEjr1zCsicMWpAA"), new HashMap<>(), new HashMap<>());
+
+        Assert.assertNull(obapiRequestContext.getTokenClaims());
+        Assert.assertNull(obapiRequestContext.getConsentId());
+    }
+
+    private static PayloadHandler getPayloadHandler(String payload) throws Exception {
+
+        PayloadHandler payloadHandler = Mockito.mock(PayloadHandler.class);
+        Mockito.when(payloadHandler.consumeAsString()).thenReturn(payload);
+        return payloadHandler;
+    }
+
+    private static RequestContextDTO getRequestContext(String contentType, PayloadHandler payloadHandler,
+                                                       String authHeader) {
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(GatewayConstants.CONTENT_TYPE_TAG, contentType);
+        if (authHeader != null) {
+            headers.put(GatewayConstants.AUTH_HEADER, authHeader);
+        }
+        MsgInfoDTO msgInfoDTO = new MsgInfoDTO();
+        msgInfoDTO.setHeaders(headers);
+        msgInfoDTO.setHttpMethod("POST");
+        msgInfoDTO.setElectedResource("/account-access-consents");
+        msgInfoDTO.setPayloadHandler(payloadHandler);
+
+        APIRequestInfoDTO apiRequestInfoDTO = new APIRequestInfoDTO();
+        apiRequestInfoDTO.setApiId("7b8dc9a1-d4e0-4bc3-a1a6-1e4c2e1d9f11");
+
+        RequestContextDTO requestContextDTO = new RequestContextDTO();
+        requestContextDTO.setMsgInfo(msgInfoDTO);
+        requestContextDTO.setApiRequestInfo(apiRequestInfoDTO);
+        return requestContextDTO;
+    }
+
+    private static String encode(String value) {
+
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import com.wso2.openbanking.accelerator.gateway.executor.util.TestValidationUtil;
+import org.apache.commons.io.FileUtils;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.x509.Extension;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for CRL store.
+ */
+@PrepareForTest({CertificateValidationUtils.class})
+@PowerMockIgnore({"javax.security.auth.x500.*", "jdk.internal.reflect.*"})
+public class CRLStoreTest extends PowerMockTestCase {
+
+    private static final String CRL_URL = "http://crl.example.com/issuing.crl";
+
+    private X509CRL crl;
+    private X509Certificate issuerCert;
+    private AtomicInteger loadCount;
+
+    @BeforeClass
+    public void initClass() throws Exception {
+
+        this.issuerCert = TestValidationUtil.getTestEidasCertificateIssuer();
+        try (InputStream inputStream = new FileInputStream("src/test/resources/test_crl_entries.pem")) {
+            this.crl = (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(inputStream);
+        }
+    }
+
+    @BeforeMethod
+    public void initMethod() throws Exception {
+
+        loadCount = new AtomicInteger();
+        // Date needs to be an old date than X509 next update date
+        PowerMockito.mockStatic(CertificateValidationUtils.class);
+        PowerMockito.when(CertificateValidationUtils.getNewDate())
+                .thenReturn(new SimpleDateFormat("dd/MM/yyyy").parse("17/03/2021"));
+    }
+
+    @Test(description = "when the CRL is stored, then it should be served without loading again")
+    public void testCRLIsLoadedOnce() throws Exception {
+
+        CRLStore crlStore = new CRLStore(300, "");
+
+        Assert.assertSame(crlStore.getCRL(CRL_URL, issuerCert, this::load), crl);
+        Assert.assertSame(crlStore.getCRL(CRL_URL, issuerCert, this::load), crl);
+        Assert.assertEquals(loadCount.get(), 1);
+    }
+
+    @Test(description = "when the next update date has passed, then the CRL should be loaded again")
+    public void testExpiredCRLIsLoadedAgain() throws Exception {
+
+        CRLStore crlStore = new CRLStore(300, "");
+        crlStore.getCRL(CRL_URL, issuerCert, this::load);
+
+        PowerMockito.when(CertificateValidationUtils.getNewDate())
+                .thenReturn(new SimpleDateFormat("dd/MM/yyyy").parse("19/03/2021"));
+        crlStore.getCRL(CRL_URL, issuerCert, this::load);
+
+        Assert.assertEquals(loadCount.get(), 2);
+    }
+
+    @Test(description = "when the CRL is persisted, then a new store should load it from the file")
+    public void testPersistedCRLIsUsedByNewStore() throws Exception {
+
+        File directory = Files.createTempDirectory("crl-store").toFile();
+        try {
+            new CRLStore(300, directory.getAbsolutePath()).getCRL(CRL_URL, issuerCert, this::load);
+            X509CRL persistedCRL = new CRLStore(300, directory.getAbsolutePath())
+                    .getCRL(CRL_URL, issuerCert, this::load);
+
+            Assert.assertEquals(persistedCRL, crl);
+            Assert.assertEquals(loadCount.get(), 1);
+        } finally {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    @Test(description = "when the CRL is cleared, then it should be loaded again")
+    public void testClear() throws Exception {
+
+        CRLStore crlStore = new CRLStore(300, "");
+        crlStore.getCRL(CRL_URL, issuerCert, this::load);
+        crlStore.clear();
+        crlStore.getCRL(CRL_URL, issuerCert, this::load);
+
+        Assert.assertEquals(loadCount.get(), 2);
+    }
+
+    @Test(description = "when both CRLs have a CRL number, then the CRL with the higher number should be newer")
+    public void testRefreshedCRLComparedByCRLNumber() throws Exception {
+
+        X509CRL storedCRL = getCRL(5, "17/03/2021");
+
+        Assert.assertTrue(CRLStore.isRefreshedCRL(storedCRL, getCRL(6, "17/03/2021")));
+        Assert.assertFalse(CRLStore.isRefreshedCRL(storedCRL, getCRL(5, "18/03/2021")));
+        Assert.assertFalse(CRLStore.isRefreshedCRL(storedCRL, getCRL(4, "18/03/2021")));
+    }
+
+    @Test(description = "when a CRL has no CRL number, then the CRL issued later should be newer")
+    public void testRefreshedCRLComparedByThisUpdate() throws Exception {
+
+        X509CRL storedCRL = getCRL(-1, "17/03/2021");
+
+        Assert.assertTrue(CRLStore.isRefreshedCRL(storedCRL, getCRL(6, "18/03/2021")));
+        Assert.assertFalse(CRLStore.isRefreshedCRL(storedCRL, getCRL(-1, "17/03/2021")));
+    }
+
+    @Test(description = "when a refresh does not load a newer CRL, then the retry should back off until the expiry")
+    public void testRefreshRetryDelay() {
+
+        Assert.assertEquals(CRLStore.getRefreshRetryDelay(TimeUnit.HOURS.toMillis(2)), TimeUnit.HOURS.toMillis(1));
+        Assert.assertEquals(CRLStore.getRefreshRetryDelay(TimeUnit.MINUTES.toMillis(1)), TimeUnit.MINUTES.toMillis(1));
+        Assert.assertEquals(CRLStore.getRefreshRetryDelay(TimeUnit.SECONDS.toMillis(30)),
+                TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private X509CRL getCRL(int crlNumber, String thisUpdate) throws Exception {
+
+        X509CRL mockedCRL = Mockito.mock(X509CRL.class);
+        Mockito.doReturn(new SimpleDateFormat("dd/MM/yyyy").parse(thisUpdate)).when(mockedCRL).getThisUpdate();
+        Mockito.doReturn(crlNumber < 0 ? null : new DEROctetString(new ASN1Integer(crlNumber)).getEncoded())
+                .when(mockedCRL).getExtensionValue(Extension.cRLNumber.getId());
+        return mockedCRL;
+    }
+
+    private X509CRL load(String crlUrl) {
+
+        loadCount.incrementAndGet();
+        return crl;
+    }
+}
@@ -102,7 +102,7 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doReturn(httpResponseMock).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getHttpsClient(Mockito.anyString())).thenReturn(closeableHttpClientMock);
     }
 
     @Test
@@ -171,7 +171,7 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doReturn(httpResponseMock).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getHttpsClient(Mockito.anyString())).thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -188,7 +188,7 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(IOException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getHttpsClient(Mockito.anyString())).thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -205,7 +205,7 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(CertificateException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getHttpsClient(Mockito.anyString())).thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -222,7 +222,7 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(CRLException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getHttpsClient(Mockito.anyString())).thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -239,7 +239,7 @@ public class CRLValidatorTest extends PowerMockTestCase {
         Mockito.doThrow(MalformedURLException.class).when(closeableHttpClientMock).execute(Mockito.any(HttpGet.class));
 
         PowerMockito.mockStatic(HTTPClientUtils.class);
-        PowerMockito.when(HTTPClientUtils.getHttpsClient()).thenReturn(closeableHttpClientMock);
+        PowerMockito.when(HTTPClientUtils.getHttpsClient(Mockito.anyString())).thenReturn(closeableHttpClientMock);
 
         TPPCertValidatorDataHolder tppCertValidatorDataHolder = Mockito.mock(TPPCertValidatorDataHolder.class);
 
@@ -254,7 +254,7 @@ public class CRLValidatorTest extends PowerMockTestCase {
     public void testIsValidX509CRLFromIssuer() throws Exception {
         X509CRL x509CRLMock = Mockito.mock(X509CRL.class);
         WhiteboxImpl.invokeMethod(this.crlValidator, "isValidX509Crl", x509CRLMock,
-                eidasPeerCertificate, eidasPeerCertificateIssuer);
+                eidasPeerCertificateIssuer);
     }
 
     @Test(description = "when X509URL next update date is invalid, then throw CertificateValidationException",
@@ -282,11 +282,11 @@ public class CRLValidatorTest extends PowerMockTestCase {
             expectedExceptions = CertificateValidationException.class)
     public void testIsValidX509CRLFromIssuerWithFailedVerification() throws Exception {
         X509CRL x509CRLMock = Mockito.mock(X509CRL.class);
-        Mockito.doReturn(eidasPeerCertificate.getIssuerDN()).when(x509CRLMock).getIssuerDN();
+        Mockito.doReturn(eidasPeerCertificateIssuer.getSubjectDN()).when(x509CRLMock).getIssuerDN();
         Mockito.doThrow(CRLException.class).when(x509CRLMock).verify(Mockito.any(PublicKey.class));
 
         WhiteboxImpl.invokeMethod(this.crlValidator, "isValidX509CRLFromIssuer", x509CRLMock,
-                eidasPeerCertificate, eidasPeerCertificateIssuer);
+                eidasPeerCertificateIssuer);
     }
 
     @Test(description = "when CRL URL list is empty, then throw CertificateValidationException",
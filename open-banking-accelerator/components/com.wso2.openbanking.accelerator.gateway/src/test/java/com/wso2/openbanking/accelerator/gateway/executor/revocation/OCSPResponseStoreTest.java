@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import com.wso2.openbanking.accelerator.gateway.executor.util.CertificateValidationUtils;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test for OCSP response store.
+ */
+@PrepareForTest({CertificateValidationUtils.class})
+@PowerMockIgnore({"javax.security.auth.x500.*", "jdk.internal.reflect.*"})
+public class OCSPResponseStoreTest extends PowerMockTestCase {
+
+    private CertificateID certificateID;
+    private AtomicInteger loadCount;
+
+    @BeforeMethod
+    public void initMethod() throws Exception {
+
+        loadCount = new AtomicInteger();
+        certificateID = Mockito.mock(CertificateID.class);
+        Mockito.doReturn(new byte[]{1, 2, 3}).when(certificateID).getIssuerKeyHash();
+        Mockito.doReturn(BigInteger.TEN).when(certificateID).getSerialNumber();
+
+        PowerMockito.mockStatic(CertificateValidationUtils.class);
+        PowerMockito.when(CertificateValidationUtils.getNewDate()).thenReturn(getDate("17/03/2021"));
+    }
+
+    @Test(description = "when the response is stored, then it should be served without loading again")
+    public void testResponseIsLoadedOnce() throws Exception {
+
+        OCSPResponseStore responseStore = new OCSPResponseStore(60, 86400);
+        SingleResp response = getResponse(getDate("18/03/2021"));
+
+        Assert.assertSame(responseStore.getResponse(certificateID, () -> load(response)), response);
+        Assert.assertSame(responseStore.getResponse(certificateID, () -> load(response)), response);
+        Assert.assertEquals(loadCount.get(), 1);
+        Assert.assertEquals(responseStore.size(), 1);
+    }
+
+    @Test(description = "when the response has no next update date, then it should not be stored")
+    public void testResponseWithoutNextUpdateIsNotStored() throws Exception {
+
+        OCSPResponseStore responseStore = new OCSPResponseStore(60, 86400);
+        SingleResp response = getResponse(null);
+        responseStore.getResponse(certificateID, () -> load(response));
+        responseStore.getResponse(certificateID, () -> load(response));
+
+        Assert.assertEquals(loadCount.get(), 2);
+        Assert.assertEquals(responseStore.size(), 0);
+    }
+
+    @Test(description = "when the next update date has passed, then the response should be loaded again")
+    public void testExpiredResponseIsLoadedAgain() throws Exception {
+
+        OCSPResponseStore responseStore = new OCSPResponseStore(60, 86400);
+        responseStore.getResponse(certificateID, () -> load(getResponse(getDate("18/03/2021"))));
+
+        PowerMockito.when(CertificateValidationUtils.getNewDate()).thenReturn(getDate("19/03/2021"));
+        SingleResp response = getResponse(getDate("20/03/2021"));
+
+        Assert.assertSame(responseStore.getResponse(certificateID, () -> load(response)), response);
+        Assert.assertEquals(loadCount.get(), 2);
+    }
+
+    @Test(description = "when the max store time has passed, then the response should be loaded again")
+    public void testResponseIsLoadedAgainAfterMaxStoreTime() throws Exception {
+
+        OCSPResponseStore responseStore = new OCSPResponseStore(60, 3600);
+        responseStore.getResponse(certificateID, () -> load(getResponse(getDate("20/03/2021"))));
+
+        PowerMockito.when(CertificateValidationUtils.getNewDate()).thenReturn(getDate("17/03/2021 00:30"));
+        responseStore.getResponse(certificateID, () -> load(getResponse(getDate("20/03/2021"))));
+        Assert.assertEquals(loadCount.get(), 1);
+
+        PowerMockito.when(CertificateValidationUtils.getNewDate()).thenReturn(getDate("17/03/2021 01:00"));
+        SingleResp response = getResponse(getDate("20/03/2021"));
+        Assert.assertSame(responseStore.getResponse(certificateID, () -> load(response)), response);
+        Assert.assertEquals(loadCount.get(), 2);
+    }
+
+    @Test(description = "when the store is cleared, then the response should be loaded again")
+    public void testClear() throws Exception {
+
+        OCSPResponseStore responseStore = new OCSPResponseStore(60, 86400);
+        SingleResp response = getResponse(getDate("18/03/2021"));
+        responseStore.getResponse(certificateID, () -> load(response));
+        responseStore.clear();
+        responseStore.getResponse(certificateID, () -> load(response));
+
+        Assert.assertEquals(loadCount.get(), 2);
+    }
+
+    @Test(description = "when a response is produced after the stored one, then it should replace it")
+    public void testLaterResponseIsRefreshed() throws Exception {
+
+        SingleResp storedResponse = getResponse(getDate("18/03/2021"), getDate("17/03/2021"), null);
+
+        // Responder shortened the validity of its responses
+        Assert.assertTrue(OCSPResponseStore.isRefreshedResponse(storedResponse,
+                getResponse(getDate("17/03/2021"), getDate("17/03/2021 12:00"), null)));
+        Assert.assertFalse(OCSPResponseStore.isRefreshedResponse(storedResponse,
+                getResponse(getDate("19/03/2021"), getDate("17/03/2021"), null)));
+    }
+
+    @Test(description = "when the certificate status has changed, then the response should replace the stored one")
+    public void testChangedStatusIsRefreshed() throws Exception {
+
+        SingleResp storedResponse = getResponse(getDate("18/03/2021"), getDate("17/03/2021"), null);
+        RevokedStatus revokedStatus = new RevokedStatus(getDate("16/03/2021"), CRLReason.keyCompromise);
+
+        Assert.assertTrue(OCSPResponseStore.isRefreshedResponse(storedResponse,
+                getResponse(getDate("18/03/2021"), getDate("17/03/2021"), revokedStatus)));
+        Assert.assertTrue(OCSPResponseStore.isRefreshedResponse(storedResponse,
+                getResponse(getDate("18/03/2021"), getDate("16/03/2021"), new UnknownStatus())));
+    }
+
+    private SingleResp load(SingleResp response) {
+
+        loadCount.incrementAndGet();
+        return response;
+    }
+
+    private SingleResp getResponse(Date nextUpdate) {
+
+        SingleResp response = Mockito.mock(SingleResp.class);
+        Mockito.doReturn(certificateID).when(response).getCertID();
+        Mockito.doReturn(nextUpdate).when(response).getNextUpdate();
+        return response;
+    }
+
+    private SingleResp getResponse(Date nextUpdate, Date thisUpdate, CertificateStatus certificateStatus) {
+
+        SingleResp response = getResponse(nextUpdate);
+        Mockito.doReturn(thisUpdate).when(response).getThisUpdate();
+        Mockito.doReturn(certificateStatus).when(response).getCertStatus();
+        return response;
+    }
+
+    private static Date getDate(String date) throws Exception {
+
+        return new SimpleDateFormat(date.contains(":") ? "dd/MM/yyyy HH:mm" : "dd/MM/yyyy").parse(date);
+    }
+}
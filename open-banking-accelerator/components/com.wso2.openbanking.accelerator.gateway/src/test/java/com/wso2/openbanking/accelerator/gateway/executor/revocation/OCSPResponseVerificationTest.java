@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.revocation;
+
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for the verification of the signature and nonce of OCSP responses.
+ */
+public class OCSPResponseVerificationTest {
+
+    private static final String BC = "BC";
+    private static final X500Name ISSUER_NAME = new X500Name("CN=Test Issuing CA");
+
+    private KeyPair issuerKeyPair;
+    private X509Certificate issuerCert;
+    private OCSPReq request;
+
+    @BeforeClass
+    public void init() throws Exception {
+
+        if (Security.getProvider(BC) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+        issuerKeyPair = generateKeyPair();
+        issuerCert = new JcaX509CertificateConverter().setProvider(BC).getCertificate(
+                generateCertificate(ISSUER_NAME, issuerKeyPair, ISSUER_NAME, issuerKeyPair, false));
+
+        CertificateID certificateID = new CertificateID(new JcaDigestCalculatorProviderBuilder().setProvider(BC)
+                .build().get(CertificateID.HASH_SHA1), new JcaX509CertificateHolder(issuerCert), BigInteger.TEN);
+        OCSPReqBuilder requestBuilder = new OCSPReqBuilder();
+        requestBuilder.addRequest(certificateID);
+        requestBuilder.setRequestExtensions(new Extensions(getNonce(new byte[]{1, 2, 3, 4})));
+        request = requestBuilder.build();
+    }
+
+    @Test(description = "when the response is signed by the issuer, then it should be accepted")
+    public void testResponseSignedByIssuer() throws Exception {
+
+        BasicOCSPResp response = getResponse(issuerKeyPair, getNonce(new byte[]{1, 2, 3, 4}));
+        Assert.assertTrue(OCSPValidator.isAuthenticResponse(response, issuerCert, request));
+    }
+
+    @Test(description = "when the response has no nonce, then it should be accepted")
+    public void testResponseWithoutNonce() throws Exception {
+
+        BasicOCSPResp response = getResponse(issuerKeyPair, null);
+        Assert.assertTrue(OCSPValidator.isAuthenticResponse(response, issuerCert, request));
+    }
+
+    @Test(description = "when the response is signed by an unknown key, then it should be rejected")
+    public void testResponseSignedByUnknownKey() throws Exception {
+
+        BasicOCSPResp response = getResponse(generateKeyPair(), getNonce(new byte[]{1, 2, 3, 4}));
+        Assert.assertFalse(OCSPValidator.isAuthenticResponse(response, issuerCert, request));
+    }
+
+    @Test(description = "when the response nonce does not match the request, then it should be rejected")
+    public void testResponseWithDifferentNonce() throws Exception {
+
+        BasicOCSPResp response = getResponse(issuerKeyPair, getNonce(new byte[]{4, 3, 2, 1}));
+        Assert.assertFalse(OCSPValidator.isAuthenticResponse(response, issuerCert, request));
+    }
+
+    @Test(description = "when the response is signed by a delegated OCSP responder, then it should be accepted")
+    public void testResponseSignedByDelegatedResponder() throws Exception {
+
+        KeyPair responderKeyPair = generateKeyPair();
+        X509CertificateHolder responderCert = generateCertificate(new X500Name("CN=Test OCSP Responder"),
+                responderKeyPair, ISSUER_NAME, issuerKeyPair, true);
+
+        BasicOCSPResp response = getDelegatedResponse(responderKeyPair, responderCert);
+        Assert.assertTrue(OCSPValidator.isAuthenticResponse(response, issuerCert, request));
+    }
+
+    @Test(description = "when the responder certificate is not issued for OCSP signing, then it should be rejected")
+    public void testResponseSignedByResponderWithoutOCSPSigning() throws Exception {
+
+        KeyPair responderKeyPair = generateKeyPair();
+        X509CertificateHolder responderCert = generateCertificate(new X500Name("CN=Test Server"),
+                responderKeyPair, ISSUER_NAME, issuerKeyPair, false);
+
+        BasicOCSPResp response = getDelegatedResponse(responderKeyPair, responderCert);
+        Assert.assertFalse(OCSPValidator.isAuthenticResponse(response, issuerCert, request));
+    }
+
+    @Test(description = "when the responder certificate is not issued by the issuer, then it should be rejected")
+    public void testResponseSignedBySelfIssuedResponder() throws Exception {
+
+        KeyPair responderKeyPair = generateKeyPair();
+        X500Name responderName = new X500Name("CN=Test OCSP Responder");
+        X509CertificateHolder responderCert = generateCertificate(responderName, responderKeyPair, responderName,
+                responderKeyPair, true);
+
+        BasicOCSPResp response = getDelegatedResponse(responderKeyPair, responderCert);
+        Assert.assertFalse(OCSPValidator.isAuthenticResponse(response, issuerCert, request));
+    }
+
+    private BasicOCSPResp getResponse(KeyPair signingKeyPair, Extension nonce) throws Exception {
+
+        return getResponse(signingKeyPair, nonce, null);
+    }
+
+    private BasicOCSPResp getDelegatedResponse(KeyPair signingKeyPair, X509CertificateHolder responderCert)
+            throws Exception {
+
+        return getResponse(signingKeyPair, getNonce(new byte[]{1, 2, 3, 4}),
+                new X509CertificateHolder[]{responderCert});
+    }
+
+    private BasicOCSPResp getResponse(KeyPair signingKeyPair, Extension nonce, X509CertificateHolder[] chain)
+            throws Exception {
+
+        BasicOCSPRespBuilder responseBuilder = new BasicOCSPRespBuilder(new RespID(ISSUER_NAME));
+        responseBuilder.addResponse(request.getRequestList()[0].getCertID(), CertificateStatus.GOOD);
+        if (nonce != null) {
+            responseBuilder.setResponseExtensions(new Extensions(nonce));
+        }
+        return responseBuilder.build(new JcaContentSignerBuilder("SHA256withRSA").setProvider(BC)
+                .build(signingKeyPair.getPrivate()), chain, new Date());
+    }
+
+    private static Extension getNonce(byte[] nonce) throws Exception {
+
+        return new Extension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce, false, new DEROctetString(nonce));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private static X509CertificateHolder generateCertificate(X500Name subject, KeyPair subjectKeyPair,
+                                                             X500Name issuer, KeyPair issuerKeyPair,
+                                                             boolean ocspSigning) throws Exception {
+
+        long now = System.currentTimeMillis();
+        JcaX509v3CertificateBuilder certificateBuilder = new JcaX509v3CertificateBuilder(issuer,
+                BigInteger.valueOf(now), new Date(now - TimeUnit.DAYS.toMillis(1)),
+                new Date(now + TimeUnit.DAYS.toMillis(1)), subject, subjectKeyPair.getPublic());
+        if (ocspSigning) {
+            certificateBuilder.addExtension(Extension.extendedKeyUsage, false,
+                    new ExtendedKeyUsage(KeyPurposeId.id_kp_OCSPSigning));
+        }
+        return certificateBuilder.build(new JcaContentSignerBuilder("SHA256withRSA").setProvider(BC)
+                .build(issuerKeyPair.getPrivate()));
+    }
+}
@@ -18,14 +18,13 @@
 
 package com.wso2.openbanking.accelerator.gateway.executor.service;
 
-import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCache;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.CertificateValidationException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.exception.TPPValidationException;
 import com.wso2.openbanking.accelerator.common.model.PSD2RoleEnum;
-import com.wso2.openbanking.accelerator.gateway.cache.GatewayCacheKey;
-import com.wso2.openbanking.accelerator.gateway.cache.TppValidationCache;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache;
+import com.wso2.openbanking.accelerator.gateway.cache.CertificateVerdictCache.Verdict;
 import com.wso2.openbanking.accelerator.gateway.executor.model.RevocationStatus;
 import com.wso2.openbanking.accelerator.gateway.executor.revocation.OCSPValidator;
 import com.wso2.openbanking.accelerator.gateway.executor.util.TestValidationUtil;
@@ -47,24 +46,24 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test for certificate validation service.
  */
 @PowerMockIgnore("jdk.internal.reflect.*")
 @PrepareForTest({OpenBankingConfigParser.class, OCSPValidator.class, TPPCertValidatorDataHolder.class,
-        TppValidationCache.class})
+        CertificateVerdictCache.class})
 public class CertValidationServiceTest {
 
     @Mock
     OpenBankingConfigParser openBankingConfigParser;
     @Mock
     TPPCertValidatorDataHolder tppCertValidatorDataHolder;
-    @Mock
-    TppValidationCache tppValidationCache;
     CertValidationService certValidationService;
     private X509Certificate testPeerCertificate;
     private X509Certificate testPeerCertificateIssuer;
@@ -212,9 +211,9 @@ public class CertValidationServiceTest {
         PowerMockito.when(TPPCertValidatorDataHolder.getInstance())
                 .thenReturn(tppCertValidatorDataHolder);
 
-        PowerMockito.mockStatic(TppValidationCache.class);
-        PowerMockito.when(TppValidationCache.getInstance())
-                .thenReturn(tppValidationCache);
+        PowerMockito.mockStatic(CertificateVerdictCache.class);
+        PowerMockito.when(CertificateVerdictCache.getTppValidationInstance())
+                .thenReturn(getVerdictCache());
 
         Assert.assertTrue(certValidationService.validateTppRoles(eidasPeerCertificate,
                 Arrays.asList(PSD2RoleEnum.AISP, PSD2RoleEnum.PISP)));
@@ -240,16 +239,47 @@ public class CertValidationServiceTest {
         PowerMockito.when(TPPCertValidatorDataHolder.getInstance())
                 .thenReturn(tppCertValidatorDataHolder);
 
-        Mockito.when(tppValidationCache.getFromCacheOrRetrieve(Mockito.any(GatewayCacheKey.class),
-                Mockito.any(OpenBankingBaseCache.OnDemandRetriever.class))).thenThrow(OpenBankingException.class);
-        PowerMockito.mockStatic(TppValidationCache.class);
-        PowerMockito.when(TppValidationCache.getInstance())
-                .thenReturn(tppValidationCache);
+        PowerMockito.mockStatic(CertificateVerdictCache.class);
+        PowerMockito.when(CertificateVerdictCache.getTppValidationInstance())
+                .thenReturn(getVerdictCache());
 
         Assert.assertFalse(certValidationService.validateTppRoles(eidasPeerCertificate,
                 Arrays.asList(PSD2RoleEnum.AISP, PSD2RoleEnum.PISP)));
     }
 
+    @Test(description = "When role validation fails, then the denial should be served from the cache")
+    public void testValidateTPPRoleDenialCached() throws Exception {
+        Mockito.when(tppCertValidatorDataHolder.isTppValidationEnabled()).thenReturn(true);
+        Mockito.when(tppCertValidatorDataHolder.getTPPValidationServiceImpl()).thenReturn("/dummy/path");
+
+        TPPValidationService mockTppValidationService = Mockito.mock(TPPValidationService.class);
+        Mockito.when(mockTppValidationService.getCacheKey(Mockito.any(X509Certificate.class),
+                Mockito.anyListOf(PSD2RoleEnum.class), Mockito.anyMapOf(String.class, Object.class)))
+                .thenReturn("dummy-cache-key");
+        Mockito.when(mockTppValidationService.validate(Mockito.any(X509Certificate.class),
+                Mockito.anyListOf(PSD2RoleEnum.class), Mockito.anyMapOf(String.class, Object.class)))
+                .thenReturn(false);
+
+        Mockito.when(tppCertValidatorDataHolder.getTppValidationService()).thenReturn(mockTppValidationService);
+        PowerMockito.mockStatic(TPPCertValidatorDataHolder.class);
+        PowerMockito.when(TPPCertValidatorDataHolder.getInstance())
+                .thenReturn(tppCertValidatorDataHolder);
+
+        CertificateVerdictCache verdictCache = getVerdictCache();
+        PowerMockito.mockStatic(CertificateVerdictCache.class);
+        PowerMockito.when(CertificateVerdictCache.getTppValidationInstance())
+                .thenReturn(verdictCache);
+
+        List<PSD2RoleEnum> requiredRoles = Arrays.asList(PSD2RoleEnum.AISP, PSD2RoleEnum.PISP);
+        Assert.assertFalse(certValidationService.validateTppRoles(eidasPeerCertificate, requiredRoles));
+        Assert.assertFalse(certValidationService.validateTppRoles(eidasPeerCertificate, requiredRoles));
+
+        Mockito.verify(mockTppValidationService, Mockito.times(1)).validate(Mockito.any(X509Certificate.class),
+                Mockito.anyListOf(PSD2RoleEnum.class), Mockito.anyMapOf(String.class, Object.class));
+        Assert.assertEquals(verdictCache.getMissCount(Verdict.ROLE_DENIED), 1);
+        Assert.assertEquals(verdictCache.getHitCount(Verdict.ROLE_DENIED), 1);
+    }
+
     @Test(description = "When TPPValidationImpl path configuration is empty, then should throw TPPValidationException",
             expectedExceptions = {TPPValidationException.class})
     public void testValidateTPPWithEmptyImplConfig() throws TPPValidationException, CertificateValidationException {
@@ -348,4 +378,10 @@ public class CertValidationServiceTest {
         Assert.assertSame(result, RevocationStatus.UNKNOWN);
     }
 
+    private static CertificateVerdictCache getVerdictCache() {
+        Map<Verdict, Long> expiryMillis = new EnumMap<>(Verdict.class);
+        expiryMillis.put(Verdict.VALID, TimeUnit.HOURS.toMillis(1));
+        expiryMillis.put(Verdict.ROLE_DENIED, TimeUnit.MINUTES.toMillis(5));
+        return new CertificateVerdictCache("test", expiryMillis) { };
+    }
 }
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.gateway.executor.util;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.Optional;
+
+/**
+ * Test for the issuer certificate index.
+ */
+public class IssuerCertificateIndexTest {
+
+    private IssuerCertificateIndex issuerCertificateIndex;
+
+    @BeforeClass
+    public void init() throws Exception {
+
+        KeyStore trustStore = KeyStore.getInstance("JKS");
+        try (InputStream inputStream = Files.newInputStream(Paths.get("src/test/resources/client-truststore.jks"))) {
+            trustStore.load(inputStream, "wso2carbon".toCharArray());
+        }
+        issuerCertificateIndex = IssuerCertificateIndex.of(trustStore);
+    }
+
+    @Test(description = "when the issuer is in the truststore, then the issuer certificate should return")
+    public void testGetIssuerCertificate() throws Exception {
+
+        X509Certificate peerCertificate = TestValidationUtil.getTestClientCertificate();
+        Optional<X509Certificate> issuerCertificate = issuerCertificateIndex.getIssuerCertificate(peerCertificate);
+
+        Assert.assertTrue(issuerCertificate.isPresent());
+        Assert.assertEquals(issuerCertificate.get().getSubjectX500Principal(),
+                peerCertificate.getIssuerX500Principal());
+        peerCertificate.verify(issuerCertificate.get().getPublicKey());
+    }
+
+    @Test(description = "when the issuer is not in the truststore, then empty should return")
+    public void testGetIssuerCertificateNotInTruststore() throws Exception {
+
+        Assert.assertFalse(issuerCertificateIndex.getIssuerCertificate(TestValidationUtil.getExpiredSelfCertificate())
+                .isPresent());
+    }
+
+    @Test(description = "when the truststore is indexed, then all the certificates should be indexed")
+    public void testIndexSize() throws Exception {
+
+        Assert.assertEquals(issuerCertificateIndex.size(), issuerCertificateIndex.getTrustStore().size());
+    }
+}
@@ -67,5 +67,14 @@ public class TPPCertValidatorDataHolderTest {
         Assert.assertNotNull(tppCertValidatorDataHolder.getCertificateRevocationValidationExcludedIssuers());
         Assert.assertNull(tppCertValidatorDataHolder.getTPPValidationServiceImpl());
         Assert.assertEquals(tppCertValidatorDataHolder.getCertificateRevocationProxyHost(), "PROXY_HOSTNAME");
+        Assert.assertFalse(tppCertValidatorDataHolder.isCRLStoreEnabled());
+        Assert.assertEquals(tppCertValidatorDataHolder.getCRLStoreRefreshBeforeExpiry(), 300);
+        Assert.assertEquals(tppCertValidatorDataHolder.getCRLStorePersistenceDirectory(), "");
+        Assert.assertFalse(tppCertValidatorDataHolder.isOCSPResponseStoreEnabled());
+        Assert.assertEquals(tppCertValidatorDataHolder.getOCSPResponseStoreRefreshBeforeExpiry(), 60);
+        Assert.assertEquals(tppCertValidatorDataHolder.getOCSPResponseStoreMaxStoreTime(), 3600);
+        Assert.assertEquals(tppCertValidatorDataHolder.getRevokedCertificateCacheExpiry(), 3600);
+        Assert.assertEquals(tppCertValidatorDataHolder.getUnknownCertificateCacheExpiry(), 60);
+        Assert.assertEquals(tppCertValidatorDataHolder.getTppRoleDeniedCacheExpiry(), 300);
     }
 }
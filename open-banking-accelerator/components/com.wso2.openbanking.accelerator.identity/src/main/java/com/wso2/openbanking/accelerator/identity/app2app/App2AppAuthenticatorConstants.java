@@ -47,5 +47,6 @@ public class App2AppAuthenticatorConstants {
             = "Error while retrieving user.";
     public static final String REQUIRED_PARAMS_MISSING_MESSAGE
             = "Required Parameters did or loginHint null or empty.";
+    public static final String JTI_REPLAY_BACKEND = "Identity.App2AppAuthentication.JTIReplayBackend";
 }
 
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.app2app.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * JTI replay backend which keeps the JWT IDs in the OB_APP2APP_JTI table of the open banking database.
+ * The JWT ID is the primary key of the table, hence a JWT ID can be recorded by only one node of the cluster.
+ */
+@Generated(message = "Excluding from code coverage since it requires a database connection")
+public class JDBCJTIReplayBackend implements JTIReplayBackend {
+
+    private static final Log log = LogFactory.getLog(JDBCJTIReplayBackend.class);
+    private static final String RENEW_EXPIRED_JTI = "UPDATE OB_APP2APP_JTI SET EXPIRY_TIME = ? WHERE JTI = ? AND " +
+            "EXPIRY_TIME <= ?";
+    private static final String INSERT_JTI = "INSERT INTO OB_APP2APP_JTI (JTI, EXPIRY_TIME) VALUES (?, ?)";
+    private static final String DELETE_EXPIRED_JTIS = "DELETE FROM OB_APP2APP_JTI WHERE EXPIRY_TIME <= ?";
+    // SQL state class of integrity constraint violations, reported when the JWT ID is already recorded
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+    @Override
+    public boolean recordIfAbsent(String jti, long expiryTime) throws OpenBankingException {
+
+        Connection dbConnection = DatabaseUtil.getDBConnection();
+        try {
+            // Take over the record of the JWT ID if it has expired and is not yet removed
+            try (PreparedStatement renewStatement = dbConnection.prepareStatement(RENEW_EXPIRED_JTI)) {
+                renewStatement.setLong(1, expiryTime);
+                renewStatement.setString(2, jti);
+                renewStatement.setLong(3, System.currentTimeMillis());
+                if (renewStatement.executeUpdate() > 0) {
+                    DatabaseUtil.commitTransaction(dbConnection);
+                    return true;
+                }
+            }
+            try (PreparedStatement insertStatement = dbConnection.prepareStatement(INSERT_JTI)) {
+                insertStatement.setString(1, jti);
+                insertStatement.setLong(2, expiryTime);
+                insertStatement.executeUpdate();
+                DatabaseUtil.commitTransaction(dbConnection);
+                return true;
+            }
+        } catch (SQLException e) {
+            DatabaseUtil.rollbackTransaction(dbConnection);
+            if (e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION)) {
+                log.debug("JWT ID is already recorded in the database");
+                return false;
+            }
+            throw new OpenBankingException("Error occurred while recording the JWT ID in the database", e);
+        } finally {
+            DatabaseUtil.closeConnection(dbConnection);
+        }
+    }
+
+    @Override
+    public void removeExpired(long currentTime) throws OpenBankingException {
+
+        Connection dbConnection = DatabaseUtil.getDBConnection();
+        try (PreparedStatement deleteStatement = dbConnection.prepareStatement(DELETE_EXPIRED_JTIS)) {
+            deleteStatement.setLong(1, currentTime);
+            int removedCount = deleteStatement.executeUpdate();
+            DatabaseUtil.commitTransaction(dbConnection);
+            if (log.isDebugEnabled()) {
+                log.debug("Removed " + removedCount + " expired JWT IDs from the database");
+            }
+        } catch (SQLException e) {
+            DatabaseUtil.rollbackTransaction(dbConnection);
+            throw new OpenBankingException("Error occurred while removing the expired JWT IDs from the database", e);
+        } finally {
+            DatabaseUtil.closeConnection(dbConnection);
+        }
+    }
+}
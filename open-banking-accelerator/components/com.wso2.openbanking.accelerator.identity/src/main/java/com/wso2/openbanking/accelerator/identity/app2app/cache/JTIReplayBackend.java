@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.app2app.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+
+/**
+ * Cluster wide store of the JWT IDs of used device verification tokens.
+ * The JTI replay store consults the backend for the JWT IDs which are not already recorded in the local node, so
+ * that a token used in one node cannot be replayed in another.
+ */
+public interface JTIReplayBackend {
+
+    /**
+     * Record the JWT ID if it has not been recorded before, or if its previous record has expired.
+     * The check and the record should be a single atomic operation across the cluster.
+     *
+     * @param jti        JWT ID of the token
+     * @param expiryTime time in milliseconds until which the JWT ID should be kept
+     * @return true if the JWT ID was recorded, false if it is already recorded
+     * @throws OpenBankingException when the JWT ID cannot be recorded
+     */
+    boolean recordIfAbsent(String jti, long expiryTime) throws OpenBankingException;
+
+    /**
+     * Remove the JWT IDs which have expired.
+     *
+     * @param currentTime current time in milliseconds
+     * @throws OpenBankingException when the expired JWT IDs cannot be removed
+     */
+    void removeExpired(long currentTime) throws OpenBankingException;
+}
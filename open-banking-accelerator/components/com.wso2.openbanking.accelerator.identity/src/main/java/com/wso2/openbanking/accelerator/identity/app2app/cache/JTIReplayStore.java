@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.app2app.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.common.util.OpenBankingUtils;
+import com.wso2.openbanking.accelerator.identity.app2app.App2AppAuthenticatorConstants;
+import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay protection store of the JWT IDs of device verification tokens.
+ *
+ * A JWT ID is checked and recorded with a single atomic operation, and is kept until the expiry time of its token,
+ * after which the token is rejected by the expiry validation. The JWT IDs are held in time buckets by their expiry
+ * time, and a bucket is dropped as a whole once all its JWT IDs have expired. JWT IDs which are not already recorded
+ * in this node are recorded in the cluster wide backend, so that a token cannot be replayed against another node.
+ */
+public class JTIReplayStore {
+
+    private static final Log log = LogFactory.getLog(JTIReplayStore.class);
+    private static final long BUCKET_WIDTH_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long BACKEND_PURGE_INTERVAL_MINUTES = 5;
+    private static volatile JTIReplayStore instance;
+
+    private final JTIReplayBackend backend;
+    private final ConcurrentMap<String, Long> jtiExpiryTimes = new ConcurrentHashMap<>();
+    // Buckets keyed by the time at which all their JWT IDs have expired
+    private final ConcurrentNavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Initialize the store.
+     *
+     * @param backend cluster wide backend, or null to keep the JWT IDs only in this node
+     */
+    protected JTIReplayStore(JTIReplayBackend backend) {
+
+        this.backend = backend;
+        if (backend != null) {
+            ScheduledExecutorService purgeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "OB-App2App-JTI-Purge");
+                thread.setDaemon(true);
+                return thread;
+            });
+            purgeExecutor.scheduleWithFixedDelay(this::purgeBackend, BACKEND_PURGE_INTERVAL_MINUTES,
+                    BACKEND_PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return JTIReplayStore object
+     */
+    @Generated(message = "Excluding from code coverage since it reads the open banking configurations")
+    public static JTIReplayStore getInstance() {
+
+        if (instance == null) {
+            synchronized (JTIReplayStore.class) {
+                if (instance == null) {
+                    Object backendClass = IdentityExtensionsDataHolder.getInstance().getConfigurationMap()
+                            .get(App2AppAuthenticatorConstants.JTI_REPLAY_BACKEND);
+                    JTIReplayBackend backend = backendClass == null || StringUtils.isBlank(backendClass.toString()) ?
+                            new JDBCJTIReplayBackend() : (JTIReplayBackend) OpenBankingUtils
+                            .getClassInstanceFromFQN(backendClass.toString().trim());
+                    instance = new JTIReplayStore(backend);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Record the JWT ID of a token if it has not been used before.
+     *
+     * @param jti        JWT ID of the token
+     * @param expiryTime expiry time of the token
+     * @return true if the JWT ID was recorded, false if the token is replayed, has expired or cannot be recorded
+     */
+    public boolean recordIfAbsent(String jti, Date expiryTime) {
+
+        if (jti == null || expiryTime == null) {
+            return false;
+        }
+        long now = currentTimeMillis();
+        long expiry = expiryTime.getTime();
+        if (expiry <= now) {
+            return false;
+        }
+        removeExpiredBuckets(now);
+
+        if (!recordLocally(jti, expiry, now)) {
+            log.debug("JWT ID of the device verification token is already used");
+            return false;
+        }
+        if (backend == null) {
+            return true;
+        }
+        try {
+            return backend.recordIfAbsent(jti, expiry);
+        } catch (OpenBankingException e) {
+            log.error("Unable to record the JWT ID of the device verification token. Hence, rejecting the token", e);
+            // Allow the token to be submitted again once the backend is reachable.
+            jtiExpiryTimes.remove(jti, expiry);
+            return false;
+        }
+    }
+
+    /**
+     * Get the number of JWT IDs held in this node.
+     *
+     * @return number of JWT IDs
+     */
+    public int size() {
+
+        return jtiExpiryTimes.size();
+    }
+
+    protected long currentTimeMillis() {
+
+        return System.currentTimeMillis();
+    }
+
+    private boolean recordLocally(String jti, long expiry, long now) {
+
+        Long recordedExpiry = jtiExpiryTimes.putIfAbsent(jti, expiry);
+        if (recordedExpiry != null && (recordedExpiry > now || !jtiExpiryTimes.replace(jti, recordedExpiry, expiry))) {
+            return false;
+        }
+        buckets.computeIfAbsent((expiry / BUCKET_WIDTH_MILLIS + 1) * BUCKET_WIDTH_MILLIS,
+                key -> ConcurrentHashMap.newKeySet()).add(jti);
+        return true;
+    }
+
+    private void removeExpiredBuckets(long now) {
+
+        Map.Entry<Long, Set<String>> bucket;
+        while ((bucket = buckets.firstEntry()) != null && bucket.getKey() <= now) {
+            if (buckets.remove(bucket.getKey(), bucket.getValue())) {
+                // A JWT ID may have been recorded again with a later expiry time after its previous record expired
+                for (String jti : bucket.getValue()) {
+                    jtiExpiryTimes.computeIfPresent(jti, (key, expiry) -> expiry <= now ? null : expiry);
+                }
+            }
+        }
+    }
+
+    private void purgeBackend() {
+
+        try {
+            backend.removeExpired(currentTimeMillis());
+        } catch (OpenBankingException | RuntimeException e) {
+            log.warn("Unable to remove the expired JWT IDs of device verification tokens. " + e.getMessage());
+        }
+    }
+}
@@ -18,7 +18,7 @@
 
 package com.wso2.openbanking.accelerator.identity.app2app.validations;
 
-import com.wso2.openbanking.accelerator.identity.app2app.cache.JTICache;
+import com.wso2.openbanking.accelerator.identity.app2app.cache.JTIReplayStore;
 import com.wso2.openbanking.accelerator.identity.app2app.model.DeviceVerificationToken;
 import com.wso2.openbanking.accelerator.identity.app2app.validations.annotations.ValidateJTI;
 
@@ -41,29 +41,8 @@ public class JTIValidator implements ConstraintValidator<ValidateJTI, DeviceVeri
     public boolean isValid(DeviceVerificationToken deviceVerificationToken,
                            ConstraintValidatorContext constraintValidatorContext) {
 
-        String jti = deviceVerificationToken.getJti();
-        return validateJTI(jti);
-    }
-
-    private boolean validateJTI(String jti) {
-
-        if (getFromCache(jti) != null) {
-            return false;
-        }
-
-        //adding to cache to prevent the value from being replayed again
-        addToCache(jti);
-        return true;
-    }
-
-    private Object getFromCache(String jti) {
-
-        return JTICache.getJtiDataFromCache(jti);
-    }
-
-    private void addToCache(String jti) {
-
-        JTICache.addJtiDataToCache(jti);
+        // The JWT ID is checked and recorded atomically, and is kept until the token expires
+        return JTIReplayStore.getInstance().recordIfAbsent(deviceVerificationToken.getJti(),
+                deviceVerificationToken.getExpirationTime());
     }
 }
-
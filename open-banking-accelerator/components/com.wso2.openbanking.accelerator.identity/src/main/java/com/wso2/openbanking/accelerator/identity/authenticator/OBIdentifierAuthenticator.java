@@ -459,12 +459,12 @@ public class OBIdentifierAuthenticator extends AbstractApplicationAuthenticator
         String credentials = adminUsername + ":" + String.valueOf(adminPassword);
         credentials = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
 
-        try (CloseableHttpClient client = HTTPClientUtils.getHttpsClient()) {
-            HttpGet dataRequest = new HttpGet(authRequestURL + sessionDataKey);
-            dataRequest.addHeader(IdentifierHandlerConstants.ACCEPT_HEADER,
-                    IdentifierHandlerConstants.ACCEPT_HEADER_VALUE);
-            dataRequest.addHeader(IdentifierHandlerConstants.AUTH_HEADER, "Basic " + credentials);
-            CloseableHttpResponse dataResponse = client.execute(dataRequest);
+        HttpGet dataRequest = new HttpGet(authRequestURL + sessionDataKey);
+        dataRequest.addHeader(IdentifierHandlerConstants.ACCEPT_HEADER,
+                IdentifierHandlerConstants.ACCEPT_HEADER_VALUE);
+        dataRequest.addHeader(IdentifierHandlerConstants.AUTH_HEADER, "Basic " + credentials);
+        CloseableHttpClient client = HTTPClientUtils.getHttpsClient(HTTPClientUtils.CONSENT_CLIENT);
+        try (CloseableHttpResponse dataResponse = client.execute(dataRequest)) {
 
             reader = new BufferedReader(new InputStreamReader(dataResponse.getEntity()
                     .getContent(), "UTF-8"));
@@ -20,15 +20,19 @@ package com.wso2.openbanking.accelerator.identity.listener.application;
 
 import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.sp.ServiceProviderMetadataResolver;
 import com.wso2.openbanking.accelerator.identity.dcr.validation.DCRCommonConstants;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.identity.util.IdentityCommonUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationRequestConfig;
 import org.wso2.carbon.identity.application.common.model.LocalAndOutboundAuthenticationConfig;
 import org.wso2.carbon.identity.application.common.model.ServiceProvider;
 import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
 import org.wso2.carbon.identity.application.mgt.listener.AbstractApplicationMgtListener;
 import org.wso2.carbon.identity.oauth.IdentityOAuthAdminException;
 import org.wso2.carbon.identity.oauth.OAuthAdminServiceImpl;
@@ -132,6 +136,14 @@ public class OBApplicationManagementListener extends AbstractApplicationMgtListe
         return true;
     }
 
+    @Override
+    public boolean doPostUpdateApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+
+        invalidateSPMetadata(serviceProvider);
+        return true;
+    }
+
     @Override
     public boolean doPostGetServiceProvider(ServiceProvider serviceProvider, String applicationName,
                                             String tenantDomain) throws IdentityApplicationManagementException {
@@ -166,6 +178,7 @@ public class OBApplicationManagementListener extends AbstractApplicationMgtListe
     public boolean doPostDeleteApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
             throws IdentityApplicationManagementException {
 
+        invalidateSPMetadata(serviceProvider);
         try {
             identityExtensionsDataHolder.getAbstractApplicationUpdater()
                     .doPostDeleteApplication(serviceProvider, tenantDomain, userName);
@@ -176,4 +189,27 @@ public class OBApplicationManagementListener extends AbstractApplicationMgtListe
         return true;
 
     }
+
+    /**
+     * Invalidate the resolved SP metadata of the OAuth application so that the updated properties are loaded on
+     * the next lookup.
+     *
+     * @param serviceProvider updated or deleted service provider
+     */
+    private void invalidateSPMetadata(ServiceProvider serviceProvider) {
+
+        InboundAuthenticationConfig inboundAuthenticationConfig = serviceProvider == null ? null :
+                serviceProvider.getInboundAuthenticationConfig();
+        if (inboundAuthenticationConfig == null
+                || inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs() == null) {
+            ServiceProviderMetadataResolver.getInstance().invalidateAll();
+            return;
+        }
+        for (InboundAuthenticationRequestConfig requestConfig :
+                inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs()) {
+            if (IdentityApplicationConstants.OAuth2.NAME.equals(requestConfig.getInboundAuthType())) {
+                ServiceProviderMetadataResolver.getInstance().invalidate(requestConfig.getInboundAuthKey());
+            }
+        }
+    }
 }
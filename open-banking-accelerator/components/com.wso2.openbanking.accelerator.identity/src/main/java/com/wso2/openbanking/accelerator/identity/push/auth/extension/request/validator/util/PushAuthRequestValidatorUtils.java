@@ -23,12 +23,15 @@ import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.RSADecrypter;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.proc.BadJOSEException;
 import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.jwt.SignedJWT;
 import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.sp.ServiceProviderMetadataResolver;
 import com.wso2.openbanking.accelerator.common.util.Generated;
+import com.wso2.openbanking.accelerator.common.util.JWTUtils;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.identity.push.auth.extension.request.validator.constants.PushAuthRequestConstants;
 import com.wso2.openbanking.accelerator.identity.push.auth.extension.request.validator.exception.PushAuthRequestValidatorException;
@@ -43,7 +46,6 @@ import org.apache.http.HttpStatus;
 import org.wso2.carbon.identity.application.common.model.FederatedAuthenticatorConfig;
 import org.wso2.carbon.identity.application.common.model.IdentityProvider;
 import org.wso2.carbon.identity.application.common.model.Property;
-import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
 import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
 import org.wso2.carbon.identity.application.common.util.IdentityApplicationManagementUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -54,7 +56,6 @@ import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
-import org.wso2.carbon.identity.oauth2.validators.jwt.JWKSBasedJWTValidator;
 import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
 import org.wso2.carbon.idp.mgt.IdentityProviderManager;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
@@ -70,7 +71,6 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -378,27 +378,17 @@ public class PushAuthRequestValidatorUtils {
     public static void validateSignature(String requestObject, JSONObject requestBodyJson)
             throws PushAuthRequestValidatorException {
 
-        String jwksUri = null;
-        ServiceProviderProperty[] spProperties = null;
+        String jwksUri;
 
-        // Get Service provider properties
+        // Extract JWKS Uri from the service provider properties
         try {
-            spProperties = OAuth2Util.getServiceProvider(requestBodyJson
-                    .getAsString(PushAuthRequestConstants.CLIENT_ID)).getSpProperties();
-        } catch (IdentityOAuth2Exception exception) {
+            jwksUri = ServiceProviderMetadataResolver.getInstance().getServiceProviderProperty(requestBodyJson
+                    .getAsString(PushAuthRequestConstants.CLIENT_ID), JWKS_URI);
+        } catch (OpenBankingException exception) {
             log.error("Unable to extract Service Provider Properties", exception);
             throw new PushAuthRequestValidatorException(HttpStatus.SC_INTERNAL_SERVER_ERROR,
                     PushAuthRequestConstants.SERVER_ERROR, exception.getMessage(), exception);
         }
-
-        // Extract JWKS Uri from properties
-        if (spProperties != null) {
-            for (ServiceProviderProperty spProperty : spProperties) {
-                if (JWKS_URI.equals(spProperty.getName())) {
-                    jwksUri = spProperty.getValue();
-                }
-            }
-        }
         if (log.isDebugEnabled()) {
             log.debug("Retrieved JWKS URI: " + jwksUri);
         }
@@ -435,13 +425,11 @@ public class PushAuthRequestValidatorUtils {
         } else {
             log.debug("Validating from JWKS URI");
 
-            // Validate from JWKS Uri
+            // Validate from JWKS Uri using the JWK set shared by the JWKS manager
             String alg = jwt.getHeader().getAlgorithm().getName();
-            Map<String, Object> options = new HashMap<>();
             try {
-                isVerified = new JWKSBasedJWTValidator().validateSignature(jwt.getParsedString(), jwksUri,
-                        alg, options);
-            } catch (IdentityOAuth2Exception exception) {
+                isVerified = JWTUtils.validateJWTSignature(jwt.getParsedString(), jwksUri, alg);
+            } catch (BadJOSEException | JOSEException | ParseException | MalformedURLException exception) {
                 log.error("Unable to validate JWT using JWKS URL", exception);
                 String errorMessage = getCustomSignatureValidationErrorMessage(exception);
                 throw new PushAuthRequestValidatorException(HttpStatus.SC_BAD_REQUEST,
@@ -628,11 +616,11 @@ public class PushAuthRequestValidatorUtils {
     /**
      * Get custom error message for signature validation errors.
      */
-    private static String getCustomSignatureValidationErrorMessage(IdentityOAuth2Exception exception) {
+    private static String getCustomSignatureValidationErrorMessage(Exception exception) {
 
-        String errorMessage = exception.getCause().getMessage();
+        String errorMessage = exception.getMessage();
         if (StringUtils.isEmpty(errorMessage)) {
-            return exception.getMessage();
+            return "Request object signature validation failed";
         }
 
         if (errorMessage.equalsIgnoreCase("JWT before use time")) {
@@ -63,6 +63,10 @@ public class HTTPClientUtils {
     public static final String HOST_NAME_VERIFIER = "httpclient.hostnameVerifier";
     public static final String HTTP_PROTOCOL = "http";
     public static final String HTTPS_PROTOCOL = "https";
+    public static final String DEFAULT_CLIENT =
+            com.wso2.openbanking.accelerator.common.util.HTTPClientUtils.DEFAULT_CLIENT;
+    public static final String CONSENT_CLIENT =
+            com.wso2.openbanking.accelerator.common.util.HTTPClientUtils.CONSENT_CLIENT;
     private static final String[] SUPPORTED_HTTP_PROTOCOLS = {"TLSv1.2"};
     private static final Log log = LogFactory.getLog(HTTPClientUtils.class);
 
@@ -89,6 +93,21 @@ public class HTTPClientUtils {
         return HttpClients.custom().setConnectionManager(connectionManager).build();
     }
 
+    /**
+     * Get the shared https client registered against the given name.
+     * The client is long-lived and must not be closed by the caller. Close the response instead to release the
+     * connection back to the pool.
+     *
+     * @param clientName  name of the HTTP client
+     * @return Shared https client
+     * @throws OpenBankingException OpenBankingException exception
+     */
+    @Generated(message = "Ignoring because ServerConfiguration cannot be mocked")
+    public static CloseableHttpClient getHttpsClient(String clientName) throws OpenBankingException {
+
+        return com.wso2.openbanking.accelerator.common.util.HTTPClientUtils.getHttpsClient(clientName);
+    }
+
     /**
      * create a SSL Connection Socket Factory.
      *
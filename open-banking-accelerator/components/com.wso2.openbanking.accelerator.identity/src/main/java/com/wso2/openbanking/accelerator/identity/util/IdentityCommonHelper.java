@@ -19,6 +19,7 @@
 package com.wso2.openbanking.accelerator.identity.util;
 
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.sp.ServiceProviderMetadataResolver;
 import com.wso2.openbanking.accelerator.common.util.CertificateUtils;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.common.util.ServiceProviderUtils;
@@ -32,7 +33,6 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
 import org.wso2.carbon.identity.application.common.model.ApplicationBasicInfo;
 import org.wso2.carbon.identity.application.common.model.ServiceProvider;
-import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
 import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
 import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
@@ -48,12 +48,10 @@ import java.nio.charset.StandardCharsets;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 import javax.servlet.ServletRequest;
@@ -104,33 +102,7 @@ public class IdentityCommonHelper {
     @Generated(message = "Excluding from code coverage since it requires a service call")
     public String getAppPropertyFromSPMetaData(String clientId, String property) throws OpenBankingException {
 
-        String spProperty = null;
-
-        if (StringUtils.isNotEmpty(clientId)) {
-            Optional<ServiceProvider> serviceProvider;
-            try {
-                serviceProvider = Optional.ofNullable(IdentityExtensionsDataHolder.getInstance()
-                        .getApplicationManagementService().getServiceProviderByClientId(clientId,
-                                IdentityApplicationConstants.OAuth2.NAME,
-                                ServiceProviderUtils.getSpTenantDomain(clientId)));
-                if (serviceProvider.isPresent()) {
-                    spProperty = Arrays.stream(serviceProvider.get().getSpProperties())
-                            .collect(Collectors.toMap(ServiceProviderProperty::getName,
-                                    ServiceProviderProperty::getValue))
-                            .get(property);
-                }
-            } catch (IdentityApplicationManagementException e) {
-                log.error(String.format("Error occurred while retrieving OAuth2 application data for clientId %s",
-                        clientId), e);
-                throw new OpenBankingException("Error occurred while retrieving OAuth2 application data for clientId"
-                        , e);
-            }
-        } else {
-            log.error(IdentityCommonConstants.CLIENT_ID_ERROR);
-            throw new OpenBankingException(IdentityCommonConstants.CLIENT_ID_ERROR);
-        }
-
-        return spProperty;
+        return ServiceProviderMetadataResolver.getInstance().getServiceProviderProperty(clientId, property);
     }
 
     /**
@@ -28,12 +28,11 @@ import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
-import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingRuntimeException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.sp.ServiceProviderMetadataResolver;
+import com.wso2.openbanking.accelerator.common.identity.signing.SigningKeyService;
 import com.wso2.openbanking.accelerator.common.util.Generated;
-import com.wso2.openbanking.accelerator.identity.cache.IdentityCache;
-import com.wso2.openbanking.accelerator.identity.cache.IdentityCacheKey;
 import com.wso2.openbanking.accelerator.identity.dcr.validation.DCRCommonConstants;
 import com.wso2.openbanking.accelerator.identity.internal.IdentityExtensionsDataHolder;
 import org.apache.commons.lang.StringUtils;
@@ -50,6 +49,7 @@ import org.wso2.carbon.identity.oauth.cache.SessionDataCacheKey;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -85,7 +85,13 @@ import javax.servlet.http.HttpServletRequest;
 public class IdentityCommonUtil {
 
     private static final Log log = LogFactory.getLog(IdentityCommonUtil.class);
-    private static IdentityCache identityCache;
+    private static final SigningKeyService defaultKeySigningService = new SigningKeyService(() -> {
+        try {
+            return KeyStoreManager.getInstance(MultitenantConstants.SUPER_TENANT_ID).getDefaultPrivateKey();
+        } catch (Exception e) {
+            throw new OpenBankingException("Error while retrieving the default private key", e);
+        }
+    });
 
     /**
      * Get the configured certificate header name.
@@ -121,14 +127,16 @@ public class IdentityCommonUtil {
     }
 
     /**
-     * Cache regulatory property if exists.
+     * Get the regulatory property of the application from the SP metadata.
+     * The SP metadata is resolved through the shared lock-free resolver, so concurrent OAuth requests do not
+     * serialize on this lookup.
      *
      * @param clientId clientId ClientId of the application
-     * @return the regulatory property from cache if exists or from sp metadata
+     * @return the regulatory property from the resolved sp metadata
      * @throws OpenBankingException
      */
-    @Generated(message = "Excluding from code coverage since it requires a cache initialization/service call")
-    public static synchronized boolean getRegulatoryFromSPMetaData(String clientId) throws OpenBankingException {
+    @Generated(message = "Excluding from code coverage since it requires a service call")
+    public static boolean getRegulatoryFromSPMetaData(String clientId) throws OpenBankingException {
 
         if (StringUtils.isNotEmpty(clientId)) {
             // Skip My account and Console service providers with non opaque clientIds
@@ -137,21 +145,11 @@ public class IdentityCommonUtil {
                 return false;
             }
 
-            if (identityCache == null) {
-                log.debug("Creating new Identity cache");
-                identityCache = new IdentityCache();
-            }
-
-            IdentityCacheKey identityCacheKey = IdentityCacheKey.of(clientId
-                    .concat("_").concat(OpenBankingConstants.REGULATORY));
-            Object regulatoryProperty = null;
-
-            regulatoryProperty = identityCache.getFromCacheOrRetrieve(identityCacheKey,
-                    () -> new IdentityCommonHelper().getAppPropertyFromSPMetaData(clientId,
-                            IdentityCommonConstants.REGULATORY_COMPLIANCE));
+            String regulatoryProperty = ServiceProviderMetadataResolver.getInstance()
+                    .getServiceProviderProperty(clientId, IdentityCommonConstants.REGULATORY_COMPLIANCE);
 
             if (regulatoryProperty != null) {
-                return Boolean.parseBoolean(regulatoryProperty.toString());
+                return Boolean.parseBoolean(regulatoryProperty);
             } else {
                 throw new OpenBankingException("Unable to retrieve regulatory property from sp metadata");
             }
@@ -170,7 +168,8 @@ public class IdentityCommonUtil {
     }
 
     /**
-     * Sign a string body using the carbon default key pair.
+     * Sign a string body using the carbon default key pair. The key and the signer are loaded once since the carbon
+     * primary keystore is not reloaded at runtime.
      * Skipped in unit tests since @KeystoreManager cannot be mocked
      *
      * @param body the body that needs to be signed as a string
@@ -178,9 +177,19 @@ public class IdentityCommonUtil {
      * @throws Exception error if the tenant is invalid
      */
     public static String signJWTWithDefaultKey(String body) throws Exception {
-        KeyStoreManager keyStoreManager = KeyStoreManager.getInstance(-1234);
-        Key privateKey = keyStoreManager.getDefaultPrivateKey();
-        return generateJWT(body, privateKey);
+
+        if (body == null) {
+            log.debug("Null value passed for payload. Cannot generate JWT");
+            throw new OpenBankingRuntimeException("Payload and key cannot be null");
+        }
+
+        JWTClaimsSet claimsSet;
+        try {
+            claimsSet = JWTClaimsSet.parse(body);
+        } catch (ParseException e) {
+            throw new OpenBankingRuntimeException("Error occurred while signing JWT");
+        }
+        return defaultKeySigningService.sign(JWSAlgorithm.RS256, claimsSet.toString());
     }
 
     /**
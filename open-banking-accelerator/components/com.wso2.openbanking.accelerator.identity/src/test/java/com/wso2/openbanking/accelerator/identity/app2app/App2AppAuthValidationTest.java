@@ -22,7 +22,7 @@ import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.SignedJWT;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
 import com.wso2.openbanking.accelerator.common.util.JWTUtils;
-import com.wso2.openbanking.accelerator.identity.app2app.cache.JTICache;
+import com.wso2.openbanking.accelerator.identity.app2app.cache.JTIReplayStore;
 import com.wso2.openbanking.accelerator.identity.app2app.exception.JWTValidationException;
 import com.wso2.openbanking.accelerator.identity.app2app.model.DeviceVerificationToken;
 import com.wso2.openbanking.accelerator.identity.app2app.testutils.App2AppUtilsTestJWTDataProvider;
@@ -43,7 +43,7 @@ import java.util.Date;
 /**
  * Test class for unit testing App2AppAuthValidations.
  */
-@PrepareForTest({JTICache.class, JWTUtils.class})
+@PrepareForTest({JTIReplayStore.class, JWTUtils.class})
 @PowerMockIgnore({"javax.net.ssl.*", "jdk.internal.reflect.*"})
 public class App2AppAuthValidationTest {
 
@@ -52,10 +52,9 @@ public class App2AppAuthValidationTest {
     public void validationTest(String jwtString, String publicKey, String requestObject) throws ParseException,
             OpenBankingException, JOSEException, NoSuchAlgorithmException, InvalidKeySpecException {
 
-        //Mocking JTICache and JWTUtils
-        PowerMockito.mockStatic(JTICache.class);
+        //Mocking JTIReplayStore and JWTUtils
         PowerMockito.mockStatic(JWTUtils.class);
-        Mockito.when(JTICache.getJtiDataFromCache(Mockito.anyString())).thenReturn(null);
+        mockJTIReplayStore(true);
         Mockito.when(JWTUtils.isValidSignature(Mockito.any(SignedJWT.class), Mockito.anyString()))
                 .thenReturn(true);
         Mockito.when(JWTUtils.isValidExpiryTime(Mockito.any(Date.class), Mockito.any(long.class)))
@@ -77,10 +76,9 @@ public class App2AppAuthValidationTest {
     public void validationTestJTIReplayed(String jwtString, String publicKey, String requestObject) throws
             ParseException, OpenBankingException, JOSEException, NoSuchAlgorithmException, InvalidKeySpecException {
 
-        //Mocking JTICache and JWTUtils
-        PowerMockito.mockStatic(JTICache.class);
+        //Mocking JTIReplayStore and JWTUtils
         PowerMockito.mockStatic(JWTUtils.class);
-        Mockito.when(JTICache.getJtiDataFromCache(Mockito.anyString())).thenReturn("NotNullJTI");
+        mockJTIReplayStore(false);
         Mockito.when(JWTUtils.isValidSignature(Mockito.any(SignedJWT.class), Mockito.anyString()))
                 .thenReturn(true);
         Mockito.when(JWTUtils.isValidExpiryTime(Mockito.any(Date.class), Mockito.any(long.class)))
@@ -102,10 +100,9 @@ public class App2AppAuthValidationTest {
     public void validationTestJWTExpired(String jwtString, String publicKey, String requestObject) throws
             ParseException, OpenBankingException, JOSEException, NoSuchAlgorithmException, InvalidKeySpecException {
 
-        //Mocking JTICache and JWTUtils
-        PowerMockito.mockStatic(JTICache.class);
+        //Mocking JTIReplayStore and JWTUtils
         PowerMockito.mockStatic(JWTUtils.class);
-        Mockito.when(JTICache.getJtiDataFromCache(Mockito.anyString())).thenReturn(null);
+        mockJTIReplayStore(true);
         Mockito.when(JWTUtils.isValidSignature(Mockito.any(SignedJWT.class), Mockito.anyString()))
                 .thenReturn(true);
         Mockito.when(JWTUtils.isValidExpiryTime(Mockito.any(Date.class), Mockito.any(long.class)))
@@ -127,10 +124,9 @@ public class App2AppAuthValidationTest {
     public void validationTestJWTNotActive(String jwtString, String publicKey, String requestObject) throws
             ParseException, OpenBankingException, JOSEException, NoSuchAlgorithmException, InvalidKeySpecException {
 
-        //Mocking JTICache and JWTUtils
-        PowerMockito.mockStatic(JTICache.class);
+        //Mocking JTIReplayStore and JWTUtils
         PowerMockito.mockStatic(JWTUtils.class);
-        Mockito.when(JTICache.getJtiDataFromCache(Mockito.anyString())).thenReturn(null);
+        mockJTIReplayStore(true);
         Mockito.when(JWTUtils.isValidSignature(Mockito.any(SignedJWT.class), Mockito.anyString())).
                 thenReturn(true);
         Mockito.when(JWTUtils.isValidExpiryTime(Mockito.any(Date.class), Mockito.any(long.class)))
@@ -152,10 +148,9 @@ public class App2AppAuthValidationTest {
     public void validationTestInvalidDigest(String jwtString, String publicKey, String requestObject) throws
             ParseException, OpenBankingException, JOSEException, NoSuchAlgorithmException, InvalidKeySpecException {
 
-        //Mocking JTICache and JWTUtils
-        PowerMockito.mockStatic(JTICache.class);
+        //Mocking JTIReplayStore and JWTUtils
         PowerMockito.mockStatic(JWTUtils.class);
-        Mockito.when(JTICache.getJtiDataFromCache(Mockito.anyString())).thenReturn(null);
+        mockJTIReplayStore(true);
         Mockito.when(JWTUtils.isValidSignature(Mockito.any(SignedJWT.class), Mockito.anyString())).
                 thenReturn(true);
         Mockito.when(JWTUtils.isValidExpiryTime(Mockito.any(Date.class), Mockito.any(long.class)))
@@ -170,6 +165,15 @@ public class App2AppAuthValidationTest {
         // Call the method under test
         App2AppAuthUtils.validateToken(deviceVerificationToken);
     }
+
+    private void mockJTIReplayStore(boolean isFirstUse) {
+
+        JTIReplayStore jtiReplayStore = Mockito.mock(JTIReplayStore.class);
+        PowerMockito.mockStatic(JTIReplayStore.class);
+        Mockito.when(JTIReplayStore.getInstance()).thenReturn(jtiReplayStore);
+        Mockito.when(jtiReplayStore.recordIfAbsent(Mockito.anyString(), Mockito.any())).thenReturn(isFirstUse);
+    }
+
     @ObjectFactory
     public IObjectFactory getObjectFactory() {
 
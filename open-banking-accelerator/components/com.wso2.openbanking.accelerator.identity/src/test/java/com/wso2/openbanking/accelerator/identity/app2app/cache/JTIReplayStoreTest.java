@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.identity.app2app.cache;
+
+import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test for the JTI replay store.
+ */
+public class JTIReplayStoreTest {
+
+    private static final long NOW = 1700000000000L;
+
+    @Test
+    public void testReplayedJTIRejected() {
+
+        TestJTIReplayStore store = new TestJTIReplayStore(null);
+        Date expiryTime = new Date(NOW + TimeUnit.MINUTES.toMillis(10));
+
+        Assert.assertTrue(store.recordIfAbsent("jti", expiryTime));
+        Assert.assertFalse(store.recordIfAbsent("jti", expiryTime));
+        Assert.assertTrue(store.recordIfAbsent("other-jti", expiryTime));
+    }
+
+    @Test
+    public void testExpiredTokenRejected() {
+
+        TestJTIReplayStore store = new TestJTIReplayStore(null);
+
+        Assert.assertFalse(store.recordIfAbsent("jti", new Date(NOW)));
+        Assert.assertFalse(store.recordIfAbsent("jti", null));
+        Assert.assertEquals(store.size(), 0);
+    }
+
+    @Test
+    public void testJTIRemovedOnceExpired() {
+
+        TestJTIReplayStore store = new TestJTIReplayStore(null);
+        Assert.assertTrue(store.recordIfAbsent("short-lived", new Date(NOW + TimeUnit.MINUTES.toMillis(1))));
+        Assert.assertTrue(store.recordIfAbsent("long-lived", new Date(NOW + TimeUnit.MINUTES.toMillis(10))));
+
+        store.currentTime = NOW + TimeUnit.MINUTES.toMillis(3);
+        Assert.assertTrue(store.recordIfAbsent("new", new Date(store.currentTime + TimeUnit.MINUTES.toMillis(10))));
+
+        Assert.assertEquals(store.size(), 2);
+        Assert.assertFalse(store.recordIfAbsent("long-lived", new Date(NOW + TimeUnit.MINUTES.toMillis(10))));
+    }
+
+    @Test
+    public void testBackendConsultedForNewJTIs() {
+
+        TestJTIReplayBackend backend = new TestJTIReplayBackend();
+        backend.recordedJtis.add("used-in-other-node");
+        TestJTIReplayStore store = new TestJTIReplayStore(backend);
+        Date expiryTime = new Date(NOW + TimeUnit.MINUTES.toMillis(10));
+
+        Assert.assertTrue(store.recordIfAbsent("jti", expiryTime));
+        Assert.assertFalse(store.recordIfAbsent("jti", expiryTime));
+        Assert.assertFalse(store.recordIfAbsent("used-in-other-node", expiryTime));
+        Assert.assertEquals(backend.recordCount, 2);
+    }
+
+    @Test
+    public void testTokenAcceptedAfterBackendRecovers() {
+
+        TestJTIReplayBackend backend = new TestJTIReplayBackend();
+        backend.available = false;
+        TestJTIReplayStore store = new TestJTIReplayStore(backend);
+        Date expiryTime = new Date(NOW + TimeUnit.MINUTES.toMillis(10));
+
+        Assert.assertFalse(store.recordIfAbsent("jti", expiryTime));
+        backend.available = true;
+        Assert.assertTrue(store.recordIfAbsent("jti", expiryTime));
+    }
+
+    @Test
+    public void testConcurrentSubmissionsAcceptedOnce() throws Exception {
+
+        TestJTIReplayStore store = new TestJTIReplayStore(null);
+        Date expiryTime = new Date(NOW + TimeUnit.MINUTES.toMillis(10));
+        int submissionCount = 8;
+        CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(submissionCount);
+        try {
+            List<Future<Boolean>> submissions = new ArrayList<>();
+            for (int i = 0; i < submissionCount; i++) {
+                submissions.add(executorService.submit((Callable<Boolean>) () -> {
+                    startLatch.await();
+                    return store.recordIfAbsent("jti", expiryTime);
+                }));
+            }
+            startLatch.countDown();
+
+            int acceptedCount = 0;
+            for (Future<Boolean> submission : submissions) {
+                if (submission.get(10, TimeUnit.SECONDS)) {
+                    acceptedCount++;
+                }
+            }
+            Assert.assertEquals(acceptedCount, 1);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static class TestJTIReplayStore extends JTIReplayStore {
+
+        private volatile long currentTime = NOW;
+
+        TestJTIReplayStore(JTIReplayBackend backend) {
+
+            super(backend);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+
+            return currentTime;
+        }
+    }
+
+    private static class TestJTIReplayBackend implements JTIReplayBackend {
+
+        private final Set<String> recordedJtis = new HashSet<>();
+        private int recordCount;
+        private boolean available = true;
+
+        @Override
+        public synchronized boolean recordIfAbsent(String jti, long expiryTime) throws OpenBankingException {
+
+            if (!available) {
+                throw new OpenBankingException("Database is not available");
+            }
+            recordCount++;
+            return recordedJtis.add(jti);
+        }
+
+        @Override
+        public void removeExpired(long currentTime) {
+
+        }
+    }
+}
@@ -20,6 +20,7 @@ package com.wso2.openbanking.accelerator.keymanager;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.common.exception.OpenBankingException;
+import com.wso2.openbanking.accelerator.common.identity.retriever.sp.ServiceProviderMetadataResolver;
 import com.wso2.openbanking.accelerator.common.util.Generated;
 import com.wso2.openbanking.accelerator.common.util.ServiceProviderUtils;
 import com.wso2.openbanking.accelerator.keymanager.internal.KeyManagerDataHolder;
@@ -43,7 +44,6 @@ import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
 import org.wso2.carbon.identity.application.common.model.ServiceProvider;
 import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
-import org.wso2.carbon.identity.application.common.util.IdentityApplicationConstants;
 import org.wso2.carbon.identity.application.mgt.ApplicationManagementServiceImpl;
 import org.wso2.carbon.identity.oauth.IdentityOAuthAdminException;
 import org.wso2.carbon.identity.oauth.OAuthAdminService;
@@ -67,18 +67,12 @@ public class OBKeyManagerImpl extends AMDefaultKeyManagerImpl implements OBKeyMa
     public AccessTokenInfo getNewApplicationAccessToken(AccessTokenRequest tokenRequest) throws APIManagementException {
 
         try {
-            ApplicationManagementServiceImpl applicationManagementService = getApplicationMgmtServiceImpl();
-            ServiceProvider serviceProvider = applicationManagementService.getServiceProviderByClientId(
-                    tokenRequest.getClientId(), IdentityApplicationConstants.OAuth2.NAME, tenantDomain);
-            if (serviceProvider != null) {
-                ServiceProviderProperty regulatoryProperty = Arrays.stream(serviceProvider.getSpProperties())
-                        .filter(serviceProviderProperty -> serviceProviderProperty.getName()
-                                .equalsIgnoreCase(OpenBankingConstants.REGULATORY)).findAny().orElse(null);
-                if (regulatoryProperty != null && "true".equalsIgnoreCase(regulatoryProperty.getValue())) {
-                    return null;
-                }
+            String regulatory = ServiceProviderMetadataResolver.getInstance()
+                    .getServiceProviderProperty(tokenRequest.getClientId(), OpenBankingConstants.REGULATORY);
+            if ("true".equalsIgnoreCase(regulatory)) {
+                return null;
             }
-        } catch (IdentityApplicationManagementException e) {
+        } catch (OpenBankingException e) {
             log.error("Error while generating keys. ", e);
         }
         return super.getNewApplicationAccessToken(tokenRequest);
@@ -214,33 +208,23 @@ public class OBKeyManagerImpl extends AMDefaultKeyManagerImpl implements OBKeyMa
             String tenantDomain = ServiceProviderUtils.getSpTenantDomain(oAuthApplicationInfo.getClientId());
             updateSpProperties(appName, tenantDomain, username, additionalProperties, true);
 
-            ServiceProvider appServiceProvider = getApplicationMgmtServiceImpl()
-                    .getServiceProvider(appName, tenantDomain);
-            ServiceProviderProperty regulatoryProperty = getSpPropertyFromSPMetaData(
-                    OpenBankingConstants.REGULATORY, appServiceProvider.getSpProperties());
-
-            if (regulatoryProperty != null) {
-                if (Boolean.parseBoolean(regulatoryProperty.getValue())) {
-                    OAuthAppRequest updatedOauthAppRequest = oauthAppRequest;
-                    ServiceProviderProperty appNameProperty = getSpPropertyFromSPMetaData("DisplayName",
-                            appServiceProvider.getSpProperties());
-                    if (appNameProperty != null) {
-                        updatedOauthAppRequest.getOAuthApplicationInfo().setClientName(appNameProperty.getValue());
-                    }
-                    // Assigning null as it is how the tokenScope parameter is used in the updateApplication method
-                    updatedOauthAppRequest.getOAuthApplicationInfo().addParameter("tokenScope", null);
-                    super.updateApplication(updatedOauthAppRequest);
+            Map<String, String> spProperties = ServiceProviderMetadataResolver.getInstance()
+                    .getServiceProviderProperties(oAuthApplicationInfo.getClientId());
+            if (Boolean.parseBoolean(spProperties.get(OpenBankingConstants.REGULATORY))) {
+                OAuthAppRequest updatedOauthAppRequest = oauthAppRequest;
+                String displayName = spProperties.get("DisplayName");
+                if (displayName != null) {
+                    updatedOauthAppRequest.getOAuthApplicationInfo().setClientName(displayName);
                 }
+                // Assigning null as it is how the tokenScope parameter is used in the updateApplication method
+                updatedOauthAppRequest.getOAuthApplicationInfo().addParameter("tokenScope", null);
+                super.updateApplication(updatedOauthAppRequest);
             }
             return oAuthApplicationInfo;
 
         } catch (OpenBankingException | APIManagementException e) {
             throw new APIManagementException(ExceptionCodes.OAUTH2_APP_CREATION_FAILED.getErrorMessage(),
                     e, ExceptionCodes.OAUTH2_APP_CREATION_FAILED);
-        } catch (IdentityApplicationManagementException e) {
-            String errMsg = "error occurred in retrieving service provider for app " + appName;
-            log.error(errMsg);
-            throw new APIManagementException(errMsg, e, ExceptionCodes.OAUTH2_APP_UPDATE_FAILED);
         }
     }
 
@@ -276,17 +260,19 @@ public class OBKeyManagerImpl extends AMDefaultKeyManagerImpl implements OBKeyMa
     public OAuthApplicationInfo retrieveApplication(String consumerKey) throws APIManagementException {
 
         OAuthApplicationInfo oAuthApplicationInfo = super.retrieveApplication(consumerKey);
-        String name = oAuthApplicationInfo.getClientName();
         try {
-            String tenantDomain = ServiceProviderUtils.getSpTenantDomain(consumerKey);
-            org.wso2.carbon.identity.application.common.model.ServiceProvider appServiceProvider =
-                    getApplicationMgmtServiceImpl().getServiceProvider(name, tenantDomain);
             // Iterate OB specific additional properties to check whether they override the value of any predefined
             // sp properties in application management listeners
-            List<ServiceProviderProperty> spProperties =
-                    new ArrayList<>(Arrays.asList(appServiceProvider.getSpProperties()));
+            List<ServiceProviderProperty> spProperties = new ArrayList<>();
+            for (Map.Entry<String, String> spPropertyEntry : ServiceProviderMetadataResolver.getInstance()
+                    .getServiceProviderProperties(consumerKey).entrySet()) {
+                ServiceProviderProperty spProperty = new ServiceProviderProperty();
+                spProperty.setName(spPropertyEntry.getKey());
+                spProperty.setValue(spPropertyEntry.getValue());
+                spProperties.add(spProperty);
+            }
             return updateAdditionalProperties(oAuthApplicationInfo, spProperties);
-        } catch (IdentityApplicationManagementException | OpenBankingException e) {
+        } catch (OpenBankingException e) {
             throw new APIManagementException(ExceptionCodes.OAUTH2_APP_RETRIEVAL_FAILED.getErrorMessage(),
                     e, ExceptionCodes.OAUTH2_APP_RETRIEVAL_FAILED);
         }
@@ -333,6 +319,7 @@ public class OBKeyManagerImpl extends AMDefaultKeyManagerImpl implements OBKeyMa
             serviceProvider.setSpProperties(spProperties.toArray(new ServiceProviderProperty[0]));
             try {
                 getApplicationMgmtServiceImpl().updateApplication(serviceProvider, tenantDomain, username);
+                ServiceProviderMetadataResolver.getInstance().invalidate(oAuthConsumerAppDTO.getOauthConsumerKey());
                 if (log.isDebugEnabled()) {
                     log.debug("Successfully updated service provider properties for app " + spAppName);
                 }
@@ -19,6 +19,7 @@ package com.wso2.openbanking.accelerator.keymanager;
 
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
+import com.wso2.openbanking.accelerator.common.identity.retriever.sp.ServiceProviderMetadataResolver;
 import com.wso2.openbanking.accelerator.common.util.ServiceProviderUtils;
 import com.wso2.openbanking.accelerator.keymanager.internal.KeyManagerDataHolder;
 import org.apache.axis2.client.Options;
@@ -34,8 +35,10 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.testng.PowerMockTestCase;
+import org.powermock.reflect.internal.WhiteboxImpl;
 import org.testng.Assert;
 import org.testng.IObjectFactory;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
@@ -69,6 +72,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
@@ -149,6 +153,15 @@ public class KeyManagerTest extends PowerMockTestCase {
     public void init() {
 
         MockitoAnnotations.initMocks(this);
+        WhiteboxImpl.setInternalState(ServiceProviderMetadataResolver.class, "instance",
+                new RegulatoryAppMetadataResolver());
+    }
+
+    @AfterClass
+    public void cleanUp() {
+
+        WhiteboxImpl.setInternalState(ServiceProviderMetadataResolver.class, "instance",
+                (ServiceProviderMetadataResolver) null);
     }
 
     @BeforeMethod()
@@ -508,6 +521,22 @@ public class KeyManagerTest extends PowerMockTestCase {
         Assert.assertTrue(property != null);
     }
 
+    /**
+     * Resolver which returns the SP properties of a regulatory application for any client ID.
+     */
+    private static class RegulatoryAppMetadataResolver extends ServiceProviderMetadataResolver {
+
+        RegulatoryAppMetadataResolver() {
+
+            super(TimeUnit.MINUTES.toMillis(5));
+        }
+
+        @Override
+        protected Map<String, String> retrieveServiceProviderProperties(String clientId) {
+
+            return Collections.singletonMap(OpenBankingConstants.REGULATORY, "true");
+        }
+    }
 }
 
 class OBKeyManagerImplMock extends OBKeyManagerImpl {
@@ -31,6 +31,7 @@ import com.wso2.openbanking.accelerator.consent.extensions.util.jobs.RetentionDa
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCursor;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
 import com.wso2.openbanking.accelerator.consent.mgt.service.ConsentCoreService;
@@ -53,6 +54,8 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
     private static final Log log = LogFactory.getLog(DefaultConsentAdminHandler.class);
     private static final String AUTHORISED = "authorised";
     private static final String FETCH_FROM_RETENTION_DB_QUERY_PARAM = "fetchFromRetentionDatabase";
+    private static final String CURSOR_QUERY_PARAM = "cursor";
+    private static final int DEFAULT_CURSOR_SEARCH_LIMIT = 25;
 
     @Override
     public void handleSearch(ConsentAdminData consentAdminData) throws ConsentException {
@@ -125,6 +128,13 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
             fetchFromRetentionDatabase = Boolean.parseBoolean(validateAndGetQueryParam(queryParams,
                     FETCH_FROM_RETENTION_DB_QUERY_PARAM));
         }
+        // Keyset pagination is used when a cursor is provided, an empty cursor retrieves the first page
+        String cursorToken = validateAndGetQueryParam(queryParams, CURSOR_QUERY_PARAM);
+        if (cursorToken != null) {
+            handleSearchByCursor(consentAdminData, consentIDs, clientIDs, consentTypes, consentStatuses, userIDs,
+                    fromTime, toTime, limit, cursorToken, fetchFromRetentionDatabase);
+            return;
+        }
         int count, total = 0;
 
         try {
@@ -165,6 +175,60 @@ public class DefaultConsentAdminHandler implements ConsentAdminHandler {
         consentAdminData.setResponsePayload(response);
     }
 
+    /**
+     * Search consents using keyset pagination. The response metadata contains an opaque cursor to retrieve the next
+     * page, which is null when there are no more consents. The total is not calculated since it requires reading
+     * all matching consents.
+     */
+    private void handleSearchByCursor(ConsentAdminData consentAdminData, ArrayList<String> consentIDs,
+                                      ArrayList<String> clientIDs, ArrayList<String> consentTypes,
+                                      ArrayList<String> consentStatuses, ArrayList<String> userIDs, Long fromTime,
+                                      Long toTime, Integer limit, String cursorToken,
+                                      boolean fetchFromRetentionDatabase) {
+
+        ConsentSearchCursor cursor = null;
+        if (StringUtils.isNotBlank(cursorToken)) {
+            try {
+                cursor = ConsentSearchCursor.fromToken(cursorToken);
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid cursor received for the consent search", e);
+                throw new ConsentException(ResponseStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+        int pageSize = (limit != null && limit > 0) ? limit : DEFAULT_CURSOR_SEARCH_LIMIT;
+
+        ArrayList<DetailedConsentResource> results;
+        try {
+            results = ConsentExtensionsDataHolder.getInstance().getConsentCoreService()
+                    .searchDetailedConsentsByCursor(consentIDs, clientIDs, consentTypes, consentStatuses, userIDs,
+                            fromTime, toTime, pageSize, cursor, fetchFromRetentionDatabase);
+        } catch (ConsentManagementException e) {
+            throw new ConsentException(ResponseStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+
+        JSONArray searchResults = new JSONArray();
+        for (DetailedConsentResource result : results) {
+            searchResults.add(ConsentExtensionUtils.detailedConsentToJSON(result));
+        }
+        String nextCursor = null;
+        if (results.size() == pageSize) {
+            nextCursor = ConsentSearchCursor.fromConsent(results.get(results.size() - 1)).toToken();
+        }
+
+        JSONObject response = new JSONObject();
+        response.appendField("data", searchResults);
+
+        JSONObject metadata = new JSONObject();
+        metadata.appendField("count", searchResults.size());
+        metadata.appendField("limit", pageSize);
+        metadata.appendField("cursor", StringUtils.isNotBlank(cursorToken) ? cursorToken : null);
+        metadata.appendField("nextCursor", nextCursor);
+
+        response.appendField("metadata", metadata);
+        consentAdminData.setResponseStatus(ResponseStatus.OK);
+        consentAdminData.setResponsePayload(response);
+    }
+
     private String validateAndGetQueryParam(Map queryParams, String key) {
         if (queryParams.containsKey(key) && (((ArrayList) queryParams.get(key)).get(0) instanceof String)) {
             return (String) ((ArrayList) queryParams.get(key)).get(0);
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.consent.extensions.common.idempotency;
+
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCache;
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * Cache definition to store recently used idempotency keys.
+ * Entries expire after the configured idempotency allowed time, since requests received after that window are not
+ * treated as idempotent anyway.
+ */
+public class IdempotencyKeyCache extends OpenBankingBaseCache<IdempotencyKeyCacheKey, IdempotencyKeyResource> {
+
+    private static final String CACHE_NAME = "OB_IDEMPOTENCY_KEY_CACHE";
+    private static final int DEFAULT_EXPIRY_MINUTES = 1440;
+
+    private static volatile IdempotencyKeyCache instance;
+    private final int expiryMinutes;
+
+    /**
+     * Initialize with unique cache name.
+     */
+    private IdempotencyKeyCache() {
+
+        super(CACHE_NAME);
+        this.expiryMinutes = Math.max(1, NumberUtils.toInt(
+                OpenBankingConfigParser.getInstance().getIdempotencyAllowedTime(), DEFAULT_EXPIRY_MINUTES));
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return IdempotencyKeyCache object
+     */
+    public static IdempotencyKeyCache getInstance() {
+
+        if (instance == null) {
+            synchronized (IdempotencyKeyCache.class) {
+                if (instance == null) {
+                    instance = new IdempotencyKeyCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public int getCacheAccessExpiryMinutes() {
+
+        return expiryMinutes;
+    }
+
+    @Override
+    public int getCacheModifiedExpiryMinutes() {
+
+        return expiryMinutes;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.consent.extensions.common.idempotency;
+
+import com.wso2.openbanking.accelerator.common.caching.OpenBankingBaseCacheKey;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Cache Key for idempotency key cache.
+ */
+public class IdempotencyKeyCacheKey extends OpenBankingBaseCacheKey implements Serializable {
+
+    private static final long serialVersionUID = 6182471639281934502L;
+    private final String clientId;
+    private final String idempotencyKey;
+    private final String requestPath;
+
+    public IdempotencyKeyCacheKey(String clientId, String idempotencyKey, String requestPath) {
+
+        this.clientId = clientId;
+        this.idempotencyKey = idempotencyKey;
+        this.requestPath = requestPath;
+    }
+
+    public static IdempotencyKeyCacheKey of(String clientId, String idempotencyKey, String requestPath) {
+
+        return new IdempotencyKeyCacheKey(clientId, idempotencyKey, requestPath);
+    }
+
+    public String getClientId() {
+
+        return clientId;
+    }
+
+    public String getIdempotencyKey() {
+
+        return idempotencyKey;
+    }
+
+    public String getRequestPath() {
+
+        return requestPath;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IdempotencyKeyCacheKey that = (IdempotencyKeyCacheKey) o;
+        return Objects.equals(clientId, that.clientId) && Objects.equals(idempotencyKey, that.idempotencyKey)
+                && Objects.equals(requestPath, that.requestPath);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(clientId, idempotencyKey, requestPath);
+    }
+}
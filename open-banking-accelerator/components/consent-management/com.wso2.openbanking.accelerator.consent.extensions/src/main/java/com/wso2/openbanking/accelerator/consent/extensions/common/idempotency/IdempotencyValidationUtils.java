@@ -21,6 +21,8 @@ package com.wso2.openbanking.accelerator.consent.extensions.common.idempotency;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
 import com.wso2.openbanking.accelerator.consent.extensions.internal.ConsentExtensionsDataHolder;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentAttributes;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 import com.wso2.openbanking.accelerator.consent.mgt.service.ConsentCoreService;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -31,10 +33,9 @@ import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Class to hold idempotency validation utils.
@@ -45,6 +46,54 @@ public class IdempotencyValidationUtils {
     private static final ConsentCoreService consentCoreService = ConsentExtensionsDataHolder.getInstance()
             .getConsentCoreService();
 
+    /**
+     * Method to retrieve a previously used idempotency key from the idempotency key store.
+     * Keys are served from the idempotency key cache when available, and cached after being read from the database.
+     *
+     * @param clientId           Client ID
+     * @param idempotencyKey     Idempotency Key Value
+     * @param requestPath        Request Path
+     * @return   Idempotency key resource if available, else null will be returned
+     */
+    static IdempotencyKeyResource getIdempotencyKey(String clientId, String idempotencyKey, String requestPath) {
+
+        IdempotencyKeyCacheKey cacheKey = IdempotencyKeyCacheKey.of(clientId, idempotencyKey, requestPath);
+        IdempotencyKeyResource idempotencyKeyResource = IdempotencyKeyCache.getInstance().getFromCache(cacheKey);
+        if (idempotencyKeyResource != null) {
+            return idempotencyKeyResource;
+        }
+        try {
+            idempotencyKeyResource = consentCoreService.getIdempotencyKey(clientId, idempotencyKey, requestPath);
+        } catch (ConsentManagementException e) {
+            log.debug("Error while retrieving the idempotency key from the idempotency key store", e);
+            return null;
+        }
+        if (idempotencyKeyResource != null) {
+            IdempotencyKeyCache.getInstance().addToCache(cacheKey, idempotencyKeyResource);
+        }
+        return idempotencyKeyResource;
+    }
+
+    /**
+     * Method to store an idempotency key in the idempotency key store and the idempotency key cache.
+     *
+     * @param idempotencyKeyResource     Idempotency key resource
+     * @return   true if the idempotency key is stored successfully
+     */
+    static boolean storeIdempotencyKey(IdempotencyKeyResource idempotencyKeyResource) {
+
+        try {
+            consentCoreService.storeIdempotencyKey(idempotencyKeyResource);
+        } catch (ConsentManagementException e) {
+            log.error("Error while storing the idempotency key in the idempotency key store", e);
+            return false;
+        }
+        IdempotencyKeyCache.getInstance().addToCache(IdempotencyKeyCacheKey.of(idempotencyKeyResource.getClientID(),
+                idempotencyKeyResource.getIdempotencyKey(), idempotencyKeyResource.getRequestPath()),
+                idempotencyKeyResource);
+        return true;
+    }
+
     /**
      * Method to retrieve the consent ids that have the idempotency key name and value as attribute.
      *
@@ -64,17 +113,23 @@ public class IdempotencyValidationUtils {
     }
 
     /**
-     * Method to retrieve the consent ids and idempotency key value using the idempotency key.
+     * Method to retrieve the idempotency key value stored as an attribute of the given consent.
      *
+     * @param consentId              Consent ID
      * @param idempotencyKeyName     Idempotency Key Name
-     * @return   Map of consent ids and idempotency key vallue if available, else an empty map will be returned
+     * @return   Idempotency key value if available, else null will be returned
      */
-    static Map<String, String> getAttributesFromIdempotencyKey(String idempotencyKeyName) {
+    static String getIdempotencyKeyOfConsent(String consentId, String idempotencyKeyName) {
         try {
-            return consentCoreService.getConsentAttributesByName(idempotencyKeyName);
+            ConsentAttributes consentAttributes = consentCoreService.getConsentAttributes(consentId,
+                    new ArrayList<>(Collections.singletonList(idempotencyKeyName)));
+            if (consentAttributes == null || consentAttributes.getConsentAttributes() == null) {
+                return null;
+            }
+            return consentAttributes.getConsentAttributes().get(idempotencyKeyName);
         } catch (ConsentManagementException e) {
-            log.debug("No consent ids found for the idempotency key value");
-            return new HashMap<>();
+            log.debug("No idempotency key found for the consent");
+            return null;
         }
     }
 
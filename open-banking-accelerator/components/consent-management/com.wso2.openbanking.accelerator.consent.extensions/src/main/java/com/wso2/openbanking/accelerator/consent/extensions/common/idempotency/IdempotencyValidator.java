@@ -25,7 +25,9 @@ import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
 import com.wso2.openbanking.accelerator.consent.extensions.internal.ConsentExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.consent.extensions.manage.model.ConsentManageData;
+import com.wso2.openbanking.accelerator.consent.extensions.util.ConsentManageUtil;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 import com.wso2.openbanking.accelerator.consent.mgt.service.ConsentCoreService;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -33,7 +35,6 @@ import org.apache.commons.logging.LogFactory;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Class to handle idempotency related operations.
@@ -48,8 +49,11 @@ public class IdempotencyValidator {
      * Method to check whether the request is idempotent.
      * This method will first check whether idempotency validation is enabled. After that it will validate whether
      * required parameters for validation is present.
-     * For validation, need to check whether the idempotency key values is present as a consent attribute, if present
-     * the consent will be retrieved. Finally following conditions will be validated.
+     * For validation, need to check whether the idempotency key value is present in the idempotency key store for the
+     * client and request path. If not found, the idempotency key value is looked up from the consent attributes of
+     * the consents in the request path for requests without payload, and of all consents for requests with payload
+     * when the consent attribute fallback is enabled. If present the consent will be retrieved. Finally following
+     * conditions will be validated.
      *  - Whether the client id sent in the request and client id retrieved from the database are equal
      *  - Whether the difference between two dates is less than the configured time
      *  - Whether payloads are equal
@@ -83,27 +87,7 @@ public class IdempotencyValidator {
         try {
             String idempotencyKeyName = getIdempotencyAttributeName(consentManageData.getRequestPath());
             if (!IdempotencyConstants.EMPTY_OBJECT.equals(consentManageData.getPayload().toString())) {
-                // Retrieve consent ids that have the idempotency key name and value as attribute
-                List<String> consentIds = IdempotencyValidationUtils
-                        .getConsentIdsFromIdempotencyKey(idempotencyKeyName, idempotencyKeyValue);
-                // Check whether the consent id list is not empty. If idempotency key exists in the database then
-                // the consent Id list will be not empty.
-                if (!consentIds.isEmpty()) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("Idempotency Key  %s exists in the database. Hence this is an" +
-                                " idempotent request", idempotencyKeyValue));
-                    }
-                    for (String consentId : consentIds) {
-                        DetailedConsentResource consentResource = consentCoreService.getDetailedConsent(consentId);
-                        if (consentResource != null) {
-                            return validateIdempotencyConditions(consentManageData, consentResource);
-                        } else {
-                            String errorMsg = String.format(IdempotencyConstants.ERROR_NO_CONSENT_DETAILS, consentId);
-                            log.error(errorMsg);
-                            throw new IdempotencyValidationException(errorMsg);
-                        }
-                    }
-                }
+                return validateIdempotencyWithPayload(consentManageData, idempotencyKeyName, idempotencyKeyValue);
             } else {
                 return validateIdempotencyWithoutPayload(consentManageData, idempotencyKeyName, idempotencyKeyValue);
             }
@@ -114,12 +98,87 @@ public class IdempotencyValidator {
             log.error(IdempotencyConstants.CONSENT_RETRIEVAL_ERROR, e);
             return new IdempotencyValidationResult(true, false);
         }
+    }
+
+    /**
+     * Method to store the idempotency key of a request in the idempotency key store.
+     * This method should be invoked once the consent related to the request is persisted, so that retried requests
+     * with the same idempotency key can be identified without scanning the consent attributes.
+     *
+     * @param consentManageData     Consent Manage Data
+     * @param consentId             ID of the consent created for the request
+     * @param createdTime           Created time of the request in epoch seconds
+     * @return  true if the idempotency key is stored successfully
+     */
+    public boolean storeIdempotencyKey(ConsentManageData consentManageData, String consentId, long createdTime) {
+
+        if (!OpenBankingConfigParser.getInstance().isIdempotencyValidationEnabled()) {
+            return false;
+        }
+        String idempotencyKeyValue = consentManageData.getHeaders().get(getIdempotencyHeaderName());
+        if (StringUtils.isBlank(idempotencyKeyValue) || StringUtils.isBlank(consentManageData.getClientId())) {
+            log.debug("Client ID or idempotency key value is empty. Hence not storing the idempotency key");
+            return false;
+        }
+        return IdempotencyValidationUtils.storeIdempotencyKey(new IdempotencyKeyResource(
+                consentManageData.getClientId(), idempotencyKeyValue, consentManageData.getRequestPath(),
+                consentId, createdTime));
+    }
+
+    /**
+     * Method to check whether the idempotency conditions are met for requests with payload.
+     * The idempotency key is looked up from the idempotency key store. If not found and the consent attribute
+     * fallback is enabled, the consents having the idempotency key as an attribute are looked up, and the key of
+     * a valid idempotent request is moved to the idempotency key store.
+     *
+     * @param consentManageData        Consent Manage Data
+     * @param idempotencyKeyName       Idempotency Key Name
+     * @param idempotencyKeyValue      Idempotency Key value
+     * @return  IdempotencyValidationResult
+     */
+    private IdempotencyValidationResult validateIdempotencyWithPayload(ConsentManageData consentManageData,
+                                                                       String idempotencyKeyName,
+                                                                       String idempotencyKeyValue)
+            throws IdempotencyValidationException, IOException, ConsentManagementException {
+
+        IdempotencyKeyResource idempotencyKeyResource = IdempotencyValidationUtils.getIdempotencyKey(
+                consentManageData.getClientId(), idempotencyKeyValue, consentManageData.getRequestPath());
+        if (idempotencyKeyResource != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Idempotency Key  %s exists in the idempotency key store. Hence this is" +
+                        " an idempotent request", idempotencyKeyValue));
+            }
+            return validateIdempotencyConditions(consentManageData,
+                    getConsent(idempotencyKeyResource.getConsentID()));
+        }
+        if (!OpenBankingConfigParser.getInstance().isIdempotencyConsentAttributeFallbackEnabled()) {
+            return new IdempotencyValidationResult(false, false);
+        }
+        // Retrieve consent ids that have the idempotency key name and value as attribute
+        List<String> consentIds = IdempotencyValidationUtils
+                .getConsentIdsFromIdempotencyKey(idempotencyKeyName, idempotencyKeyValue);
+        // Check whether the consent id list is not empty. If idempotency key exists in the database then
+        // the consent Id list will be not empty.
+        if (!consentIds.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Idempotency Key  %s exists in the database. Hence this is an" +
+                        " idempotent request", idempotencyKeyValue));
+            }
+            String consentId = consentIds.get(0);
+            IdempotencyValidationResult result = validateIdempotencyConditions(consentManageData,
+                    getConsent(consentId));
+            storeIdempotencyKey(consentManageData, consentId,
+                    getCreatedTimeOfPreviousRequest(consentManageData.getRequestPath(), consentId));
+            return result;
+        }
         return new IdempotencyValidationResult(false, false);
     }
 
     /**
      * Method to check whether the idempotency conditions are met for requests without payload.
-     * This method will validate the following conditions.
+     * The idempotency key is looked up from the idempotency key store. If not found, the idempotency key stored as
+     * an attribute of the consents in the request path is looked up, and the key of a valid idempotent request is
+     * moved to the idempotency key store. This method will validate the following conditions.
      *  - Whether the idempotency key value is different for the same consent id
      *  - Whether the client id sent in the request and client id retrieved from the database are equal
      *  - Whether the difference between two dates is less than the configured time
@@ -135,35 +194,63 @@ public class IdempotencyValidator {
                                                                           String idempotencyKeyValue)
             throws IdempotencyValidationException, IOException, ConsentManagementException {
 
-        // Retrieve consent ids and idempotency key values that have the idempotency key name
-        Map<String, String> attributes = IdempotencyValidationUtils.getAttributesFromIdempotencyKey(idempotencyKeyName);
-        // Check whether the attributes map is not empty. If idempotency key exists in the database then
-        // the consent Id list will be not empty.
-        if (!attributes.isEmpty()) {
+        String requestPath = consentManageData.getRequestPath();
+        IdempotencyKeyResource idempotencyKeyResource = IdempotencyValidationUtils.getIdempotencyKey(
+                consentManageData.getClientId(), idempotencyKeyValue, requestPath);
+        if (idempotencyKeyResource != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Idempotency Key  %s exists in the idempotency key store. Hence this is" +
+                        " an idempotent request", idempotencyKeyValue));
+            }
+            return validateIdempotencyConditions(consentManageData,
+                    getConsent(idempotencyKeyResource.getConsentID()));
+        }
+        if (StringUtils.isBlank(requestPath)) {
+            return new IdempotencyValidationResult(false, false);
+        }
+        for (String consentId : requestPath.split("/")) {
+            if (!ConsentManageUtil.isConsentIdValid(consentId)) {
+                continue;
+            }
+            String previousIdempotencyKeyValue = IdempotencyValidationUtils
+                    .getIdempotencyKeyOfConsent(consentId, idempotencyKeyName);
+            if (previousIdempotencyKeyValue == null) {
+                continue;
+            }
+            // If the idempotency key value is different for the same consent id then it is not a valid idempotent
+            if (!idempotencyKeyValue.equals(previousIdempotencyKeyValue)) {
+                throw new IdempotencyValidationException(IdempotencyConstants.SAME_CONSENT_ID_ERROR);
+            }
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Idempotency Key  %s exists in the database. Hence this is an" +
                         " idempotent request", idempotencyKeyValue));
             }
-            for (Map.Entry<String, String> entry : attributes.entrySet()) {
-                // If the idempotency key value is different for the same consent id then it is not a valid idempotent
-                if (consentManageData.getRequestPath().contains(entry.getKey()) &&
-                        !idempotencyKeyValue.equals(entry.getValue())) {
-                    throw new IdempotencyValidationException(IdempotencyConstants.SAME_CONSENT_ID_ERROR);
-                }
-                DetailedConsentResource consentRequest = consentCoreService.getDetailedConsent(entry.getKey());
-                if (consentRequest != null) {
-                    return validateIdempotencyConditions(consentManageData, consentRequest);
-                } else {
-                    String errorMsg = String.format(IdempotencyConstants.ERROR_NO_CONSENT_DETAILS, entry.getKey());
-                    log.error(errorMsg);
-                    throw new IdempotencyValidationException(errorMsg);
-                }
-            }
-
+            IdempotencyValidationResult result = validateIdempotencyConditions(consentManageData,
+                    getConsent(consentId));
+            storeIdempotencyKey(consentManageData, consentId, getCreatedTimeOfPreviousRequest(requestPath, consentId));
+            return result;
         }
         return new IdempotencyValidationResult(false, false);
     }
 
+    /**
+     * Method to retrieve the consent of a previous request with the same idempotency key.
+     *
+     * @param consentId     Consent ID
+     * @return  Detailed Consent Resource
+     */
+    private DetailedConsentResource getConsent(String consentId)
+            throws IdempotencyValidationException, ConsentManagementException {
+
+        DetailedConsentResource consentResource = consentCoreService.getDetailedConsent(consentId);
+        if (consentResource == null) {
+            String errorMsg = String.format(IdempotencyConstants.ERROR_NO_CONSENT_DETAILS, consentId);
+            log.error(errorMsg);
+            throw new IdempotencyValidationException(errorMsg);
+        }
+        return consentResource;
+    }
+
     /**
      * Method to check whether the idempotency conditions are met.
      * This method will validate the following conditions.
@@ -24,6 +24,7 @@ import com.wso2.openbanking.accelerator.consent.extensions.common.ConsentExtensi
 import com.wso2.openbanking.accelerator.consent.extensions.common.ConsentExtensionUtils;
 import com.wso2.openbanking.accelerator.consent.extensions.common.ConsentServiceUtil;
 import com.wso2.openbanking.accelerator.consent.extensions.common.ResponseStatus;
+import com.wso2.openbanking.accelerator.consent.extensions.common.idempotency.IdempotencyValidator;
 import com.wso2.openbanking.accelerator.consent.extensions.internal.ConsentExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.consent.extensions.manage.model.ConsentManageData;
 import com.wso2.openbanking.accelerator.consent.extensions.manage.validator.PaymentsConsentRequestValidator;
@@ -153,6 +154,8 @@ public class PaymentConsentRequestHandler implements ConsentManageRequestHandler
                 .get(ConsentExtensionConstants.X_IDEMPOTENCY_KEY));
         ConsentServiceUtil.getConsentService().storeConsentAttributes(createdConsent.getConsentID(),
                 consentAttributes);
+        new IdempotencyValidator().storeIdempotencyKey(consentManageData, createdConsent.getConsentID(),
+                createdConsent.getCreatedTime());
         consentManageData.setResponsePayload(ConsentManageUtil.getInitiationResponse(response, createdConsent,
                 consentManageData, ConsentExtensionConstants.PAYMENTS));
 
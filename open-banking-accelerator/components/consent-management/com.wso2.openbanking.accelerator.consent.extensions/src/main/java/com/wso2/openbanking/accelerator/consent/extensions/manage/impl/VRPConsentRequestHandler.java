@@ -24,6 +24,7 @@ import com.wso2.openbanking.accelerator.consent.extensions.common.ConsentExcepti
 import com.wso2.openbanking.accelerator.consent.extensions.common.ConsentExtensionConstants;
 import com.wso2.openbanking.accelerator.consent.extensions.common.ConsentServiceUtil;
 import com.wso2.openbanking.accelerator.consent.extensions.common.ResponseStatus;
+import com.wso2.openbanking.accelerator.consent.extensions.common.idempotency.IdempotencyValidator;
 import com.wso2.openbanking.accelerator.consent.extensions.manage.model.ConsentManageData;
 import com.wso2.openbanking.accelerator.consent.extensions.manage.model.PeriodicLimit;
 import com.wso2.openbanking.accelerator.consent.extensions.manage.validator.VRPConsentRequestValidator;
@@ -156,6 +157,7 @@ public class VRPConsentRequestHandler implements ConsentManageRequestHandler {
      * based on the provided request payload. It performs the following actions:
      * - Creates a DetailedConsentResource representing the consent initiation.
      * - Stores consent attributes, including the idempotency key.
+     * - Stores the idempotency key in the idempotency key store.
      * - Constructs the response payload containing initiation details and sets appropriate headers.
      * - Sets the response status to Created.
      *
@@ -188,6 +190,10 @@ public class VRPConsentRequestHandler implements ConsentManageRequestHandler {
         ConsentServiceUtil.getConsentService().storeConsentAttributes(createdConsent.getConsentID(),
                 consentAttributes);
 
+        // Store idempotency key to look up retried requests
+        new IdempotencyValidator().storeIdempotencyKey(consentManageData, createdConsent.getConsentID(),
+                createdConsent.getCreatedTime());
+
         // Set response payload and headers
         setResponse(consentManageData, requestObject, createdConsent);
     }
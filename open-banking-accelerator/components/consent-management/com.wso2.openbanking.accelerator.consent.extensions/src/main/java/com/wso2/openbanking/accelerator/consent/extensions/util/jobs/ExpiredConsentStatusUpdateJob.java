@@ -21,9 +21,9 @@ package com.wso2.openbanking.accelerator.consent.extensions.util.jobs;
 import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
 import com.wso2.openbanking.accelerator.consent.extensions.internal.ConsentExtensionsDataHolder;
-import com.wso2.openbanking.accelerator.consent.mgt.dao.constants.ConsentMgtDAOConstants;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ExpiredConsentChunk;
 import com.wso2.openbanking.accelerator.consent.mgt.service.ConsentCoreService;
 import com.wso2.openbanking.accelerator.consent.mgt.service.constants.ConsentCoreServiceConstants;
 import org.apache.commons.logging.Log;
@@ -33,16 +33,12 @@ import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Map;
-
 /**
- * Scheduled Task to read and update expired consents in the DB
- * 1) Read the consents which has a expiry time attribute from the DB.
- * 2) Check if expired, and collect expired consents
- * 3) Update the expired statues in DB
- * 4) Notify state change to relevant handler.
+ * Scheduled Task to update the status of expired consents in the DB
+ * 1) Select a chunk of consents in an eligible status whose expiry time attribute has passed.
+ * 2) Update the status of the chunk and store the audit records in a single transaction.
+ * 3) Notify state change to relevant handler.
+ * 4) Continue with the next chunk until all the expired consents are updated.
  */
 @DisallowConcurrentExecution
 public class ExpiredConsentStatusUpdateJob implements Job {
@@ -52,6 +48,8 @@ public class ExpiredConsentStatusUpdateJob implements Job {
             OpenBankingConfigParser.getInstance().getStatusWordingForExpiredConsents();
     private static final String expirationEligibleConsentStatuses =
             OpenBankingConfigParser.getInstance().getEligibleStatusesForConsentExpiry();
+    private static final int expirationChunkSize =
+            OpenBankingConfigParser.getInstance().getConsentExpirationChunkSize();
 
     /**
      * Method used to enforce periodic statues update of consents.
@@ -75,68 +73,59 @@ public class ExpiredConsentStatusUpdateJob implements Job {
     public static void updateExpiredStatues() throws ConsentManagementException {
 
         log.debug("Expired Consent Status Update Scheduled Task is executing.");
-        // get consents which has a expiry time attribute
-        ArrayList<DetailedConsentResource> consentsEligibleForExpiration =
-                ConsentExtensionsDataHolder.getInstance().getConsentCoreService()
-                        .getConsentsEligibleForExpiration(expirationEligibleConsentStatuses);
-        // filter out expired consents and change the status of expired consents
-        for (DetailedConsentResource consentResource : consentsEligibleForExpiration) {
-            if (isExpired(consentResource)) {
-                String updatedConsentId = updateConsentExpiredStatus(consentResource);
-                if (log.isDebugEnabled()) {
-                    log.debug("Expired status updated for consent : " + updatedConsentId);
+        ConsentCoreService consentCoreService = ConsentExtensionsDataHolder.getInstance().getConsentCoreService();
+        long startTime = System.currentTimeMillis();
+        long oldestExpiryTime = 0;
+        int selectedCount = 0;
+        int expiredCount = 0;
+        String lastConsentID = null;
+        ExpiredConsentChunk expiredConsentChunk;
+        try {
+            do {
+                expiredConsentChunk = consentCoreService.expireConsents(expirationEligibleConsentStatuses,
+                        expiredConsentStatus, lastConsentID, expirationChunkSize);
+                for (DetailedConsentResource expiredConsent : expiredConsentChunk.getExpiredConsents()) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Expired status updated for consent : " + expiredConsent.getConsentID());
+                    }
+                    try {
+                        //since the consent status is changed during the consent expiration, the previous status will
+                        //be saved in the consent history to properly back-track the previous status held in the consent
+                        storeConsentStateChangeInConsentHistory(expiredConsent);
+                    } catch (ConsentManagementException e) {
+                        log.error("Error occurred while storing consent history for consentId : " +
+                                expiredConsent.getConsentID(), e);
+                    }
                 }
-            }
+                if (expiredConsentChunk.getOldestExpiryTime() != 0) {
+                    oldestExpiryTime = oldestExpiryTime == 0 ? expiredConsentChunk.getOldestExpiryTime() :
+                            Math.min(oldestExpiryTime, expiredConsentChunk.getOldestExpiryTime());
+                }
+                selectedCount += expiredConsentChunk.getSelectedCount();
+                expiredCount += expiredConsentChunk.getExpiredConsents().size();
+                lastConsentID = expiredConsentChunk.getLastConsentID();
+            } while (lastConsentID != null);
+        } finally {
+            logExpirationMetrics(startTime, selectedCount, expiredCount, oldestExpiryTime);
         }
         log.debug("Expired Consent Status Update Scheduled Task is finished.");
     }
 
     /**
-     * Check if the consents is expired based on the consent attribute value.
-     *
-     * @param detailedConsentResource
-     * @return
+     * Log the throughput of the expiration and the lag between the earliest expiry time and the expiration.
      */
-    private static boolean isExpired(DetailedConsentResource detailedConsentResource) {
+    private static void logExpirationMetrics(long startTime, int selectedCount, int expiredCount,
+                                             long oldestExpiryTime) {
 
-        Map<String, String> consentAttributes = detailedConsentResource.getConsentAttributes();
-        if (consentAttributes.containsKey(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE)) {
-            // Read the UTC expiry timestamp in long
-            long expiryTimestamp = Long.parseLong(
-                    consentAttributes.get(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE));
-            // Compare with current UTC timestamp in long
-            Instant instant = Instant.now();
-            long currentTimeStampSeconds = instant.getEpochSecond();
-            if (currentTimeStampSeconds >= expiryTimestamp) {
-                log.info("Consent " + detailedConsentResource.getConsentID() + " is identified as expired based on the "
-                        + "given consent expiration time : " + expiryTimestamp);
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Update the expired consents in DB.
-     *
-     * @param detailedConsentResource
-     * @return
-     */
-    private static String updateConsentExpiredStatus(DetailedConsentResource detailedConsentResource) {
-
-        try {
-            ConsentExtensionsDataHolder.getInstance().getConsentCoreService()
-                    .updateConsentStatus(detailedConsentResource.getConsentID(), expiredConsentStatus);
-
-            //since the consent status is changed during the consent expiration, the previous status will be saved
-            //in the consent history to properly back-track the previous status held in the consent
-            storeConsentStateChangeInConsentHistory(detailedConsentResource);
-
-        } catch (ConsentManagementException e) {
-            log.error("Error occurred while updating status for consentId : " +
-                    detailedConsentResource.getConsentID(), e);
+        if (selectedCount == 0) {
+            return;
         }
-        return detailedConsentResource.getConsentID();
+        long currentTime = System.currentTimeMillis();
+        long elapsedMillis = Math.max(currentTime - startTime, 1);
+        long lagSeconds = oldestExpiryTime == 0 ? 0 : Math.max(currentTime / 1000 - oldestExpiryTime, 0);
+        log.info(String.format("Expired %d of %d consents selected for expiration in %d ms (%.1f consents/s). " +
+                        "Maximum expiration lag: %d s", expiredCount, selectedCount, elapsedMillis,
+                expiredCount * 1000.0 / elapsedMillis, lagSeconds));
     }
 
     private static void storeConsentStateChangeInConsentHistory(DetailedConsentResource detailedConsentResource)
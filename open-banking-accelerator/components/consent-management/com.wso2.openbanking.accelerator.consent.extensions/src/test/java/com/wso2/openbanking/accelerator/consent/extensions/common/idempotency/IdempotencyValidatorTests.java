@@ -22,7 +22,9 @@ import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
 import com.wso2.openbanking.accelerator.consent.extensions.internal.ConsentExtensionsDataHolder;
 import com.wso2.openbanking.accelerator.consent.extensions.manage.model.ConsentManageData;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentAttributes;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 import com.wso2.openbanking.accelerator.consent.mgt.service.impl.ConsentCoreServiceImpl;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -38,19 +40,21 @@ import org.testng.annotations.Test;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Test class for IdempotencyValidator.
  */
-@PrepareForTest({OpenBankingConfigParser.class, ConsentExtensionsDataHolder.class})
+@PrepareForTest({OpenBankingConfigParser.class, ConsentExtensionsDataHolder.class, IdempotencyKeyCache.class})
 @PowerMockIgnore("jdk.internal.reflect.*")
 public class IdempotencyValidatorTests extends PowerMockTestCase {
 
     @Mock
     private ConsentManageData consentManageData;
     private ConsentCoreServiceImpl consentCoreServiceImpl;
+    private OpenBankingConfigParser openBankingConfigParserMock;
     private ArrayList<String> consentIdList;
     private Map<String, String> attributeList;
     private String consentId;
@@ -129,15 +133,16 @@ public class IdempotencyValidatorTests extends PowerMockTestCase {
         consentIdList.add(consentId);
 
         attributeList = new HashMap<>();
-        attributeList.put(consentId, "123456");
+        attributeList.put(IdempotencyConstants.IDEMPOTENCY_KEY_NAME, "123456");
     }
 
     @BeforeMethod
     public void beforeMethod() {
-        OpenBankingConfigParser openBankingConfigParserMock = PowerMockito.mock(OpenBankingConfigParser.class);
+        openBankingConfigParserMock = PowerMockito.mock(OpenBankingConfigParser.class);
         Mockito.doReturn(configs).when(openBankingConfigParserMock).getConfiguration();
         Mockito.doReturn(true).when(openBankingConfigParserMock).isIdempotencyValidationEnabled();
         Mockito.doReturn("1").when(openBankingConfigParserMock).getIdempotencyAllowedTime();
+        Mockito.doReturn(true).when(openBankingConfigParserMock).isIdempotencyConsentAttributeFallbackEnabled();
         ConsentExtensionsDataHolder consentExtensionsDataHolderMock = PowerMockito
                 .mock(ConsentExtensionsDataHolder.class);
 
@@ -147,6 +152,104 @@ public class IdempotencyValidatorTests extends PowerMockTestCase {
         PowerMockito.mockStatic(ConsentExtensionsDataHolder.class);
         PowerMockito.when(ConsentExtensionsDataHolder.getInstance()).thenReturn(consentExtensionsDataHolderMock);
         PowerMockito.when(consentExtensionsDataHolderMock.getConsentCoreService()).thenReturn(consentCoreServiceImpl);
+
+        IdempotencyKeyCache idempotencyKeyCacheMock = PowerMockito.mock(IdempotencyKeyCache.class);
+        PowerMockito.mockStatic(IdempotencyKeyCache.class);
+        PowerMockito.when(IdempotencyKeyCache.getInstance()).thenReturn(idempotencyKeyCacheMock);
+
+        try {
+            Mockito.doReturn(null).when(consentCoreServiceImpl)
+                    .getIdempotencyKey(Mockito.any(), Mockito.any(), Mockito.any());
+        } catch (ConsentManagementException e) {
+            Assert.fail("Unexpected exception while mocking the idempotency key store", e);
+        }
+    }
+
+    @Test
+    public void testValidateIdempotencyFromIdempotencyKeyStore() throws ConsentManagementException,
+            IdempotencyValidationException {
+        OffsetDateTime offsetDateTime = OffsetDateTime.now();
+
+        Mockito.doReturn(getIdempotencyKey(offsetDateTime.toEpochSecond())).when(consentCoreServiceImpl)
+                .getIdempotencyKey(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doReturn(getConsent(offsetDateTime.toEpochSecond())).when(consentCoreServiceImpl)
+                .getDetailedConsent(Mockito.anyString());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn(PAYLOAD).when(consentManageData).getPayload();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertTrue(result.isIdempotent());
+        Assert.assertTrue(result.isValid());
+        Assert.assertEquals(consentId, result.getConsentId());
+    }
+
+    @Test
+    public void testValidateIdempotencyWithoutPayloadFromIdempotencyKeyStore() throws ConsentManagementException,
+            IdempotencyValidationException {
+        OffsetDateTime offsetDateTime = OffsetDateTime.now();
+
+        Mockito.doReturn(getIdempotencyKey(offsetDateTime.toEpochSecond())).when(consentCoreServiceImpl)
+                .getIdempotencyKey(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doReturn(getConsent(offsetDateTime.toEpochSecond(), "{}")).when(consentCoreServiceImpl)
+                .getDetailedConsent(Mockito.anyString());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn("{}").when(consentManageData).getPayload();
+        Mockito.doReturn("/payments/".concat(consentId).concat("/file")).when(consentManageData).getRequestPath();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertTrue(result.isIdempotent());
+        Assert.assertTrue(result.isValid());
+    }
+
+    @Test
+    public void testValidateIdempotencyWithConsentAttributeFallbackDisabled() throws ConsentManagementException,
+            IdempotencyValidationException {
+
+        Mockito.doReturn(false).when(openBankingConfigParserMock).isIdempotencyConsentAttributeFallbackEnabled();
+        Mockito.doReturn(consentIdList).when(consentCoreServiceImpl)
+                .getConsentIdByConsentAttributeNameAndValue(Mockito.anyString(), Mockito.anyString());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn(PAYLOAD).when(consentManageData).getPayload();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertFalse(result.isIdempotent());
+    }
+
+    @Test
+    public void testStoreIdempotencyKey() throws ConsentManagementException {
+
+        Mockito.doReturn(true).when(consentCoreServiceImpl).storeIdempotencyKey(Mockito.any());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn("/payments").when(consentManageData).getRequestPath();
+
+        Assert.assertTrue(new IdempotencyValidator().storeIdempotencyKey(consentManageData, consentId,
+                OffsetDateTime.now().toEpochSecond()));
+    }
+
+    @Test
+    public void testStoreIdempotencyKeyWithStoreError() throws ConsentManagementException {
+
+        Mockito.doThrow(ConsentManagementException.class).when(consentCoreServiceImpl)
+                .storeIdempotencyKey(Mockito.any());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn("/payments").when(consentManageData).getRequestPath();
+
+        Assert.assertFalse(new IdempotencyValidator().storeIdempotencyKey(consentManageData, consentId,
+                OffsetDateTime.now().toEpochSecond()));
+    }
+
+    @Test
+    public void testStoreIdempotencyKeyWhenIdempotencyDisabled() {
+
+        Mockito.doReturn(false).when(openBankingConfigParserMock).isIdempotencyValidationEnabled();
+
+        Assert.assertFalse(new IdempotencyValidator().storeIdempotencyKey(consentManageData, consentId,
+                OffsetDateTime.now().toEpochSecond()));
     }
 
     @Test
@@ -173,17 +276,77 @@ public class IdempotencyValidatorTests extends PowerMockTestCase {
             IdempotencyValidationException {
         OffsetDateTime offsetDateTime = OffsetDateTime.now();
 
-        Mockito.doReturn(attributeList).when(consentCoreServiceImpl).getConsentAttributesByName(Mockito.anyString());
+        Mockito.doReturn(new ConsentAttributes(consentId, attributeList)).when(consentCoreServiceImpl)
+                .getConsentAttributes(Mockito.anyString(), Mockito.any());
         Mockito.doReturn(getConsent(offsetDateTime.toEpochSecond())).when(consentCoreServiceImpl)
                 .getDetailedConsent(Mockito.anyString());
         Mockito.doReturn(headers).when(consentManageData).getHeaders();
         Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
         Mockito.doReturn("{}").when(consentManageData).getPayload();
-        Mockito.doReturn("{}").when(consentManageData).getPayload();
         Mockito.doReturn("/payments/".concat(consentId)).when(consentManageData).getRequestPath();
         new IdempotencyValidator().validateIdempotency(consentManageData);
     }
 
+    @Test
+    public void testValidateIdempotencyWithoutPayloadStoresIdempotencyKey() throws ConsentManagementException,
+            IdempotencyValidationException {
+        OffsetDateTime offsetDateTime = OffsetDateTime.now();
+        List<IdempotencyKeyResource> storedKeys = recordStoredIdempotencyKeys();
+
+        Mockito.doReturn(new ConsentAttributes(consentId, attributeList)).when(consentCoreServiceImpl)
+                .getConsentAttributes(Mockito.anyString(), Mockito.any());
+        Mockito.doReturn(getConsent(offsetDateTime.toEpochSecond(), "{}")).when(consentCoreServiceImpl)
+                .getDetailedConsent(Mockito.anyString());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn("{}").when(consentManageData).getPayload();
+        Mockito.doReturn("/payments/".concat(consentId).concat("/file")).when(consentManageData).getRequestPath();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertTrue(result.isIdempotent());
+        Assert.assertTrue(result.isValid());
+        Assert.assertEquals(storedKeys.size(), 1);
+        Assert.assertEquals(storedKeys.get(0).getConsentID(), consentId);
+        Assert.assertEquals(storedKeys.get(0).getRequestPath(), "/payments/".concat(consentId).concat("/file"));
+    }
+
+    @Test(expectedExceptions = IdempotencyValidationException.class)
+    public void testValidateIdempotencyWithoutPayloadForDifferentKeyOfSameConsent() throws ConsentManagementException,
+            IdempotencyValidationException {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(IdempotencyConstants.IDEMPOTENCY_KEY_NAME, "654321");
+
+        Mockito.doReturn(new ConsentAttributes(consentId, attributes)).when(consentCoreServiceImpl)
+                .getConsentAttributes(Mockito.anyString(), Mockito.any());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn("{}").when(consentManageData).getPayload();
+        Mockito.doReturn("/payments/".concat(consentId).concat("/file")).when(consentManageData).getRequestPath();
+        new IdempotencyValidator().validateIdempotency(consentManageData);
+    }
+
+    @Test
+    public void testValidateIdempotencyFromConsentAttributeFallbackStoresIdempotencyKey()
+            throws ConsentManagementException, IdempotencyValidationException {
+        OffsetDateTime offsetDateTime = OffsetDateTime.now();
+        List<IdempotencyKeyResource> storedKeys = recordStoredIdempotencyKeys();
+
+        Mockito.doReturn(consentIdList).when(consentCoreServiceImpl)
+                .getConsentIdByConsentAttributeNameAndValue(Mockito.anyString(), Mockito.anyString());
+        Mockito.doReturn(getConsent(offsetDateTime.toEpochSecond())).when(consentCoreServiceImpl)
+                .getDetailedConsent(Mockito.anyString());
+        Mockito.doReturn(headers).when(consentManageData).getHeaders();
+        Mockito.doReturn(CLIENT_ID).when(consentManageData).getClientId();
+        Mockito.doReturn(PAYLOAD).when(consentManageData).getPayload();
+        Mockito.doReturn("/payments").when(consentManageData).getRequestPath();
+        IdempotencyValidationResult result = new IdempotencyValidator().validateIdempotency(consentManageData);
+
+        Assert.assertTrue(result.isIdempotent());
+        Assert.assertEquals(storedKeys.size(), 1);
+        Assert.assertEquals(storedKeys.get(0).getIdempotencyKey(), "123456");
+        Assert.assertEquals(storedKeys.get(0).getConsentID(), consentId);
+    }
+
     @Test
     public void testValidateIdempotencyWithoutIdempotencyKeyValue() throws IdempotencyValidationException {
 
@@ -292,12 +455,29 @@ public class IdempotencyValidatorTests extends PowerMockTestCase {
 
     }
 
+    private List<IdempotencyKeyResource> recordStoredIdempotencyKeys() throws ConsentManagementException {
+        List<IdempotencyKeyResource> storedKeys = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            storedKeys.add((IdempotencyKeyResource) invocation.getArguments()[0]);
+            return true;
+        }).when(consentCoreServiceImpl).storeIdempotencyKey(Mockito.any());
+        return storedKeys;
+    }
+
     private DetailedConsentResource getConsent(long createdTime) {
+        return getConsent(createdTime, PAYLOAD);
+    }
+
+    private DetailedConsentResource getConsent(long createdTime, String receipt) {
         DetailedConsentResource consent = new DetailedConsentResource();
         consent.setConsentID(consentId);
-        consent.setReceipt(PAYLOAD);
+        consent.setReceipt(receipt);
         consent.setClientID(CLIENT_ID);
         consent.setCreatedTime(createdTime);
         return consent;
     }
+
+    private IdempotencyKeyResource getIdempotencyKey(long createdTime) {
+        return new IdempotencyKeyResource(CLIENT_ID, "123456", "/payments", consentId, createdTime);
+    }
 }
@@ -29,8 +29,10 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCursor;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -235,6 +237,31 @@ public interface ConsentCoreDAO {
                                                                  String attributeValue)
             throws OBConsentDataRetrievalException;
 
+    /**
+     * This method is used to store the idempotency key of a consent request.
+     *
+     * @param connection connection object
+     * @param idempotencyKeyResource idempotency key resource
+     * @return true if the idempotency key is stored successfully
+     * @throws OBConsentDataInsertionException thrown if a database error occurs
+     */
+    boolean storeIdempotencyKey(Connection connection, IdempotencyKeyResource idempotencyKeyResource)
+            throws OBConsentDataInsertionException;
+
+    /**
+     * This method is used to retrieve the idempotency key of a consent request using its primary key.
+     *
+     * @param connection connection object
+     * @param clientID client ID
+     * @param idempotencyKey idempotency key value
+     * @param requestPath request path
+     * @return the idempotency key resource or null if the idempotency key is not stored
+     * @throws OBConsentDataRetrievalException thrown if a database error occurs
+     */
+    IdempotencyKeyResource getIdempotencyKey(Connection connection, String clientID, String idempotencyKey,
+                                             String requestPath)
+            throws OBConsentDataRetrievalException;
+
     /**
      * This method is used to retrieve a consent resource for the provided consent ID (without associated consent
      * attributes).
@@ -371,6 +398,34 @@ public interface ConsentCoreDAO {
                                                       Long fromTime, Long toTime, Integer limit, Integer offset)
             throws OBConsentDataRetrievalException;
 
+    /**
+     * This method is used to search detailed consents for the given lists of parameters using keyset pagination.
+     * Search conditions are the same as {@link #searchConsents(Connection, ArrayList, ArrayList, ArrayList, ArrayList,
+     * ArrayList, Long, Long, Integer, Integer)}. Consents are returned in descending order of the updated time and
+     * consent ID, starting after the provided cursor. A page of consent IDs is selected first and the attributes,
+     * authorization resources and account mappings of the page are retrieved with one query each.
+     *
+     * @param connection connection object
+     * @param consentIDs consent IDs optional list
+     * @param clientIDs client IDs optional list
+     * @param consentTypes consent types optional list
+     * @param consentStatuses consent statuses optional list
+     * @param userIDs user IDs optional list
+     * @param fromTime from time
+     * @param toTime to time
+     * @param limit maximum number of consents to return
+     * @param cursor position to continue the search from, null to retrieve the first page
+     * @return a list of detailed consent resources according to the provided parameters
+     * @throws OBConsentDataRetrievalException thrown if any error occur
+     */
+    ArrayList<DetailedConsentResource> searchConsentsByCursor(Connection connection, ArrayList<String> consentIDs,
+                                                              ArrayList<String> clientIDs,
+                                                              ArrayList<String> consentTypes,
+                                                              ArrayList<String> consentStatuses,
+                                                              ArrayList<String> userIDs, Long fromTime, Long toTime,
+                                                              int limit, ConsentSearchCursor cursor)
+            throws OBConsentDataRetrievalException;
+
     /**
      * This method is used to search authorization resources using following optional parameters. If all the input
      * parameters are null, all the relevant authorization resources will be returned.
@@ -451,6 +506,40 @@ public interface ConsentCoreDAO {
                                                            String statusesEligibleForExpiration)
             throws OBConsentDataRetrievalException;
 
+    /**
+     * This method is used to fetch a chunk of consents in an eligible status whose expiry time attribute is not after
+     * the given time. Consents are fetched in the ascending order of the consent ID, starting after the given consent
+     * ID. At most 1000 consents are fetched at once.
+     *
+     * @param connection connection object
+     * @param statusesEligibleForExpiration comma separated statuses eligible for expiration
+     * @param currentTime current time in epoch seconds
+     * @param lastConsentID last consent ID of the previous chunk, null to fetch the first chunk
+     * @param limit maximum number of consents to fetch
+     * @return consent IDs mapped to the expiry time in epoch seconds, in the ascending order of the consent ID
+     * @throws OBConsentDataRetrievalException thrown if a database error occurs
+     */
+    Map<String, Long> getExpiredConsentIDs(Connection connection, String statusesEligibleForExpiration,
+                                           long currentTime, String lastConsentID, int limit)
+            throws OBConsentDataRetrievalException;
+
+    /**
+     * This method is used to update the status of a chunk of expired consents and to store a status audit record for
+     * each authorization resource of the expired consents, using a single batch for each. A consent is only expired
+     * if its status has not changed since it was retrieved.
+     *
+     * @param connection connection object
+     * @param detailedConsentResources consents to expire, with the status and authorization resources when retrieved
+     * @param expiredConsentStatus status of expired consents
+     * @param reason reason of the audit records
+     * @return IDs of the expired consents
+     * @throws OBConsentDataUpdationException thrown if the consent statuses cannot be updated
+     * @throws OBConsentDataInsertionException thrown if the audit records cannot be stored
+     */
+    ArrayList<String> expireConsents(Connection connection, List<DetailedConsentResource> detailedConsentResources,
+                                     String expiredConsentStatus, String reason)
+            throws OBConsentDataUpdationException, OBConsentDataInsertionException;
+
     /**
      * This method is used to delete the consent details completely from consent database.
      * This include deletion of consent attributes, auth resources, consent mappings, audit records and consent file.
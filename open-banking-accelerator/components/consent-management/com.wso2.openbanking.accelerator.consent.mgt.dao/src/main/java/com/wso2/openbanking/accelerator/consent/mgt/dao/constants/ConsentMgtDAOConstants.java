@@ -32,6 +32,8 @@ public class ConsentMgtDAOConstants {
     public static final String CONSENT_CREATED_TIME = "CONSENT_CREATED_TIME";
     public static final String CONSENT_UPDATED_TIME = "CONSENT_UPDATED_TIME";
     public static final String CLIENT_ID = "CLIENT_ID";
+    public static final String IDEMPOTENCY_KEY = "IDEMPOTENCY_KEY";
+    public static final String REQUEST_PATH = "REQUEST_PATH";
     public static final String CONSENT_TYPE = "CONSENT_TYPE";
     public static final String CURRENT_STATUS = "CURRENT_STATUS";
     public static final String CONSENT_FREQUENCY = "CONSENT_FREQUENCY";
@@ -115,6 +117,10 @@ public class ConsentMgtDAOConstants {
             "database for the given attribute key and attribute value";
     public static final String CONSENT_AMENDMENT_HISTORY_RETRIEVE_ERROR_MSG = "Error occurred while retrieving " +
             "consent amendment history records from the database for the given consent ID";
+    public static final String IDEMPOTENCY_KEY_STORE_ERROR_MSG = "Error occurred while storing idempotency key in " +
+            "the database";
+    public static final String IDEMPOTENCY_KEY_RETRIEVE_ERROR_MSG = "Error occurred while retrieving idempotency " +
+            "key from the database";
 
     // Consent Database Table Identifiers
     public static final String TABLE_OB_CONSENT = "OB_CONSENT";
@@ -30,8 +30,10 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCursor;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.queries.ConsentMgtCommonDBQueries;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.utils.ConsentDAOUtils;
 import net.minidev.json.JSONValue;
@@ -40,10 +42,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -70,6 +74,8 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
 
     private static Log log = LogFactory.getLog(ConsentCoreDAOImpl.class);
     private static final String GROUP_BY_SEPARATOR = "\\|\\|";
+    // Oracle only allows 1000 values to be used in a SQL "IN" clause
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
     ConsentMgtCommonDBQueries sqlStatements;
     //Numbers are assigned to each consent DB table & used as the reference for each table when storing CA history
     static final Map<String, String> TABLES_MAP = new HashMap<String, String>() {
@@ -737,6 +743,73 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         return retrievedConsentIdList;
     }
 
+    @Override
+    public boolean storeIdempotencyKey(Connection connection, IdempotencyKeyResource idempotencyKeyResource)
+            throws OBConsentDataInsertionException {
+
+        int result;
+        String storeIdempotencyKeyPrepStatement = sqlStatements.getStoreIdempotencyKeyPreparedStatement();
+
+        try (PreparedStatement storeIdempotencyKeyPreparedStmt =
+                     connection.prepareStatement(storeIdempotencyKeyPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to store idempotency key");
+
+            storeIdempotencyKeyPreparedStmt.setString(1, idempotencyKeyResource.getClientID());
+            storeIdempotencyKeyPreparedStmt.setString(2, idempotencyKeyResource.getIdempotencyKey());
+            storeIdempotencyKeyPreparedStmt.setString(3, idempotencyKeyResource.getRequestPath());
+            storeIdempotencyKeyPreparedStmt.setString(4, idempotencyKeyResource.getConsentID());
+            storeIdempotencyKeyPreparedStmt.setLong(5, idempotencyKeyResource.getCreatedTime());
+
+            // with result, we can determine whether the insertion was successful or not
+            result = storeIdempotencyKeyPreparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_STORE_ERROR_MSG, e);
+            throw new OBConsentDataInsertionException(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_STORE_ERROR_MSG, e);
+        }
+
+        // Confirm that the data are inserted successfully
+        if (result > 0) {
+            log.debug("Stored the idempotency key successfully");
+            return true;
+        } else {
+            throw new OBConsentDataInsertionException("Failed to store idempotency key data properly.");
+        }
+    }
+
+    @Override
+    public IdempotencyKeyResource getIdempotencyKey(Connection connection, String clientID, String idempotencyKey,
+                                                    String requestPath)
+            throws OBConsentDataRetrievalException {
+
+        String getIdempotencyKeyPrepStatement = sqlStatements.getGetIdempotencyKeyPreparedStatement();
+
+        try (PreparedStatement getIdempotencyKeyPreparedStmt =
+                     connection.prepareStatement(getIdempotencyKeyPrepStatement)) {
+
+            log.debug("Setting parameters to prepared statement to retrieve idempotency key");
+
+            getIdempotencyKeyPreparedStmt.setString(1, clientID);
+            getIdempotencyKeyPreparedStmt.setString(2, idempotencyKey);
+            getIdempotencyKeyPreparedStmt.setString(3, requestPath);
+
+            try (ResultSet resultSet = getIdempotencyKeyPreparedStmt.executeQuery()) {
+                if (resultSet.next()) {
+                    return new IdempotencyKeyResource(resultSet.getString(ConsentMgtDAOConstants.CLIENT_ID),
+                            resultSet.getString(ConsentMgtDAOConstants.IDEMPOTENCY_KEY),
+                            resultSet.getString(ConsentMgtDAOConstants.REQUEST_PATH),
+                            resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID),
+                            resultSet.getLong(ConsentMgtDAOConstants.CREATED_TIME));
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_RETRIEVE_ERROR_MSG, e);
+            throw new OBConsentDataRetrievalException(ConsentMgtDAOConstants.IDEMPOTENCY_KEY_RETRIEVE_ERROR_MSG, e);
+        }
+        log.debug("No idempotency key is stored for the provided client ID, key and request path");
+        return null;
+    }
+
     @Override
     public ConsentResource getConsentResource(Connection connection, String consentID)
             throws OBConsentDataRetrievalException {
@@ -1221,6 +1294,194 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
+    @Override
+    public ArrayList<DetailedConsentResource> searchConsentsByCursor(Connection connection,
+                                                                     ArrayList<String> consentIDs,
+                                                                     ArrayList<String> clientIDs,
+                                                                     ArrayList<String> consentTypes,
+                                                                     ArrayList<String> consentStatuses,
+                                                                     ArrayList<String> userIDs, Long fromTime,
+                                                                     Long toTime, int limit,
+                                                                     ConsentSearchCursor cursor)
+            throws OBConsentDataRetrievalException {
+
+        int parameterIndex = 1;
+        Map<String, ArrayList> applicableConditionsMap = new HashMap<>();
+
+        validateAndSetSearchConditions(applicableConditionsMap, consentIDs, clientIDs, consentTypes, consentStatuses);
+
+        log.debug("Constructing the prepared statement");
+        String constructedConditions =
+                ConsentDAOUtils.constructConsentSearchPreparedStatement(applicableConditionsMap);
+
+        String userIDFilterCondition = "";
+        Map<String, ArrayList> userIdMap = new HashMap<>();
+        if (CollectionUtils.isNotEmpty(userIDs)) {
+            userIdMap.put(COLUMNS_MAP.get(ConsentMgtDAOConstants.USER_IDS), userIDs);
+            userIDFilterCondition = ConsentDAOUtils.constructUserIdListFilterCondition(userIdMap);
+        }
+
+        String searchConsentsPreparedStatement = sqlStatements.getSearchConsentsByCursorPreparedStatement(
+                constructedConditions, userIDFilterCondition, cursor != null);
+
+        // Consents are kept in the order of the page while related resources are added to them
+        Map<String, DetailedConsentResource> detailedConsentResources = new LinkedHashMap<>();
+
+        try (PreparedStatement searchConsentsPreparedStmt =
+                     connection.prepareStatement(searchConsentsPreparedStatement)) {
+
+            Map<Integer, ArrayList> orderedParamsMap = ConsentDAOUtils
+                    .determineOrderOfParamsToSet(constructedConditions, applicableConditionsMap, COLUMNS_MAP);
+
+            log.debug("Setting parameters to prepared statement to search consents by cursor");
+
+            parameterIndex = setDynamicConsentSearchParameters(searchConsentsPreparedStmt, orderedParamsMap,
+                    parameterIndex);
+            if (CollectionUtils.isNotEmpty(userIDs)) {
+                Map<Integer, ArrayList> orderedUserIdsMap = ConsentDAOUtils
+                        .determineOrderOfParamsToSet(userIDFilterCondition, userIdMap, COLUMNS_MAP);
+                parameterIndex = setDynamicConsentSearchParameters(searchConsentsPreparedStmt, orderedUserIdsMap,
+                        parameterIndex);
+            }
+
+            if (fromTime != null) {
+                searchConsentsPreparedStmt.setLong(parameterIndex++, fromTime);
+            } else {
+                searchConsentsPreparedStmt.setNull(parameterIndex++, Types.BIGINT);
+            }
+            if (toTime != null) {
+                searchConsentsPreparedStmt.setLong(parameterIndex++, toTime);
+            } else {
+                searchConsentsPreparedStmt.setNull(parameterIndex++, Types.BIGINT);
+            }
+            if (cursor != null) {
+                searchConsentsPreparedStmt.setLong(parameterIndex++, cursor.getUpdatedTime());
+                searchConsentsPreparedStmt.setLong(parameterIndex++, cursor.getUpdatedTime());
+                searchConsentsPreparedStmt.setString(parameterIndex++, cursor.getConsentID());
+            }
+            searchConsentsPreparedStmt.setInt(parameterIndex, limit);
+
+            try (ResultSet resultSet = searchConsentsPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
+                    setConsentDataToDetailedConsentResource(resultSet, detailedConsentResource);
+                    detailedConsentResource.setConsentAttributes(new HashMap<>());
+                    detailedConsentResource.setAuthorizationResources(new ArrayList<>());
+                    detailedConsentResource.setConsentMappingResources(new ArrayList<>());
+                    detailedConsentResources.put(detailedConsentResource.getConsentID(), detailedConsentResource);
+                }
+            }
+
+            List<String> pageConsentIDs = new ArrayList<>(detailedConsentResources.keySet());
+            for (int fromIndex = 0; fromIndex < pageConsentIDs.size(); fromIndex += MAX_IN_CLAUSE_SIZE) {
+                List<String> consentIDsChunk = pageConsentIDs.subList(fromIndex,
+                        Math.min(fromIndex + MAX_IN_CLAUSE_SIZE, pageConsentIDs.size()));
+                setSearchResultConsentAttributes(connection, consentIDsChunk, detailedConsentResources);
+                setSearchResultAuthorizationResources(connection, consentIDsChunk, detailedConsentResources);
+                setSearchResultConsentMappingResources(connection, consentIDsChunk, detailedConsentResources);
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+            throw new OBConsentDataRetrievalException(ConsentMgtDAOConstants.CONSENT_SEARCH_ERROR_MSG, e);
+        }
+        return new ArrayList<>(detailedConsentResources.values());
+    }
+
+    /**
+     * Set the consent attributes of the given consent IDs to the matching detailed consent resources.
+     *
+     * @param connection               connection object
+     * @param consentIDs               consent IDs of the page
+     * @param detailedConsentResources detailed consent resources mapped by consent ID
+     * @throws SQLException thrown if an error occurs when retrieving the consent attributes
+     */
+    private void setSearchResultConsentAttributes(Connection connection, List<String> consentIDs,
+                                                  Map<String, DetailedConsentResource> detailedConsentResources)
+            throws SQLException {
+
+        String getConsentAttributesPrepStatement = sqlStatements
+                .getSearchConsentAttributesByConsentIdsPreparedStatement(
+                        ConsentDAOUtils.constructInClausePlaceholders(consentIDs.size()));
+
+        try (PreparedStatement getConsentAttributesPreparedStmt =
+                     connection.prepareStatement(getConsentAttributesPrepStatement)) {
+            setConsentIDParameters(getConsentAttributesPreparedStmt, consentIDs);
+            try (ResultSet resultSet = getConsentAttributesPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    detailedConsentResources.get(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID))
+                            .getConsentAttributes().put(resultSet.getString(ConsentMgtDAOConstants.ATT_KEY),
+                                    resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE));
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the authorization resources of the given consent IDs to the matching detailed consent resources.
+     *
+     * @param connection               connection object
+     * @param consentIDs               consent IDs of the page
+     * @param detailedConsentResources detailed consent resources mapped by consent ID
+     * @throws SQLException thrown if an error occurs when retrieving the authorization resources
+     */
+    private void setSearchResultAuthorizationResources(Connection connection, List<String> consentIDs,
+                                                       Map<String, DetailedConsentResource> detailedConsentResources)
+            throws SQLException {
+
+        String getAuthorizationResourcesPrepStatement = sqlStatements
+                .getSearchAuthorizationResourcesByConsentIdsPreparedStatement(
+                        ConsentDAOUtils.constructInClausePlaceholders(consentIDs.size()));
+
+        try (PreparedStatement getAuthorizationResourcesPreparedStmt =
+                     connection.prepareStatement(getAuthorizationResourcesPrepStatement)) {
+            setConsentIDParameters(getAuthorizationResourcesPreparedStmt, consentIDs);
+            try (ResultSet resultSet = getAuthorizationResourcesPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    AuthorizationResource authorizationResource = new AuthorizationResource();
+                    setAuthorizationData(authorizationResource, resultSet);
+                    detailedConsentResources.get(authorizationResource.getConsentID())
+                            .getAuthorizationResources().add(authorizationResource);
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the account mapping resources of the given consent IDs to the matching detailed consent resources.
+     *
+     * @param connection               connection object
+     * @param consentIDs               consent IDs of the page
+     * @param detailedConsentResources detailed consent resources mapped by consent ID
+     * @throws SQLException thrown if an error occurs when retrieving the account mapping resources
+     */
+    private void setSearchResultConsentMappingResources(Connection connection, List<String> consentIDs,
+                                                        Map<String, DetailedConsentResource> detailedConsentResources)
+            throws SQLException {
+
+        String getConsentMappingsPrepStatement = sqlStatements.getSearchConsentMappingsByConsentIdsPreparedStatement(
+                ConsentDAOUtils.constructInClausePlaceholders(consentIDs.size()));
+
+        try (PreparedStatement getConsentMappingsPreparedStmt =
+                     connection.prepareStatement(getConsentMappingsPrepStatement)) {
+            setConsentIDParameters(getConsentMappingsPreparedStmt, consentIDs);
+            try (ResultSet resultSet = getConsentMappingsPreparedStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    detailedConsentResources.get(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID))
+                            .getConsentMappingResources().add(getConsentMappingResourceWithData(resultSet));
+                }
+            }
+        }
+    }
+
+    private void setConsentIDParameters(PreparedStatement preparedStatement, List<String> consentIDs)
+            throws SQLException {
+
+        int parameterIndex = 1;
+        for (String consentID : consentIDs) {
+            preparedStatement.setString(parameterIndex++, consentID);
+        }
+    }
+
     @Override
     public ArrayList<AuthorizationResource> searchConsentAuthorizations(Connection connection, String consentID,
                                                                         String userID)
@@ -1906,6 +2167,130 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
         }
     }
 
+    @Override
+    public Map<String, Long> getExpiredConsentIDs(Connection connection, String statusesEligibleForExpiration,
+                                                  long currentTime, String lastConsentID, int limit)
+            throws OBConsentDataRetrievalException {
+
+        List<String> statusesEligibleForExpirationList = Arrays.stream(statusesEligibleForExpiration.split(","))
+                .filter(status -> !status.isEmpty())
+                .collect(Collectors.toList());
+        Map<String, Long> expiredConsents = new LinkedHashMap<>();
+        if (statusesEligibleForExpirationList.isEmpty()) {
+            return expiredConsents;
+        }
+
+        String expiredConsentsStatement = sqlStatements.getSearchExpiredConsentsPreparedStatement(
+                ConsentDAOUtils.constructStatusesEligibleForExpirationCondition(statusesEligibleForExpirationList),
+                lastConsentID != null);
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(expiredConsentsStatement)) {
+
+            log.debug("Setting parameters to prepared statement to fetch expired consents");
+
+            int parameterIndex = 0;
+            preparedStatement.setString(++parameterIndex, ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE);
+            for (String status : statusesEligibleForExpirationList) {
+                preparedStatement.setString(++parameterIndex, status);
+            }
+            preparedStatement.setLong(++parameterIndex, currentTime);
+            if (lastConsentID != null) {
+                preparedStatement.setString(++parameterIndex, lastConsentID);
+            }
+            // The consents of a chunk are retrieved using an "IN" clause
+            preparedStatement.setInt(++parameterIndex, Math.min(limit, MAX_IN_CLAUSE_SIZE));
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    expiredConsents.put(resultSet.getString(ConsentMgtDAOConstants.CONSENT_ID),
+                            new BigDecimal(resultSet.getString(ConsentMgtDAOConstants.ATT_VALUE).trim()).longValue());
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Error while searching expired consents", e);
+            throw new OBConsentDataRetrievalException("Error while searching expired consents", e);
+        }
+        return expiredConsents;
+    }
+
+    @Override
+    public ArrayList<String> expireConsents(Connection connection,
+                                            List<DetailedConsentResource> detailedConsentResources,
+                                            String expiredConsentStatus, String reason)
+            throws OBConsentDataUpdationException, OBConsentDataInsertionException {
+
+        ArrayList<String> expiredConsentIDs = new ArrayList<>();
+        if (detailedConsentResources.isEmpty()) {
+            return expiredConsentIDs;
+        }
+        // Unix time in seconds
+        long updatedTime = System.currentTimeMillis() / 1000;
+
+        try (PreparedStatement expireConsentPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getExpireConsentStatusPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to expire consents");
+
+            for (DetailedConsentResource detailedConsentResource : detailedConsentResources) {
+                expireConsentPreparedStmt.setString(1, expiredConsentStatus);
+                expireConsentPreparedStmt.setLong(2, updatedTime);
+                expireConsentPreparedStmt.setString(3, detailedConsentResource.getConsentID());
+                expireConsentPreparedStmt.setString(4, detailedConsentResource.getCurrentStatus());
+                expireConsentPreparedStmt.addBatch();
+            }
+            int[] results = expireConsentPreparedStmt.executeBatch();
+            for (int i = 0; i < results.length; i++) {
+                // Drivers which do not report the update count of a batch statement are assumed to have updated it
+                if (results[i] > 0 || results[i] == Statement.SUCCESS_NO_INFO) {
+                    expiredConsentIDs.add(detailedConsentResources.get(i).getConsentID());
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.CONSENT_STATUS_UPDATE_ERROR_MSG, e);
+            throw new OBConsentDataUpdationException(ConsentMgtDAOConstants.CONSENT_STATUS_UPDATE_ERROR_MSG, e);
+        }
+
+        Set<String> expiredConsentIDSet = new HashSet<>(expiredConsentIDs);
+        try (PreparedStatement storeAuditRecordPreparedStmt =
+                     connection.prepareStatement(sqlStatements.getStoreConsentStatusAuditRecordPreparedStatement())) {
+
+            log.debug("Setting parameters to prepared statement to store audit records of expired consents");
+
+            boolean hasAuditRecords = false;
+            for (DetailedConsentResource detailedConsentResource : detailedConsentResources) {
+                if (!expiredConsentIDSet.contains(detailedConsentResource.getConsentID()) ||
+                        detailedConsentResource.getAuthorizationResources() == null) {
+                    continue;
+                }
+                for (AuthorizationResource authorizationResource :
+                        detailedConsentResource.getAuthorizationResources()) {
+                    storeAuditRecordPreparedStmt.setString(1, UUID.randomUUID().toString());
+                    storeAuditRecordPreparedStmt.setString(2, detailedConsentResource.getConsentID());
+                    storeAuditRecordPreparedStmt.setString(3, expiredConsentStatus);
+                    storeAuditRecordPreparedStmt.setLong(4, updatedTime);
+                    storeAuditRecordPreparedStmt.setString(5, reason);
+                    storeAuditRecordPreparedStmt.setString(6,
+                            StringUtils.defaultIfEmpty(authorizationResource.getUserID(), null));
+                    storeAuditRecordPreparedStmt.setString(7, detailedConsentResource.getCurrentStatus());
+                    storeAuditRecordPreparedStmt.addBatch();
+                    hasAuditRecords = true;
+                }
+            }
+            if (hasAuditRecords) {
+                for (int result : storeAuditRecordPreparedStmt.executeBatch()) {
+                    if (result == Statement.EXECUTE_FAILED) {
+                        throw new OBConsentDataInsertionException("Failed to store audit records of expired " +
+                                "consents properly.");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
+            throw new OBConsentDataInsertionException(ConsentMgtDAOConstants.AUDIT_RECORD_STORE_ERROR_MSG, e);
+        }
+        return expiredConsentIDs;
+    }
+
     @Override
     public boolean deleteConsentData(Connection connection, String consentID, boolean executeOnRetentionTables)
             throws OBConsentDataDeletionException {
@@ -1928,6 +2313,8 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
                 .getDeleteConsentStatusAuditRecordsPreparedStatement(executeOnRetentionTables);
         String deleteConsentResourcePrepStatement = sqlStatements
                 .getDeleteConsentPreparedStatement(executeOnRetentionTables);
+        String deleteIdempotencyKeysPrepStatement = sqlStatements
+                .getDeleteIdempotencyKeysByConsentIdPreparedStatement();
 
         try (PreparedStatement deleteConsentAttributesPreparedStmt =
                      connection.prepareStatement(deleteConsentAttributePrepStatement);
@@ -1940,7 +2327,9 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
              PreparedStatement deleteConsentStatusAuditPreparedStmt =
                      connection.prepareStatement(deleteConsentStatusAuditRecordPrepStatement);
              PreparedStatement deleteConsentResourcePreparedStmt =
-                     connection.prepareStatement(deleteConsentResourcePrepStatement)) {
+                     connection.prepareStatement(deleteConsentResourcePrepStatement);
+             PreparedStatement deleteIdempotencyKeysPreparedStmt =
+                     connection.prepareStatement(deleteIdempotencyKeysPrepStatement)) {
 
             // deleting consent attributes.
             log.debug("Setting parameters to prepared statement to delete consent attributes");
@@ -1967,6 +2356,13 @@ public class ConsentCoreDAOImpl implements ConsentCoreDAO {
             deleteConsentStatusAuditPreparedStmt.setString(1, consentID);
             deleteConsentStatusAuditPreparedStmt.executeUpdate();
 
+            // deleting idempotency keys, these are not moved to the retention tables.
+            if (!executeOnRetentionTables) {
+                log.debug("Setting parameters to prepared statement to delete idempotency keys");
+                deleteIdempotencyKeysPreparedStmt.setString(1, consentID);
+                deleteIdempotencyKeysPreparedStmt.executeUpdate();
+            }
+
             // deleting consent resource.
             log.debug("Setting parameters to prepared statement to delete consent resource");
             deleteConsentResourcePreparedStmt.setString(1, consentID);
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.wso2.openbanking.accelerator.consent.mgt.dao.models;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Model for the position of a keyset paginated consent search.
+ * Consents are searched in descending order of the updated time and consent ID, hence a cursor holds the updated
+ * time and consent ID of the last consent of the previous page. Cursors are exposed to clients as opaque tokens.
+ */
+public class ConsentSearchCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final long updatedTime;
+    private final String consentID;
+
+    public ConsentSearchCursor(long updatedTime, String consentID) {
+
+        this.updatedTime = updatedTime;
+        this.consentID = consentID;
+    }
+
+    /**
+     * Create the cursor pointing after the given consent.
+     *
+     * @param detailedConsentResource last consent of the current page
+     * @return cursor to retrieve the next page
+     */
+    public static ConsentSearchCursor fromConsent(DetailedConsentResource detailedConsentResource) {
+
+        return new ConsentSearchCursor(detailedConsentResource.getUpdatedTime(),
+                detailedConsentResource.getConsentID());
+    }
+
+    /**
+     * Decode a cursor from an opaque cursor token.
+     *
+     * @param token cursor token
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor token
+     */
+    public static ConsentSearchCursor fromToken(String token) {
+
+        String decodedToken;
+        try {
+            decodedToken = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid consent search cursor", e);
+        }
+        String updatedTime = StringUtils.substringBefore(decodedToken, SEPARATOR);
+        String consentID = StringUtils.substringAfter(decodedToken, SEPARATOR);
+        if (!StringUtils.isNumeric(updatedTime) || StringUtils.isBlank(consentID)) {
+            throw new IllegalArgumentException("Invalid consent search cursor");
+        }
+        return new ConsentSearchCursor(Long.parseLong(updatedTime), consentID);
+    }
+
+    /**
+     * Encode the cursor as an opaque cursor token.
+     *
+     * @return cursor token
+     */
+    public String toToken() {
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((updatedTime + SEPARATOR + consentID).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getUpdatedTime() {
+
+        return updatedTime;
+    }
+
+    public String getConsentID() {
+
+        return consentID;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.consent.mgt.dao.models;
+
+import java.util.List;
+
+/**
+ * Model for a chunk of consents processed by the periodical consent expiration.
+ * Consents are selected for expiration in the ascending order of the consent ID, hence the next chunk is selected
+ * after the last consent ID of the chunk. A selected consent is not expired if its status changed after it was
+ * selected.
+ */
+public class ExpiredConsentChunk {
+
+    private final List<DetailedConsentResource> expiredConsents;
+    private final String lastConsentID;
+    private final int selectedCount;
+    private final long oldestExpiryTime;
+
+    public ExpiredConsentChunk(List<DetailedConsentResource> expiredConsents, String lastConsentID,
+                               int selectedCount, long oldestExpiryTime) {
+
+        this.expiredConsents = expiredConsents;
+        this.lastConsentID = lastConsentID;
+        this.selectedCount = selectedCount;
+        this.oldestExpiryTime = oldestExpiryTime;
+    }
+
+    /**
+     * Get the expired consents, with the status and authorization resources held before the expiration.
+     *
+     * @return expired consents
+     */
+    public List<DetailedConsentResource> getExpiredConsents() {
+
+        return expiredConsents;
+    }
+
+    /**
+     * Get the last consent ID selected for expiration.
+     *
+     * @return last consent ID of the chunk, null if no consent was selected
+     */
+    public String getLastConsentID() {
+
+        return lastConsentID;
+    }
+
+    public int getSelectedCount() {
+
+        return selectedCount;
+    }
+
+    /**
+     * Get the earliest expiry time of the expired consents.
+     *
+     * @return earliest expiry time in epoch seconds, 0 if no consent was expired
+     */
+    public long getOldestExpiryTime() {
+
+        return oldestExpiryTime;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.wso2.openbanking.accelerator.consent.mgt.dao.models;
+
+import com.wso2.openbanking.accelerator.common.util.Generated;
+
+import java.io.Serializable;
+
+/**
+ * Model for the idempotency key of a consent request.
+ * An idempotency key is unique for a client ID, idempotency key value and request path.
+ */
+public class IdempotencyKeyResource implements Serializable {
+
+    private static final long serialVersionUID = 3157842196304271856L;
+    private String clientID;
+    private String idempotencyKey;
+    private String requestPath;
+    private String consentID;
+    private long createdTime;
+
+    public IdempotencyKeyResource() {
+
+    }
+
+    @Generated(message = "Excluding constructor because setter methods are explicitly called")
+    public IdempotencyKeyResource(String clientID, String idempotencyKey, String requestPath, String consentID,
+                                  long createdTime) {
+        this.clientID = clientID;
+        this.idempotencyKey = idempotencyKey;
+        this.requestPath = requestPath;
+        this.consentID = consentID;
+        this.createdTime = createdTime;
+    }
+
+    public String getClientID() {
+
+        return clientID;
+    }
+
+    public void setClientID(String clientID) {
+
+        this.clientID = clientID;
+    }
+
+    public String getIdempotencyKey() {
+
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestPath() {
+
+        return requestPath;
+    }
+
+    public void setRequestPath(String requestPath) {
+
+        this.requestPath = requestPath;
+    }
+
+    public String getConsentID() {
+
+        return consentID;
+    }
+
+    public void setConsentID(String consentID) {
+
+        this.consentID = consentID;
+    }
+
+    public long getCreatedTime() {
+
+        return createdTime;
+    }
+
+    public void setCreatedTime(long createdTime) {
+
+        this.createdTime = createdTime;
+    }
+}
@@ -235,6 +235,88 @@ public class ConsentMgtCommonDBQueries {
         return query.toString();
     }
 
+    /**
+     * This method returns the query to select a page of consents for the keyset paginated consent search. Only the
+     * consent data is selected, ordered by the updated time and consent ID so that the page can be resolved from the
+     * updated time index. Related attributes, authorization resources and mappings are fetched separately for the
+     * selected consent IDs.
+     *
+     * @param whereClause the pre-constructed where dynamic where clause
+     * @param userIdFilterClause the pre-constructed user id filter condition
+     * @param hasCursor flag that indicates whether the search continues from a cursor
+     * @return the constructed prepared statement for keyset paginated consent search
+     */
+    public String getSearchConsentsByCursorPreparedStatement(String whereClause, String userIdFilterClause,
+                                                             boolean hasCursor) {
+
+        StringBuilder query = new StringBuilder("SELECT OBC.CONSENT_ID, " +
+                "OBC.RECEIPT, " +
+                "OBC.CLIENT_ID, " +
+                "OBC.CONSENT_TYPE, " +
+                "OBC.CURRENT_STATUS, " +
+                "OBC.CONSENT_FREQUENCY, " +
+                "OBC.VALIDITY_TIME, " +
+                "OBC.RECURRING_INDICATOR, " +
+                "OBC.CREATED_TIME AS CONSENT_CREATED_TIME, " +
+                "OBC.UPDATED_TIME AS CONSENT_UPDATED_TIME " +
+                "FROM (SELECT * FROM OB_CONSENT " + whereClause + ") OBC WHERE ");
+
+        if (StringUtils.isNotEmpty(userIdFilterClause)) {
+            query.append("EXISTS (SELECT 1 FROM OB_CONSENT_AUTH_RESOURCE OCAR " +
+                    "WHERE OCAR.CONSENT_ID = OBC.CONSENT_ID AND ").append(userIdFilterClause).append(") AND ");
+        }
+        query.append("(OBC.UPDATED_TIME >= COALESCE(?, OBC.UPDATED_TIME) " +
+                "AND OBC.UPDATED_TIME <= COALESCE(?, OBC.UPDATED_TIME)) ");
+        if (hasCursor) {
+            query.append(getConsentSearchCursorCondition());
+        }
+        query.append("ORDER BY OBC.UPDATED_TIME DESC, OBC.CONSENT_ID DESC ");
+        query.append(getConsentSearchPageLimitClause());
+
+        return query.toString();
+    }
+
+    /**
+     * Condition to select consents positioned after the cursor. The parameters are set in the order of the cursor
+     * updated time, the cursor updated time and the cursor consent ID.
+     *
+     * @return keyset condition of the consent search
+     */
+    protected String getConsentSearchCursorCondition() {
+
+        return "AND OBC.UPDATED_TIME <= ? AND (OBC.UPDATED_TIME < ? OR OBC.CONSENT_ID < ?) ";
+    }
+
+    /**
+     * Clause to limit the number of consents selected for a page of the keyset paginated consent search.
+     *
+     * @return limit clause with a single parameter
+     */
+    protected String getConsentSearchPageLimitClause() {
+
+        return "LIMIT ? ";
+    }
+
+    public String getSearchConsentAttributesByConsentIdsPreparedStatement(String consentIdPlaceholders) {
+
+        return "SELECT CONSENT_ID, ATT_KEY, ATT_VALUE FROM OB_CONSENT_ATTRIBUTE WHERE CONSENT_ID IN " +
+                consentIdPlaceholders;
+    }
+
+    public String getSearchAuthorizationResourcesByConsentIdsPreparedStatement(String consentIdPlaceholders) {
+
+        return "SELECT AUTH_ID, CONSENT_ID, AUTH_TYPE, AUTH_STATUS, UPDATED_TIME, USER_ID " +
+                "FROM OB_CONSENT_AUTH_RESOURCE WHERE CONSENT_ID IN " + consentIdPlaceholders + " ORDER BY AUTH_ID";
+    }
+
+    public String getSearchConsentMappingsByConsentIdsPreparedStatement(String consentIdPlaceholders) {
+
+        return "SELECT OCAR.CONSENT_ID, OCM.MAPPING_ID, OCM.AUTH_ID, OCM.ACCOUNT_ID, OCM.PERMISSION, " +
+                "OCM.MAPPING_STATUS FROM OB_CONSENT_MAPPING OCM INNER JOIN OB_CONSENT_AUTH_RESOURCE OCAR " +
+                "ON OCM.AUTH_ID = OCAR.AUTH_ID WHERE OCAR.CONSENT_ID IN " + consentIdPlaceholders +
+                " ORDER BY OCM.MAPPING_ID";
+    }
+
     public String getGetConsentWithConsentAttributesPreparedStatement() {
 
         return "SELECT OB_CONSENT.CONSENT_ID, RECEIPT, CREATED_TIME, UPDATED_TIME, CLIENT_ID, CONSENT_TYPE, " +
@@ -255,6 +337,23 @@ public class ConsentMgtCommonDBQueries {
         return "SELECT CONSENT_ID FROM OB_CONSENT_ATTRIBUTE WHERE ATT_KEY = ? AND ATT_VALUE = ?";
     }
 
+    public String getStoreIdempotencyKeyPreparedStatement() {
+
+        return "INSERT INTO OB_CONSENT_IDEMPOTENCY_KEY (CLIENT_ID, IDEMPOTENCY_KEY, REQUEST_PATH, CONSENT_ID, " +
+                "CREATED_TIME) VALUES (?, ?, ?, ?, ?)";
+    }
+
+    public String getGetIdempotencyKeyPreparedStatement() {
+
+        return "SELECT CLIENT_ID, IDEMPOTENCY_KEY, REQUEST_PATH, CONSENT_ID, CREATED_TIME FROM " +
+                "OB_CONSENT_IDEMPOTENCY_KEY WHERE CLIENT_ID = ? AND IDEMPOTENCY_KEY = ? AND REQUEST_PATH = ?";
+    }
+
+    public String getDeleteIdempotencyKeysByConsentIdPreparedStatement() {
+
+        return "DELETE FROM OB_CONSENT_IDEMPOTENCY_KEY WHERE CONSENT_ID = ?";
+    }
+
     public String getGetAuthorizationResourcePreparedStatement() {
 
         return "SELECT * FROM OB_CONSENT_AUTH_RESOURCE WHERE AUTH_ID = ?";
@@ -312,6 +411,56 @@ public class ConsentMgtCommonDBQueries {
                 " WHERE  CA.ATT_KEY = ? AND OBC.CURRENT_STATUS IN " + statusesEligibleForExpirationCondition;
     }
 
+    /**
+     * This method returns the query to select a chunk of expired consents for the periodical consent expiration.
+     * Consents are selected in the ascending order of the consent ID, so that the expiration continues after the
+     * last consent of the previous chunk. The parameters are set in the order of the expiry time attribute key, the
+     * eligible statuses, the current time, the cursor consent ID and the chunk size.
+     *
+     * @param statusesEligibleForExpirationCondition the pre-constructed condition of the eligible statuses
+     * @param hasCursor flag that indicates whether the expiration continues from a previous chunk
+     * @return the constructed prepared statement to select expired consents
+     */
+    public String getSearchExpiredConsentsPreparedStatement(String statusesEligibleForExpirationCondition,
+                                                            boolean hasCursor) {
+
+        StringBuilder query = new StringBuilder("SELECT OBC.CONSENT_ID, CA.ATT_VALUE " +
+                "FROM OB_CONSENT_ATTRIBUTE CA " +
+                "JOIN OB_CONSENT OBC ON CA.CONSENT_ID = OBC.CONSENT_ID " +
+                "WHERE CA.ATT_KEY = ? AND OBC.CURRENT_STATUS IN " + statusesEligibleForExpirationCondition +
+                "AND " + getConsentExpiryTimeCondition());
+        if (hasCursor) {
+            query.append("AND OBC.CONSENT_ID > ? ");
+        }
+        query.append("ORDER BY OBC.CONSENT_ID ");
+        query.append(getConsentSearchPageLimitClause());
+
+        return query.toString();
+    }
+
+    /**
+     * Condition to select consents whose expiry time attribute, in epoch seconds, is not after the current time.
+     * Attribute values which are not numeric are skipped instead of being cast, since the cast fails on H2 and
+     * evaluates to zero on MySQL.
+     *
+     * @return expiry time condition with a single parameter
+     */
+    protected String getConsentExpiryTimeCondition() {
+
+        return "CASE WHEN CA.ATT_VALUE REGEXP '^[0-9]+$' THEN CAST(CA.ATT_VALUE AS DECIMAL(20)) END <= ? ";
+    }
+
+    /**
+     * This method returns the query to expire a consent. The status is only updated if the consent still has the
+     * status it had when it was selected for expiration.
+     *
+     * @return the prepared statement to expire a consent
+     */
+    public String getExpireConsentStatusPreparedStatement() {
+
+        return "UPDATE OB_CONSENT SET CURRENT_STATUS = ?, UPDATED_TIME = ? WHERE CONSENT_ID = ? AND CURRENT_STATUS = ?";
+    }
+
     public String getInsertConsentHistoryPreparedStatement() {
 
         return "INSERT INTO OB_CONSENT_HISTORY (TABLE_ID, RECORD_ID, HISTORY_ID, CHANGED_VALUES, " +
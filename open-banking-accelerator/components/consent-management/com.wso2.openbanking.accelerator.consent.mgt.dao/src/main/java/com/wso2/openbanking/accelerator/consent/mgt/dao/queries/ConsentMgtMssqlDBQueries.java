@@ -196,4 +196,16 @@ public class ConsentMgtMssqlDBQueries extends ConsentMgtCommonDBQueries {
 
         return false;
     }
+
+    @Override
+    protected String getConsentSearchPageLimitClause() {
+
+        return "OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY ";
+    }
+
+    @Override
+    protected String getConsentExpiryTimeCondition() {
+
+        return "TRY_CAST(CA.ATT_VALUE AS DECIMAL(20)) <= ? ";
+    }
 }
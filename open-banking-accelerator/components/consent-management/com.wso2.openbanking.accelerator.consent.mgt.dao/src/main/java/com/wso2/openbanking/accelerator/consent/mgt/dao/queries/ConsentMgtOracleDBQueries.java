@@ -199,4 +199,16 @@ public class ConsentMgtOracleDBQueries extends ConsentMgtCommonDBQueries {
 
         return false;
     }
+
+    @Override
+    protected String getConsentSearchPageLimitClause() {
+
+        return "FETCH FIRST ? ROWS ONLY ";
+    }
+
+    @Override
+    protected String getConsentExpiryTimeCondition() {
+
+        return "CASE WHEN REGEXP_LIKE(CA.ATT_VALUE, '^[0-9]+$') THEN TO_NUMBER(CA.ATT_VALUE) END <= ? ";
+    }
 }
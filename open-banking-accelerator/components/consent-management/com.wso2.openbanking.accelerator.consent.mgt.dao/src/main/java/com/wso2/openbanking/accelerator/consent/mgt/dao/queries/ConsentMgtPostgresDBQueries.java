@@ -226,4 +226,22 @@ public class ConsentMgtPostgresDBQueries extends ConsentMgtCommonDBQueries {
                 tablePrefix + "ob_consent_mapping OBCM INNER JOIN " + tablePrefix + "ob_consent_auth_resource OBAR " +
                 "ON OBCM.AUTH_ID = OBAR.AUTH_ID WHERE OBAR.CONSENT_ID = ?)";
     }
+
+    /**
+     * PostgreSQL compares the updated time and consent ID as a row value, which is resolved as a single range scan
+     * on the updated time index.
+     *
+     * @return keyset condition of the consent search
+     */
+    @Override
+    protected String getConsentSearchCursorCondition() {
+
+        return "AND OBC.UPDATED_TIME <= ? AND (OBC.UPDATED_TIME, OBC.CONSENT_ID) < (?, ?) ";
+    }
+
+    @Override
+    protected String getConsentExpiryTimeCondition() {
+
+        return "CASE WHEN CA.ATT_VALUE ~ '^[0-9]+$' THEN CAST(CA.ATT_VALUE AS DECIMAL(20)) END <= ? ";
+    }
 }
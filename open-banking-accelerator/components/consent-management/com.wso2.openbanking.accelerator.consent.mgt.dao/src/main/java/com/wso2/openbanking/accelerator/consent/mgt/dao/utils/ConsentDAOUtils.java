@@ -255,6 +255,21 @@ public class ConsentDAOUtils {
         return statusesEligibleForExpirationFilterBuilder.toString();
     }
 
+    /**
+     * Method to construct the placeholders of an IN clause.
+     *
+     * @param placeholderCount  number of placeholders
+     * @return  placeholders enclosed in parentheses
+     */
+    public static String constructInClausePlaceholders(int placeholderCount) {
+
+        StringBuilder placeHoldersBuilder = new StringBuilder();
+        for (int i = 0; i < placeholderCount; i++) {
+            placeHoldersBuilder.append(DB_OPERATORS_MAP.get(ConsentMgtDAOConstants.PLACEHOLDER));
+        }
+        return LEFT_PARENTHESIS + StringUtils.removeEnd(placeHoldersBuilder.toString(), COMMA) + RIGHT_PARENTHESIS;
+    }
+
     public static String constructConsentHistoryPreparedStatement(int recordIdCount) {
 
         StringBuilder whereClauseBuilder = new StringBuilder();
@@ -30,8 +30,10 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCursor;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.queries.ConsentMgtCommonDBQueries;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.util.ConsentMgtDAOTestData;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.util.DAOUtils;
@@ -519,6 +521,50 @@ public class OBConsentMgtDAOTests {
         consentCoreDAO.storeConsentFile(mockedConnection, Mockito.anyObject());
     }
 
+    @Test
+    public void testStoreAndGetIdempotencyKey() throws Exception {
+
+        IdempotencyKeyResource retrievedIdempotencyKey;
+        IdempotencyKeyResource missingIdempotencyKey;
+
+        ConsentResource consentResource = ConsentMgtDAOTestData.getSampleTestConsentResource();
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+
+            ConsentResource storedConsentResource = consentCoreDAO.storeConsentResource(connection, consentResource);
+
+            Assert.assertTrue(consentCoreDAO.storeIdempotencyKey(connection, new IdempotencyKeyResource(
+                    storedConsentResource.getClientID(), "idempotency-key-1", "payments",
+                    storedConsentResource.getConsentID(), storedConsentResource.getCreatedTime())));
+
+            retrievedIdempotencyKey = consentCoreDAO.getIdempotencyKey(connection,
+                    storedConsentResource.getClientID(), "idempotency-key-1", "payments");
+            missingIdempotencyKey = consentCoreDAO.getIdempotencyKey(connection,
+                    storedConsentResource.getClientID(), "idempotency-key-1", "funds-confirmations");
+            Assert.assertTrue(consentCoreDAO.deleteConsentData(connection, storedConsentResource.getConsentID(),
+                    false));
+        }
+        Assert.assertNotNull(retrievedIdempotencyKey);
+        Assert.assertEquals(retrievedIdempotencyKey.getConsentID(), consentResource.getConsentID());
+        Assert.assertEquals(retrievedIdempotencyKey.getCreatedTime(), consentResource.getCreatedTime());
+        Assert.assertNull(missingIdempotencyKey);
+    }
+
+    @Test (expectedExceptions = OBConsentDataInsertionException.class)
+    public void testStoreIdempotencyKeySQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.storeIdempotencyKey(mockedConnection, new IdempotencyKeyResource());
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testGetIdempotencyKeySQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.getIdempotencyKey(mockedConnection, ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST.get(0),
+                "idempotency-key-1", "payments");
+    }
+
     @DataProvider(name = "updateConsentStatusDataProvider")
     public Object[][] updateConsentStatusData() {
 
@@ -1985,6 +2031,69 @@ public class OBConsentMgtDAOTests {
                 null, null, null, null, null, null);
     }
 
+    @Test
+    public void testSearchConsentsByCursor() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> firstPage;
+        ArrayList<DetailedConsentResource> secondPage;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            firstPage = consentCoreDAO.searchConsentsByCursor(connection, consentIDs, null, null, null,
+                    null, null, null, 2, null);
+            ConsentSearchCursor cursor = ConsentSearchCursor.fromConsent(firstPage.get(firstPage.size() - 1));
+            secondPage = consentCoreDAO.searchConsentsByCursor(connection, consentIDs, null, null, null,
+                    null, null, null, 2, ConsentSearchCursor.fromToken(cursor.toToken()));
+        }
+
+        Assert.assertEquals(firstPage.size(), 2);
+        Assert.assertEquals(secondPage.size(), 1);
+
+        ArrayList<String> returnedConsentIDs = new ArrayList<>();
+        for (DetailedConsentResource resource : firstPage) {
+            returnedConsentIDs.add(resource.getConsentID());
+        }
+        returnedConsentIDs.add(secondPage.get(0).getConsentID());
+        Assert.assertTrue(returnedConsentIDs.containsAll(consentIDs));
+
+        for (DetailedConsentResource resource : firstPage) {
+            Assert.assertFalse(resource.getConsentAttributes().isEmpty());
+            Assert.assertEquals(resource.getAuthorizationResources().size(), 2);
+            Assert.assertEquals(resource.getConsentMappingResources().size(), 4);
+            for (AuthorizationResource authResource : resource.getAuthorizationResources()) {
+                Assert.assertEquals(resource.getConsentID(), authResource.getConsentID());
+            }
+        }
+    }
+
+    @Test
+    public void testSearchConsentsByCursorWithClientIDs() throws Exception {
+
+        ArrayList<String> consentIDs = new ArrayList<>();
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            storeDataForConsentSearchTest(consentIDs, connection);
+            detailedConsentResources = consentCoreDAO.searchConsentsByCursor(connection, null,
+                    ConsentMgtDAOTestData.SAMPLE_CLIENT_IDS_LIST, null, null, null, null, null, 10, null);
+        }
+
+        Assert.assertNotNull(detailedConsentResources);
+        for (int i = 1; i < detailedConsentResources.size(); i++) {
+            Assert.assertTrue(detailedConsentResources.get(i - 1).getUpdatedTime()
+                    >= detailedConsentResources.get(i).getUpdatedTime());
+        }
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testSearchConsentsByCursorSQLError() throws Exception {
+
+        Mockito.doThrow(SQLException.class).when(mockedConnection).prepareStatement(Mockito.anyString());
+        consentCoreDAO.searchConsentsByCursor(mockedConnection, null, null, null,
+                null, null, null, null, 10, null);
+    }
+
     @Test
     public void testSearchConsentAuthorizations() throws Exception {
 
@@ -2259,6 +2368,120 @@ public class OBConsentMgtDAOTests {
         consentCoreDAO.getExpiringConsents(mockedConnection, "Authorized,awaitingAuthorisation");
     }
 
+    @Test
+    public void testExpireConsents() throws Exception {
+
+        Map<String, Long> expiredConsentIDs;
+        Map<String, Long> nextExpiredConsentIDs;
+        ArrayList<String> expiredConsents;
+        ArrayList<String> staleExpiredConsents;
+        ConsentResource retrievedConsentResource;
+        ArrayList<ConsentStatusAuditRecord> auditRecords;
+        long currentTime = System.currentTimeMillis() / 1000;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            ConsentResource consentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            String consentID = consentResource.getConsentID();
+            consentCoreDAO.storeAuthorizationResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestAuthorizationResource(consentID));
+            ConsentAttributes consentAttributes = ConsentMgtDAOTestData.getSampleTestConsentAttributesObject(consentID);
+            consentAttributes.getConsentAttributes().put(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE,
+                    "1632918113");
+            consentCoreDAO.storeConsentAttributes(connection, consentAttributes);
+
+            // Consent which is not expired yet
+            ConsentResource validConsentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            ConsentAttributes validConsentAttributes = ConsentMgtDAOTestData
+                    .getSampleTestConsentAttributesObject(validConsentResource.getConsentID());
+            validConsentAttributes.getConsentAttributes().put(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE,
+                    String.valueOf(currentTime + 3600));
+            consentCoreDAO.storeConsentAttributes(connection, validConsentAttributes);
+
+            // Consent with an expiry time which is not numeric
+            ConsentResource invalidConsentResource = consentCoreDAO.storeConsentResource(connection,
+                    ConsentMgtDAOTestData.getSampleTestConsentResource());
+            ConsentAttributes invalidConsentAttributes = ConsentMgtDAOTestData
+                    .getSampleTestConsentAttributesObject(invalidConsentResource.getConsentID());
+            invalidConsentAttributes.getConsentAttributes().put(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE,
+                    "2021-09-29T12:21:53Z");
+            consentCoreDAO.storeConsentAttributes(connection, invalidConsentAttributes);
+
+            expiredConsentIDs = consentCoreDAO.getExpiredConsentIDs(connection, "Authorized,awaitingAuthorisation",
+                    currentTime, null, 1000);
+            Assert.assertFalse(expiredConsentIDs.containsKey(validConsentResource.getConsentID()));
+            Assert.assertFalse(expiredConsentIDs.containsKey(invalidConsentResource.getConsentID()));
+
+            ArrayList<DetailedConsentResource> selectedConsents = consentCoreDAO.searchConsents(connection,
+                    new ArrayList<>(Arrays.asList(consentID)), null, null, null, null, null, null, null, null);
+            expiredConsents = consentCoreDAO.expireConsents(connection, selectedConsents,
+                    ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS, "Consent expired");
+            staleExpiredConsents = consentCoreDAO.expireConsents(connection, selectedConsents,
+                    ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS, "Consent expired");
+
+            retrievedConsentResource = consentCoreDAO.getConsentResource(connection, consentID);
+            auditRecords = consentCoreDAO.getConsentStatusAuditRecords(connection, consentID, null, null, null,
+                    null, null, false);
+            nextExpiredConsentIDs = consentCoreDAO.getExpiredConsentIDs(connection,
+                    "Authorized,awaitingAuthorisation", currentTime, null, 1000);
+        }
+        Assert.assertEquals(expiredConsentIDs.get(retrievedConsentResource.getConsentID()), Long.valueOf(1632918113));
+        Assert.assertEquals(expiredConsents, Arrays.asList(retrievedConsentResource.getConsentID()));
+        Assert.assertTrue(staleExpiredConsents.isEmpty());
+        Assert.assertEquals(retrievedConsentResource.getCurrentStatus(), ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS);
+        Assert.assertTrue(auditRecords.stream().anyMatch(auditRecord -> ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS
+                .equals(auditRecord.getCurrentStatus())));
+        Assert.assertFalse(nextExpiredConsentIDs.containsKey(retrievedConsentResource.getConsentID()));
+    }
+
+    @Test
+    public void testRetrieveExpiredConsentIDsAfterCursor() throws Exception {
+
+        Map<String, Long> firstChunk;
+        Map<String, Long> nextChunk;
+        long currentTime = System.currentTimeMillis() / 1000;
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            for (int i = 0; i < 2; i++) {
+                ConsentResource consentResource = consentCoreDAO.storeConsentResource(connection,
+                        ConsentMgtDAOTestData.getSampleTestConsentResource());
+                ConsentAttributes consentAttributes = ConsentMgtDAOTestData
+                        .getSampleTestConsentAttributesObject(consentResource.getConsentID());
+                consentAttributes.getConsentAttributes().put(ConsentMgtDAOConstants.CONSENT_EXPIRY_TIME_ATTRIBUTE,
+                        "1632918113");
+                consentCoreDAO.storeConsentAttributes(connection, consentAttributes);
+            }
+            firstChunk = consentCoreDAO.getExpiredConsentIDs(connection, "Authorized", currentTime, null, 1);
+            nextChunk = consentCoreDAO.getExpiredConsentIDs(connection, "Authorized", currentTime,
+                    firstChunk.keySet().iterator().next(), 1);
+        }
+        Assert.assertEquals(firstChunk.size(), 1);
+        Assert.assertEquals(nextChunk.size(), 1);
+        Assert.assertTrue(nextChunk.keySet().iterator().next().compareTo(firstChunk.keySet().iterator().next()) > 0);
+    }
+
+    @Test (expectedExceptions = OBConsentDataRetrievalException.class)
+    public void testRetrieveExpiredConsentIDsDataRetrievalError() throws Exception {
+
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeQuery();
+        consentCoreDAO.getExpiredConsentIDs(mockedConnection, "Authorized", System.currentTimeMillis() / 1000,
+                null, 100);
+    }
+
+    @Test (expectedExceptions = OBConsentDataUpdationException.class)
+    public void testExpireConsentsUpdateError() throws Exception {
+
+        DetailedConsentResource detailedConsentResource = new DetailedConsentResource();
+        detailedConsentResource.setConsentID(ConsentMgtDAOTestData.SAMPLE_CONSENT_ID);
+        detailedConsentResource.setCurrentStatus(ConsentMgtDAOTestData.SAMPLE_CURRENT_STATUS);
+        Mockito.doReturn(mockedPreparedStatement).when(mockedConnection).prepareStatement(Mockito.anyString());
+        Mockito.doThrow(SQLException.class).when(mockedPreparedStatement).executeBatch();
+        consentCoreDAO.expireConsents(mockedConnection, Arrays.asList(detailedConsentResource),
+                ConsentMgtDAOTestData.SAMPLE_EXPIRED_STATUS, "Consent expired");
+    }
+
     @DataProvider(name = "storeConsentHistoryDataProvider")
     public Object[][] storeConsentHistoryData() {
 
@@ -25,8 +25,11 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCursor;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ExpiredConsentChunk;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 
 import java.util.ArrayList;
 import java.util.Map;
@@ -295,6 +298,27 @@ public interface ConsentCoreService {
     ArrayList<String> getConsentIdByConsentAttributeNameAndValue(String attributeName, String attributeValue)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to store the idempotency key of a consent request.
+     *
+     * @param idempotencyKeyResource idempotency key resource
+     * @return true if the idempotency key is stored successfully
+     * @throws ConsentManagementException thrown if an error occurs in the process
+     */
+    boolean storeIdempotencyKey(IdempotencyKeyResource idempotencyKeyResource) throws ConsentManagementException;
+
+    /**
+     * This method is used to retrieve the idempotency key of a consent request.
+     *
+     * @param clientID client ID
+     * @param idempotencyKey idempotency key value
+     * @param requestPath request path
+     * @return the idempotency key resource or null if the idempotency key is not stored
+     * @throws ConsentManagementException thrown if an error occurs in the process
+     */
+    IdempotencyKeyResource getIdempotencyKey(String clientID, String idempotencyKey, String requestPath)
+            throws ConsentManagementException;
+
     /**
      * This method is used to delete the provided consent attributes for a particular consent.
      *
@@ -512,6 +536,36 @@ public interface ConsentCoreService {
                                                               boolean fetchFromRetentionDatabase)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to search detailed consents for the given lists of parameters using keyset pagination.
+     * Search conditions are the same as {@link #searchDetailedConsents(ArrayList, ArrayList, ArrayList, ArrayList,
+     * ArrayList, Long, Long, Integer, Integer, boolean)}. Consents are returned in descending order of the updated
+     * time, starting after the provided cursor. The cursor of the next page can be created from the last consent of
+     * the returned list using {@link ConsentSearchCursor#fromConsent(DetailedConsentResource)}.
+     *
+     * @param consentIDs consent IDs optional list
+     * @param clientIDs client IDs optional list
+     * @param consentTypes consent types optional list
+     * @param consentStatuses consent statuses optional list
+     * @param userIDs user IDs optional list
+     * @param fromTime from time
+     * @param toTime to time
+     * @param limit maximum number of consents to return
+     * @param cursor position to continue the search from, null to retrieve the first page
+     * @param fetchFromRetentionDatabase flag to enable fetch data from retention database.
+     * @return a list of detailed consent resources according to the provided parameters
+     * @throws ConsentManagementException thrown if any error occur
+     */
+    ArrayList<DetailedConsentResource> searchDetailedConsentsByCursor(ArrayList<String> consentIDs,
+                                                                      ArrayList<String> clientIDs,
+                                                                      ArrayList<String> consentTypes,
+                                                                      ArrayList<String> consentStatuses,
+                                                                      ArrayList<String> userIDs, Long fromTime,
+                                                                      Long toTime, int limit,
+                                                                      ConsentSearchCursor cursor,
+                                                                      boolean fetchFromRetentionDatabase)
+            throws ConsentManagementException;
+
     /**
      * This method is used to bind user and accounts to the consent.
      *
@@ -614,6 +668,21 @@ public interface ConsentCoreService {
     ArrayList<DetailedConsentResource> getConsentsEligibleForExpiration(String statusesEligibleForExpiration)
             throws ConsentManagementException;
 
+    /**
+     * This method is used to expire a chunk of consents whose expiry time attribute has passed. The consent statuses
+     * and the status audit records of the chunk are updated in batches within a single transaction, and the consent
+     * state change listener is notified asynchronously once the transaction is committed.
+     *
+     * @param statusesEligibleForExpiration comma separated statuses eligible for expiration
+     * @param expiredConsentStatus status of expired consents
+     * @param lastConsentID last consent ID of the previous chunk, null to expire the first chunk
+     * @param chunkSize maximum number of consents to select for expiration
+     * @return the expired chunk, with the position to select the next chunk from
+     * @throws ConsentManagementException thrown if any error occurs in the process
+     */
+    ExpiredConsentChunk expireConsents(String statusesEligibleForExpiration, String expiredConsentStatus,
+                                       String lastConsentID, int chunkSize) throws ConsentManagementException;
+
     /**
      * This method is used to update the status of an authorization resource by providing the authorization Id and
      * the new authorization status.
@@ -36,8 +36,11 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCursor;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ExpiredConsentChunk;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.persistence.ConsentStoreInitializer;
 import com.wso2.openbanking.accelerator.consent.mgt.service.ConsentCoreService;
 import com.wso2.openbanking.accelerator.consent.mgt.service.constants.ConsentCoreServiceConstants;
@@ -75,6 +78,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Consent core service implementation.
@@ -82,6 +89,15 @@ import java.util.UUID;
 public class ConsentCoreServiceImpl implements ConsentCoreService {
 
     private static final Log log = LogFactory.getLog(ConsentCoreServiceImpl.class);
+    private static final int STATE_CHANGE_NOTIFICATION_QUEUE_CAPACITY = 1000;
+    // Single thread, hence the state changes of expired consents are notified in the order of expiration. Once the
+    // queue is full the expiring thread notifies the state change itself, so that pending notifications are bounded.
+    private static final ExecutorService stateChangeNotifier = new ThreadPoolExecutor(1, 1, 0L,
+            TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(STATE_CHANGE_NOTIFICATION_QUEUE_CAPACITY), runnable -> {
+        Thread thread = new Thread(runnable, "OB-Consent-Expiry-Notifier");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
 
     @Override
     public DetailedConsentResource createAuthorizableConsent(ConsentResource consentResource, String userID,
@@ -761,6 +777,76 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         }
     }
 
+    @Override
+    public boolean storeIdempotencyKey(IdempotencyKeyResource idempotencyKeyResource)
+            throws ConsentManagementException {
+
+        if (idempotencyKeyResource == null || StringUtils.isBlank(idempotencyKeyResource.getClientID()) ||
+                StringUtils.isBlank(idempotencyKeyResource.getIdempotencyKey()) ||
+                StringUtils.isBlank(idempotencyKeyResource.getRequestPath()) ||
+                StringUtils.isBlank(idempotencyKeyResource.getConsentID())) {
+            log.error("Client ID, idempotency key, request path or consent ID is missing, cannot proceed");
+            throw new ConsentManagementException("Cannot proceed since client ID, idempotency key, request path " +
+                    "or consent ID is missing.");
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+                if (log.isDebugEnabled()) {
+                    log.debug("Storing idempotency key for the consent of ID: " +
+                            idempotencyKeyResource.getConsentID().replaceAll("[\r\n]", ""));
+                }
+                boolean isIdempotencyKeyStored = consentCoreDAO.storeIdempotencyKey(connection,
+                        idempotencyKeyResource);
+                DatabaseUtil.commitTransaction(connection);
+                return isIdempotencyKeyStored;
+            } catch (OBConsentDataInsertionException e) {
+                log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    @Override
+    public IdempotencyKeyResource getIdempotencyKey(String clientID, String idempotencyKey, String requestPath)
+            throws ConsentManagementException {
+
+        if (StringUtils.isBlank(clientID) || StringUtils.isBlank(idempotencyKey) ||
+                StringUtils.isBlank(requestPath)) {
+            log.error("Client ID, idempotency key or request path is not provided, cannot proceed");
+            throw new ConsentManagementException("Client ID, idempotency key or request path is not provided, " +
+                    "cannot proceed");
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            try {
+                IdempotencyKeyResource retrievedIdempotencyKey = consentCoreDAO.getIdempotencyKey(connection,
+                        clientID, idempotencyKey, requestPath);
+
+                // Commit transactions
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+                return retrievedIdempotencyKey;
+            } catch (OBConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
     @Override
     public boolean deleteConsentAttributes(String consentID, ArrayList<String> attributeKeysList)
             throws ConsentManagementException {
@@ -1333,6 +1419,60 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         return detailedConsentResources;
     }
 
+    @Override
+    public ArrayList<DetailedConsentResource> searchDetailedConsentsByCursor(ArrayList<String> consentIDs,
+                                                                             ArrayList<String> clientIDs,
+                                                                             ArrayList<String> consentTypes,
+                                                                             ArrayList<String> consentStatuses,
+                                                                             ArrayList<String> userIDs,
+                                                                             Long fromTime, Long toTime, int limit,
+                                                                             ConsentSearchCursor cursor,
+                                                                             boolean fetchFromRetentionDatabase)
+            throws ConsentManagementException {
+
+        if (limit <= 0) {
+            log.error("Limit should be a positive number for the consent search by cursor");
+            throw new ConsentManagementException("Limit should be a positive number for the consent search by " +
+                    "cursor");
+        }
+
+        ArrayList<DetailedConsentResource> detailedConsentResources;
+
+        Connection connection;
+        if (fetchFromRetentionDatabase) {
+            connection = DatabaseUtil.getRetentionDBConnection();
+        } else {
+            connection = DatabaseUtil.getDBConnection();
+        }
+
+        try {
+            try {
+                ConsentCoreDAO consentCoreDAO;
+                if (fetchFromRetentionDatabase) {
+                    consentCoreDAO = ConsentStoreInitializer.getInitializedConsentRetentionDAOImpl();
+                } else {
+                    consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+                }
+
+                log.debug("Searching detailed consents by cursor");
+                detailedConsentResources = consentCoreDAO.searchConsentsByCursor(connection, consentIDs, clientIDs,
+                        consentTypes, consentStatuses, userIDs, fromTime, toTime, limit, cursor);
+
+            } catch (OBConsentDataRetrievalException e) {
+                log.error("Error occurred while searching detailed consents", e);
+                throw new ConsentManagementException("Error occurred while searching detailed consents", e);
+            }
+
+            // Commit transactions
+            DatabaseUtil.commitTransaction(connection);
+            log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+        return detailedConsentResources;
+    }
+
     @Override
     public boolean bindUserAccountsToConsent(ConsentResource consentResource, String userID,
                                              String authID, ArrayList<String> accountIDs,
@@ -2724,6 +2864,101 @@ public class ConsentCoreServiceImpl implements ConsentCoreService {
         }
     }
 
+    @Override
+    public ExpiredConsentChunk expireConsents(String statusesEligibleForExpiration, String expiredConsentStatus,
+                                              String lastConsentID, int chunkSize)
+            throws ConsentManagementException {
+
+        if (StringUtils.isBlank(expiredConsentStatus) || chunkSize <= 0) {
+            log.error("Expired consent status or a valid chunk size is missing. Cannot proceed.");
+            throw new ConsentManagementException("Cannot proceed without expired consent status and a valid " +
+                    "chunk size.");
+        }
+
+        Connection connection = DatabaseUtil.getDBConnection();
+        List<DetailedConsentResource> expiredConsents;
+        String auditMessage = "Consent status updated to " + expiredConsentStatus;
+
+        try {
+            ConsentCoreDAO consentCoreDAO = ConsentStoreInitializer.getInitializedConsentCoreDAOImpl();
+            try {
+                Map<String, Long> expiryTimes = consentCoreDAO.getExpiredConsentIDs(connection,
+                        StringUtils.defaultString(statusesEligibleForExpiration),
+                        System.currentTimeMillis() / 1000, lastConsentID, chunkSize);
+                if (expiryTimes.isEmpty()) {
+                    DatabaseUtil.commitTransaction(connection);
+                    return new ExpiredConsentChunk(new ArrayList<>(), null, 0, 0);
+                }
+
+                ArrayList<String> selectedConsentIDs = new ArrayList<>(expiryTimes.keySet());
+                ArrayList<DetailedConsentResource> selectedConsents = consentCoreDAO.searchConsents(connection,
+                        selectedConsentIDs, null, null, null, null, null, null, null, null);
+                Set<String> expiredConsentIDs = new HashSet<>(consentCoreDAO.expireConsents(connection,
+                        selectedConsents, expiredConsentStatus, auditMessage));
+
+                // Commit transaction
+                DatabaseUtil.commitTransaction(connection);
+                log.debug(ConsentCoreServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+
+                expiredConsents = new ArrayList<>();
+                long oldestExpiryTime = 0;
+                for (DetailedConsentResource selectedConsent : selectedConsents) {
+                    if (expiredConsentIDs.contains(selectedConsent.getConsentID())) {
+                        expiredConsents.add(selectedConsent);
+                        long expiryTime = expiryTimes.get(selectedConsent.getConsentID());
+                        oldestExpiryTime = oldestExpiryTime == 0 ? expiryTime : Math.min(oldestExpiryTime, expiryTime);
+                    }
+                }
+                notifyConsentExpiration(expiredConsents, expiredConsentStatus, auditMessage);
+                return new ExpiredConsentChunk(expiredConsents, selectedConsentIDs.get(selectedConsentIDs.size() - 1),
+                        selectedConsentIDs.size(), oldestExpiryTime);
+            } catch (OBConsentDataRetrievalException e) {
+                log.error(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            } catch (OBConsentDataInsertionException e) {
+                log.error(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            } catch (OBConsentDataUpdationException e) {
+                log.error(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
+                DatabaseUtil.rollbackTransaction(connection);
+                throw new ConsentManagementException(ConsentCoreServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
+            }
+        } finally {
+            log.debug(ConsentCoreServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Notify the state change listener of the expired consents, once for each authorization resource as when the
+     * consent status is updated. The listener is invoked outside the expiration transaction, in the order of expiration
+     * unless the notification queue is full.
+     */
+    private void notifyConsentExpiration(List<DetailedConsentResource> expiredConsents, String expiredConsentStatus,
+                                         String reason) {
+
+        for (DetailedConsentResource expiredConsent : expiredConsents) {
+            if (expiredConsent.getAuthorizationResources() == null) {
+                continue;
+            }
+            for (AuthorizationResource authResource : expiredConsent.getAuthorizationResources()) {
+                HashMap<String, Object> consentDataMap = new HashMap<>();
+                consentDataMap.put(ConsentCoreServiceConstants.DETAILED_CONSENT_RESOURCE, expiredConsent);
+                stateChangeNotifier.execute(() -> {
+                    try {
+                        ConsentStateChangeListenerImpl.getInstance().onStateChange(expiredConsent.getConsentID(),
+                                authResource.getUserID(), expiredConsentStatus, expiredConsent.getCurrentStatus(),
+                                reason, expiredConsent.getClientID(), consentDataMap);
+                    } catch (ConsentManagementException | RuntimeException e) {
+                        log.error(("Error while notifying the expiration of consent " + expiredConsent.getConsentID())
+                                .replaceAll("[\r\n]", ""), e);
+                    }
+                });
+            }
+        }
+    }
+
     private void postStateChange(Connection connection, ConsentCoreDAO consentCoreDAO, String consentID,
                                  String userID, String newConsentStatus, String previousConsentStatus, String reason,
                                  String clientId, Map<String, Object> consentDataMap)
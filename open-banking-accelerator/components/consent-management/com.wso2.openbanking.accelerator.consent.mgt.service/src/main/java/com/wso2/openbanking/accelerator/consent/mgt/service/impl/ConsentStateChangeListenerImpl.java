@@ -18,6 +18,8 @@
 
 package com.wso2.openbanking.accelerator.consent.mgt.service.impl;
 
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.consent.cache.ConsentValidationCache;
 import com.wso2.openbanking.accelerator.common.event.executor.OBEventQueue;
 import com.wso2.openbanking.accelerator.common.event.executor.model.OBEvent;
 import com.wso2.openbanking.accelerator.common.exception.ConsentManagementException;
@@ -55,6 +57,12 @@ public class ConsentStateChangeListenerImpl implements ConsentStateChangeListene
                               String reason, String clientId, Map<String, Object> consentDataMap)
             throws ConsentManagementException {
 
+        // Drop cached validation results so that the consent is re-validated against its new state. The cache is
+        // used only when it is a cluster cache shared with the gateway nodes, hence the invalidation reaches them.
+        if (OpenBankingConfigParser.getInstance().isConsentValidationCacheEnabled()) {
+            ConsentValidationCache.getInstance().invalidate(consentID);
+        }
+
         OBEventQueue obEventQueue = ConsentManagementDataHolder.getInstance().getOBEventQueue();
 
         Map<String, Object> eventData = new HashMap<>();
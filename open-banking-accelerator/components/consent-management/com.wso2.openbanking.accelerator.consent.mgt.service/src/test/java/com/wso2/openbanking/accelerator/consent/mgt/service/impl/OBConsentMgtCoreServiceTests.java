@@ -34,8 +34,11 @@ import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentFile;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentHistoryResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentMappingResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentSearchCursor;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ConsentStatusAuditRecord;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.models.DetailedConsentResource;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.ExpiredConsentChunk;
+import com.wso2.openbanking.accelerator.consent.mgt.dao.models.IdempotencyKeyResource;
 import com.wso2.openbanking.accelerator.consent.mgt.dao.persistence.ConsentStoreInitializer;
 import com.wso2.openbanking.accelerator.consent.mgt.service.constants.ConsentCoreServiceConstants;
 import com.wso2.openbanking.accelerator.consent.mgt.service.internal.ConsentManagementDataHolder;
@@ -60,8 +63,10 @@ import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -1227,6 +1232,47 @@ public class OBConsentMgtCoreServiceTests {
                 12345L, 23456L, 1, 0);
     }
 
+    @Test
+    public void testSearchConsentsByCursor() throws Exception {
+
+        ArrayList<DetailedConsentResource> detailedConsentResources = new ArrayList<>();
+        detailedConsentResources.add(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResource());
+
+        Mockito.doReturn(detailedConsentResources)
+                .when(mockedConsentCoreDAO).searchConsentsByCursor(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.any());
+
+        ArrayList<DetailedConsentResource> results = consentCoreServiceImpl.searchDetailedConsentsByCursor(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST, ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST,
+                ConsentMgtServiceTestData.SAMPLE_CONSENT_TYPES_LIST,
+                ConsentMgtServiceTestData.SAMPLE_CONSENT_STATUSES_LIST, ConsentMgtServiceTestData.SAMPLE_USER_IDS_LIST,
+                12345L, 23456L, 10, new ConsentSearchCursor(23456L, "sampleConsentID"), false);
+
+        Assert.assertEquals(results.size(), 1);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testSearchConsentsByCursorRetrieveError() throws Exception {
+
+        Mockito.doThrow(OBConsentDataRetrievalException.class)
+                .when(mockedConsentCoreDAO).searchConsentsByCursor(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt(),
+                Mockito.any());
+
+        consentCoreServiceImpl.searchDetailedConsentsByCursor(ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST,
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_IDS_LIST, ConsentMgtServiceTestData.SAMPLE_CONSENT_TYPES_LIST,
+                ConsentMgtServiceTestData.SAMPLE_CONSENT_STATUSES_LIST, ConsentMgtServiceTestData.SAMPLE_USER_IDS_LIST,
+                null, null, 10, null, true);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testSearchConsentsByCursorWithInvalidLimit() throws Exception {
+
+        consentCoreServiceImpl.searchDetailedConsentsByCursor(null, null, null, null, null,
+                null, null, 0, null, false);
+    }
+
     @Test (expectedExceptions = ConsentManagementException.class)
     public void testSearchConsentsInRetentionDBWithLimits() throws Exception {
 
@@ -1794,6 +1840,57 @@ public class OBConsentMgtCoreServiceTests {
         Assert.assertFalse(consentIdList.isEmpty());
     }
 
+    @Test
+    public void testStoreIdempotencyKey() throws Exception {
+
+        Mockito.doReturn(true).when(mockedConsentCoreDAO).storeIdempotencyKey(Mockito.any(), Mockito.any());
+        Assert.assertTrue(consentCoreServiceImpl.storeIdempotencyKey(new IdempotencyKeyResource(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "idempotency-key-1", "payments", sampleID, 0L)));
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testStoreIdempotencyKeyWithoutConsentID() throws Exception {
+
+        consentCoreServiceImpl.storeIdempotencyKey(new IdempotencyKeyResource(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "idempotency-key-1", "payments", null, 0L));
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testStoreIdempotencyKeyDataInsertError() throws Exception {
+
+        Mockito.doThrow(OBConsentDataInsertionException.class)
+                .when(mockedConsentCoreDAO).storeIdempotencyKey(Mockito.any(), Mockito.any());
+        consentCoreServiceImpl.storeIdempotencyKey(new IdempotencyKeyResource(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "idempotency-key-1", "payments", sampleID, 0L));
+    }
+
+    @Test
+    public void testGetIdempotencyKey() throws Exception {
+
+        Mockito.doReturn(new IdempotencyKeyResource(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID,
+                "idempotency-key-1", "payments", sampleID, 0L)).when(mockedConsentCoreDAO)
+                .getIdempotencyKey(Mockito.any(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        IdempotencyKeyResource idempotencyKey = consentCoreServiceImpl.getIdempotencyKey(
+                ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "idempotency-key-1", "payments");
+        Assert.assertEquals(idempotencyKey.getConsentID(), sampleID);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testGetIdempotencyKeyWithoutRequestPath() throws Exception {
+
+        consentCoreServiceImpl.getIdempotencyKey(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "idempotency-key-1",
+                null);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testGetIdempotencyKeyDataRetrieveError() throws Exception {
+
+        Mockito.doThrow(OBConsentDataRetrievalException.class).when(mockedConsentCoreDAO)
+                .getIdempotencyKey(Mockito.any(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        consentCoreServiceImpl.getIdempotencyKey(ConsentMgtServiceTestData.SAMPLE_CLIENT_ID, "idempotency-key-1",
+                "payments");
+    }
+
     @Test
     public void testGetConsentFile() throws Exception {
 
@@ -2367,6 +2464,66 @@ public class OBConsentMgtCoreServiceTests {
                 ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResourcesList().get(0).getConsentID());
     }
 
+    @Test
+    public void testExpireConsents() throws Exception {
+
+        Map<String, Long> expiredConsentIDs = new LinkedHashMap<>();
+        expiredConsentIDs.put(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID, 1632918113L);
+        Mockito.doReturn(expiredConsentIDs).when(mockedConsentCoreDAO).getExpiredConsentIDs(Mockito.any(),
+                Mockito.anyString(), Mockito.anyLong(), Mockito.any(), Mockito.anyInt());
+        Mockito.doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResourcesList())
+                .when(mockedConsentCoreDAO).searchConsents(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doReturn(new ArrayList<>(Arrays.asList(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID)))
+                .when(mockedConsentCoreDAO).expireConsents(Mockito.any(), Mockito.any(), Mockito.anyString(),
+                Mockito.anyString());
+
+        ExpiredConsentChunk expiredConsentChunk = consentCoreServiceImpl.expireConsents("authorised",
+                ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS, null, 100);
+
+        Assert.assertFalse(expiredConsentChunk.getExpiredConsents().isEmpty());
+        Assert.assertEquals(expiredConsentChunk.getLastConsentID(), ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID);
+        Assert.assertEquals(expiredConsentChunk.getSelectedCount(), 1);
+        Assert.assertEquals(expiredConsentChunk.getOldestExpiryTime(), 1632918113L);
+    }
+
+    @Test
+    public void testExpireConsentsWithoutExpiredConsents() throws Exception {
+
+        Mockito.doReturn(new LinkedHashMap<>()).when(mockedConsentCoreDAO).getExpiredConsentIDs(Mockito.any(),
+                Mockito.anyString(), Mockito.anyLong(), Mockito.any(), Mockito.anyInt());
+
+        ExpiredConsentChunk expiredConsentChunk = consentCoreServiceImpl.expireConsents("authorised",
+                ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS, ConsentMgtServiceTestData.CONSENT_ID, 100);
+
+        Assert.assertTrue(expiredConsentChunk.getExpiredConsents().isEmpty());
+        Assert.assertNull(expiredConsentChunk.getLastConsentID());
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testExpireConsentsUpdateError() throws Exception {
+
+        Map<String, Long> expiredConsentIDs = new LinkedHashMap<>();
+        expiredConsentIDs.put(ConsentMgtServiceTestData.UNMATCHED_CONSENT_ID, 1632918113L);
+        Mockito.doReturn(expiredConsentIDs).when(mockedConsentCoreDAO).getExpiredConsentIDs(Mockito.any(),
+                Mockito.anyString(), Mockito.anyLong(), Mockito.any(), Mockito.anyInt());
+        Mockito.doReturn(ConsentMgtServiceTestData.getSampleDetailedStoredTestConsentResourcesList())
+                .when(mockedConsentCoreDAO).searchConsents(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doThrow(OBConsentDataUpdationException.class).when(mockedConsentCoreDAO)
+                .expireConsents(Mockito.any(), Mockito.any(), Mockito.anyString(), Mockito.anyString());
+
+        consentCoreServiceImpl.expireConsents("authorised", ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS, null,
+                100);
+    }
+
+    @Test (expectedExceptions = ConsentManagementException.class)
+    public void testExpireConsentsWithoutChunkSize() throws Exception {
+
+        consentCoreServiceImpl.expireConsents("authorised", ConsentMgtServiceTestData.SAMPLE_EXPIRED_STATUS, null,
+                0);
+    }
+
     @Test
     public void testRevokeConsentWithoutReason() throws Exception {
 
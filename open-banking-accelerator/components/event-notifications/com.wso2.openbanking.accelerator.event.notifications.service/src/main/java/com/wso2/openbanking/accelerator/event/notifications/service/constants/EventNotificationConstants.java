@@ -82,6 +82,8 @@ public class EventNotificationConstants {
 
     public static final String DB_ERROR_UPDATING = "Database error while updating notification with ID : " +
             "'%s' in the database. ";
+    public static final String DB_ERROR_UPDATING_NOTIFICATIONS = "Database error while updating the status of " +
+            "notifications in the database. ";
     public static final String DB_ERROR_NOTIFICATION_RETRIEVE = "Error occurred while retrieving" +
             " notifications for client ID : '%s'.";
     public static final String DB_FAILED_ERROR_NOTIFICATION_STORING = "Failed to store error notification with ID : ";
@@ -23,6 +23,7 @@ import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.O
 import com.wso2.openbanking.accelerator.event.notifications.service.model.NotificationError;
 import com.wso2.openbanking.accelerator.event.notifications.service.model.NotificationEvent;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -102,4 +103,39 @@ public interface AggregatedPollingDAO {
      * @throws OBEventNotificationException  Exception when retrieving notification status
      */
     boolean getNotificationStatus(String notificationId) throws OBEventNotificationException;
+
+    /**
+     * This method is to update the status of the given notifications in a single transaction.
+     *
+     * @param notificationIds    Notification IDs to update
+     * @param notificationStatus Notification status to update
+     * @return Number of updated notifications
+     * @throws OBEventNotificationException  Exception when updating notification statuses
+     */
+    int updateNotificationStatusByIds(Collection<String> notificationIds, String notificationStatus)
+            throws OBEventNotificationException;
+
+    /**
+     * This method is to mark the given notifications as erroneous and store their error details in the
+     * OB_NOTIFICATION_ERROR table in a single transaction. Notifications which are not in OPEN status are skipped.
+     *
+     * @param notificationErrors  Notification error details mapped by notification ID
+     * @return Stored event notifications error details
+     * @throws OBEventNotificationException  Exception when storing event notifications error details
+     */
+    Map<String, NotificationError> storeErrorNotifications(Map<String, NotificationError> notificationErrors)
+            throws OBEventNotificationException;
+
+    /**
+     * This method is to retrieve given number of notifications by client and status along with their events
+     * using a single query.
+     *
+     * @param clientId  Client ID to retrieve notifications
+     * @param status    Notification status to retrieve
+     * @param max       Maximum number of notifications to retrieve
+     * @return Events of the retrieved notifications mapped by notification, in retrieval order
+     * @throws OBEventNotificationException  Exception when retrieving notifications by client ID and status
+     */
+    Map<NotificationDTO, List<NotificationEvent>> getNotificationsWithEventsByClientIdAndStatus(String clientId,
+            String status, int max) throws OBEventNotificationException;
 }
@@ -36,8 +36,10 @@ import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -47,6 +49,8 @@ import java.util.Map;
 public class AggregatedPollingDAOImpl implements AggregatedPollingDAO {
 
     private static Log log = LogFactory.getLog(AggregatedPollingDAOImpl.class);
+    // Oracle does not allow more than 1000 expressions in an IN list
+    private static final int MAX_IDS_PER_QUERY = 500;
     protected NotificationPollingSqlStatements sqlStatements;
 
 
@@ -445,4 +449,238 @@ public class AggregatedPollingDAOImpl implements AggregatedPollingDAO {
 
         return false;
     }
+
+    @Override
+    public int updateNotificationStatusByIds(Collection<String> notificationIds, String notificationStatus)
+            throws OBEventNotificationException {
+
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        Connection connection = DatabaseUtil.getDBConnection();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Database connection is established for updating %d notifications in the " +
+                    "database. ", notificationIds.size()));
+        }
+        try {
+            connection.setAutoCommit(false);
+            try {
+                int affectedRows = updateNotificationStatus(connection, new ArrayList<>(notificationIds),
+                        notificationStatus);
+                connection.commit();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Updated %d notifications with status '%s'", affectedRows,
+                            notificationStatus.replaceAll("[\r\n]", "")));
+                }
+                return affectedRows;
+            } catch (SQLException e) {
+                connection.rollback();
+                log.error(EventNotificationConstants.DB_ERROR_UPDATING_NOTIFICATIONS, e);
+                throw new OBEventNotificationException(EventNotificationConstants.DB_ERROR_UPDATING_NOTIFICATIONS, e);
+            }
+        } catch (SQLException e) {
+            log.debug("SQL exception when updating notification status", e);
+            throw new OBEventNotificationException("Database error while closing the connection to the" +
+                    " the database.");
+        } finally {
+            log.debug(EventNotificationConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    @Override
+    public Map<String, NotificationError> storeErrorNotifications(Map<String, NotificationError> notificationErrors)
+            throws OBEventNotificationException {
+
+        Map<String, NotificationError> response = new HashMap<>();
+        if (notificationErrors.isEmpty()) {
+            return response;
+        }
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            connection.setAutoCommit(false);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Database connection is established for storing %d error notifications " +
+                        "in the database. ", notificationErrors.size()));
+            }
+            try {
+                List<String> openNotificationIds = getNotificationIdsByStatus(connection,
+                        new ArrayList<>(notificationErrors.keySet()), EventNotificationConstants.OPEN);
+                if (!openNotificationIds.isEmpty()) {
+                    updateNotificationStatus(connection, openNotificationIds, EventNotificationConstants.ERROR);
+
+                    final String storeErrorNotificationQuery = sqlStatements.storeErrorNotificationQuery();
+                    try (PreparedStatement storeErrorNotificationPreparedStatement =
+                                 connection.prepareStatement(storeErrorNotificationQuery)) {
+                        for (String notificationId : openNotificationIds) {
+                            NotificationError notificationError = notificationErrors.get(notificationId);
+                            storeErrorNotificationPreparedStatement.setString(1, notificationId);
+                            storeErrorNotificationPreparedStatement.setString(2, notificationError.getErrorCode());
+                            storeErrorNotificationPreparedStatement.setString(3,
+                                    notificationError.getErrorDescription());
+                            storeErrorNotificationPreparedStatement.addBatch();
+                            response.put(notificationId, notificationError);
+                        }
+                        storeErrorNotificationPreparedStatement.executeBatch();
+                    }
+                }
+                connection.commit();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Successfully stored %d error notifications.", response.size()));
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new OBEventNotificationException(EventNotificationConstants.
+                        DB_ERROR_STORING_ERROR_NOTIFICATION, e);
+            }
+        } catch (SQLException e) {
+            throw new OBEventNotificationException(EventNotificationConstants.DB_ERROR_STORING_ERROR_NOTIFICATION, e);
+        } finally {
+            log.debug(EventNotificationConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+
+        return response;
+    }
+
+    @Override
+    public Map<NotificationDTO, List<NotificationEvent>> getNotificationsWithEventsByClientIdAndStatus(
+            String clientId, String status, int max) throws OBEventNotificationException {
+
+        Map<NotificationDTO, List<NotificationEvent>> notifications = new LinkedHashMap<>();
+        Map<String, List<NotificationEvent>> eventsByNotificationId = new HashMap<>();
+        Connection connection = DatabaseUtil.getDBConnection();
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format(EventNotificationConstants.DB_CONN_ESTABLISHED,
+                        clientId.replaceAll("[\r\n]", "")));
+            }
+
+            final String sql = sqlStatements.getMaxNotificationsWithEventsQuery();
+            try (PreparedStatement getNotificationsPreparedStatement = connection.prepareStatement(sql)) {
+                getNotificationsPreparedStatement.setString(1, clientId);
+                getNotificationsPreparedStatement.setString(2, status);
+                getNotificationsPreparedStatement.setInt(3, max);
+
+                try (ResultSet notificationResultSet = getNotificationsPreparedStatement.executeQuery()) {
+                    //each row holds a notification joined with one of its events
+                    while (notificationResultSet.next()) {
+                        String notificationId = notificationResultSet.getString(
+                                EventNotificationConstants.NOTIFICATION_ID);
+                        List<NotificationEvent> eventList = eventsByNotificationId.get(notificationId);
+                        if (eventList == null) {
+                            NotificationDTO notification = new NotificationDTO();
+                            notification.setNotificationId(notificationId);
+                            notification.setClientId(notificationResultSet.getString
+                                    (EventNotificationConstants.CLIENT_ID));
+                            notification.setResourceId(notificationResultSet.getString
+                                    (EventNotificationConstants.RESOURCE_ID));
+                            notification.setStatus(notificationResultSet.getString
+                                    (EventNotificationConstants.STATUS));
+                            notification.setUpdatedTimeStamp((notificationResultSet.getTimestamp(
+                                    (EventNotificationConstants.UPDATED_TIMESTAMP)).getTime()));
+
+                            eventList = new ArrayList<>();
+                            eventsByNotificationId.put(notificationId, eventList);
+                            notifications.put(notification, eventList);
+                        }
+
+                        String eventType = notificationResultSet.getString(EventNotificationConstants.EVENT_TYPE);
+                        if (eventType != null) {
+                            NotificationEvent event = new NotificationEvent();
+                            event.setNotificationId(notificationId);
+                            event.setEventType(eventType);
+                            event.setEventInformation(EventNotificationServiceUtil.getEventJSONFromString(
+                                    notificationResultSet.getString(EventNotificationConstants.EVENT_INFO)));
+                            eventList.add(event);
+                        }
+                    }
+
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format(notifications.isEmpty() ?
+                                EventNotificationConstants.NO_NOTIFICATIONS_FOUND_CLIENT :
+                                EventNotificationConstants.RETRIEVED_NOTIFICATION_CLIENT,
+                                clientId.replaceAll("[\r\n]", "")));
+                    }
+                } catch (ParseException e) {
+                    log.error(String.format(EventNotificationConstants.DB_ERROR_NOTIFICATION_RETRIEVE,
+                            clientId.replaceAll("[\r\n]", "")), e);
+                    throw new OBEventNotificationException(String.format(
+                            EventNotificationConstants.DB_ERROR_NOTIFICATION_RETRIEVE, clientId), e);
+                }
+            } catch (SQLException e) {
+                throw new OBEventNotificationException(String.format
+                        (EventNotificationConstants.DB_ERROR_NOTIFICATION_RETRIEVE, clientId), e);
+            }
+        } finally {
+            log.debug(EventNotificationConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+
+        return notifications;
+    }
+
+    /**
+     * Update the status of the given notifications using the given connection.
+     * The IDs are split into chunks to stay within the bind parameter limits of the databases.
+     *
+     * @param connection       Database connection
+     * @param notificationIds  Notification IDs to update
+     * @param status           Notification status to update
+     * @return Number of updated notifications
+     * @throws SQLException  Exception when updating the notifications
+     */
+    protected int updateNotificationStatus(Connection connection, List<String> notificationIds, String status)
+            throws SQLException {
+
+        int affectedRows = 0;
+        Timestamp currentTimeStamp = new Timestamp(new Date().getTime());
+        for (int from = 0; from < notificationIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<String> idChunk = notificationIds.subList(from,
+                    Math.min(from + MAX_IDS_PER_QUERY, notificationIds.size()));
+            final String sql = sqlStatements.updateNotificationStatusQueryByIds(idChunk.size());
+            try (PreparedStatement updateNotificationStatus = connection.prepareStatement(sql)) {
+                updateNotificationStatus.setString(1, status);
+                updateNotificationStatus.setTimestamp(2, currentTimeStamp);
+                for (int i = 0; i < idChunk.size(); i++) {
+                    updateNotificationStatus.setString(i + 3, idChunk.get(i));
+                }
+                affectedRows += updateNotificationStatus.executeUpdate();
+            }
+        }
+        return affectedRows;
+    }
+
+    /**
+     * Filter the given notifications by status using the given connection.
+     *
+     * @param connection       Database connection
+     * @param notificationIds  Notification IDs to filter
+     * @param status           Notification status
+     * @return IDs of the notifications in the given status
+     * @throws SQLException  Exception when retrieving the notifications
+     */
+    protected List<String> getNotificationIdsByStatus(Connection connection, List<String> notificationIds,
+                                                      String status) throws SQLException {
+
+        List<String> filteredNotificationIds = new ArrayList<>();
+        for (int from = 0; from < notificationIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<String> idChunk = notificationIds.subList(from,
+                    Math.min(from + MAX_IDS_PER_QUERY, notificationIds.size()));
+            final String sql = sqlStatements.getNotificationIdsByIdsAndStatusQuery(idChunk.size());
+            try (PreparedStatement getNotificationIds = connection.prepareStatement(sql)) {
+                getNotificationIds.setString(1, status);
+                for (int i = 0; i < idChunk.size(); i++) {
+                    getNotificationIds.setString(i + 2, idChunk.get(i));
+                }
+                try (ResultSet notificationResultSet = getNotificationIds.executeQuery()) {
+                    while (notificationResultSet.next()) {
+                        filteredNotificationIds.add(notificationResultSet.getString(
+                                EventNotificationConstants.NOTIFICATION_ID));
+                    }
+                }
+            }
+        }
+        return filteredNotificationIds;
+    }
 }
@@ -32,4 +32,15 @@ public class MSSQLNotificationPollingSqlStatements extends NotificationPollingSq
         return "SELECT * FROM OB_NOTIFICATION WHERE CLIENT_ID = ? AND STATUS = ? ORDER BY NOTIFICATION_ID " +
                 "OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
     }
+
+    @Override
+    public String getMaxNotificationsWithEventsQuery() {
+
+        return "SELECT N.NOTIFICATION_ID, N.CLIENT_ID, N.RESOURCE_ID, N.STATUS, N.UPDATED_TIMESTAMP, " +
+                "E.EVENT_TYPE, E.EVENT_INFO FROM (SELECT NOTIFICATION_ID, CLIENT_ID, RESOURCE_ID, STATUS, " +
+                "UPDATED_TIMESTAMP FROM OB_NOTIFICATION WHERE CLIENT_ID = ? AND STATUS = ? ORDER BY NOTIFICATION_ID " +
+                "OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY) N " +
+                "LEFT JOIN OB_NOTIFICATION_EVENT E ON N.NOTIFICATION_ID = E.NOTIFICATION_ID " +
+                "ORDER BY N.NOTIFICATION_ID, E.EVENT_ID";
+    }
 }
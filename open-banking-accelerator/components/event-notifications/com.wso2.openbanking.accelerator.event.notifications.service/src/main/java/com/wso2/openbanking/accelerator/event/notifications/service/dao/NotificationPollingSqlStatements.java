@@ -57,4 +57,34 @@ public class NotificationPollingSqlStatements {
 
         return "SELECT * FROM OB_NOTIFICATION WHERE STATUS = ?";
     }
+
+    public String updateNotificationStatusQueryByIds(int notificationCount) {
+
+        return "UPDATE OB_NOTIFICATION SET STATUS = ?, UPDATED_TIMESTAMP= ? WHERE NOTIFICATION_ID IN (" +
+                getPlaceholders(notificationCount) + ")";
+    }
+
+    public String getNotificationIdsByIdsAndStatusQuery(int notificationCount) {
+
+        return "SELECT NOTIFICATION_ID FROM OB_NOTIFICATION WHERE STATUS = ? AND NOTIFICATION_ID IN (" +
+                getPlaceholders(notificationCount) + ")";
+    }
+
+    public String getMaxNotificationsWithEventsQuery() {
+
+        return "SELECT N.NOTIFICATION_ID, N.CLIENT_ID, N.RESOURCE_ID, N.STATUS, N.UPDATED_TIMESTAMP, " +
+                "E.EVENT_TYPE, E.EVENT_INFO FROM (SELECT NOTIFICATION_ID, CLIENT_ID, RESOURCE_ID, STATUS, " +
+                "UPDATED_TIMESTAMP FROM OB_NOTIFICATION WHERE CLIENT_ID = ? AND STATUS = ? LIMIT ?) N " +
+                "LEFT JOIN OB_NOTIFICATION_EVENT E ON N.NOTIFICATION_ID = E.NOTIFICATION_ID " +
+                "ORDER BY N.NOTIFICATION_ID, E.EVENT_ID";
+    }
+
+    protected static String getPlaceholders(int count) {
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ",?");
+        }
+        return placeholders.toString();
+    }
 }
@@ -31,8 +31,8 @@ import java.util.Map;
  */
 public class EventPollingDTO {
 
-    //Set to true by default as WSO2 Open Banking don't support long polling
-    private final Boolean returnImmediately = true;
+    //Set to true by default, long polling is only used when requested and enabled in the configuration
+    private Boolean returnImmediately = true;
     private String clientId = null;
     private int maxEvents = 0;
     private List<String> ack = new ArrayList<>();
@@ -50,6 +50,10 @@ public class EventPollingDTO {
         return returnImmediately;
     }
 
+    public void setReturnImmediately(Boolean returnImmediately) {
+        this.returnImmediately = returnImmediately;
+    }
+
     public int getMaxEvents() {
         return maxEvents;
     }
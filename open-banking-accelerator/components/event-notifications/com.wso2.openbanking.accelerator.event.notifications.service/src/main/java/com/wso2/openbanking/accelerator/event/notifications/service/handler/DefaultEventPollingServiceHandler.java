@@ -34,6 +34,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This is the service handler for event polling.
@@ -57,36 +58,47 @@ public class DefaultEventPollingServiceHandler implements EventPollingServiceHan
     public EventPollingResponse pollEvents(JSONObject eventPollingRequest) {
 
         EventPollingDTO eventPollingDTO = mapPollingRequest(eventPollingRequest);
-        EventPollingResponse eventPollingResponse = new EventPollingResponse();
 
         //Validate clientID of the polling request
-        try {
-            EventNotificationServiceUtil.validateClientId(eventPollingDTO.getClientId());
-        } catch (OBEventNotificationException e) {
-            log.error("Invalid client ID", e);
-            eventPollingResponse.setStatus(EventNotificationConstants.BAD_REQUEST);
-            eventPollingResponse.setErrorResponse(EventNotificationServiceUtil.getErrorDTO(
-                            EventNotificationConstants.INVALID_REQUEST, String.format("A client was not found" +
-                            " for the client id : '%s' in the database.. ", eventPollingDTO.getClientId())));
-            return eventPollingResponse;
+        EventPollingResponse validationResponse = validateClientId(eventPollingDTO);
+        if (validationResponse != null) {
+            return validationResponse;
         }
 
         //Poll events
         try {
-            AggregatedPollingResponse aggregatedPollingResponse = eventPollingService.pollEvents(eventPollingDTO);
-            eventPollingResponse.setStatus(aggregatedPollingResponse.getStatus());
-            eventPollingResponse.setResponseBody(getPollingResponseJSON(aggregatedPollingResponse));
-            return eventPollingResponse;
+            return getEventPollingResponse(eventPollingService.pollEvents(eventPollingDTO));
         } catch (OBEventNotificationException e) {
-            log.error("OB Event Notification error" , e);
-            eventPollingResponse.setStatus(EventNotificationConstants.BAD_REQUEST);
-            eventPollingResponse.setErrorResponse(EventNotificationServiceUtil.getErrorDTO(
-                    EventNotificationConstants.INVALID_REQUEST, e.getMessage()));
-            return eventPollingResponse;
+            return getPollingErrorResponse(e);
         }
 
     }
 
+    /**
+     * This method is used to Poll Events as per request params without blocking the calling thread.
+     * A request with returnImmediately set to false is held until new notifications arrive or the long polling
+     * timeout elapses, when long polling is enabled.
+     * @param eventPollingRequest JSON request for event polling
+     * @return  future completed with the EventPollingResponse
+     */
+    @Override
+    public CompletableFuture<EventPollingResponse> pollEventsAsync(JSONObject eventPollingRequest) {
+
+        EventPollingDTO eventPollingDTO = mapPollingRequest(eventPollingRequest);
+        EventPollingResponse validationResponse = validateClientId(eventPollingDTO);
+        if (validationResponse != null) {
+            return CompletableFuture.completedFuture(validationResponse);
+        }
+
+        try {
+            return eventPollingService.pollEventsAsync(eventPollingDTO)
+                    .thenApply(this::getEventPollingResponse)
+                    .exceptionally(e -> getPollingErrorResponse(e.getCause() != null ? e.getCause() : e));
+        } catch (OBEventNotificationException e) {
+            return CompletableFuture.completedFuture(getPollingErrorResponse(e));
+        }
+    }
+
     /**
      * This method will map the eventPollingRequest JSON to EventPollingDTO.
      * @param eventPollingRequest JSON request for event polling
@@ -125,6 +137,12 @@ public class DefaultEventPollingServiceHandler implements EventPollingServiceHan
             });
         }
 
+        //Set whether the request should be responded without waiting for new events
+        if (eventPollingRequest.containsKey(EventNotificationConstants.RETURN_IMMEDIATELY)) {
+            eventPollingDTO.setReturnImmediately(Boolean.parseBoolean(eventPollingRequest.
+                    get(EventNotificationConstants.RETURN_IMMEDIATELY).toString()));
+        }
+
         //Set maxEvents count to return
         if (eventPollingRequest.containsKey(EventNotificationConstants.MAX_EVENTS)) {
             eventPollingDTO.setMaxEvents(Integer.parseInt(eventPollingRequest.
@@ -157,4 +175,46 @@ public class DefaultEventPollingServiceHandler implements EventPollingServiceHan
         return responseJSON;
     }
 
+    /**
+     * Validate the client ID of the polling request.
+     * @param eventPollingDTO Event polling request DTO
+     * @return error response if the client ID is invalid, null otherwise
+     */
+    @Generated(message = "Private method tested when testing the invoked method")
+    private EventPollingResponse validateClientId(EventPollingDTO eventPollingDTO) {
+
+        try {
+            EventNotificationServiceUtil.validateClientId(eventPollingDTO.getClientId());
+            return null;
+        } catch (OBEventNotificationException e) {
+            log.error("Invalid client ID", e);
+            EventPollingResponse eventPollingResponse = new EventPollingResponse();
+            eventPollingResponse.setStatus(EventNotificationConstants.BAD_REQUEST);
+            eventPollingResponse.setErrorResponse(EventNotificationServiceUtil.getErrorDTO(
+                            EventNotificationConstants.INVALID_REQUEST, String.format("A client was not found" +
+                            " for the client id : '%s' in the database.. ", eventPollingDTO.getClientId())));
+            return eventPollingResponse;
+        }
+    }
+
+    @Generated(message = "Private method tested when testing the invoked method")
+    private EventPollingResponse getEventPollingResponse(AggregatedPollingResponse aggregatedPollingResponse) {
+
+        EventPollingResponse eventPollingResponse = new EventPollingResponse();
+        eventPollingResponse.setStatus(aggregatedPollingResponse.getStatus());
+        eventPollingResponse.setResponseBody(getPollingResponseJSON(aggregatedPollingResponse));
+        return eventPollingResponse;
+    }
+
+    @Generated(message = "Private method tested when testing the invoked method")
+    private EventPollingResponse getPollingErrorResponse(Throwable e) {
+
+        log.error("OB Event Notification error" , e);
+        EventPollingResponse eventPollingResponse = new EventPollingResponse();
+        eventPollingResponse.setStatus(EventNotificationConstants.BAD_REQUEST);
+        eventPollingResponse.setErrorResponse(EventNotificationServiceUtil.getErrorDTO(
+                EventNotificationConstants.INVALID_REQUEST, e.getMessage()));
+        return eventPollingResponse;
+    }
+
 }
@@ -22,6 +22,8 @@ import com.wso2.openbanking.accelerator.event.notifications.service.dto.EventPol
 import com.wso2.openbanking.accelerator.event.notifications.service.response.EventPollingResponse;
 import net.minidev.json.JSONObject;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * EventPolling Service handler is used to validate and map the polling request to the DTO before calling the
  * polling service. For custom validations this class can be extended and the extended class
@@ -37,6 +39,17 @@ public interface EventPollingServiceHandler {
      */
     EventPollingResponse pollEvents(JSONObject eventPollingRequest);
 
+    /**
+     * This method polls events without blocking the calling thread, so that long polling requests can be held
+     * until new notifications arrive. Handlers which do not support long polling respond immediately.
+     * @param eventPollingRequest  JSON request for event polling
+     * @return future completed with the EventPollingResponse to the polling endpoint.
+     */
+    default CompletableFuture<EventPollingResponse> pollEventsAsync(JSONObject eventPollingRequest) {
+
+        return CompletableFuture.completedFuture(pollEvents(eventPollingRequest));
+    }
+
     /**
      * This method is used to map the eventPollingRequest to EventPollingDTO.
      * @param eventPollingRequest JSON request for event polling
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.wso2.openbanking.accelerator.event.notifications.service.realtime.service;
+
+/**
+ * Circuit breaker of a callback host, shared by all realtime event notifications sent to that host.
+ * <p>
+ * The breaker opens after the configured number of consecutive failed requests. While it is open no requests are
+ * sent to the host. Once the open duration has elapsed a single trial request is allowed (half-open state); the
+ * breaker closes if the trial request succeeds and opens again otherwise.
+ */
+public class RealtimeEventNotificationCircuitBreaker {
+
+    /**
+     * Circuit breaker states.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedTime;
+
+    RealtimeEventNotificationCircuitBreaker(int failureThreshold, long openDurationMillis) {
+
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * Check whether a request can be sent to the host. Moves an open breaker to half-open state and allows the
+     * trial request once the open duration has elapsed.
+     *
+     * @param currentTime  current time in milliseconds
+     * @return true if the request can be sent
+     */
+    synchronized boolean allowRequest(long currentTime) {
+
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (currentTime - openedTime >= openDurationMillis) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // Only the trial request is sent while the breaker is half-open.
+                return false;
+        }
+    }
+
+    /**
+     * Record a successful request.
+     *
+     * @return true if the breaker was closed by this request
+     */
+    synchronized boolean recordSuccess() {
+
+        consecutiveFailures = 0;
+        if (state == State.CLOSED) {
+            return false;
+        }
+        state = State.CLOSED;
+        return true;
+    }
+
+    /**
+     * Record a failed request.
+     *
+     * @param currentTime  current time in milliseconds
+     * @return true if the breaker was opened by this request
+     */
+    synchronized boolean recordFailure(long currentTime) {
+
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedTime = currentTime;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the current state of the breaker.
+     *
+     * @return circuit breaker state
+     */
+    public synchronized State getState() {
+
+        return state;
+    }
+
+    /**
+     * Get the number of consecutive failed requests.
+     *
+     * @return consecutive failure count
+     */
+    public synchronized int getConsecutiveFailures() {
+
+        return consecutiveFailures;
+    }
+
+    /**
+     * Get the time the breaker was last opened.
+     *
+     * @return opened time in milliseconds, 0 if the breaker was never opened
+     */
+    public synchronized long getOpenedTime() {
+
+        return openedTime;
+    }
+
+    long getOpenDurationMillis() {
+
+        return openDurationMillis;
+    }
+}
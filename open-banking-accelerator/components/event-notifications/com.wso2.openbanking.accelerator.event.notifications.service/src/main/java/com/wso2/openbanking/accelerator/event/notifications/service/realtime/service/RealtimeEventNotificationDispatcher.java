@@ -0,0 +1,629 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.realtime.service;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
+import com.wso2.openbanking.accelerator.event.notifications.service.internal.EventNotificationDataHolder;
+import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
+import com.wso2.openbanking.accelerator.event.notifications.service.realtime.model.RealtimeEventNotification;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived dispatcher which sends realtime event notifications to the TPP provided callback URLs.
+ * <p>
+ * A single thread blocks on the realtime event notification queue and hands each notification to a fixed pool of
+ * sender threads. The number of concurrent requests to a callback host is limited; notifications exceeding the limit
+ * wait in a per-host queue without holding a sender thread. Failed requests are retried according to the configured
+ * backoff function by scheduling them again after the backoff time instead of sleeping. A notification is marked as
+ * erroneous once the maximum retry count or the circuit breaker open timeout is exceeded.
+ * <p>
+ * Each callback host also has a {@link RealtimeEventNotificationCircuitBreaker} shared by all of its notifications.
+ * While the breaker of a host is open, notifications to that host are short-circuited: they are left in OPEN state
+ * without spending their retry budget and are dispatched again once a trial request to the host succeeds. The number
+ * of short-circuited notifications held per host is limited; notifications beyond the limit are only left in OPEN
+ * state in the database.
+ * Notifications which are not delivered when the dispatcher stops remain in OPEN state and are loaded again by
+ * {@link RealtimeEventNotificationLoaderService} on the next start.
+ */
+public class RealtimeEventNotificationDispatcher {
+
+    private static final Log log = LogFactory.getLog(RealtimeEventNotificationDispatcher.class);
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+    private static volatile RealtimeEventNotificationDispatcher instance;
+
+    private final BlockingQueue<RealtimeEventNotification> queue;
+    private final int maxConcurrentRequestsPerHost;
+    private final int maxRetries;
+    private final long initialBackoffTimeMillis;
+    private final String backoffFunction;
+    private final long circuitBreakerOpenTimeoutMillis;
+    private final int hostFailureThreshold;
+    private final long hostOpenDurationMillis;
+    private final int maxShortCircuitedPerHost;
+    private final Map<String, HostLane> hostLanes = new ConcurrentHashMap<>();
+    private final RealtimeEventNotificationMetrics metrics = new RealtimeEventNotificationMetrics();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final ExecutorService senderPool;
+    private final ScheduledExecutorService retryScheduler;
+    private final Thread consumerThread;
+
+    RealtimeEventNotificationDispatcher(BlockingQueue<RealtimeEventNotification> queue, int threadPoolSize,
+                                        int maxConcurrentRequestsPerHost, int maxRetries,
+                                        long initialBackoffTimeMillis, String backoffFunction,
+                                        long circuitBreakerOpenTimeoutMillis, int hostFailureThreshold,
+                                        long hostOpenDurationMillis, int maxShortCircuitedPerHost) {
+
+        this.queue = queue;
+        this.maxConcurrentRequestsPerHost = Math.max(maxConcurrentRequestsPerHost, 1);
+        this.maxRetries = maxRetries;
+        this.initialBackoffTimeMillis = initialBackoffTimeMillis;
+        this.backoffFunction = backoffFunction;
+        this.circuitBreakerOpenTimeoutMillis = circuitBreakerOpenTimeoutMillis;
+        this.hostFailureThreshold = hostFailureThreshold;
+        this.hostOpenDurationMillis = hostOpenDurationMillis;
+        this.maxShortCircuitedPerHost = maxShortCircuitedPerHost;
+        this.senderPool = Executors.newFixedThreadPool(Math.max(threadPoolSize, 2),
+                daemonThreadFactory("OB-Realtime-Event-Notification-Sender"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                daemonThreadFactory("OB-Realtime-Event-Notification-Retry"));
+        this.consumerThread = daemonThreadFactory("OB-Realtime-Event-Notification-Dispatcher")
+                .newThread(this::consumeNotifications);
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return RealtimeEventNotificationDispatcher object
+     */
+    public static RealtimeEventNotificationDispatcher getInstance() {
+
+        if (instance == null) {
+            synchronized (RealtimeEventNotificationDispatcher.class) {
+                if (instance == null) {
+                    OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
+                    instance = new RealtimeEventNotificationDispatcher(
+                            EventNotificationDataHolder.getInstance().getRealtimeEventNotificationQueue(),
+                            configParser.getEventNotificationThreadpoolSize(),
+                            configParser.getRealtimeEventNotificationMaxConcurrentRequestsPerHost(),
+                            configParser.getRealtimeEventNotificationMaxRetries(),
+                            TimeUnit.SECONDS.toMillis(
+                                    configParser.getRealtimeEventNotificationInitialBackoffTimeInSeconds()),
+                            configParser.getRealtimeEventNotificationBackoffFunction(),
+                            TimeUnit.SECONDS.toMillis(
+                                    configParser.getRealtimeEventNotificationCircuitBreakerOpenTimeoutInSeconds()),
+                            configParser.getRealtimeEventNotificationHostCircuitBreakerFailureThreshold(),
+                            TimeUnit.SECONDS.toMillis(configParser
+                                    .getRealtimeEventNotificationHostCircuitBreakerOpenDurationInSeconds()),
+                            configParser.getRealtimeEventNotificationHostCircuitBreakerMaxShortCircuited());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Start consuming the realtime event notification queue. Calling this method more than once has no effect.
+     */
+    public void start() {
+
+        if (started.compareAndSet(false, true)) {
+            consumerThread.start();
+            log.info("Realtime event notification dispatcher started");
+        }
+    }
+
+    /**
+     * Stop the dispatcher if it was created.
+     */
+    public static void shutdown() {
+
+        synchronized (RealtimeEventNotificationDispatcher.class) {
+            if (instance != null) {
+                instance.stop();
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Get the delivery metrics.
+     *
+     * @return delivery metrics
+     */
+    public RealtimeEventNotificationMetrics getMetrics() {
+
+        return metrics;
+    }
+
+    /**
+     * Get the number of requests currently sent to the given callback host.
+     *
+     * @param host  callback host, including the port if present in the callback URL
+     * @return in-flight request count
+     */
+    public int getInFlightCount(String host) {
+
+        HostLane hostLane = hostLanes.get(host);
+        if (hostLane == null) {
+            return 0;
+        }
+        synchronized (hostLane) {
+            return hostLane.inFlight;
+        }
+    }
+
+    /**
+     * Get the number of notifications waiting for a free slot of the given callback host.
+     *
+     * @param host  callback host, including the port if present in the callback URL
+     * @return pending notification count
+     */
+    public int getPendingCount(String host) {
+
+        HostLane hostLane = hostLanes.get(host);
+        if (hostLane == null) {
+            return 0;
+        }
+        synchronized (hostLane) {
+            return hostLane.pending.size();
+        }
+    }
+
+    /**
+     * Get the circuit breaker states of the callback hosts.
+     *
+     * @return map of callback host to circuit breaker state
+     */
+    public Map<String, RealtimeEventNotificationCircuitBreaker.State> getCircuitBreakerStates() {
+
+        Map<String, RealtimeEventNotificationCircuitBreaker.State> states = new HashMap<>();
+        for (Map.Entry<String, HostLane> entry : hostLanes.entrySet()) {
+            states.put(entry.getKey(), entry.getValue().circuitBreaker.getState());
+        }
+        return states;
+    }
+
+    /**
+     * Get the circuit breaker of the given callback host.
+     *
+     * @param host  callback host, including the port if present in the callback URL
+     * @return circuit breaker, or null if no notification was sent to the host
+     */
+    public RealtimeEventNotificationCircuitBreaker getCircuitBreaker(String host) {
+
+        HostLane hostLane = hostLanes.get(host);
+        return hostLane == null ? null : hostLane.circuitBreaker;
+    }
+
+    /**
+     * Get the number of notifications short-circuited while the circuit breaker of the given callback host is open.
+     *
+     * @param host  callback host, including the port if present in the callback URL
+     * @return short-circuited notification count
+     */
+    public int getShortCircuitedCount(String host) {
+
+        HostLane hostLane = hostLanes.get(host);
+        if (hostLane == null) {
+            return 0;
+        }
+        synchronized (hostLane) {
+            return hostLane.shortCircuited.size();
+        }
+    }
+
+    void stop() {
+
+        consumerThread.interrupt();
+        retryScheduler.shutdownNow();
+        senderPool.shutdown();
+        try {
+            // Bounded so that a callback host which does not respond cannot hold up the shutdown.
+            if (!senderPool.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Realtime event notification senders did not complete within " + STOP_TIMEOUT_SECONDS
+                        + " seconds, hence interrupting them");
+                senderPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senderPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Dispatch a notification to its callback URL.
+     *
+     * @param notificationId  notification ID
+     * @param callbackUrl     callback URL
+     * @param payload         notification payload
+     */
+    void dispatch(String notificationId, String callbackUrl, String payload) {
+
+        submit(new Delivery(notificationId, callbackUrl, payload, getHost(callbackUrl), System.currentTimeMillis()));
+    }
+
+    /**
+     * Send the notification once.
+     *
+     * @param delivery  notification delivery
+     * @return true if the callback accepted the notification
+     */
+    boolean send(Delivery delivery) {
+
+        if (delivery.sender == null) {
+            delivery.sender = new RealtimeEventNotificationSenderService(delivery.callbackUrl, delivery.payload,
+                    delivery.notificationId);
+        }
+        return delivery.sender.sendNotification();
+    }
+
+    /**
+     * Update the status of a notification once its delivery is completed.
+     *
+     * @param notificationId      notification ID
+     * @param notificationStatus  notification status
+     */
+    void updateNotificationStatus(String notificationId, String notificationStatus) {
+
+        try {
+            EventPollingStoreInitializer.getAggregatedPollingDAO().updateNotificationStatusById(notificationId,
+                    notificationStatus);
+        } catch (OBEventNotificationException e) {
+            log.error("Failed to update the status of the Real-time event notification with notificationId: "
+                    + notificationId, e);
+        }
+    }
+
+    private void consumeNotifications() {
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                RealtimeEventNotification notification = queue.take();
+                dispatch(notification.getNotificationId(), notification.getCallbackUrl(),
+                        notification.getJsonPayload());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Error while dispatching a notification from the event notification queue", e);
+            }
+        }
+        log.debug("Realtime event notification dispatcher stopped");
+    }
+
+    private void submit(Delivery delivery) {
+
+        HostLane hostLane = hostLanes.computeIfAbsent(delivery.host,
+                host -> new HostLane(new RealtimeEventNotificationCircuitBreaker(hostFailureThreshold,
+                        hostOpenDurationMillis)));
+        synchronized (hostLane) {
+            if (hostLane.inFlight >= maxConcurrentRequestsPerHost) {
+                hostLane.pending.add(delivery);
+                return;
+            }
+            hostLane.inFlight++;
+        }
+        execute(delivery, hostLane);
+    }
+
+    private void execute(Delivery delivery, HostLane hostLane) {
+
+        try {
+            senderPool.execute(() -> attempt(delivery, hostLane));
+        } catch (RejectedExecutionException e) {
+            log.debug("Realtime event notification dispatcher is stopped, leaving the notification in OPEN state");
+            release(hostLane);
+        }
+    }
+
+    private void attempt(Delivery delivery, HostLane hostLane) {
+
+        RealtimeEventNotificationCircuitBreaker circuitBreaker = hostLane.circuitBreaker;
+        if (!circuitBreaker.allowRequest(System.currentTimeMillis())) {
+            shortCircuit(delivery, hostLane);
+            release(hostLane);
+            return;
+        }
+        long retryDelay = -1;
+        boolean circuitClosed = false;
+        try {
+            if (sendAttempt(delivery)) {
+                circuitClosed = circuitBreaker.recordSuccess();
+                metrics.recordDelivery(System.currentTimeMillis() - delivery.startTime);
+                updateNotificationStatus(delivery.notificationId, EventNotificationConstants.ACK);
+            } else {
+                recordHostFailure(delivery.host, hostLane);
+                retryDelay = getRetryDelay(delivery);
+                if (retryDelay < 0) {
+                    // The maximum retry count or the circuit breaker open timeout is exceeded.
+                    metrics.recordFailure();
+                    updateNotificationStatus(delivery.notificationId, EventNotificationConstants.ERROR);
+                }
+            }
+        } finally {
+            // The host slot is released before waiting for the retry so that other notifications can be sent.
+            release(hostLane);
+        }
+        if (circuitClosed) {
+            log.info("Circuit breaker closed for the realtime event notification callback host: " + delivery.host);
+            resumeShortCircuited(hostLane);
+        }
+        if (retryDelay >= 0) {
+            scheduleRetry(delivery, retryDelay);
+        }
+    }
+
+    /**
+     * Send the notification, treating an unexpected error like a failed send so that it is retried.
+     */
+    private boolean sendAttempt(Delivery delivery) {
+
+        delivery.nextAttempt();
+        metrics.recordAttempt();
+        try {
+            return send(delivery);
+        } catch (RuntimeException e) {
+            log.error("Error while sending the Real-time event notification with notificationId: "
+                    + delivery.notificationId, e);
+            return false;
+        }
+    }
+
+    private void recordHostFailure(String host, HostLane hostLane) {
+
+        if (hostLane.circuitBreaker.recordFailure(System.currentTimeMillis())) {
+            log.warn("Circuit breaker opened for the realtime event notification callback host: " + host);
+            metrics.recordCircuitBreakerOpen();
+            scheduleTrialRequest(hostLane);
+        }
+    }
+
+    /**
+     * Leave the notification in OPEN state until the circuit breaker of its callback host is closed.
+     * Once the host holds the maximum number of short-circuited notifications, the notification is not held for
+     * resending and is loaded again from the database on the next start.
+     */
+    private void shortCircuit(Delivery delivery, HostLane hostLane) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Circuit breaker is open for the callback host of the notificationId: "
+                    + delivery.notificationId + ", leaving the notification in OPEN state");
+        }
+        metrics.recordShortCircuit();
+        boolean firstDrop = false;
+        synchronized (hostLane) {
+            if (hostLane.shortCircuited.size() < maxShortCircuitedPerHost) {
+                hostLane.shortCircuited.add(delivery);
+                return;
+            }
+            if (!hostLane.shortCircuitedLimitReached) {
+                hostLane.shortCircuitedLimitReached = true;
+                firstDrop = true;
+            }
+        }
+        metrics.recordShortCircuitDrop();
+        if (firstDrop) {
+            log.warn("Maximum number of short-circuited notifications reached for the realtime event notification "
+                    + "callback host: " + delivery.host + ", further notifications are left in OPEN state until "
+                    + "they are loaded again");
+        }
+    }
+
+    /**
+     * Send one short-circuited notification as the trial request once the open duration has elapsed.
+     * If there is none, the next notification to the host is sent as the trial request.
+     */
+    private void scheduleTrialRequest(HostLane hostLane) {
+
+        try {
+            retryScheduler.schedule(() -> {
+                Delivery trial;
+                synchronized (hostLane) {
+                    trial = hostLane.shortCircuited.poll();
+                }
+                if (trial != null) {
+                    submit(restart(trial));
+                }
+            }, hostLane.circuitBreaker.getOpenDurationMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Realtime event notification dispatcher is stopped, leaving the notification in OPEN state");
+        }
+    }
+
+    private void resumeShortCircuited(HostLane hostLane) {
+
+        List<Delivery> deliveries;
+        synchronized (hostLane) {
+            deliveries = new ArrayList<>(hostLane.shortCircuited);
+            hostLane.shortCircuited.clear();
+            hostLane.shortCircuitedLimitReached = false;
+        }
+        for (Delivery delivery : deliveries) {
+            submit(restart(delivery));
+        }
+    }
+
+    /**
+     * Short-circuited notifications start with a fresh retry budget once the callback host is reachable again.
+     */
+    private static Delivery restart(Delivery delivery) {
+
+        return new Delivery(delivery.notificationId, delivery.callbackUrl, delivery.payload, delivery.host,
+                System.currentTimeMillis());
+    }
+
+    private void scheduleRetry(Delivery delivery, long retryDelay) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("HTTP request Retry #" + delivery.attempts + " of notificationId: " + delivery.notificationId
+                    + " - waiting for " + retryDelay + " ms before trying again");
+        }
+        metrics.recordRetry();
+        try {
+            retryScheduler.schedule(() -> submit(delivery), retryDelay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Realtime event notification dispatcher is stopped, leaving the notification in OPEN state");
+        }
+    }
+
+    private void release(HostLane hostLane) {
+
+        Delivery next;
+        synchronized (hostLane) {
+            next = hostLane.pending.poll();
+            if (next == null) {
+                hostLane.inFlight--;
+            }
+        }
+        if (next != null) {
+            execute(next, hostLane);
+        }
+    }
+
+    /**
+     * Get the time to wait before the next attempt of a failed delivery.
+     *
+     * @param delivery  failed delivery
+     * @return delay in milliseconds, or -1 if the delivery should not be retried
+     */
+    long getRetryDelay(Delivery delivery) {
+
+        if (delivery.attempts > maxRetries) {
+            return -1;
+        }
+        // Circuit breaker will be opened if the retrying time exceeds the configured circuit breaker timeout.
+        if (System.currentTimeMillis() - delivery.startTime > circuitBreakerOpenTimeoutMillis) {
+            if (log.isDebugEnabled()) {
+                log.debug("Circuit breaker open for the realtime event notification with notificationId: "
+                        + delivery.notificationId);
+            }
+            return -1;
+        }
+        int retryCount = delivery.attempts - 1;
+        switch (backoffFunction) {
+            case "CONSTANT":
+                // Retries will happen in constant time frames
+                return initialBackoffTimeMillis;
+            case "LINEAR":
+                // Backoff time will be doubled after each retry
+                return initialBackoffTimeMillis << Math.min(retryCount, 30);
+            case "EX":
+                // Backoff time will be increased exponentially, nextWaitingTime = startWaitingTime x e^(retryCount)
+                return (long) (initialBackoffTimeMillis * Math.exp(retryCount));
+            default:
+                log.error("Invalid backoff function for the realtime event notification retry policy: "
+                        + backoffFunction);
+                return -1;
+        }
+    }
+
+    private static String getHost(String callbackUrl) {
+
+        if (callbackUrl == null) {
+            return "";
+        }
+        try {
+            String authority = URI.create(callbackUrl).getAuthority();
+            return authority == null ? "" : authority;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Requests in progress, notifications waiting for a slot and the circuit breaker of a callback host.
+     */
+    private static final class HostLane {
+
+        private final Queue<Delivery> pending = new ArrayDeque<>();
+        private final Queue<Delivery> shortCircuited = new ArrayDeque<>();
+        private final RealtimeEventNotificationCircuitBreaker circuitBreaker;
+        private int inFlight;
+        private boolean shortCircuitedLimitReached;
+
+        private HostLane(RealtimeEventNotificationCircuitBreaker circuitBreaker) {
+
+            this.circuitBreaker = circuitBreaker;
+        }
+    }
+
+    /**
+     * Delivery state of a notification, kept across retries.
+     */
+    static final class Delivery {
+
+        private final String notificationId;
+        private final String callbackUrl;
+        private final String payload;
+        private final String host;
+        private final long startTime;
+        // Accessed by one thread at a time, hand-offs through the executors publish the updates.
+        private int attempts;
+        private RealtimeEventNotificationSenderService sender;
+
+        Delivery(String notificationId, String callbackUrl, String payload, String host, long startTime) {
+
+            this.notificationId = notificationId;
+            this.callbackUrl = callbackUrl;
+            this.payload = payload;
+            this.host = host;
+            this.startTime = startTime;
+        }
+
+        int nextAttempt() {
+
+            return ++attempts;
+        }
+
+        int getAttempts() {
+
+            return attempts;
+        }
+    }
+}
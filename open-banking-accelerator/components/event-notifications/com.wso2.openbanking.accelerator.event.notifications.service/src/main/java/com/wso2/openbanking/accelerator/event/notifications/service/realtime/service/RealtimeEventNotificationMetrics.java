@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.realtime.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivery metrics of the realtime event notification dispatcher.
+ */
+public class RealtimeEventNotificationMetrics {
+
+    private final LongAdder attemptCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder shortCircuitedCount = new LongAdder();
+    private final LongAdder shortCircuitDropCount = new LongAdder();
+    private final LongAdder circuitBreakerOpenCount = new LongAdder();
+    private final LongAdder totalDeliveryLatencyMillis = new LongAdder();
+    private final AtomicLong maxDeliveryLatencyMillis = new AtomicLong();
+
+    void recordAttempt() {
+
+        attemptCount.increment();
+    }
+
+    void recordRetry() {
+
+        retryCount.increment();
+    }
+
+    void recordDelivery(long latencyMillis) {
+
+        deliveredCount.increment();
+        totalDeliveryLatencyMillis.add(latencyMillis);
+        maxDeliveryLatencyMillis.accumulateAndGet(latencyMillis, Math::max);
+    }
+
+    void recordFailure() {
+
+        failedCount.increment();
+    }
+
+    void recordShortCircuit() {
+
+        shortCircuitedCount.increment();
+    }
+
+    void recordShortCircuitDrop() {
+
+        shortCircuitDropCount.increment();
+    }
+
+    void recordCircuitBreakerOpen() {
+
+        circuitBreakerOpenCount.increment();
+    }
+
+    /**
+     * Get the number of HTTP requests sent to callback URLs, including retries.
+     *
+     * @return attempt count
+     */
+    public long getAttemptCount() {
+
+        return attemptCount.sum();
+    }
+
+    /**
+     * Get the number of scheduled retries.
+     *
+     * @return retry count
+     */
+    public long getRetryCount() {
+
+        return retryCount.sum();
+    }
+
+    /**
+     * Get the number of notifications accepted by the callback URLs.
+     *
+     * @return delivered notification count
+     */
+    public long getDeliveredCount() {
+
+        return deliveredCount.sum();
+    }
+
+    /**
+     * Get the number of notifications marked as erroneous after retries were exhausted.
+     *
+     * @return failed notification count
+     */
+    public long getFailedCount() {
+
+        return failedCount.sum();
+    }
+
+    /**
+     * Get the number of times a notification was not sent because the circuit breaker of its callback host was open.
+     *
+     * @return short-circuited count
+     */
+    public long getShortCircuitedCount() {
+
+        return shortCircuitedCount.sum();
+    }
+
+    /**
+     * Get the number of short-circuited notifications which were not held for resending because the maximum number
+     * of short-circuited notifications of the callback host was reached.
+     *
+     * @return dropped short-circuited notification count
+     */
+    public long getShortCircuitDropCount() {
+
+        return shortCircuitDropCount.sum();
+    }
+
+    /**
+     * Get the number of times a callback host circuit breaker was opened.
+     *
+     * @return circuit breaker open count
+     */
+    public long getCircuitBreakerOpenCount() {
+
+        return circuitBreakerOpenCount.sum();
+    }
+
+    /**
+     * Get the average time from the first delivery attempt until the notification was accepted.
+     *
+     * @return average delivery latency in milliseconds
+     */
+    public long getAverageDeliveryLatencyMillis() {
+
+        long delivered = deliveredCount.sum();
+        return delivered == 0 ? 0 : totalDeliveryLatencyMillis.sum() / delivered;
+    }
+
+    /**
+     * Get the maximum time from the first delivery attempt until the notification was accepted.
+     *
+     * @return maximum delivery latency in milliseconds
+     */
+    public long getMaxDeliveryLatencyMillis() {
+
+        return maxDeliveryLatencyMillis.get();
+    }
+}
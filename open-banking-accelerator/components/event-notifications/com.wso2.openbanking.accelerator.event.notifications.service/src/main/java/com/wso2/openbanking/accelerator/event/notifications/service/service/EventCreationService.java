@@ -67,6 +67,9 @@ public class EventCreationService {
             eventResponse = eventPublisherDAO.persistEventNotification(connection, notification, eventsList);
             DatabaseUtil.commitTransaction(connection);
 
+            // Wake up long polling requests waiting for notifications of the client.
+            LongPollingRegistry.signalIfActive(notification.getClientId());
+
             // Check whether the real time event notification is enabled.
             if (OpenBankingConfigParser.getInstance().isRealtimeEventNotificationEnabled()) {
                 new Thread(new EventNotificationProducerService(notification, eventsList)).start();
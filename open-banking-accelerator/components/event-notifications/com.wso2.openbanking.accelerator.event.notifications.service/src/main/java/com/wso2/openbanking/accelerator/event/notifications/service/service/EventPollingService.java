@@ -27,7 +27,6 @@ import com.wso2.openbanking.accelerator.event.notifications.service.dto.Notifica
 import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
 import com.wso2.openbanking.accelerator.event.notifications.service.model.AggregatedPollingResponse;
 import com.wso2.openbanking.accelerator.event.notifications.service.model.Notification;
-import com.wso2.openbanking.accelerator.event.notifications.service.model.NotificationError;
 import com.wso2.openbanking.accelerator.event.notifications.service.model.NotificationEvent;
 import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
 import com.wso2.openbanking.accelerator.event.notifications.service.util.EventNotificationServiceUtil;
@@ -39,6 +38,9 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is the event polling service.
@@ -49,7 +51,8 @@ public class EventPollingService {
 
     /**
      * The pollEvents methods will return the Aggregated Polling Response for
-     * event polling request.
+     * event polling request. A long polling request blocks the calling thread until notifications are available,
+     * use {@link #pollEventsAsync(EventPollingDTO)} to avoid that.
      * @param eventPollingDTO Event polling request DTO
      * @return AggregatedPollingResponse Aggregated Polling Response
      * @throws OBEventNotificationException Exception when polling events
@@ -57,6 +60,85 @@ public class EventPollingService {
     public AggregatedPollingResponse pollEvents(EventPollingDTO eventPollingDTO)
             throws OBEventNotificationException {
 
+        if (eventPollingDTO.getReturnImmediately()) {
+            return shortPoll(eventPollingDTO);
+        }
+        try {
+            return pollEventsAsync(eventPollingDTO).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof OBEventNotificationException) {
+                throw (OBEventNotificationException) e.getCause();
+            }
+            throw new OBEventNotificationException("Error when retrieving OB event notifications.", e.getCause());
+        }
+    }
+
+    /**
+     * Poll events without blocking the calling thread.
+     * <p>
+     * When long polling is enabled and the request has returnImmediately set to false, a request which finds no
+     * notifications is parked until {@link EventCreationService} signals a new notification for the client or the
+     * configured timeout elapses. Acknowledgements and errors of the request are processed before parking.
+     * Otherwise the returned future is already completed with the short polling response.
+     *
+     * @param eventPollingDTO Event polling request DTO
+     * @return future completed with the Aggregated Polling Response
+     * @throws OBEventNotificationException Exception when polling events
+     */
+    public CompletableFuture<AggregatedPollingResponse> pollEventsAsync(EventPollingDTO eventPollingDTO)
+            throws OBEventNotificationException {
+
+        OpenBankingConfigParser configParser = OpenBankingConfigParser.getInstance();
+        if (eventPollingDTO.getReturnImmediately() || eventPollingDTO.getMaxEvents() == 0 ||
+                !configParser.isEventPollingLongPollingEnabled()) {
+            return CompletableFuture.completedFuture(shortPoll(eventPollingDTO));
+        }
+
+        LongPollingRegistry longPollingRegistry = LongPollingRegistry.getInstance();
+        // Register before reading, so that notifications created while reading wake up the request.
+        LongPollingRegistry.Waiter waiter = longPollingRegistry.register(eventPollingDTO.getClientId());
+        AggregatedPollingResponse aggregatedPollingResponse;
+        try {
+            aggregatedPollingResponse = shortPoll(eventPollingDTO);
+        } catch (OBEventNotificationException | RuntimeException e) {
+            longPollingRegistry.cancel(waiter);
+            throw e;
+        }
+        if (waiter == null || !aggregatedPollingResponse.getSets().isEmpty()) {
+            longPollingRegistry.cancel(waiter);
+            return CompletableFuture.completedFuture(aggregatedPollingResponse);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Holding the event polling request of the client with ID : '%s' until new " +
+                    "notifications arrive.", eventPollingDTO.getClientId().replaceAll("[\r\n]", "")));
+        }
+        long timeout = TimeUnit.SECONDS.toMillis(configParser.getEventPollingLongPollingTimeout());
+        return longPollingRegistry.await(waiter, timeout).thenApplyAsync(signalled -> {
+            if (!signalled) {
+                return aggregatedPollingResponse;
+            }
+            // Acknowledgements and errors are already processed, only retrieve the new notifications.
+            EventPollingDTO retrievalDTO = new EventPollingDTO();
+            retrievalDTO.setClientId(eventPollingDTO.getClientId());
+            retrievalDTO.setMaxEvents(eventPollingDTO.getMaxEvents());
+            try {
+                return shortPoll(retrievalDTO);
+            } catch (OBEventNotificationException e) {
+                throw new CompletionException(e);
+            }
+        }, longPollingRegistry.getWorker());
+    }
+
+    /**
+     * Process acknowledgements and errors of the request and return the available notifications.
+     * @param eventPollingDTO Event polling request DTO
+     * @return AggregatedPollingResponse Aggregated Polling Response
+     * @throws OBEventNotificationException Exception when polling events
+     */
+    private AggregatedPollingResponse shortPoll(EventPollingDTO eventPollingDTO)
+            throws OBEventNotificationException {
+
         AggregatedPollingResponse aggregatedPollingResponse = new AggregatedPollingResponse();
         AggregatedPollingDAO aggregatedPollingDAO = EventPollingStoreInitializer.getAggregatedPollingDAO();
 
@@ -65,89 +147,73 @@ public class EventPollingService {
 
         Map<String, String> sets = new HashMap<>();
 
-        //Short polling
-        if (eventPollingDTO.getReturnImmediately()) {
-
-            //Update notifications with ack
-            for (String notificationId : eventPollingDTO.getAck()) {
-                aggregatedPollingDAO.updateNotificationStatusById(notificationId, EventNotificationConstants.ACK);
-            }
-
-            //Update notifications with err
-            for (Map.Entry<String, NotificationError> entry: eventPollingDTO.getErrors().entrySet()) {
-                //Check if the notification is in OPEN status
-                if (aggregatedPollingDAO.getNotificationStatus(entry.getKey())) {
-                    aggregatedPollingDAO.updateNotificationStatusById(
-                            entry.getKey(), EventNotificationConstants.ERROR);
-                    aggregatedPollingDAO.storeErrorNotification(entry.getValue());
-                }
-            }
+        //Update notifications with ack
+        aggregatedPollingDAO.updateNotificationStatusByIds(eventPollingDTO.getAck(), EventNotificationConstants.ACK);
 
-            //Retrieve notifications
-            int maxEvents = eventPollingDTO.getMaxEvents();
+        //Update notifications with err, only the notifications in OPEN status are updated
+        aggregatedPollingDAO.storeErrorNotifications(eventPollingDTO.getErrors());
 
-            if (maxEvents == 0) {
-                aggregatedPollingResponse.setSets(sets);
-                aggregatedPollingResponse.setStatus(EventNotificationConstants.OK);
-            } else {
+        //Retrieve notifications
+        int maxEvents = eventPollingDTO.getMaxEvents();
+        int notificationLimit = 0;
 
-                int setsToReturn = OpenBankingConfigParser.getInstance().getNumberOfSetsToReturn();
+        if (maxEvents == 0) {
+            aggregatedPollingResponse.setSets(sets);
+            aggregatedPollingResponse.setStatus(EventNotificationConstants.OK);
+        } else {
 
-                List<NotificationDTO> notificationList;
+            int setsToReturn = OpenBankingConfigParser.getInstance().getNumberOfSetsToReturn();
+            notificationLimit = Math.min(maxEvents, setsToReturn);
 
-                if (maxEvents < setsToReturn) {
-                    notificationList = aggregatedPollingDAO.getNotificationsByClientIdAndStatus(
-                            eventPollingDTO.getClientId(), EventNotificationConstants.OPEN, maxEvents);
+            //Notifications are retrieved along with their events
+            Map<NotificationDTO, List<NotificationEvent>> notifications = aggregatedPollingDAO.
+                    getNotificationsWithEventsByClientIdAndStatus(eventPollingDTO.getClientId(),
+                            EventNotificationConstants.OPEN, notificationLimit);
 
-                } else {
-                    notificationList = aggregatedPollingDAO.getNotificationsByClientIdAndStatus(
-                            eventPollingDTO.getClientId(), EventNotificationConstants.OPEN, setsToReturn);
+            if (notifications.isEmpty()) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("No OB Event Notifications available for for the client " +
+                            "with ID : '%s'.", eventPollingDTO.getClientId().replaceAll("[\r\n]", "")));
+                }
+                aggregatedPollingResponse.setStatus(EventNotificationConstants.NOT_FOUND);
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("OB Event Notifications available for the client " +
+                            "with ID : '%s'.", eventPollingDTO.getClientId().replaceAll("[\r\n]", "")));
                 }
+                aggregatedPollingResponse.setStatus(EventNotificationConstants.OK);
 
-                if (notificationList.isEmpty()) {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("No OB Event Notifications available for for the client " +
-                                "with ID : '%s'.", eventPollingDTO.getClientId().replaceAll("[\r\n]", "")));
-                    }
-                    aggregatedPollingResponse.setStatus(EventNotificationConstants.NOT_FOUND);
-                } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug(String.format("OB Event Notifications available for the client " +
-                                "with ID : '%s'.", eventPollingDTO.getClientId().replaceAll("[\r\n]", "")));
+                for (Map.Entry<NotificationDTO, List<NotificationEvent>> notification : notifications.entrySet()) {
+
+                    NotificationDTO notificationDTO = notification.getKey();
+                    try {
+                        Notification responseNotification = eventNotificationGenerator.
+                                generateEventNotificationBody(notificationDTO, notification.getValue());
+                        sets.put(notificationDTO.getNotificationId(),
+                                eventNotificationGenerator.generateEventNotification(Notification.getJsonNode(
+                                        responseNotification)));
+                        log.info("Retrieved OB event notifications");
+                    } catch (OBEventNotificationException |
+                             IOException | JOSEException | IdentityOAuth2Exception e) {
+                        log.debug("Error when retrieving OB event notifications.", e);
+                        throw new OBEventNotificationException("Error when retrieving OB event notifications.", e);
                     }
-                    aggregatedPollingResponse.setStatus(EventNotificationConstants.OK);
-
-                    for (NotificationDTO notificationDTO : notificationList) {
-
-                        try {
-                            //Get events by notificationId
-                            List<NotificationEvent> notificationEvents = aggregatedPollingDAO.
-                                    getEventsByNotificationID(notificationDTO.getNotificationId());
-
-                            Notification responseNotification = eventNotificationGenerator.
-                                    generateEventNotificationBody(notificationDTO, notificationEvents);
-                            sets.put(notificationDTO.getNotificationId(),
-                                    eventNotificationGenerator.generateEventNotification(Notification.getJsonNode(
-                                            responseNotification)));
-                            log.info("Retrieved OB event notifications");
-                        } catch (OBEventNotificationException |
-                                 IOException | JOSEException | IdentityOAuth2Exception e) {
-                            log.debug("Error when retrieving OB event notifications.", e);
-                            throw new OBEventNotificationException("Error when retrieving OB event notifications.", e);
-                        }
-                    }
-                    aggregatedPollingResponse.setSets(sets);
                 }
+                aggregatedPollingResponse.setSets(sets);
             }
+        }
 
-            int count = aggregatedPollingDAO.getNotificationCountByClientIdAndStatus(eventPollingDTO.getClientId(),
+        int count;
+        if (maxEvents != 0 && aggregatedPollingResponse.getSets().size() < notificationLimit) {
+            //All the OPEN notifications of the client fit in the response
+            count = 0;
+        } else {
+            count = aggregatedPollingDAO.getNotificationCountByClientIdAndStatus(eventPollingDTO.getClientId(),
                     EventNotificationConstants.OPEN) - aggregatedPollingResponse.getSets().size();
-
-            aggregatedPollingResponse.setCount(count);
-
-            return aggregatedPollingResponse;
         }
 
-        return null;
+        aggregatedPollingResponse.setCount(count);
+
+        return aggregatedPollingResponse;
     }
 }
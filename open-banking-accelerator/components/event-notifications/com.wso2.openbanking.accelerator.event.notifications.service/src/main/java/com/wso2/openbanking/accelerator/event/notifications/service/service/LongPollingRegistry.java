@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.service;
+
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of event polling requests waiting for new notifications.
+ * <p>
+ * Long polling requests register a waiter against their client ID. {@link EventCreationService} signals the client ID
+ * once a notification is persisted, which completes every waiter of that client. Waiters which are not signalled are
+ * completed when their timeout elapses. No thread is blocked while a request is waiting.
+ * The signal is raised within the node, so a request is only woken up by notifications created on the same node.
+ */
+public class LongPollingRegistry {
+
+    private static final Log log = LogFactory.getLog(LongPollingRegistry.class);
+    private static final int WORKER_THREAD_COUNT = 4;
+    private static volatile LongPollingRegistry instance;
+
+    private final Map<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final int maxWaitingRequests;
+    private final ScheduledExecutorService timeoutScheduler;
+    private final ExecutorService worker;
+
+    LongPollingRegistry(int maxWaitingRequests) {
+
+        this.maxWaitingRequests = maxWaitingRequests;
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(
+                daemonThreadFactory("OB-Event-Long-Polling-Timeout"));
+        this.worker = Executors.newFixedThreadPool(WORKER_THREAD_COUNT,
+                daemonThreadFactory("OB-Event-Long-Polling-Worker"));
+    }
+
+    /**
+     * Singleton getInstance method to create only one object.
+     *
+     * @return LongPollingRegistry object
+     */
+    public static LongPollingRegistry getInstance() {
+
+        if (instance == null) {
+            synchronized (LongPollingRegistry.class) {
+                if (instance == null) {
+                    instance = new LongPollingRegistry(
+                            OpenBankingConfigParser.getInstance().getEventPollingLongPollingMaxWaitingRequests());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Register a waiter for the given client. The waiter must be either awaited or cancelled.
+     *
+     * @param clientId  client ID
+     * @return waiter, or null if the maximum number of waiting requests has been reached
+     */
+    public Waiter register(String clientId) {
+
+        if (waitingCount.incrementAndGet() > maxWaitingRequests) {
+            waitingCount.decrementAndGet();
+            log.debug("Maximum number of waiting event polling requests reached");
+            return null;
+        }
+        Waiter waiter = new Waiter(clientId);
+        waiters.compute(clientId, (key, clientWaiters) -> {
+            Set<Waiter> updatedWaiters = clientWaiters == null ? ConcurrentHashMap.newKeySet() : clientWaiters;
+            updatedWaiters.add(waiter);
+            return updatedWaiters;
+        });
+        return waiter;
+    }
+
+    /**
+     * Wait until the client is signalled or the timeout elapses.
+     *
+     * @param waiter         registered waiter
+     * @param timeoutMillis  maximum time to wait in milliseconds
+     * @return future completed with true if the client was signalled and false if the timeout elapsed
+     */
+    public CompletableFuture<Boolean> await(Waiter waiter, long timeoutMillis) {
+
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> cancel(waiter), timeoutMillis,
+                TimeUnit.MILLISECONDS);
+        waiter.future.whenComplete((signalled, e) -> timeout.cancel(false));
+        return waiter.future;
+    }
+
+    /**
+     * Remove a waiter without signalling it.
+     *
+     * @param waiter  registered waiter, ignored if null
+     */
+    public void cancel(Waiter waiter) {
+
+        if (waiter == null) {
+            return;
+        }
+        waiters.computeIfPresent(waiter.clientId, (key, clientWaiters) -> {
+            clientWaiters.remove(waiter);
+            return clientWaiters.isEmpty() ? null : clientWaiters;
+        });
+        waiter.complete(false);
+    }
+
+    /**
+     * Wake up all requests waiting for notifications of the given client.
+     *
+     * @param clientId  client ID
+     */
+    public void signal(String clientId) {
+
+        Set<Waiter> clientWaiters = clientId == null ? null : waiters.remove(clientId);
+        if (clientWaiters != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Waking up %d event polling requests of the client '%s'",
+                        clientWaiters.size(), clientId.replaceAll("[\r\n]", "")));
+            }
+            clientWaiters.forEach(waiter -> waiter.complete(true));
+        }
+    }
+
+    /**
+     * Wake up all requests waiting for notifications of the given client, without creating the registry if no
+     * request has been held yet.
+     *
+     * @param clientId  client ID
+     */
+    public static void signalIfActive(String clientId) {
+
+        LongPollingRegistry longPollingRegistry = instance;
+        if (longPollingRegistry != null) {
+            longPollingRegistry.signal(clientId);
+        }
+    }
+
+    /**
+     * Get the number of requests currently waiting.
+     *
+     * @return waiting request count
+     */
+    public int getWaitingCount() {
+
+        return waitingCount.get();
+    }
+
+    /**
+     * Executor used to continue processing of signalled requests, so that the signalling thread is not used.
+     *
+     * @return executor
+     */
+    Executor getWorker() {
+
+        return worker;
+    }
+
+    /**
+     * Complete all waiting requests and stop the registry threads.
+     */
+    public static void shutdown() {
+
+        synchronized (LongPollingRegistry.class) {
+            if (instance != null) {
+                instance.waiters.keySet().forEach(clientId -> instance.waiters.computeIfPresent(clientId,
+                        (key, clientWaiters) -> {
+                            clientWaiters.forEach(waiter -> waiter.complete(false));
+                            return null;
+                        }));
+                instance.timeoutScheduler.shutdownNow();
+                instance.worker.shutdown();
+                instance = null;
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A request waiting for notifications of a client.
+     */
+    public final class Waiter {
+
+        private final String clientId;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Waiter(String clientId) {
+
+            this.clientId = clientId;
+        }
+
+        private void complete(boolean signalled) {
+
+            // Release the slot before completing, so that the count is accurate once the future is observed.
+            if (completed.compareAndSet(false, true)) {
+                waitingCount.decrementAndGet();
+                future.complete(signalled);
+            }
+        }
+    }
+}
@@ -43,6 +43,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -260,4 +263,84 @@ public class AggregatedPollingDAOImplTests extends PowerMockTestCase {
 
         Assert.assertFalse(updatedStatus);
     }
+
+    @Test
+    public void testUpdateNotificationStatusByIds() throws SQLException, OBEventNotificationException {
+
+        PowerMockito.mockStatic(DatabaseUtil.class);
+        PowerMockito.when(DatabaseUtil.getDBConnection()).thenReturn(mockedConnection);
+        when(mockedConnection.prepareStatement(anyString())).thenReturn(mockedPreparedStatement);
+        when(mockedPreparedStatement.executeUpdate()).thenReturn(2);
+
+        int updatedCount = aggregatedPollingDAOImpl.updateNotificationStatusByIds(Arrays.asList(
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                EventNotificationTestConstants.SAMPLE_ERROR_NOTIFICATION_ID), EventNotificationConstants.ACK);
+
+        Assert.assertEquals(updatedCount, 2);
+    }
+
+    @Test
+    public void testUpdateNotificationStatusByEmptyIds() throws OBEventNotificationException {
+
+        int updatedCount = aggregatedPollingDAOImpl.updateNotificationStatusByIds(Collections.emptyList(),
+                EventNotificationConstants.ACK);
+
+        Assert.assertEquals(updatedCount, 0);
+    }
+
+    @Test
+    public void testStoreErrorNotificationsOfOpenNotifications() throws SQLException, OBEventNotificationException {
+
+        ResultSet mockedResultSet = Mockito.mock(ResultSet.class);
+        when(mockedResultSet.next()).thenReturn(true).thenReturn(false);
+        when(mockedResultSet.getString(EventNotificationConstants.NOTIFICATION_ID)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_ERROR_NOTIFICATION_ID);
+        when(mockedConnection.prepareStatement(anyString())).thenReturn(mockedPreparedStatement);
+        when(mockedPreparedStatement.executeQuery()).thenReturn(mockedResultSet);
+        when(mockedPreparedStatement.executeUpdate()).thenReturn(1);
+
+        Map<String, NotificationError> notificationErrors = new HashMap<>();
+        notificationErrors.put(EventNotificationTestConstants.SAMPLE_ERROR_NOTIFICATION_ID,
+                EventNotificationTestUtils.getNotificationError());
+        notificationErrors.put(EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID,
+                EventNotificationTestUtils.getNotificationError());
+
+        Map<String, NotificationError> errors = aggregatedPollingDAOImpl.storeErrorNotifications(notificationErrors);
+
+        Assert.assertEquals(errors.size(), 1);
+        Assert.assertTrue(errors.containsKey(EventNotificationTestConstants.SAMPLE_ERROR_NOTIFICATION_ID));
+    }
+
+    @Test
+    public void testGetNotificationsWithEventsByClientIdAndStatus() throws SQLException,
+            OBEventNotificationException {
+
+        ResultSet mockedResultSet = Mockito.mock(ResultSet.class);
+        when(mockedResultSet.next()).thenReturn(true).thenReturn(true).thenReturn(false);
+        when(mockedConnection.prepareStatement(anyString())).thenReturn(mockedPreparedStatement);
+        when(mockedPreparedStatement.executeQuery()).thenReturn(mockedResultSet);
+        when(mockedResultSet.getString(EventNotificationConstants.NOTIFICATION_ID)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID);
+        when(mockedResultSet.getString(EventNotificationConstants.CLIENT_ID)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_CLIENT_ID);
+        when(mockedResultSet.getString(EventNotificationConstants.RESOURCE_ID)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_RESOURCE_ID);
+        when(mockedResultSet.getString(EventNotificationConstants.STATUS)).thenReturn("OPEN");
+        when(mockedResultSet.getTimestamp(EventNotificationConstants.UPDATED_TIMESTAMP)).thenReturn(
+                new Timestamp(System.currentTimeMillis()));
+        when(mockedResultSet.getString(EventNotificationConstants.EVENT_TYPE)).thenReturn(
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_EVENT_TYPE_1);
+        when(mockedResultSet.getString(EventNotificationConstants.EVENT_INFO)).thenReturn(
+                EventNotificationTestUtils.getSampleEventInformation().toString());
+
+        Map<NotificationDTO, List<NotificationEvent>> notifications = aggregatedPollingDAOImpl.
+                getNotificationsWithEventsByClientIdAndStatus(EventNotificationTestConstants.SAMPLE_CLIENT_ID,
+                        "OPEN", 5);
+
+        Assert.assertEquals(notifications.size(), 1);
+        Map.Entry<NotificationDTO, List<NotificationEvent>> notification = notifications.entrySet().iterator().next();
+        Assert.assertEquals(notification.getKey().getNotificationId(),
+                EventNotificationTestConstants.SAMPLE_NOTIFICATION_ID);
+        Assert.assertEquals(notification.getValue().size(), 2);
+    }
 }
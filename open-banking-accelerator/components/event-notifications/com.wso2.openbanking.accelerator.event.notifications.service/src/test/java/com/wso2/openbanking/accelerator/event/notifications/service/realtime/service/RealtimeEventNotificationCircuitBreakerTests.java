@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.wso2.openbanking.accelerator.event.notifications.service.realtime.service;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test class for RealtimeEventNotificationCircuitBreaker.
+ */
+public class RealtimeEventNotificationCircuitBreakerTests {
+
+    @Test
+    public void testOpenAfterConsecutiveFailures() {
+
+        RealtimeEventNotificationCircuitBreaker circuitBreaker = new RealtimeEventNotificationCircuitBreaker(3, 1000);
+
+        Assert.assertFalse(circuitBreaker.recordFailure(0));
+        Assert.assertFalse(circuitBreaker.recordFailure(0));
+        Assert.assertFalse(circuitBreaker.recordSuccess());
+        Assert.assertFalse(circuitBreaker.recordFailure(0));
+        Assert.assertFalse(circuitBreaker.recordFailure(0));
+        Assert.assertEquals(circuitBreaker.getState(), RealtimeEventNotificationCircuitBreaker.State.CLOSED);
+
+        Assert.assertTrue(circuitBreaker.recordFailure(100));
+        Assert.assertEquals(circuitBreaker.getState(), RealtimeEventNotificationCircuitBreaker.State.OPEN);
+        Assert.assertEquals(circuitBreaker.getOpenedTime(), 100);
+        Assert.assertFalse(circuitBreaker.allowRequest(500));
+    }
+
+    @Test
+    public void testHalfOpenTrialRequest() {
+
+        RealtimeEventNotificationCircuitBreaker circuitBreaker = new RealtimeEventNotificationCircuitBreaker(1, 1000);
+        circuitBreaker.recordFailure(0);
+
+        Assert.assertTrue(circuitBreaker.allowRequest(1000));
+        Assert.assertEquals(circuitBreaker.getState(), RealtimeEventNotificationCircuitBreaker.State.HALF_OPEN);
+        // Only one trial request is allowed.
+        Assert.assertFalse(circuitBreaker.allowRequest(1000));
+
+        Assert.assertTrue(circuitBreaker.recordFailure(1500));
+        Assert.assertEquals(circuitBreaker.getState(), RealtimeEventNotificationCircuitBreaker.State.OPEN);
+        Assert.assertFalse(circuitBreaker.allowRequest(2000));
+
+        Assert.assertTrue(circuitBreaker.allowRequest(2500));
+        Assert.assertTrue(circuitBreaker.recordSuccess());
+        Assert.assertEquals(circuitBreaker.getState(), RealtimeEventNotificationCircuitBreaker.State.CLOSED);
+        Assert.assertEquals(circuitBreaker.getConsecutiveFailures(), 0);
+        Assert.assertTrue(circuitBreaker.allowRequest(2500));
+    }
+}
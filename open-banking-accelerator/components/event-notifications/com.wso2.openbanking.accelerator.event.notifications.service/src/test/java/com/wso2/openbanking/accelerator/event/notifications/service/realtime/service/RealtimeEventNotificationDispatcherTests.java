@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.realtime.service;
+
+import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
+import com.wso2.openbanking.accelerator.event.notifications.service.realtime.model.RealtimeEventNotification;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Test class for RealtimeEventNotificationDispatcher.
+ */
+public class RealtimeEventNotificationDispatcherTests {
+
+    private static final String CALLBACK_URL = "https://tpp1.example.com:8443/callback";
+    private static final String OTHER_CALLBACK_URL = "https://tpp2.example.com/callback";
+    private static final String PAYLOAD = "{\"notificationId\":\"1\"}";
+
+    @Test
+    public void testDelivery() throws InterruptedException {
+
+        TestDispatcher dispatcher = new TestDispatcher(1, 5, 2, 10, "CONSTANT", delivery -> true);
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+
+        Assert.assertTrue(dispatcher.statusUpdated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(dispatcher.statuses.get("notification-1"), EventNotificationConstants.ACK);
+        Assert.assertEquals(dispatcher.getMetrics().getDeliveredCount(), 1);
+        Assert.assertEquals(dispatcher.getMetrics().getRetryCount(), 0);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testRetryUntilDelivered() throws InterruptedException {
+
+        TestDispatcher dispatcher = new TestDispatcher(1, 5, 2, 10, "CONSTANT",
+                delivery -> delivery.getAttempts() > 1);
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+
+        Assert.assertTrue(dispatcher.statusUpdated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(dispatcher.statuses.get("notification-1"), EventNotificationConstants.ACK);
+        Assert.assertEquals(dispatcher.getMetrics().getAttemptCount(), 2);
+        Assert.assertEquals(dispatcher.getMetrics().getRetryCount(), 1);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testMaxRetriesExceeded() throws InterruptedException {
+
+        TestDispatcher dispatcher = new TestDispatcher(1, 5, 2, 10, "LINEAR", delivery -> false);
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+
+        Assert.assertTrue(dispatcher.statusUpdated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(dispatcher.statuses.get("notification-1"), EventNotificationConstants.ERROR);
+        Assert.assertEquals(dispatcher.getMetrics().getAttemptCount(), 3);
+        Assert.assertEquals(dispatcher.getMetrics().getFailedCount(), 1);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testRetryAfterSendError() throws InterruptedException {
+
+        TestDispatcher dispatcher = new TestDispatcher(1, 5, 2, 10, "CONSTANT", delivery -> {
+            if (delivery.getAttempts() == 1) {
+                throw new IllegalStateException("Unexpected error");
+            }
+            return true;
+        });
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+
+        Assert.assertTrue(dispatcher.statusUpdated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(dispatcher.statuses.get("notification-1"), EventNotificationConstants.ACK);
+        Assert.assertEquals(dispatcher.getMetrics().getAttemptCount(), 2);
+        Assert.assertEquals(dispatcher.getMetrics().getRetryCount(), 1);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testSendErrorUntilMaxRetriesExceeded() throws InterruptedException {
+
+        TestDispatcher dispatcher = new TestDispatcher(1, 5, 1, 10, "CONSTANT", delivery -> {
+            throw new IllegalStateException("Unexpected error");
+        });
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+
+        Assert.assertTrue(dispatcher.statusUpdated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(dispatcher.statuses.get("notification-1"), EventNotificationConstants.ERROR);
+        Assert.assertEquals(dispatcher.getMetrics().getAttemptCount(), 2);
+        Assert.assertEquals(dispatcher.getMetrics().getFailedCount(), 1);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testConcurrencyLimitPerHost() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        TestDispatcher dispatcher = new TestDispatcher(4, 1, 0, 10, "CONSTANT", delivery -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }, 4);
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+        dispatcher.dispatch("notification-2", CALLBACK_URL, PAYLOAD);
+        dispatcher.dispatch("notification-3", CALLBACK_URL, PAYLOAD);
+        dispatcher.dispatch("notification-4", OTHER_CALLBACK_URL, PAYLOAD);
+
+        Assert.assertEquals(dispatcher.getInFlightCount("tpp1.example.com:8443"), 1);
+        Assert.assertEquals(dispatcher.getPendingCount("tpp1.example.com:8443"), 2);
+        Assert.assertEquals(dispatcher.getInFlightCount("tpp2.example.com"), 1);
+
+        release.countDown();
+        Assert.assertTrue(dispatcher.statusUpdated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(dispatcher.getMetrics().getDeliveredCount(), 4);
+        Assert.assertEquals(dispatcher.getPendingCount("tpp1.example.com:8443"), 0);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testConsumeQueue() throws InterruptedException {
+
+        TestDispatcher dispatcher = new TestDispatcher(1, 5, 2, 10, "CONSTANT", delivery -> true);
+        RealtimeEventNotification notification = Mockito.mock(RealtimeEventNotification.class);
+        Mockito.when(notification.getNotificationId()).thenReturn("notification-1");
+        Mockito.when(notification.getCallbackUrl()).thenReturn(CALLBACK_URL);
+        Mockito.when(notification.getJsonPayload()).thenReturn(PAYLOAD);
+
+        dispatcher.start();
+        dispatcher.queue.put(notification);
+
+        Assert.assertTrue(dispatcher.statusUpdated.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(dispatcher.statuses.get("notification-1"), EventNotificationConstants.ACK);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testGetRetryDelay() {
+
+        RealtimeEventNotificationDispatcher.Delivery delivery = new RealtimeEventNotificationDispatcher.Delivery(
+                "notification-1", CALLBACK_URL, PAYLOAD, "tpp1.example.com:8443", System.currentTimeMillis());
+
+        TestDispatcher constantDispatcher = new TestDispatcher(1, 5, 5, 1000, "CONSTANT", d -> true);
+        TestDispatcher linearDispatcher = new TestDispatcher(1, 5, 5, 1000, "LINEAR", d -> true);
+        TestDispatcher exponentialDispatcher = new TestDispatcher(1, 5, 5, 1000, "EX", d -> true);
+        TestDispatcher invalidDispatcher = new TestDispatcher(1, 5, 5, 1000, "INVALID", d -> true);
+
+        for (int i = 0; i < 3; i++) {
+            delivery.nextAttempt();
+        }
+        Assert.assertEquals(constantDispatcher.getRetryDelay(delivery), 1000);
+        Assert.assertEquals(linearDispatcher.getRetryDelay(delivery), 4000);
+        Assert.assertEquals(exponentialDispatcher.getRetryDelay(delivery), (long) (1000 * Math.exp(2)));
+        Assert.assertEquals(invalidDispatcher.getRetryDelay(delivery), -1);
+
+        for (int i = 0; i < 3; i++) {
+            delivery.nextAttempt();
+        }
+        Assert.assertEquals(constantDispatcher.getRetryDelay(delivery), -1);
+    }
+
+    @Test
+    public void testHostCircuitBreaker() throws InterruptedException {
+
+        AtomicBoolean hostDown = new AtomicBoolean(true);
+        TestDispatcher dispatcher = new TestDispatcher(1, 5, 0, 10, "CONSTANT", delivery -> !hostDown.get(),
+                2, 200);
+        String host = "tpp1.example.com:8443";
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+        Assert.assertTrue(waitFor(() -> dispatcher.statuses.containsKey("notification-1")));
+        dispatcher.dispatch("notification-2", CALLBACK_URL, PAYLOAD);
+        Assert.assertTrue(waitFor(() -> dispatcher.statuses.containsKey("notification-2")));
+        Assert.assertEquals(dispatcher.getCircuitBreakerStates().get(host),
+                RealtimeEventNotificationCircuitBreaker.State.OPEN);
+
+        // The notification is not sent while the breaker is open and stays in OPEN state.
+        dispatcher.dispatch("notification-3", CALLBACK_URL, PAYLOAD);
+        Assert.assertTrue(waitFor(() -> dispatcher.getShortCircuitedCount(host) == 1));
+        Assert.assertFalse(dispatcher.statuses.containsKey("notification-3"));
+        Assert.assertEquals(dispatcher.getMetrics().getAttemptCount(), 2);
+        Assert.assertEquals(dispatcher.getMetrics().getShortCircuitedCount(), 1);
+
+        // The short-circuited notification is sent as the trial request once the open duration has elapsed.
+        hostDown.set(false);
+        Assert.assertTrue(waitFor(() -> EventNotificationConstants.ACK.equals(
+                dispatcher.statuses.get("notification-3"))));
+        Assert.assertEquals(dispatcher.getCircuitBreaker(host).getState(),
+                RealtimeEventNotificationCircuitBreaker.State.CLOSED);
+        Assert.assertEquals(dispatcher.getShortCircuitedCount(host), 0);
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testShortCircuitedLimitPerHost() throws InterruptedException {
+
+        TestDispatcher dispatcher = new TestDispatcher(new LinkedBlockingQueue<>(), 1, 5, 0, 10, "CONSTANT",
+                delivery -> false, 1, 1, 60000, 1);
+        String host = "tpp1.example.com:8443";
+
+        dispatcher.dispatch("notification-1", CALLBACK_URL, PAYLOAD);
+        Assert.assertTrue(waitFor(() -> dispatcher.statuses.containsKey("notification-1")));
+        Assert.assertEquals(dispatcher.getCircuitBreakerStates().get(host),
+                RealtimeEventNotificationCircuitBreaker.State.OPEN);
+
+        // Only one notification is held while the breaker is open, the other is left in OPEN state.
+        dispatcher.dispatch("notification-2", CALLBACK_URL, PAYLOAD);
+        dispatcher.dispatch("notification-3", CALLBACK_URL, PAYLOAD);
+        Assert.assertTrue(waitFor(() -> dispatcher.getMetrics().getShortCircuitedCount() == 2));
+        Assert.assertEquals(dispatcher.getShortCircuitedCount(host), 1);
+        Assert.assertEquals(dispatcher.getMetrics().getShortCircuitDropCount(), 1);
+        Assert.assertFalse(dispatcher.statuses.containsKey("notification-2"));
+        Assert.assertFalse(dispatcher.statuses.containsKey("notification-3"));
+        dispatcher.stop();
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * Dispatcher which records status updates instead of writing them to the database.
+     */
+    private static class TestDispatcher extends RealtimeEventNotificationDispatcher {
+
+        private final LinkedBlockingQueue<RealtimeEventNotification> queue;
+        private final Map<String, String> statuses = new ConcurrentHashMap<>();
+        private final CountDownLatch statusUpdated;
+        private final Function<Delivery, Boolean> sendFunction;
+
+        TestDispatcher(int threadPoolSize, int maxConcurrentRequestsPerHost, int maxRetries,
+                       long initialBackoffTimeMillis, String backoffFunction,
+                       Function<Delivery, Boolean> sendFunction) {
+
+            this(threadPoolSize, maxConcurrentRequestsPerHost, maxRetries, initialBackoffTimeMillis, backoffFunction,
+                    sendFunction, 1);
+        }
+
+        TestDispatcher(int threadPoolSize, int maxConcurrentRequestsPerHost, int maxRetries,
+                       long initialBackoffTimeMillis, String backoffFunction,
+                       Function<Delivery, Boolean> sendFunction, int expectedStatusUpdates) {
+
+            this(new LinkedBlockingQueue<>(), threadPoolSize, maxConcurrentRequestsPerHost, maxRetries,
+                    initialBackoffTimeMillis, backoffFunction, sendFunction, expectedStatusUpdates,
+                    Integer.MAX_VALUE, 60000, 1000);
+        }
+
+        TestDispatcher(int threadPoolSize, int maxConcurrentRequestsPerHost, int maxRetries,
+                       long initialBackoffTimeMillis, String backoffFunction,
+                       Function<Delivery, Boolean> sendFunction, int hostFailureThreshold,
+                       long hostOpenDurationMillis) {
+
+            this(new LinkedBlockingQueue<>(), threadPoolSize, maxConcurrentRequestsPerHost, maxRetries,
+                    initialBackoffTimeMillis, backoffFunction, sendFunction, 1, hostFailureThreshold,
+                    hostOpenDurationMillis, 1000);
+        }
+
+        private TestDispatcher(LinkedBlockingQueue<RealtimeEventNotification> queue, int threadPoolSize,
+                               int maxConcurrentRequestsPerHost, int maxRetries, long initialBackoffTimeMillis,
+                               String backoffFunction, Function<Delivery, Boolean> sendFunction,
+                               int expectedStatusUpdates, int hostFailureThreshold, long hostOpenDurationMillis,
+                               int maxShortCircuitedPerHost) {
+
+            super(queue, threadPoolSize, maxConcurrentRequestsPerHost, maxRetries, initialBackoffTimeMillis,
+                    backoffFunction, 60000, hostFailureThreshold, hostOpenDurationMillis, maxShortCircuitedPerHost);
+            this.queue = queue;
+            this.sendFunction = sendFunction;
+            this.statusUpdated = new CountDownLatch(expectedStatusUpdates);
+        }
+
+        @Override
+        boolean send(Delivery delivery) {
+
+            return sendFunction.apply(delivery);
+        }
+
+        @Override
+        void updateNotificationStatus(String notificationId, String notificationStatus) {
+
+            statuses.put(notificationId, notificationStatus);
+            statusUpdated.countDown();
+        }
+    }
+}
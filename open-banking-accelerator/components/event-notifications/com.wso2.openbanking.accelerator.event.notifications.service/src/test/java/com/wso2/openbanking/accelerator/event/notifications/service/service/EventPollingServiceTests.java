@@ -23,6 +23,7 @@ import com.wso2.openbanking.accelerator.common.exception.ConsentManagementExcept
 import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
 import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
 import com.wso2.openbanking.accelerator.event.notifications.service.dao.AggregatedPollingDAO;
+import com.wso2.openbanking.accelerator.event.notifications.service.dto.EventPollingDTO;
 import com.wso2.openbanking.accelerator.event.notifications.service.exceptions.OBEventNotificationException;
 import com.wso2.openbanking.accelerator.event.notifications.service.model.AggregatedPollingResponse;
 import com.wso2.openbanking.accelerator.event.notifications.service.persistence.EventPollingStoreInitializer;
@@ -98,9 +99,9 @@ public class EventPollingServiceTests extends PowerMockTestCase {
         PowerMockito.mockStatic(EventNotificationServiceUtil.class);
         PowerMockito.when(EventNotificationServiceUtil.getEventNotificationGenerator()).thenReturn(
                 mockedEventNotificationGenerator);
-        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationsByClientIdAndStatus(Mockito.anyString(),
-                Mockito.anyString(), Mockito.anyInt())).thenReturn(
-                EventNotificationTestUtils.getSampleSavedTestNotification());
+        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationsWithEventsByClientIdAndStatus(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyInt())).thenReturn(
+                EventNotificationTestUtils.getSampleSavedTestNotificationWithEvents());
         PowerMockito.when(mockedAggregatedPollingDAO.getNotificationStatus(Mockito.anyString())).thenReturn(true);
 
         EventPollingService eventPollingService = new EventPollingService();
@@ -110,4 +111,68 @@ public class EventPollingServiceTests extends PowerMockTestCase {
 
         Assert.assertEquals(aggregatedPollingResponse.getStatus(), EventNotificationConstants.OK);
     }
+
+    @Test
+    public void testLongPollNotifications() throws OBEventNotificationException {
+
+        mockLongPollingConfigParser();
+        mockedAggregatedPollingDAO = Mockito.mock(AggregatedPollingDAO.class);
+        mockedEventNotificationGenerator = Mockito.mock(EventNotificationGenerator.class);
+
+        PowerMockito.mockStatic(EventPollingStoreInitializer.class);
+        PowerMockito.when(EventPollingStoreInitializer.getAggregatedPollingDAO()).thenReturn(
+                mockedAggregatedPollingDAO);
+        PowerMockito.mockStatic(EventNotificationServiceUtil.class);
+        PowerMockito.when(EventNotificationServiceUtil.getEventNotificationGenerator()).thenReturn(
+                mockedEventNotificationGenerator);
+        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationsWithEventsByClientIdAndStatus(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyInt())).thenReturn(
+                EventNotificationTestUtils.getSampleSavedTestNotificationWithEvents());
+        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationStatus(Mockito.anyString())).thenReturn(true);
+
+        EventPollingDTO eventPollingDTO = EventNotificationTestUtils.getEventPollingDTO();
+        eventPollingDTO.setReturnImmediately(false);
+
+        AggregatedPollingResponse aggregatedPollingResponse = new EventPollingService().pollEvents(eventPollingDTO);
+
+        Assert.assertEquals(aggregatedPollingResponse.getStatus(), EventNotificationConstants.OK);
+        Assert.assertEquals(LongPollingRegistry.getInstance().getWaitingCount(), 0);
+        LongPollingRegistry.shutdown();
+    }
+
+    @Test
+    public void testLongPollNoNotificationsUntilTimeout() throws OBEventNotificationException {
+
+        mockLongPollingConfigParser();
+        mockedAggregatedPollingDAO = Mockito.mock(AggregatedPollingDAO.class);
+        mockedEventNotificationGenerator = Mockito.mock(EventNotificationGenerator.class);
+
+        PowerMockito.mockStatic(EventPollingStoreInitializer.class);
+        PowerMockito.when(EventPollingStoreInitializer.getAggregatedPollingDAO()).thenReturn(
+                mockedAggregatedPollingDAO);
+        PowerMockito.mockStatic(EventNotificationServiceUtil.class);
+        PowerMockito.when(EventNotificationServiceUtil.getEventNotificationGenerator()).thenReturn(
+                mockedEventNotificationGenerator);
+        PowerMockito.when(mockedAggregatedPollingDAO.getNotificationStatus(Mockito.anyString())).thenReturn(true);
+
+        EventPollingDTO eventPollingDTO = EventNotificationTestUtils.getEventPollingDTO();
+        eventPollingDTO.setReturnImmediately(false);
+
+        AggregatedPollingResponse aggregatedPollingResponse = new EventPollingService().pollEvents(eventPollingDTO);
+
+        Assert.assertEquals(aggregatedPollingResponse.getStatus(), EventNotificationConstants.NOT_FOUND);
+        Assert.assertEquals(LongPollingRegistry.getInstance().getWaitingCount(), 0);
+        LongPollingRegistry.shutdown();
+    }
+
+    private static void mockLongPollingConfigParser() {
+
+        OpenBankingConfigParser openBankingConfigParserMock = Mockito.mock(OpenBankingConfigParser.class);
+        Mockito.when(openBankingConfigParserMock.isEventPollingLongPollingEnabled()).thenReturn(true);
+        Mockito.when(openBankingConfigParserMock.getEventPollingLongPollingTimeout()).thenReturn(1);
+        Mockito.when(openBankingConfigParserMock.getEventPollingLongPollingMaxWaitingRequests()).thenReturn(10);
+        Mockito.when(openBankingConfigParserMock.getNumberOfSetsToReturn()).thenReturn(5);
+        PowerMockito.mockStatic(OpenBankingConfigParser.class);
+        PowerMockito.when(OpenBankingConfigParser.getInstance()).thenReturn(openBankingConfigParserMock);
+    }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.event.notifications.service.service;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class for LongPollingRegistry.
+ */
+public class LongPollingRegistryTests {
+
+    private static final String CLIENT_ID = "7e7f3a5d-2f4b-4b36-9d1e-bd0f0e35d2a1";
+    private static final String OTHER_CLIENT_ID = "5c0a1b9e-6f2d-4d4b-8a55-3a5c1c2f7e90";
+
+    @Test
+    public void testSignalCompletesWaiter() throws Exception {
+
+        LongPollingRegistry registry = new LongPollingRegistry(10);
+        CompletableFuture<Boolean> future = registry.await(registry.register(CLIENT_ID), 60000);
+
+        Assert.assertEquals(registry.getWaitingCount(), 1);
+        registry.signal(CLIENT_ID);
+
+        Assert.assertTrue(future.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(registry.getWaitingCount(), 0);
+    }
+
+    @Test
+    public void testSignalOtherClient() {
+
+        LongPollingRegistry registry = new LongPollingRegistry(10);
+        CompletableFuture<Boolean> future = registry.await(registry.register(CLIENT_ID), 60000);
+
+        registry.signal(OTHER_CLIENT_ID);
+
+        Assert.assertFalse(future.isDone());
+        registry.signal(CLIENT_ID);
+        Assert.assertTrue(future.isDone());
+    }
+
+    @Test
+    public void testTimeoutCompletesWaiter() throws Exception {
+
+        LongPollingRegistry registry = new LongPollingRegistry(10);
+        CompletableFuture<Boolean> future = registry.await(registry.register(CLIENT_ID), 10);
+
+        Assert.assertFalse(future.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(registry.getWaitingCount(), 0);
+    }
+
+    @Test
+    public void testCancelWaiter() throws Exception {
+
+        LongPollingRegistry registry = new LongPollingRegistry(10);
+        LongPollingRegistry.Waiter waiter = registry.register(CLIENT_ID);
+        CompletableFuture<Boolean> future = registry.await(waiter, 60000);
+
+        registry.cancel(waiter);
+        registry.cancel(null);
+        registry.signal(CLIENT_ID);
+
+        Assert.assertFalse(future.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(registry.getWaitingCount(), 0);
+    }
+
+    @Test
+    public void testMaxWaitingRequests() {
+
+        LongPollingRegistry registry = new LongPollingRegistry(1);
+        LongPollingRegistry.Waiter waiter = registry.register(CLIENT_ID);
+
+        Assert.assertNotNull(waiter);
+        Assert.assertNull(registry.register(OTHER_CLIENT_ID));
+
+        registry.cancel(waiter);
+        Assert.assertNotNull(registry.register(OTHER_CLIENT_ID));
+    }
+}
@@ -53,6 +53,15 @@ public class EventNotificationTestUtils {
 
         return notificationList;
     }
+
+    public static Map<NotificationDTO, List<NotificationEvent>> getSampleSavedTestNotificationWithEvents() {
+
+        Map<NotificationDTO, List<NotificationEvent>> notifications = new HashMap<>();
+        notifications.put(getSampleNotificationDTO(), new ArrayList<>());
+
+        return notifications;
+    }
+
     public static NotificationDTO getSampleNotificationDTO() {
 
         NotificationDTO notificationDTO = new NotificationDTO();
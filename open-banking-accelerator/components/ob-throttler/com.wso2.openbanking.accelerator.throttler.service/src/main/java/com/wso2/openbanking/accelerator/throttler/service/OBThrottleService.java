@@ -27,14 +27,16 @@ import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataU
 import com.wso2.openbanking.accelerator.throttler.dao.model.ThrottleDataModel;
 import com.wso2.openbanking.accelerator.throttler.dao.persistence.DataStoreInitializer;
 import com.wso2.openbanking.accelerator.throttler.service.constants.OBThrottlerServiceConstants;
+import com.wso2.openbanking.accelerator.throttler.service.inmemory.InMemoryThrottler;
+import com.wso2.openbanking.accelerator.throttler.service.internal.OBThrottlerDataHolder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.sql.Connection;
 import java.sql.Timestamp;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service class for OB Throttler.
@@ -42,11 +44,14 @@ import java.util.Map;
  * Contains methods required to throttle the occurrence of a given parameter.
  * The parameters can be separated into groups by 'throttleGroup' attribute, which will
  * allow throttling same parameter values in different groups.
+ * <p>
+ * By default every call is backed by the database. When the InMemory throttler backend is configured, calls are
+ * delegated to {@link InMemoryThrottler} which only persists lock transitions.
  */
 public class OBThrottleService {
 
     private static Log log = LogFactory.getLog(OBThrottleService.class);
-    protected Map<String, Map<String, Timestamp>> throttleDataMap = new HashMap<>();
+    protected Map<String, Map<String, Timestamp>> throttleDataMap = new ConcurrentHashMap<>();
     private static OBThrottleService instance = null;
 
     // private constructor
@@ -76,6 +81,12 @@ public class OBThrottleService {
     public void updateThrottleData(String throttleGroup, String throttleParam, int throttleLimit,
                                    int throttleTimePeriod) throws OBThrottlerException {
 
+        InMemoryThrottler inMemoryThrottler = OBThrottlerDataHolder.getInstance().getInMemoryThrottler();
+        if (inMemoryThrottler != null) {
+            inMemoryThrottler.updateThrottleData(throttleGroup, throttleParam, throttleLimit, throttleTimePeriod);
+            return;
+        }
+
         ThrottleDataModel throttleDataModel;
         ThrottleDataModel existingThrottleDataModel;
         OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
@@ -136,6 +147,11 @@ public class OBThrottleService {
      */
     public boolean isThrottled(String throttleGroup, String throttleParam) throws OBThrottlerException {
 
+        InMemoryThrottler inMemoryThrottler = OBThrottlerDataHolder.getInstance().getInMemoryThrottler();
+        if (inMemoryThrottler != null) {
+            return inMemoryThrottler.isThrottled(throttleGroup, throttleParam);
+        }
+
         Connection connection = DatabaseUtil.getDBConnection();
         OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
 
@@ -163,6 +179,12 @@ public class OBThrottleService {
      */
     public void deleteRecordOnSuccessAttempt(String throttleGroup, String throttleParam) throws OBThrottlerException {
 
+        InMemoryThrottler inMemoryThrottler = OBThrottlerDataHolder.getInstance().getInMemoryThrottler();
+        if (inMemoryThrottler != null) {
+            inMemoryThrottler.deleteRecordOnSuccessAttempt(throttleGroup, throttleParam);
+            return;
+        }
+
         Connection connection = DatabaseUtil.getDBConnection();
         OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
 
@@ -231,15 +253,8 @@ public class OBThrottleService {
      */
     protected void updateThrottleDataMap(String throttleGroup, String throttleParam, Timestamp unlockTimestamp) {
 
-        Map<String, Timestamp> throttleParamMap;
-        //check if throttle group already exists
-        if (throttleDataMap.containsKey(throttleGroup)) {
-            throttleParamMap = throttleDataMap.get(throttleGroup);
-        } else {
-            throttleParamMap = new HashMap<>();
-        }
-        //put parameter and unlockTimestamp to the throttle data map
-        throttleParamMap.put(throttleParam, unlockTimestamp);
-        throttleDataMap.put(throttleGroup, throttleParamMap);
+        //put parameter and unlockTimestamp to the throttle data map, creating the group if it does not exist
+        throttleDataMap.computeIfAbsent(throttleGroup, group -> new ConcurrentHashMap<>())
+                .put(throttleParam, unlockTimestamp);
     }
 }
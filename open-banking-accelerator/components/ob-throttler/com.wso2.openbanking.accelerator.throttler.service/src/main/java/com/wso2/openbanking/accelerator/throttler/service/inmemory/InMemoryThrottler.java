@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.throttler.service.inmemory;
+
+import com.wso2.openbanking.accelerator.common.exception.OBThrottlerException;
+import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
+import com.wso2.openbanking.accelerator.throttler.dao.OBThrottlerDAO;
+import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataDeletionException;
+import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataInsertionException;
+import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataRetrievalException;
+import com.wso2.openbanking.accelerator.throttler.dao.exception.OBThrottlerDataUpdationException;
+import com.wso2.openbanking.accelerator.throttler.dao.persistence.DataStoreInitializer;
+import com.wso2.openbanking.accelerator.throttler.service.constants.OBThrottlerServiceConstants;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * In memory throttler backend.
+ * <p>
+ * Occurrences are counted in memory using a sliding window counter per throttle group and parameter, so recording an
+ * attempt or checking the throttle status does not touch the database. Only lock transitions are written to the
+ * database through {@link OBThrottlerDAO}: a record is stored when a parameter gets locked and removed when the lock
+ * is released or the attempt succeeds. Occurrence counts are node local.
+ */
+public class InMemoryThrottler {
+
+    private static final Log log = LogFactory.getLog(InMemoryThrottler.class);
+    private static final int WINDOW_BUCKET_COUNT = 10;
+    private static final int PURGE_INTERVAL = 1024;
+
+    private final Map<String, Map<String, ThrottleEntry>> throttleEntries = new ConcurrentHashMap<>();
+    private final AtomicInteger updatesSincePurge = new AtomicInteger();
+    private final LongSupplier clock;
+
+    public InMemoryThrottler() {
+
+        this(System::currentTimeMillis);
+    }
+
+    InMemoryThrottler(LongSupplier clock) {
+
+        this.clock = clock;
+    }
+
+    /**
+     * Record an occurrence of the given parameter and lock it if the throttle limit is exceeded.
+     *
+     * @param throttleGroup      - throttle group
+     * @param throttleParam      - throttle parameter
+     * @param throttleLimit      - allowed number of occurrences
+     * @param throttleTimePeriod - time period that the parameter is throttled (seconds)
+     * @throws OBThrottlerException - OBThrottlerException
+     */
+    public void updateThrottleData(String throttleGroup, String throttleParam, int throttleLimit,
+                                   int throttleTimePeriod) throws OBThrottlerException {
+
+        long currentTime = clock.getAsLong();
+        long throttleTimeMillis = 1000L * throttleTimePeriod;
+        Map<String, ThrottleEntry> groupEntries = throttleEntries
+                .computeIfAbsent(throttleGroup, group -> new ConcurrentHashMap<>());
+        ThrottleEntry entry;
+        while (true) {
+            entry = groupEntries.computeIfAbsent(throttleParam,
+                    param -> new ThrottleEntry(throttleTimeMillis, WINDOW_BUCKET_COUNT, currentTime));
+            if (entry.touch(currentTime)) {
+                break;
+            }
+            // The entry was retired by a purge, hence retry with a new entry once the retired one is removed
+            groupEntries.remove(throttleParam, entry);
+        }
+
+        releaseExpiredLock(throttleGroup, throttleParam, entry, currentTime);
+        int occurrences = entry.getCounter().increment(currentTime);
+
+        if (occurrences > throttleLimit && entry.lock(currentTime, currentTime + throttleTimeMillis)) {
+            persistLock(throttleGroup, throttleParam, entry, currentTime, currentTime + throttleTimeMillis,
+                    occurrences);
+        }
+
+        if (updatesSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+            updatesSincePurge.set(0);
+            purgeIdleEntries(currentTime);
+        }
+    }
+
+    /**
+     * Check if the given parameter is throttled.
+     *
+     * @param throttleGroup - throttle group
+     * @param throttleParam - throttle parameter
+     * @return - boolean
+     * @throws OBThrottlerException - OBThrottlerException
+     */
+    public boolean isThrottled(String throttleGroup, String throttleParam) throws OBThrottlerException {
+
+        ThrottleEntry entry = getEntry(throttleGroup, throttleParam);
+        if (entry == null) {
+            return false;
+        }
+        long currentTime = clock.getAsLong();
+        if (entry.isLocked(currentTime)) {
+            return true;
+        }
+        releaseExpiredLock(throttleGroup, throttleParam, entry, currentTime);
+        return false;
+    }
+
+    /**
+     * Clear the throttle data of the given parameter on a successful attempt.
+     *
+     * @param throttleGroup - throttle group
+     * @param throttleParam - throttle parameter
+     * @throws OBThrottlerException - OBThrottlerException
+     */
+    public void deleteRecordOnSuccessAttempt(String throttleGroup, String throttleParam) throws OBThrottlerException {
+
+        Map<String, ThrottleEntry> groupEntries = throttleEntries.get(throttleGroup);
+        ThrottleEntry entry = groupEntries == null ? null : groupEntries.remove(throttleParam);
+        if (entry != null && entry.isPersisted()) {
+            entry.setPersisted(false);
+            deletePersistedLock(throttleGroup, throttleParam);
+        }
+    }
+
+    private ThrottleEntry getEntry(String throttleGroup, String throttleParam) {
+
+        Map<String, ThrottleEntry> groupEntries = throttleEntries.get(throttleGroup);
+        return groupEntries == null ? null : groupEntries.get(throttleParam);
+    }
+
+    /**
+     * Unlock the entry and reset its occurrences if the lock has expired.
+     */
+    private void releaseExpiredLock(String throttleGroup, String throttleParam, ThrottleEntry entry,
+                                    long currentTime) throws OBThrottlerException {
+
+        if (entry.unlockIfExpired(currentTime)) {
+            entry.getCounter().reset();
+            if (entry.isPersisted()) {
+                entry.setPersisted(false);
+                deletePersistedLock(throttleGroup, throttleParam);
+            }
+        }
+    }
+
+    /**
+     * Remove entries which are neither locked nor accessed within their throttle window. Entries are retired before
+     * they are removed, so that a concurrent update does not count an occurrence on a removed entry.
+     */
+    private void purgeIdleEntries(long currentTime) {
+
+        throttleEntries.values().forEach(groupEntries -> groupEntries.forEach((throttleParam, entry) -> {
+            if (entry.retireIfIdle(currentTime)) {
+                groupEntries.remove(throttleParam, entry);
+            }
+        }));
+    }
+
+    private void persistLock(String throttleGroup, String throttleParam, ThrottleEntry entry, long currentTime,
+                             long unlockTime, int occurrences) throws OBThrottlerException {
+
+        OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
+        Timestamp currentTimestamp = new Timestamp(currentTime);
+        Timestamp unlockTimestamp = new Timestamp(unlockTime);
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            if (!obThrottlerDAO.isThrottleDataExists(connection, throttleGroup, throttleParam)) {
+                obThrottlerDAO.storeThrottleData(connection, throttleGroup, throttleParam, currentTimestamp,
+                        unlockTimestamp);
+            }
+            obThrottlerDAO.updateThrottleData(connection, throttleGroup, throttleParam, currentTimestamp,
+                    unlockTimestamp, occurrences);
+            DatabaseUtil.commitTransaction(connection);
+            entry.setPersisted(true);
+            log.debug(OBThrottlerServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+        } catch (OBThrottlerDataInsertionException e) {
+            log.error(OBThrottlerServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_INSERTION_ROLLBACK_ERROR_MSG, e);
+        } catch (OBThrottlerDataUpdationException e) {
+            log.error(OBThrottlerServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_UPDATE_ROLLBACK_ERROR_MSG, e);
+        } catch (OBThrottlerDataRetrievalException e) {
+            log.error(OBThrottlerServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_RETRIEVE_ERROR_MSG, e);
+        } finally {
+            log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    private void deletePersistedLock(String throttleGroup, String throttleParam) throws OBThrottlerException {
+
+        OBThrottlerDAO obThrottlerDAO = DataStoreInitializer.initializeOBThrottlerDAO();
+        Connection connection = DatabaseUtil.getDBConnection();
+
+        try {
+            obThrottlerDAO.deleteThrottleData(connection, throttleGroup, throttleParam);
+            DatabaseUtil.commitTransaction(connection);
+            log.debug(OBThrottlerServiceConstants.TRANSACTION_COMMITTED_LOG_MSG);
+        } catch (OBThrottlerDataDeletionException e) {
+            log.error(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
+            DatabaseUtil.rollbackTransaction(connection);
+            throw new OBThrottlerException(OBThrottlerServiceConstants.DATA_DELETE_ROLLBACK_ERROR_MSG, e);
+        } finally {
+            log.debug(OBThrottlerServiceConstants.DATABASE_CONNECTION_CLOSE_LOG_MSG);
+            DatabaseUtil.closeConnection(connection);
+        }
+    }
+}
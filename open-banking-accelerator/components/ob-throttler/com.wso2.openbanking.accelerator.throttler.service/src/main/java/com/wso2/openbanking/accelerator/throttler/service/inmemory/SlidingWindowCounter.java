@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.throttler.service.inmemory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free sliding window counter.
+ * <p>
+ * The window is split into a fixed number of buckets. Each bucket holds the time slot it belongs to and the number of
+ * occurrences within that slot packed into a single long, so that a bucket can be rolled over and incremented with a
+ * single compare and set operation.
+ */
+class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 22;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray buckets;
+    private final long bucketMillis;
+
+    SlidingWindowCounter(long windowMillis, int bucketCount) {
+
+        this.buckets = new AtomicLongArray(bucketCount);
+        this.bucketMillis = Math.max(1L, windowMillis / bucketCount);
+    }
+
+    /**
+     * Record an occurrence.
+     *
+     * @param currentTime  current time in milliseconds
+     * @return number of occurrences within the window including this one
+     */
+    int increment(long currentTime) {
+
+        long slot = currentTime / bucketMillis;
+        int index = (int) (slot % buckets.length());
+        while (true) {
+            long current = buckets.get(index);
+            long next;
+            if ((current >>> COUNT_BITS) == slot) {
+                next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+            } else {
+                next = (slot << COUNT_BITS) | 1L;
+            }
+            if (buckets.compareAndSet(index, current, next)) {
+                break;
+            }
+        }
+        return count(currentTime);
+    }
+
+    /**
+     * Get the number of occurrences within the window.
+     *
+     * @param currentTime  current time in milliseconds
+     * @return number of occurrences
+     */
+    int count(long currentTime) {
+
+        long slot = currentTime / bucketMillis;
+        long oldestSlot = slot - buckets.length();
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long value = buckets.get(i);
+            long bucketSlot = value >>> COUNT_BITS;
+            if (bucketSlot > oldestSlot && bucketSlot <= slot) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    /**
+     * Clear all recorded occurrences.
+     */
+    void reset() {
+
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0L);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.throttler.service.inmemory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In memory throttle state of a single throttle group and parameter.
+ */
+class ThrottleEntry {
+
+    private static final long UNLOCKED = 0L;
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final SlidingWindowCounter counter;
+    private final long windowMillis;
+    private final AtomicLong unlockTime = new AtomicLong(UNLOCKED);
+    private final AtomicLong lastAccessTime;
+    private volatile boolean persisted;
+
+    ThrottleEntry(long windowMillis, int bucketCount, long createdTime) {
+
+        this.counter = new SlidingWindowCounter(windowMillis, bucketCount);
+        this.windowMillis = windowMillis;
+        this.lastAccessTime = new AtomicLong(createdTime);
+    }
+
+    SlidingWindowCounter getCounter() {
+
+        return counter;
+    }
+
+    boolean isLocked(long currentTime) {
+
+        return unlockTime.get() > currentTime;
+    }
+
+    /**
+     * Lock the entry until the given time. An already locked entry is extended instead.
+     *
+     * @param currentTime  current time in milliseconds
+     * @param unlockAt     time in milliseconds the entry should be unlocked
+     * @return true if the entry moved from unlocked to locked state
+     */
+    boolean lock(long currentTime, long unlockAt) {
+
+        while (true) {
+            long current = unlockTime.get();
+            boolean locked = current > currentTime;
+            long next = locked ? Math.max(current, unlockAt) : unlockAt;
+            if (unlockTime.compareAndSet(current, next)) {
+                return !locked;
+            }
+        }
+    }
+
+    /**
+     * Release the lock if it has expired.
+     *
+     * @param currentTime  current time in milliseconds
+     * @return true if this call moved the entry from locked to unlocked state
+     */
+    boolean unlockIfExpired(long currentTime) {
+
+        long current = unlockTime.get();
+        return current != UNLOCKED && current <= currentTime && unlockTime.compareAndSet(current, UNLOCKED);
+    }
+
+    /**
+     * Mark the entry as accessed, unless it has been retired.
+     *
+     * @param currentTime  current time in milliseconds
+     * @return false if the entry is retired and must not be updated
+     */
+    boolean touch(long currentTime) {
+
+        while (true) {
+            long current = lastAccessTime.get();
+            if (current == RETIRED) {
+                return false;
+            }
+            if (current >= currentTime || lastAccessTime.compareAndSet(current, currentTime)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Retire the entry if it carries no state worth keeping. A retired entry is never accessed again, so that an
+     * update racing with the removal of the entry moves on to a new entry instead of updating the removed one.
+     *
+     * @param currentTime  current time in milliseconds
+     * @return true if the entry was unlocked, not persisted and not accessed within the window, and is now retired
+     */
+    boolean retireIfIdle(long currentTime) {
+
+        long current = lastAccessTime.get();
+        return current != RETIRED && unlockTime.get() <= currentTime && !persisted &&
+                current + windowMillis <= currentTime && lastAccessTime.compareAndSet(current, RETIRED);
+    }
+
+    boolean isPersisted() {
+
+        return persisted;
+    }
+
+    void setPersisted(boolean persisted) {
+
+        this.persisted = persisted;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package com.wso2.openbanking.accelerator.throttler.service.internal;
 
+import com.wso2.openbanking.accelerator.throttler.service.inmemory.InMemoryThrottler;
 import org.wso2.carbon.user.core.service.RealmService;
 
 /**
@@ -27,6 +28,7 @@ public class OBThrottlerDataHolder {
     private static OBThrottlerDataHolder instance = new OBThrottlerDataHolder();
 
     private RealmService realmService;
+    private volatile InMemoryThrottler inMemoryThrottler;
 
     private OBThrottlerDataHolder() {
 
@@ -49,4 +51,19 @@ public class OBThrottlerDataHolder {
 
         this.realmService = realmService;
     }
+
+    /**
+     * Get the in memory throttler backend.
+     *
+     * @return in memory throttler, or null if the database backend is used
+     */
+    public InMemoryThrottler getInMemoryThrottler() {
+
+        return inMemoryThrottler;
+    }
+
+    void setInMemoryThrottler(InMemoryThrottler inMemoryThrottler) {
+
+        this.inMemoryThrottler = inMemoryThrottler;
+    }
 }
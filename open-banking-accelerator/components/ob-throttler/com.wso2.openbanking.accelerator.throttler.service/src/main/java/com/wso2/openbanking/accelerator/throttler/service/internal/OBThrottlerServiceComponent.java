@@ -17,7 +17,10 @@
  */
 package com.wso2.openbanking.accelerator.throttler.service.internal;
 
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
+import com.wso2.openbanking.accelerator.common.constant.OpenBankingConstants;
 import com.wso2.openbanking.accelerator.throttler.service.OBThrottleService;
+import com.wso2.openbanking.accelerator.throttler.service.inmemory.InMemoryThrottler;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
@@ -63,6 +66,11 @@ public class OBThrottlerServiceComponent {
     protected void activate(ComponentContext ctxt) {
 
         try {
+            if (OpenBankingConstants.THROTTLER_BACKEND_IN_MEMORY.equalsIgnoreCase(
+                    OpenBankingConfigParser.getInstance().getThrottlerBackend())) {
+                OBThrottlerDataHolder.getInstance().setInMemoryThrottler(new InMemoryThrottler());
+                log.debug("Using the in memory throttler backend");
+            }
             OBThrottleService obThrottleService = OBThrottleService.getInstance();
             ctxt.getBundleContext().registerService(OBThrottleService.class.getName(),
                     obThrottleService, null);
@@ -76,6 +84,7 @@ public class OBThrottlerServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext ctxt) {
 
+        OBThrottlerDataHolder.getInstance().setInMemoryThrottler(null);
         log.debug("OBThrottleService bundle is deactivated");
     }
 
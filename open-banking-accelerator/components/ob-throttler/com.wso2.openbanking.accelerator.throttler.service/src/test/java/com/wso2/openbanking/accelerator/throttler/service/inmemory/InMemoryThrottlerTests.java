@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.wso2.openbanking.accelerator.throttler.service.inmemory;
+
+import com.wso2.openbanking.accelerator.common.util.DatabaseUtil;
+import com.wso2.openbanking.accelerator.throttler.dao.OBThrottlerDAO;
+import com.wso2.openbanking.accelerator.throttler.dao.persistence.DataStoreInitializer;
+import com.wso2.openbanking.accelerator.throttler.service.util.OBThrottleServiceTestData;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.Assert;
+import org.testng.IObjectFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test for the in memory throttler backend.
+ */
+@PowerMockIgnore("jdk.internal.reflect.*")
+@PrepareForTest({DatabaseUtil.class, DataStoreInitializer.class})
+public class InMemoryThrottlerTests {
+
+    private static final int THROTTLE_LIMIT = 3;
+    private static final int THROTTLE_TIME_PERIOD = 180;
+
+    private OBThrottlerDAO mockedOBThrottlerDAO;
+    private AtomicLong currentTime;
+    private InMemoryThrottler inMemoryThrottler;
+
+    @BeforeMethod
+    public void init() throws Exception {
+
+        mockedOBThrottlerDAO = Mockito.mock(OBThrottlerDAO.class);
+        PowerMockito.mockStatic(DatabaseUtil.class);
+        PowerMockito.when(DatabaseUtil.getDBConnection()).thenReturn(Mockito.mock(Connection.class));
+        PowerMockito.mockStatic(DataStoreInitializer.class);
+        PowerMockito.when(DataStoreInitializer.initializeOBThrottlerDAO()).thenReturn(mockedOBThrottlerDAO);
+
+        currentTime = new AtomicLong(OBThrottleServiceTestData.CURRENT_TIMESTAMP.getTime());
+        inMemoryThrottler = new InMemoryThrottler(currentTime::get);
+    }
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+
+        return new org.powermock.modules.testng.PowerMockObjectFactory();
+    }
+
+    @Test
+    public void testNotThrottledWithinLimit() throws Exception {
+
+        recordAttempts(THROTTLE_LIMIT);
+
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        Mockito.verifyZeroInteractions(mockedOBThrottlerDAO);
+    }
+
+    @Test
+    public void testOnlyLockTransitionIsPersisted() throws Exception {
+
+        recordAttempts(THROTTLE_LIMIT + 3);
+
+        Assert.assertTrue(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        Mockito.verify(mockedOBThrottlerDAO, Mockito.times(1)).storeThrottleData(Mockito.anyObject(),
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyObject(), Mockito.anyObject());
+        Mockito.verify(mockedOBThrottlerDAO, Mockito.times(1)).updateThrottleData(Mockito.anyObject(),
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyObject(), Mockito.anyObject(),
+                Mockito.eq(THROTTLE_LIMIT + 1));
+    }
+
+    @Test
+    public void testLockIsReleasedAfterThrottleTimePeriod() throws Exception {
+
+        recordAttempts(THROTTLE_LIMIT + 1);
+        currentTime.addAndGet(TimeUnit.SECONDS.toMillis(THROTTLE_TIME_PERIOD));
+
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        Mockito.verify(mockedOBThrottlerDAO, Mockito.times(1)).deleteThrottleData(Mockito.anyObject(),
+                Mockito.eq(OBThrottleServiceTestData.THROTTLE_GROUP),
+                Mockito.eq(OBThrottleServiceTestData.THROTTLE_PARAM));
+
+        // Occurrences are reset with the lock
+        recordAttempts(1);
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+    }
+
+    @Test
+    public void testOccurrencesOutsideWindowAreNotCounted() throws Exception {
+
+        recordAttempts(THROTTLE_LIMIT);
+        currentTime.addAndGet(TimeUnit.SECONDS.toMillis(THROTTLE_TIME_PERIOD));
+        recordAttempts(1);
+
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+    }
+
+    @Test
+    public void testDeleteRecordOnSuccessAttempt() throws Exception {
+
+        recordAttempts(THROTTLE_LIMIT + 1);
+        inMemoryThrottler.deleteRecordOnSuccessAttempt(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM);
+
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        Mockito.verify(mockedOBThrottlerDAO, Mockito.times(1)).deleteThrottleData(Mockito.anyObject(),
+                Mockito.eq(OBThrottleServiceTestData.THROTTLE_GROUP),
+                Mockito.eq(OBThrottleServiceTestData.THROTTLE_PARAM));
+    }
+
+    @Test
+    public void testThrottleGroupsAreSeparated() throws Exception {
+
+        recordAttempts(THROTTLE_LIMIT + 1);
+
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_SECOND_GROUP,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+    }
+
+    @Test
+    public void testConcurrentUpdatesAreNotLost() throws Exception {
+
+        int threadCount = 8;
+        int attemptsPerThread = 100;
+        int throttleLimit = threadCount * attemptsPerThread;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < attemptsPerThread; j++) {
+                        inMemoryThrottler.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH,
+                                OBThrottleServiceTestData.THROTTLE_PARAM, throttleLimit, THROTTLE_TIME_PERIOD);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Assert.assertFalse(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+        inMemoryThrottler.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH,
+                OBThrottleServiceTestData.THROTTLE_PARAM, throttleLimit, THROTTLE_TIME_PERIOD);
+        Assert.assertTrue(inMemoryThrottler.isThrottled(OBThrottleServiceTestData.THROTTLE_GROUP_BASIC_AUTH,
+                OBThrottleServiceTestData.THROTTLE_PARAM));
+    }
+
+    @Test
+    public void testRetiredEntryIsNotUpdated() {
+
+        long windowMillis = TimeUnit.SECONDS.toMillis(THROTTLE_TIME_PERIOD);
+        ThrottleEntry entry = new ThrottleEntry(windowMillis, 10, currentTime.get());
+
+        Assert.assertFalse(entry.retireIfIdle(currentTime.get()));
+        Assert.assertTrue(entry.retireIfIdle(currentTime.get() + windowMillis));
+        Assert.assertFalse(entry.touch(currentTime.get() + windowMillis));
+    }
+
+    @Test
+    public void testAccessedEntryIsNotRetired() {
+
+        long windowMillis = TimeUnit.SECONDS.toMillis(THROTTLE_TIME_PERIOD);
+        ThrottleEntry entry = new ThrottleEntry(windowMillis, 10, currentTime.get());
+
+        Assert.assertTrue(entry.touch(currentTime.get() + windowMillis));
+        Assert.assertFalse(entry.retireIfIdle(currentTime.get() + windowMillis));
+    }
+
+    private void recordAttempts(int attempts) throws Exception {
+
+        for (int i = 0; i < attempts; i++) {
+            inMemoryThrottler.updateThrottleData(OBThrottleServiceTestData.THROTTLE_GROUP,
+                    OBThrottleServiceTestData.THROTTLE_PARAM, THROTTLE_LIMIT, THROTTLE_TIME_PERIOD);
+        }
+    }
+}
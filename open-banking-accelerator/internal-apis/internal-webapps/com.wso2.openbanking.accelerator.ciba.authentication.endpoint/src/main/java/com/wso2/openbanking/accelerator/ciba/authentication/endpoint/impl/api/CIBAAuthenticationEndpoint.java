@@ -45,8 +45,8 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -190,38 +190,39 @@ public class CIBAAuthenticationEndpoint {
 
         String responseStr = null;
         try {
-            CloseableHttpClient client = HTTPClientUtils.getHttpsClient();
-            HttpResponse response = client.execute(request);
-            responseStr = EntityUtils.toString(response.getEntity());
-
-            if ((response.getStatusLine().getStatusCode() / 100) != 2) {
-                if (response.getStatusLine().getStatusCode() == HttpURLConnection.HTTP_UNAUTHORIZED) {
-                    log.debug("Received unauthorized(401) response. body: " + responseStr);
-                    throw new CIBAAuthenticationEndpointException(HttpStatus.SC_UNAUTHORIZED,
-                            CIBAAuthenticationEndpointConstants.ErrorMessages.ERROR_CODE_UNAUTHORIZED.getMessage(),
-                            "Received unauthorized Response: " + responseStr);
-                }
-            } else {
-                // received success (200 range) response
-                Object responseJSON;
-                try {
-                    responseJSON = new JSONParser(JSONParser.MODE_PERMISSIVE).parse(responseStr);
-                    if (!(responseJSON instanceof JSONObject)) {
-                        log.error("Discovery call response is not a JSON object");
-                        throw new CIBAAuthenticationEndpointException(HttpStatus.SC_BAD_REQUEST,
-                                CIBAAuthenticationEndpointConstants.ErrorMessages.ERROR_CODE_BAD_REQUEST.getMessage(),
-                                "Discovery call response is not a JSON object");
+            CloseableHttpClient client = HTTPClientUtils.getHttpsClient(HTTPClientUtils.DEFAULT_CLIENT);
+            try (CloseableHttpResponse response = client.execute(request)) {
+                responseStr = EntityUtils.toString(response.getEntity());
+
+                if ((response.getStatusLine().getStatusCode() / 100) != 2) {
+                    if (response.getStatusLine().getStatusCode() == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                        log.debug("Received unauthorized(401) response. body: " + responseStr);
+                        throw new CIBAAuthenticationEndpointException(HttpStatus.SC_UNAUTHORIZED,
+                                CIBAAuthenticationEndpointConstants.ErrorMessages.ERROR_CODE_UNAUTHORIZED.getMessage(),
+                                "Received unauthorized Response: " + responseStr);
+                    }
+                } else {
+                    // received success (200 range) response
+                    Object responseJSON;
+                    try {
+                        responseJSON = new JSONParser(JSONParser.MODE_PERMISSIVE).parse(responseStr);
+                        if (!(responseJSON instanceof JSONObject)) {
+                            log.error("Discovery call response is not a JSON object");
+                            throw new CIBAAuthenticationEndpointException(HttpStatus.SC_BAD_REQUEST,
+                                    CIBAAuthenticationEndpointConstants.ErrorMessages.ERROR_CODE_BAD_REQUEST
+                                            .getMessage(),
+                                    "Discovery call response is not a JSON object");
+                        }
+                    } catch (net.minidev.json.parser.ParseException e) {
+                        throw new CIBAAuthenticationEndpointException(HttpStatus.SC_INTERNAL_SERVER_ERROR,
+                                CIBAAuthenticationEndpointConstants.ErrorMessages.ERROR_CODE_SERVER_ERROR.getMessage(),
+                                "Unable to parse the response", e);
                     }
-                } catch (net.minidev.json.parser.ParseException e) {
-                    throw new CIBAAuthenticationEndpointException(HttpStatus.SC_INTERNAL_SERVER_ERROR,
-                            CIBAAuthenticationEndpointConstants.ErrorMessages.ERROR_CODE_SERVER_ERROR.getMessage(),
-                            "Unable to parse the response", e);
-                }
 
-                JSONObject responseData = (JSONObject) responseJSON;
-                return responseData;
+                    JSONObject responseData = (JSONObject) responseJSON;
+                    return responseData;
+                }
             }
-
         } catch (IOException e) {
             log.error("Exception occurred while reading request. Caused by, ", e);
         } catch (OpenBankingException e) {
@@ -18,11 +18,11 @@
 
 package com.wso2.openbanking.accelerator.event.notifications.endpoint.api;
 
+import com.wso2.openbanking.accelerator.common.config.OpenBankingConfigParser;
 import com.wso2.openbanking.accelerator.event.notifications.endpoint.constants.EventNotificationEndPointConstants;
 import com.wso2.openbanking.accelerator.event.notifications.endpoint.util.EventNotificationUtils;
 import com.wso2.openbanking.accelerator.event.notifications.service.constants.EventNotificationConstants;
 import com.wso2.openbanking.accelerator.event.notifications.service.handler.EventPollingServiceHandler;
-import com.wso2.openbanking.accelerator.event.notifications.service.response.EventPollingResponse;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.swagger.annotations.ApiOperation;
 import net.minidev.json.JSONObject;
@@ -34,6 +34,8 @@ import org.apache.commons.logging.LogFactory;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -41,6 +43,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
@@ -56,6 +60,7 @@ public class EventPollingEndpoint {
     private static final Log log = LogFactory.getLog(EventCreationEndpoint.class);
     private static final EventPollingServiceHandler eventPollingServiceHandler = EventNotificationUtils.
             getEventPollingServiceHandler();
+    private static final long ASYNC_RESPONSE_TIMEOUT_MARGIN_SECONDS = 10;
 
     /**
      * Retrieve Event Notifications Using Aggregated Polling.
@@ -72,8 +77,31 @@ public class EventPollingEndpoint {
     @Produces({"application/json; charset=utf-8", "application/jose+jwe"})
     @ApiOperation(value = "Retrieve Events", tags = {"Events"})
 
-    public Response pollEvents(@Context HttpServletRequest request, @Context HttpServletResponse response,
-                               MultivaluedMap parameterMap) {
+    public void pollEvents(@Context HttpServletRequest request, @Context HttpServletResponse response,
+                           MultivaluedMap parameterMap, @Suspended AsyncResponse asyncResponse) {
+
+        // Held requests are answered by the polling service when its timeout elapses. This timeout only applies
+        // if that response is not produced, so that the request is not left suspended.
+        asyncResponse.setTimeout(OpenBankingConfigParser.getInstance().getEventPollingLongPollingTimeout() +
+                ASYNC_RESPONSE_TIMEOUT_MARGIN_SECONDS, TimeUnit.SECONDS);
+        asyncResponse.setTimeoutHandler(timedOutResponse -> timedOutResponse.resume(getEmptyPollingResponse()));
+
+        // Long polling requests are completed once new events arrive, without holding the request thread.
+        getPollingResponse(request, parameterMap).whenComplete((pollingResponse, e) -> {
+            if (e != null) {
+                log.error("Error occurred while polling events", e);
+                asyncResponse.resume(Response.status(Response.Status.INTERNAL_SERVER_ERROR).build());
+            } else {
+                asyncResponse.resume(pollingResponse);
+            }
+        });
+    }
+
+    @SuppressFBWarnings("SERVLET_HEADER")
+    // Suppressed content - request.getHeader()
+    // Suppression reason - False Positive : Header is properly validated to ensure no special characters are passed
+    // Suppressed warning count - 1
+    private CompletableFuture<Response> getPollingResponse(HttpServletRequest request, MultivaluedMap parameterMap) {
 
         String eventPollingData;
         JSONObject eventPollingRequest;
@@ -95,36 +123,43 @@ public class EventPollingEndpoint {
                         eventPollingRequest.put(EventNotificationConstants.X_WSO2_CLIENT_ID, request.
                                 getHeader(EventNotificationConstants.X_WSO2_CLIENT_ID));
                     } else {
-                        return Response.status(Response.Status.BAD_REQUEST).entity(EventNotificationUtils.getErrorDTO(
-                                EventNotificationEndPointConstants.MISSING_REQUEST_HEADER,
-                                EventNotificationConstants.MISSING_HEADER_PARAM_CLIENT_ID)).build();
+                        return getBadRequestResponse(EventNotificationEndPointConstants.MISSING_REQUEST_HEADER,
+                                EventNotificationConstants.MISSING_HEADER_PARAM_CLIENT_ID);
                     }
 
-                    EventPollingResponse eventPollingResponse = eventPollingServiceHandler.
-                            pollEvents(eventPollingRequest);
-
-                    return EventNotificationUtils.mapEventPollingServiceResponse(eventPollingResponse);
+                    return eventPollingServiceHandler.pollEventsAsync(eventPollingRequest)
+                            .thenApply(EventNotificationUtils::mapEventPollingServiceResponse);
 
                 } catch (ParseException e) {
                     log.error("Exception when parsing the request payload", e);
-                    return Response.status(Response.Status.BAD_REQUEST).entity(EventNotificationUtils.getErrorDTO(
-                            EventNotificationEndPointConstants.INVALID_REQUEST_PAYLOAD,
-                            EventNotificationEndPointConstants.REQUEST_PAYLOAD_ERROR)).build();
+                    return getBadRequestResponse(EventNotificationEndPointConstants.INVALID_REQUEST_PAYLOAD,
+                            EventNotificationEndPointConstants.REQUEST_PAYLOAD_ERROR);
                 } catch (ClassCastException e) {
                     log.error(EventNotificationEndPointConstants.REQUEST_PAYLOAD_ERROR, e);
-                    return Response.status(Response.Status.BAD_REQUEST).entity(EventNotificationUtils.getErrorDTO(
-                            EventNotificationEndPointConstants.INVALID_REQUEST_PAYLOAD,
-                            EventNotificationEndPointConstants.REQUEST_PAYLOAD_ERROR)).build();
+                    return getBadRequestResponse(EventNotificationEndPointConstants.INVALID_REQUEST_PAYLOAD,
+                            EventNotificationEndPointConstants.REQUEST_PAYLOAD_ERROR);
                 }
             } else {
-                return Response.status(Response.Status.BAD_REQUEST).entity(EventNotificationUtils.getErrorDTO(
-                        EventNotificationEndPointConstants.INVALID_REQUEST_PAYLOAD,
-                        EventNotificationEndPointConstants.EMPTY_REQ_PAYLOAD)).build();
+                return getBadRequestResponse(EventNotificationEndPointConstants.INVALID_REQUEST_PAYLOAD,
+                        EventNotificationEndPointConstants.EMPTY_REQ_PAYLOAD);
             }
         } else {
-            return Response.status(Response.Status.BAD_REQUEST).entity(EventNotificationUtils.getErrorDTO(
-                    EventNotificationEndPointConstants.MISSING_REQUEST_PAYLOAD,
-                    EventNotificationConstants.MISSING_REQ_PAYLOAD)).build();
+            return getBadRequestResponse(EventNotificationEndPointConstants.MISSING_REQUEST_PAYLOAD,
+                    EventNotificationConstants.MISSING_REQ_PAYLOAD);
         }
     }
+
+    private static Response getEmptyPollingResponse() {
+
+        JSONObject responseJSON = new JSONObject();
+        responseJSON.put(EventNotificationConstants.SETS, new JSONObject());
+        responseJSON.put(EventNotificationConstants.MORE_AVAILABLE, false);
+        return Response.status(Response.Status.OK).entity(responseJSON).build();
+    }
+
+    private static CompletableFuture<Response> getBadRequestResponse(String error, String errorDescription) {
+
+        return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                .entity(EventNotificationUtils.getErrorDTO(error, errorDescription)).build());
+    }
 }